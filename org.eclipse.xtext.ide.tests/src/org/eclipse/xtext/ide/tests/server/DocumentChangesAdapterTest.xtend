@@ -0,0 +1,44 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ide.tests.server
+
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl
+import org.eclipse.xtext.ide.server.DocumentChangesAdapter
+import org.eclipse.xtext.ide.server.DocumentChangesAdapter.TextChange
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class DocumentChangesAdapterTest {
+
+	@Test def void testChangeSince() {
+		// 0123456789
+		val adapter = DocumentChangesAdapter.install(new ResourceImpl, 1)
+		assertEquals(new TextChange(1, 1, 0, 0, 0), adapter.getChangeSince(1))
+		// 012xx56789
+		adapter.recordChange(2, 3, 2, 2)
+		// 012xx5yyy6789
+		adapter.recordChange(2, 6, 0, 3)
+		// 0zxx5yyy6789
+		adapter.recordChange(3, 1, 2, 1)
+		assertEquals(3, adapter.version)
+		assertEquals(new TextChange(1, 3, 1, 5, 7), adapter.getChangeSince(1))
+		assertEquals(new TextChange(2, 3, 1, 2, 1), adapter.getChangeSince(2))
+		assertNull(adapter.getChangeSince(0))
+	}
+
+	@Test def void testInstallReplacesAdapter() {
+		val resource = new ResourceImpl
+		DocumentChangesAdapter.install(resource, 1).recordChange(2, 0, 1, 1)
+		val adapter = DocumentChangesAdapter.install(resource, 5)
+		assertSame(adapter, DocumentChangesAdapter.find(resource))
+		assertEquals(1, resource.eAdapters.size)
+		assertNull(adapter.getChangeSince(1))
+	}
+
+}
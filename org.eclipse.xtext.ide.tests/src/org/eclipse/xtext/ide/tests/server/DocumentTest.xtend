@@ -21,7 +21,7 @@ import static org.junit.Assert.*
 class DocumentTest {
     
     @Test def void testOffSet() {
-        new Document(1, '''
+        newDocument(1, '''
             hello world
             foo
             bar
@@ -43,7 +43,7 @@ class DocumentTest {
     }
     
     @Test def void testOffSet_empty() {
-        new Document(1, "") => [
+        newDocument(1, "") => [
             assertEquals(0, getOffSet(position(0,0)))
             try {
                 getOffSet(position(0, 12))
@@ -55,7 +55,7 @@ class DocumentTest {
     }
     
     @Test def void testUpdate_01() {
-        new Document(1, '''
+        newDocument(1, '''
             hello world
             foo
             bar
@@ -70,7 +70,7 @@ class DocumentTest {
     }
     
     @Test def void testUpdate_02() {
-        new Document(1, '''
+        newDocument(1, '''
             hello world
             foo
             bar
@@ -86,7 +86,7 @@ class DocumentTest {
     }
     
     @Test def void testUpdate_03() {
-        new Document(1, '''
+        newDocument(1, '''
             hello world
             foo
             bar'''.normalize) => [
@@ -97,7 +97,7 @@ class DocumentTest {
     }
     
     @Test def void testUpdate_nonIncrementalChange() {
-        new Document(1, '''
+        newDocument(1, '''
             hello world
             foo
             bar'''.normalize) => [
@@ -107,7 +107,11 @@ class DocumentTest {
         ]
     }
     
-    private def change(Position startPos, Position endPos, String newText) {
+    protected def Document newDocument(int version, String contents) {
+        return new Document(version, contents)
+    }
+    
+    protected def change(Position startPos, Position endPos, String newText) {
         new TextEdit => [
               if (startPos !== null) {
                   range = new Range => [
@@ -119,11 +123,11 @@ class DocumentTest {
             ]
     }
     
-    private def normalize(CharSequence s) {
+    protected def normalize(CharSequence s) {
         return s.toString.replaceAll("\r", "")
     }
     
-    private def position(int l, int c) {
+    protected def position(int l, int c) {
         new Position => [line=l character=c]
     }
     
@@ -0,0 +1,95 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ide.tests.server
+
+import java.util.Random
+import org.eclipse.xtext.ide.server.Document
+import org.eclipse.xtext.ide.server.LineIndexedDocument
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class LineIndexedDocumentTest extends DocumentTest {
+
+	override protected newDocument(int version, String contents) {
+		return new LineIndexedDocument(version, contents)
+	}
+
+	@Test def void testPosition() {
+		newDocument(1, "hello world\r\nfoo\n\nbar") => [
+			assertEquals(position(0, 0), getPosition(0))
+			assertEquals(position(0, 12), getPosition(12))
+			assertEquals(position(1, 0), getPosition(13))
+			assertEquals(position(2, 0), getPosition(17))
+			assertEquals(position(3, 0), getPosition(18))
+			assertEquals(position(3, 3), getPosition(21))
+			assertEquals(17, getOffSet(position(2, 0)))
+			assertEquals(21, getOffSet(position(3, 3)))
+			try {
+				getPosition(22)
+				fail()
+			} catch (IndexOutOfBoundsException e) {
+				//expected
+			}
+			try {
+				getOffSet(position(4, 0))
+				fail()
+			} catch (IndexOutOfBoundsException e) {
+				//expected
+			}
+		]
+	}
+
+	@Test def void testUpdate_sequentialChanges() {
+		newDocument(1, '''
+			hello world
+			foo
+			bar
+		'''.normalize) => [
+			val result = applyChanges(#[
+				change(position(0, 5), position(1, 0), "\n"),
+				change(position(1, 0), position(1, 0), "new\nline\n"),
+				change(position(3, 0), position(3, 3), "baz")
+			])
+			assertEquals(2, result.version)
+			assertEquals('''
+				hello
+				new
+				line
+				baz
+				bar
+			'''.normalize, result.contents)
+			assertSameIndex(result)
+		]
+	}
+
+	@Test def void testUpdate_random() {
+		val random = new Random(42)
+		var Document document = newDocument(1, '')
+		for (i : 0 ..< 500) {
+			val length = document.contents.length
+			val start = random.nextInt(length + 1)
+			val end = start + random.nextInt(Math.min(10, length - start) + 1)
+			val newText = #['', 'a', '\n', 'ab\ncd', '\n\n', 'xyz'].get(random.nextInt(6))
+			val expected = document.contents.substring(0, start) + newText + document.contents.substring(end)
+			document = document.applyChanges(#[change(document.getPosition(start), document.getPosition(end), newText)])
+			assertEquals(expected, document.contents)
+			assertSameIndex(document)
+		}
+	}
+
+	private def void assertSameIndex(Document document) {
+		val reference = new Document(document.version, document.contents)
+		for (offset : 0 .. document.contents.length) {
+			val position = reference.getPosition(offset)
+			assertEquals(position, document.getPosition(offset))
+			assertEquals(offset, document.getOffSet(position))
+		}
+	}
+
+}
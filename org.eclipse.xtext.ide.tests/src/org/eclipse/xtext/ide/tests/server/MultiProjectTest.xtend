@@ -10,12 +10,16 @@ package org.eclipse.xtext.ide.tests.server
 import com.google.inject.AbstractModule
 import com.google.inject.Guice
 import com.google.inject.Inject
+import com.google.inject.Module
+import com.google.inject.name.Names
 import java.io.File
 import java.io.FileWriter
+import java.util.Collections
 import java.util.List
 import java.util.Map
 import org.eclipse.emf.common.util.URI
 import org.eclipse.xtext.diagnostics.Diagnostic
+import org.eclipse.xtext.ide.server.BuildManager
 import org.eclipse.xtext.ide.server.IWorkspaceConfigFactory
 import org.eclipse.xtext.ide.server.MultiProjectWorkspaceConfigFactory
 import org.eclipse.xtext.ide.server.ServerModule
@@ -36,7 +40,7 @@ class MultiProjectTest {
     
     File project0
     File project1
-    Map<URI, List<Issue>> diagnostics = newHashMap
+    Map<URI, List<Issue>> diagnostics = Collections.synchronizedMap(newHashMap)
     
     @Inject WorkspaceManager workspaceManager
     
@@ -66,14 +70,46 @@ class MultiProjectTest {
         assertTrue(diagnostics.get(bar).empty)
     }
     
+    @Test
+    def void testParallelBuild() {
+        setup([
+            bindConstant.annotatedWith(Names.named(BuildManager.PARALLEL_BUILDS)).to(2)
+        ])
+        val foo = createFile(project0, 'Foo.testlang', '''
+            type Foo {
+                Bar bar
+            }
+        ''')
+        val bar = createFile(project1, 'Bar.testlang', '''
+            type Bar {
+            }
+        ''')
+        workspaceManager.doBuild(#[foo, bar], emptyList, CancelIndicator.NullImpl)
+        assertEquals(Diagnostic.LINKING_DIAGNOSTIC, diagnostics.get(foo).head.code)
+        assertTrue(diagnostics.get(bar).empty)
+
+        // project0 is built after project1 and its deltas follow the ones of project1
+        diagnostics.clear
+        workspaceManager.getProjectManager(project0.name).projectDescription.dependencies += project1.name
+        val deltas = workspaceManager.doBuild(#[foo, bar], emptyList, CancelIndicator.NullImpl)
+        assertEquals(#[bar, foo], deltas.map[uri])
+        assertTrue(diagnostics.get(foo).empty)
+        assertTrue(diagnostics.get(bar).empty)
+    }
+
     @Before
     def void setup() {
+        setup([])
+    }
+
+    protected def void setup(Module module) {
         val injector = Guice.createInjector(Modules2.mixin(new ServerModule, new AbstractModule() {
             override protected configure() {
                 bind(IWorkspaceConfigFactory).to(MultiProjectWorkspaceConfigFactory)
             }
-        }))
+        }, module))
         injector.injectMembers(this)
+        diagnostics.clear
         val workspaceRoot = getRoot("test-data")
         project0 = new File(workspaceRoot, "test-project0")
         project1 = new File(workspaceRoot, "test-project1")
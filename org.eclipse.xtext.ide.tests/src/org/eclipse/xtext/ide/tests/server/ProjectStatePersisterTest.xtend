@@ -0,0 +1,202 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ide.tests.server
+
+import com.google.inject.AbstractModule
+import com.google.inject.Guice
+import java.io.File
+import java.io.FileWriter
+import java.util.List
+import java.util.Map
+import org.eclipse.core.runtime.OperationCanceledException
+import org.eclipse.emf.common.util.URI
+import org.eclipse.xtext.diagnostics.Diagnostic
+import org.eclipse.xtext.ide.server.ProjectStatePersister
+import org.eclipse.xtext.ide.server.ServerModule
+import org.eclipse.xtext.ide.server.UriExtensions
+import org.eclipse.xtext.ide.server.WorkspaceManager
+import org.eclipse.xtext.resource.IResourceDescription.Delta
+import org.eclipse.xtext.resource.impl.CopyOnWriteResourceDescriptionsData
+import org.eclipse.xtext.resource.impl.ProjectDescription
+import org.eclipse.xtext.util.CancelIndicator
+import org.eclipse.xtext.util.Files
+import org.eclipse.xtext.util.Modules2
+import org.eclipse.xtext.validation.Issue
+import org.junit.Before
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class ProjectStatePersisterTest {
+
+	static class TestProjectStatePersister extends ProjectStatePersister {
+
+		override protected getStateFile(ProjectDescription project, URI baseDir) {
+			return new File(stateDir, project.name)
+		}
+
+		override writeProjectState(ProjectDescription project, URI baseDir, ProjectState state) {
+			writes++
+			doWriteProjectState(project.name, getStateFile(project, baseDir), state)
+		}
+
+	}
+
+	static File stateDir
+
+	static int writes
+
+	File root
+
+	Map<URI, List<Issue>> diagnostics = newHashMap
+
+	List<Delta> deltas = newArrayList
+
+	extension UriExtensions = new UriExtensions
+
+	@Before
+	def void setup() {
+		stateDir = getRoot("test-state")
+		root = getRoot("test-data")
+		writes = 0
+	}
+
+	@Test
+	def void testRestoreState() {
+		val foo = createFile('Foo.testlang', '''
+			type Foo {
+				Bar bar
+			}
+		''')
+		val bar = createFile('Bar.testlang', '''
+			type Baz {
+			}
+		''')
+		val workspaceManager = newWorkspaceManager
+		assertEquals(2, deltas.size)
+		assertEquals(Diagnostic.LINKING_DIAGNOSTIC, diagnostics.get(foo).head.code)
+		assertNotNull(workspaceManager.index.getResourceDescription(bar))
+
+		// unchanged resources are not rebuilt but their issues are reported again
+		val restoredManager = newWorkspaceManager
+		assertTrue(deltas.empty)
+		assertEquals(Diagnostic.LINKING_DIAGNOSTIC, diagnostics.get(foo).head.code)
+		assertTrue(diagnostics.get(bar).empty)
+		assertNotNull(restoredManager.index.getResourceDescription(foo))
+		// the restored index is copied in constant time by subsequent builds
+		assertTrue(restoredManager.getProjectManager(foo).indexState.resourceDescriptions instanceof CopyOnWriteResourceDescriptionsData)
+
+		// changed and deleted resources and the affected resources are rebuilt
+		createFile('Bar.testlang', '''
+			type Bar {
+			}
+		''')
+		newWorkspaceManager
+		assertEquals(#{foo, bar}, deltas.map[uri].toSet)
+		assertTrue(diagnostics.get(foo).empty)
+
+		new File(bar.toFileString).delete
+		val lastManager = newWorkspaceManager
+		assertEquals(#{foo, bar}, deltas.map[uri].toSet)
+		assertNull(lastManager.index.getResourceDescription(bar))
+		assertEquals(Diagnostic.LINKING_DIAGNOSTIC, diagnostics.get(foo).head.code)
+	}
+
+	@Test
+	def void testPersistAfterInitialBuildAndOnRequest() {
+		createFile('Foo.testlang', '''
+			type Foo {
+			}
+		''')
+		val workspaceManager = newWorkspaceManager
+		// one state per project
+		val initialWrites = writes
+		assertTrue(initialWrites > 0)
+		val bar = createFile('Bar.testlang', '''
+			type Bar {
+				Foo foo
+			}
+		''')
+		workspaceManager.doBuild(#[bar], emptyList, CancelIndicator.NullImpl)
+		assertEquals(initialWrites, writes)
+		workspaceManager.persistProjectStates
+		assertEquals(2 * initialWrites, writes)
+
+		val restoredManager = newWorkspaceManager
+		assertTrue(deltas.empty)
+		assertNotNull(restoredManager.index.getResourceDescription(bar))
+	}
+
+	@Test
+	def void testCancelledRestoreKeepsPreviousState() {
+		val foo = createFile('Foo.testlang', '''
+			type Foo {
+			}
+		''')
+		newWorkspaceManager
+		createFile('Foo.testlang', '''
+			type Foo2 {
+			}
+		''')
+		val workspaceManager = createWorkspaceManager
+		try {
+			workspaceManager.initialize([true])
+			fail
+		} catch (OperationCanceledException e) {
+			// expected
+		}
+		// the restored state is not installed by the cancelled build
+		val projectManager = workspaceManager.getProjectManager(foo)
+		assertTrue(projectManager.indexState.resourceDescriptions.allResourceDescriptions.empty)
+	}
+
+	private def WorkspaceManager newWorkspaceManager() {
+		val workspaceManager = createWorkspaceManager
+		workspaceManager.initialize(CancelIndicator.NullImpl)
+		return workspaceManager
+	}
+
+	private def WorkspaceManager createWorkspaceManager() {
+		diagnostics.clear
+		deltas.clear
+		val injector = Guice.createInjector(Modules2.mixin(new ServerModule, new AbstractModule() {
+			override protected configure() {
+				bind(ProjectStatePersister).to(TestProjectStatePersister)
+			}
+		}))
+		val workspaceManager = injector.getInstance(WorkspaceManager)
+		workspaceManager.addBuildListener[deltas += it]
+		return workspaceManager
+	}
+
+	private def void initialize(WorkspaceManager workspaceManager, CancelIndicator cancelIndicator) {
+		workspaceManager.initialize(URI.createFileURI(root.absolutePath), [diagnostics.put($0, $1.toList)],
+			cancelIndicator)
+	}
+
+	protected def getRoot(String path) {
+		val root = new File(path)
+		if (!root.mkdirs) {
+			Files.cleanFolder(root, null, true, false)
+		}
+		root.deleteOnExit
+		root
+	}
+
+	def URI createFile(String path, CharSequence contents) {
+		val file = new File(root, path)
+		file.parentFile.mkdirs
+		file.createNewFile
+		new FileWriter(file) => [
+			write(contents.toString)
+			close
+		]
+		return URI.createFileURI(file.absolutePath).withEmptyAuthority
+	}
+
+}
@@ -9,14 +9,26 @@ package org.eclipse.xtext.ide.tests.server
 
 import com.google.inject.Guice
 import com.google.inject.Inject
+import com.google.inject.name.Names
 import java.io.File
 import java.io.FileWriter
+import java.util.concurrent.atomic.AtomicInteger
 import java.util.List
 import java.util.Map
 import org.eclipse.emf.common.util.URI
+import org.eclipse.lsp4j.Position
+import org.eclipse.lsp4j.Range
+import org.eclipse.lsp4j.TextEdit
+import org.eclipse.xtext.diagnostics.Diagnostic
+import org.eclipse.xtext.ide.server.Document
 import org.eclipse.xtext.ide.server.ServerModule
 import org.eclipse.xtext.ide.server.WorkspaceManager
+import org.eclipse.xtext.ide.server.concurrent.RequestManager
+import org.eclipse.xtext.ide.server.symbol.DocumentSymbolService
+import org.eclipse.xtext.resource.XtextResource
+import org.eclipse.xtext.util.CancelIndicator
 import org.eclipse.xtext.util.Files
+import org.eclipse.xtext.util.Modules2
 import org.eclipse.xtext.validation.Issue
 import org.junit.Assert
 import org.junit.Before
@@ -48,6 +60,191 @@ class WorkspaceManagerTest {
         Assert.assertEquals(inMemContents, workspaceManger.doRead(path, [$0.contents]))
     }
 
+    @Test def void testDidChangeReparsesIncrementally() {
+        val path = ('MyType1.testlang' -> '''
+            type Test {
+                NonExisting foo
+            }
+        ''').withEmptyAuthority
+        workspaceManger.doBuild(#[path], emptyList, null)
+        workspaceManger.didOpen(path, 1, '''
+            type Test {
+                NonExisting foo
+            }
+        ''').build(null)
+        val resource = workspaceManger.doRead(path, [$1])
+        Assert.assertEquals(Diagnostic.LINKING_DIAGNOSTIC, diagnostics.get(path).head.code)
+
+        workspaceManger.didChange(path, 2, #[
+            new TextEdit(new Range(new Position(1, 4), new Position(1, 15)), 'Test')
+        ]).build(null)
+        Assert.assertSame(resource, workspaceManger.doRead(path, [$1]))
+        Assert.assertTrue(diagnostics.get(path).empty)
+
+        workspaceManger.didChange(path, 3, #[
+            new TextEdit(new Range(new Position(3, 0), new Position(3, 0)), 'type Other {}\n'),
+            new TextEdit(new Range(new Position(1, 4), new Position(1, 8)), 'Other')
+        ]).build(null)
+        Assert.assertSame(resource, workspaceManger.doRead(path, [$1]))
+        Assert.assertEquals('''
+            type Test {
+                Other foo
+            }
+            type Other {}
+        '''.toString, resource.parseResult.rootNode.text)
+        Assert.assertTrue(diagnostics.get(path).empty)
+    }
+
+    @Test def void testDidChangeAfterDidOpen() {
+        val path = ('MyType1.testlang' -> '''
+            type Test {}
+        ''').withEmptyAuthority
+        workspaceManger.doBuild(#[path], emptyList, null)
+        val resource = workspaceManger.doRead(path, [$1])
+        // the resource was loaded from the file, so it must not be reparsed with the changes of the opened document
+        workspaceManger.didOpen(path, 1, '''
+            type Foo {}
+        ''')
+        workspaceManger.didChange(path, 2, #[
+            new TextEdit(new Range(new Position(0, 5), new Position(0, 8)), 'Bar')
+        ]).build(null)
+        val reloaded = workspaceManger.doRead(path, [$1])
+        Assert.assertNotSame(resource, reloaded)
+        Assert.assertEquals('''
+            type Bar {}
+        '''.toString, reloaded.parseResult.rootNode.text)
+    }
+
+    @Test def void testDocumentSymbolsIncrementally() {
+        val path = ('MyType1.testlang' -> '''
+            type Foo {
+                int bar
+            }
+            type Bar {
+                Foo foo
+            }
+        ''').withEmptyAuthority
+        workspaceManger.doBuild(#[path], emptyList, null)
+        workspaceManger.didOpen(path, 1, '''
+            type Foo {
+                int bar
+            }
+            type Bar {
+                Foo foo
+            }
+        ''').build(null)
+        val first = path.symbols
+        Assert.assertEquals(5, first.key.size)
+        Assert.assertEquals(first.value.toString, first.key.toString)
+
+        workspaceManger.didChange(path, 2, #[
+            new TextEdit(new Range(new Position(4, 8), new Position(4, 11)), 'foo2')
+        ]).build(null)
+        val second = path.symbols
+        Assert.assertEquals(second.value.toString, second.key.toString)
+        Assert.assertEquals('Bar.foo2', second.key.last.name)
+        // the symbols before the change are reused
+        Assert.assertSame(first.key.get(0), second.key.get(0))
+        Assert.assertSame(first.key.get(1), second.key.get(1))
+
+        workspaceManger.didChange(path, 3, #[
+            new TextEdit(new Range(new Position(1, 4), new Position(1, 4)), 'int baz\n    ')
+        ]).build(null)
+        val third = path.symbols
+        Assert.assertEquals(third.value.toString, third.key.toString)
+        Assert.assertEquals(7, third.key.size)
+
+
+        // several changes between two requests
+        workspaceManger.didChange(path, 4, #[
+            new TextEdit(new Range(new Position(0, 5), new Position(0, 8)), 'Foo2')
+        ]).build(null)
+        workspaceManger.didChange(path, 5, #[
+            new TextEdit(new Range(new Position(4, 5), new Position(4, 8)), 'Baz')
+        ]).build(null)
+        val fourth = path.symbols
+        Assert.assertEquals(fourth.value.toString, fourth.key.toString)
+        Assert.assertTrue(fourth.key.exists[name == 'Baz'])
+    }
+
+    /**
+     * Returns the incrementally computed symbols of the given open document and the symbols computed from scratch.
+     */
+    private def getSymbols(URI uri) {
+        return workspaceManger.doRead(uri) [ document, resource |
+            val service = resource.resourceServiceProvider.get(DocumentSymbolService)
+            service.getSymbols(document, resource, null, CancelIndicator.NullImpl)
+                -> service.getSymbols(resource, CancelIndicator.NullImpl)
+        ]
+    }
+
+    @Test def void testDoReadCached() {
+        val path = ('MyType1.testlang' -> '''
+            type Test {
+            }
+        ''').withEmptyAuthority
+        workspaceManger.doBuild(#[path], emptyList, null)
+        val count = new AtomicInteger
+        val (Document, XtextResource)=>Integer work = [count.incrementAndGet]
+
+        // not cached unless open
+        workspaceManger.doRead(path, 'key', work)
+        workspaceManger.doRead(path, 'key', work)
+        Assert.assertEquals(2, count.get)
+
+        workspaceManger.didOpen(path, 1, '''
+            type Test {
+            }
+        ''').build(null)
+        Assert.assertEquals(3, workspaceManger.doRead(path, 'key', work).intValue)
+        Assert.assertEquals(3, workspaceManger.doRead(path, 'key', work).intValue)
+        Assert.assertEquals(4, workspaceManger.doRead(path, 'other', work).intValue)
+
+        val buildable = workspaceManger.didChange(path, 2, #[
+            new TextEdit(new Range(new Position(1, 0), new Position(1, 0)), '    int foo\n')
+        ])
+        Assert.assertEquals(5, workspaceManger.doRead(path, 'key', work).intValue)
+        Assert.assertEquals(5, workspaceManger.doRead(path, 'key', work).intValue)
+        buildable.build(null)
+        Assert.assertEquals(6, workspaceManger.doRead(path, 'key', work).intValue)
+    }
+
+    @Test def void testDoReadSnapshot() {
+        workspaceManger = Guice.createInjector(Modules2.mixin(new ServerModule, [
+            bindConstant.annotatedWith(Names.named(RequestManager.SNAPSHOT_READS)).to(true)
+        ])).getInstance(WorkspaceManager)
+        workspaceManger.initialize(URI.createFileURI(root.absolutePath).withEmptyAuthority, [diagnostics.put($0, $1.toList)], null)
+        val path = ('MyType1.testlang' -> '''
+            type Test {
+                string foo
+            }
+        ''').withEmptyAuthority
+        workspaceManger.doBuild(#[path], emptyList, null)
+        workspaceManger.didOpen(path, 1, '''
+            type Test {
+                Test foo
+            }
+        ''').build(null)
+        // the live resource set is used while no build is pending
+        val liveResourceSet = workspaceManger.getProjectManager(path).resourceSet
+        val resource = workspaceManger.doRead(path, [$1])
+        Assert.assertSame(liveResourceSet, resource.resourceSet)
+
+        // the change is visible before the build
+        val buildable = workspaceManger.didChange(path, 2, #[
+            new TextEdit(new Range(new Position(1, 4), new Position(1, 8)), 'string')
+        ])
+        val changed = workspaceManger.doRead(path, [$1])
+        Assert.assertNotSame(liveResourceSet, changed.resourceSet)
+        Assert.assertSame(changed, workspaceManger.doRead(path, [$1]))
+        Assert.assertEquals(workspaceManger.doRead(path, [$0.contents]), changed.parseResult.rootNode.text)
+        Assert.assertTrue(changed.parseResult.rootNode.text.contains('string foo'))
+
+        buildable.build(null)
+        Assert.assertSame(resource, workspaceManger.doRead(path, [$1]))
+        Assert.assertTrue(resource.parseResult.rootNode.text.contains('string foo'))
+    }
+
     @Inject protected WorkspaceManager workspaceManger
     @Inject extension protected UriExtensions uriExtensions
 
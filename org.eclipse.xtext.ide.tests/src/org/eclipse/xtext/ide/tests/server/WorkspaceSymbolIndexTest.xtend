@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ide.tests.server
+
+import org.eclipse.emf.common.util.URI
+import org.eclipse.xtext.ide.server.symbol.WorkspaceSymbolIndex
+import org.eclipse.xtext.naming.QualifiedName
+import org.eclipse.xtext.resource.IResourceDescription
+import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionDelta
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData
+import org.eclipse.xtext.resource.persistence.SerializableEObjectDescription
+import org.eclipse.xtext.resource.persistence.SerializableResourceDescription
+import org.junit.Test
+
+import static org.junit.Assert.*
+
+class WorkspaceSymbolIndexTest {
+
+	val a = newDescription('file:/a.foo', 'Foo', 'Foo.bar', 'FooBarBaz')
+	val b = newDescription('file:/b.foo', 'Bar.foo')
+
+	@Test def void testRanking() {
+		val index = newIndex
+		assertEquals(#['Foo', 'Bar.foo', 'Foo.bar', 'FooBarBaz'], index.find('foo').names)
+		assertEquals(#['Foo.bar', 'Bar.foo', 'FooBarBaz'], index.find('bar').names)
+		assertEquals(#['FooBarBaz'], index.find('az').names)
+	}
+
+	@Test def void testHumps() {
+		val index = newIndex
+		assertEquals(#['FooBarBaz'], index.find('FBB').names)
+		assertEquals(#['FooBarBaz'], index.find('FoBa').names)
+		assertEquals(#[], index.find('FoBz').names)
+	}
+
+	@Test def void testUpdate() {
+		val index = newIndex
+		val c = newDescription('file:/c.foo', 'Xyz')
+		index.update(#[
+			new DefaultResourceDescriptionDelta(b, null),
+			new DefaultResourceDescriptionDelta(null, c)
+		])
+		assertEquals(#['Foo', 'Foo.bar', 'FooBarBaz'], index.find('foo').names)
+		assertEquals(#['Xyz'], index.find('xyz').names)
+
+		val changedA = newDescription('file:/a.foo', 'Foo')
+		index.update(#[new DefaultResourceDescriptionDelta(a, changedA)])
+		assertEquals(#['Foo'], index.find('foo').names)
+		assertEquals(#[], index.find('FBB').names)
+	}
+
+	private def newIndex() {
+		return new WorkspaceSymbolIndex => [
+			initialize(new ResourceDescriptionsData(#[a, b]))
+		]
+	}
+
+	private def getNames(Iterable<WorkspaceSymbolIndex.Entry> entries) {
+		return entries.map[description.qualifiedName.toString].toList
+	}
+
+	private def IResourceDescription newDescription(String uri, String... names) {
+		val resourceURI = URI.createURI(uri)
+		return new SerializableResourceDescription => [
+			URI = resourceURI
+			descriptions = names.map [ name |
+				new SerializableEObjectDescription => [
+					EObjectURI = resourceURI.appendFragment(name)
+					qualifiedName = QualifiedName.create(name.split('\\.'))
+				]
+			].toList
+			references = #[]
+			importedNames = #[]
+		]
+	}
+
+}
@@ -0,0 +1,55 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ide.tests.server
+
+import org.eclipse.xtext.ide.server.LanguageServerImpl
+import org.eclipse.xtext.util.Modules2
+import org.junit.Test
+
+class WorkspaceSymbolLimitTest extends AbstractTestLangLanguageServerTest {
+
+	static class LimitedLanguageServer extends LanguageServerImpl {
+
+		override protected getMaxWorkspaceSymbols() {
+			return 2
+		}
+
+	}
+
+	override protected getServerModule() {
+		return Modules2.mixin(super.getServerModule, [
+			bind(LanguageServerImpl).to(LimitedLanguageServer)
+		])
+	}
+
+	@Test
+	def void testSymbolsUpToLimit() {
+		testSymbol[
+			model = '''
+				type Foo {
+					int bar
+				}
+				type Bar {
+					Foo foo
+				}
+			'''
+			query = 'F'
+			expectedSymbols = '''
+				symbol "Foo" {
+					kind: 7
+					location: MyModel.testlang [[0, 5] .. [0, 8]]
+				}
+				symbol "Foo.bar" {
+					kind: 7
+					location: MyModel.testlang [[1, 5] .. [1, 8]]
+				}
+			'''
+		]
+	}
+
+}
@@ -79,5 +79,29 @@ class WorkspaceSymbolTest extends AbstractTestLangLanguageServerTest {
 			'''
 		]
 	}
+
+	@Test
+	def void testSymbol_03() {
+		testSymbol[
+			model = '''
+				type FooBar {
+					int fooBaz
+				}
+				type Bar {
+				}
+			'''
+			query = 'FoBa'
+			expectedSymbols = '''
+				symbol "FooBar" {
+					kind: 7
+					location: MyModel.testlang [[0, 5] .. [0, 11]]
+				}
+				symbol "FooBar.fooBaz" {
+					kind: 7
+					location: MyModel.testlang [[1, 5] .. [1, 11]]
+				}
+			'''
+		]
+	}
 	
 }
\ No newline at end of file
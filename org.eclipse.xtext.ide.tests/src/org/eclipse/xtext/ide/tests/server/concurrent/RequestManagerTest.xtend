@@ -9,10 +9,15 @@ package org.eclipse.xtext.ide.tests.server.concurrent
 
 import com.google.inject.Guice
 import com.google.inject.Inject
+import com.google.inject.name.Names
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
 import java.util.concurrent.atomic.AtomicBoolean
 import java.util.concurrent.atomic.AtomicInteger
 import org.eclipse.xtext.ide.server.ServerModule
 import org.eclipse.xtext.ide.server.concurrent.RequestManager
+import org.eclipse.xtext.ide.server.concurrent.RequestPriority
+import org.eclipse.xtext.util.Modules2
 import org.junit.After
 import org.junit.Before
 import org.junit.Test
@@ -131,4 +136,113 @@ class RequestManagerTest {
 		}
 	}
 
+	@Test(timeout = 1000)
+	def void testInteractiveReadIsCancelledByWrite() {
+		val started = new CountDownLatch(1)
+		val read = requestManager.runRead(RequestPriority.INTERACTIVE) [ cancelIndicator |
+			started.countDown
+			while (!cancelIndicator.isCanceled) {
+				Thread.sleep(10)
+			}
+			return null
+		]
+		started.await
+		requestManager.runWrite([], [
+			sharedState.incrementAndGet
+		]).join
+		assertTrue(read.cancelled)
+		assertEquals(1, sharedState.get)
+	}
+
+	@Test(timeout = 3000)
+	def void testCoalescedWrites() {
+		requestManager.debounceWindow = 500
+		val first = requestManager.runCoalescedWrite([sharedState.incrementAndGet], [
+			sharedState.addAndGet(10)
+		])
+		// let the first write enter its debounce window
+		Thread.sleep(100)
+		val second = requestManager.runCoalescedWrite([sharedState.incrementAndGet], [
+			sharedState.addAndGet(10)
+		])
+		assertEquals(12, second.join)
+		assertTrue(first.cancelled)
+		assertEquals(2, requestManager.writeStatistics.startedRequests)
+	}
+
+	@Test(timeout = 1000)
+	def void testInteractiveReadEndsDebounce() {
+		requestManager.debounceWindow = 10000
+		requestManager.runCoalescedWrite([], [
+			sharedState.incrementAndGet
+		])
+		val read = requestManager.runRead(RequestPriority.INTERACTIVE) [
+			sharedState.get
+		]
+		assertEquals(1, read.get)
+	}
+
+	@Test(timeout = 3000)
+	def void testInteractiveReadDoesNotEndLaterDebounce() {
+		requestManager.debounceWindow = 500
+		requestManager.runRead(RequestPriority.INTERACTIVE) [
+			sharedState.get
+		].join
+		val write = requestManager.runCoalescedWrite([], [
+			sharedState.incrementAndGet
+		])
+		Thread.sleep(200)
+		assertFalse(write.done)
+		assertEquals(1, write.get)
+	}
+
+	@Test(timeout = 3000)
+	def void testReadDuringDebounce() {
+		requestManager.debounceWindow = 500
+		val write = requestManager.runCoalescedWrite([sharedState.incrementAndGet], [
+			sharedState.addAndGet(10)
+		])
+		val read = requestManager.runRead [
+			sharedState.get
+		]
+		assertEquals(1, read.get)
+		assertFalse(write.done)
+		assertEquals(11, write.get)
+	}
+
+	@Test(timeout = 1000)
+	def void testStatistics() {
+		requestManager.runRead(RequestPriority.INTERACTIVE) [
+			'Foo'
+		].join
+		requestManager.runRead [
+			'Bar'
+		].join
+		val statistics = requestManager.getReadStatistics(RequestPriority.INTERACTIVE)
+		assertEquals(1, statistics.startedRequests)
+		assertEquals(0, statistics.queueDepth)
+		assertTrue(statistics.getMaxWaitTime(TimeUnit.NANOSECONDS) >= statistics.getAverageWaitTime(TimeUnit.NANOSECONDS))
+		assertEquals(1, requestManager.getReadStatistics(RequestPriority.BACKGROUND).startedRequests)
+	}
+
+	@Test(timeout = 1000)
+	def void testSnapshotReadDuringWrite() {
+		requestManager.shutdown
+		Guice.createInjector(Modules2.mixin(new ServerModule, [
+			bindConstant.annotatedWith(Names.named(RequestManager.SNAPSHOT_READS)).to(true)
+		])).injectMembers(this)
+		val proceed = new CountDownLatch(1)
+		val write = requestManager.runWrite([sharedState.incrementAndGet], [
+			proceed.await
+			sharedState.incrementAndGet
+		])
+		val read = requestManager.runRead [
+			sharedState.get
+		]
+		assertEquals(1, read.get)
+		assertFalse(write.done)
+		proceed.countDown
+		assertEquals(2, write.get)
+	}
+
 }
@@ -0,0 +1,43 @@
+/**
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.ide.tests.server;
+
+import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
+import org.eclipse.xtext.ide.server.DocumentChangesAdapter;
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("all")
+public class DocumentChangesAdapterTest {
+  @Test
+  public void testChangeSince() {
+    ResourceImpl _resourceImpl = new ResourceImpl();
+    final DocumentChangesAdapter adapter = DocumentChangesAdapter.install(_resourceImpl, 1);
+    DocumentChangesAdapter.TextChange _textChange = new DocumentChangesAdapter.TextChange(1, 1, 0, 0, 0);
+    Assert.assertEquals(_textChange, adapter.getChangeSince(1));
+    adapter.recordChange(2, 3, 2, 2);
+    adapter.recordChange(2, 6, 0, 3);
+    adapter.recordChange(3, 1, 2, 1);
+    Assert.assertEquals(3, adapter.getVersion());
+    DocumentChangesAdapter.TextChange _textChange_1 = new DocumentChangesAdapter.TextChange(1, 3, 1, 5, 7);
+    Assert.assertEquals(_textChange_1, adapter.getChangeSince(1));
+    DocumentChangesAdapter.TextChange _textChange_2 = new DocumentChangesAdapter.TextChange(2, 3, 1, 2, 1);
+    Assert.assertEquals(_textChange_2, adapter.getChangeSince(2));
+    Assert.assertNull(adapter.getChangeSince(0));
+  }
+  
+  @Test
+  public void testInstallReplacesAdapter() {
+    final ResourceImpl resource = new ResourceImpl();
+    DocumentChangesAdapter.install(resource, 1).recordChange(2, 0, 1, 1);
+    final DocumentChangesAdapter adapter = DocumentChangesAdapter.install(resource, 5);
+    Assert.assertSame(adapter, DocumentChangesAdapter.find(resource));
+    Assert.assertEquals(1, resource.eAdapters().size());
+    Assert.assertNull(adapter.getChangeSince(1));
+  }
+}
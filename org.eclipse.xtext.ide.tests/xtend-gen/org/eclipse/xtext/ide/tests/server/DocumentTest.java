@@ -34,8 +34,7 @@ public class DocumentTest {
     _builder.newLine();
     _builder.append("bar");
     _builder.newLine();
-    String _normalize = this.normalize(_builder);
-    Document _document = new Document(1, _normalize);
+    Document _newDocument = this.newDocument(1, this.normalize(_builder));
     final Procedure1<Document> _function = (Document it) -> {
       Assert.assertEquals(0, it.getOffSet(this.position(0, 0)));
       Assert.assertEquals(11, it.getOffSet(this.position(0, 11)));
@@ -55,12 +54,12 @@ public class DocumentTest {
       Assert.assertEquals(16, it.getOffSet(this.position(2, 0)));
       Assert.assertEquals(19, it.getOffSet(this.position(2, 3)));
     };
-    ObjectExtensions.<Document>operator_doubleArrow(_document, _function);
+    ObjectExtensions.<Document>operator_doubleArrow(_newDocument, _function);
   }
   
   @Test
   public void testOffSet_empty() {
-    Document _document = new Document(1, "");
+    Document _newDocument = this.newDocument(1, "");
     final Procedure1<Document> _function = (Document it) -> {
       Assert.assertEquals(0, it.getOffSet(this.position(0, 0)));
       try {
@@ -74,7 +73,7 @@ public class DocumentTest {
         }
       }
     };
-    ObjectExtensions.<Document>operator_doubleArrow(_document, _function);
+    ObjectExtensions.<Document>operator_doubleArrow(_newDocument, _function);
   }
   
   @Test
@@ -86,8 +85,7 @@ public class DocumentTest {
     _builder.newLine();
     _builder.append("bar");
     _builder.newLine();
-    String _normalize = this.normalize(_builder);
-    Document _document = new Document(1, _normalize);
+    Document _newDocument = this.newDocument(1, this.normalize(_builder));
     final Procedure1<Document> _function = (Document it) -> {
       StringConcatenation _builder_1 = new StringConcatenation();
       _builder_1.append("hello world");
@@ -98,7 +96,7 @@ public class DocumentTest {
       Assert.assertEquals(this.normalize(_builder_1), it.applyChanges(
         Collections.<TextEdit>unmodifiableList(CollectionLiterals.<TextEdit>newArrayList(_change))).getContents());
     };
-    ObjectExtensions.<Document>operator_doubleArrow(_document, _function);
+    ObjectExtensions.<Document>operator_doubleArrow(_newDocument, _function);
   }
   
   @Test
@@ -110,8 +108,7 @@ public class DocumentTest {
     _builder.newLine();
     _builder.append("bar");
     _builder.newLine();
-    String _normalize = this.normalize(_builder);
-    Document _document = new Document(1, _normalize);
+    Document _newDocument = this.newDocument(1, this.normalize(_builder));
     final Procedure1<Document> _function = (Document it) -> {
       StringConcatenation _builder_1 = new StringConcatenation();
       _builder_1.append("hello world");
@@ -124,7 +121,7 @@ public class DocumentTest {
       Assert.assertEquals(this.normalize(_builder_1), it.applyChanges(
         Collections.<TextEdit>unmodifiableList(CollectionLiterals.<TextEdit>newArrayList(_change))).getContents());
     };
-    ObjectExtensions.<Document>operator_doubleArrow(_document, _function);
+    ObjectExtensions.<Document>operator_doubleArrow(_newDocument, _function);
   }
   
   @Test
@@ -135,14 +132,13 @@ public class DocumentTest {
     _builder.append("foo");
     _builder.newLine();
     _builder.append("bar");
-    String _normalize = this.normalize(_builder);
-    Document _document = new Document(1, _normalize);
+    Document _newDocument = this.newDocument(1, this.normalize(_builder));
     final Procedure1<Document> _function = (Document it) -> {
       TextEdit _change = this.change(this.position(0, 0), this.position(2, 3), "");
       Assert.assertEquals("", it.applyChanges(
         Collections.<TextEdit>unmodifiableList(CollectionLiterals.<TextEdit>newArrayList(_change))).getContents());
     };
-    ObjectExtensions.<Document>operator_doubleArrow(_document, _function);
+    ObjectExtensions.<Document>operator_doubleArrow(_newDocument, _function);
   }
   
   @Test
@@ -153,17 +149,20 @@ public class DocumentTest {
     _builder.append("foo");
     _builder.newLine();
     _builder.append("bar");
-    String _normalize = this.normalize(_builder);
-    Document _document = new Document(1, _normalize);
+    Document _newDocument = this.newDocument(1, this.normalize(_builder));
     final Procedure1<Document> _function = (Document it) -> {
       TextEdit _change = this.change(null, null, " foo ");
       Assert.assertEquals(" foo ", it.applyChanges(
         Collections.<TextEdit>unmodifiableList(CollectionLiterals.<TextEdit>newArrayList(_change))).getContents());
     };
-    ObjectExtensions.<Document>operator_doubleArrow(_document, _function);
+    ObjectExtensions.<Document>operator_doubleArrow(_newDocument, _function);
   }
   
-  private TextEdit change(final Position startPos, final Position endPos, final String newText) {
+  protected Document newDocument(final int version, final String contents) {
+    return new Document(version, contents);
+  }
+  
+  protected TextEdit change(final Position startPos, final Position endPos, final String newText) {
     TextEdit _textEdit = new TextEdit();
     final Procedure1<TextEdit> _function = (TextEdit it) -> {
       if ((startPos != null)) {
@@ -180,11 +179,11 @@ public class DocumentTest {
     return ObjectExtensions.<TextEdit>operator_doubleArrow(_textEdit, _function);
   }
   
-  private String normalize(final CharSequence s) {
+  protected String normalize(final CharSequence s) {
     return s.toString().replaceAll("\r", "");
   }
   
-  private Position position(final int l, final int c) {
+  protected Position position(final int l, final int c) {
     Position _position = new Position();
     final Procedure1<Position> _function = (Position it) -> {
       it.setLine(l);
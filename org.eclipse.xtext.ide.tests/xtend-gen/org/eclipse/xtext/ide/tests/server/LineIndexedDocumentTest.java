@@ -0,0 +1,144 @@
+/**
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.ide.tests.server;
+
+import java.util.Collections;
+import java.util.Random;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.TextEdit;
+import org.eclipse.xtend2.lib.StringConcatenation;
+import org.eclipse.xtext.ide.server.Document;
+import org.eclipse.xtext.ide.server.LineIndexedDocument;
+import org.eclipse.xtext.ide.tests.server.DocumentTest;
+import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+import org.eclipse.xtext.xbase.lib.Exceptions;
+import org.eclipse.xtext.xbase.lib.ExclusiveRange;
+import org.eclipse.xtext.xbase.lib.IntegerRange;
+import org.eclipse.xtext.xbase.lib.ObjectExtensions;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("all")
+public class LineIndexedDocumentTest extends DocumentTest {
+  @Override
+  protected Document newDocument(final int version, final String contents) {
+    return new LineIndexedDocument(version, contents);
+  }
+  
+  @Test
+  public void testPosition() {
+    Document _newDocument = this.newDocument(1, "hello world\r\nfoo\n\nbar");
+    final Procedure1<Document> _function = (Document it) -> {
+      Assert.assertEquals(this.position(0, 0), it.getPosition(0));
+      Assert.assertEquals(this.position(0, 12), it.getPosition(12));
+      Assert.assertEquals(this.position(1, 0), it.getPosition(13));
+      Assert.assertEquals(this.position(2, 0), it.getPosition(17));
+      Assert.assertEquals(this.position(3, 0), it.getPosition(18));
+      Assert.assertEquals(this.position(3, 3), it.getPosition(21));
+      Assert.assertEquals(17, it.getOffSet(this.position(2, 0)));
+      Assert.assertEquals(21, it.getOffSet(this.position(3, 3)));
+      try {
+        it.getPosition(22);
+        Assert.fail();
+      } catch (final Throwable _t) {
+        if (_t instanceof IndexOutOfBoundsException) {
+          final IndexOutOfBoundsException e = (IndexOutOfBoundsException)_t;
+        } else {
+          throw Exceptions.sneakyThrow(_t);
+        }
+      }
+      try {
+        it.getOffSet(this.position(4, 0));
+        Assert.fail();
+      } catch (final Throwable _t_1) {
+        if (_t_1 instanceof IndexOutOfBoundsException) {
+          final IndexOutOfBoundsException e_1 = (IndexOutOfBoundsException)_t_1;
+        } else {
+          throw Exceptions.sneakyThrow(_t_1);
+        }
+      }
+    };
+    ObjectExtensions.<Document>operator_doubleArrow(_newDocument, _function);
+  }
+  
+  @Test
+  public void testUpdate_sequentialChanges() {
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("hello world");
+    _builder.newLine();
+    _builder.append("foo");
+    _builder.newLine();
+    _builder.append("bar");
+    _builder.newLine();
+    Document _newDocument = this.newDocument(1, this.normalize(_builder));
+    final Procedure1<Document> _function = (Document it) -> {
+      TextEdit _change = this.change(this.position(0, 5), this.position(1, 0), "\n");
+      TextEdit _change_1 = this.change(this.position(1, 0), this.position(1, 0), "new\nline\n");
+      TextEdit _change_2 = this.change(this.position(3, 0), this.position(3, 3), "baz");
+      final Document result = it.applyChanges(
+        Collections.<TextEdit>unmodifiableList(CollectionLiterals.<TextEdit>newArrayList(_change, _change_1, _change_2)));
+      Assert.assertEquals(2, result.getVersion());
+      StringConcatenation _builder_1 = new StringConcatenation();
+      _builder_1.append("hello");
+      _builder_1.newLine();
+      _builder_1.append("new");
+      _builder_1.newLine();
+      _builder_1.append("line");
+      _builder_1.newLine();
+      _builder_1.append("baz");
+      _builder_1.newLine();
+      _builder_1.append("bar");
+      _builder_1.newLine();
+      Assert.assertEquals(this.normalize(_builder_1), result.getContents());
+      this.assertSameIndex(result);
+    };
+    ObjectExtensions.<Document>operator_doubleArrow(_newDocument, _function);
+  }
+  
+  @Test
+  public void testUpdate_random() {
+    final Random random = new Random(42);
+    Document document = this.newDocument(1, "");
+    ExclusiveRange _doubleDotLessThan = new ExclusiveRange(0, 500, true);
+    for (final Integer i : _doubleDotLessThan) {
+      {
+        final int length = document.getContents().length();
+        final int start = random.nextInt((length + 1));
+        int _min = Math.min(10, (length - start));
+        int _plus = (_min + 1);
+        int _nextInt = random.nextInt(_plus);
+        final int end = (start + _nextInt);
+        final String newText = Collections.<String>unmodifiableList(CollectionLiterals.<String>newArrayList("", "a", "\n", "ab\ncd", "\n\n", "xyz")).get(random.nextInt(6));
+        String _substring = document.getContents().substring(0, start);
+        String _plus_1 = (_substring + newText);
+        String _substring_1 = document.getContents().substring(end);
+        final String expected = (_plus_1 + _substring_1);
+        TextEdit _change = this.change(document.getPosition(start), document.getPosition(end), newText);
+        document = document.applyChanges(Collections.<TextEdit>unmodifiableList(CollectionLiterals.<TextEdit>newArrayList(_change)));
+        Assert.assertEquals(expected, document.getContents());
+        this.assertSameIndex(document);
+      }
+    }
+  }
+  
+  private void assertSameIndex(final Document document) {
+    int _version = document.getVersion();
+    String _contents = document.getContents();
+    final Document reference = new Document(_version, _contents);
+    int _length = document.getContents().length();
+    IntegerRange _upTo = new IntegerRange(0, _length);
+    for (final Integer offset : _upTo) {
+      {
+        final Position position = reference.getPosition((offset).intValue());
+        Assert.assertEquals(position, document.getPosition((offset).intValue()));
+        Assert.assertEquals((offset).intValue(), document.getOffSet(position));
+      }
+    }
+  }
+}
@@ -8,9 +8,12 @@
 package org.eclipse.xtext.ide.tests.server;
 
 import com.google.inject.AbstractModule;
+import com.google.inject.Binder;
 import com.google.inject.Guice;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.name.Names;
 import java.io.File;
 import java.io.FileWriter;
 import java.util.Collections;
@@ -19,17 +22,21 @@ import java.util.Map;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.xtend2.lib.StringConcatenation;
 import org.eclipse.xtext.diagnostics.Diagnostic;
+import org.eclipse.xtext.ide.server.BuildManager;
 import org.eclipse.xtext.ide.server.IWorkspaceConfigFactory;
 import org.eclipse.xtext.ide.server.MultiProjectWorkspaceConfigFactory;
 import org.eclipse.xtext.ide.server.ServerModule;
 import org.eclipse.xtext.ide.server.WorkspaceManager;
+import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.util.CancelIndicator;
 import org.eclipse.xtext.util.Files;
 import org.eclipse.xtext.util.Modules2;
 import org.eclipse.xtext.validation.Issue;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
 import org.eclipse.xtext.xbase.lib.Exceptions;
+import org.eclipse.xtext.xbase.lib.Functions.Function1;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
+import org.eclipse.xtext.xbase.lib.ListExtensions;
 import org.eclipse.xtext.xbase.lib.ObjectExtensions;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure2;
@@ -46,7 +53,7 @@ public class MultiProjectTest {
   
   private File project1;
   
-  private Map<URI, List<Issue>> diagnostics = CollectionLiterals.<URI, List<Issue>>newHashMap();
+  private Map<URI, List<Issue>> diagnostics = Collections.<URI, List<Issue>>synchronizedMap(CollectionLiterals.<URI, List<Issue>>newHashMap());
   
   @Inject
   private WorkspaceManager workspaceManager;
@@ -83,16 +90,60 @@ public class MultiProjectTest {
     Assert.assertTrue(this.diagnostics.get(bar).isEmpty());
   }
   
+  @Test
+  public void testParallelBuild() {
+    final Module _function = (Binder it) -> {
+      it.bindConstant().annotatedWith(Names.named(BuildManager.PARALLEL_BUILDS)).to(2);
+    };
+    this.setup(_function);
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("type Foo {");
+    _builder.newLine();
+    _builder.append("    ");
+    _builder.append("Bar bar");
+    _builder.newLine();
+    _builder.append("}");
+    _builder.newLine();
+    final URI foo = this.createFile(this.project0, "Foo.testlang", _builder);
+    StringConcatenation _builder_1 = new StringConcatenation();
+    _builder_1.append("type Bar {");
+    _builder_1.newLine();
+    _builder_1.append("}");
+    _builder_1.newLine();
+    final URI bar = this.createFile(this.project1, "Bar.testlang", _builder_1);
+    this.workspaceManager.doBuild(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(foo, bar)), CollectionLiterals.<URI>emptyList(), CancelIndicator.NullImpl);
+    Assert.assertEquals(Diagnostic.LINKING_DIAGNOSTIC, IterableExtensions.<Issue>head(this.diagnostics.get(foo)).getCode());
+    Assert.assertTrue(this.diagnostics.get(bar).isEmpty());
+    this.diagnostics.clear();
+    List<String> _dependencies = this.workspaceManager.getProjectManager(this.project0.getName()).getProjectDescription().getDependencies();
+    String _name = this.project1.getName();
+    _dependencies.add(_name);
+    final List<IResourceDescription.Delta> deltas = this.workspaceManager.doBuild(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(foo, bar)), CollectionLiterals.<URI>emptyList(), CancelIndicator.NullImpl);
+    final Function1<IResourceDescription.Delta, URI> _function_1 = (IResourceDescription.Delta it) -> {
+      return it.getUri();
+    };
+    Assert.assertEquals(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(bar, foo)), ListExtensions.<IResourceDescription.Delta, URI>map(deltas, _function_1));
+    Assert.assertTrue(this.diagnostics.get(foo).isEmpty());
+    Assert.assertTrue(this.diagnostics.get(bar).isEmpty());
+  }
+  
   @Before
   public void setup() {
+    final Module _function = (Binder it) -> {
+    };
+    this.setup(_function);
+  }
+  
+  protected void setup(final Module module) {
     ServerModule _serverModule = new ServerModule();
     final Injector injector = Guice.createInjector(Modules2.mixin(_serverModule, new AbstractModule() {
       @Override
       protected void configure() {
         this.<IWorkspaceConfigFactory>bind(IWorkspaceConfigFactory.class).to(MultiProjectWorkspaceConfigFactory.class);
       }
-    }));
+    }, module));
     injector.injectMembers(this);
+    this.diagnostics.clear();
     final File workspaceRoot = this.getRoot("test-data");
     File _file = new File(workspaceRoot, "test-project0");
     this.project0 = _file;
@@ -0,0 +1,269 @@
+/**
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.ide.tests.server;
+
+import com.google.common.collect.Iterables;
+import com.google.inject.AbstractModule;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import java.io.File;
+import java.io.FileWriter;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtend2.lib.StringConcatenation;
+import org.eclipse.xtext.diagnostics.Diagnostic;
+import org.eclipse.xtext.ide.server.ILanguageServerAccess;
+import org.eclipse.xtext.ide.server.ProjectManager;
+import org.eclipse.xtext.ide.server.ProjectStatePersister;
+import org.eclipse.xtext.ide.server.ServerModule;
+import org.eclipse.xtext.ide.server.UriExtensions;
+import org.eclipse.xtext.ide.server.WorkspaceManager;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.impl.CopyOnWriteResourceDescriptionsData;
+import org.eclipse.xtext.resource.impl.ProjectDescription;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+import org.eclipse.xtext.util.CancelIndicator;
+import org.eclipse.xtext.util.Files;
+import org.eclipse.xtext.util.Modules2;
+import org.eclipse.xtext.validation.Issue;
+import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+import org.eclipse.xtext.xbase.lib.Exceptions;
+import org.eclipse.xtext.xbase.lib.Extension;
+import org.eclipse.xtext.xbase.lib.Functions.Function1;
+import org.eclipse.xtext.xbase.lib.IterableExtensions;
+import org.eclipse.xtext.xbase.lib.ListExtensions;
+import org.eclipse.xtext.xbase.lib.ObjectExtensions;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure2;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+@SuppressWarnings("all")
+public class ProjectStatePersisterTest {
+  public static class TestProjectStatePersister extends ProjectStatePersister {
+    @Override
+    protected File getStateFile(final ProjectDescription project, final URI baseDir) {
+      String _name = project.getName();
+      return new File(ProjectStatePersisterTest.stateDir, _name);
+    }
+    
+    @Override
+    public void writeProjectState(final ProjectDescription project, final URI baseDir, final ProjectStatePersister.ProjectState state) {
+      ProjectStatePersisterTest.writes++;
+      this.doWriteProjectState(project.getName(), this.getStateFile(project, baseDir), state);
+    }
+  }
+  
+  private static File stateDir;
+  
+  private static int writes;
+  
+  private File root;
+  
+  private Map<URI, List<Issue>> diagnostics = CollectionLiterals.<URI, List<Issue>>newHashMap();
+  
+  private List<IResourceDescription.Delta> deltas = CollectionLiterals.<IResourceDescription.Delta>newArrayList();
+  
+  @Extension
+  private UriExtensions _uriExtensions = new UriExtensions();
+  
+  @Before
+  public void setup() {
+    ProjectStatePersisterTest.stateDir = this.getRoot("test-state");
+    this.root = this.getRoot("test-data");
+    ProjectStatePersisterTest.writes = 0;
+  }
+  
+  @Test
+  public void testRestoreState() {
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("type Foo {");
+    _builder.newLine();
+    _builder.append("\t");
+    _builder.append("Bar bar");
+    _builder.newLine();
+    _builder.append("}");
+    _builder.newLine();
+    final URI foo = this.createFile("Foo.testlang", _builder);
+    StringConcatenation _builder_1 = new StringConcatenation();
+    _builder_1.append("type Baz {");
+    _builder_1.newLine();
+    _builder_1.append("}");
+    _builder_1.newLine();
+    final URI bar = this.createFile("Bar.testlang", _builder_1);
+    final WorkspaceManager workspaceManager = this.newWorkspaceManager();
+    Assert.assertEquals(2, this.deltas.size());
+    Assert.assertEquals(Diagnostic.LINKING_DIAGNOSTIC, IterableExtensions.<Issue>head(this.diagnostics.get(foo)).getCode());
+    Assert.assertNotNull(workspaceManager.getIndex().getResourceDescription(bar));
+    final WorkspaceManager restoredManager = this.newWorkspaceManager();
+    Assert.assertTrue(this.deltas.isEmpty());
+    Assert.assertEquals(Diagnostic.LINKING_DIAGNOSTIC, IterableExtensions.<Issue>head(this.diagnostics.get(foo)).getCode());
+    Assert.assertTrue(this.diagnostics.get(bar).isEmpty());
+    Assert.assertNotNull(restoredManager.getIndex().getResourceDescription(foo));
+    ResourceDescriptionsData _resourceDescriptions = restoredManager.getProjectManager(foo).getIndexState().getResourceDescriptions();
+    Assert.assertTrue((_resourceDescriptions instanceof CopyOnWriteResourceDescriptionsData));
+    StringConcatenation _builder_2 = new StringConcatenation();
+    _builder_2.append("type Bar {");
+    _builder_2.newLine();
+    _builder_2.append("}");
+    _builder_2.newLine();
+    this.createFile("Bar.testlang", _builder_2);
+    this.newWorkspaceManager();
+    final Function1<IResourceDescription.Delta, URI> _function = (IResourceDescription.Delta it) -> {
+      return it.getUri();
+    };
+    Assert.assertEquals(Collections.<URI>unmodifiableSet(CollectionLiterals.<URI>newHashSet(foo, bar)), IterableExtensions.<URI>toSet(ListExtensions.<IResourceDescription.Delta, URI>map(this.deltas, _function)));
+    Assert.assertTrue(this.diagnostics.get(foo).isEmpty());
+    String _fileString = bar.toFileString();
+    new File(_fileString).delete();
+    final WorkspaceManager lastManager = this.newWorkspaceManager();
+    final Function1<IResourceDescription.Delta, URI> _function_1 = (IResourceDescription.Delta it) -> {
+      return it.getUri();
+    };
+    Assert.assertEquals(Collections.<URI>unmodifiableSet(CollectionLiterals.<URI>newHashSet(foo, bar)), IterableExtensions.<URI>toSet(ListExtensions.<IResourceDescription.Delta, URI>map(this.deltas, _function_1)));
+    Assert.assertNull(lastManager.getIndex().getResourceDescription(bar));
+    Assert.assertEquals(Diagnostic.LINKING_DIAGNOSTIC, IterableExtensions.<Issue>head(this.diagnostics.get(foo)).getCode());
+  }
+  
+  @Test
+  public void testPersistAfterInitialBuildAndOnRequest() {
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("type Foo {");
+    _builder.newLine();
+    _builder.append("}");
+    _builder.newLine();
+    this.createFile("Foo.testlang", _builder);
+    final WorkspaceManager workspaceManager = this.newWorkspaceManager();
+    final int initialWrites = ProjectStatePersisterTest.writes;
+    Assert.assertTrue((initialWrites > 0));
+    StringConcatenation _builder_1 = new StringConcatenation();
+    _builder_1.append("type Bar {");
+    _builder_1.newLine();
+    _builder_1.append("\t");
+    _builder_1.append("Foo foo");
+    _builder_1.newLine();
+    _builder_1.append("}");
+    _builder_1.newLine();
+    final URI bar = this.createFile("Bar.testlang", _builder_1);
+    workspaceManager.doBuild(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(bar)), CollectionLiterals.<URI>emptyList(), CancelIndicator.NullImpl);
+    Assert.assertEquals(initialWrites, ProjectStatePersisterTest.writes);
+    workspaceManager.persistProjectStates();
+    Assert.assertEquals((2 * initialWrites), ProjectStatePersisterTest.writes);
+    final WorkspaceManager restoredManager = this.newWorkspaceManager();
+    Assert.assertTrue(this.deltas.isEmpty());
+    Assert.assertNotNull(restoredManager.getIndex().getResourceDescription(bar));
+  }
+  
+  @Test
+  public void testCancelledRestoreKeepsPreviousState() {
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("type Foo {");
+    _builder.newLine();
+    _builder.append("}");
+    _builder.newLine();
+    final URI foo = this.createFile("Foo.testlang", _builder);
+    this.newWorkspaceManager();
+    StringConcatenation _builder_1 = new StringConcatenation();
+    _builder_1.append("type Foo2 {");
+    _builder_1.newLine();
+    _builder_1.append("}");
+    _builder_1.newLine();
+    this.createFile("Foo.testlang", _builder_1);
+    final WorkspaceManager workspaceManager = this.createWorkspaceManager();
+    try {
+      final CancelIndicator _function = () -> {
+        return true;
+      };
+      this.initialize(workspaceManager, _function);
+      Assert.fail();
+    } catch (final Throwable _t) {
+      if (_t instanceof OperationCanceledException) {
+        final OperationCanceledException e = (OperationCanceledException)_t;
+      } else {
+        throw Exceptions.sneakyThrow(_t);
+      }
+    }
+    final ProjectManager projectManager = workspaceManager.getProjectManager(foo);
+    Assert.assertTrue(IterableExtensions.isEmpty(projectManager.getIndexState().getResourceDescriptions().getAllResourceDescriptions()));
+  }
+  
+  private WorkspaceManager newWorkspaceManager() {
+    final WorkspaceManager workspaceManager = this.createWorkspaceManager();
+    this.initialize(workspaceManager, CancelIndicator.NullImpl);
+    return workspaceManager;
+  }
+  
+  private WorkspaceManager createWorkspaceManager() {
+    this.diagnostics.clear();
+    this.deltas.clear();
+    ServerModule _serverModule = new ServerModule();
+    final Injector injector = Guice.createInjector(Modules2.mixin(_serverModule, new AbstractModule() {
+      @Override
+      protected void configure() {
+        this.<ProjectStatePersister>bind(ProjectStatePersister.class).to(ProjectStatePersisterTest.TestProjectStatePersister.class);
+      }
+    }));
+    final WorkspaceManager workspaceManager = injector.<WorkspaceManager>getInstance(WorkspaceManager.class);
+    final ILanguageServerAccess.IBuildListener _function = (List<IResourceDescription.Delta> it) -> {
+      Iterables.<IResourceDescription.Delta>addAll(this.deltas, it);
+    };
+    workspaceManager.addBuildListener(_function);
+    return workspaceManager;
+  }
+  
+  private void initialize(final WorkspaceManager workspaceManager, final CancelIndicator cancelIndicator) {
+    final Procedure2<URI, Iterable<Issue>> _function = (URI $0, Iterable<Issue> $1) -> {
+      this.diagnostics.put($0, IterableExtensions.<Issue>toList($1));
+    };
+    workspaceManager.initialize(URI.createFileURI(this.root.getAbsolutePath()), _function, cancelIndicator);
+  }
+  
+  protected File getRoot(final String path) {
+    try {
+      File _xblockexpression = null;
+      {
+        final File root = new File(path);
+        boolean _mkdirs = root.mkdirs();
+        boolean _not = (!_mkdirs);
+        if (_not) {
+          Files.cleanFolder(root, null, true, false);
+        }
+        root.deleteOnExit();
+        _xblockexpression = root;
+      }
+      return _xblockexpression;
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  public URI createFile(final String path, final CharSequence contents) {
+    try {
+      final File file = new File(this.root, path);
+      file.getParentFile().mkdirs();
+      file.createNewFile();
+      FileWriter _fileWriter = new FileWriter(file);
+      final Procedure1<FileWriter> _function = (FileWriter it) -> {
+        try {
+          it.write(contents.toString());
+          it.close();
+        } catch (Throwable _e) {
+          throw Exceptions.sneakyThrow(_e);
+        }
+      };
+      ObjectExtensions.<FileWriter>operator_doubleArrow(_fileWriter, _function);
+      return this._uriExtensions.withEmptyAuthority(URI.createFileURI(file.getAbsolutePath()));
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+}
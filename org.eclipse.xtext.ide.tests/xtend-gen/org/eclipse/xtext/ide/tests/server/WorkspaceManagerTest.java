@@ -7,29 +7,47 @@
  */
 package org.eclipse.xtext.ide.tests.server;
 
+import com.google.common.base.Objects;
+import com.google.inject.Binder;
 import com.google.inject.Guice;
 import com.google.inject.Inject;
 import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.name.Names;
 import java.io.File;
 import java.io.FileWriter;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.lsp4j.TextEdit;
 import org.eclipse.xtend2.lib.StringConcatenation;
+import org.eclipse.xtext.diagnostics.Diagnostic;
+import org.eclipse.xtext.ide.server.BuildManager;
 import org.eclipse.xtext.ide.server.Document;
 import org.eclipse.xtext.ide.server.ServerModule;
 import org.eclipse.xtext.ide.server.UriExtensions;
 import org.eclipse.xtext.ide.server.WorkspaceManager;
+import org.eclipse.xtext.ide.server.concurrent.RequestManager;
+import org.eclipse.xtext.ide.server.symbol.DocumentSymbolService;
 import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.util.CancelIndicator;
 import org.eclipse.xtext.util.Files;
+import org.eclipse.xtext.util.Modules2;
 import org.eclipse.xtext.validation.Issue;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
 import org.eclipse.xtext.xbase.lib.Exceptions;
 import org.eclipse.xtext.xbase.lib.Extension;
+import org.eclipse.xtext.xbase.lib.Functions.Function1;
 import org.eclipse.xtext.xbase.lib.Functions.Function2;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
 import org.eclipse.xtext.xbase.lib.ObjectExtensions;
+import org.eclipse.xtext.xbase.lib.Pair;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure2;
 import org.junit.Assert;
@@ -69,6 +87,292 @@ public class WorkspaceManagerTest {
     Assert.assertEquals(inMemContents, this.workspaceManger.<String>doRead(path, _function));
   }
   
+  @Test
+  public void testDidChangeReparsesIncrementally() {
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("type Test {");
+    _builder.newLine();
+    _builder.append("    ");
+    _builder.append("NonExisting foo");
+    _builder.newLine();
+    _builder.append("}");
+    _builder.newLine();
+    final URI path = this.uriExtensions.withEmptyAuthority(this.operator_mappedTo("MyType1.testlang", _builder));
+    this.workspaceManger.doBuild(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(path)), CollectionLiterals.<URI>emptyList(), null);
+    StringConcatenation _builder_1 = new StringConcatenation();
+    _builder_1.append("type Test {");
+    _builder_1.newLine();
+    _builder_1.append("    ");
+    _builder_1.append("NonExisting foo");
+    _builder_1.newLine();
+    _builder_1.append("}");
+    _builder_1.newLine();
+    this.workspaceManger.didOpen(path, 1, _builder_1.toString()).build(null);
+    final Function2<Document, XtextResource, XtextResource> _function = (Document $0, XtextResource $1) -> {
+      return $1;
+    };
+    final XtextResource resource = this.workspaceManger.<XtextResource>doRead(path, _function);
+    Assert.assertEquals(Diagnostic.LINKING_DIAGNOSTIC, IterableExtensions.<Issue>head(this.diagnostics.get(path)).getCode());
+    Position _position = new Position(1, 4);
+    Position _position_1 = new Position(1, 15);
+    Range _range = new Range(_position, _position_1);
+    TextEdit _textEdit = new TextEdit(_range, "Test");
+    this.workspaceManger.didChange(path, 2, Collections.<TextEdit>unmodifiableList(CollectionLiterals.<TextEdit>newArrayList(_textEdit))).build(null);
+    final Function2<Document, XtextResource, XtextResource> _function_1 = (Document $0, XtextResource $1) -> {
+      return $1;
+    };
+    Assert.assertSame(resource, this.workspaceManger.<XtextResource>doRead(path, _function_1));
+    Assert.assertTrue(this.diagnostics.get(path).isEmpty());
+    Position _position_2 = new Position(3, 0);
+    Position _position_3 = new Position(3, 0);
+    Range _range_1 = new Range(_position_2, _position_3);
+    TextEdit _textEdit_1 = new TextEdit(_range_1, "type Other {}\n");
+    Position _position_4 = new Position(1, 4);
+    Position _position_5 = new Position(1, 8);
+    Range _range_2 = new Range(_position_4, _position_5);
+    TextEdit _textEdit_2 = new TextEdit(_range_2, "Other");
+    this.workspaceManger.didChange(path, 3, Collections.<TextEdit>unmodifiableList(CollectionLiterals.<TextEdit>newArrayList(_textEdit_1, _textEdit_2))).build(null);
+    final Function2<Document, XtextResource, XtextResource> _function_2 = (Document $0, XtextResource $1) -> {
+      return $1;
+    };
+    Assert.assertSame(resource, this.workspaceManger.<XtextResource>doRead(path, _function_2));
+    StringConcatenation _builder_2 = new StringConcatenation();
+    _builder_2.append("type Test {");
+    _builder_2.newLine();
+    _builder_2.append("    ");
+    _builder_2.append("Other foo");
+    _builder_2.newLine();
+    _builder_2.append("}");
+    _builder_2.newLine();
+    _builder_2.append("type Other {}");
+    _builder_2.newLine();
+    Assert.assertEquals(_builder_2.toString(), resource.getParseResult().getRootNode().getText());
+    Assert.assertTrue(this.diagnostics.get(path).isEmpty());
+  }
+  
+  @Test
+  public void testDidChangeAfterDidOpen() {
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("type Test {}");
+    _builder.newLine();
+    final URI path = this.uriExtensions.withEmptyAuthority(this.operator_mappedTo("MyType1.testlang", _builder));
+    this.workspaceManger.doBuild(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(path)), CollectionLiterals.<URI>emptyList(), null);
+    final Function2<Document, XtextResource, XtextResource> _function = (Document $0, XtextResource $1) -> {
+      return $1;
+    };
+    final XtextResource resource = this.workspaceManger.<XtextResource>doRead(path, _function);
+    StringConcatenation _builder_1 = new StringConcatenation();
+    _builder_1.append("type Foo {}");
+    _builder_1.newLine();
+    this.workspaceManger.didOpen(path, 1, _builder_1.toString());
+    Position _position = new Position(0, 5);
+    Position _position_1 = new Position(0, 8);
+    Range _range = new Range(_position, _position_1);
+    TextEdit _textEdit = new TextEdit(_range, "Bar");
+    this.workspaceManger.didChange(path, 2, Collections.<TextEdit>unmodifiableList(CollectionLiterals.<TextEdit>newArrayList(_textEdit))).build(null);
+    final Function2<Document, XtextResource, XtextResource> _function_1 = (Document $0, XtextResource $1) -> {
+      return $1;
+    };
+    final XtextResource reloaded = this.workspaceManger.<XtextResource>doRead(path, _function_1);
+    Assert.assertNotSame(resource, reloaded);
+    StringConcatenation _builder_2 = new StringConcatenation();
+    _builder_2.append("type Bar {}");
+    _builder_2.newLine();
+    Assert.assertEquals(_builder_2.toString(), reloaded.getParseResult().getRootNode().getText());
+  }
+  
+  @Test
+  public void testDocumentSymbolsIncrementally() {
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("type Foo {");
+    _builder.newLine();
+    _builder.append("    ");
+    _builder.append("int bar");
+    _builder.newLine();
+    _builder.append("}");
+    _builder.newLine();
+    _builder.append("type Bar {");
+    _builder.newLine();
+    _builder.append("    ");
+    _builder.append("Foo foo");
+    _builder.newLine();
+    _builder.append("}");
+    _builder.newLine();
+    final URI path = this.uriExtensions.withEmptyAuthority(this.operator_mappedTo("MyType1.testlang", _builder));
+    this.workspaceManger.doBuild(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(path)), CollectionLiterals.<URI>emptyList(), null);
+    StringConcatenation _builder_1 = new StringConcatenation();
+    _builder_1.append("type Foo {");
+    _builder_1.newLine();
+    _builder_1.append("    ");
+    _builder_1.append("int bar");
+    _builder_1.newLine();
+    _builder_1.append("}");
+    _builder_1.newLine();
+    _builder_1.append("type Bar {");
+    _builder_1.newLine();
+    _builder_1.append("    ");
+    _builder_1.append("Foo foo");
+    _builder_1.newLine();
+    _builder_1.append("}");
+    _builder_1.newLine();
+    this.workspaceManger.didOpen(path, 1, _builder_1.toString()).build(null);
+    final Pair<List<? extends SymbolInformation>, List<? extends SymbolInformation>> first = this.getSymbols(path);
+    Assert.assertEquals(5, first.getKey().size());
+    Assert.assertEquals(first.getValue().toString(), first.getKey().toString());
+    Position _position = new Position(4, 8);
+    Position _position_1 = new Position(4, 11);
+    Range _range = new Range(_position, _position_1);
+    TextEdit _textEdit = new TextEdit(_range, "foo2");
+    this.workspaceManger.didChange(path, 2, Collections.<TextEdit>unmodifiableList(CollectionLiterals.<TextEdit>newArrayList(_textEdit))).build(null);
+    final Pair<List<? extends SymbolInformation>, List<? extends SymbolInformation>> second = this.getSymbols(path);
+    Assert.assertEquals(second.getValue().toString(), second.getKey().toString());
+    Assert.assertEquals("Bar.foo2", IterableExtensions.last(second.getKey()).getName());
+    Assert.assertSame(first.getKey().get(0), second.getKey().get(0));
+    Assert.assertSame(first.getKey().get(1), second.getKey().get(1));
+    Position _position_2 = new Position(1, 4);
+    Position _position_3 = new Position(1, 4);
+    Range _range_1 = new Range(_position_2, _position_3);
+    TextEdit _textEdit_1 = new TextEdit(_range_1, "int baz\n    ");
+    this.workspaceManger.didChange(path, 3, Collections.<TextEdit>unmodifiableList(CollectionLiterals.<TextEdit>newArrayList(_textEdit_1))).build(null);
+    final Pair<List<? extends SymbolInformation>, List<? extends SymbolInformation>> third = this.getSymbols(path);
+    Assert.assertEquals(third.getValue().toString(), third.getKey().toString());
+    Assert.assertEquals(7, third.getKey().size());
+    Position _position_4 = new Position(0, 5);
+    Position _position_5 = new Position(0, 8);
+    Range _range_2 = new Range(_position_4, _position_5);
+    TextEdit _textEdit_2 = new TextEdit(_range_2, "Foo2");
+    this.workspaceManger.didChange(path, 4, Collections.<TextEdit>unmodifiableList(CollectionLiterals.<TextEdit>newArrayList(_textEdit_2))).build(null);
+    Position _position_6 = new Position(4, 5);
+    Position _position_7 = new Position(4, 8);
+    Range _range_3 = new Range(_position_6, _position_7);
+    TextEdit _textEdit_3 = new TextEdit(_range_3, "Baz");
+    this.workspaceManger.didChange(path, 5, Collections.<TextEdit>unmodifiableList(CollectionLiterals.<TextEdit>newArrayList(_textEdit_3))).build(null);
+    final Pair<List<? extends SymbolInformation>, List<? extends SymbolInformation>> fourth = this.getSymbols(path);
+    Assert.assertEquals(fourth.getValue().toString(), fourth.getKey().toString());
+    final Function1<SymbolInformation, Boolean> _function = (SymbolInformation it) -> {
+      String _name = it.getName();
+      return Boolean.valueOf(Objects.equal(_name, "Baz"));
+    };
+    Assert.assertTrue(IterableExtensions.exists(fourth.getKey(), _function));
+  }
+  
+  /**
+   * Returns the incrementally computed symbols of the given open document and the symbols computed from scratch.
+   */
+  private Pair<List<? extends SymbolInformation>, List<? extends SymbolInformation>> getSymbols(final URI uri) {
+    final Function2<Document, XtextResource, Pair<List<? extends SymbolInformation>, List<? extends SymbolInformation>>> _function = (Document document, XtextResource resource) -> {
+      Pair<List<? extends SymbolInformation>, List<? extends SymbolInformation>> _xblockexpression = null;
+      {
+        final DocumentSymbolService service = resource.getResourceServiceProvider().<DocumentSymbolService>get(DocumentSymbolService.class);
+        List<? extends SymbolInformation> _symbols = service.getSymbols(document, resource, null, CancelIndicator.NullImpl);
+        List<? extends SymbolInformation> _symbols_1 = service.getSymbols(resource, CancelIndicator.NullImpl);
+        _xblockexpression = Pair.<List<? extends SymbolInformation>, List<? extends SymbolInformation>>of(_symbols, _symbols_1);
+      }
+      return _xblockexpression;
+    };
+    return this.workspaceManger.<Pair<List<? extends SymbolInformation>, List<? extends SymbolInformation>>>doRead(uri, _function);
+  }
+  
+  @Test
+  public void testDoReadCached() {
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("type Test {");
+    _builder.newLine();
+    _builder.append("}");
+    _builder.newLine();
+    final URI path = this.uriExtensions.withEmptyAuthority(this.operator_mappedTo("MyType1.testlang", _builder));
+    this.workspaceManger.doBuild(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(path)), CollectionLiterals.<URI>emptyList(), null);
+    final AtomicInteger count = new AtomicInteger();
+    final Function2<Document, XtextResource, Integer> _function = (Document $0, XtextResource $1) -> {
+      return Integer.valueOf(count.incrementAndGet());
+    };
+    final Function2<? super Document, ? super XtextResource, ? extends Integer> work = _function;
+    this.workspaceManger.<Integer>doRead(path, "key", work);
+    this.workspaceManger.<Integer>doRead(path, "key", work);
+    Assert.assertEquals(2, count.get());
+    StringConcatenation _builder_1 = new StringConcatenation();
+    _builder_1.append("type Test {");
+    _builder_1.newLine();
+    _builder_1.append("}");
+    _builder_1.newLine();
+    this.workspaceManger.didOpen(path, 1, _builder_1.toString()).build(null);
+    Assert.assertEquals(3, this.workspaceManger.<Integer>doRead(path, "key", work).intValue());
+    Assert.assertEquals(3, this.workspaceManger.<Integer>doRead(path, "key", work).intValue());
+    Assert.assertEquals(4, this.workspaceManger.<Integer>doRead(path, "other", work).intValue());
+    Position _position = new Position(1, 0);
+    Position _position_1 = new Position(1, 0);
+    Range _range = new Range(_position, _position_1);
+    TextEdit _textEdit = new TextEdit(_range, "    int foo\n");
+    final BuildManager.Buildable buildable = this.workspaceManger.didChange(path, 2, Collections.<TextEdit>unmodifiableList(CollectionLiterals.<TextEdit>newArrayList(_textEdit)));
+    Assert.assertEquals(5, this.workspaceManger.<Integer>doRead(path, "key", work).intValue());
+    Assert.assertEquals(5, this.workspaceManger.<Integer>doRead(path, "key", work).intValue());
+    buildable.build(null);
+    Assert.assertEquals(6, this.workspaceManger.<Integer>doRead(path, "key", work).intValue());
+  }
+  
+  @Test
+  public void testDoReadSnapshot() {
+    ServerModule _serverModule = new ServerModule();
+    final Module _function = (Binder it) -> {
+      it.bindConstant().annotatedWith(Names.named(RequestManager.SNAPSHOT_READS)).to(true);
+    };
+    this.workspaceManger = Guice.createInjector(Modules2.mixin(_serverModule, _function)).<WorkspaceManager>getInstance(WorkspaceManager.class);
+    final Procedure2<URI, Iterable<Issue>> _function_1 = (URI $0, Iterable<Issue> $1) -> {
+      this.diagnostics.put($0, IterableExtensions.<Issue>toList($1));
+    };
+    this.workspaceManger.initialize(this.uriExtensions.withEmptyAuthority(URI.createFileURI(this.root.getAbsolutePath())), _function_1, null);
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("type Test {");
+    _builder.newLine();
+    _builder.append("    ");
+    _builder.append("string foo");
+    _builder.newLine();
+    _builder.append("}");
+    _builder.newLine();
+    final URI path = this.uriExtensions.withEmptyAuthority(this.operator_mappedTo("MyType1.testlang", _builder));
+    this.workspaceManger.doBuild(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(path)), CollectionLiterals.<URI>emptyList(), null);
+    StringConcatenation _builder_1 = new StringConcatenation();
+    _builder_1.append("type Test {");
+    _builder_1.newLine();
+    _builder_1.append("    ");
+    _builder_1.append("Test foo");
+    _builder_1.newLine();
+    _builder_1.append("}");
+    _builder_1.newLine();
+    this.workspaceManger.didOpen(path, 1, _builder_1.toString()).build(null);
+    final XtextResourceSet liveResourceSet = this.workspaceManger.getProjectManager(path).getResourceSet();
+    final Function2<Document, XtextResource, XtextResource> _function_2 = (Document $0, XtextResource $1) -> {
+      return $1;
+    };
+    final XtextResource resource = this.workspaceManger.<XtextResource>doRead(path, _function_2);
+    Assert.assertSame(liveResourceSet, resource.getResourceSet());
+    Position _position = new Position(1, 4);
+    Position _position_1 = new Position(1, 8);
+    Range _range = new Range(_position, _position_1);
+    TextEdit _textEdit = new TextEdit(_range, "string");
+    final BuildManager.Buildable buildable = this.workspaceManger.didChange(path, 2, Collections.<TextEdit>unmodifiableList(CollectionLiterals.<TextEdit>newArrayList(_textEdit)));
+    final Function2<Document, XtextResource, XtextResource> _function_3 = (Document $0, XtextResource $1) -> {
+      return $1;
+    };
+    final XtextResource changed = this.workspaceManger.<XtextResource>doRead(path, _function_3);
+    Assert.assertNotSame(liveResourceSet, changed.getResourceSet());
+    final Function2<Document, XtextResource, XtextResource> _function_4 = (Document $0, XtextResource $1) -> {
+      return $1;
+    };
+    Assert.assertSame(changed, this.workspaceManger.<XtextResource>doRead(path, _function_4));
+    final Function2<Document, XtextResource, String> _function_5 = (Document $0, XtextResource $1) -> {
+      return $0.getContents();
+    };
+    Assert.assertEquals(this.workspaceManger.<String>doRead(path, _function_5), changed.getParseResult().getRootNode().getText());
+    Assert.assertTrue(changed.getParseResult().getRootNode().getText().contains("string foo"));
+    buildable.build(null);
+    final Function2<Document, XtextResource, XtextResource> _function_6 = (Document $0, XtextResource $1) -> {
+      return $1;
+    };
+    Assert.assertSame(resource, this.workspaceManger.<XtextResource>doRead(path, _function_6));
+    Assert.assertTrue(resource.getParseResult().getRootNode().getText().contains("string foo"));
+  }
+  
   @Inject
   protected WorkspaceManager workspaceManger;
   
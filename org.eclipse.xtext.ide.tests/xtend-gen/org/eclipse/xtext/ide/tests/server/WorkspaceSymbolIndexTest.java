@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.ide.tests.server;
+
+import java.util.Collections;
+import java.util.List;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.ide.server.symbol.WorkspaceSymbolIndex;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionDelta;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+import org.eclipse.xtext.resource.persistence.SerializableEObjectDescription;
+import org.eclipse.xtext.resource.persistence.SerializableReferenceDescription;
+import org.eclipse.xtext.resource.persistence.SerializableResourceDescription;
+import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+import org.eclipse.xtext.xbase.lib.Conversions;
+import org.eclipse.xtext.xbase.lib.Functions.Function1;
+import org.eclipse.xtext.xbase.lib.IterableExtensions;
+import org.eclipse.xtext.xbase.lib.ListExtensions;
+import org.eclipse.xtext.xbase.lib.ObjectExtensions;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("all")
+public class WorkspaceSymbolIndexTest {
+  private final IResourceDescription a = this.newDescription("file:/a.foo", "Foo", "Foo.bar", "FooBarBaz");
+  
+  private final IResourceDescription b = this.newDescription("file:/b.foo", "Bar.foo");
+  
+  @Test
+  public void testRanking() {
+    final WorkspaceSymbolIndex index = this.newIndex();
+    Assert.assertEquals(Collections.<String>unmodifiableList(CollectionLiterals.<String>newArrayList("Foo", "Bar.foo", "Foo.bar", "FooBarBaz")), this.getNames(index.find("foo")));
+    Assert.assertEquals(Collections.<String>unmodifiableList(CollectionLiterals.<String>newArrayList("Foo.bar", "Bar.foo", "FooBarBaz")), this.getNames(index.find("bar")));
+    Assert.assertEquals(Collections.<String>unmodifiableList(CollectionLiterals.<String>newArrayList("FooBarBaz")), this.getNames(index.find("az")));
+  }
+  
+  @Test
+  public void testHumps() {
+    final WorkspaceSymbolIndex index = this.newIndex();
+    Assert.assertEquals(Collections.<String>unmodifiableList(CollectionLiterals.<String>newArrayList("FooBarBaz")), this.getNames(index.find("FBB")));
+    Assert.assertEquals(Collections.<String>unmodifiableList(CollectionLiterals.<String>newArrayList("FooBarBaz")), this.getNames(index.find("FoBa")));
+    Assert.assertEquals(Collections.<Object>unmodifiableList(CollectionLiterals.<Object>newArrayList()), this.getNames(index.find("FoBz")));
+  }
+  
+  @Test
+  public void testUpdate() {
+    final WorkspaceSymbolIndex index = this.newIndex();
+    final IResourceDescription c = this.newDescription("file:/c.foo", "Xyz");
+    DefaultResourceDescriptionDelta _defaultResourceDescriptionDelta = new DefaultResourceDescriptionDelta(this.b, null);
+    DefaultResourceDescriptionDelta _defaultResourceDescriptionDelta_1 = new DefaultResourceDescriptionDelta(null, c);
+    index.update(
+      Collections.<IResourceDescription.Delta>unmodifiableList(CollectionLiterals.<IResourceDescription.Delta>newArrayList(_defaultResourceDescriptionDelta, _defaultResourceDescriptionDelta_1)));
+    Assert.assertEquals(Collections.<String>unmodifiableList(CollectionLiterals.<String>newArrayList("Foo", "Foo.bar", "FooBarBaz")), this.getNames(index.find("foo")));
+    Assert.assertEquals(Collections.<String>unmodifiableList(CollectionLiterals.<String>newArrayList("Xyz")), this.getNames(index.find("xyz")));
+    final IResourceDescription changedA = this.newDescription("file:/a.foo", "Foo");
+    DefaultResourceDescriptionDelta _defaultResourceDescriptionDelta_2 = new DefaultResourceDescriptionDelta(this.a, changedA);
+    index.update(Collections.<IResourceDescription.Delta>unmodifiableList(CollectionLiterals.<IResourceDescription.Delta>newArrayList(_defaultResourceDescriptionDelta_2)));
+    Assert.assertEquals(Collections.<String>unmodifiableList(CollectionLiterals.<String>newArrayList("Foo")), this.getNames(index.find("foo")));
+    Assert.assertEquals(Collections.<Object>unmodifiableList(CollectionLiterals.<Object>newArrayList()), this.getNames(index.find("FBB")));
+  }
+  
+  private WorkspaceSymbolIndex newIndex() {
+    WorkspaceSymbolIndex _workspaceSymbolIndex = new WorkspaceSymbolIndex();
+    final Procedure1<WorkspaceSymbolIndex> _function = (WorkspaceSymbolIndex it) -> {
+      ResourceDescriptionsData _resourceDescriptionsData = new ResourceDescriptionsData(Collections.<IResourceDescription>unmodifiableList(CollectionLiterals.<IResourceDescription>newArrayList(this.a, this.b)));
+      it.initialize(_resourceDescriptionsData);
+    };
+    return ObjectExtensions.<WorkspaceSymbolIndex>operator_doubleArrow(_workspaceSymbolIndex, _function);
+  }
+  
+  private List<String> getNames(final Iterable<WorkspaceSymbolIndex.Entry> entries) {
+    final Function1<WorkspaceSymbolIndex.Entry, String> _function = (WorkspaceSymbolIndex.Entry it) -> {
+      return it.getDescription().getQualifiedName().toString();
+    };
+    return IterableExtensions.<String>toList(IterableExtensions.<WorkspaceSymbolIndex.Entry, String>map(entries, _function));
+  }
+  
+  private IResourceDescription newDescription(final String uri, final String... names) {
+    final URI resourceURI = URI.createURI(uri);
+    SerializableResourceDescription _serializableResourceDescription = new SerializableResourceDescription();
+    final Procedure1<SerializableResourceDescription> _function = (SerializableResourceDescription it) -> {
+      it.setURI(resourceURI);
+      final Function1<String, SerializableEObjectDescription> _function_1 = (String name) -> {
+        SerializableEObjectDescription _serializableEObjectDescription = new SerializableEObjectDescription();
+        final Procedure1<SerializableEObjectDescription> _function_2 = (SerializableEObjectDescription it_1) -> {
+          it_1.setEObjectURI(resourceURI.appendFragment(name));
+          it_1.setQualifiedName(QualifiedName.create(name.split("\\.")));
+        };
+        return ObjectExtensions.<SerializableEObjectDescription>operator_doubleArrow(_serializableEObjectDescription, _function_2);
+      };
+      it.setDescriptions(IterableExtensions.<SerializableEObjectDescription>toList(ListExtensions.<String, SerializableEObjectDescription>map(((List<String>)Conversions.doWrapArray(names)), _function_1)));
+      it.setReferences(Collections.<SerializableReferenceDescription>unmodifiableList(CollectionLiterals.<SerializableReferenceDescription>newArrayList()));
+      it.setImportedNames(Collections.<QualifiedName>unmodifiableList(CollectionLiterals.<QualifiedName>newArrayList()));
+    };
+    return ObjectExtensions.<SerializableResourceDescription>operator_doubleArrow(_serializableResourceDescription, _function);
+  }
+}
@@ -0,0 +1,82 @@
+/**
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.ide.tests.server;
+
+import com.google.inject.Binder;
+import com.google.inject.Module;
+import org.eclipse.xtend2.lib.StringConcatenation;
+import org.eclipse.xtext.ide.server.LanguageServerImpl;
+import org.eclipse.xtext.ide.tests.server.AbstractTestLangLanguageServerTest;
+import org.eclipse.xtext.testing.WorkspaceSymbolConfiguraiton;
+import org.eclipse.xtext.util.Modules2;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
+import org.junit.Test;
+
+@SuppressWarnings("all")
+public class WorkspaceSymbolLimitTest extends AbstractTestLangLanguageServerTest {
+  public static class LimitedLanguageServer extends LanguageServerImpl {
+    @Override
+    protected int getMaxWorkspaceSymbols() {
+      return 2;
+    }
+  }
+  
+  @Override
+  protected Module getServerModule() {
+    final Module _function = (Binder it) -> {
+      it.<LanguageServerImpl>bind(LanguageServerImpl.class).to(WorkspaceSymbolLimitTest.LimitedLanguageServer.class);
+    };
+    return Modules2.mixin(super.getServerModule(), _function);
+  }
+  
+  @Test
+  public void testSymbolsUpToLimit() {
+    final Procedure1<WorkspaceSymbolConfiguraiton> _function = (WorkspaceSymbolConfiguraiton it) -> {
+      StringConcatenation _builder = new StringConcatenation();
+      _builder.append("type Foo {");
+      _builder.newLine();
+      _builder.append("\t");
+      _builder.append("int bar");
+      _builder.newLine();
+      _builder.append("}");
+      _builder.newLine();
+      _builder.append("type Bar {");
+      _builder.newLine();
+      _builder.append("\t");
+      _builder.append("Foo foo");
+      _builder.newLine();
+      _builder.append("}");
+      _builder.newLine();
+      it.setModel(_builder.toString());
+      it.setQuery("F");
+      StringConcatenation _builder_1 = new StringConcatenation();
+      _builder_1.append("symbol \"Foo\" {");
+      _builder_1.newLine();
+      _builder_1.append("\t");
+      _builder_1.append("kind: 7");
+      _builder_1.newLine();
+      _builder_1.append("\t");
+      _builder_1.append("location: MyModel.testlang [[0, 5] .. [0, 8]]");
+      _builder_1.newLine();
+      _builder_1.append("}");
+      _builder_1.newLine();
+      _builder_1.append("symbol \"Foo.bar\" {");
+      _builder_1.newLine();
+      _builder_1.append("\t");
+      _builder_1.append("kind: 7");
+      _builder_1.newLine();
+      _builder_1.append("\t");
+      _builder_1.append("location: MyModel.testlang [[1, 5] .. [1, 8]]");
+      _builder_1.newLine();
+      _builder_1.append("}");
+      _builder_1.newLine();
+      it.setExpectedSymbols(_builder_1.toString());
+    };
+    this.testSymbol(_function);
+  }
+}
@@ -149,4 +149,47 @@ public class WorkspaceSymbolTest extends AbstractTestLangLanguageServerTest {
     };
     this.testSymbol(_function);
   }
+  
+  @Test
+  public void testSymbol_03() {
+    final Procedure1<WorkspaceSymbolConfiguraiton> _function = (WorkspaceSymbolConfiguraiton it) -> {
+      StringConcatenation _builder = new StringConcatenation();
+      _builder.append("type FooBar {");
+      _builder.newLine();
+      _builder.append("\t");
+      _builder.append("int fooBaz");
+      _builder.newLine();
+      _builder.append("}");
+      _builder.newLine();
+      _builder.append("type Bar {");
+      _builder.newLine();
+      _builder.append("}");
+      _builder.newLine();
+      it.setModel(_builder.toString());
+      it.setQuery("FoBa");
+      StringConcatenation _builder_1 = new StringConcatenation();
+      _builder_1.append("symbol \"FooBar\" {");
+      _builder_1.newLine();
+      _builder_1.append("\t");
+      _builder_1.append("kind: 7");
+      _builder_1.newLine();
+      _builder_1.append("\t");
+      _builder_1.append("location: MyModel.testlang [[0, 5] .. [0, 11]]");
+      _builder_1.newLine();
+      _builder_1.append("}");
+      _builder_1.newLine();
+      _builder_1.append("symbol \"FooBar.fooBaz\" {");
+      _builder_1.newLine();
+      _builder_1.append("\t");
+      _builder_1.append("kind: 7");
+      _builder_1.newLine();
+      _builder_1.append("\t");
+      _builder_1.append("location: MyModel.testlang [[1, 5] .. [1, 11]]");
+      _builder_1.newLine();
+      _builder_1.append("}");
+      _builder_1.newLine();
+      it.setExpectedSymbols(_builder_1.toString());
+    };
+    this.testSymbol(_function);
+  }
 }
@@ -7,14 +7,22 @@
  */
 package org.eclipse.xtext.ide.tests.server.concurrent;
 
+import com.google.inject.Binder;
 import com.google.inject.Guice;
 import com.google.inject.Inject;
+import com.google.inject.Module;
+import com.google.inject.name.Names;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import org.eclipse.xtext.ide.server.ServerModule;
 import org.eclipse.xtext.ide.server.concurrent.RequestManager;
+import org.eclipse.xtext.ide.server.concurrent.RequestPriority;
+import org.eclipse.xtext.ide.server.concurrent.RequestStatistics;
 import org.eclipse.xtext.util.CancelIndicator;
+import org.eclipse.xtext.util.Modules2;
 import org.eclipse.xtext.xbase.lib.Exceptions;
 import org.eclipse.xtext.xbase.lib.Functions.Function0;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
@@ -197,4 +205,188 @@ public class RequestManagerTest {
       throw Exceptions.sneakyThrow(_e);
     }
   }
+  
+  @Test(timeout = 1000)
+  public void testInteractiveReadIsCancelledByWrite() {
+    try {
+      final CountDownLatch started = new CountDownLatch(1);
+      final Function1<CancelIndicator, Object> _function = (CancelIndicator cancelIndicator) -> {
+        try {
+          started.countDown();
+          while ((!cancelIndicator.isCanceled())) {
+            Thread.sleep(10);
+          }
+          return null;
+        } catch (Throwable _e) {
+          throw Exceptions.sneakyThrow(_e);
+        }
+      };
+      final CompletableFuture<Object> read = this.requestManager.<Object>runRead(RequestPriority.INTERACTIVE, _function);
+      started.await();
+      final Function0<Object> _function_1 = () -> {
+        return null;
+      };
+      final Function2<CancelIndicator, Object, Integer> _function_2 = (CancelIndicator $0, Object $1) -> {
+        return Integer.valueOf(this.sharedState.incrementAndGet());
+      };
+      this.requestManager.<Object, Integer>runWrite(_function_1, _function_2).join();
+      Assert.assertTrue(read.isCancelled());
+      Assert.assertEquals(1, this.sharedState.get());
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  @Test(timeout = 3000)
+  public void testCoalescedWrites() {
+    try {
+      this.requestManager.setDebounceWindow(500);
+      final Function0<Integer> _function = () -> {
+        return Integer.valueOf(this.sharedState.incrementAndGet());
+      };
+      final Function2<CancelIndicator, Integer, Integer> _function_1 = (CancelIndicator $0, Integer $1) -> {
+        return Integer.valueOf(this.sharedState.addAndGet(10));
+      };
+      final CompletableFuture<Integer> first = this.requestManager.<Integer, Integer>runCoalescedWrite(_function, _function_1);
+      Thread.sleep(100);
+      final Function0<Integer> _function_2 = () -> {
+        return Integer.valueOf(this.sharedState.incrementAndGet());
+      };
+      final Function2<CancelIndicator, Integer, Integer> _function_3 = (CancelIndicator $0, Integer $1) -> {
+        return Integer.valueOf(this.sharedState.addAndGet(10));
+      };
+      final CompletableFuture<Integer> second = this.requestManager.<Integer, Integer>runCoalescedWrite(_function_2, _function_3);
+      Assert.assertEquals(12, (second.join()).intValue());
+      Assert.assertTrue(first.isCancelled());
+      Assert.assertEquals(2, this.requestManager.getWriteStatistics().getStartedRequests());
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  @Test(timeout = 1000)
+  public void testInteractiveReadEndsDebounce() {
+    try {
+      this.requestManager.setDebounceWindow(10000);
+      final Function0<Object> _function = () -> {
+        return null;
+      };
+      final Function2<CancelIndicator, Object, Integer> _function_1 = (CancelIndicator $0, Object $1) -> {
+        return Integer.valueOf(this.sharedState.incrementAndGet());
+      };
+      this.requestManager.<Object, Integer>runCoalescedWrite(_function, _function_1);
+      final Function1<CancelIndicator, Integer> _function_2 = (CancelIndicator it) -> {
+        return Integer.valueOf(this.sharedState.get());
+      };
+      final CompletableFuture<Integer> read = this.requestManager.<Integer>runRead(RequestPriority.INTERACTIVE, _function_2);
+      Assert.assertEquals(1, (read.get()).intValue());
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  @Test(timeout = 3000)
+  public void testInteractiveReadDoesNotEndLaterDebounce() {
+    try {
+      this.requestManager.setDebounceWindow(500);
+      final Function1<CancelIndicator, Integer> _function = (CancelIndicator it) -> {
+        return Integer.valueOf(this.sharedState.get());
+      };
+      this.requestManager.<Integer>runRead(RequestPriority.INTERACTIVE, _function).join();
+      final Function0<Object> _function_1 = () -> {
+        return null;
+      };
+      final Function2<CancelIndicator, Object, Integer> _function_2 = (CancelIndicator $0, Object $1) -> {
+        return Integer.valueOf(this.sharedState.incrementAndGet());
+      };
+      final CompletableFuture<Integer> write = this.requestManager.<Object, Integer>runCoalescedWrite(_function_1, _function_2);
+      Thread.sleep(200);
+      Assert.assertFalse(write.isDone());
+      Assert.assertEquals(1, (write.get()).intValue());
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  @Test(timeout = 3000)
+  public void testReadDuringDebounce() {
+    try {
+      this.requestManager.setDebounceWindow(500);
+      final Function0<Integer> _function = () -> {
+        return Integer.valueOf(this.sharedState.incrementAndGet());
+      };
+      final Function2<CancelIndicator, Integer, Integer> _function_1 = (CancelIndicator $0, Integer $1) -> {
+        return Integer.valueOf(this.sharedState.addAndGet(10));
+      };
+      final CompletableFuture<Integer> write = this.requestManager.<Integer, Integer>runCoalescedWrite(_function, _function_1);
+      final Function1<CancelIndicator, Integer> _function_2 = (CancelIndicator it) -> {
+        return Integer.valueOf(this.sharedState.get());
+      };
+      final CompletableFuture<Integer> read = this.requestManager.<Integer>runRead(_function_2);
+      Assert.assertEquals(1, (read.get()).intValue());
+      Assert.assertFalse(write.isDone());
+      Assert.assertEquals(11, (write.get()).intValue());
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  @Test(timeout = 1000)
+  public void testStatistics() {
+    final Function1<CancelIndicator, String> _function = (CancelIndicator it) -> {
+      return "Foo";
+    };
+    this.requestManager.<String>runRead(RequestPriority.INTERACTIVE, _function).join();
+    final Function1<CancelIndicator, String> _function_1 = (CancelIndicator it) -> {
+      return "Bar";
+    };
+    this.requestManager.<String>runRead(_function_1).join();
+    final RequestStatistics statistics = this.requestManager.getReadStatistics(RequestPriority.INTERACTIVE);
+    Assert.assertEquals(1, statistics.getStartedRequests());
+    Assert.assertEquals(0, statistics.getQueueDepth());
+    long _maxWaitTime = statistics.getMaxWaitTime(TimeUnit.NANOSECONDS);
+    long _averageWaitTime = statistics.getAverageWaitTime(TimeUnit.NANOSECONDS);
+    boolean _greaterEqualsThan = (_maxWaitTime >= _averageWaitTime);
+    Assert.assertTrue(_greaterEqualsThan);
+    Assert.assertEquals(1, this.requestManager.getReadStatistics(RequestPriority.BACKGROUND).getStartedRequests());
+  }
+  
+  @Test(timeout = 1000)
+  public void testSnapshotReadDuringWrite() {
+    try {
+      this.requestManager.shutdown();
+      ServerModule _serverModule = new ServerModule();
+      final Module _function = (Binder it) -> {
+        it.bindConstant().annotatedWith(Names.named(RequestManager.SNAPSHOT_READS)).to(true);
+      };
+      Guice.createInjector(Modules2.mixin(_serverModule, _function)).injectMembers(this);
+      final CountDownLatch proceed = new CountDownLatch(1);
+      final Function0<Integer> _function_1 = () -> {
+        return Integer.valueOf(this.sharedState.incrementAndGet());
+      };
+      final Function2<CancelIndicator, Integer, Integer> _function_2 = (CancelIndicator $0, Integer $1) -> {
+        try {
+          int _xblockexpression = (int) 0;
+          {
+            proceed.await();
+            _xblockexpression = this.sharedState.incrementAndGet();
+          }
+          return Integer.valueOf(_xblockexpression);
+        } catch (Throwable _e) {
+          throw Exceptions.sneakyThrow(_e);
+        }
+      };
+      final CompletableFuture<Integer> write = this.requestManager.<Integer, Integer>runWrite(_function_1, _function_2);
+      final Function1<CancelIndicator, Integer> _function_3 = (CancelIndicator it) -> {
+        return Integer.valueOf(this.sharedState.get());
+      };
+      final CompletableFuture<Integer> read = this.requestManager.<Integer>runRead(_function_3);
+      Assert.assertEquals(1, (read.get()).intValue());
+      Assert.assertFalse(write.isDone());
+      proceed.countDown();
+      Assert.assertEquals(2, (write.get()).intValue());
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
 }
@@ -11,20 +11,36 @@ import com.google.common.collect.Maps
 import com.google.inject.Inject
 import com.google.inject.Provider
 import com.google.inject.Singleton
+import com.google.inject.name.Named
 import java.util.Map
 import java.util.concurrent.ExecutorService
 import java.util.concurrent.Executors
 import org.eclipse.xtext.util.DisposableRegistry
 import org.eclipse.xtext.util.IDisposable
+import org.eclipse.xtext.util.internal.Log
 
 /**
  * Provider for executor services. By calling {@link #dispose()} all created executor services are shut down.
  * <p>
  * In some situations it is necessary to use multiple instances of executor services in order to avoid deadlocks.
  * That can be achieved with the {@link #get(String)}method, which will return a different instance for each key.
+ * <p>
+ * If {@link #VIRTUAL_THREADS} is bound to <code>true</code> and the runtime supports virtual threads, each task runs in
+ * a new virtual thread. Tasks that block on I/O then do not occupy a platform thread. Otherwise a cached thread pool
+ * is used.
  */
 @Singleton
-class ExecutorServiceProvider implements Provider<ExecutorService>, IDisposable {
+@Log class ExecutorServiceProvider implements Provider<ExecutorService>, IDisposable {
+	
+	/**
+	 * The name of the binding that enables virtual threads.
+	 * @since 2.14
+	 */
+	public static val VIRTUAL_THREADS = "org.eclipse.xtext.ide.ExecutorServiceProvider.virtualThreads"
+	
+	@Inject(optional=true)
+	@Named(VIRTUAL_THREADS)
+	boolean virtualThreads = false
 	
 	@Inject
 	def registerTo(DisposableRegistry disposableRegistry) {
@@ -52,9 +68,29 @@ class ExecutorServiceProvider implements Provider<ExecutorService>, IDisposable
 	}
 	
 	protected def ExecutorService createInstance(String key) {
+		if (virtualThreads) {
+			val result = createVirtualThreadExecutor
+			if (result !== null) {
+				return result
+			}
+		}
 		Executors.newCachedThreadPool
 	}
 	
+	/**
+	 * Returns an executor service that starts a new virtual thread for each task or <code>null</code> if the runtime
+	 * does not support virtual threads.
+	 * @since 2.14
+	 */
+	protected def ExecutorService createVirtualThreadExecutor() {
+		try {
+			return Executors.getMethod('newVirtualThreadPerTaskExecutor').invoke(null) as ExecutorService
+		} catch (ReflectiveOperationException e) {
+			LOG.warn("Virtual threads are not supported by this runtime, using a thread pool instead.")
+			return null
+		}
+	}
+	
 	override dispose() {
 		for (executorService : instanceCache.values) {
 			executorService.shutdown()
@@ -10,14 +10,19 @@ package org.eclipse.xtext.ide.server
 import com.google.common.collect.HashMultimap
 import com.google.inject.Inject
 import com.google.inject.Provider
+import com.google.inject.name.Named
 import java.util.ArrayList
 import java.util.Collection
 import java.util.List
+import java.util.Map
 import java.util.Set
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorCompletionService
 import org.eclipse.emf.common.util.URI
 import org.eclipse.xtend.lib.annotations.Accessors
 import org.eclipse.xtend.lib.annotations.Data
 import org.eclipse.xtext.diagnostics.Severity
+import org.eclipse.xtext.ide.ExecutorServiceProvider
 import org.eclipse.xtext.resource.IResourceDescription
 import org.eclipse.xtext.resource.impl.ProjectDescription
 import org.eclipse.xtext.util.CancelIndicator
@@ -30,9 +35,22 @@ class BuildManager {
     
     public static val CYCLIC_PROJECT_DEPENDENCIES = BuildManager.canonicalName + '.cyclicProjectDependencies'
 
+    /**
+     * The name of the binding for the maximum number of projects that are built concurrently. Projects are built one
+     * after another by default.
+     * 
+     * @since 2.14
+     */
+    public static val PARALLEL_BUILDS = "org.eclipse.xtext.ide.server.BuildManager.parallelBuilds"
+
     @Accessors(PUBLIC_SETTER)
     WorkspaceManager workspaceManager
     @Inject Provider<TopologicalSorter> sorterProvider
+    @Inject ExecutorServiceProvider executorServiceProvider
+
+    @Inject(optional=true)
+    @Named(PARALLEL_BUILDS)
+    int parallelBuilds = 1
 
     val dirtyFiles = <URI>newLinkedHashSet
     val deletedFiles = <URI>newLinkedHashSet
@@ -56,7 +74,7 @@ class BuildManager {
         val sortedDescriptions = sortByDependencies(projects)
         val result = newArrayList
         for(description : sortedDescriptions) {
-            val partialresult = workspaceManager.getProjectManager(description.name).doInitialBuild(indicator)
+            val partialresult = workspaceManager.getProjectManager(description.name).doInitialBuild(result, indicator)
             result.addAll(partialresult.affectedResources)
         }
         return result
@@ -75,6 +93,12 @@ class BuildManager {
             project2deleted.put(projectManager, deleted)
         }
         val sortedDescriptions = sortByDependencies(project2dirty.keySet + project2deleted.keySet)
+        if (parallelBuilds > 1 && sortedDescriptions.size > 1) {
+            val project2data = sortedDescriptions.toInvertedMap [
+                new ProjectBuildData(project2dirty.get(it).toList, project2deleted.get(it).toList)
+            ]
+            return internalBuildInParallel(sortedDescriptions, project2data, cancelIndicator)
+        }
         val result = newArrayList()
         for(ProjectDescription it: sortedDescriptions) {
             val projectManager = workspaceManager.getProjectManager(name)
@@ -89,6 +113,81 @@ class BuildManager {
         return result
     }
     
+    /**
+     * Builds up to {@link #PARALLEL_BUILDS} projects concurrently. A project is built as soon as the projects that it
+     * depends on are built, and it receives their deltas as external deltas. The deltas are returned in the order of
+     * the sorted projects, regardless of the order in which the builds finish.
+     * 
+     * @since 2.14
+     */
+    protected def List<IResourceDescription.Delta> internalBuildInParallel(List<ProjectDescription> sortedDescriptions,
+        Map<ProjectDescription, ProjectBuildData> project2data, CancelIndicator cancelIndicator) {
+        val project2upstream = sortedDescriptions.toInvertedMap[getUpstreamProjects(sortedDescriptions)]
+        val project2deltas = <ProjectDescription, List<IResourceDescription.Delta>>newHashMap
+        val remaining = new ArrayList(sortedDescriptions)
+        val completionService = new ExecutorCompletionService<Pair<ProjectDescription, List<IResourceDescription.Delta>>>(
+            executorServiceProvider.get(BuildManager.canonicalName))
+        var running = 0
+        var Throwable failure = null
+        while (running > 0 || (failure === null && !remaining.empty)) {
+            val iterator = remaining.iterator
+            while (failure === null && running < parallelBuilds && iterator.hasNext) {
+                val project = iterator.next
+                val upstream = project2upstream.get(project)
+                // a dependency cycle via projects that are not built must not stall the build
+                if (running === 0 || project2deltas.keySet.containsAll(upstream)) {
+                    iterator.remove
+                    val projectManager = workspaceManager.getProjectManager(project.name)
+                    val data = project2data.get(project)
+                    val externalDeltas = upstream.map[project2deltas.get(it)].flatten.toList
+                    completionService.submit [
+                        project -> projectManager.doBuild(data.dirtyFiles, data.deletedFiles, externalDeltas,
+                            cancelIndicator).affectedResources
+                    ]
+                    running++
+                }
+            }
+            try {
+                val built = completionService.take.get
+                running--
+                project2deltas.put(built.key, built.value)
+                this.dirtyFiles -= project2data.get(built.key).dirtyFiles
+                this.deletedFiles -= project2data.get(built.key).deletedFiles
+            } catch (ExecutionException e) {
+                running--
+                if (failure === null) {
+                    failure = e.cause
+                }
+            }
+        }
+        if (failure !== null) {
+            throw failure
+        }
+        return sortedDescriptions.map[project2deltas.get(it)].flatten.toList
+    }
+
+    /**
+     * Returns the given projects that the given project depends on directly or transitively, in the given order.
+     * 
+     * @since 2.14
+     */
+    protected def List<ProjectDescription> getUpstreamProjects(ProjectDescription project,
+        List<ProjectDescription> projects) {
+        val reachable = <String>newHashSet
+        val queue = newLinkedList(project)
+        while (!queue.empty) {
+            for (dependency : queue.poll.dependencies) {
+                if (reachable.add(dependency)) {
+                    val description = workspaceManager.getProjectManager(dependency)?.projectDescription
+                    if (description !== null) {
+                        queue.add(description)
+                    }
+                }
+            }
+        }
+        return projects.filter[it !== project && reachable.contains(name)].toList
+    }
+
     protected def sortByDependencies(Iterable<ProjectDescription> projectDescriptions) {
         sorterProvider.get.sortByDependencies(projectDescriptions.toList) [
             workspaceManager.getProjectManager(name).reportDependencyCycle
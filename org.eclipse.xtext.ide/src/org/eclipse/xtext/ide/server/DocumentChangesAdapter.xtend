@@ -0,0 +1,148 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ide.server
+
+import com.google.common.annotations.Beta
+import java.util.ArrayDeque
+import org.eclipse.emf.common.notify.impl.AdapterImpl
+import org.eclipse.emf.ecore.resource.Resource
+import org.eclipse.emf.ecore.util.EcoreUtil
+import org.eclipse.xtend.lib.annotations.Data
+
+/**
+ * Attached to the resource of an open document that is reparsed incrementally. It records the version of the document
+ * that the resource reflects and the text changes that were applied to the resource, such that services can update
+ * the results of previous requests instead of computing them from scratch.
+ *
+ * @since 2.14
+ */
+@Beta
+class DocumentChangesAdapter extends AdapterImpl {
+
+	/**
+	 * A change of the resource's text.
+	 */
+	@Data static class TextChange {
+		/**
+		 * The document version before the change.
+		 */
+		int fromVersion
+		/**
+		 * The document version after the change.
+		 */
+		int toVersion
+		/**
+		 * The offset of the change in the text of {@link #getFromVersion() the version before the change}.
+		 */
+		int offset
+		int replacedLength
+		int newLength
+	}
+
+	/**
+	 * The maximum number of changes that are kept. Requests for older versions are computed from scratch.
+	 */
+	static val MAX_CHANGES = 1000
+
+	def static DocumentChangesAdapter find(Resource resource) {
+		return EcoreUtil.getExistingAdapter(resource, DocumentChangesAdapter) as DocumentChangesAdapter
+	}
+
+	/**
+	 * Attaches a new adapter to the given resource, which reflects the given document version.
+	 */
+	def static DocumentChangesAdapter install(Resource resource, int version) {
+		resource.eAdapters.removeAll(resource.eAdapters.filter(DocumentChangesAdapter).toList)
+		val adapter = new DocumentChangesAdapter(version)
+		resource.eAdapters += adapter
+		return adapter
+	}
+
+	/**
+	 * Guards the changes. This is a private lock, since the adapter is reachable from the resource.
+	 */
+	val lock = new Object
+
+	val changes = new ArrayDeque<TextChange>
+
+	volatile int version
+
+	protected new(int version) {
+		this.version = version
+	}
+
+	override isAdapterForType(Object type) {
+		return type === DocumentChangesAdapter
+	}
+
+	/**
+	 * Returns the version of the open document that the resource reflects.
+	 */
+	def int getVersion() {
+		return version
+	}
+
+	/**
+	 * Records a change that was applied to the resource. The changes of one document version are recorded one after
+	 * the other, the offset of each change refers to the text after the preceding changes.
+	 */
+	def void recordChange(int toVersion, int offset, int replacedLength, int newLength) {
+		synchronized (lock) {
+			val fromVersion = if (changes.empty || changes.last.toVersion !== toVersion)
+					version
+				else
+					changes.last.fromVersion
+			changes.addLast(new TextChange(fromVersion, toVersion, offset, replacedLength, newLength))
+			if (changes.size > MAX_CHANGES) {
+				// drop the oldest version completely, a part of its changes would be useless
+				val oldest = changes.removeFirst.fromVersion
+				while (!changes.empty && changes.first.fromVersion === oldest) {
+					changes.removeFirst
+				}
+			}
+			version = toVersion
+		}
+	}
+
+	/**
+	 * Returns a single change that covers all changes since the given version or <code>null</code> if they are not
+	 * known anymore. Its offset and replaced length refer to the text of the given version.
+	 */
+	def TextChange getChangeSince(int fromVersion) {
+		synchronized (lock) {
+			if (fromVersion === version) {
+				return new TextChange(fromVersion, version, 0, 0, 0)
+			}
+			var started = false
+			var start = 0
+			var end = 0
+			var delta = 0
+			for (change : changes) {
+				if (!started && change.fromVersion === fromVersion) {
+					started = true
+					start = change.offset
+					end = change.offset + change.replacedLength
+					delta = 0
+				}
+				if (started) {
+					// the changed region in the current text is [start, end + delta)
+					if (change.offset + change.replacedLength > end + delta) {
+						end = change.offset + change.replacedLength - delta
+					}
+					start = Math.min(start, change.offset)
+					delta += change.newLength - change.replacedLength
+				}
+			}
+			if (!started) {
+				return null
+			}
+			return new TextChange(fromVersion, version, start, end - start, end - start + delta)
+		}
+	}
+
+}
@@ -0,0 +1,72 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ide.server
+
+import com.google.common.annotations.Beta
+import java.util.Map
+import org.eclipse.emf.common.util.URI
+
+/**
+ * Caches the results of read requests for open documents. The results are keyed by the document, which is replaced
+ * on every change, and by a request specific key, e.g. the request parameters. Results that depend on other
+ * resources become stale with a build, so the cache is {@link #clear() cleared} whenever a build produced deltas.
+ *
+ * @since 2.14
+ */
+@Beta
+class DocumentResultCache {
+
+	val Map<URI, Pair<Document, Map<Object, Object>>> uri2results = newHashMap
+
+	/**
+	 * Incremented by {@link #clear()}, such that results that were computed before are not stored.
+	 */
+	long generation
+
+	/**
+	 * Returns the cached result for the given document and key or computes and caches it.
+	 */
+	def <T> T get(URI uri, Document document, Object key, ()=>T computation) {
+		var long expectedGeneration
+		synchronized (this) {
+			val results = uri2results.get(uri)
+			if (results !== null && results.key === document && results.value.containsKey(key)) {
+				return results.value.get(key) as T
+			}
+			expectedGeneration = generation
+		}
+		val result = computation.apply
+		synchronized (this) {
+			if (expectedGeneration === generation) {
+				var results = uri2results.get(uri)
+				if (results === null || results.key !== document) {
+					results = document -> newHashMap
+					uri2results.put(uri, results)
+				}
+				results.value.put(key, result)
+			}
+		}
+		return result
+	}
+
+	/**
+	 * Removes the results for the given document.
+	 */
+	def synchronized void invalidate(URI uri) {
+		uri2results.remove(uri)
+	}
+
+	/**
+	 * Removes all results.
+	 */
+	def synchronized void clear() {
+		uri2results.clear
+		generation++
+	}
+
+}
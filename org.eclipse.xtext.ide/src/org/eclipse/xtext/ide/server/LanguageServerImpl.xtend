@@ -71,6 +71,7 @@ import org.eclipse.xtext.ide.server.codelens.ICodeLensResolver
 import org.eclipse.xtext.ide.server.codelens.ICodeLensService
 import org.eclipse.xtext.ide.server.coloring.IColoringService
 import org.eclipse.xtext.ide.server.concurrent.RequestManager
+import org.eclipse.xtext.ide.server.concurrent.RequestPriority
 import org.eclipse.xtext.ide.server.contentassist.ContentAssistService
 import org.eclipse.xtext.ide.server.findReferences.WorkspaceResourceAccess
 import org.eclipse.xtext.ide.server.formatting.FormattingService
@@ -210,7 +211,11 @@ import org.eclipse.lsp4j.WorkspaceEdit
 
 	override CompletableFuture<Object> shutdown() {
 		this.hasShutdownBeenCalled = true;
-		return CompletableFuture.completedFuture(new Object());
+		// the state of the last build is persisted before the client sends exit
+		return requestManager.runWrite([
+			workspaceManager.persistProjectStates
+			return new Object
+		], [$1])
 	}
 
 	override TextDocumentService getTextDocumentService() {
@@ -232,7 +237,7 @@ import org.eclipse.lsp4j.WorkspaceEdit
 	}
 
 	override didChange(DidChangeTextDocumentParams params) {
-		requestManager.runWrite([ 
+		requestManager.runCoalescedWrite([ 
 			workspaceManager.didChange(params.textDocument.uri.toUri, params.textDocument.version, params.contentChanges.map [ event |
 				new TextEdit(event.range, event.text)
 			])
@@ -330,7 +335,7 @@ import org.eclipse.lsp4j.WorkspaceEdit
 	}
 	// completion stuff
 	override completion(TextDocumentPositionParams params) {
-		return requestManager.runRead[origialCancelIndicator|completion(origialCancelIndicator, params)]
+		return requestManager.runRead(RequestPriority.INTERACTIVE)[origialCancelIndicator|completion(origialCancelIndicator, params)]
 	}
 	
 	protected def Either<List<CompletionItem>, CompletionList> completion(CancelIndicator origialCancelIndicator, TextDocumentPositionParams params) {
@@ -388,7 +393,7 @@ import org.eclipse.lsp4j.WorkspaceEdit
 			if (documentSymbolService === null)
 				return emptyList
 	
-			return workspaceManager.doRead(uri) [ document, resource |
+			return workspaceManager.doRead(uri, 'documentSymbol' -> params) [ document, resource |
 				return documentSymbolService.getSymbols(document, resource, params, cancelIndicator)
 			]
 		]
@@ -397,23 +402,40 @@ import org.eclipse.lsp4j.WorkspaceEdit
 	override symbol(WorkspaceSymbolParams params) {
 		return requestManager.<List<? extends SymbolInformation>>runRead [ cancelIndicator |
 			val indexData = workspaceManager.index
-			return workspaceSymbolService.getSymbols(params.query, resourceAccess, indexData, cancelIndicator)
+			val maxResults = maxWorkspaceSymbols
+			val result = newArrayList
+			// the search stops as soon as enough symbols were found
+			workspaceSymbolService.getSymbols(params.query, resourceAccess, indexData, [ symbol |
+				result += symbol
+				return result.size < maxResults
+			], cancelIndicator)
+			return result
 		]
 	}
 
+	/**
+	 * The maximum number of symbols that are returned for a workspace symbol request. Unlimited by default, servers
+	 * whose clients only show the first symbols may return a lower limit, so the search ends early.
+	 * 
+	 * @since 2.14
+	 */
+	protected def int getMaxWorkspaceSymbols() {
+		return Integer.MAX_VALUE
+	}
+
 	// end symbols
 
 	// hover
 	
 	override hover(TextDocumentPositionParams params) {
-		return requestManager.runRead[ cancelIndicator |
+		return requestManager.runRead(RequestPriority.INTERACTIVE)[ cancelIndicator |
 			val uri = params.textDocument.uri.toUri
 			val resourceServiceProvider = uri.resourceServiceProvider
 			val hoverService = resourceServiceProvider?.get(IHoverService)
 			if (hoverService === null)
 				return IHoverService.EMPTY_HOVER
 
-			return workspaceManager.doRead(uri) [ document, resource |
+			return workspaceManager.doRead(uri, 'hover' -> params) [ document, resource |
 				hoverService.hover(document, resource, params, cancelIndicator)
 			]
 		]
@@ -426,7 +448,7 @@ import org.eclipse.lsp4j.WorkspaceEdit
 	}
 
 	override signatureHelp(TextDocumentPositionParams params) {
-		return requestManager.runRead [ cancelIndicator |
+		return requestManager.runRead(RequestPriority.INTERACTIVE) [ cancelIndicator |
             val uri = params.textDocument.uri.toUri;
             val serviceProvider = uri.resourceServiceProvider;
             val helper = serviceProvider?.get(ISignatureHelpService);
@@ -447,7 +469,7 @@ import org.eclipse.lsp4j.WorkspaceEdit
 			if (service === null)
 				return emptyList
 			
-			return workspaceManager.doRead(uri) [doc, resource |
+			return workspaceManager.doRead(uri, 'documentHighlight' -> params) [doc, resource |
 				service.getDocumentHighlights(doc, resource, params, cancelIndicator)
 			]
 		];
@@ -498,7 +520,7 @@ import org.eclipse.lsp4j.WorkspaceEdit
 			if (codeLensService === null)
 				return emptyList
 
-			return workspaceManager.doRead(uri) [ document, resource |
+			return workspaceManager.doRead(uri, 'codeLens' -> params) [ document, resource |
 				val result = codeLensService.computeCodeLenses(document, resource, params, cancelIndicator)
 				installURI(result, uri.toString)
 				return result
@@ -665,6 +687,7 @@ import org.eclipse.lsp4j.WorkspaceEdit
 	}
 	
 	override afterBuild(List<Delta> deltas) {
+		workspaceSymbolService.afterBuild(deltas, workspaceManager.index)
 		if (client instanceof LanguageClientExtensions) {
 		deltas.filter[^new !== null].map[uri.toString].forEach [
 				access.<Void>doRead(it) [ ctx |
@@ -0,0 +1,172 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ide.server
+
+import com.google.common.annotations.Beta
+import java.util.Arrays
+import org.eclipse.lsp4j.Position
+import org.eclipse.lsp4j.TextEdit
+
+/**
+ * A {@link Document} that keeps a table of the offsets at which the lines start. Positions and offsets are converted
+ * by a binary search in that table instead of a scan of the text.
+ *
+ * In contrast to {@link Document#applyChanges(Iterable)}, the changes are applied one after the other as mandated by
+ * the language server protocol, i.e. the range of a change refers to the text that results from the previous changes.
+ * The line table of the new document is derived from the table of this document and the changes, so only the text of
+ * the changes has to be scanned for line breaks. Applying changes is still linear in the size of the document, since
+ * the {@link #getContents() contents} are a single string and the line table is copied, too.
+ *
+ * @since 2.14
+ */
+@Beta
+class LineIndexedDocument extends Document {
+
+	/**
+	 * The offsets at which the lines start. The first entry is always zero.
+	 */
+	val int[] lineOffsets
+
+	new(int version, String contents) {
+		this(version, contents, computeLineOffsets(contents))
+	}
+
+	protected new(int version, String contents, int[] lineOffsets) {
+		super(version, contents)
+		this.lineOffsets = lineOffsets
+	}
+
+	def int getLineCount() {
+		return lineOffsets.length
+	}
+
+	override int getOffSet(Position position) {
+		val result = getOffset(lineOffsets, lineOffsets.length, contents.length, position)
+		if (result === -1)
+			throw new IndexOutOfBoundsException(position.toString + " text was : " + contents)
+		return result
+	}
+
+	override Position getPosition(int offset) {
+		if (offset < 0 || offset > contents.length)
+			throw new IndexOutOfBoundsException(offset + " text was : " + contents)
+		val line = findLine(lineOffsets, lineOffsets.length, offset) - 1
+		return new Position(line, offset - lineOffsets.get(line))
+	}
+
+	override Document applyChanges(Iterable<? extends TextEdit> changes) {
+		var String newContents = contents
+		var StringBuilder builder = null
+		var newLineOffsets = lineOffsets
+		var count = lineOffsets.length
+		for (change : changes) {
+			if (change.range === null) {
+				builder = null
+				newContents = change.newText
+				newLineOffsets = computeLineOffsets(newContents)
+				count = newLineOffsets.length
+			} else {
+				if (builder === null) {
+					builder = new StringBuilder(newContents)
+					newLineOffsets = Arrays.copyOf(newLineOffsets, count)
+				}
+				val start = getOffset(newLineOffsets, count, builder.length, change.range.start)
+				val end = getOffset(newLineOffsets, count, builder.length, change.range.end)
+				if (start === -1 || end === -1 || start > end)
+					throw new IndexOutOfBoundsException(change.range.toString + " text was : " + builder)
+				val newText = change.newText ?: ''
+				builder.replace(start, end, newText)
+
+				// the lines that start within the replaced text are replaced by the lines of the new text
+				val first = findLine(newLineOffsets, count, start)
+				val last = findLine(newLineOffsets, count, end)
+				val added = computeLineOffsets(newText, start)
+				val newCount = count - (last - first) + added.length
+				val target = if (newCount <= newLineOffsets.length) newLineOffsets else Arrays.copyOf(newLineOffsets, Math.max(newCount, count * 3 / 2))
+				System.arraycopy(newLineOffsets, last, target, first + added.length, count - last)
+				System.arraycopy(added, 0, target, first, added.length)
+				val delta = newText.length - (end - start)
+				if (delta !== 0) {
+					for (var i = first + added.length; i < newCount; i++) {
+						target.set(i, target.get(i) + delta)
+					}
+				}
+				newLineOffsets = target
+				count = newCount
+			}
+		}
+		if (builder !== null) {
+			newContents = builder.toString
+		}
+		if (count !== newLineOffsets.length) {
+			newLineOffsets = Arrays.copyOf(newLineOffsets, count)
+		}
+		return new LineIndexedDocument(version + 1, newContents, newLineOffsets)
+	}
+
+	/**
+	 * Returns the offset of the given position or -1 if the position is not within the text.
+	 */
+	def private static int getOffset(int[] lineOffsets, int count, int length, Position position) {
+		val line = position.line
+		val column = position.character
+		if (line >= 0 && line < count && column >= 0) {
+			val lineStart = lineOffsets.get(line)
+			val lineEnd = if (line + 1 < count) lineOffsets.get(line + 1) - 1 else length
+			if (column <= lineEnd - lineStart) {
+				return lineStart + column
+			}
+		}
+		return -1
+	}
+
+	/**
+	 * Returns the number of lines that start at or before the given offset.
+	 */
+	def private static int findLine(int[] lineOffsets, int count, int offset) {
+		var low = 0
+		var high = count
+		while (low < high) {
+			val mid = (low + high) >>> 1
+			if (lineOffsets.get(mid) <= offset) {
+				low = mid + 1
+			} else {
+				high = mid
+			}
+		}
+		return low
+	}
+
+	def private static int[] computeLineOffsets(String text) {
+		val added = computeLineOffsets(text, 0)
+		val result = newIntArrayOfSize(added.length + 1)
+		System.arraycopy(added, 0, result, 1, added.length)
+		return result
+	}
+
+	/**
+	 * Returns the offsets of the lines that start after the line breaks in the given text.
+	 */
+	def private static int[] computeLineOffsets(String text, int offset) {
+		var result = newIntArrayOfSize(0)
+		var size = 0
+		var index = text.indexOf('\n')
+		while (index !== -1) {
+			if (size === result.length) {
+				result = Arrays.copyOf(result, Math.max(8, size * 2))
+			}
+			result.set(size++, offset + index + 1)
+			index = text.indexOf('\n', index + 1)
+		}
+		if (size !== result.length) {
+			result = Arrays.copyOf(result, size)
+		}
+		return result
+	}
+
+}
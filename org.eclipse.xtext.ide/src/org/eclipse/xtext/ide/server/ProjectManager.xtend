@@ -9,25 +9,35 @@ package org.eclipse.xtext.ide.server
 
 import com.google.inject.Inject
 import com.google.inject.Provider
+import java.io.IOException
+import java.util.HashMap
 import java.util.List
 import java.util.Map
+import java.util.Set
 import org.eclipse.emf.common.util.URI
 import org.eclipse.emf.ecore.resource.Resource
+import org.eclipse.lsp4j.TextEdit
 import org.eclipse.xtend.lib.annotations.Accessors
 import org.eclipse.xtext.build.BuildRequest
 import org.eclipse.xtext.build.IncrementalBuilder
 import org.eclipse.xtext.build.IncrementalBuilder.Result
 import org.eclipse.xtext.build.IndexState
+import org.eclipse.xtext.build.Source2GeneratedMapping
 import org.eclipse.xtext.diagnostics.Severity
 import org.eclipse.xtext.resource.IExternalContentSupport
 import org.eclipse.xtext.resource.IExternalContentSupport.IExternalContentProvider
 import org.eclipse.xtext.resource.IResourceServiceProvider
+import org.eclipse.xtext.resource.XtextResource
 import org.eclipse.xtext.resource.XtextResourceSet
 import org.eclipse.xtext.resource.impl.ChunkedResourceDescriptions
+import org.eclipse.xtext.resource.impl.CopyOnWriteResourceDescriptionsData
 import org.eclipse.xtext.resource.impl.ProjectDescription
 import org.eclipse.xtext.resource.impl.ResourceDescriptionsData
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsSnapshot
+import org.eclipse.xtext.service.OperationCanceledManager
 import org.eclipse.xtext.util.CancelIndicator
 import org.eclipse.xtext.util.IFileSystemScanner
+import org.eclipse.xtext.util.internal.Log
 import org.eclipse.xtext.validation.Issue
 import org.eclipse.xtext.workspace.IProjectConfig
 import org.eclipse.xtext.workspace.ProjectConfigAdapter
@@ -37,16 +47,27 @@ import org.eclipse.xtext.resource.IResourceDescription
  * @author Sven Efftinge - Initial contribution and API
  * @since 2.11
  */
-class ProjectManager {
+@Log class ProjectManager {
     
     @Inject protected IncrementalBuilder incrementalBuilder
     @Inject protected Provider<XtextResourceSet> resourceSetProvider
     @Inject protected IResourceServiceProvider.Registry languagesRegistry
     @Inject protected IFileSystemScanner fileSystemScanner
     @Inject protected IExternalContentSupport externalContentSupport
+    /**
+     * @since 2.14
+     */
+    @Inject protected ProjectStatePersister projectStatePersister
+    /**
+     * @since 2.14
+     */
+    @Inject protected OperationCanceledManager operationCanceledManager
     
+    /**
+     * The index is copied for every build, so it is {@link CopyOnWriteResourceDescriptionsData copied on write}.
+     */
     @Accessors(PUBLIC_GETTER)
-    IndexState indexState = new IndexState
+    IndexState indexState = new IndexState(new CopyOnWriteResourceDescriptionsData(emptySet), new Source2GeneratedMapping)
 
     @Accessors(PUBLIC_GETTER)
     URI baseDir
@@ -62,6 +83,16 @@ class ProjectManager {
     ProjectDescription projectDescription
     IProjectConfig projectConfig
     
+    /**
+     * The issues that were reported for the resources of this project by the last builds.
+     */
+    Map<URI, List<Issue>> reportedIssues = newHashMap
+    
+    /**
+     * The open documents whose resource was reparsed incrementally since the last build request.
+     */
+    Set<URI> reparsedFiles = newHashSet
+    
     def void initialize(ProjectDescription description, IProjectConfig projectConfig, (URI, Iterable<Issue>)=>void acceptor, IExternalContentProvider openedDocumentsContentProvider, Provider<Map<String, ResourceDescriptionsData>> indexProvider, CancelIndicator cancelIndicator) {
         this.projectDescription = description
         this.projectConfig = projectConfig
@@ -72,33 +103,116 @@ class ProjectManager {
     }
     
     def Result doInitialBuild(CancelIndicator cancelIndicator) {
+        return doInitialBuild(emptyList, cancelIndicator)
+    }
+
+    /**
+     * Builds all resources of the project. If the state of a previous session was persisted, only the resources that
+     * changed in the meantime or that are affected by the given deltas of upstream projects are rebuilt.
+     * 
+     * @since 2.14
+     */
+    def Result doInitialBuild(List<IResourceDescription.Delta> externalDeltas, CancelIndicator cancelIndicator) {
         val uris = newArrayList
         projectConfig.sourceFolders.forEach [
             fileSystemScanner.scan(path) [uris += it]
         ] 
-        return doBuild(uris, emptyList, emptyList, cancelIndicator)        
+        val persistedState = projectStatePersister.readProjectState(projectDescription, baseDir)
+        val result = if (persistedState !== null && persistedState.dependencies == projectDescription.dependencies.toSet) {
+            doBuild(persistedState, uris, externalDeltas, cancelIndicator)
+        } else {
+            doBuild(uris, emptyList, externalDeltas, cancelIndicator)
+        }
+        persistProjectState()
+        return result
     } 
 
+    /**
+     * Rebuilds the resources that changed since the given state was persisted. The state is only installed by a
+     * successful build, a cancelled build leaves the previous state intact. The issues of the resources that are not
+     * rebuilt are reported from the persisted state.
+     * 
+     * @since 2.14
+     */
+    protected def Result doBuild(ProjectStatePersister.ProjectState persistedState, List<URI> uris, List<IResourceDescription.Delta> externalDeltas, CancelIndicator cancelIndicator) {
+        val existing = uris.toSet
+        val deletedFiles = persistedState.indexState.resourceDescriptions.allURIs.filter[!existing.contains(it)].toList
+        val validated = newHashSet
+        val request = newBuildRequest(uris, deletedFiles, externalDeltas, cancelIndicator) => [
+            it.state = persistedState.indexState.copy
+            it.resourceSet = createFreshResourceSet(state.resourceDescriptions)
+            skipUnchangedSources = true
+            val callback = afterValidate
+            afterValidate = [ uri, issues |
+                validated += uri
+                return callback.afterValidate(uri, issues)
+            ]
+        ]
+        val result = doBuild(request)
+        for (entry : persistedState.issues.entrySet) {
+            if (existing.contains(entry.key) && !validated.contains(entry.key)) {
+                reportedIssues.put(entry.key, entry.value)
+                issueAcceptor.apply(entry.key, entry.value)
+            }
+        }
+        return result
+    }
+
+    /**
+     * Persists the state of the last build. Writing the state is linear in the size of the index, so it is not done
+     * for every build but after the initial build and when the language server shuts down. The state of later builds
+     * is lost if the server doesn't shut down regularly, so the next session rebuilds the resources that changed
+     * since the initial build.
+     * 
+     * @since 2.14
+     */
+    def void persistProjectState() {
+        projectStatePersister.writeProjectState(projectDescription, baseDir,
+            new ProjectStatePersister.ProjectState(indexState, projectDescription.dependencies.toSet, new HashMap(reportedIssues)))
+    }
+
+    /**
+     * Waits until the state that was passed to {@link #persistProjectState()} is written.
+     * 
+     * @since 2.14
+     */
+    def void flushProjectState() {
+        projectStatePersister.flush
+    }
+
     def Result doBuild(List<URI> dirtyFiles, List<URI> deletedFiles, List<IResourceDescription.Delta> externalDeltas, CancelIndicator cancelIndicator) {
-        val request = newBuildRequest(dirtyFiles, deletedFiles, externalDeltas, cancelIndicator)
+        return doBuild(newBuildRequest(dirtyFiles, deletedFiles, externalDeltas, cancelIndicator))
+    }
+
+    /**
+     * @since 2.14
+     */
+    protected def Result doBuild(BuildRequest request) {
         val result = incrementalBuilder.build(request, [
             languagesRegistry.getResourceServiceProvider(it)
         ])
         indexState = result.indexState
         resourceSet = request.resourceSet
         indexProvider.get.put(projectDescription.name, indexState.resourceDescriptions)
+        reportedIssues.keySet.removeAll(request.deletedFiles)
         return result;
     }
 
     protected def BuildRequest newBuildRequest(List<URI> changedFiles, List<URI> deletedFiles, List<IResourceDescription.Delta> externalDeltas, CancelIndicator cancelIndicator) {
+        val upToDateFiles = reparsedFiles.filter[isReparsedResourceLoaded(it)].toSet
+        reparsedFiles.clear
         new BuildRequest => [
             it.baseDir = baseDir
-            it.state = new IndexState(indexState.resourceDescriptions.copy, indexState.fileMappings.copy)
+            it.state = indexState.copy
             it.resourceSet = createFreshResourceSet(state.resourceDescriptions)
             it.dirtyFiles = changedFiles
+            it.reparsedFiles = upToDateFiles
             it.deletedFiles = deletedFiles
             it.externalDeltas = externalDeltas
+            // the hashes let the build after a restart skip the unchanged sources
+            it.recordContentHashes = projectStatePersister.isEnabled(projectDescription, baseDir)
             afterValidate = [ uri, issues |
+                reportedIssues.put(uri, issues.toList)
                 issueAcceptor.apply(uri, issues)
                 return true
             ]
@@ -116,6 +230,22 @@ class ProjectManager {
         ]		
 	}
 
+	/**
+	 * Creates a resource set that is linked against the given snapshot of the index and that reads the contents of
+	 * the open documents from the given provider. In contrast to {@link #getResourceSet()}, it is not used by builds,
+	 * so it can be read while a build is running.
+	 * 
+	 * @since 2.14
+	 */
+	def XtextResourceSet createSnapshotResourceSet(ResourceDescriptionsSnapshot index, IExternalContentProvider documents) {
+		resourceSetProvider.get => [
+			projectDescription.attachToEmfObject(it)
+			ProjectConfigAdapter.install(it, projectConfig)
+			index.createResourceDescriptions(it)
+			externalContentSupport.configureResourceSet(it, documents)
+		]
+	}
+
     protected def XtextResourceSet createFreshResourceSet(ResourceDescriptionsData newIndex) {
         if (this.resourceSet === null) {
             this.resourceSet = createNewResourceSet(newIndex)
@@ -130,6 +260,103 @@ class ProjectManager {
         return this.resourceSet;
     }
     
+    /**
+     * Applies the changes of an open document to its resource if the resource is loaded. Only the regions that are
+     * damaged by the changes are reparsed and the cross references are linked lazily again, so the next build does
+     * not have to load the resource again. The resource is unloaded if the changes cannot be applied. The applied
+     * changes are recorded in the resource's {@link DocumentChangesAdapter}.
+     * 
+     * A loaded resource reflects the document of the time it was loaded, since it is loaded from the open document
+     * and {@link #unloadResource(URI) unloaded} when the document is opened or closed. The version that it reflects
+     * is tracked by its {@link DocumentChangesAdapter} from the first change on.
+     * 
+     * @param document the document before the changes
+     * @param version the version of the document after the changes
+     * @since 2.14
+     */
+    def void reparse(URI uri, Document document, int version, Iterable<? extends TextEdit> changes) {
+        reparsedFiles.remove(uri)
+        val resource = resourceSet?.getResource(uri, false)
+        if (!(resource instanceof XtextResource) || !resource.isLoaded) {
+            return
+        }
+        val xtextResource = resource as XtextResource
+        var changesAdapter = DocumentChangesAdapter.find(xtextResource)
+        if (changesAdapter === null) {
+            changesAdapter = DocumentChangesAdapter.install(xtextResource, document.version)
+        } else if (changesAdapter.version !== document.version) {
+            // the resource is out of sync and will be loaded again by the next build
+            return
+        }
+        val adapter = changesAdapter
+        var reparsed = false
+        try {
+            reparse(xtextResource, document, changes) [ offset, replacedLength, newLength |
+                adapter.recordChange(version, offset, replacedLength, newLength)
+            ]
+            reparsed = true
+        } catch (Exception e) {
+            operationCanceledManager.propagateAsErrorIfCancelException(e)
+            LOG.error("Cannot reparse " + uri + " incrementally, it is loaded again.", e)
+        } finally {
+            if (reparsed) {
+                reparsedFiles += uri
+            } else {
+                unloadResource(uri)
+            }
+        }
+    }
+
+    /**
+     * Unloads the resource with the given URI, such that the next build or read loads it again. This is the case if
+     * its document is opened or closed.
+     * 
+     * @since 2.14
+     */
+    def void unloadResource(URI uri) {
+        reparsedFiles.remove(uri)
+        val resource = resourceSet?.getResource(uri, false)
+        if (resource !== null) {
+            resourceSet.resources.remove(resource)
+            resource.unload
+        }
+    }
+
+    /**
+     * Applies the changes one after the other to the given resource. The offset, the replaced length and the new
+     * length of each applied change are passed to the given acceptor.
+     * 
+     * @since 2.14
+     */
+    protected def void reparse(XtextResource resource, Document document, Iterable<? extends TextEdit> changes,
+        (int, int, int)=>void acceptor) throws IOException {
+        var current = document
+        val iterator = changes.iterator
+        while (iterator.hasNext) {
+            val change = iterator.next
+            if (change.range === null) {
+                resource.reparse(change.newText)
+                acceptor.apply(0, current.contents.length, change.newText.length)
+            } else {
+                val start = current.getOffSet(change.range.start)
+                val end = current.getOffSet(change.range.end)
+                resource.update(start, end - start, change.newText)
+                acceptor.apply(start, end - start, change.newText.length)
+            }
+            if (iterator.hasNext) {
+                current = current.applyChanges(#[change])
+            }
+        }
+    }
+
+    /**
+     * Returns whether the resource of the given open document, which was reparsed incrementally, is still loaded.
+     */
+    protected def boolean isReparsedResourceLoaded(URI uri) {
+        val resource = resourceSet?.getResource(uri, false)
+        return resource !== null && resource.isLoaded
+    }
+
     def Resource getResource(URI uri) {
         val resource = resourceSet.getResource(uri, true)
         // initialize
@@ -0,0 +1,286 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ide.server
+
+import com.google.common.annotations.Beta
+import com.google.inject.Inject
+import java.io.BufferedInputStream
+import java.io.BufferedOutputStream
+import java.io.File
+import java.io.FileInputStream
+import java.io.FileOutputStream
+import java.io.IOException
+import java.io.ObjectInput
+import java.io.ObjectInputStream
+import java.io.ObjectOutput
+import java.io.ObjectOutputStream
+import java.io.Serializable
+import java.nio.file.AtomicMoveNotSupportedException
+import java.nio.file.Files
+import java.nio.file.StandardCopyOption
+import java.util.List
+import java.util.Map
+import java.util.Set
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.locks.ReentrantLock
+import org.eclipse.emf.common.util.URI
+import org.eclipse.xtend.lib.annotations.Data
+import org.eclipse.xtext.build.ContentHashes
+import org.eclipse.xtext.build.IndexState
+import org.eclipse.xtext.build.Source2GeneratedMapping
+import org.eclipse.xtext.diagnostics.Severity
+import org.eclipse.xtext.resource.IResourceDescription
+import org.eclipse.xtext.resource.impl.CopyOnWriteResourceDescriptionsData
+import org.eclipse.xtext.resource.impl.ProjectDescription
+import org.eclipse.xtext.resource.persistence.SerializableResourceDescription
+import org.eclipse.xtext.util.internal.Log
+import org.eclipse.xtext.validation.CheckType
+import org.eclipse.xtext.validation.Issue
+
+/**
+ * Persists the {@link IndexState} of a project together with the issues that were reported for its resources, such
+ * that a restarted language server only has to rebuild the resources that changed in the meantime.
+ *
+ * Persistence is disabled by default. Clients enable it by binding a subclass that returns a location from
+ * {@link #getStateFile(ProjectDescription, URI)}. The {@link ProjectManager} writes the state after the initial build
+ * and when the language server shuts down. It is written asynchronously if an {@link ExecutorService} is bound. The
+ * file is replaced atomically, so a crash while writing leaves the previous state intact.
+ *
+ * @since 2.14
+ */
+@Beta
+@Log class ProjectStatePersister {
+
+	static val MAGIC = 0x58505354
+
+	static val VERSION = 1
+
+	/**
+	 * The persisted state of a project.
+	 */
+	@Data static class ProjectState {
+		IndexState indexState
+		Set<String> dependencies
+		Map<URI, List<Issue>> issues
+	}
+
+	@Inject(optional=true) ExecutorService executorService
+
+	/**
+	 * The states that still need to be written, the key of the pair is the project name.
+	 */
+	val pending = new ConcurrentHashMap<File, Pair<String, ProjectState>>
+
+	/**
+	 * Serializes the writes. This is a lock rather than a monitor, such that a write doesn't pin its carrier thread if
+	 * it runs in a virtual thread.
+	 */
+	val writeLock = new ReentrantLock
+
+	/**
+	 * Returns the file that holds the state of the given project or <code>null</code> if the state should not be
+	 * persisted.
+	 */
+	protected def File getStateFile(ProjectDescription project, URI baseDir) {
+		return null
+	}
+
+	/**
+	 * Returns whether the state of the given project is persisted.
+	 */
+	def boolean isEnabled(ProjectDescription project, URI baseDir) {
+		return getStateFile(project, baseDir) !== null
+	}
+
+	/**
+	 * Reads the persisted state of the given project. Returns <code>null</code> if there is no state or if it cannot
+	 * be read.
+	 */
+	def ProjectState readProjectState(ProjectDescription project, URI baseDir) {
+		val file = getStateFile(project, baseDir)
+		if (file === null || !file.isFile) {
+			return null
+		}
+		try {
+			val in = new ObjectInputStream(new BufferedInputStream(new FileInputStream(file)))
+			try {
+				if (in.readInt !== MAGIC || in.readInt !== VERSION || in.readUTF != project.name) {
+					return null
+				}
+				return readProjectState(in)
+			} finally {
+				in.close
+			}
+		} catch (IOException e) {
+			LOG.warn("Cannot read the persisted state of project " + project.name, e)
+		} catch (ClassNotFoundException e) {
+			LOG.warn("Cannot read the persisted state of project " + project.name, e)
+		}
+		return null
+	}
+
+	/**
+	 * Persists the state of the given project. The state must not be modified afterwards.
+	 */
+	def void writeProjectState(ProjectDescription project, URI baseDir, ProjectState state) {
+		val file = getStateFile(project, baseDir)
+		if (file === null) {
+			return
+		}
+		if (executorService === null) {
+			doWriteProjectState(project.name, file, state)
+			return
+		}
+		// only the latest state is written if builds finish faster than their state can be persisted
+		if (pending.put(file, project.name -> state) === null) {
+			executorService.execute [
+				writeLock.lock
+				try {
+					val next = pending.remove(file)
+					if (next !== null) {
+						doWriteProjectState(next.key, file, next.value)
+					}
+				} finally {
+					writeLock.unlock
+				}
+			]
+		}
+	}
+
+	/**
+	 * Writes the states that are still pending on the calling thread and waits for a running write.
+	 */
+	def void flush() {
+		writeLock.lock
+		try {
+			for (file : pending.keySet.toList) {
+				val next = pending.remove(file)
+				if (next !== null) {
+					doWriteProjectState(next.key, file, next.value)
+				}
+			}
+		} finally {
+			writeLock.unlock
+		}
+	}
+
+	protected def void doWriteProjectState(String projectName, File file, ProjectState state) {
+		try {
+			file.parentFile?.mkdirs
+			val tmp = File.createTempFile(file.name, ".tmp", file.parentFile)
+			try {
+				val out = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tmp)))
+				try {
+					out.writeInt(MAGIC)
+					out.writeInt(VERSION)
+					out.writeUTF(projectName)
+					writeProjectState(out, state)
+				} finally {
+					out.close
+				}
+				try {
+					Files.move(tmp.toPath, file.toPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING)
+				} catch (AtomicMoveNotSupportedException e) {
+					Files.move(tmp.toPath, file.toPath, StandardCopyOption.REPLACE_EXISTING)
+				}
+			} finally {
+				tmp.delete
+			}
+		} catch (IOException e) {
+			LOG.warn("Cannot persist the state of project " + projectName, e)
+		}
+	}
+
+	protected def ProjectState readProjectState(ObjectInput in) throws IOException, ClassNotFoundException {
+		val numDescriptions = in.readInt
+		val descriptions = newArrayList
+		for (i : 0 ..< numDescriptions) {
+			descriptions.add(in.readObject as IResourceDescription)
+		}
+		val fileMappings = new Source2GeneratedMapping
+		fileMappings.readExternal(in)
+		val contentHashes = new ContentHashes
+		contentHashes.readExternal(in)
+		val indexState = new IndexState(new CopyOnWriteResourceDescriptionsData(descriptions), fileMappings, contentHashes)
+		val numDependencies = in.readInt
+		val dependencies = newHashSet
+		for (i : 0 ..< numDependencies) {
+			dependencies.add(in.readUTF)
+		}
+		val numIssues = in.readInt
+		val issues = newHashMap
+		for (i : 0 ..< numIssues) {
+			val uri = URI.createURI(in.readUTF)
+			val count = in.readInt
+			val list = newArrayList
+			for (j : 0 ..< count) {
+				list.add(readIssue(in))
+			}
+			issues.put(uri, list)
+		}
+		return new ProjectState(indexState, dependencies, issues)
+	}
+
+	protected def void writeProjectState(ObjectOutput out, ProjectState state) throws IOException {
+		val descriptions = state.indexState.resourceDescriptions.allResourceDescriptions.toList
+		out.writeInt(descriptions.size)
+		for (description : descriptions) {
+			if (description instanceof Serializable)
+				out.writeObject(description)
+			else
+				out.writeObject(SerializableResourceDescription.createCopy(description))
+		}
+		state.indexState.fileMappings.writeExternal(out)
+		state.indexState.contentHashes.writeExternal(out)
+		out.writeInt(state.dependencies.size)
+		for (dependency : state.dependencies) {
+			out.writeUTF(dependency)
+		}
+		out.writeInt(state.issues.size)
+		for (entry : state.issues.entrySet) {
+			out.writeUTF(entry.key.toString)
+			out.writeInt(entry.value.size)
+			for (issue : entry.value) {
+				writeIssue(out, issue)
+			}
+		}
+	}
+
+	protected def Issue readIssue(ObjectInput in) throws IOException, ClassNotFoundException {
+		return new Issue.IssueImpl => [
+			severity = Severity.valueOf(in.readUTF)
+			type = in.readObject as CheckType
+			code = in.readObject as String
+			message = in.readObject as String
+			val uri = in.readObject as String
+			uriToProblem = if (uri !== null) URI.createURI(uri)
+			lineNumber = in.readObject as Integer
+			column = in.readObject as Integer
+			offset = in.readObject as Integer
+			length = in.readObject as Integer
+			syntaxError = in.readBoolean
+			data = in.readObject as String[]
+		]
+	}
+
+	protected def void writeIssue(ObjectOutput out, Issue issue) throws IOException {
+		out.writeUTF(issue.severity.name)
+		out.writeObject(issue.type)
+		out.writeObject(issue.code)
+		out.writeObject(issue.message)
+		out.writeObject(issue.uriToProblem?.toString)
+		out.writeObject(issue.lineNumber)
+		out.writeObject(issue.column)
+		out.writeObject(issue.offset)
+		out.writeObject(issue.length)
+		out.writeBoolean(issue.isSyntaxError)
+		out.writeObject(issue.data)
+	}
+
+}
@@ -8,26 +8,35 @@
 package org.eclipse.xtext.ide.server
 
 import com.google.inject.Inject
+import com.google.common.collect.ImmutableMap
 import com.google.inject.Provider
+import com.google.inject.name.Named
 import java.util.ArrayList
 import java.util.HashSet
 import java.util.List
 import java.util.Map
 import java.util.Set
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicReference
+import java.util.concurrent.locks.ReentrantReadWriteLock
 import org.eclipse.emf.common.util.URI
 import org.eclipse.lsp4j.TextEdit
 import org.eclipse.lsp4j.jsonrpc.ResponseErrorException
 import org.eclipse.lsp4j.jsonrpc.messages.ResponseError
 import org.eclipse.lsp4j.jsonrpc.messages.ResponseErrorCode
+import org.eclipse.xtend.lib.annotations.Data
 import org.eclipse.xtext.ide.server.BuildManager.Buildable
 import org.eclipse.xtext.ide.server.ILanguageServerAccess.IBuildListener
+import org.eclipse.xtext.ide.server.concurrent.RequestManager
 import org.eclipse.xtext.resource.IExternalContentSupport.IExternalContentProvider
 import org.eclipse.xtext.resource.IResourceDescription
 import org.eclipse.xtext.resource.IResourceDescription.Delta
 import org.eclipse.xtext.resource.IResourceDescriptions
 import org.eclipse.xtext.resource.XtextResource
-import org.eclipse.xtext.resource.impl.ChunkedResourceDescriptions
+import org.eclipse.xtext.resource.XtextResourceSet
 import org.eclipse.xtext.resource.impl.ResourceDescriptionsData
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsSnapshot
 import org.eclipse.xtext.util.CancelIndicator
 import org.eclipse.xtext.util.internal.Log
 import org.eclipse.xtext.validation.Issue
@@ -42,6 +51,7 @@ import org.eclipse.xtext.workspace.IWorkspaceConfig
 	@Inject Provider<ProjectManager> projectManagerProvider
 	@Inject IWorkspaceConfigFactory workspaceConfigFactory
 	@Inject IProjectDescriptionFactory projectDescriptionFactory
+	@Inject DocumentResultCache resultCache
 	BuildManager buildManager
 
 	Map<String, ProjectManager> projectName2ProjectManager = newHashMap
@@ -56,10 +66,54 @@ import org.eclipse.xtext.workspace.IWorkspaceConfig
 		this.buildListeners += listener
 	}
 
-	Map<String, ResourceDescriptionsData> fullIndex = newHashMap()
+	Map<String, ResourceDescriptionsData> fullIndex = new ConcurrentHashMap
+
+	volatile ResourceDescriptionsSnapshot indexSnapshot = new ResourceDescriptionsSnapshot
 
 	Map<URI, Document> openDocuments = newHashMap()
 
+	/**
+	 * Whether {@link #doRead(URI, Function2)} reads the committed state, see {@link RequestManager#SNAPSHOT_READS}.
+	 */
+	@Inject(optional=true)
+	@Named(RequestManager.SNAPSHOT_READS)
+	boolean snapshotReads = false
+
+	/**
+	 * The open documents as of the last change. The map is replaced rather than modified, so it can be read
+	 * concurrently to writes.
+	 */
+	volatile Map<URI, Document> documentsSnapshot = emptyMap
+
+	/**
+	 * The resource set of the last snapshot read, which is reused by the next read of the same snapshot.
+	 */
+	val idleSnapshotResourceSet = new AtomicReference<SnapshotResourceSet>
+
+	/**
+	 * Guards the live resource sets against snapshot reads. Writes hold the write lock while they modify the
+	 * resources, snapshot reads use the live resource sets only while they hold the read lock.
+	 */
+	val liveStateLock = new ReentrantReadWriteLock
+
+	/**
+	 * Whether the live resource sets reflect the published snapshots, i.e. the build of the last change completed.
+	 * Guarded by the {@link #liveStateLock}.
+	 */
+	boolean liveStateBuilt = false
+
+	/**
+	 * A resource set for reads of the given index and documents snapshot.
+	 * 
+	 * @since 2.14
+	 */
+	@Data protected static class SnapshotResourceSet {
+		ProjectManager projectManager
+		ResourceDescriptionsSnapshot index
+		Map<URI, Document> documents
+		XtextResourceSet resourceSet
+	}
+
 	val openedDocumentsContentProvider = new IExternalContentProvider() {
 
 		override getActualContentProvider() {
@@ -84,10 +138,25 @@ import org.eclipse.xtext.workspace.IWorkspaceConfig
 	def void initialize(URI baseDir, (URI, Iterable<Issue>)=>void issueAcceptor, CancelIndicator cancelIndicator) {
 		this.baseDir = baseDir
 		this.issueAcceptor = issueAcceptor
-		refreshWorkspaceConfig(cancelIndicator)
+		modifyLiveState [
+			refreshWorkspaceConfig(cancelIndicator)
+			// nothing was changed before the initial build
+			liveStateBuilt = true
+		]
 	}
 
 	protected def void refreshWorkspaceConfig(CancelIndicator cancelIndicator) {
+		// the live state stays stale until the next build, which covers the changes that are still queued
+		modifyLiveState [
+			doRefreshWorkspaceConfig(cancelIndicator)
+			return null
+		]
+	}
+
+	/**
+	 * @since 2.14
+	 */
+	protected def void doRefreshWorkspaceConfig(CancelIndicator cancelIndicator) {
 		workspaceConfig = workspaceConfigFactory.getWorkspaceConfig(baseDir)
 		val newProjects = newArrayList
 		val Set<String> remainingProjectNames = new HashSet(projectName2ProjectManager.keySet)
@@ -125,27 +194,90 @@ import org.eclipse.xtext.workspace.IWorkspaceConfig
 	}
 
 	protected def void afterBuild(List<Delta> deltas) {
+		publishIndexSnapshot()
+		if (!deltas.empty) {
+			resultCache.clear
+		}
 		for (listener : buildListeners) {
 			listener.afterBuild(deltas)
 		}
 	}
 
 	def Buildable didChangeFiles(List<URI> dirtyFiles, List<URI> deletedFiles) {
-		val buildable = buildManager.submit(dirtyFiles, deletedFiles)
+		val buildable = modifyLiveState[buildManager.submit(dirtyFiles, deletedFiles)]
 		return [ cancelIndicator |
-			val deltas = buildable.build(cancelIndicator)
-			afterBuild(deltas)
-			return deltas
+			modifyLiveState [
+				val deltas = buildable.build(cancelIndicator)
+				afterBuild(deltas)
+				liveStateBuilt = true
+				// reads use the live resource sets from now on
+				idleSnapshotResourceSet.set(null)
+				return deltas
+			]
 		]
 	}
 
+	/**
+	 * Runs the given work exclusively to snapshot reads of the live resource sets, which are not used anymore until
+	 * a build completes.
+	 * 
+	 * @since 2.14
+	 */
+	protected def <T> T modifyLiveState(()=>T work) {
+		liveStateLock.writeLock.lock
+		try {
+			liveStateBuilt = false
+			return work.apply
+		} finally {
+			liveStateLock.writeLock.unlock
+		}
+	}
+
 	def List<IResourceDescription.Delta> doBuild(List<URI> dirtyFiles, List<URI> deletedFiles,
 		CancelIndicator cancelIndicator) {
 		return didChangeFiles(dirtyFiles, deletedFiles).build(cancelIndicator)
 	}
 
+	/**
+	 * Persists the state of all projects and waits until it is written, see
+	 * {@link ProjectManager#persistProjectState()}.
+	 * 
+	 * @since 2.14
+	 */
+	def void persistProjectStates() {
+		for (projectManager : projectManagers) {
+			projectManager.persistProjectState
+		}
+		for (projectManager : projectManagers) {
+			projectManager.flushProjectState
+		}
+	}
+
+	/**
+	 * Publishes the current state of the index such that readers can access it without interfering with subsequent
+	 * builds. Chunks that did not change are shared with the previous snapshot.
+	 * 
+	 * @since 2.14
+	 */
+	protected def void publishIndexSnapshot() {
+		var snapshot = indexSnapshot.withContainers(fullIndex)
+		for (handle : snapshot.containerHandles.filter[!fullIndex.containsKey(it)].toList) {
+			snapshot = snapshot.withoutContainer(handle)
+		}
+		indexSnapshot = snapshot
+	}
+
+	/**
+	 * Returns the index as of the last completed build. The snapshot is immutable, so it may be used from any thread.
+	 * 
+	 * @since 2.14
+	 */
+	def ResourceDescriptionsSnapshot getIndexSnapshot() {
+		return indexSnapshot
+	}
+
 	def IResourceDescriptions getIndex() {
-		return new ChunkedResourceDescriptions(fullIndex)
+		return indexSnapshot.createResourceDescriptions
 	}
 
 	def URI getProjectBaseDir(URI uri) {
@@ -175,9 +307,14 @@ import org.eclipse.xtext.workspace.IWorkspaceConfig
 			LOG.error("The document " + uri + " has not been opened.")
 			return [];
 		}
-		val contents = openDocuments.get(uri)
-		openDocuments.put(uri, contents.applyChanges(changes))
-		return didChangeFiles(#[uri], newArrayList)
+		return modifyLiveState [
+			val document = openDocuments.get(uri)
+			openDocuments.put(uri, document.applyChanges(changes))
+			publishDocumentsSnapshot()
+			resultCache.invalidate(uri)
+			getProjectManager(uri)?.reparse(uri, document, version, changes)
+			return didChangeFiles(#[uri], newArrayList)
+		]
 	}
 
 	def didOpen(URI uri, int version, String contents, CancelIndicator cancelIndicator) {
@@ -185,8 +322,13 @@ import org.eclipse.xtext.workspace.IWorkspaceConfig
 	}
 
 	def Buildable didOpen(URI uri, int version, String contents) {
-		openDocuments.put(uri, new Document(version, contents))
-		return didChangeFiles(#[uri], newArrayList)
+		return modifyLiveState [
+			openDocuments.put(uri, createDocument(version, contents))
+			publishDocumentsSnapshot()
+			// the resource has to be loaded from the opened document
+			getProjectManager(uri)?.unloadResource(uri)
+			return didChangeFiles(#[uri], newArrayList)
+		]
 	}
 
 	def didClose(URI uri, CancelIndicator cancelIndicator) {
@@ -194,11 +336,16 @@ import org.eclipse.xtext.workspace.IWorkspaceConfig
 	}
 
 	def Buildable didClose(URI uri) {
-		openDocuments.remove(uri)
-		if (exists(uri)) {
-			return didChangeFiles(#[uri], newArrayList)
-		}
-		return didChangeFiles(newArrayList, #[uri])
+		return modifyLiveState [
+			openDocuments.remove(uri)
+			publishDocumentsSnapshot()
+			resultCache.invalidate(uri)
+			getProjectManager(uri)?.unloadResource(uri)
+			if (exists(uri)) {
+				return didChangeFiles(#[uri], newArrayList)
+			}
+			return didChangeFiles(newArrayList, #[uri])
+		]
 	}
 
 	protected def boolean exists(URI uri) {
@@ -209,6 +356,9 @@ import org.eclipse.xtext.workspace.IWorkspaceConfig
 	}
 
 	def <T> T doRead(URI uri, (Document, XtextResource)=>T work) {
+		if (snapshotReads) {
+			return doReadSnapshot(uri, work)
+		}
 		val resourceURI = uri.trimFragment
 		val projectMnr = getProjectManager(resourceURI)
 		val resource = projectMnr?.getResource(resourceURI) as XtextResource
@@ -219,12 +369,129 @@ import org.eclipse.xtext.workspace.IWorkspaceConfig
 		return work.apply(doc, projectMnr.getResource(resourceURI) as XtextResource)
 	}
 
+	/**
+	 * Like {@link #doRead(URI, Function2)}, but the result is cached for the current version of the open document and
+	 * the given key until the document changes or a build produces deltas. The work is not cached if the document is
+	 * not open.
+	 * 
+	 * @param key identifies the request, e.g. its kind and parameters
+	 * @since 2.14
+	 */
+	def <T> T doRead(URI uri, Object key, (Document, XtextResource)=>T work) {
+		val resourceURI = uri.trimFragment
+		val document = documentsSnapshot.get(resourceURI)
+		if (document === null) {
+			return doRead(uri, work)
+		}
+		return resultCache.get(resourceURI, document, key) [
+			doRead(uri, work)
+		]
+	}
+
+	/**
+	 * Runs the work on the open documents and the index as of the last change and the last build respectively. If
+	 * the build of the last change completed, the work runs on the live resource set and subsequent writes wait for
+	 * it. Otherwise, the resource is loaded into a separate resource set, so the work may run concurrently to the
+	 * build.
+	 * 
+	 * @since 2.14
+	 */
+	protected def <T> T doReadSnapshot(URI uri, (Document, XtextResource)=>T work) {
+		val resourceURI = uri.trimFragment
+		val projectManager = getProjectManager(resourceURI)
+		if (projectManager === null) {
+			return work.apply(null, null)
+		}
+		// don't barge in front of a waiting write
+		if (liveStateLock.readLock.tryLock(0, TimeUnit.NANOSECONDS)) {
+			try {
+				if (liveStateBuilt) {
+					val resource = projectManager.getResource(resourceURI) as XtextResource
+					if (resource === null) {
+						return work.apply(null, null)
+					}
+					return work.apply(getDocument(resource), resource)
+				}
+			} finally {
+				liveStateLock.readLock.unlock
+			}
+		}
+		val snapshot = acquireSnapshotResourceSet(projectManager)
+		try {
+			val resource = snapshot.resourceSet.getResource(resourceURI, true) as XtextResource
+			if (resource === null) {
+				return work.apply(null, null)
+			}
+			val document = snapshot.documents.get(resourceURI)
+				?: createDocument(1, resource.parseResult.rootNode.text)
+			return work.apply(document, resource)
+		} finally {
+			idleSnapshotResourceSet.set(snapshot)
+		}
+	}
+
+	/**
+	 * Returns a resource set for the current snapshot, which is used exclusively by the caller. The resource set of
+	 * the previous read is reused if neither the documents nor the index changed since.
+	 * 
+	 * @since 2.14
+	 */
+	protected def SnapshotResourceSet acquireSnapshotResourceSet(ProjectManager projectManager) {
+		val index = indexSnapshot
+		val documents = documentsSnapshot
+		val idle = idleSnapshotResourceSet.getAndSet(null)
+		if (idle !== null && idle.projectManager === projectManager && idle.index === index
+			&& idle.documents === documents) {
+			return idle
+		}
+		val resourceSet = projectManager.createSnapshotResourceSet(index, newDocumentsContentProvider(documents))
+		return new SnapshotResourceSet(projectManager, index, documents, resourceSet)
+	}
+
+	/**
+	 * Publishes the open documents for snapshot reads.
+	 * 
+	 * @since 2.14
+	 */
+	protected def void publishDocumentsSnapshot() {
+		documentsSnapshot = ImmutableMap.copyOf(openDocuments)
+	}
+
+	/**
+	 * @since 2.14
+	 */
+	protected def IExternalContentProvider newDocumentsContentProvider(Map<URI, Document> documents) {
+		return new IExternalContentProvider() {
+
+			override getActualContentProvider() {
+				return this
+			}
+
+			override getContent(URI uri) {
+				documents.get(uri)?.contents
+			}
+
+			override hasContent(URI uri) {
+				documents.containsKey(uri)
+			}
+		}
+	}
+
 	protected def Document getDocument(XtextResource resource) {
 		return openDocuments.get(resource.URI) // lets create a transient document, in case a document is not open (e.g. formatting is called just by uri)
-		?: new Document(1, resource.parseResult.rootNode.text)
+		?: createDocument(1, resource.parseResult.rootNode.text)
+	}
+
+	/**
+	 * Creates the document for the given contents. Changes to the document are applied to the returned instance.
+	 *
+	 * @since 2.14
+	 */
+	protected def Document createDocument(int version, String contents) {
+		return new LineIndexedDocument(version, contents)
 	}
 
 	public def boolean isDocumentOpen(URI uri) {
-		return openDocuments.containsKey(uri)
+		return documentsSnapshot.containsKey(uri)
 	}
 }
@@ -8,11 +8,15 @@
 package org.eclipse.xtext.ide.server.concurrent
 
 import com.google.inject.Inject
+import com.google.inject.name.Named
 import java.util.concurrent.CompletableFuture
 import java.util.concurrent.CompletionException
 import java.util.concurrent.CopyOnWriteArrayList
 import java.util.concurrent.ExecutorService
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
 import java.util.concurrent.locks.Lock
+import java.util.concurrent.locks.ReentrantLock
 import java.util.concurrent.locks.ReentrantReadWriteLock
 import org.eclipse.xtext.service.OperationCanceledManager
 import org.eclipse.xtext.util.CancelIndicator
@@ -26,15 +30,41 @@ import org.eclipse.xtext.util.CancelIndicator
  * <ul>
  *  <li>requests are processed in an insertion order;</li>
  * 	<li>write requests are executed exclusive;</li>
- *  <li>read requests are executed in parallel.</li>
+ *  <li>read requests are executed in parallel;</li>
+ *  <li>reads are cancelled by subsequent writes;</li>
+ *  <li>{@link RequestPriority#BACKGROUND background} reads wait for running
+ *  {@link RequestPriority#INTERACTIVE interactive} reads;</li>
+ *  <li>the cancelable part of a {@link #runCoalescedWrite(Function0, Function2) coalesced} write is deferred for the
+ *  {@link #DEBOUNCE_WINDOW debounce window}, such that it is superseded by a subsequent write. The write lock is not
+ *  held in the meantime, so reads are not blocked by the window.</li>
  * </ul>
  * </p>
+ * <p>
+ * <b>Snapshot reads:</b> if {@link #SNAPSHOT_READS} is bound to {@code true}, reads do not take the lock and are not
+ * cancelled by writes. They only wait for the non-cancelable part of preceding writes and run concurrently to the
+ * cancelable part, e.g. a build. Such reads have to access the state that was committed by the preceding writes as
+ * the {@link org.eclipse.xtext.ide.server.WorkspaceManager WorkspaceManager} does in this mode.
+ * </p>
  * 
  * @author kosyakov - Initial contribution and API
  * @since 2.11
  */
 class RequestManager {
 
+	/**
+	 * The name of the binding for the time in milliseconds that a coalesced write waits for a subsequent write.
+	 * 
+	 * @since 2.14
+	 */
+	public static val DEBOUNCE_WINDOW = "org.eclipse.xtext.ide.server.concurrent.RequestManager.debounceWindow"
+
+	/**
+	 * The name of the boolean binding that enables reads against the last committed state.
+	 * 
+	 * @since 2.14
+	 */
+	public static val SNAPSHOT_READS = "org.eclipse.xtext.ide.server.concurrent.RequestManager.snapshotReads"
+
 	private final ReentrantReadWriteLock rwl = new ReentrantReadWriteLock();
 	private final Lock r = rwl.readLock();
 	private final Lock w = rwl.writeLock();
@@ -44,28 +74,102 @@ class RequestManager {
 	@Inject
 	OperationCanceledManager operationCanceledManager
 
+	@Inject(optional=true)
+	@Named(DEBOUNCE_WINDOW)
+	volatile long debounceWindow = 0
+
+	@Inject(optional=true)
+	@Named(SNAPSHOT_READS)
+	boolean snapshotReads = false
+
 	val toCancel = new CopyOnWriteArrayList<Cancellable>
 
+	/**
+	 * Guards the debounce of coalesced writes and the start of background reads. This is a lock rather than a monitor,
+	 * such that waiting requests don't pin their carrier thread if the requests run in virtual threads.
+	 */
+	val stateLock = new ReentrantLock
+
+	/**
+	 * Signalled when an interactive read ended, a coalesced write should be flushed or requests were cancelled.
+	 */
+	val stateChanged = stateLock.newCondition
+
+	/**
+	 * The number of coalesced writes that were submitted but did not finish yet, guarded by the state lock.
+	 */
+	int pendingCoalescedWrites
+
+	/**
+	 * Set by interactive reads to end the debounce of the pending coalesced writes, guarded by the state lock. It is
+	 * reset once no coalesced write is pending anymore, such that a read doesn't affect the debounce of later writes.
+	 */
+	boolean flushRequested
+
+	val runningInteractiveReads = new AtomicInteger
+
+	val interactiveReadStatistics = new RequestStatistics
+
+	val backgroundReadStatistics = new RequestStatistics
+
+	val writeStatistics = new RequestStatistics
+
 	def void shutdown() {
 		parallel.shutdown()
 		cancel()
 	}
 
 	def <V> CompletableFuture<V> runRead((CancelIndicator)=>V request) {
+		return runRead(RequestPriority.BACKGROUND, request)
+	}
+
+	/**
+	 * @since 2.14
+	 */
+	def <V> CompletableFuture<V> runRead(RequestPriority priority, (CancelIndicator)=>V request) {
 		val result = new CompletableFuture<V>()
-		writePending.thenRun [			
+		val interactive = priority === RequestPriority.INTERACTIVE
+		val statistics = getReadStatistics(priority)
+		val queuedAt = statistics.queued
+		// an interactive read that ends the debounce of a coalesced write must see its result
+		val predecessor = if (interactive && flushCoalescedWrite() && !snapshotReads)
+				CompletableFuture.allOf(writePending, coalescedWriteDone)
+			else
+				writePending
+		predecessor.thenRun [			
 			parallel.submit[
 				val cancelIndicator = new RequestCancelIndicator(result)
 				try {
-					r.lock
-					toCancel += cancelIndicator
+					if (!snapshotReads) {
+						toCancel += cancelIndicator
+					}
+					if (interactive) {
+						runningInteractiveReads.incrementAndGet
+					} else {
+						awaitInteractiveReads(result)
+					}
+					if (!snapshotReads) {
+						r.lock
+					}
+					statistics.started(queuedAt)
 					cancelIndicator.checkCanceled
 					result.complete(request.apply(cancelIndicator))
 				} catch (Throwable e) {
 					result.completeExceptionally(e)
 				} finally {
 					toCancel -= cancelIndicator
-					r.unlock()
+					if (!snapshotReads) {
+						r.unlock()
+					}
+					if (interactive) {
+						stateLock.lock
+						try {
+							runningInteractiveReads.decrementAndGet
+							stateChanged.signalAll
+						} finally {
+							stateLock.unlock
+						}
+					}
 				}
 			]
 		]
@@ -74,37 +178,223 @@ class RequestManager {
 	
 	var CompletableFuture<Void> writePending = CompletableFuture.completedFuture(null)
 
+	/**
+	 * Completed when the last coalesced write finished, including its cancelable part.
+	 */
+	var CompletableFuture<Void> coalescedWriteDone = CompletableFuture.completedFuture(null)
+
 	def <U, V> CompletableFuture<V> runWrite(()=>U nonCancellable, (CancelIndicator, U)=>V request) {
+		return runWrite(nonCancellable, request, false)
+	}
+
+	/**
+	 * Like {@link #runWrite(Function0, Function2)}, but the cancelable part is deferred for the
+	 * {@link #DEBOUNCE_WINDOW debounce window}. If another write is submitted within that window, this request is
+	 * cancelled before its cancelable part started, so the cancelable part of the subsequent write has to cover the
+	 * work of this request, too. This is the case for builds, which process all files that changed since the last
+	 * build. Interactive reads end the debounce window immediately and run after the write, unless reads are
+	 * {@link #SNAPSHOT_READS snapshot reads}. The write lock is released during the window, so other reads can run in
+	 * the meantime. They see the result of the non-cancelable part and are cancelled when the cancelable part starts.
+	 * 
+	 * @since 2.14
+	 */
+	def <U, V> CompletableFuture<V> runCoalescedWrite(()=>U nonCancellable, (CancelIndicator, U)=>V request) {
+		return runWrite(nonCancellable, request, true)
+	}
+
+	protected def <U, V> CompletableFuture<V> runWrite(()=>U nonCancellable, (CancelIndicator, U)=>V request, boolean coalesce) {
 		val result = new CompletableFuture<V>()
 		val localWritePending = new CompletableFuture<Void>()
 		this.writePending = localWritePending
+		val localWriteDone = new CompletableFuture<Void>()
+		if (coalesce) {
+			this.coalescedWriteDone = localWriteDone
+		}
+		val queuedAt = writeStatistics.queued
+		if (coalesce) {
+			stateLock.lock
+			try {
+				pendingCoalescedWrites++
+			} finally {
+				stateLock.unlock
+			}
+		}
 		parallel.submit[
 			val cancelIndicator = new RequestCancelIndicator(result)
+			var locked = false
 			try {
 				cancel()
 				w.lock
-				localWritePending.complete(null)
-				// run the non-cancelable work
-				val intermediateResult = nonCancellable.apply()
+				locked = true
+				writeStatistics.started(queuedAt)
+				if (!snapshotReads) {
+					localWritePending.complete(null)
+				}
+				// run the non-cancelable work, snapshot reads see its result
+				val intermediateResult = try {
+					nonCancellable.apply()
+				} finally {
+					localWritePending.complete(null)
+				}
 				
 				// run the cancelable work
 				toCancel += cancelIndicator
+				if (coalesce && debounceWindow > 0) {
+					// a subsequent write cancels this one while it waits without holding the write lock
+					w.unlock
+					locked = false
+					debounce(cancelIndicator)
+					cancel(cancelIndicator)
+					w.lock
+					locked = true
+				}
 				cancelIndicator.checkCanceled
 				result.complete(request.apply(cancelIndicator, intermediateResult))
 			} catch (Throwable e) {
 				result.completeExceptionally(e)
 			} finally {
+				localWritePending.complete(null)
 				toCancel -= cancelIndicator
-				w.unlock
+				if (coalesce) {
+					stateLock.lock
+					try {
+						pendingCoalescedWrites--
+						if (pendingCoalescedWrites == 0) {
+							flushRequested = false
+						}
+					} finally {
+						stateLock.unlock
+					}
+				}
+				if (locked) {
+					w.unlock
+				}
+				localWriteDone.complete(null)
 			}
 		]
 		return result
 	}
 
+	/**
+	 * Waits until the debounce window elapsed, the request was cancelled or an interactive read was submitted.
+	 * 
+	 * @since 2.14
+	 */
+	protected def void debounce(RequestCancelIndicator cancelIndicator) throws InterruptedException {
+		if (debounceWindow <= 0) {
+			return
+		}
+		val deadline = System.nanoTime + TimeUnit.MILLISECONDS.toNanos(debounceWindow)
+		stateLock.lock
+		try {
+			var remaining = deadline - System.nanoTime
+			while (!flushRequested && remaining > 0) {
+				cancelIndicator.checkCanceled
+				remaining = stateChanged.awaitNanos(remaining)
+			}
+		} finally {
+			stateLock.unlock
+		}
+	}
+
+	/**
+	 * Ends the debounce window of the pending coalesced writes. Does nothing if no coalesced write is pending.
+	 * 
+	 * @return whether a coalesced write was pending
+	 * @since 2.14
+	 */
+	protected def boolean flushCoalescedWrite() {
+		if (debounceWindow > 0) {
+			stateLock.lock
+			try {
+				if (pendingCoalescedWrites > 0) {
+					flushRequested = true
+					stateChanged.signalAll
+					return true
+				}
+			} finally {
+				stateLock.unlock
+			}
+		}
+		return false
+	}
+
+	/**
+	 * Waits until no interactive read is running or the request was cancelled. Waiting requests are woken up by
+	 * {@link #cancel()}.
+	 * 
+	 * @since 2.14
+	 */
+	protected def void awaitInteractiveReads(CompletableFuture<?> request) {
+		stateLock.lock
+		try {
+			while (runningInteractiveReads.get > 0 && !request.isCancelled) {
+				stateChanged.await
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread.interrupt
+		} finally {
+			stateLock.unlock
+		}
+	}
+
+	/**
+	 * @since 2.14
+	 */
+	def RequestStatistics getReadStatistics(RequestPriority priority) {
+		switch priority {
+			case INTERACTIVE: interactiveReadStatistics
+			default: backgroundReadStatistics
+		}
+	}
+
+	/**
+	 * @since 2.14
+	 */
+	def RequestStatistics getWriteStatistics() {
+		return writeStatistics
+	}
+
+	/**
+	 * @since 2.14
+	 */
+	def long getDebounceWindow() {
+		return debounceWindow
+	}
+
+	/**
+	 * @since 2.14
+	 */
+	def void setDebounceWindow(long debounceWindow) {
+		this.debounceWindow = debounceWindow
+	}
+
+	/**
+	 * @since 2.14
+	 */
+	def boolean isSnapshotReads() {
+		return snapshotReads
+	}
+
 	protected def void cancel() {
+		cancel(null)
+	}
+
+	/**
+	 * Cancels all cancelable requests but the given one.
+	 */
+	private def void cancel(Cancellable except) {
 		for (cancellable : toCancel) {
-			cancellable.cancel
-			toCancel -= cancellable
+			if (cancellable !== except) {
+				cancellable.cancel
+				toCancel -= cancellable
+			}
+		}
+		stateLock.lock
+		try {
+			stateChanged.signalAll
+		} finally {
+			stateLock.unlock
 		}
 	}
 
@@ -0,0 +1,30 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ide.server.concurrent
+
+/**
+ * The priority of a read request.
+ * 
+ * @since 2.14
+ */
+enum RequestPriority {
+
+	/**
+	 * A request that the user is waiting for, e.g. completion, hover or signature help. It triggers pending coalesced
+	 * writes immediately and background requests do not start while it is running. Like any read, it is cancelled by
+	 * subsequent write requests, so a long running request cannot block the writes.
+	 */
+	INTERACTIVE,
+
+	/**
+	 * A request that can be delayed, e.g. code lenses, references or workspace symbols. It is cancelled by subsequent
+	 * write requests and it does not start while interactive requests are running.
+	 */
+	BACKGROUND
+
+}
@@ -0,0 +1,82 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ide.server.concurrent
+
+import com.google.common.annotations.Beta
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Thread-safe statistics about the requests of one kind that were scheduled by the {@link RequestManager}. The wait
+ * time of a request is the time between its submission and the start of its execution.
+ * 
+ * @since 2.14
+ */
+@Beta
+class RequestStatistics {
+
+	val queueDepth = new AtomicInteger
+
+	val startedRequests = new AtomicLong
+
+	val totalWaitTime = new AtomicLong
+
+	val maxWaitTime = new AtomicLong
+
+	/**
+	 * Records the submission of a request and returns the time stamp that has to be passed to
+	 * {@link #started(long)}.
+	 */
+	def long queued() {
+		queueDepth.incrementAndGet
+		return System.nanoTime
+	}
+
+	/**
+	 * Records the start of a request that was submitted at the given time stamp.
+	 */
+	def void started(long queuedAt) {
+		val waitTime = System.nanoTime - queuedAt
+		queueDepth.decrementAndGet
+		startedRequests.incrementAndGet
+		totalWaitTime.addAndGet(waitTime)
+		maxWaitTime.accumulateAndGet(waitTime, [a, b|Math.max(a, b)])
+	}
+
+	/**
+	 * Returns the number of requests that were submitted but did not start yet.
+	 */
+	def int getQueueDepth() {
+		return queueDepth.get
+	}
+
+	/**
+	 * Returns the number of requests that started so far.
+	 */
+	def long getStartedRequests() {
+		return startedRequests.get
+	}
+
+	def long getAverageWaitTime(TimeUnit unit) {
+		val started = startedRequests.get
+		if (started === 0) {
+			return 0
+		}
+		return unit.convert(totalWaitTime.get / started, TimeUnit.NANOSECONDS)
+	}
+
+	def long getMaxWaitTime(TimeUnit unit) {
+		return unit.convert(maxWaitTime.get, TimeUnit.NANOSECONDS)
+	}
+
+	override toString() {
+		return '''queued: queueDepth, started: startedRequests, average wait: getAverageWaitTime(TimeUnit.MILLISECONDS)ms, max wait: getMaxWaitTime(TimeUnit.MILLISECONDS)ms'''
+	}
+
+}
@@ -24,6 +24,7 @@ import org.eclipse.xtext.findReferences.IReferenceFinder.Acceptor;
 import org.eclipse.xtext.findReferences.TargetURICollector;
 import org.eclipse.xtext.findReferences.TargetURIs;
 import org.eclipse.xtext.ide.server.Document;
+import org.eclipse.xtext.ide.server.LineIndexedDocument;
 import org.eclipse.xtext.ide.util.DocumentHighlightComparator;
 import org.eclipse.xtext.nodemodel.ICompositeNode;
 import org.eclipse.xtext.parser.IParseResult;
@@ -91,11 +92,24 @@ public class DefaultDocumentHighlightService implements IDocumentHighlightServic
 	@Override
 	public List<? extends DocumentHighlight> getDocumentHighlights(Document document, XtextResource resource, TextDocumentPositionParams params, CancelIndicator cancelIndicator) {
 		int offset = document.getOffSet(params.getPosition());
-		return getDocumentHighlights(resource, offset);
+		return getDocumentHighlights(document, resource, offset);
 	}
 
 	@Override
 	public List<DocumentHighlight> getDocumentHighlights(final XtextResource resource, final int offset) {
+		return getDocumentHighlights(null, resource, offset);
+	}
+
+	/**
+	 * Returns the document highlights of the given resource at the given offset.
+	 * 
+	 * @param document
+	 *            the document of the resource or {@code null} if a transient document has to be created from the
+	 *            text of the resource.
+	 * @since 2.14
+	 */
+	protected List<DocumentHighlight> getDocumentHighlights(final Document document, final XtextResource resource,
+			final int offset) {
 
 		if (resource == null) {
 			if (LOGGER.isDebugEnabled()) {
@@ -136,7 +150,8 @@ public class DefaultDocumentHighlightService implements IDocumentHighlightServic
 			return emptyList();
 		}
 
-		final Supplier<Document> docSupplier = Suppliers.memoize(() -> new Document(UNUSED_VERSION, docContent));
+		final Supplier<Document> docSupplier = document != null ? Suppliers.ofInstance(document)
+				: Suppliers.memoize(() -> new LineIndexedDocument(UNUSED_VERSION, docContent));
 		Iterable<URI> targetURIs = getTargetURIs(selectedElemnt);
 		if (!(targetURIs instanceof TargetURIs)) {
 			final TargetURIs result = targetURIsProvider.get();
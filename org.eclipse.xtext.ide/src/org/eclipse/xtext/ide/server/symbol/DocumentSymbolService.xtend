@@ -7,27 +7,38 @@
  *******************************************************************************/
 package org.eclipse.xtext.ide.server.symbol
 
+import com.google.common.collect.Maps
 import com.google.inject.Inject
 import com.google.inject.Provider
 import com.google.inject.Singleton
 import java.util.List
+import java.util.Map
+import org.eclipse.emf.common.notify.impl.AdapterImpl
 import org.eclipse.emf.common.util.URI
 import org.eclipse.emf.ecore.EClass
 import org.eclipse.emf.ecore.EObject
+import org.eclipse.emf.ecore.InternalEObject
+import org.eclipse.emf.ecore.util.EcoreUtil
 import org.eclipse.lsp4j.Location
 import org.eclipse.lsp4j.SymbolInformation
 import org.eclipse.lsp4j.SymbolKind
 import org.eclipse.lsp4j.TextDocumentPositionParams
+import org.eclipse.xtend.lib.annotations.Accessors
+import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
 import org.eclipse.xtext.findReferences.IReferenceFinder
 import org.eclipse.xtext.findReferences.IReferenceFinder.IResourceAccess
 import org.eclipse.xtext.findReferences.ReferenceAcceptor
 import org.eclipse.xtext.findReferences.TargetURICollector
 import org.eclipse.xtext.findReferences.TargetURIs
 import org.eclipse.xtext.ide.server.Document
+import org.eclipse.xtext.ide.server.DocumentChangesAdapter
+import org.eclipse.xtext.ide.server.DocumentChangesAdapter.TextChange
 import org.eclipse.xtext.ide.server.DocumentExtensions
+import org.eclipse.xtext.ide.server.UriExtensions
 import org.eclipse.xtext.ide.util.CancelIndicatorProgressMonitor
 import org.eclipse.xtext.naming.IQualifiedNameProvider
 import org.eclipse.xtext.naming.QualifiedName
+import org.eclipse.xtext.nodemodel.util.NodeModelUtils
 import org.eclipse.xtext.resource.EObjectAtOffsetHelper
 import org.eclipse.xtext.resource.IEObjectDescription
 import org.eclipse.xtext.resource.IResourceDescription
@@ -36,6 +47,7 @@ import org.eclipse.xtext.resource.IResourceServiceProvider
 import org.eclipse.xtext.resource.XtextResource
 import org.eclipse.xtext.service.OperationCanceledManager
 import org.eclipse.xtext.util.CancelIndicator
+import org.eclipse.xtext.util.IAcceptor
 
 import static extension org.eclipse.emf.ecore.util.EcoreUtil.*
 import org.eclipse.lsp4j.ReferenceParams
@@ -72,6 +84,14 @@ class DocumentSymbolService {
 	@Inject
 	IResourceServiceProvider.Registry resourceServiceProviderRegistry
 
+	@Inject
+	UriExtensions uriExtensions
+
+	/**
+	 * Guards the creation of the {@link SymbolsAdapter symbols adapters}.
+	 */
+	val symbolsAdapterLock = new Object
+
 	def List<? extends Location> getDefinitions(
 		Document document,
 		XtextResource resource,
@@ -114,17 +134,34 @@ class DocumentSymbolService {
 		IResourceAccess resourceAccess,
 		IResourceDescriptions indexData,
 		CancelIndicator cancelIndicator
+	) {
+		val locations = newArrayList
+		getReferences(document, resource, params, resourceAccess, indexData, [locations += it], cancelIndicator)
+		return locations
+	}
+
+	/**
+	 * Like {@link #getReferences(Document, XtextResource, ReferenceParams, IResourceAccess, IResourceDescriptions,
+	 * CancelIndicator)}, but passes the locations to the acceptor as soon as they are found.
+	 * 
+	 * @since 2.14
+	 */
+	def void getReferences(
+		Document document,
+		XtextResource resource,
+		ReferenceParams params,
+		IResourceAccess resourceAccess,
+		IResourceDescriptions indexData,
+		IAcceptor<? super Location> acceptor,
+		CancelIndicator cancelIndicator
 	) {
 		val offset = document.getOffSet(params.position)
-				
-		val definitions = if (params.context.includeDeclaration)
-				getDefinitions(resource, offset, resourceAccess, cancelIndicator)
-			else
-				emptyList
-		
-		val references = getReferences(resource, offset, resourceAccess, indexData, cancelIndicator)
-		val result = definitions + references
-		return result.toList
+		if (params.context.includeDeclaration) {
+			for (definition : getDefinitions(resource, offset, resourceAccess, cancelIndicator)) {
+				acceptor.accept(definition)
+			}
+		}
+		getReferences(resource, offset, resourceAccess, indexData, acceptor, cancelIndicator)
 	}
 
 	def List<? extends Location> getReferences(
@@ -133,27 +170,46 @@ class DocumentSymbolService {
 		IResourceAccess resourceAccess,
 		IResourceDescriptions indexData,
 		CancelIndicator cancelIndicator
+	) {
+		val locations = newArrayList
+		getReferences(resource, offset, resourceAccess, indexData, [locations += it], cancelIndicator)
+		return locations
+	}
+
+	/**
+	 * Passes the locations of the references to the element at the given offset to the acceptor as soon as they are
+	 * found. The search stops with an {@link org.eclipse.xtext.service.OperationCanceledError OperationCanceledError}
+	 * as soon as the request is cancelled.
+	 * 
+	 * @since 2.14
+	 */
+	def void getReferences(
+		XtextResource resource,
+		int offset,
+		IResourceAccess resourceAccess,
+		IResourceDescriptions indexData,
+		IAcceptor<? super Location> acceptor,
+		CancelIndicator cancelIndicator
 	) {
 		val element = resource.resolveElementAt(offset)
 		if (element === null)
-			return emptyList
+			return;
 
-		val locations = newArrayList
 		val targetURIs = element.collectTargetURIs
 		referenceFinder.findAllReferences(
 			targetURIs,
 			resourceAccess,
 			indexData,
 			new ReferenceAcceptor(resourceServiceProviderRegistry) [ reference |
+				operationCanceledManager.checkCanceled(cancelIndicator)
 				resourceAccess.doRead(reference.sourceEObjectUri) [ obj |
 					val location = obj.newLocation(reference.EReference, reference.indexInList)
 					if (location !== null)
-						locations += location
+						acceptor.accept(location)
 				]
 			],
 			new CancelIndicatorProgressMonitor(cancelIndicator)
 		)
-		return locations
 	}
 
 	protected def TargetURIs collectTargetURIs(EObject targetObject) {
@@ -162,13 +218,53 @@ class DocumentSymbolService {
 		return targetURIs
 	}
 	
+	/**
+	 * Returns the symbols of the given document. The symbols of the last request are attached to the resource and the
+	 * symbols of the subtrees that were not affected by the changes since then are reused, only their locations are
+	 * shifted. The changed region is taken from the changes that were recorded in the resource's
+	 * {@link DocumentChangesAdapter} when it was reparsed incrementally. This relies on the partial parser, which
+	 * replaces the semantic elements of the reparsed region, so an object that is still contained in the resource and
+	 * whose node lies outside of the changed region did not change.
+	 */
 	def List<? extends SymbolInformation> getSymbols(
 		Document document,
 		XtextResource resource,
 		DocumentSymbolParams params,
 		CancelIndicator cancelIndicator
 	) {
-		return getSymbols(resource, cancelIndicator)
+		if (resource.parseResult?.rootNode === null) {
+			return getSymbols(resource, cancelIndicator)
+		}
+		val adapter = getSymbolsAdapter(resource)
+		val previous = adapter.state
+		val change = if (previous !== null) getChangeSince(resource, previous.key, document)
+		val uri = uriExtensions.toUriString(resource.URI)
+		val update = if (change === null)
+				new SymbolUpdate(resource, uri, document, 0, Integer.MAX_VALUE, 0, cancelIndicator)
+			else
+				new SymbolUpdate(resource, uri, document, change.offset, change.offset + change.replacedLength,
+					change.newLength - change.replacedLength, cancelIndicator)
+		val entries = updateSymbolEntries(resource.contents, if (change !== null) previous.value else emptyList, update)
+		adapter.state = document.version -> entries
+		return update.symbols
+	}
+
+	/**
+	 * Returns the change of the resource's text since the given document version or <code>null</code> if it is not
+	 * known.
+	 * 
+	 * @since 2.14
+	 */
+	protected def TextChange getChangeSince(XtextResource resource, int version, Document document) {
+		val changes = DocumentChangesAdapter.find(resource)
+		if (changes === null) {
+			// the resource was not changed incrementally, it still reflects the document of the last request
+			return if (version === document.version) new TextChange(version, version, 0, 0, 0)
+		}
+		if (changes.version !== document.version) {
+			return null
+		}
+		return changes.getChangeSince(version)
 	}
 
 	def List<? extends SymbolInformation> getSymbols(XtextResource resource, CancelIndicator cancelIndicator) {
@@ -190,6 +286,122 @@ class DocumentSymbolService {
 		return symbols.values.toList
 	}
 
+	/**
+	 * Returns the symbol entries of the given objects and adds their symbols to the update. The entries of the objects
+	 * that were not affected by the changes are reused.
+	 * 
+	 * @since 2.14
+	 */
+	protected def List<SymbolEntry> updateSymbolEntries(Iterable<? extends EObject> objects, List<SymbolEntry> oldEntries, SymbolUpdate update) {
+		val Map<EObject, SymbolEntry> object2oldEntry = Maps.newIdentityHashMap
+		for (oldEntry : oldEntries) {
+			object2oldEntry.put(oldEntry.object, oldEntry)
+		}
+		val result = newArrayList
+		for (object : objects) {
+			if ((object as InternalEObject).eDirectResource === null || object.eContainer === null) {
+				result += updateSymbolEntry(object, object2oldEntry.get(object), update)
+			}
+		}
+		return result
+	}
+
+	/**
+	 * Returns the symbol entry of the given object and adds the symbols of the object and its contents to the update.
+	 * 
+	 * @since 2.14
+	 */
+	protected def SymbolEntry updateSymbolEntry(EObject object, SymbolEntry oldEntry, SymbolUpdate update) {
+		operationCanceledManager.checkCanceled(update.cancelIndicator)
+
+		val node = NodeModelUtils.findActualNodeFor(object)
+		if (oldEntry !== null && node !== null && oldEntry.offset !== -1) {
+			val shift = update.getShift(oldEntry)
+			if (shift !== null && node.totalOffset === oldEntry.offset + shift && node.totalLength === oldEntry.length) {
+				return shiftSymbolEntry(oldEntry, shift, update.computed.get(object.container)?.name, update)
+			}
+		}
+
+		var reusable = node !== null
+		var symbolStart = -1
+		var symbolEnd = -1
+		val symbol = object.createSymbol
+		if (symbol !== null) {
+			symbol.containerName = update.computed.get(object.container)?.name
+			update.computed.put(object, symbol)
+			update.symbols += symbol
+			val range = symbol.location.range
+			if (symbol.location.uri == update.uri) {
+				symbolStart = update.document.getOffSet(range.start)
+				symbolEnd = update.document.getOffSet(range.end)
+			}
+			// the location can only be shifted if it is in this document and the offsets are mapped back to the same range
+			reusable = reusable && symbolStart !== -1 && update.resource.newRange(symbolStart, symbolEnd) == range
+		}
+		val children = updateSymbolEntries(object.eContents, oldEntry?.children ?: emptyList, update)
+		reusable = reusable && children.forall[offset !== -1]
+		return new SymbolEntry(object, if (reusable) node.totalOffset else -1, if (node !== null) node.totalLength else 0,
+			symbol, symbolStart, symbolEnd, children)
+	}
+
+	/**
+	 * Adds the symbols of an entry that was not affected by the changes to the update and returns the entry with
+	 * locations that are shifted by the given number of characters.
+	 * 
+	 * @since 2.14
+	 */
+	protected def SymbolEntry shiftSymbolEntry(SymbolEntry entry, int shift, String containerName, SymbolUpdate update) {
+		var symbol = entry.symbol
+		if (symbol !== null) {
+			if (shift !== 0 || symbol.containerName != containerName) {
+				val range = if (shift === 0)
+						symbol.location.range
+					else
+						update.resource.newRange(entry.symbolStart + shift, entry.symbolEnd + shift)
+				symbol = new SymbolInformation(symbol.name, symbol.kind, new Location(symbol.location.uri, range),
+					containerName)
+			}
+			update.symbols += symbol
+		}
+		if (shift === 0 && symbol === entry.symbol) {
+			for (child : entry.children) {
+				addSymbols(child, update)
+			}
+			return entry
+		}
+		val children = newArrayList
+		for (child : entry.children) {
+			children += shiftSymbolEntry(child, shift, child.symbol?.containerName, update)
+		}
+		return new SymbolEntry(entry.object, entry.offset + shift, entry.length, symbol, entry.symbolStart + shift,
+			entry.symbolEnd + shift, children)
+	}
+
+	private def void addSymbols(SymbolEntry entry, SymbolUpdate update) {
+		if (entry.symbol !== null) {
+			update.symbols += entry.symbol
+		}
+		for (child : entry.children) {
+			addSymbols(child, update)
+		}
+	}
+
+	/**
+	 * Returns the adapter that holds the symbols of the last request for the given resource.
+	 * 
+	 * @since 2.14
+	 */
+	protected def SymbolsAdapter getSymbolsAdapter(XtextResource resource) {
+		synchronized (symbolsAdapterLock) {
+			var adapter = EcoreUtil.getExistingAdapter(resource, SymbolsAdapter) as SymbolsAdapter
+			if (adapter === null) {
+				adapter = new SymbolsAdapter
+				resource.eAdapters += adapter
+			}
+			return adapter
+		}
+	}
+
 	protected def EObject getContainer(EObject obj) {
 		return obj.eContainer
 	}
@@ -241,8 +453,29 @@ class DocumentSymbolService {
 		return symbols
 	}
 
+	/**
+	 * Returns the symbol of the given description or {@code null} if it does not denote a symbol.
+	 * 
+	 * @since 2.14
+	 */
+	def SymbolInformation getSymbol(IEObjectDescription description, IResourceAccess resourceAccess) {
+		val symbols = newArrayList
+		description.createSymbol(resourceAccess) [ symbol |
+			symbols += symbol
+		]
+		return symbols.head
+	}
+
+	/**
+	 * Whether the given description matches the query of a workspace symbol request. By default, its qualified name
+	 * has to contain the query ignoring the case, or its simple name has to
+	 * {@link WorkspaceSymbolIndex#matchesHumps(String, String) match the humps} of the query. The
+	 * {@link WorkspaceSymbolIndex symbol index} only yields such descriptions, so a filter must not accept others.
+	 */
 	protected def boolean filter(IEObjectDescription description, String query) {
-		return description.qualifiedName.toLowerCase.toString.contains(query.toLowerCase)
+		val qualifiedName = description.qualifiedName
+		return qualifiedName.toLowerCase.toString.contains(query.toLowerCase)
+			|| qualifiedName.segmentCount > 0 && WorkspaceSymbolIndex.matchesHumps(qualifiedName.lastSegment, query)
 	}
 
 	protected def void createSymbol(
@@ -315,4 +548,84 @@ class DocumentSymbolService {
 		]
 	}
 
+	/**
+	 * The symbol of an object and the entries of its contents as of the last request. The offsets refer to the text of
+	 * that request.
+	 * 
+	 * @since 2.14
+	 */
+	@Accessors(PUBLIC_GETTER)
+	@FinalFieldsConstructor
+	protected static class SymbolEntry {
+		val EObject object
+		/**
+		 * The total offset of the object's node or -1 if the entry cannot be reused.
+		 */
+		val int offset
+		val int length
+		val SymbolInformation symbol
+		val int symbolStart
+		val int symbolEnd
+		val List<SymbolEntry> children
+	}
+
+	/**
+	 * Holds the document version and the symbol entries of the last request for a resource.
+	 * 
+	 * @since 2.14
+	 */
+	protected static class SymbolsAdapter extends AdapterImpl {
+		@Accessors volatile Pair<Integer, List<SymbolEntry>> state
+
+		override isAdapterForType(Object type) {
+			return type === SymbolsAdapter
+		}
+	}
+
+	/**
+	 * The state of a symbol request, i.e. the region of the last request's text that was changed and the symbols that
+	 * were collected so far.
+	 * 
+	 * @since 2.14
+	 */
+	@Accessors(PUBLIC_GETTER)
+	@FinalFieldsConstructor
+	protected static class SymbolUpdate {
+		val XtextResource resource
+		val String uri
+		val Document document
+		/**
+		 * The offset of the first changed character in the text of the last request.
+		 */
+		val int changeStart
+		/**
+		 * The end offset of the changed characters in the text of the last request.
+		 */
+		val int changeEnd
+		/**
+		 * The difference between the length of the current text and the length of the last request's text.
+		 */
+		val int delta
+		val CancelIndicator cancelIndicator
+		val Map<EObject, SymbolInformation> computed = Maps.newIdentityHashMap
+		val List<SymbolInformation> symbols = newArrayList
+
+		/**
+		 * Returns the number of characters the given entry was shifted by or {@code null} if it was affected by the
+		 * changes.
+		 */
+		def Integer getShift(SymbolEntry entry) {
+			if (changeStart >= changeEnd && delta === 0) {
+				return 0
+			}
+			if (entry.offset + entry.length < changeStart) {
+				return 0
+			}
+			if (entry.offset > changeEnd) {
+				return delta
+			}
+			return null
+		}
+	}
+
 }
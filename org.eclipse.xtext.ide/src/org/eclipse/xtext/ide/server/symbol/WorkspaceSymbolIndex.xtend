@@ -0,0 +1,290 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.ide.server.symbol
+
+import com.google.common.annotations.Beta
+import com.google.common.collect.ComparisonChain
+import com.google.inject.Singleton
+import java.util.Comparator
+import java.util.List
+import java.util.Map
+import java.util.Set
+import org.eclipse.emf.common.util.URI
+import org.eclipse.lsp4j.SymbolInformation
+import org.eclipse.xtend.lib.annotations.Accessors
+import org.eclipse.xtext.resource.IEObjectDescription
+import org.eclipse.xtext.resource.IResourceDescription
+import org.eclipse.xtext.resource.IResourceDescriptions
+
+/**
+ * An in-memory index of the exported objects of the workspace for the workspace symbol search. The index is keyed by
+ * the trigrams of the lower case qualified names and by the initials of the camel case humps of the simple names, so
+ * a query only has to look at the names that may match. It is updated from the deltas of the builds and does not load
+ * any resources.
+ *
+ * A name matches a query if it contains the query ignoring the case, or if the humps of the query are prefixes of the
+ * leading humps of the simple name, e.g. {@code FoBa} matches {@code FooBarBaz}. The matches are ranked as follows:
+ * <ol>
+ * <li>the qualified name or the simple name equals the query,</li>
+ * <li>the qualified name starts with the query,</li>
+ * <li>the simple name starts with the query,</li>
+ * <li>the simple name matches the humps of the query,</li>
+ * <li>the qualified name contains the query.</li>
+ * </ol>
+ * Matches of the same rank keep the order of the index.
+ *
+ * @since 2.14
+ */
+@Beta
+@Singleton
+class WorkspaceSymbolIndex {
+
+	/**
+	 * An exported object in the index.
+	 */
+	static class Entry {
+		@Accessors(PUBLIC_GETTER) val IEObjectDescription description
+		/**
+		 * The description of the resource that exports the object.
+		 */
+		@Accessors(PUBLIC_GETTER) val IResourceDescription resourceDescription
+		val String name
+		val String simpleName
+		val List<String> humps
+		val int resourceOrder
+		val int order
+
+		/**
+		 * The symbol of the description, which is created on demand and discarded with the entry.
+		 */
+		@Accessors volatile SymbolInformation symbol
+
+		new(IEObjectDescription description, IResourceDescription resourceDescription, int resourceOrder, int order) {
+			this.description = description
+			this.resourceDescription = resourceDescription
+			this.name = description.qualifiedName.toString.toLowerCase
+			val simpleName = description.qualifiedName.lastSegment ?: ''
+			this.simpleName = simpleName.toLowerCase
+			this.humps = getHumps(simpleName)
+			this.resourceOrder = resourceOrder
+			this.order = order
+		}
+	}
+
+	static val Comparator<Pair<Integer, Entry>> RANKING = [ a, b |
+		ComparisonChain.start.compare(a.key, b.key).compare(a.value.resourceOrder, b.value.resourceOrder)
+			.compare(a.value.order, b.value.order).result
+	]
+
+	static val UNDERSCORE = '_'.charAt(0)
+
+	val Map<URI, List<Entry>> resource2entries = newLinkedHashMap
+
+	val Map<URI, Integer> resourceOrders = newHashMap
+
+	val Map<String, Set<Entry>> trigram2entries = newHashMap
+
+	val Map<String, Set<Entry>> initials2entries = newHashMap
+
+	int nextResourceOrder
+
+	boolean initialized
+
+	/**
+	 * Whether the index was {@link #initialize(IResourceDescriptions) initialized}.
+	 */
+	def synchronized boolean isInitialized() {
+		return initialized
+	}
+
+	/**
+	 * Replaces the contents of this index by the exported objects of the given resource descriptions.
+	 */
+	def synchronized void initialize(IResourceDescriptions index) {
+		resource2entries.clear
+		resourceOrders.clear
+		trigram2entries.clear
+		initials2entries.clear
+		for (resourceDescription : index.allResourceDescriptions) {
+			add(resourceDescription)
+		}
+		initialized = true
+	}
+
+	/**
+	 * Applies the given deltas to this index.
+	 */
+	def synchronized void update(Iterable<? extends IResourceDescription.Delta> deltas) {
+		for (delta : deltas) {
+			remove(delta.uri)
+			if (delta.^new === null) {
+				resourceOrders.remove(delta.uri)
+			} else {
+				add(delta.^new)
+			}
+		}
+	}
+
+	/**
+	 * Returns the entries whose names match the given query in the order of their rank.
+	 */
+	def synchronized List<Entry> find(String query) {
+		val lowerCaseQuery = query.toLowerCase
+		val result = <Entry, Integer>newHashMap
+		for (entry : getSubstringCandidates(lowerCaseQuery)) {
+			val rank = getRank(entry, lowerCaseQuery)
+			if (rank !== -1) {
+				result.put(entry, rank)
+			}
+		}
+		val queryHumps = getHumps(query)
+		if (queryHumps.size > 1) {
+			for (entry : initials2entries.get(getInitials(queryHumps)) ?: emptySet) {
+				if (!result.containsKey(entry) && matchesHumps(entry.humps, queryHumps)) {
+					result.put(entry, 3)
+				}
+			}
+		}
+		return result.entrySet.map[value -> key].sortWith(RANKING).map[value]
+	}
+
+	protected def Iterable<Entry> getSubstringCandidates(String lowerCaseQuery) {
+		if (lowerCaseQuery.length < 3) {
+			return resource2entries.values.flatten
+		}
+		var Set<Entry> smallest = null
+		for (trigram : getTrigrams(lowerCaseQuery)) {
+			val entries = trigram2entries.get(trigram)
+			if (entries === null) {
+				return emptyList
+			}
+			if (smallest === null || entries.size < smallest.size) {
+				smallest = entries
+			}
+		}
+		return smallest
+	}
+
+	/**
+	 * Returns the rank of a substring match or -1 if the name does not contain the query.
+	 */
+	protected def int getRank(Entry entry, String lowerCaseQuery) {
+		if (entry.name == lowerCaseQuery || entry.simpleName == lowerCaseQuery) {
+			return 0
+		}
+		if (entry.name.startsWith(lowerCaseQuery)) {
+			return 1
+		}
+		if (entry.simpleName.startsWith(lowerCaseQuery)) {
+			return 2
+		}
+		if (entry.name.contains(lowerCaseQuery)) {
+			return 4
+		}
+		return -1
+	}
+
+	protected def void add(IResourceDescription resourceDescription) {
+		val uri = resourceDescription.URI
+		var resourceOrder = resourceOrders.get(uri)
+		if (resourceOrder === null) {
+			resourceOrder = nextResourceOrder++
+			resourceOrders.put(uri, resourceOrder)
+		}
+		val entries = newArrayList
+		for (description : resourceDescription.exportedObjects) {
+			if (description.qualifiedName !== null) {
+				val entry = new Entry(description, resourceDescription, resourceOrder, entries.size)
+				entries += entry
+				for (trigram : getTrigrams(entry.name)) {
+					trigram2entries.computeIfAbsent(trigram)[newHashSet] += entry
+				}
+				if (entry.humps.size > 1) {
+					initials2entries.computeIfAbsent(getInitials(entry.humps))[newHashSet] += entry
+				}
+			}
+		}
+		resource2entries.put(uri, entries)
+	}
+
+	protected def void remove(URI uri) {
+		val entries = resource2entries.remove(uri)
+		if (entries === null) {
+			return
+		}
+		for (entry : entries) {
+			for (trigram : getTrigrams(entry.name)) {
+				removeFrom(trigram2entries, trigram, entry)
+			}
+			if (entry.humps.size > 1) {
+				removeFrom(initials2entries, getInitials(entry.humps), entry)
+			}
+		}
+	}
+
+	def private static void removeFrom(Map<String, Set<Entry>> map, String key, Entry entry) {
+		val entries = map.get(key)
+		if (entries !== null && entries.remove(entry) && entries.empty) {
+			map.remove(key)
+		}
+	}
+
+	def private static Set<String> getTrigrams(String name) {
+		val result = newHashSet
+		for (var i = 0; i + 3 <= name.length; i++) {
+			result += name.substring(i, i + 3)
+		}
+		return result
+	}
+
+	/**
+	 * Returns the lower case initials of the first two humps, which is the key of the hump index.
+	 */
+	def private static String getInitials(List<String> humps) {
+		return humps.take(2).map[substring(0, 1)].join.toLowerCase
+	}
+
+	/**
+	 * Splits the name before upper case letters and at underscores.
+	 */
+	def private static List<String> getHumps(String name) {
+		val result = <String>newArrayList
+		var start = 0
+		for (var i = 0; i <= name.length; i++) {
+			if (i === name.length || name.charAt(i) === UNDERSCORE || i > start && Character.isUpperCase(name.charAt(i))) {
+				if (i > start) {
+					result += name.substring(start, i)
+				}
+				start = if (i < name.length && name.charAt(i) === UNDERSCORE) i + 1 else i
+			}
+		}
+		return result
+	}
+
+	/**
+	 * Whether the humps of the given query are prefixes of the leading humps of the given name, e.g. {@code FoBa}
+	 * matches {@code FooBarBaz}. A query needs at least two humps to match.
+	 */
+	def static boolean matchesHumps(String name, String query) {
+		val queryHumps = getHumps(query)
+		return queryHumps.size > 1 && matchesHumps(getHumps(name), queryHumps)
+	}
+
+	def private static boolean matchesHumps(List<String> humps, List<String> queryHumps) {
+		if (queryHumps.size > humps.size) {
+			return false
+		}
+		for (i : 0 ..< queryHumps.size) {
+			if (!humps.get(i).toLowerCase.startsWith(queryHumps.get(i).toLowerCase)) {
+				return false
+			}
+		}
+		return true
+	}
+
+}
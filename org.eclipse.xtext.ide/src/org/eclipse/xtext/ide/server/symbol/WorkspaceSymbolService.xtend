@@ -12,6 +12,7 @@ import com.google.inject.Singleton
 import java.util.List
 import org.eclipse.lsp4j.SymbolInformation
 import org.eclipse.xtext.findReferences.IReferenceFinder.IResourceAccess
+import org.eclipse.xtext.resource.IResourceDescription
 import org.eclipse.xtext.resource.IResourceDescriptions
 import org.eclipse.xtext.resource.IResourceServiceProvider
 import org.eclipse.xtext.service.OperationCanceledManager
@@ -30,22 +31,123 @@ class WorkspaceSymbolService {
 	@Inject
 	OperationCanceledManager operationCanceledManager
 
+	@Inject
+	WorkspaceSymbolIndex symbolIndex
+
+	/**
+	 * Returns the symbols of the given resource descriptions that match the given query. Once the
+	 * {@link WorkspaceSymbolIndex symbol index} is initialized, it is used to find and rank the candidates.
+	 */
 	def List<? extends SymbolInformation> getSymbols(
 		String query,
 		IResourceAccess resourceAccess,
 		IResourceDescriptions indexData,
 		CancelIndicator cancelIndicator
 	) {
-		val result = newLinkedList
+		val result = newArrayList
+		getSymbols(query, resourceAccess, indexData, [result += it], cancelIndicator)
+		return result
+	}
+
+	/**
+	 * Passes the symbols that match the given query to the acceptor as soon as they are found. The search stops as
+	 * soon as the acceptor returns <code>false</code>, and with an
+	 * {@link org.eclipse.xtext.service.OperationCanceledError OperationCanceledError} as soon as the request is
+	 * cancelled. Once the {@link WorkspaceSymbolIndex symbol index} is initialized, the best ranked symbols are passed
+	 * first.
+	 * 
+	 * @param acceptor returns whether the search should continue
+	 * @since 2.14
+	 */
+	def void getSymbols(
+		String query,
+		IResourceAccess resourceAccess,
+		IResourceDescriptions indexData,
+		(SymbolInformation)=>boolean acceptor,
+		CancelIndicator cancelIndicator
+	) {
+		if (symbolIndex.initialized) {
+			getIndexedSymbols(query, resourceAccess, indexData, acceptor, cancelIndicator)
+			return
+		}
 		for (resourceDescription : indexData.allResourceDescriptions) {
 			operationCanceledManager.checkCanceled(cancelIndicator)
 			val resourceServiceProvider = resourceDescription.URI.resourceServiceProvider
 			val documentSymbolService = resourceServiceProvider?.get(DocumentSymbolService)
 			if (documentSymbolService !== null) {
-				result += documentSymbolService.getSymbols(resourceDescription, query, resourceAccess, cancelIndicator)
+				for (symbol : documentSymbolService.getSymbols(resourceDescription, query, resourceAccess, cancelIndicator)) {
+					if (!acceptor.apply(symbol)) {
+						return
+					}
+				}
 			}
 		}
-		return result
+	}
+
+	/**
+	 * Passes the symbols of the candidates that the symbol index found for the query to the acceptor, in the order of
+	 * their rank and until the acceptor returns <code>false</code>. Each candidate is checked against
+	 * the {@link DocumentSymbolService#filter(org.eclipse.xtext.resource.IEObjectDescription, String) filter} of its language. The symbol of an
+	 * exported object is kept until its resource changes, so only the resources of the objects that were not part of
+	 * a previous result are read.
+	 * 
+	 * The candidates are only taken from the symbol index if the given resource descriptions contain the same
+	 * description of their resource. Otherwise, the resource is searched like without a symbol index.
+	 * 
+	 * @since 2.14
+	 */
+	protected def void getIndexedSymbols(
+		String query,
+		IResourceAccess resourceAccess,
+		IResourceDescriptions indexData,
+		(SymbolInformation)=>boolean acceptor,
+		CancelIndicator cancelIndicator
+	) {
+		val changedResources = <IResourceDescription>newLinkedHashSet
+		for (entry : symbolIndex.find(query)) {
+			operationCanceledManager.checkCanceled(cancelIndicator)
+			val resourceDescription = indexData.getResourceDescription(entry.resourceDescription.URI)
+			if (resourceDescription === entry.resourceDescription) {
+				val description = entry.description
+				val documentSymbolService = description.EObjectURI.resourceServiceProvider?.get(DocumentSymbolService)
+				if (documentSymbolService !== null && documentSymbolService.filter(description, query)) {
+					var symbol = entry.symbol
+					if (symbol === null) {
+						symbol = documentSymbolService.getSymbol(description, resourceAccess)
+						entry.symbol = symbol
+					}
+					if (symbol !== null && !acceptor.apply(symbol)) {
+						return
+					}
+				}
+			} else if (resourceDescription !== null) {
+				changedResources += resourceDescription
+			}
+		}
+		for (resourceDescription : changedResources) {
+			val documentSymbolService = resourceDescription.URI.resourceServiceProvider?.get(DocumentSymbolService)
+			if (documentSymbolService !== null) {
+				for (symbol : documentSymbolService.getSymbols(resourceDescription, query, resourceAccess, cancelIndicator)) {
+					if (!acceptor.apply(symbol)) {
+						return
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Updates the symbol index with the deltas of a build. The symbol index is initialized with the given resource
+	 * descriptions after the first build.
+	 * 
+	 * @since 2.14
+	 */
+	def void afterBuild(List<IResourceDescription.Delta> deltas, IResourceDescriptions indexData) {
+		if (symbolIndex.initialized) {
+			symbolIndex.update(deltas)
+		} else {
+			symbolIndex.initialize(indexData)
+		}
 	}
 
 }
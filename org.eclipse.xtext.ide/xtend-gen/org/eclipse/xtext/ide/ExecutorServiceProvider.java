@@ -11,22 +11,41 @@ import com.google.common.collect.Maps;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.Singleton;
+import com.google.inject.name.Named;
 import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import org.apache.log4j.Logger;
 import org.eclipse.xtext.util.DisposableRegistry;
 import org.eclipse.xtext.util.IDisposable;
+import org.eclipse.xtext.util.internal.Log;
+import org.eclipse.xtext.xbase.lib.Exceptions;
 
 /**
  * Provider for executor services. By calling {@link #dispose()} all created executor services are shut down.
  * <p>
  * In some situations it is necessary to use multiple instances of executor services in order to avoid deadlocks.
  * That can be achieved with the {@link #get(String)}method, which will return a different instance for each key.
+ * <p>
+ * If {@link #VIRTUAL_THREADS} is bound to <code>true</code> and the runtime supports virtual threads, each task runs in
+ * a new virtual thread. Tasks that block on I/O then do not occupy a platform thread. Otherwise a cached thread pool
+ * is used.
  */
 @Singleton
+@Log
 @SuppressWarnings("all")
 public class ExecutorServiceProvider implements Provider<ExecutorService>, IDisposable {
+  /**
+   * The name of the binding that enables virtual threads.
+   * @since 2.14
+   */
+  public final static String VIRTUAL_THREADS = "org.eclipse.xtext.ide.ExecutorServiceProvider.virtualThreads";
+  
+  @Inject(optional = true)
+  @Named(ExecutorServiceProvider.VIRTUAL_THREADS)
+  private boolean virtualThreads = false;
+  
   @Inject
   public void registerTo(final DisposableRegistry disposableRegistry) {
     disposableRegistry.register(this);
@@ -54,7 +73,37 @@ public class ExecutorServiceProvider implements Provider<ExecutorService>, IDisp
   }
   
   protected ExecutorService createInstance(final String key) {
-    return Executors.newCachedThreadPool();
+    ExecutorService _xblockexpression = null;
+    {
+      if (this.virtualThreads) {
+        final ExecutorService result = this.createVirtualThreadExecutor();
+        if ((result != null)) {
+          return result;
+        }
+      }
+      _xblockexpression = Executors.newCachedThreadPool();
+    }
+    return _xblockexpression;
+  }
+  
+  /**
+   * Returns an executor service that starts a new virtual thread for each task or <code>null</code> if the runtime
+   * does not support virtual threads.
+   * @since 2.14
+   */
+  protected ExecutorService createVirtualThreadExecutor() {
+    try {
+      Object _invoke = Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+      return ((ExecutorService) _invoke);
+    } catch (final Throwable _t) {
+      if (_t instanceof ReflectiveOperationException) {
+        final ReflectiveOperationException e = (ReflectiveOperationException)_t;
+        ExecutorServiceProvider.LOG.warn("Virtual threads are not supported by this runtime, using a thread pool instead.");
+        return null;
+      } else {
+        throw Exceptions.sneakyThrow(_t);
+      }
+    }
   }
   
   @Override
@@ -65,4 +114,6 @@ public class ExecutorServiceProvider implements Provider<ExecutorService>, IDisp
     }
     this.instanceCache.clear();
   }
+  
+  private final static Logger LOG = Logger.getLogger(ExecutorServiceProvider.class);
 }
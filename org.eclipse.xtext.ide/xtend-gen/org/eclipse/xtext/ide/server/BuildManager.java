@@ -11,17 +11,28 @@ import com.google.common.collect.HashMultimap;
 import com.google.common.collect.Iterables;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
+import com.google.inject.name.Named;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.xtend.lib.annotations.AccessorType;
 import org.eclipse.xtend.lib.annotations.Accessors;
 import org.eclipse.xtend.lib.annotations.Data;
 import org.eclipse.xtext.build.IncrementalBuilder;
 import org.eclipse.xtext.diagnostics.Severity;
+import org.eclipse.xtext.ide.ExecutorServiceProvider;
 import org.eclipse.xtext.ide.server.ProjectManager;
 import org.eclipse.xtext.ide.server.TopologicalSorter;
 import org.eclipse.xtext.ide.server.WorkspaceManager;
@@ -29,9 +40,11 @@ import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.impl.ProjectDescription;
 import org.eclipse.xtext.util.CancelIndicator;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+import org.eclipse.xtext.xbase.lib.Exceptions;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
 import org.eclipse.xtext.xbase.lib.ListExtensions;
+import org.eclipse.xtext.xbase.lib.Pair;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
 import org.eclipse.xtext.xbase.lib.Pure;
 import org.eclipse.xtext.xbase.lib.util.ToStringBuilder;
@@ -113,12 +126,27 @@ public class BuildManager {
   
   public final static String CYCLIC_PROJECT_DEPENDENCIES = (BuildManager.class.getCanonicalName() + ".cyclicProjectDependencies");
   
+  /**
+   * The name of the binding for the maximum number of projects that are built concurrently. Projects are built one
+   * after another by default.
+   * 
+   * @since 2.14
+   */
+  public final static String PARALLEL_BUILDS = "org.eclipse.xtext.ide.server.BuildManager.parallelBuilds";
+  
   @Accessors(AccessorType.PUBLIC_SETTER)
   private WorkspaceManager workspaceManager;
   
   @Inject
   private Provider<TopologicalSorter> sorterProvider;
   
+  @Inject
+  private ExecutorServiceProvider executorServiceProvider;
+  
+  @Inject(optional = true)
+  @Named(BuildManager.PARALLEL_BUILDS)
+  private int parallelBuilds = 1;
+  
   private final LinkedHashSet<URI> dirtyFiles = CollectionLiterals.<URI>newLinkedHashSet();
   
   private final LinkedHashSet<URI> deletedFiles = CollectionLiterals.<URI>newLinkedHashSet();
@@ -146,7 +174,7 @@ public class BuildManager {
     final ArrayList<IResourceDescription.Delta> result = CollectionLiterals.<IResourceDescription.Delta>newArrayList();
     for (final ProjectDescription description : sortedDescriptions) {
       {
-        final IncrementalBuilder.Result partialresult = this.workspaceManager.getProjectManager(description.getName()).doInitialBuild(indicator);
+        final IncrementalBuilder.Result partialresult = this.workspaceManager.getProjectManager(description.getName()).doInitialBuild(result, indicator);
         result.addAll(partialresult.getAffectedResources());
       }
     }
@@ -173,6 +201,15 @@ public class BuildManager {
     Set<ProjectDescription> _keySet_1 = project2deleted.keySet();
     Iterable<ProjectDescription> _plus = Iterables.<ProjectDescription>concat(_keySet, _keySet_1);
     final List<ProjectDescription> sortedDescriptions = this.sortByDependencies(_plus);
+    if (((this.parallelBuilds > 1) && (sortedDescriptions.size() > 1))) {
+      final Function1<ProjectDescription, BuildManager.ProjectBuildData> _function = (ProjectDescription it) -> {
+        List<URI> _list = IterableExtensions.<URI>toList(project2dirty.get(it));
+        List<URI> _list_1 = IterableExtensions.<URI>toList(project2deleted.get(it));
+        return new BuildManager.ProjectBuildData(_list, _list_1);
+      };
+      final Map<ProjectDescription, BuildManager.ProjectBuildData> project2data = IterableExtensions.<ProjectDescription, BuildManager.ProjectBuildData>toInvertedMap(sortedDescriptions, _function);
+      return this.internalBuildInParallel(sortedDescriptions, project2data, cancelIndicator);
+    }
     final ArrayList<IResourceDescription.Delta> result = CollectionLiterals.<IResourceDescription.Delta>newArrayList();
     for (final ProjectDescription it : sortedDescriptions) {
       {
@@ -180,10 +217,10 @@ public class BuildManager {
         final List<URI> projectDirty = IterableExtensions.<URI>toList(project2dirty.get(it));
         final List<URI> projectDeleted = IterableExtensions.<URI>toList(project2deleted.get(it));
         final IncrementalBuilder.Result partialResult = projectManager.doBuild(projectDirty, projectDeleted, result, cancelIndicator);
-        final Function1<IResourceDescription.Delta, URI> _function = (IResourceDescription.Delta it_1) -> {
+        final Function1<IResourceDescription.Delta, URI> _function_1 = (IResourceDescription.Delta it_1) -> {
           return it_1.getUri();
         };
-        allDirty.addAll(ListExtensions.<IResourceDescription.Delta, URI>map(partialResult.getAffectedResources(), _function));
+        allDirty.addAll(ListExtensions.<IResourceDescription.Delta, URI>map(partialResult.getAffectedResources(), _function_1));
         Iterables.removeAll(this.dirtyFiles, projectDirty);
         Iterables.removeAll(this.deletedFiles, projectDeleted);
         result.addAll(partialResult.getAffectedResources());
@@ -192,6 +229,111 @@ public class BuildManager {
     return result;
   }
   
+  /**
+   * Builds up to {@link #PARALLEL_BUILDS} projects concurrently. A project is built as soon as the projects that it
+   * depends on are built, and it receives their deltas as external deltas. The deltas are returned in the order of
+   * the sorted projects, regardless of the order in which the builds finish.
+   * 
+   * @since 2.14
+   */
+  protected List<IResourceDescription.Delta> internalBuildInParallel(final List<ProjectDescription> sortedDescriptions, final Map<ProjectDescription, BuildManager.ProjectBuildData> project2data, final CancelIndicator cancelIndicator) {
+    try {
+      final Function1<ProjectDescription, List<ProjectDescription>> _function = (ProjectDescription it) -> {
+        return this.getUpstreamProjects(it, sortedDescriptions);
+      };
+      final Map<ProjectDescription, List<ProjectDescription>> project2upstream = IterableExtensions.<ProjectDescription, List<ProjectDescription>>toInvertedMap(sortedDescriptions, _function);
+      final HashMap<ProjectDescription, List<IResourceDescription.Delta>> project2deltas = CollectionLiterals.<ProjectDescription, List<IResourceDescription.Delta>>newHashMap();
+      final ArrayList<ProjectDescription> remaining = new ArrayList<ProjectDescription>(sortedDescriptions);
+      ExecutorService _get = this.executorServiceProvider.get(BuildManager.class.getCanonicalName());
+      final ExecutorCompletionService<Pair<ProjectDescription, List<IResourceDescription.Delta>>> completionService = new ExecutorCompletionService<Pair<ProjectDescription, List<IResourceDescription.Delta>>>(_get);
+      int running = 0;
+      Throwable failure = null;
+      while (((running > 0) || ((failure == null) && (!remaining.isEmpty())))) {
+        {
+          final Iterator<ProjectDescription> iterator = remaining.iterator();
+          while ((((failure == null) && (running < this.parallelBuilds)) && iterator.hasNext())) {
+            {
+              final ProjectDescription project = iterator.next();
+              final List<ProjectDescription> upstream = project2upstream.get(project);
+              if (((running == 0) || project2deltas.keySet().containsAll(upstream))) {
+                iterator.remove();
+                final ProjectManager projectManager = this.workspaceManager.getProjectManager(project.getName());
+                final BuildManager.ProjectBuildData data = project2data.get(project);
+                final Function1<ProjectDescription, List<IResourceDescription.Delta>> _function_1 = (ProjectDescription it) -> {
+                  return project2deltas.get(it);
+                };
+                final List<IResourceDescription.Delta> externalDeltas = IterableExtensions.<IResourceDescription.Delta>toList(Iterables.<IResourceDescription.Delta>concat(ListExtensions.<ProjectDescription, List<IResourceDescription.Delta>>map(upstream, _function_1)));
+                final Callable<Pair<ProjectDescription, List<IResourceDescription.Delta>>> _function_2 = () -> {
+                  List<IResourceDescription.Delta> _affectedResources = projectManager.doBuild(data.dirtyFiles, data.deletedFiles, externalDeltas, cancelIndicator).getAffectedResources();
+                  return Pair.<ProjectDescription, List<IResourceDescription.Delta>>of(project, _affectedResources);
+                };
+                completionService.submit(_function_2);
+                running++;
+              }
+            }
+          }
+          try {
+            final Pair<ProjectDescription, List<IResourceDescription.Delta>> built = completionService.take().get();
+            running--;
+            project2deltas.put(built.getKey(), built.getValue());
+            Iterables.removeAll(this.dirtyFiles, project2data.get(built.getKey()).dirtyFiles);
+            Iterables.removeAll(this.deletedFiles, project2data.get(built.getKey()).deletedFiles);
+          } catch (final Throwable _t) {
+            if (_t instanceof ExecutionException) {
+              final ExecutionException e = (ExecutionException)_t;
+              running--;
+              if ((failure == null)) {
+                failure = e.getCause();
+              }
+            } else {
+              throw Exceptions.sneakyThrow(_t);
+            }
+          }
+        }
+      }
+      if ((failure != null)) {
+        throw failure;
+      }
+      final Function1<ProjectDescription, List<IResourceDescription.Delta>> _function_1 = (ProjectDescription it) -> {
+        return project2deltas.get(it);
+      };
+      return IterableExtensions.<IResourceDescription.Delta>toList(Iterables.<IResourceDescription.Delta>concat(ListExtensions.<ProjectDescription, List<IResourceDescription.Delta>>map(sortedDescriptions, _function_1)));
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  /**
+   * Returns the given projects that the given project depends on directly or transitively, in the given order.
+   * 
+   * @since 2.14
+   */
+  protected List<ProjectDescription> getUpstreamProjects(final ProjectDescription project, final List<ProjectDescription> projects) {
+    final HashSet<String> reachable = CollectionLiterals.<String>newHashSet();
+    final LinkedList<ProjectDescription> queue = CollectionLiterals.<ProjectDescription>newLinkedList(project);
+    while ((!queue.isEmpty())) {
+      List<String> _dependencies = queue.poll().getDependencies();
+      for (final String dependency : _dependencies) {
+        boolean _add = reachable.add(dependency);
+        if (_add) {
+          ProjectManager _projectManager = this.workspaceManager.getProjectManager(dependency);
+          ProjectDescription _projectDescription = null;
+          if (_projectManager!=null) {
+            _projectDescription=_projectManager.getProjectDescription();
+          }
+          final ProjectDescription description = _projectDescription;
+          if ((description != null)) {
+            queue.add(description);
+          }
+        }
+      }
+    }
+    final Function1<ProjectDescription, Boolean> _function = (ProjectDescription it) -> {
+      return Boolean.valueOf(((it != project) && reachable.contains(it.getName())));
+    };
+    return IterableExtensions.<ProjectDescription>toList(IterableExtensions.<ProjectDescription>filter(projects, _function));
+  }
+  
   protected List<ProjectDescription> sortByDependencies(final Iterable<ProjectDescription> projectDescriptions) {
     final Procedure1<ProjectDescription> _function = (ProjectDescription it) -> {
       this.reportDependencyCycle(this.workspaceManager.getProjectManager(it.getName()));
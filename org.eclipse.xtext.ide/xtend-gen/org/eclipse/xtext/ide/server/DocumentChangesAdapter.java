@@ -0,0 +1,250 @@
+/**
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.ide.server;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.Iterables;
+import java.util.ArrayDeque;
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.common.util.EList;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtend.lib.annotations.Data;
+import org.eclipse.xtext.xbase.lib.IterableExtensions;
+import org.eclipse.xtext.xbase.lib.Pure;
+import org.eclipse.xtext.xbase.lib.util.ToStringBuilder;
+
+/**
+ * Attached to the resource of an open document that is reparsed incrementally. It records the version of the document
+ * that the resource reflects and the text changes that were applied to the resource, such that services can update
+ * the results of previous requests instead of computing them from scratch.
+ * 
+ * @since 2.14
+ */
+@Beta
+@SuppressWarnings("all")
+public class DocumentChangesAdapter extends AdapterImpl {
+  /**
+   * A change of the resource's text.
+   */
+  @Data
+  public static class TextChange {
+    /**
+     * The document version before the change.
+     */
+    private final int fromVersion;
+    
+    /**
+     * The document version after the change.
+     */
+    private final int toVersion;
+    
+    /**
+     * The offset of the change in the text of {@link #getFromVersion() the version before the change}.
+     */
+    private final int offset;
+    
+    private final int replacedLength;
+    
+    private final int newLength;
+    
+    public TextChange(final int fromVersion, final int toVersion, final int offset, final int replacedLength, final int newLength) {
+      super();
+      this.fromVersion = fromVersion;
+      this.toVersion = toVersion;
+      this.offset = offset;
+      this.replacedLength = replacedLength;
+      this.newLength = newLength;
+    }
+    
+    @Override
+    @Pure
+    public int hashCode() {
+      final int prime = 31;
+      int result = 1;
+      result = prime * result + this.fromVersion;
+      result = prime * result + this.toVersion;
+      result = prime * result + this.offset;
+      result = prime * result + this.replacedLength;
+      result = prime * result + this.newLength;
+      return result;
+    }
+    
+    @Override
+    @Pure
+    public boolean equals(final Object obj) {
+      if (this == obj)
+        return true;
+      if (obj == null)
+        return false;
+      if (getClass() != obj.getClass())
+        return false;
+      DocumentChangesAdapter.TextChange other = (DocumentChangesAdapter.TextChange) obj;
+      if (other.fromVersion != this.fromVersion)
+        return false;
+      if (other.toVersion != this.toVersion)
+        return false;
+      if (other.offset != this.offset)
+        return false;
+      if (other.replacedLength != this.replacedLength)
+        return false;
+      if (other.newLength != this.newLength)
+        return false;
+      return true;
+    }
+    
+    @Override
+    @Pure
+    public String toString() {
+      ToStringBuilder b = new ToStringBuilder(this);
+      b.add("fromVersion", this.fromVersion);
+      b.add("toVersion", this.toVersion);
+      b.add("offset", this.offset);
+      b.add("replacedLength", this.replacedLength);
+      b.add("newLength", this.newLength);
+      return b.toString();
+    }
+    
+    @Pure
+    public int getFromVersion() {
+      return this.fromVersion;
+    }
+    
+    @Pure
+    public int getToVersion() {
+      return this.toVersion;
+    }
+    
+    @Pure
+    public int getOffset() {
+      return this.offset;
+    }
+    
+    @Pure
+    public int getReplacedLength() {
+      return this.replacedLength;
+    }
+    
+    @Pure
+    public int getNewLength() {
+      return this.newLength;
+    }
+  }
+  
+  /**
+   * The maximum number of changes that are kept. Requests for older versions are computed from scratch.
+   */
+  private final static int MAX_CHANGES = 1000;
+  
+  public static DocumentChangesAdapter find(final Resource resource) {
+    Adapter _existingAdapter = EcoreUtil.getExistingAdapter(resource, DocumentChangesAdapter.class);
+    return ((DocumentChangesAdapter) _existingAdapter);
+  }
+  
+  /**
+   * Attaches a new adapter to the given resource, which reflects the given document version.
+   */
+  public static DocumentChangesAdapter install(final Resource resource, final int version) {
+    resource.eAdapters().removeAll(IterableExtensions.<DocumentChangesAdapter>toList(Iterables.<DocumentChangesAdapter>filter(resource.eAdapters(), DocumentChangesAdapter.class)));
+    final DocumentChangesAdapter adapter = new DocumentChangesAdapter(version);
+    EList<Adapter> _eAdapters = resource.eAdapters();
+    _eAdapters.add(adapter);
+    return adapter;
+  }
+  
+  /**
+   * Guards the changes. This is a private lock, since the adapter is reachable from the resource.
+   */
+  private final Object lock = new Object();
+  
+  private final ArrayDeque<DocumentChangesAdapter.TextChange> changes = new ArrayDeque<DocumentChangesAdapter.TextChange>();
+  
+  private volatile int version;
+  
+  protected DocumentChangesAdapter(final int version) {
+    this.version = version;
+  }
+  
+  @Override
+  public boolean isAdapterForType(final Object type) {
+    return (type == DocumentChangesAdapter.class);
+  }
+  
+  /**
+   * Returns the version of the open document that the resource reflects.
+   */
+  public int getVersion() {
+    return this.version;
+  }
+  
+  /**
+   * Records a change that was applied to the resource. The changes of one document version are recorded one after
+   * the other, the offset of each change refers to the text after the preceding changes.
+   */
+  public void recordChange(final int toVersion, final int offset, final int replacedLength, final int newLength) {
+    synchronized (this.lock) {
+      int _xifexpression = (int) 0;
+      if ((this.changes.isEmpty() || (this.changes.getLast().toVersion != toVersion))) {
+        _xifexpression = this.version;
+      } else {
+        _xifexpression = this.changes.getLast().fromVersion;
+      }
+      final int fromVersion = _xifexpression;
+      DocumentChangesAdapter.TextChange _textChange = new DocumentChangesAdapter.TextChange(fromVersion, toVersion, offset, replacedLength, newLength);
+      this.changes.addLast(_textChange);
+      int _size = this.changes.size();
+      boolean _greaterThan = (_size > DocumentChangesAdapter.MAX_CHANGES);
+      if (_greaterThan) {
+        final int oldest = this.changes.removeFirst().fromVersion;
+        while (((!this.changes.isEmpty()) && (this.changes.getFirst().fromVersion == oldest))) {
+          this.changes.removeFirst();
+        }
+      }
+      this.version = toVersion;
+    }
+  }
+  
+  /**
+   * Returns a single change that covers all changes since the given version or <code>null</code> if they are not
+   * known anymore. Its offset and replaced length refer to the text of the given version.
+   */
+  public DocumentChangesAdapter.TextChange getChangeSince(final int fromVersion) {
+    synchronized (this.lock) {
+      if ((fromVersion == this.version)) {
+        return new DocumentChangesAdapter.TextChange(fromVersion, this.version, 0, 0, 0);
+      }
+      boolean started = false;
+      int start = 0;
+      int end = 0;
+      int delta = 0;
+      for (final DocumentChangesAdapter.TextChange change : this.changes) {
+        {
+          if (((!started) && (change.fromVersion == fromVersion))) {
+            started = true;
+            start = change.offset;
+            end = (change.offset + change.replacedLength);
+            delta = 0;
+          }
+          if (started) {
+            if (((change.offset + change.replacedLength) > (end + delta))) {
+              end = ((change.offset + change.replacedLength) - delta);
+            }
+            start = Math.min(start, change.offset);
+            int _delta = delta;
+            delta = (_delta + (change.newLength - change.replacedLength));
+          }
+        }
+      }
+      if ((!started)) {
+        return null;
+      }
+      return new DocumentChangesAdapter.TextChange(fromVersion, this.version, start, (end - start), ((end - start) + delta));
+    }
+  }
+}
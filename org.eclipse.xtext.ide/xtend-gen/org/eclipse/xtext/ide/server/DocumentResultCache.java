@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.ide.server;
+
+import com.google.common.annotations.Beta;
+import java.util.HashMap;
+import java.util.Map;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.ide.server.Document;
+import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+import org.eclipse.xtext.xbase.lib.Functions.Function0;
+import org.eclipse.xtext.xbase.lib.Pair;
+
+/**
+ * Caches the results of read requests for open documents. The results are keyed by the document, which is replaced
+ * on every change, and by a request specific key, e.g. the request parameters. Results that depend on other
+ * resources become stale with a build, so the cache is {@link #clear() cleared} whenever a build produced deltas.
+ * 
+ * @since 2.14
+ */
+@Beta
+@SuppressWarnings("all")
+public class DocumentResultCache {
+  private final Map<URI, Pair<Document, Map<Object, Object>>> uri2results = CollectionLiterals.<URI, Pair<Document, Map<Object, Object>>>newHashMap();
+  
+  /**
+   * Incremented by {@link #clear()}, such that results that were computed before are not stored.
+   */
+  private long generation;
+  
+  /**
+   * Returns the cached result for the given document and key or computes and caches it.
+   */
+  public <T extends Object> T get(final URI uri, final Document document, final Object key, final Function0<? extends T> computation) {
+    long expectedGeneration = 0;
+    synchronized (this) {
+      final Pair<Document, Map<Object, Object>> results = this.uri2results.get(uri);
+      if ((((results != null) && (results.getKey() == document)) && results.getValue().containsKey(key))) {
+        Object _get = results.getValue().get(key);
+        return ((T) _get);
+      }
+      expectedGeneration = this.generation;
+    }
+    final T result = computation.apply();
+    synchronized (this) {
+      if ((expectedGeneration == this.generation)) {
+        Pair<Document, Map<Object, Object>> results = this.uri2results.get(uri);
+        if (((results == null) || (results.getKey() != document))) {
+          HashMap<Object, Object> _newHashMap = CollectionLiterals.<Object, Object>newHashMap();
+          Pair<Document, Map<Object, Object>> _mappedTo = Pair.<Document, Map<Object, Object>>of(document, _newHashMap);
+          results = _mappedTo;
+          this.uri2results.put(uri, results);
+        }
+        results.getValue().put(key, result);
+      }
+    }
+    return result;
+  }
+  
+  /**
+   * Removes the results for the given document.
+   */
+  public synchronized void invalidate(final URI uri) {
+    this.uri2results.remove(uri);
+  }
+  
+  /**
+   * Removes all results.
+   */
+  public synchronized void clear() {
+    this.uri2results.clear();
+    this.generation++;
+  }
+}
@@ -102,6 +102,7 @@ import org.eclipse.xtext.ide.server.codelens.ICodeLensService;
 import org.eclipse.xtext.ide.server.coloring.IColoringService;
 import org.eclipse.xtext.ide.server.commands.ExecutableCommandRegistry;
 import org.eclipse.xtext.ide.server.concurrent.RequestManager;
+import org.eclipse.xtext.ide.server.concurrent.RequestPriority;
 import org.eclipse.xtext.ide.server.contentassist.ContentAssistService;
 import org.eclipse.xtext.ide.server.findReferences.WorkspaceResourceAccess;
 import org.eclipse.xtext.ide.server.formatting.FormattingService;
@@ -127,6 +128,7 @@ import org.eclipse.xtext.xbase.lib.Functions.Function2;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
 import org.eclipse.xtext.xbase.lib.ListExtensions;
 import org.eclipse.xtext.xbase.lib.ObjectExtensions;
+import org.eclipse.xtext.xbase.lib.Pair;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure2;
 import org.eclipse.xtext.xbase.lib.Pure;
@@ -339,8 +341,14 @@ public class LanguageServerImpl implements LanguageServer, WorkspaceService, Tex
   @Override
   public CompletableFuture<Object> shutdown() {
     this.hasShutdownBeenCalled = true;
-    Object _object = new Object();
-    return CompletableFuture.<Object>completedFuture(_object);
+    final Function0<Object> _function = () -> {
+      this.workspaceManager.persistProjectStates();
+      return new Object();
+    };
+    final Function2<CancelIndicator, Object, Object> _function_1 = (CancelIndicator $0, Object $1) -> {
+      return $1;
+    };
+    return this.requestManager.<Object, Object>runWrite(_function, _function_1);
   }
   
   @Override
@@ -377,7 +385,7 @@ public class LanguageServerImpl implements LanguageServer, WorkspaceService, Tex
     final Function2<CancelIndicator, BuildManager.Buildable, List<IResourceDescription.Delta>> _function_1 = (CancelIndicator cancelIndicator, BuildManager.Buildable buildable) -> {
       return buildable.build(cancelIndicator);
     };
-    this.requestManager.<BuildManager.Buildable, List<IResourceDescription.Delta>>runWrite(_function, _function_1);
+    this.requestManager.<BuildManager.Buildable, List<IResourceDescription.Delta>>runCoalescedWrite(_function, _function_1);
   }
   
   @Override
@@ -520,7 +528,7 @@ public class LanguageServerImpl implements LanguageServer, WorkspaceService, Tex
     final Function1<CancelIndicator, Either<List<CompletionItem>, CompletionList>> _function = (CancelIndicator origialCancelIndicator) -> {
       return this.completion(origialCancelIndicator, params);
     };
-    return this.requestManager.<Either<List<CompletionItem>, CompletionList>>runRead(_function);
+    return this.requestManager.<Either<List<CompletionItem>, CompletionList>>runRead(RequestPriority.INTERACTIVE, _function);
   }
   
   protected Either<List<CompletionItem>, CompletionList> completion(final CancelIndicator origialCancelIndicator, final TextDocumentPositionParams params) {
@@ -602,10 +610,11 @@ public class LanguageServerImpl implements LanguageServer, WorkspaceService, Tex
       if ((documentSymbolService == null)) {
         return CollectionLiterals.<SymbolInformation>emptyList();
       }
+      Pair<String, DocumentSymbolParams> _mappedTo = Pair.<String, DocumentSymbolParams>of("documentSymbol", params);
       final Function2<Document, XtextResource, List<? extends SymbolInformation>> _function_1 = (Document document, XtextResource resource) -> {
         return documentSymbolService.getSymbols(document, resource, params, cancelIndicator);
       };
-      return this.workspaceManager.<List<? extends SymbolInformation>>doRead(uri, _function_1);
+      return this.workspaceManager.<List<? extends SymbolInformation>>doRead(uri, _mappedTo, _function_1);
     };
     return this.requestManager.<List<? extends SymbolInformation>>runRead(_function);
   }
@@ -614,11 +623,29 @@ public class LanguageServerImpl implements LanguageServer, WorkspaceService, Tex
   public CompletableFuture<List<? extends SymbolInformation>> symbol(final WorkspaceSymbolParams params) {
     final Function1<CancelIndicator, List<? extends SymbolInformation>> _function = (CancelIndicator cancelIndicator) -> {
       final IResourceDescriptions indexData = this.workspaceManager.getIndex();
-      return this.workspaceSymbolService.getSymbols(params.getQuery(), this.resourceAccess, indexData, cancelIndicator);
+      final int maxResults = this.getMaxWorkspaceSymbols();
+      final ArrayList<SymbolInformation> result = CollectionLiterals.<SymbolInformation>newArrayList();
+      final Function1<SymbolInformation, Boolean> _function_1 = (SymbolInformation symbol) -> {
+        result.add(symbol);
+        int _size = result.size();
+        return (_size < maxResults);
+      };
+      this.workspaceSymbolService.getSymbols(params.getQuery(), this.resourceAccess, indexData, _function_1, cancelIndicator);
+      return result;
     };
     return this.requestManager.<List<? extends SymbolInformation>>runRead(_function);
   }
   
+  /**
+   * The maximum number of symbols that are returned for a workspace symbol request. Unlimited by default, servers
+   * whose clients only show the first symbols may return a lower limit, so the search ends early.
+   * 
+   * @since 2.14
+   */
+  protected int getMaxWorkspaceSymbols() {
+    return Integer.MAX_VALUE;
+  }
+  
   @Override
   public CompletableFuture<Hover> hover(final TextDocumentPositionParams params) {
     final Function1<CancelIndicator, Hover> _function = (CancelIndicator cancelIndicator) -> {
@@ -632,12 +659,13 @@ public class LanguageServerImpl implements LanguageServer, WorkspaceService, Tex
       if ((hoverService == null)) {
         return IHoverService.EMPTY_HOVER;
       }
+      Pair<String, TextDocumentPositionParams> _mappedTo = Pair.<String, TextDocumentPositionParams>of("hover", params);
       final Function2<Document, XtextResource, Hover> _function_1 = (Document document, XtextResource resource) -> {
         return hoverService.hover(document, resource, params, cancelIndicator);
       };
-      return this.workspaceManager.<Hover>doRead(uri, _function_1);
+      return this.workspaceManager.<Hover>doRead(uri, _mappedTo, _function_1);
     };
-    return this.requestManager.<Hover>runRead(_function);
+    return this.requestManager.<Hover>runRead(RequestPriority.INTERACTIVE, _function);
   }
   
   @Override
@@ -663,7 +691,7 @@ public class LanguageServerImpl implements LanguageServer, WorkspaceService, Tex
       };
       return this.workspaceManager.<SignatureHelp>doRead(uri, _function_1);
     };
-    return this.requestManager.<SignatureHelp>runRead(_function);
+    return this.requestManager.<SignatureHelp>runRead(RequestPriority.INTERACTIVE, _function);
   }
   
   @Override
@@ -679,10 +707,11 @@ public class LanguageServerImpl implements LanguageServer, WorkspaceService, Tex
       if ((service == null)) {
         return CollectionLiterals.<DocumentHighlight>emptyList();
       }
+      Pair<String, TextDocumentPositionParams> _mappedTo = Pair.<String, TextDocumentPositionParams>of("documentHighlight", params);
       final Function2<Document, XtextResource, List<? extends DocumentHighlight>> _function_1 = (Document doc, XtextResource resource) -> {
         return service.getDocumentHighlights(doc, resource, params, cancelIndicator);
       };
-      return this.workspaceManager.<List<? extends DocumentHighlight>>doRead(uri, _function_1);
+      return this.workspaceManager.<List<? extends DocumentHighlight>>doRead(uri, _mappedTo, _function_1);
     };
     return this.requestManager.<List<? extends DocumentHighlight>>runRead(_function);
   }
@@ -751,12 +780,13 @@ public class LanguageServerImpl implements LanguageServer, WorkspaceService, Tex
       if ((codeLensService == null)) {
         return CollectionLiterals.<CodeLens>emptyList();
       }
+      Pair<String, CodeLensParams> _mappedTo = Pair.<String, CodeLensParams>of("codeLens", params);
       final Function2<Document, XtextResource, List<? extends CodeLens>> _function_1 = (Document document, XtextResource resource) -> {
         final List<? extends CodeLens> result = codeLensService.computeCodeLenses(document, resource, params, cancelIndicator);
         this.installURI(result, uri.toString());
         return result;
       };
-      return this.workspaceManager.<List<? extends CodeLens>>doRead(uri, _function_1);
+      return this.workspaceManager.<List<? extends CodeLens>>doRead(uri, _mappedTo, _function_1);
     };
     return this.requestManager.<List<? extends CodeLens>>runRead(_function);
   }
@@ -995,6 +1025,7 @@ public class LanguageServerImpl implements LanguageServer, WorkspaceService, Tex
   
   @Override
   public void afterBuild(final List<IResourceDescription.Delta> deltas) {
+    this.workspaceSymbolService.afterBuild(deltas, this.workspaceManager.getIndex());
     if ((this.client instanceof LanguageClientExtensions)) {
       final Function1<IResourceDescription.Delta, Boolean> _function = (IResourceDescription.Delta it) -> {
         IResourceDescription _new = it.getNew();
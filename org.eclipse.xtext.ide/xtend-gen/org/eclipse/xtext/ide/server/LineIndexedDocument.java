@@ -0,0 +1,238 @@
+/**
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.ide.server;
+
+import com.google.common.annotations.Beta;
+import java.util.Arrays;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextEdit;
+import org.eclipse.xtext.ide.server.Document;
+
+/**
+ * A {@link Document} that keeps a table of the offsets at which the lines start. Positions and offsets are converted
+ * by a binary search in that table instead of a scan of the text.
+ * 
+ * In contrast to {@link Document#applyChanges(Iterable)}, the changes are applied one after the other as mandated by
+ * the language server protocol, i.e. the range of a change refers to the text that results from the previous changes.
+ * The line table of the new document is derived from the table of this document and the changes, so only the text of
+ * the changes has to be scanned for line breaks. Applying changes is still linear in the size of the document, since
+ * the {@link #getContents() contents} are a single string and the line table is copied, too.
+ * 
+ * @since 2.14
+ */
+@Beta
+@SuppressWarnings("all")
+public class LineIndexedDocument extends Document {
+  /**
+   * The offsets at which the lines start. The first entry is always zero.
+   */
+  private final int[] lineOffsets;
+  
+  public LineIndexedDocument(final int version, final String contents) {
+    this(version, contents, LineIndexedDocument.computeLineOffsets(contents));
+  }
+  
+  protected LineIndexedDocument(final int version, final String contents, final int[] lineOffsets) {
+    super(version, contents);
+    this.lineOffsets = lineOffsets;
+  }
+  
+  public int getLineCount() {
+    return this.lineOffsets.length;
+  }
+  
+  @Override
+  public int getOffSet(final Position position) {
+    final int result = LineIndexedDocument.getOffset(this.lineOffsets, this.lineOffsets.length, this.getContents().length(), position);
+    if ((result == (-1))) {
+      String _string = position.toString();
+      String _plus = (_string + " text was : ");
+      String _contents = this.getContents();
+      String _plus_1 = (_plus + _contents);
+      throw new IndexOutOfBoundsException(_plus_1);
+    }
+    return result;
+  }
+  
+  @Override
+  public Position getPosition(final int offset) {
+    if (((offset < 0) || (offset > this.getContents().length()))) {
+      String _plus = (Integer.valueOf(offset) + " text was : ");
+      String _contents = this.getContents();
+      String _plus_1 = (_plus + _contents);
+      throw new IndexOutOfBoundsException(_plus_1);
+    }
+    int _findLine = LineIndexedDocument.findLine(this.lineOffsets, this.lineOffsets.length, offset);
+    final int line = (_findLine - 1);
+    int _get = this.lineOffsets[line];
+    int _minus = (offset - _get);
+    return new Position(line, _minus);
+  }
+  
+  @Override
+  public Document applyChanges(final Iterable<? extends TextEdit> changes) {
+    String newContents = this.getContents();
+    StringBuilder builder = null;
+    int[] newLineOffsets = this.lineOffsets;
+    int count = this.lineOffsets.length;
+    for (final TextEdit change : changes) {
+      Range _range = change.getRange();
+      boolean _tripleEquals = (_range == null);
+      if (_tripleEquals) {
+        builder = null;
+        newContents = change.getNewText();
+        newLineOffsets = LineIndexedDocument.computeLineOffsets(newContents);
+        count = newLineOffsets.length;
+      } else {
+        if ((builder == null)) {
+          StringBuilder _stringBuilder = new StringBuilder(newContents);
+          builder = _stringBuilder;
+          newLineOffsets = Arrays.copyOf(newLineOffsets, count);
+        }
+        final int start = LineIndexedDocument.getOffset(newLineOffsets, count, builder.length(), change.getRange().getStart());
+        final int end = LineIndexedDocument.getOffset(newLineOffsets, count, builder.length(), change.getRange().getEnd());
+        if ((((start == (-1)) || (end == (-1))) || (start > end))) {
+          String _string = change.getRange().toString();
+          String _plus = (_string + " text was : ");
+          String _plus_1 = (_plus + builder);
+          throw new IndexOutOfBoundsException(_plus_1);
+        }
+        String _elvis = null;
+        String _newText = change.getNewText();
+        if (_newText != null) {
+          _elvis = _newText;
+        } else {
+          _elvis = "";
+        }
+        final String newText = _elvis;
+        builder.replace(start, end, newText);
+        final int first = LineIndexedDocument.findLine(newLineOffsets, count, start);
+        final int last = LineIndexedDocument.findLine(newLineOffsets, count, end);
+        final int[] added = LineIndexedDocument.computeLineOffsets(newText, start);
+        int _length = added.length;
+        final int newCount = ((count - (last - first)) + _length);
+        int[] _xifexpression = null;
+        int _length_1 = newLineOffsets.length;
+        boolean _lessEqualsThan = (newCount <= _length_1);
+        if (_lessEqualsThan) {
+          _xifexpression = newLineOffsets;
+        } else {
+          _xifexpression = Arrays.copyOf(newLineOffsets, Math.max(newCount, ((count * 3) / 2)));
+        }
+        final int[] target = _xifexpression;
+        int _length_2 = added.length;
+        int _plus_2 = (first + _length_2);
+        System.arraycopy(newLineOffsets, last, target, _plus_2, (count - last));
+        System.arraycopy(added, 0, target, first, added.length);
+        int _length_3 = newText.length();
+        final int delta = (_length_3 - (end - start));
+        if ((delta != 0)) {
+          for (int i = (first + added.length); (i < newCount); i++) {
+            int _get = target[i];
+            int _plus_3 = (_get + delta);
+            target[i] = _plus_3;
+          }
+        }
+        newLineOffsets = target;
+        count = newCount;
+      }
+    }
+    if ((builder != null)) {
+      newContents = builder.toString();
+    }
+    int _length_4 = newLineOffsets.length;
+    boolean _tripleNotEquals = (count != _length_4);
+    if (_tripleNotEquals) {
+      newLineOffsets = Arrays.copyOf(newLineOffsets, count);
+    }
+    int _version = this.getVersion();
+    int _plus_3 = (_version + 1);
+    return new LineIndexedDocument(_plus_3, newContents, newLineOffsets);
+  }
+  
+  /**
+   * Returns the offset of the given position or -1 if the position is not within the text.
+   */
+  private static int getOffset(final int[] lineOffsets, final int count, final int length, final Position position) {
+    final int line = position.getLine();
+    final int column = position.getCharacter();
+    if ((((line >= 0) && (line < count)) && (column >= 0))) {
+      final int lineStart = lineOffsets[line];
+      int _xifexpression = (int) 0;
+      if (((line + 1) < count)) {
+        int _get = lineOffsets[(line + 1)];
+        _xifexpression = (_get - 1);
+      } else {
+        _xifexpression = length;
+      }
+      final int lineEnd = _xifexpression;
+      if ((column <= (lineEnd - lineStart))) {
+        return (lineStart + column);
+      }
+    }
+    return (-1);
+  }
+  
+  /**
+   * Returns the number of lines that start at or before the given offset.
+   */
+  private static int findLine(final int[] lineOffsets, final int count, final int offset) {
+    int low = 0;
+    int high = count;
+    while ((low < high)) {
+      {
+        final int mid = ((low + high) >>> 1);
+        int _get = lineOffsets[mid];
+        boolean _lessEqualsThan = (_get <= offset);
+        if (_lessEqualsThan) {
+          low = (mid + 1);
+        } else {
+          high = mid;
+        }
+      }
+    }
+    return low;
+  }
+  
+  private static int[] computeLineOffsets(final String text) {
+    final int[] added = LineIndexedDocument.computeLineOffsets(text, 0);
+    int _length = added.length;
+    int _plus = (_length + 1);
+    final int[] result = new int[_plus];
+    System.arraycopy(added, 0, result, 1, added.length);
+    return result;
+  }
+  
+  /**
+   * Returns the offsets of the lines that start after the line breaks in the given text.
+   */
+  private static int[] computeLineOffsets(final String text, final int offset) {
+    int[] result = new int[0];
+    int size = 0;
+    int index = text.indexOf("\n");
+    while ((index != (-1))) {
+      {
+        int _length = result.length;
+        boolean _tripleEquals = (size == _length);
+        if (_tripleEquals) {
+          result = Arrays.copyOf(result, Math.max(8, (size * 2)));
+        }
+        int _plusPlus = size++;
+        result[_plusPlus] = ((offset + index) + 1);
+        index = text.indexOf("\n", (index + 1));
+      }
+    }
+    int _length = result.length;
+    boolean _tripleNotEquals = (size != _length);
+    if (_tripleNotEquals) {
+      result = Arrays.copyOf(result, size);
+    }
+    return result;
+  }
+}
@@ -7,16 +7,24 @@
  */
 package org.eclipse.xtext.ide.server;
 
+import com.google.common.base.Objects;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Consumer;
+import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.lsp4j.Range;
+import org.eclipse.lsp4j.TextEdit;
 import org.eclipse.xtend.lib.annotations.AccessorType;
 import org.eclipse.xtend.lib.annotations.Accessors;
 import org.eclipse.xtext.build.BuildRequest;
@@ -24,31 +32,43 @@ import org.eclipse.xtext.build.IncrementalBuilder;
 import org.eclipse.xtext.build.IndexState;
 import org.eclipse.xtext.build.Source2GeneratedMapping;
 import org.eclipse.xtext.diagnostics.Severity;
+import org.eclipse.xtext.ide.server.Document;
+import org.eclipse.xtext.ide.server.DocumentChangesAdapter;
+import org.eclipse.xtext.ide.server.ProjectStatePersister;
 import org.eclipse.xtext.resource.IExternalContentSupport;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
+import org.eclipse.xtext.resource.XtextResource;
 import org.eclipse.xtext.resource.XtextResourceSet;
 import org.eclipse.xtext.resource.impl.ChunkedResourceDescriptions;
+import org.eclipse.xtext.resource.impl.CopyOnWriteResourceDescriptionsData;
 import org.eclipse.xtext.resource.impl.ProjectDescription;
 import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsSnapshot;
+import org.eclipse.xtext.service.OperationCanceledManager;
 import org.eclipse.xtext.util.CancelIndicator;
 import org.eclipse.xtext.util.IAcceptor;
 import org.eclipse.xtext.util.IFileSystemScanner;
+import org.eclipse.xtext.util.internal.Log;
 import org.eclipse.xtext.validation.Issue;
 import org.eclipse.xtext.workspace.IProjectConfig;
 import org.eclipse.xtext.workspace.ISourceFolder;
 import org.eclipse.xtext.workspace.ProjectConfigAdapter;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+import org.eclipse.xtext.xbase.lib.Exceptions;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
+import org.eclipse.xtext.xbase.lib.IterableExtensions;
 import org.eclipse.xtext.xbase.lib.ObjectExtensions;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure2;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure3;
 import org.eclipse.xtext.xbase.lib.Pure;
 
 /**
  * @author Sven Efftinge - Initial contribution and API
  * @since 2.11
  */
+@Log
 @SuppressWarnings("all")
 public class ProjectManager {
   @Inject
@@ -66,8 +86,23 @@ public class ProjectManager {
   @Inject
   protected IExternalContentSupport externalContentSupport;
   
+  /**
+   * @since 2.14
+   */
+  @Inject
+  protected ProjectStatePersister projectStatePersister;
+  
+  /**
+   * @since 2.14
+   */
+  @Inject
+  protected OperationCanceledManager operationCanceledManager;
+  
+  /**
+   * The index is copied for every build, so it is {@link CopyOnWriteResourceDescriptionsData copied on write}.
+   */
   @Accessors(AccessorType.PUBLIC_GETTER)
-  private IndexState indexState = new IndexState();
+  private IndexState indexState = new IndexState(new CopyOnWriteResourceDescriptionsData(CollectionLiterals.<IResourceDescription>emptySet()), new Source2GeneratedMapping());
   
   @Accessors(AccessorType.PUBLIC_GETTER)
   private URI baseDir;
@@ -86,6 +121,16 @@ public class ProjectManager {
   
   private IProjectConfig projectConfig;
   
+  /**
+   * The issues that were reported for the resources of this project by the last builds.
+   */
+  private Map<URI, List<Issue>> reportedIssues = CollectionLiterals.<URI, List<Issue>>newHashMap();
+  
+  /**
+   * The open documents whose resource was reparsed incrementally since the last build request.
+   */
+  private Set<URI> reparsedFiles = CollectionLiterals.<URI>newHashSet();
+  
   public void initialize(final ProjectDescription description, final IProjectConfig projectConfig, final Procedure2<? super URI, ? super Iterable<Issue>> acceptor, final IExternalContentSupport.IExternalContentProvider openedDocumentsContentProvider, final Provider<Map<String, ResourceDescriptionsData>> indexProvider, final CancelIndicator cancelIndicator) {
     this.projectDescription = description;
     this.projectConfig = projectConfig;
@@ -96,6 +141,16 @@ public class ProjectManager {
   }
   
   public IncrementalBuilder.Result doInitialBuild(final CancelIndicator cancelIndicator) {
+    return this.doInitialBuild(CollectionLiterals.<IResourceDescription.Delta>emptyList(), cancelIndicator);
+  }
+  
+  /**
+   * Builds all resources of the project. If the state of a previous session was persisted, only the resources that
+   * changed in the meantime or that are affected by the given deltas of upstream projects are rebuilt.
+   * 
+   * @since 2.14
+   */
+  public IncrementalBuilder.Result doInitialBuild(final List<IResourceDescription.Delta> externalDeltas, final CancelIndicator cancelIndicator) {
     final ArrayList<URI> uris = CollectionLiterals.<URI>newArrayList();
     final Consumer<ISourceFolder> _function = (ISourceFolder it) -> {
       final IAcceptor<URI> _function_1 = (URI it_1) -> {
@@ -104,11 +159,89 @@ public class ProjectManager {
       this.fileSystemScanner.scan(it.getPath(), _function_1);
     };
     this.projectConfig.getSourceFolders().forEach(_function);
-    return this.doBuild(uris, CollectionLiterals.<URI>emptyList(), CollectionLiterals.<IResourceDescription.Delta>emptyList(), cancelIndicator);
+    final ProjectStatePersister.ProjectState persistedState = this.projectStatePersister.readProjectState(this.projectDescription, this.baseDir);
+    IncrementalBuilder.Result _xifexpression = null;
+    if (((persistedState != null) && Objects.equal(persistedState.getDependencies(), IterableExtensions.<String>toSet(this.projectDescription.getDependencies())))) {
+      _xifexpression = this.doBuild(persistedState, uris, externalDeltas, cancelIndicator);
+    } else {
+      _xifexpression = this.doBuild(uris, CollectionLiterals.<URI>emptyList(), externalDeltas, cancelIndicator);
+    }
+    final IncrementalBuilder.Result result = _xifexpression;
+    this.persistProjectState();
+    return result;
+  }
+  
+  /**
+   * Rebuilds the resources that changed since the given state was persisted. The state is only installed by a
+   * successful build, a cancelled build leaves the previous state intact. The issues of the resources that are not
+   * rebuilt are reported from the persisted state.
+   * 
+   * @since 2.14
+   */
+  protected IncrementalBuilder.Result doBuild(final ProjectStatePersister.ProjectState persistedState, final List<URI> uris, final List<IResourceDescription.Delta> externalDeltas, final CancelIndicator cancelIndicator) {
+    final Set<URI> existing = IterableExtensions.<URI>toSet(uris);
+    final Function1<URI, Boolean> _function = (URI it) -> {
+      boolean _contains = existing.contains(it);
+      return Boolean.valueOf((!_contains));
+    };
+    final List<URI> deletedFiles = IterableExtensions.<URI>toList(IterableExtensions.<URI>filter(persistedState.getIndexState().getResourceDescriptions().getAllURIs(), _function));
+    final HashSet<URI> validated = CollectionLiterals.<URI>newHashSet();
+    BuildRequest _newBuildRequest = this.newBuildRequest(uris, deletedFiles, externalDeltas, cancelIndicator);
+    final Procedure1<BuildRequest> _function_1 = (BuildRequest it) -> {
+      it.setState(persistedState.getIndexState().copy());
+      it.setResourceSet(this.createFreshResourceSet(it.getState().getResourceDescriptions()));
+      it.setSkipUnchangedSources(true);
+      final BuildRequest.IPostValidationCallback callback = it.getAfterValidate();
+      final BuildRequest.IPostValidationCallback _function_2 = (URI uri, Iterable<Issue> issues) -> {
+        validated.add(uri);
+        return callback.afterValidate(uri, issues);
+      };
+      it.setAfterValidate(_function_2);
+    };
+    final BuildRequest request = ObjectExtensions.<BuildRequest>operator_doubleArrow(_newBuildRequest, _function_1);
+    final IncrementalBuilder.Result result = this.doBuild(request);
+    Set<Map.Entry<URI, List<Issue>>> _entrySet = persistedState.getIssues().entrySet();
+    for (final Map.Entry<URI, List<Issue>> entry : _entrySet) {
+      if ((existing.contains(entry.getKey()) && (!validated.contains(entry.getKey())))) {
+        this.reportedIssues.put(entry.getKey(), entry.getValue());
+        this.issueAcceptor.apply(entry.getKey(), entry.getValue());
+      }
+    }
+    return result;
+  }
+  
+  /**
+   * Persists the state of the last build. Writing the state is linear in the size of the index, so it is not done
+   * for every build but after the initial build and when the language server shuts down. The state of later builds
+   * is lost if the server doesn't shut down regularly, so the next session rebuilds the resources that changed
+   * since the initial build.
+   * 
+   * @since 2.14
+   */
+  public void persistProjectState() {
+    Set<String> _set = IterableExtensions.<String>toSet(this.projectDescription.getDependencies());
+    HashMap<URI, List<Issue>> _hashMap = new HashMap<URI, List<Issue>>(this.reportedIssues);
+    ProjectStatePersister.ProjectState _projectState = new ProjectStatePersister.ProjectState(this.indexState, _set, _hashMap);
+    this.projectStatePersister.writeProjectState(this.projectDescription, this.baseDir, _projectState);
+  }
+  
+  /**
+   * Waits until the state that was passed to {@link #persistProjectState()} is written.
+   * 
+   * @since 2.14
+   */
+  public void flushProjectState() {
+    this.projectStatePersister.flush();
   }
   
   public IncrementalBuilder.Result doBuild(final List<URI> dirtyFiles, final List<URI> deletedFiles, final List<IResourceDescription.Delta> externalDeltas, final CancelIndicator cancelIndicator) {
-    final BuildRequest request = this.newBuildRequest(dirtyFiles, deletedFiles, externalDeltas, cancelIndicator);
+    return this.doBuild(this.newBuildRequest(dirtyFiles, deletedFiles, externalDeltas, cancelIndicator));
+  }
+  
+  /**
+   * @since 2.14
+   */
+  protected IncrementalBuilder.Result doBuild(final BuildRequest request) {
     final Function1<URI, IResourceServiceProvider> _function = (URI it) -> {
       return this.languagesRegistry.getResourceServiceProvider(it);
     };
@@ -116,29 +249,39 @@ public class ProjectManager {
     this.indexState = result.getIndexState();
     this.resourceSet = request.getResourceSet();
     this.indexProvider.get().put(this.projectDescription.getName(), this.indexState.getResourceDescriptions());
+    this.reportedIssues.keySet().removeAll(request.getDeletedFiles());
     return result;
   }
   
   protected BuildRequest newBuildRequest(final List<URI> changedFiles, final List<URI> deletedFiles, final List<IResourceDescription.Delta> externalDeltas, final CancelIndicator cancelIndicator) {
-    BuildRequest _buildRequest = new BuildRequest();
-    final Procedure1<BuildRequest> _function = (BuildRequest it) -> {
-      it.setBaseDir(this.baseDir);
-      ResourceDescriptionsData _copy = this.indexState.getResourceDescriptions().copy();
-      Source2GeneratedMapping _copy_1 = this.indexState.getFileMappings().copy();
-      IndexState _indexState = new IndexState(_copy, _copy_1);
-      it.setState(_indexState);
-      it.setResourceSet(this.createFreshResourceSet(it.getState().getResourceDescriptions()));
-      it.setDirtyFiles(changedFiles);
-      it.setDeletedFiles(deletedFiles);
-      it.setExternalDeltas(externalDeltas);
-      final BuildRequest.IPostValidationCallback _function_1 = (URI uri, Iterable<Issue> issues) -> {
-        this.issueAcceptor.apply(uri, issues);
-        return true;
+    BuildRequest _xblockexpression = null;
+    {
+      final Function1<URI, Boolean> _function = (URI it) -> {
+        return Boolean.valueOf(this.isReparsedResourceLoaded(it));
       };
-      it.setAfterValidate(_function_1);
-      it.setCancelIndicator(cancelIndicator);
-    };
-    return ObjectExtensions.<BuildRequest>operator_doubleArrow(_buildRequest, _function);
+      final Set<URI> upToDateFiles = IterableExtensions.<URI>toSet(IterableExtensions.<URI>filter(this.reparsedFiles, _function));
+      this.reparsedFiles.clear();
+      BuildRequest _buildRequest = new BuildRequest();
+      final Procedure1<BuildRequest> _function_1 = (BuildRequest it) -> {
+        it.setBaseDir(this.baseDir);
+        it.setState(this.indexState.copy());
+        it.setResourceSet(this.createFreshResourceSet(it.getState().getResourceDescriptions()));
+        it.setDirtyFiles(changedFiles);
+        it.setReparsedFiles(upToDateFiles);
+        it.setDeletedFiles(deletedFiles);
+        it.setExternalDeltas(externalDeltas);
+        it.setRecordContentHashes(this.projectStatePersister.isEnabled(this.projectDescription, this.baseDir));
+        final BuildRequest.IPostValidationCallback _function_2 = (URI uri, Iterable<Issue> issues) -> {
+          this.reportedIssues.put(uri, IterableExtensions.<Issue>toList(issues));
+          this.issueAcceptor.apply(uri, issues);
+          return true;
+        };
+        it.setAfterValidate(_function_2);
+        it.setCancelIndicator(cancelIndicator);
+      };
+      _xblockexpression = ObjectExtensions.<BuildRequest>operator_doubleArrow(_buildRequest, _function_1);
+    }
+    return _xblockexpression;
   }
   
   public XtextResourceSet createNewResourceSet(final ResourceDescriptionsData newIndex) {
@@ -154,6 +297,24 @@ public class ProjectManager {
     return ObjectExtensions.<XtextResourceSet>operator_doubleArrow(_get, _function);
   }
   
+  /**
+   * Creates a resource set that is linked against the given snapshot of the index and that reads the contents of
+   * the open documents from the given provider. In contrast to {@link #getResourceSet()}, it is not used by builds,
+   * so it can be read while a build is running.
+   * 
+   * @since 2.14
+   */
+  public XtextResourceSet createSnapshotResourceSet(final ResourceDescriptionsSnapshot index, final IExternalContentSupport.IExternalContentProvider documents) {
+    XtextResourceSet _get = this.resourceSetProvider.get();
+    final Procedure1<XtextResourceSet> _function = (XtextResourceSet it) -> {
+      this.projectDescription.attachToEmfObject(it);
+      ProjectConfigAdapter.install(it, this.projectConfig);
+      index.createResourceDescriptions(it);
+      this.externalContentSupport.configureResourceSet(it, documents);
+    };
+    return ObjectExtensions.<XtextResourceSet>operator_doubleArrow(_get, _function);
+  }
+  
   protected XtextResourceSet createFreshResourceSet(final ResourceDescriptionsData newIndex) {
     if ((this.resourceSet == null)) {
       this.resourceSet = this.createNewResourceSet(newIndex);
@@ -168,6 +329,129 @@ public class ProjectManager {
     return this.resourceSet;
   }
   
+  /**
+   * Applies the changes of an open document to its resource if the resource is loaded. Only the regions that are
+   * damaged by the changes are reparsed and the cross references are linked lazily again, so the next build does
+   * not have to load the resource again. The resource is unloaded if the changes cannot be applied. The applied
+   * changes are recorded in the resource's {@link DocumentChangesAdapter}.
+   * 
+   * A loaded resource reflects the document of the time it was loaded, since it is loaded from the open document
+   * and {@link #unloadResource(URI) unloaded} when the document is opened or closed. The version that it reflects
+   * is tracked by its {@link DocumentChangesAdapter} from the first change on.
+   * 
+   * @param document the document before the changes
+   * @param version the version of the document after the changes
+   * @since 2.14
+   */
+  public void reparse(final URI uri, final Document document, final int version, final Iterable<? extends TextEdit> changes) {
+    this.reparsedFiles.remove(uri);
+    Resource _resource = null;
+    if (this.resourceSet!=null) {
+      _resource=this.resourceSet.getResource(uri, false);
+    }
+    final Resource resource = _resource;
+    if (((!(resource instanceof XtextResource)) || (!resource.isLoaded()))) {
+      return;
+    }
+    final XtextResource xtextResource = ((XtextResource) resource);
+    DocumentChangesAdapter changesAdapter = DocumentChangesAdapter.find(xtextResource);
+    if ((changesAdapter == null)) {
+      changesAdapter = DocumentChangesAdapter.install(xtextResource, document.getVersion());
+    } else {
+      int _version = changesAdapter.getVersion();
+      int _version_1 = document.getVersion();
+      boolean _tripleNotEquals = (_version != _version_1);
+      if (_tripleNotEquals) {
+        return;
+      }
+    }
+    final DocumentChangesAdapter adapter = changesAdapter;
+    boolean reparsed = false;
+    try {
+      final Procedure3<Integer, Integer, Integer> _function = (Integer offset, Integer replacedLength, Integer newLength) -> {
+        adapter.recordChange(version, (offset).intValue(), (replacedLength).intValue(), (newLength).intValue());
+      };
+      this.reparse(xtextResource, document, changes, _function);
+      reparsed = true;
+    } catch (final Throwable _t) {
+      if (_t instanceof Exception) {
+        final Exception e = (Exception)_t;
+        this.operationCanceledManager.propagateAsErrorIfCancelException(e);
+        ProjectManager.LOG.error((("Cannot reparse " + uri) + " incrementally, it is loaded again."), e);
+      } else {
+        throw Exceptions.sneakyThrow(_t);
+      }
+    } finally {
+      if (reparsed) {
+        this.reparsedFiles.add(uri);
+      } else {
+        this.unloadResource(uri);
+      }
+    }
+  }
+  
+  /**
+   * Unloads the resource with the given URI, such that the next build or read loads it again. This is the case if
+   * its document is opened or closed.
+   * 
+   * @since 2.14
+   */
+  public void unloadResource(final URI uri) {
+    this.reparsedFiles.remove(uri);
+    Resource _resource = null;
+    if (this.resourceSet!=null) {
+      _resource=this.resourceSet.getResource(uri, false);
+    }
+    final Resource resource = _resource;
+    if ((resource != null)) {
+      this.resourceSet.getResources().remove(resource);
+      resource.unload();
+    }
+  }
+  
+  /**
+   * Applies the changes one after the other to the given resource. The offset, the replaced length and the new
+   * length of each applied change are passed to the given acceptor.
+   * 
+   * @since 2.14
+   */
+  protected void reparse(final XtextResource resource, final Document document, final Iterable<? extends TextEdit> changes, final Procedure3<? super Integer, ? super Integer, ? super Integer> acceptor) throws IOException {
+    Document current = document;
+    final Iterator<? extends TextEdit> iterator = changes.iterator();
+    while (iterator.hasNext()) {
+      {
+        final TextEdit change = iterator.next();
+        Range _range = change.getRange();
+        boolean _tripleEquals = (_range == null);
+        if (_tripleEquals) {
+          resource.reparse(change.getNewText());
+          acceptor.apply(Integer.valueOf(0), Integer.valueOf(current.getContents().length()), Integer.valueOf(change.getNewText().length()));
+        } else {
+          final int start = current.getOffSet(change.getRange().getStart());
+          final int end = current.getOffSet(change.getRange().getEnd());
+          resource.update(start, (end - start), change.getNewText());
+          acceptor.apply(Integer.valueOf(start), Integer.valueOf((end - start)), Integer.valueOf(change.getNewText().length()));
+        }
+        boolean _hasNext = iterator.hasNext();
+        if (_hasNext) {
+          current = current.applyChanges(Collections.<TextEdit>unmodifiableList(CollectionLiterals.<TextEdit>newArrayList(change)));
+        }
+      }
+    }
+  }
+  
+  /**
+   * Returns whether the resource of the given open document, which was reparsed incrementally, is still loaded.
+   */
+  protected boolean isReparsedResourceLoaded(final URI uri) {
+    Resource _resource = null;
+    if (this.resourceSet!=null) {
+      _resource=this.resourceSet.getResource(uri, false);
+    }
+    final Resource resource = _resource;
+    return ((resource != null) && resource.isLoaded());
+  }
+  
   public Resource getResource(final URI uri) {
     final Resource resource = this.resourceSet.getResource(uri, true);
     resource.getContents();
@@ -186,6 +470,8 @@ public class ProjectManager {
     this.issueAcceptor.apply(this.baseDir, Collections.<Issue>unmodifiableList(CollectionLiterals.<Issue>newArrayList(_doubleArrow)));
   }
   
+  private final static Logger LOG = Logger.getLogger(ProjectManager.class);
+  
   @Pure
   public IndexState getIndexState() {
     return this.indexState;
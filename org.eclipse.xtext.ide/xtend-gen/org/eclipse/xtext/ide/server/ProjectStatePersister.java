@@ -0,0 +1,449 @@
+/**
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.ide.server;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Objects;
+import com.google.inject.Inject;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutput;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.locks.ReentrantLock;
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtend.lib.annotations.Data;
+import org.eclipse.xtext.build.ContentHashes;
+import org.eclipse.xtext.build.IndexState;
+import org.eclipse.xtext.build.Source2GeneratedMapping;
+import org.eclipse.xtext.diagnostics.Severity;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.impl.CopyOnWriteResourceDescriptionsData;
+import org.eclipse.xtext.resource.impl.ProjectDescription;
+import org.eclipse.xtext.resource.persistence.SerializableResourceDescription;
+import org.eclipse.xtext.util.internal.Log;
+import org.eclipse.xtext.validation.CheckType;
+import org.eclipse.xtext.validation.Issue;
+import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+import org.eclipse.xtext.xbase.lib.Exceptions;
+import org.eclipse.xtext.xbase.lib.ExclusiveRange;
+import org.eclipse.xtext.xbase.lib.IterableExtensions;
+import org.eclipse.xtext.xbase.lib.ObjectExtensions;
+import org.eclipse.xtext.xbase.lib.Pair;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
+import org.eclipse.xtext.xbase.lib.Pure;
+import org.eclipse.xtext.xbase.lib.util.ToStringBuilder;
+
+/**
+ * Persists the {@link IndexState} of a project together with the issues that were reported for its resources, such
+ * that a restarted language server only has to rebuild the resources that changed in the meantime.
+ * 
+ * Persistence is disabled by default. Clients enable it by binding a subclass that returns a location from
+ * {@link #getStateFile(ProjectDescription, URI)}. The {@link ProjectManager} writes the state after the initial build
+ * and when the language server shuts down. It is written asynchronously if an {@link ExecutorService} is bound. The
+ * file is replaced atomically, so a crash while writing leaves the previous state intact.
+ * 
+ * @since 2.14
+ */
+@Beta
+@Log
+@SuppressWarnings("all")
+public class ProjectStatePersister {
+  /**
+   * The persisted state of a project.
+   */
+  @Data
+  public static class ProjectState {
+    private final IndexState indexState;
+    
+    private final Set<String> dependencies;
+    
+    private final Map<URI, List<Issue>> issues;
+    
+    public ProjectState(final IndexState indexState, final Set<String> dependencies, final Map<URI, List<Issue>> issues) {
+      super();
+      this.indexState = indexState;
+      this.dependencies = dependencies;
+      this.issues = issues;
+    }
+    
+    @Override
+    @Pure
+    public int hashCode() {
+      final int prime = 31;
+      int result = 1;
+      result = prime * result + ((this.indexState== null) ? 0 : this.indexState.hashCode());
+      result = prime * result + ((this.dependencies== null) ? 0 : this.dependencies.hashCode());
+      result = prime * result + ((this.issues== null) ? 0 : this.issues.hashCode());
+      return result;
+    }
+    
+    @Override
+    @Pure
+    public boolean equals(final Object obj) {
+      if (this == obj)
+        return true;
+      if (obj == null)
+        return false;
+      if (getClass() != obj.getClass())
+        return false;
+      ProjectStatePersister.ProjectState other = (ProjectStatePersister.ProjectState) obj;
+      if (this.indexState == null) {
+        if (other.indexState != null)
+          return false;
+      } else if (!this.indexState.equals(other.indexState))
+        return false;
+      if (this.dependencies == null) {
+        if (other.dependencies != null)
+          return false;
+      } else if (!this.dependencies.equals(other.dependencies))
+        return false;
+      if (this.issues == null) {
+        if (other.issues != null)
+          return false;
+      } else if (!this.issues.equals(other.issues))
+        return false;
+      return true;
+    }
+    
+    @Override
+    @Pure
+    public String toString() {
+      ToStringBuilder b = new ToStringBuilder(this);
+      b.add("indexState", this.indexState);
+      b.add("dependencies", this.dependencies);
+      b.add("issues", this.issues);
+      return b.toString();
+    }
+    
+    @Pure
+    public IndexState getIndexState() {
+      return this.indexState;
+    }
+    
+    @Pure
+    public Set<String> getDependencies() {
+      return this.dependencies;
+    }
+    
+    @Pure
+    public Map<URI, List<Issue>> getIssues() {
+      return this.issues;
+    }
+  }
+  
+  private final static int MAGIC = 0x58505354;
+  
+  private final static int VERSION = 1;
+  
+  @Inject(optional = true)
+  private ExecutorService executorService;
+  
+  /**
+   * The states that still need to be written, the key of the pair is the project name.
+   */
+  private final ConcurrentHashMap<File, Pair<String, ProjectStatePersister.ProjectState>> pending = new ConcurrentHashMap<File, Pair<String, ProjectStatePersister.ProjectState>>();
+  
+  /**
+   * Serializes the writes. This is a lock rather than a monitor, such that a write doesn't pin its carrier thread if
+   * it runs in a virtual thread.
+   */
+  private final ReentrantLock writeLock = new ReentrantLock();
+  
+  /**
+   * Returns the file that holds the state of the given project or <code>null</code> if the state should not be
+   * persisted.
+   */
+  protected File getStateFile(final ProjectDescription project, final URI baseDir) {
+    return null;
+  }
+  
+  /**
+   * Returns whether the state of the given project is persisted.
+   */
+  public boolean isEnabled(final ProjectDescription project, final URI baseDir) {
+    File _stateFile = this.getStateFile(project, baseDir);
+    return (_stateFile != null);
+  }
+  
+  /**
+   * Reads the persisted state of the given project. Returns <code>null</code> if there is no state or if it cannot
+   * be read.
+   */
+  public ProjectStatePersister.ProjectState readProjectState(final ProjectDescription project, final URI baseDir) {
+    final File file = this.getStateFile(project, baseDir);
+    if (((file == null) || (!file.isFile()))) {
+      return null;
+    }
+    try {
+      FileInputStream _fileInputStream = new FileInputStream(file);
+      BufferedInputStream _bufferedInputStream = new BufferedInputStream(_fileInputStream);
+      final ObjectInputStream in = new ObjectInputStream(_bufferedInputStream);
+      try {
+        if ((((in.readInt() != ProjectStatePersister.MAGIC) || (in.readInt() != ProjectStatePersister.VERSION)) || (!Objects.equal(in.readUTF(), project.getName())))) {
+          return null;
+        }
+        return this.readProjectState(in);
+      } finally {
+        in.close();
+      }
+    } catch (final Throwable _t) {
+      if (_t instanceof IOException) {
+        final IOException e = (IOException)_t;
+        String _name = project.getName();
+        String _plus = ("Cannot read the persisted state of project " + _name);
+        ProjectStatePersister.LOG.warn(_plus, e);
+      } else if (_t instanceof ClassNotFoundException) {
+        final ClassNotFoundException e_1 = (ClassNotFoundException)_t;
+        String _name_1 = project.getName();
+        String _plus_1 = ("Cannot read the persisted state of project " + _name_1);
+        ProjectStatePersister.LOG.warn(_plus_1, e_1);
+      } else {
+        throw Exceptions.sneakyThrow(_t);
+      }
+    }
+    return null;
+  }
+  
+  /**
+   * Persists the state of the given project. The state must not be modified afterwards.
+   */
+  public void writeProjectState(final ProjectDescription project, final URI baseDir, final ProjectStatePersister.ProjectState state) {
+    final File file = this.getStateFile(project, baseDir);
+    if ((file == null)) {
+      return;
+    }
+    if ((this.executorService == null)) {
+      this.doWriteProjectState(project.getName(), file, state);
+      return;
+    }
+    String _name = project.getName();
+    Pair<String, ProjectStatePersister.ProjectState> _mappedTo = Pair.<String, ProjectStatePersister.ProjectState>of(_name, state);
+    Pair<String, ProjectStatePersister.ProjectState> _put = this.pending.put(file, _mappedTo);
+    boolean _tripleEquals = (_put == null);
+    if (_tripleEquals) {
+      final Runnable _function = () -> {
+        this.writeLock.lock();
+        try {
+          final Pair<String, ProjectStatePersister.ProjectState> next = this.pending.remove(file);
+          if ((next != null)) {
+            this.doWriteProjectState(next.getKey(), file, next.getValue());
+          }
+        } finally {
+          this.writeLock.unlock();
+        }
+      };
+      this.executorService.execute(_function);
+    }
+  }
+  
+  /**
+   * Writes the states that are still pending on the calling thread and waits for a running write.
+   */
+  public void flush() {
+    this.writeLock.lock();
+    try {
+      List<File> _list = IterableExtensions.<File>toList(this.pending.keySet());
+      for (final File file : _list) {
+        {
+          final Pair<String, ProjectStatePersister.ProjectState> next = this.pending.remove(file);
+          if ((next != null)) {
+            this.doWriteProjectState(next.getKey(), file, next.getValue());
+          }
+        }
+      }
+    } finally {
+      this.writeLock.unlock();
+    }
+  }
+  
+  protected void doWriteProjectState(final String projectName, final File file, final ProjectStatePersister.ProjectState state) {
+    try {
+      File _parentFile = file.getParentFile();
+      if (_parentFile!=null) {
+        _parentFile.mkdirs();
+      }
+      final File tmp = File.createTempFile(file.getName(), ".tmp", file.getParentFile());
+      try {
+        FileOutputStream _fileOutputStream = new FileOutputStream(tmp);
+        BufferedOutputStream _bufferedOutputStream = new BufferedOutputStream(_fileOutputStream);
+        final ObjectOutputStream out = new ObjectOutputStream(_bufferedOutputStream);
+        try {
+          out.writeInt(ProjectStatePersister.MAGIC);
+          out.writeInt(ProjectStatePersister.VERSION);
+          out.writeUTF(projectName);
+          this.writeProjectState(out, state);
+        } finally {
+          out.close();
+        }
+        try {
+          Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (final Throwable _t) {
+          if (_t instanceof AtomicMoveNotSupportedException) {
+            final AtomicMoveNotSupportedException e = (AtomicMoveNotSupportedException)_t;
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+          } else {
+            throw Exceptions.sneakyThrow(_t);
+          }
+        }
+      } finally {
+        tmp.delete();
+      }
+    } catch (final Throwable _t_1) {
+      if (_t_1 instanceof IOException) {
+        final IOException e_1 = (IOException)_t_1;
+        ProjectStatePersister.LOG.warn(("Cannot persist the state of project " + projectName), e_1);
+      } else {
+        throw Exceptions.sneakyThrow(_t_1);
+      }
+    }
+  }
+  
+  protected ProjectStatePersister.ProjectState readProjectState(final ObjectInput in) throws IOException, ClassNotFoundException {
+    final int numDescriptions = in.readInt();
+    final ArrayList<IResourceDescription> descriptions = CollectionLiterals.<IResourceDescription>newArrayList();
+    ExclusiveRange _doubleDotLessThan = new ExclusiveRange(0, numDescriptions, true);
+    for (final Integer i : _doubleDotLessThan) {
+      Object _readObject = in.readObject();
+      descriptions.add(((IResourceDescription) _readObject));
+    }
+    final Source2GeneratedMapping fileMappings = new Source2GeneratedMapping();
+    fileMappings.readExternal(in);
+    final ContentHashes contentHashes = new ContentHashes();
+    contentHashes.readExternal(in);
+    CopyOnWriteResourceDescriptionsData _copyOnWriteResourceDescriptionsData = new CopyOnWriteResourceDescriptionsData(descriptions);
+    final IndexState indexState = new IndexState(_copyOnWriteResourceDescriptionsData, fileMappings, contentHashes);
+    final int numDependencies = in.readInt();
+    final HashSet<String> dependencies = CollectionLiterals.<String>newHashSet();
+    ExclusiveRange _doubleDotLessThan_1 = new ExclusiveRange(0, numDependencies, true);
+    for (final Integer i_1 : _doubleDotLessThan_1) {
+      dependencies.add(in.readUTF());
+    }
+    final int numIssues = in.readInt();
+    final HashMap<URI, List<Issue>> issues = CollectionLiterals.<URI, List<Issue>>newHashMap();
+    ExclusiveRange _doubleDotLessThan_2 = new ExclusiveRange(0, numIssues, true);
+    for (final Integer i_2 : _doubleDotLessThan_2) {
+      {
+        final URI uri = URI.createURI(in.readUTF());
+        final int count = in.readInt();
+        final ArrayList<Issue> list = CollectionLiterals.<Issue>newArrayList();
+        ExclusiveRange _doubleDotLessThan_3 = new ExclusiveRange(0, count, true);
+        for (final Integer j : _doubleDotLessThan_3) {
+          list.add(this.readIssue(in));
+        }
+        issues.put(uri, list);
+      }
+    }
+    return new ProjectStatePersister.ProjectState(indexState, dependencies, issues);
+  }
+  
+  protected void writeProjectState(final ObjectOutput out, final ProjectStatePersister.ProjectState state) throws IOException {
+    final List<IResourceDescription> descriptions = IterableExtensions.<IResourceDescription>toList(state.indexState.getResourceDescriptions().getAllResourceDescriptions());
+    out.writeInt(descriptions.size());
+    for (final IResourceDescription description : descriptions) {
+      if ((description instanceof Serializable)) {
+        out.writeObject(description);
+      } else {
+        out.writeObject(SerializableResourceDescription.createCopy(description));
+      }
+    }
+    state.indexState.getFileMappings().writeExternal(out);
+    state.indexState.getContentHashes().writeExternal(out);
+    out.writeInt(state.dependencies.size());
+    for (final String dependency : state.dependencies) {
+      out.writeUTF(dependency);
+    }
+    out.writeInt(state.issues.size());
+    Set<Map.Entry<URI, List<Issue>>> _entrySet = state.issues.entrySet();
+    for (final Map.Entry<URI, List<Issue>> entry : _entrySet) {
+      {
+        out.writeUTF(entry.getKey().toString());
+        out.writeInt(entry.getValue().size());
+        List<Issue> _value = entry.getValue();
+        for (final Issue issue : _value) {
+          this.writeIssue(out, issue);
+        }
+      }
+    }
+  }
+  
+  protected Issue readIssue(final ObjectInput in) throws IOException, ClassNotFoundException {
+    Issue.IssueImpl _issueImpl = new Issue.IssueImpl();
+    final Procedure1<Issue.IssueImpl> _function = (Issue.IssueImpl it) -> {
+      try {
+        it.setSeverity(Severity.valueOf(in.readUTF()));
+        Object _readObject = in.readObject();
+        it.setType(((CheckType) _readObject));
+        Object _readObject_1 = in.readObject();
+        it.setCode(((String) _readObject_1));
+        Object _readObject_2 = in.readObject();
+        it.setMessage(((String) _readObject_2));
+        Object _readObject_3 = in.readObject();
+        final String uri = ((String) _readObject_3);
+        URI _xifexpression = null;
+        if ((uri != null)) {
+          _xifexpression = URI.createURI(uri);
+        }
+        it.setUriToProblem(_xifexpression);
+        Object _readObject_4 = in.readObject();
+        it.setLineNumber(((Integer) _readObject_4));
+        Object _readObject_5 = in.readObject();
+        it.setColumn(((Integer) _readObject_5));
+        Object _readObject_6 = in.readObject();
+        it.setOffset(((Integer) _readObject_6));
+        Object _readObject_7 = in.readObject();
+        it.setLength(((Integer) _readObject_7));
+        it.setSyntaxError(in.readBoolean());
+        Object _readObject_8 = in.readObject();
+        it.setData(((String[]) _readObject_8));
+      } catch (Throwable _e) {
+        throw Exceptions.sneakyThrow(_e);
+      }
+    };
+    return ObjectExtensions.<Issue.IssueImpl>operator_doubleArrow(_issueImpl, _function);
+  }
+  
+  protected void writeIssue(final ObjectOutput out, final Issue issue) throws IOException {
+    out.writeUTF(issue.getSeverity().name());
+    out.writeObject(issue.getType());
+    out.writeObject(issue.getCode());
+    out.writeObject(issue.getMessage());
+    URI _uriToProblem = issue.getUriToProblem();
+    String _string = null;
+    if (_uriToProblem!=null) {
+      _string=_uriToProblem.toString();
+    }
+    out.writeObject(_string);
+    out.writeObject(issue.getLineNumber());
+    out.writeObject(issue.getColumn());
+    out.writeObject(issue.getOffset());
+    out.writeObject(issue.getLength());
+    out.writeBoolean(issue.isSyntaxError());
+    out.writeObject(issue.getData());
+  }
+  
+  private final static Logger LOG = Logger.getLogger(ProjectStatePersister.class);
+}
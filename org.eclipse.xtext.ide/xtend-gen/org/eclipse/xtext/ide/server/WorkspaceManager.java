@@ -7,8 +7,10 @@
  */
 package org.eclipse.xtext.ide.server;
 
+import com.google.common.collect.ImmutableMap;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
+import com.google.inject.name.Named;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -16,6 +18,10 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.URI;
@@ -24,28 +30,38 @@ import org.eclipse.lsp4j.TextEdit;
 import org.eclipse.lsp4j.jsonrpc.ResponseErrorException;
 import org.eclipse.lsp4j.jsonrpc.messages.ResponseError;
 import org.eclipse.lsp4j.jsonrpc.messages.ResponseErrorCode;
+import org.eclipse.xtend.lib.annotations.Data;
 import org.eclipse.xtext.ide.server.BuildManager;
 import org.eclipse.xtext.ide.server.Document;
+import org.eclipse.xtext.ide.server.DocumentResultCache;
 import org.eclipse.xtext.ide.server.ILanguageServerAccess;
 import org.eclipse.xtext.ide.server.IProjectDescriptionFactory;
 import org.eclipse.xtext.ide.server.IWorkspaceConfigFactory;
+import org.eclipse.xtext.ide.server.LineIndexedDocument;
 import org.eclipse.xtext.ide.server.ProjectManager;
+import org.eclipse.xtext.ide.server.concurrent.RequestManager;
 import org.eclipse.xtext.resource.IExternalContentSupport;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.IResourceDescriptions;
 import org.eclipse.xtext.resource.XtextResource;
 import org.eclipse.xtext.resource.XtextResourceSet;
-import org.eclipse.xtext.resource.impl.ChunkedResourceDescriptions;
 import org.eclipse.xtext.resource.impl.ProjectDescription;
 import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsSnapshot;
 import org.eclipse.xtext.util.CancelIndicator;
 import org.eclipse.xtext.util.internal.Log;
 import org.eclipse.xtext.validation.Issue;
 import org.eclipse.xtext.workspace.IProjectConfig;
 import org.eclipse.xtext.workspace.IWorkspaceConfig;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+import org.eclipse.xtext.xbase.lib.Exceptions;
+import org.eclipse.xtext.xbase.lib.Functions.Function0;
+import org.eclipse.xtext.xbase.lib.Functions.Function1;
 import org.eclipse.xtext.xbase.lib.Functions.Function2;
+import org.eclipse.xtext.xbase.lib.IterableExtensions;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure2;
+import org.eclipse.xtext.xbase.lib.Pure;
+import org.eclipse.xtext.xbase.lib.util.ToStringBuilder;
 
 /**
  * @author Sven Efftinge - Initial contribution and API
@@ -54,6 +70,106 @@ import org.eclipse.xtext.xbase.lib.Procedures.Procedure2;
 @Log
 @SuppressWarnings("all")
 public class WorkspaceManager {
+  /**
+   * A resource set for reads of the given index and documents snapshot.
+   * 
+   * @since 2.14
+   */
+  @Data
+  protected static class SnapshotResourceSet {
+    private final ProjectManager projectManager;
+    
+    private final ResourceDescriptionsSnapshot index;
+    
+    private final Map<URI, Document> documents;
+    
+    private final XtextResourceSet resourceSet;
+    
+    public SnapshotResourceSet(final ProjectManager projectManager, final ResourceDescriptionsSnapshot index, final Map<URI, Document> documents, final XtextResourceSet resourceSet) {
+      super();
+      this.projectManager = projectManager;
+      this.index = index;
+      this.documents = documents;
+      this.resourceSet = resourceSet;
+    }
+    
+    @Override
+    @Pure
+    public int hashCode() {
+      final int prime = 31;
+      int result = 1;
+      result = prime * result + ((this.projectManager== null) ? 0 : this.projectManager.hashCode());
+      result = prime * result + ((this.index== null) ? 0 : this.index.hashCode());
+      result = prime * result + ((this.documents== null) ? 0 : this.documents.hashCode());
+      result = prime * result + ((this.resourceSet== null) ? 0 : this.resourceSet.hashCode());
+      return result;
+    }
+    
+    @Override
+    @Pure
+    public boolean equals(final Object obj) {
+      if (this == obj)
+        return true;
+      if (obj == null)
+        return false;
+      if (getClass() != obj.getClass())
+        return false;
+      WorkspaceManager.SnapshotResourceSet other = (WorkspaceManager.SnapshotResourceSet) obj;
+      if (this.projectManager == null) {
+        if (other.projectManager != null)
+          return false;
+      } else if (!this.projectManager.equals(other.projectManager))
+        return false;
+      if (this.index == null) {
+        if (other.index != null)
+          return false;
+      } else if (!this.index.equals(other.index))
+        return false;
+      if (this.documents == null) {
+        if (other.documents != null)
+          return false;
+      } else if (!this.documents.equals(other.documents))
+        return false;
+      if (this.resourceSet == null) {
+        if (other.resourceSet != null)
+          return false;
+      } else if (!this.resourceSet.equals(other.resourceSet))
+        return false;
+      return true;
+    }
+    
+    @Override
+    @Pure
+    public String toString() {
+      ToStringBuilder b = new ToStringBuilder(this);
+      b.add("projectManager", this.projectManager);
+      b.add("index", this.index);
+      b.add("documents", this.documents);
+      b.add("resourceSet", this.resourceSet);
+      return b.toString();
+    }
+    
+    @Pure
+    public ProjectManager getProjectManager() {
+      return this.projectManager;
+    }
+    
+    @Pure
+    public ResourceDescriptionsSnapshot getIndex() {
+      return this.index;
+    }
+    
+    @Pure
+    public Map<URI, Document> getDocuments() {
+      return this.documents;
+    }
+    
+    @Pure
+    public XtextResourceSet getResourceSet() {
+      return this.resourceSet;
+    }
+  }
+  
   @Inject
   private Provider<ProjectManager> projectManagerProvider;
   
@@ -63,6 +179,9 @@ public class WorkspaceManager {
   @Inject
   private IProjectDescriptionFactory projectDescriptionFactory;
   
+  @Inject
+  private DocumentResultCache resultCache;
+  
   private BuildManager buildManager;
   
   private Map<String, ProjectManager> projectName2ProjectManager = CollectionLiterals.<String, ProjectManager>newHashMap();
@@ -79,10 +198,42 @@ public class WorkspaceManager {
     this.buildListeners.add(listener);
   }
   
-  private Map<String, ResourceDescriptionsData> fullIndex = CollectionLiterals.<String, ResourceDescriptionsData>newHashMap();
+  private Map<String, ResourceDescriptionsData> fullIndex = new ConcurrentHashMap<String, ResourceDescriptionsData>();
+  
+  private volatile ResourceDescriptionsSnapshot indexSnapshot = new ResourceDescriptionsSnapshot();
   
   private Map<URI, Document> openDocuments = CollectionLiterals.<URI, Document>newHashMap();
   
+  /**
+   * Whether {@link #doRead(URI, Function2)} reads the committed state, see {@link RequestManager#SNAPSHOT_READS}.
+   */
+  @Inject(optional = true)
+  @Named(RequestManager.SNAPSHOT_READS)
+  private boolean snapshotReads = false;
+  
+  /**
+   * The open documents as of the last change. The map is replaced rather than modified, so it can be read
+   * concurrently to writes.
+   */
+  private volatile Map<URI, Document> documentsSnapshot = CollectionLiterals.<URI, Document>emptyMap();
+  
+  /**
+   * The resource set of the last snapshot read, which is reused by the next read of the same snapshot.
+   */
+  private final AtomicReference<WorkspaceManager.SnapshotResourceSet> idleSnapshotResourceSet = new AtomicReference<WorkspaceManager.SnapshotResourceSet>();
+  
+  /**
+   * Guards the live resource sets against snapshot reads. Writes hold the write lock while they modify the
+   * resources, snapshot reads use the live resource sets only while they hold the read lock.
+   */
+  private final ReentrantReadWriteLock liveStateLock = new ReentrantReadWriteLock();
+  
+  /**
+   * Whether the live resource sets reflect the published snapshots, i.e. the build of the last change completed.
+   * Guarded by the {@link #liveStateLock}.
+   */
+  private boolean liveStateBuilt = false;
+  
   private final IExternalContentSupport.IExternalContentProvider openedDocumentsContentProvider = new IExternalContentSupport.IExternalContentProvider() {
     @Override
     public IExternalContentSupport.IExternalContentProvider getActualContentProvider() {
@@ -114,10 +265,29 @@ public class WorkspaceManager {
   public void initialize(final URI baseDir, final Procedure2<? super URI, ? super Iterable<Issue>> issueAcceptor, final CancelIndicator cancelIndicator) {
     this.baseDir = baseDir;
     this.issueAcceptor = issueAcceptor;
-    this.refreshWorkspaceConfig(cancelIndicator);
+    final Function0<Boolean> _function = () -> {
+      boolean _xblockexpression = false;
+      {
+        this.refreshWorkspaceConfig(cancelIndicator);
+        _xblockexpression = this.liveStateBuilt = true;
+      }
+      return Boolean.valueOf(_xblockexpression);
+    };
+    this.<Boolean>modifyLiveState(_function);
   }
   
   protected void refreshWorkspaceConfig(final CancelIndicator cancelIndicator) {
+    final Function0<Object> _function = () -> {
+      this.doRefreshWorkspaceConfig(cancelIndicator);
+      return null;
+    };
+    this.<Object>modifyLiveState(_function);
+  }
+  
+  /**
+   * @since 2.14
+   */
+  protected void doRefreshWorkspaceConfig(final CancelIndicator cancelIndicator) {
     this.setWorkspaceConfig(this.workspaceConfigFactory.getWorkspaceConfig(this.baseDir));
     final ArrayList<ProjectDescription> newProjects = CollectionLiterals.<ProjectDescription>newArrayList();
     Set<String> _keySet = this.projectName2ProjectManager.keySet();
@@ -163,27 +333,102 @@ public class WorkspaceManager {
   }
   
   protected void afterBuild(final List<IResourceDescription.Delta> deltas) {
+    this.publishIndexSnapshot();
+    boolean _isEmpty = deltas.isEmpty();
+    boolean _not = (!_isEmpty);
+    if (_not) {
+      this.resultCache.clear();
+    }
     for (final ILanguageServerAccess.IBuildListener listener : this.buildListeners) {
       listener.afterBuild(deltas);
     }
   }
   
   public BuildManager.Buildable didChangeFiles(final List<URI> dirtyFiles, final List<URI> deletedFiles) {
-    final BuildManager.Buildable buildable = this.buildManager.submit(dirtyFiles, deletedFiles);
-    final BuildManager.Buildable _function = (CancelIndicator cancelIndicator) -> {
-      final List<IResourceDescription.Delta> deltas = buildable.build(cancelIndicator);
-      this.afterBuild(deltas);
-      return deltas;
+    final Function0<BuildManager.Buildable> _function = () -> {
+      return this.buildManager.submit(dirtyFiles, deletedFiles);
     };
-    return _function;
+    final BuildManager.Buildable buildable = this.<BuildManager.Buildable>modifyLiveState(_function);
+    final BuildManager.Buildable _function_1 = (CancelIndicator cancelIndicator) -> {
+      final Function0<List<IResourceDescription.Delta>> _function_2 = () -> {
+        final List<IResourceDescription.Delta> deltas = buildable.build(cancelIndicator);
+        this.afterBuild(deltas);
+        this.liveStateBuilt = true;
+        this.idleSnapshotResourceSet.set(null);
+        return deltas;
+      };
+      return this.<List<IResourceDescription.Delta>>modifyLiveState(_function_2);
+    };
+    return _function_1;
+  }
+  
+  /**
+   * Runs the given work exclusively to snapshot reads of the live resource sets, which are not used anymore until
+   * a build completes.
+   * 
+   * @since 2.14
+   */
+  protected <T extends Object> T modifyLiveState(final Function0<? extends T> work) {
+    this.liveStateLock.writeLock().lock();
+    try {
+      this.liveStateBuilt = false;
+      return work.apply();
+    } finally {
+      this.liveStateLock.writeLock().unlock();
+    }
   }
   
   public List<IResourceDescription.Delta> doBuild(final List<URI> dirtyFiles, final List<URI> deletedFiles, final CancelIndicator cancelIndicator) {
     return this.didChangeFiles(dirtyFiles, deletedFiles).build(cancelIndicator);
   }
   
+  /**
+   * Persists the state of all projects and waits until it is written, see
+   * {@link ProjectManager#persistProjectState()}.
+   * 
+   * @since 2.14
+   */
+  public void persistProjectStates() {
+    List<ProjectManager> _projectManagers = this.getProjectManagers();
+    for (final ProjectManager projectManager : _projectManagers) {
+      projectManager.persistProjectState();
+    }
+    List<ProjectManager> _projectManagers_1 = this.getProjectManagers();
+    for (final ProjectManager projectManager_1 : _projectManagers_1) {
+      projectManager_1.flushProjectState();
+    }
+  }
+  
+  /**
+   * Publishes the current state of the index such that readers can access it without interfering with subsequent
+   * builds. Chunks that did not change are shared with the previous snapshot.
+   * 
+   * @since 2.14
+   */
+  protected void publishIndexSnapshot() {
+    ResourceDescriptionsSnapshot snapshot = this.indexSnapshot.withContainers(this.fullIndex);
+    final Function1<String, Boolean> _function = (String it) -> {
+      boolean _containsKey = this.fullIndex.containsKey(it);
+      return Boolean.valueOf((!_containsKey));
+    };
+    List<String> _list = IterableExtensions.<String>toList(IterableExtensions.<String>filter(snapshot.getContainerHandles(), _function));
+    for (final String handle : _list) {
+      snapshot = snapshot.withoutContainer(handle);
+    }
+    this.indexSnapshot = snapshot;
+  }
+  
+  /**
+   * Returns the index as of the last completed build. The snapshot is immutable, so it may be used from any thread.
+   * 
+   * @since 2.14
+   */
+  public ResourceDescriptionsSnapshot getIndexSnapshot() {
+    return this.indexSnapshot;
+  }
+  
   public IResourceDescriptions getIndex() {
-    return new ChunkedResourceDescriptions(this.fullIndex);
+    return this.indexSnapshot.createResourceDescriptions();
   }
   
   public URI getProjectBaseDir(final URI uri) {
@@ -227,9 +472,18 @@ public class WorkspaceManager {
       };
       return _function;
     }
-    final Document contents = this.openDocuments.get(uri);
-    this.openDocuments.put(uri, contents.applyChanges(changes));
-    return this.didChangeFiles(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(uri)), CollectionLiterals.<URI>newArrayList());
+    final Function0<BuildManager.Buildable> _function_1 = () -> {
+      final Document document = this.openDocuments.get(uri);
+      this.openDocuments.put(uri, document.applyChanges(changes));
+      this.publishDocumentsSnapshot();
+      this.resultCache.invalidate(uri);
+      ProjectManager _projectManager = this.getProjectManager(uri);
+      if (_projectManager!=null) {
+        _projectManager.reparse(uri, document, version, changes);
+      }
+      return this.didChangeFiles(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(uri)), CollectionLiterals.<URI>newArrayList());
+    };
+    return this.<BuildManager.Buildable>modifyLiveState(_function_1);
   }
   
   public List<IResourceDescription.Delta> didOpen(final URI uri, final int version, final String contents, final CancelIndicator cancelIndicator) {
@@ -237,9 +491,16 @@ public class WorkspaceManager {
   }
   
   public BuildManager.Buildable didOpen(final URI uri, final int version, final String contents) {
-    Document _document = new Document(version, contents);
-    this.openDocuments.put(uri, _document);
-    return this.didChangeFiles(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(uri)), CollectionLiterals.<URI>newArrayList());
+    final Function0<BuildManager.Buildable> _function = () -> {
+      this.openDocuments.put(uri, this.createDocument(version, contents));
+      this.publishDocumentsSnapshot();
+      ProjectManager _projectManager = this.getProjectManager(uri);
+      if (_projectManager!=null) {
+        _projectManager.unloadResource(uri);
+      }
+      return this.didChangeFiles(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(uri)), CollectionLiterals.<URI>newArrayList());
+    };
+    return this.<BuildManager.Buildable>modifyLiveState(_function);
   }
   
   public List<IResourceDescription.Delta> didClose(final URI uri, final CancelIndicator cancelIndicator) {
@@ -247,12 +508,21 @@ public class WorkspaceManager {
   }
   
   public BuildManager.Buildable didClose(final URI uri) {
-    this.openDocuments.remove(uri);
-    boolean _exists = this.exists(uri);
-    if (_exists) {
-      return this.didChangeFiles(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(uri)), CollectionLiterals.<URI>newArrayList());
-    }
-    return this.didChangeFiles(CollectionLiterals.<URI>newArrayList(), Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(uri)));
+    final Function0<BuildManager.Buildable> _function = () -> {
+      this.openDocuments.remove(uri);
+      this.publishDocumentsSnapshot();
+      this.resultCache.invalidate(uri);
+      ProjectManager _projectManager = this.getProjectManager(uri);
+      if (_projectManager!=null) {
+        _projectManager.unloadResource(uri);
+      }
+      boolean _exists = this.exists(uri);
+      if (_exists) {
+        return this.didChangeFiles(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(uri)), CollectionLiterals.<URI>newArrayList());
+      }
+      return this.didChangeFiles(CollectionLiterals.<URI>newArrayList(), Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(uri)));
+    };
+    return this.<BuildManager.Buildable>modifyLiveState(_function);
   }
   
   protected boolean exists(final URI uri) {
@@ -269,6 +539,9 @@ public class WorkspaceManager {
   }
   
   public <T extends Object> T doRead(final URI uri, final Function2<? super Document, ? super XtextResource, ? extends T> work) {
+    if (this.snapshotReads) {
+      return this.<T>doReadSnapshot(uri, work);
+    }
     final URI resourceURI = uri.trimFragment();
     final ProjectManager projectMnr = this.getProjectManager(resourceURI);
     Resource _resource = null;
@@ -284,21 +557,157 @@ public class WorkspaceManager {
     return work.apply(doc, ((XtextResource) _resource_1));
   }
   
+  /**
+   * Like {@link #doRead(URI, Function2)}, but the result is cached for the current version of the open document and
+   * the given key until the document changes or a build produces deltas. The work is not cached if the document is
+   * not open.
+   * 
+   * @param key identifies the request, e.g. its kind and parameters
+   * @since 2.14
+   */
+  public <T extends Object> T doRead(final URI uri, final Object key, final Function2<? super Document, ? super XtextResource, ? extends T> work) {
+    final URI resourceURI = uri.trimFragment();
+    final Document document = this.documentsSnapshot.get(resourceURI);
+    if ((document == null)) {
+      return this.<T>doRead(uri, work);
+    }
+    final Function0<T> _function = () -> {
+      return this.<T>doRead(uri, work);
+    };
+    return this.resultCache.<T>get(resourceURI, document, key, _function);
+  }
+  
+  /**
+   * Runs the work on the open documents and the index as of the last change and the last build respectively. If
+   * the build of the last change completed, the work runs on the live resource set and subsequent writes wait for
+   * it. Otherwise, the resource is loaded into a separate resource set, so the work may run concurrently to the
+   * build.
+   * 
+   * @since 2.14
+   */
+  protected <T extends Object> T doReadSnapshot(final URI uri, final Function2<? super Document, ? super XtextResource, ? extends T> work) {
+    try {
+      final URI resourceURI = uri.trimFragment();
+      final ProjectManager projectManager = this.getProjectManager(resourceURI);
+      if ((projectManager == null)) {
+        return work.apply(null, null);
+      }
+      boolean _tryLock = this.liveStateLock.readLock().tryLock(0, TimeUnit.NANOSECONDS);
+      if (_tryLock) {
+        try {
+          if (this.liveStateBuilt) {
+            Resource _resource = projectManager.getResource(resourceURI);
+            final XtextResource resource = ((XtextResource) _resource);
+            if ((resource == null)) {
+              return work.apply(null, null);
+            }
+            return work.apply(this.getDocument(resource), resource);
+          }
+        } finally {
+          this.liveStateLock.readLock().unlock();
+        }
+      }
+      final WorkspaceManager.SnapshotResourceSet snapshot = this.acquireSnapshotResourceSet(projectManager);
+      try {
+        Resource _resource_1 = snapshot.resourceSet.getResource(resourceURI, true);
+        final XtextResource resource_1 = ((XtextResource) _resource_1);
+        if ((resource_1 == null)) {
+          return work.apply(null, null);
+        }
+        Document _elvis = null;
+        Document _get = snapshot.documents.get(resourceURI);
+        if (_get != null) {
+          _elvis = _get;
+        } else {
+          Document _createDocument = this.createDocument(1, resource_1.getParseResult().getRootNode().getText());
+          _elvis = _createDocument;
+        }
+        final Document document = _elvis;
+        return work.apply(document, resource_1);
+      } finally {
+        this.idleSnapshotResourceSet.set(snapshot);
+      }
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  /**
+   * Returns a resource set for the current snapshot, which is used exclusively by the caller. The resource set of
+   * the previous read is reused if neither the documents nor the index changed since.
+   * 
+   * @since 2.14
+   */
+  protected WorkspaceManager.SnapshotResourceSet acquireSnapshotResourceSet(final ProjectManager projectManager) {
+    final ResourceDescriptionsSnapshot index = this.indexSnapshot;
+    final Map<URI, Document> documents = this.documentsSnapshot;
+    final WorkspaceManager.SnapshotResourceSet idle = this.idleSnapshotResourceSet.getAndSet(null);
+    if (((((idle != null) && (idle.projectManager == projectManager)) && (idle.index == index)) && (idle.documents == documents))) {
+      return idle;
+    }
+    final XtextResourceSet resourceSet = projectManager.createSnapshotResourceSet(index, this.newDocumentsContentProvider(documents));
+    return new WorkspaceManager.SnapshotResourceSet(projectManager, index, documents, resourceSet);
+  }
+  
+  /**
+   * Publishes the open documents for snapshot reads.
+   * 
+   * @since 2.14
+   */
+  protected void publishDocumentsSnapshot() {
+    this.documentsSnapshot = ImmutableMap.<URI, Document>copyOf(this.openDocuments);
+  }
+  
+  /**
+   * @since 2.14
+   */
+  protected IExternalContentSupport.IExternalContentProvider newDocumentsContentProvider(final Map<URI, Document> documents) {
+    return new IExternalContentSupport.IExternalContentProvider() {
+      @Override
+      public IExternalContentSupport.IExternalContentProvider getActualContentProvider() {
+        return this;
+      }
+      
+      @Override
+      public String getContent(final URI uri) {
+        Document _get = documents.get(uri);
+        String _contents = null;
+        if (_get!=null) {
+          _contents=_get.getContents();
+        }
+        return _contents;
+      }
+      
+      @Override
+      public boolean hasContent(final URI uri) {
+        return documents.containsKey(uri);
+      }
+    };
+  }
+  
   protected Document getDocument(final XtextResource resource) {
     Document _elvis = null;
     Document _get = this.openDocuments.get(resource.getURI());
     if (_get != null) {
       _elvis = _get;
     } else {
-      String _text = resource.getParseResult().getRootNode().getText();
-      Document _document = new Document(1, _text);
-      _elvis = _document;
+      Document _createDocument = this.createDocument(1, resource.getParseResult().getRootNode().getText());
+      _elvis = _createDocument;
     }
     return _elvis;
   }
   
+  /**
+   * Creates the document for the given contents. Changes to the document are applied to the returned instance.
+   * 
+   * @since 2.14
+   */
+  protected Document createDocument(final int version, final String contents) {
+    return new LineIndexedDocument(version, contents);
+  }
+  
   public boolean isDocumentOpen(final URI uri) {
-    return this.openDocuments.containsKey(uri);
+    return this.documentsSnapshot.containsKey(uri);
   }
   
   private final static Logger LOG = Logger.getLogger(WorkspaceManager.class);
@@ -8,15 +8,22 @@
 package org.eclipse.xtext.ide.server.concurrent;
 
 import com.google.inject.Inject;
+import com.google.inject.name.Named;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import org.eclipse.xtext.ide.server.concurrent.Cancellable;
 import org.eclipse.xtext.ide.server.concurrent.RequestCancelIndicator;
+import org.eclipse.xtext.ide.server.concurrent.RequestPriority;
+import org.eclipse.xtext.ide.server.concurrent.RequestStatistics;
 import org.eclipse.xtext.service.OperationCanceledManager;
 import org.eclipse.xtext.util.CancelIndicator;
 import org.eclipse.xtext.xbase.lib.Exceptions;
@@ -33,15 +40,41 @@ import org.eclipse.xtext.xbase.lib.Functions.Function2;
  * <ul>
  *  <li>requests are processed in an insertion order;</li>
  * 	<li>write requests are executed exclusive;</li>
- *  <li>read requests are executed in parallel.</li>
+ *  <li>read requests are executed in parallel;</li>
+ *  <li>reads are cancelled by subsequent writes;</li>
+ *  <li>{@link RequestPriority#BACKGROUND background} reads wait for running
+ *  {@link RequestPriority#INTERACTIVE interactive} reads;</li>
+ *  <li>the cancelable part of a {@link #runCoalescedWrite(Function0, Function2) coalesced} write is deferred for the
+ *  {@link #DEBOUNCE_WINDOW debounce window}, such that it is superseded by a subsequent write. The write lock is not
+ *  held in the meantime, so reads are not blocked by the window.</li>
  * </ul>
  * </p>
+ * <p>
+ * <b>Snapshot reads:</b> if {@link #SNAPSHOT_READS} is bound to {@code true}, reads do not take the lock and are not
+ * cancelled by writes. They only wait for the non-cancelable part of preceding writes and run concurrently to the
+ * cancelable part, e.g. a build. Such reads have to access the state that was committed by the preceding writes as
+ * the {@link org.eclipse.xtext.ide.server.WorkspaceManager WorkspaceManager} does in this mode.
+ * </p>
  * 
  * @author kosyakov - Initial contribution and API
  * @since 2.11
  */
 @SuppressWarnings("all")
 public class RequestManager {
+  /**
+   * The name of the binding for the time in milliseconds that a coalesced write waits for a subsequent write.
+   * 
+   * @since 2.14
+   */
+  public final static String DEBOUNCE_WINDOW = "org.eclipse.xtext.ide.server.concurrent.RequestManager.debounceWindow";
+  
+  /**
+   * The name of the boolean binding that enables reads against the last committed state.
+   * 
+   * @since 2.14
+   */
+  public final static String SNAPSHOT_READS = "org.eclipse.xtext.ide.server.concurrent.RequestManager.snapshotReads";
+  
   private final ReentrantReadWriteLock rwl = new ReentrantReadWriteLock();
   
   private final Lock r = this.rwl.readLock();
@@ -54,15 +87,70 @@ public class RequestManager {
   @Inject
   private OperationCanceledManager operationCanceledManager;
   
+  @Inject(optional = true)
+  @Named(RequestManager.DEBOUNCE_WINDOW)
+  private volatile long debounceWindow = 0;
+  
+  @Inject(optional = true)
+  @Named(RequestManager.SNAPSHOT_READS)
+  private boolean snapshotReads = false;
+  
   private final CopyOnWriteArrayList<Cancellable> toCancel = new CopyOnWriteArrayList<Cancellable>();
   
+  /**
+   * Guards the debounce of coalesced writes and the start of background reads. This is a lock rather than a monitor,
+   * such that waiting requests don't pin their carrier thread if the requests run in virtual threads.
+   */
+  private final ReentrantLock stateLock = new ReentrantLock();
+  
+  /**
+   * Signalled when an interactive read ended, a coalesced write should be flushed or requests were cancelled.
+   */
+  private final Condition stateChanged = this.stateLock.newCondition();
+  
+  /**
+   * The number of coalesced writes that were submitted but did not finish yet, guarded by the state lock.
+   */
+  private int pendingCoalescedWrites;
+  
+  /**
+   * Set by interactive reads to end the debounce of the pending coalesced writes, guarded by the state lock. It is
+   * reset once no coalesced write is pending anymore, such that a read doesn't affect the debounce of later writes.
+   */
+  private boolean flushRequested;
+  
+  private final AtomicInteger runningInteractiveReads = new AtomicInteger();
+  
+  private final RequestStatistics interactiveReadStatistics = new RequestStatistics();
+  
+  private final RequestStatistics backgroundReadStatistics = new RequestStatistics();
+  
+  private final RequestStatistics writeStatistics = new RequestStatistics();
+  
   public void shutdown() {
     this.parallel.shutdown();
     this.cancel();
   }
   
   public <V extends Object> CompletableFuture<V> runRead(final Function1<? super CancelIndicator, ? extends V> request) {
+    return this.<V>runRead(RequestPriority.BACKGROUND, request);
+  }
+  
+  /**
+   * @since 2.14
+   */
+  public <V extends Object> CompletableFuture<V> runRead(final RequestPriority priority, final Function1<? super CancelIndicator, ? extends V> request) {
     final CompletableFuture<V> result = new CompletableFuture<V>();
+    final boolean interactive = (priority == RequestPriority.INTERACTIVE);
+    final RequestStatistics statistics = this.getReadStatistics(priority);
+    final long queuedAt = statistics.queued();
+    CompletableFuture<Void> _xifexpression = null;
+    if (((interactive && this.flushCoalescedWrite()) && (!this.snapshotReads))) {
+      _xifexpression = CompletableFuture.allOf(this.writePending, this.coalescedWriteDone);
+    } else {
+      _xifexpression = this.writePending;
+    }
+    final CompletableFuture<Void> predecessor = _xifexpression;
     final Runnable _function = () -> {
       final Callable<Boolean> _function_1 = () -> {
         boolean _xblockexpression = false;
@@ -72,8 +160,18 @@ public class RequestManager {
           try {
             boolean _xblockexpression_1 = false;
             {
-              this.r.lock();
-              this.toCancel.add(cancelIndicator);
+              if ((!this.snapshotReads)) {
+                this.toCancel.add(cancelIndicator);
+              }
+              if (interactive) {
+                this.runningInteractiveReads.incrementAndGet();
+              } else {
+                this.awaitInteractiveReads(result);
+              }
+              if ((!this.snapshotReads)) {
+                this.r.lock();
+              }
+              statistics.started(queuedAt);
               cancelIndicator.checkCanceled();
               _xblockexpression_1 = result.complete(request.apply(cancelIndicator));
             }
@@ -87,7 +185,18 @@ public class RequestManager {
             }
           } finally {
             this.toCancel.remove(cancelIndicator);
-            this.r.unlock();
+            if ((!this.snapshotReads)) {
+              this.r.unlock();
+            }
+            if (interactive) {
+              this.stateLock.lock();
+              try {
+                this.runningInteractiveReads.decrementAndGet();
+                this.stateChanged.signalAll();
+              } finally {
+                this.stateLock.unlock();
+              }
+            }
           }
           _xblockexpression = _xtrycatchfinallyexpression;
         }
@@ -95,29 +204,85 @@ public class RequestManager {
       };
       this.parallel.<Boolean>submit(_function_1);
     };
-    this.writePending.thenRun(_function);
+    predecessor.thenRun(_function);
     return result;
   }
   
   private CompletableFuture<Void> writePending = CompletableFuture.<Void>completedFuture(null);
   
+  /**
+   * Completed when the last coalesced write finished, including its cancelable part.
+   */
+  private CompletableFuture<Void> coalescedWriteDone = CompletableFuture.<Void>completedFuture(null);
+  
   public <U extends Object, V extends Object> CompletableFuture<V> runWrite(final Function0<? extends U> nonCancellable, final Function2<? super CancelIndicator, ? super U, ? extends V> request) {
+    return this.<U, V>runWrite(nonCancellable, request, false);
+  }
+  
+  /**
+   * Like {@link #runWrite(Function0, Function2)}, but the cancelable part is deferred for the
+   * {@link #DEBOUNCE_WINDOW debounce window}. If another write is submitted within that window, this request is
+   * cancelled before its cancelable part started, so the cancelable part of the subsequent write has to cover the
+   * work of this request, too. This is the case for builds, which process all files that changed since the last
+   * build. Interactive reads end the debounce window immediately and run after the write, unless reads are
+   * {@link #SNAPSHOT_READS snapshot reads}. The write lock is released during the window, so other reads can run in
+   * the meantime. They see the result of the non-cancelable part and are cancelled when the cancelable part starts.
+   * 
+   * @since 2.14
+   */
+  public <U extends Object, V extends Object> CompletableFuture<V> runCoalescedWrite(final Function0<? extends U> nonCancellable, final Function2<? super CancelIndicator, ? super U, ? extends V> request) {
+    return this.<U, V>runWrite(nonCancellable, request, true);
+  }
+  
+  protected <U extends Object, V extends Object> CompletableFuture<V> runWrite(final Function0<? extends U> nonCancellable, final Function2<? super CancelIndicator, ? super U, ? extends V> request, final boolean coalesce) {
     final CompletableFuture<V> result = new CompletableFuture<V>();
     final CompletableFuture<Void> localWritePending = new CompletableFuture<Void>();
     this.writePending = localWritePending;
+    final CompletableFuture<Void> localWriteDone = new CompletableFuture<Void>();
+    if (coalesce) {
+      this.coalescedWriteDone = localWriteDone;
+    }
+    final long queuedAt = this.writeStatistics.queued();
+    if (coalesce) {
+      this.stateLock.lock();
+      try {
+        this.pendingCoalescedWrites++;
+      } finally {
+        this.stateLock.unlock();
+      }
+    }
     final Callable<Boolean> _function = () -> {
       boolean _xblockexpression = false;
       {
         final RequestCancelIndicator cancelIndicator = new RequestCancelIndicator(result);
+        boolean locked = false;
         boolean _xtrycatchfinallyexpression = false;
         try {
           boolean _xblockexpression_1 = false;
           {
             this.cancel();
             this.w.lock();
-            localWritePending.complete(null);
-            final U intermediateResult = nonCancellable.apply();
+            locked = true;
+            this.writeStatistics.started(queuedAt);
+            if ((!this.snapshotReads)) {
+              localWritePending.complete(null);
+            }
+            U _xtrycatchfinallyexpression_1 = null;
+            try {
+              _xtrycatchfinallyexpression_1 = nonCancellable.apply();
+            } finally {
+              localWritePending.complete(null);
+            }
+            final U intermediateResult = _xtrycatchfinallyexpression_1;
             this.toCancel.add(cancelIndicator);
+            if ((coalesce && (this.debounceWindow > 0))) {
+              this.w.unlock();
+              locked = false;
+              this.debounce(cancelIndicator);
+              this.cancel(cancelIndicator);
+              this.w.lock();
+              locked = true;
+            }
             cancelIndicator.checkCanceled();
             _xblockexpression_1 = result.complete(request.apply(cancelIndicator, intermediateResult));
           }
@@ -130,8 +295,23 @@ public class RequestManager {
             throw Exceptions.sneakyThrow(_t);
           }
         } finally {
+          localWritePending.complete(null);
           this.toCancel.remove(cancelIndicator);
-          this.w.unlock();
+          if (coalesce) {
+            this.stateLock.lock();
+            try {
+              this.pendingCoalescedWrites--;
+              if ((this.pendingCoalescedWrites == 0)) {
+                this.flushRequested = false;
+              }
+            } finally {
+              this.stateLock.unlock();
+            }
+          }
+          if (locked) {
+            this.w.unlock();
+          }
+          localWriteDone.complete(null);
         }
         _xblockexpression = _xtrycatchfinallyexpression;
       }
@@ -141,13 +321,147 @@ public class RequestManager {
     return result;
   }
   
+  /**
+   * Waits until the debounce window elapsed, the request was cancelled or an interactive read was submitted.
+   * 
+   * @since 2.14
+   */
+  protected void debounce(final RequestCancelIndicator cancelIndicator) throws InterruptedException {
+    if ((this.debounceWindow <= 0)) {
+      return;
+    }
+    long _nanoTime = System.nanoTime();
+    long _nanos = TimeUnit.MILLISECONDS.toNanos(this.debounceWindow);
+    final long deadline = (_nanoTime + _nanos);
+    this.stateLock.lock();
+    try {
+      long _nanoTime_1 = System.nanoTime();
+      long remaining = (deadline - _nanoTime_1);
+      while (((!this.flushRequested) && (remaining > 0))) {
+        {
+          cancelIndicator.checkCanceled();
+          remaining = this.stateChanged.awaitNanos(remaining);
+        }
+      }
+    } finally {
+      this.stateLock.unlock();
+    }
+  }
+  
+  /**
+   * Ends the debounce window of the pending coalesced writes. Does nothing if no coalesced write is pending.
+   * 
+   * @return whether a coalesced write was pending
+   * @since 2.14
+   */
+  protected boolean flushCoalescedWrite() {
+    if ((this.debounceWindow > 0)) {
+      this.stateLock.lock();
+      try {
+        if ((this.pendingCoalescedWrites > 0)) {
+          this.flushRequested = true;
+          this.stateChanged.signalAll();
+          return true;
+        }
+      } finally {
+        this.stateLock.unlock();
+      }
+    }
+    return false;
+  }
+  
+  /**
+   * Waits until no interactive read is running or the request was cancelled. Waiting requests are woken up by
+   * {@link #cancel()}.
+   * 
+   * @since 2.14
+   */
+  protected void awaitInteractiveReads(final CompletableFuture<?> request) {
+    this.stateLock.lock();
+    try {
+      while (((this.runningInteractiveReads.get() > 0) && (!request.isCancelled()))) {
+        this.stateChanged.await();
+      }
+    } catch (final Throwable _t) {
+      if (_t instanceof InterruptedException) {
+        final InterruptedException e = (InterruptedException)_t;
+        Thread.currentThread().interrupt();
+      } else {
+        throw Exceptions.sneakyThrow(_t);
+      }
+    } finally {
+      this.stateLock.unlock();
+    }
+  }
+  
+  /**
+   * @since 2.14
+   */
+  public RequestStatistics getReadStatistics(final RequestPriority priority) {
+    RequestStatistics _switchResult = null;
+    if (priority != null) {
+      switch (priority) {
+        case INTERACTIVE:
+          _switchResult = this.interactiveReadStatistics;
+          break;
+        default:
+          _switchResult = this.backgroundReadStatistics;
+          break;
+      }
+    } else {
+      _switchResult = this.backgroundReadStatistics;
+    }
+    return _switchResult;
+  }
+  
+  /**
+   * @since 2.14
+   */
+  public RequestStatistics getWriteStatistics() {
+    return this.writeStatistics;
+  }
+  
+  /**
+   * @since 2.14
+   */
+  public long getDebounceWindow() {
+    return this.debounceWindow;
+  }
+  
+  /**
+   * @since 2.14
+   */
+  public void setDebounceWindow(final long debounceWindow) {
+    this.debounceWindow = debounceWindow;
+  }
+  
+  /**
+   * @since 2.14
+   */
+  public boolean isSnapshotReads() {
+    return this.snapshotReads;
+  }
+  
   protected void cancel() {
+    this.cancel(null);
+  }
+  
+  /**
+   * Cancels all cancelable requests but the given one.
+   */
+  private void cancel(final Cancellable except) {
     for (final Cancellable cancellable : this.toCancel) {
-      {
+      if ((cancellable != except)) {
         cancellable.cancel();
         this.toCancel.remove(cancellable);
       }
     }
+    this.stateLock.lock();
+    try {
+      this.stateChanged.signalAll();
+    } finally {
+      this.stateLock.unlock();
+    }
   }
   
   protected boolean isCancelException(final Throwable t) {
@@ -0,0 +1,102 @@
+/**
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.ide.server.concurrent;
+
+import com.google.common.annotations.Beta;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongBinaryOperator;
+import org.eclipse.xtend2.lib.StringConcatenation;
+
+/**
+ * Thread-safe statistics about the requests of one kind that were scheduled by the {@link RequestManager}. The wait
+ * time of a request is the time between its submission and the start of its execution.
+ * 
+ * @since 2.14
+ */
+@Beta
+@SuppressWarnings("all")
+public class RequestStatistics {
+  private final AtomicInteger queueDepth = new AtomicInteger();
+  
+  private final AtomicLong startedRequests = new AtomicLong();
+  
+  private final AtomicLong totalWaitTime = new AtomicLong();
+  
+  private final AtomicLong maxWaitTime = new AtomicLong();
+  
+  /**
+   * Records the submission of a request and returns the time stamp that has to be passed to
+   * {@link #started(long)}.
+   */
+  public long queued() {
+    this.queueDepth.incrementAndGet();
+    return System.nanoTime();
+  }
+  
+  /**
+   * Records the start of a request that was submitted at the given time stamp.
+   */
+  public void started(final long queuedAt) {
+    long _nanoTime = System.nanoTime();
+    final long waitTime = (_nanoTime - queuedAt);
+    this.queueDepth.decrementAndGet();
+    this.startedRequests.incrementAndGet();
+    this.totalWaitTime.addAndGet(waitTime);
+    final LongBinaryOperator _function = (long a, long b) -> {
+      return Math.max(a, b);
+    };
+    this.maxWaitTime.accumulateAndGet(waitTime, _function);
+  }
+  
+  /**
+   * Returns the number of requests that were submitted but did not start yet.
+   */
+  public int getQueueDepth() {
+    return this.queueDepth.get();
+  }
+  
+  /**
+   * Returns the number of requests that started so far.
+   */
+  public long getStartedRequests() {
+    return this.startedRequests.get();
+  }
+  
+  public long getAverageWaitTime(final TimeUnit unit) {
+    final long started = this.startedRequests.get();
+    if ((started == 0)) {
+      return 0;
+    }
+    long _get = this.totalWaitTime.get();
+    long _divide = (_get / started);
+    return unit.convert(_divide, TimeUnit.NANOSECONDS);
+  }
+  
+  public long getMaxWaitTime(final TimeUnit unit) {
+    return unit.convert(this.maxWaitTime.get(), TimeUnit.NANOSECONDS);
+  }
+  
+  @Override
+  public String toString() {
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("queued: ");
+    _builder.append(this.queueDepth);
+    _builder.append(", started: ");
+    _builder.append(this.startedRequests);
+    _builder.append(", average wait: ");
+    long _averageWaitTime = this.getAverageWaitTime(TimeUnit.MILLISECONDS);
+    _builder.append(_averageWaitTime);
+    _builder.append("ms, max wait: ");
+    long _maxWaitTime = this.getMaxWaitTime(TimeUnit.MILLISECONDS);
+    _builder.append(_maxWaitTime);
+    _builder.append("ms");
+    return _builder.toString();
+  }
+}
@@ -7,7 +7,8 @@
  */
 package org.eclipse.xtext.ide.server.symbol;
 
-import com.google.common.collect.Iterables;
+import com.google.common.base.Objects;
+import com.google.common.collect.Maps;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import com.google.inject.Singleton;
@@ -15,27 +16,42 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.impl.AdapterImpl;
+import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.common.util.TreeIterator;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EClass;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.InternalEObject;
 import org.eclipse.emf.ecore.resource.ResourceSet;
 import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.lsp4j.DocumentSymbolParams;
 import org.eclipse.lsp4j.Location;
+import org.eclipse.lsp4j.Range;
 import org.eclipse.lsp4j.ReferenceParams;
 import org.eclipse.lsp4j.SymbolInformation;
 import org.eclipse.lsp4j.SymbolKind;
 import org.eclipse.lsp4j.TextDocumentPositionParams;
+import org.eclipse.xtend.lib.annotations.AccessorType;
+import org.eclipse.xtend.lib.annotations.Accessors;
+import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor;
 import org.eclipse.xtext.findReferences.IReferenceFinder;
 import org.eclipse.xtext.findReferences.ReferenceAcceptor;
 import org.eclipse.xtext.findReferences.TargetURICollector;
 import org.eclipse.xtext.findReferences.TargetURIs;
 import org.eclipse.xtext.ide.server.Document;
+import org.eclipse.xtext.ide.server.DocumentChangesAdapter;
 import org.eclipse.xtext.ide.server.DocumentExtensions;
+import org.eclipse.xtext.ide.server.UriExtensions;
+import org.eclipse.xtext.ide.server.symbol.WorkspaceSymbolIndex;
 import org.eclipse.xtext.ide.util.CancelIndicatorProgressMonitor;
 import org.eclipse.xtext.naming.IQualifiedNameProvider;
 import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
+import org.eclipse.xtext.nodemodel.util.NodeModelUtils;
+import org.eclipse.xtext.parser.IParseResult;
 import org.eclipse.xtext.resource.EObjectAtOffsetHelper;
 import org.eclipse.xtext.resource.IEObjectDescription;
 import org.eclipse.xtext.resource.IReferenceDescription;
@@ -49,8 +65,11 @@ import org.eclipse.xtext.util.IAcceptor;
 import org.eclipse.xtext.util.concurrent.IUnitOfWork;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
 import org.eclipse.xtext.xbase.lib.Extension;
+import org.eclipse.xtext.xbase.lib.Functions.Function1;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
+import org.eclipse.xtext.xbase.lib.Pair;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
+import org.eclipse.xtext.xbase.lib.Pure;
 
 /**
  * @author kosyakov - Initial contribution and API
@@ -59,6 +78,213 @@ import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
 @Singleton
 @SuppressWarnings("all")
 public class DocumentSymbolService {
+  /**
+   * The symbol of an object and the entries of its contents as of the last request. The offsets refer to the text of
+   * that request.
+   * 
+   * @since 2.14
+   */
+  @Accessors(AccessorType.PUBLIC_GETTER)
+  @FinalFieldsConstructor
+  protected static class SymbolEntry {
+    private final EObject object;
+    
+    /**
+     * The total offset of the object's node or -1 if the entry cannot be reused.
+     */
+    private final int offset;
+    
+    private final int length;
+    
+    private final SymbolInformation symbol;
+    
+    private final int symbolStart;
+    
+    private final int symbolEnd;
+    
+    private final List<DocumentSymbolService.SymbolEntry> children;
+    
+    public SymbolEntry(final EObject object, final int offset, final int length, final SymbolInformation symbol, final int symbolStart, final int symbolEnd, final List<DocumentSymbolService.SymbolEntry> children) {
+      super();
+      this.object = object;
+      this.offset = offset;
+      this.length = length;
+      this.symbol = symbol;
+      this.symbolStart = symbolStart;
+      this.symbolEnd = symbolEnd;
+      this.children = children;
+    }
+    
+    @Pure
+    public EObject getObject() {
+      return this.object;
+    }
+    
+    @Pure
+    public int getOffset() {
+      return this.offset;
+    }
+    
+    @Pure
+    public int getLength() {
+      return this.length;
+    }
+    
+    @Pure
+    public SymbolInformation getSymbol() {
+      return this.symbol;
+    }
+    
+    @Pure
+    public int getSymbolStart() {
+      return this.symbolStart;
+    }
+    
+    @Pure
+    public int getSymbolEnd() {
+      return this.symbolEnd;
+    }
+    
+    @Pure
+    public List<DocumentSymbolService.SymbolEntry> getChildren() {
+      return this.children;
+    }
+  }
+  
+  /**
+   * Holds the document version and the symbol entries of the last request for a resource.
+   * 
+   * @since 2.14
+   */
+  protected static class SymbolsAdapter extends AdapterImpl {
+    @Accessors
+    private volatile Pair<Integer, List<DocumentSymbolService.SymbolEntry>> state;
+    
+    @Override
+    public boolean isAdapterForType(final Object type) {
+      return (type == DocumentSymbolService.SymbolsAdapter.class);
+    }
+    
+    @Pure
+    public Pair<Integer, List<DocumentSymbolService.SymbolEntry>> getState() {
+      return this.state;
+    }
+    
+    public void setState(final Pair<Integer, List<DocumentSymbolService.SymbolEntry>> state) {
+      this.state = state;
+    }
+  }
+  
+  /**
+   * The state of a symbol request, i.e. the region of the last request's text that was changed and the symbols that
+   * were collected so far.
+   * 
+   * @since 2.14
+   */
+  @Accessors(AccessorType.PUBLIC_GETTER)
+  @FinalFieldsConstructor
+  protected static class SymbolUpdate {
+    private final XtextResource resource;
+    
+    private final String uri;
+    
+    private final Document document;
+    
+    /**
+     * The offset of the first changed character in the text of the last request.
+     */
+    private final int changeStart;
+    
+    /**
+     * The end offset of the changed characters in the text of the last request.
+     */
+    private final int changeEnd;
+    
+    /**
+     * The difference between the length of the current text and the length of the last request's text.
+     */
+    private final int delta;
+    
+    private final CancelIndicator cancelIndicator;
+    
+    private final Map<EObject, SymbolInformation> computed = Maps.<EObject, SymbolInformation>newIdentityHashMap();
+    
+    private final List<SymbolInformation> symbols = CollectionLiterals.<SymbolInformation>newArrayList();
+    
+    /**
+     * Returns the number of characters the given entry was shifted by or {@code null} if it was affected by the
+     * changes.
+     */
+    public Integer getShift(final DocumentSymbolService.SymbolEntry entry) {
+      if (((this.changeStart >= this.changeEnd) && (this.delta == 0))) {
+        return Integer.valueOf(0);
+      }
+      if (((entry.offset + entry.length) < this.changeStart)) {
+        return Integer.valueOf(0);
+      }
+      if ((entry.offset > this.changeEnd)) {
+        return Integer.valueOf(this.delta);
+      }
+      return null;
+    }
+    
+    public SymbolUpdate(final XtextResource resource, final String uri, final Document document, final int changeStart, final int changeEnd, final int delta, final CancelIndicator cancelIndicator) {
+      super();
+      this.resource = resource;
+      this.uri = uri;
+      this.document = document;
+      this.changeStart = changeStart;
+      this.changeEnd = changeEnd;
+      this.delta = delta;
+      this.cancelIndicator = cancelIndicator;
+    }
+    
+    @Pure
+    public XtextResource getResource() {
+      return this.resource;
+    }
+    
+    @Pure
+    public String getUri() {
+      return this.uri;
+    }
+    
+    @Pure
+    public Document getDocument() {
+      return this.document;
+    }
+    
+    @Pure
+    public int getChangeStart() {
+      return this.changeStart;
+    }
+    
+    @Pure
+    public int getChangeEnd() {
+      return this.changeEnd;
+    }
+    
+    @Pure
+    public int getDelta() {
+      return this.delta;
+    }
+    
+    @Pure
+    public CancelIndicator getCancelIndicator() {
+      return this.cancelIndicator;
+    }
+    
+    @Pure
+    public Map<EObject, SymbolInformation> getComputed() {
+      return this.computed;
+    }
+    
+    @Pure
+    public List<SymbolInformation> getSymbols() {
+      return this.symbols;
+    }
+  }
+  
   @Inject
   @Extension
   private DocumentExtensions _documentExtensions;
@@ -86,6 +312,14 @@ public class DocumentSymbolService {
   @Inject
   private IResourceServiceProvider.Registry resourceServiceProviderRegistry;
   
+  @Inject
+  private UriExtensions uriExtensions;
+  
+  /**
+   * Guards the creation of the {@link SymbolsAdapter symbols adapters}.
+   */
+  private final Object symbolsAdapterLock = new Object();
+  
   public List<? extends Location> getDefinitions(final Document document, final XtextResource resource, final TextDocumentPositionParams params, final IReferenceFinder.IResourceAccess resourceAccess, final CancelIndicator cancelIndicator) {
     final int offset = document.getOffSet(params.getPosition());
     return this.getDefinitions(resource, offset, resourceAccess, cancelIndicator);
@@ -114,32 +348,60 @@ public class DocumentSymbolService {
   }
   
   public List<? extends Location> getReferences(final Document document, final XtextResource resource, final ReferenceParams params, final IReferenceFinder.IResourceAccess resourceAccess, final IResourceDescriptions indexData, final CancelIndicator cancelIndicator) {
+    final ArrayList<Location> locations = CollectionLiterals.<Location>newArrayList();
+    final IAcceptor<Location> _function = (Location it) -> {
+      locations.add(it);
+    };
+    this.getReferences(document, resource, params, resourceAccess, indexData, _function, cancelIndicator);
+    return locations;
+  }
+  
+  /**
+   * Like {@link #getReferences(Document, XtextResource, ReferenceParams, IResourceAccess, IResourceDescriptions,
+   * CancelIndicator)}, but passes the locations to the acceptor as soon as they are found.
+   * 
+   * @since 2.14
+   */
+  public void getReferences(final Document document, final XtextResource resource, final ReferenceParams params, final IReferenceFinder.IResourceAccess resourceAccess, final IResourceDescriptions indexData, final IAcceptor<? super Location> acceptor, final CancelIndicator cancelIndicator) {
     final int offset = document.getOffSet(params.getPosition());
-    List<? extends Location> _xifexpression = null;
     boolean _isIncludeDeclaration = params.getContext().isIncludeDeclaration();
     if (_isIncludeDeclaration) {
-      _xifexpression = this.getDefinitions(resource, offset, resourceAccess, cancelIndicator);
-    } else {
-      _xifexpression = CollectionLiterals.emptyList();
+      List<? extends Location> _definitions = this.getDefinitions(resource, offset, resourceAccess, cancelIndicator);
+      for (final Location definition : _definitions) {
+        acceptor.accept(definition);
+      }
     }
-    final List<? extends Location> definitions = _xifexpression;
-    final List<? extends Location> references = this.getReferences(resource, offset, resourceAccess, indexData, cancelIndicator);
-    final Iterable<Location> result = Iterables.<Location>concat(definitions, references);
-    return IterableExtensions.<Location>toList(result);
+    this.getReferences(resource, offset, resourceAccess, indexData, acceptor, cancelIndicator);
   }
   
   public List<? extends Location> getReferences(final XtextResource resource, final int offset, final IReferenceFinder.IResourceAccess resourceAccess, final IResourceDescriptions indexData, final CancelIndicator cancelIndicator) {
+    final ArrayList<Location> locations = CollectionLiterals.<Location>newArrayList();
+    final IAcceptor<Location> _function = (Location it) -> {
+      locations.add(it);
+    };
+    this.getReferences(resource, offset, resourceAccess, indexData, _function, cancelIndicator);
+    return locations;
+  }
+  
+  /**
+   * Passes the locations of the references to the element at the given offset to the acceptor as soon as they are
+   * found. The search stops with an {@link org.eclipse.xtext.service.OperationCanceledError OperationCanceledError}
+   * as soon as the request is cancelled.
+   * 
+   * @since 2.14
+   */
+  public void getReferences(final XtextResource resource, final int offset, final IReferenceFinder.IResourceAccess resourceAccess, final IResourceDescriptions indexData, final IAcceptor<? super Location> acceptor, final CancelIndicator cancelIndicator) {
     final EObject element = this._eObjectAtOffsetHelper.resolveElementAt(resource, offset);
     if ((element == null)) {
-      return CollectionLiterals.<Location>emptyList();
+      return;
     }
-    final ArrayList<Location> locations = CollectionLiterals.<Location>newArrayList();
     final TargetURIs targetURIs = this.collectTargetURIs(element);
     final IAcceptor<IReferenceDescription> _function = (IReferenceDescription reference) -> {
+      this.operationCanceledManager.checkCanceled(cancelIndicator);
       final Procedure1<EObject> _function_1 = (EObject obj) -> {
         final Location location = this._documentExtensions.newLocation(obj, reference.getEReference(), reference.getIndexInList());
         if ((location != null)) {
-          locations.add(location);
+          acceptor.accept(location);
         }
       };
       this.doRead(resourceAccess, reference.getSourceEObjectUri(), _function_1);
@@ -147,7 +409,6 @@ public class DocumentSymbolService {
     ReferenceAcceptor _referenceAcceptor = new ReferenceAcceptor(this.resourceServiceProviderRegistry, _function);
     CancelIndicatorProgressMonitor _cancelIndicatorProgressMonitor = new CancelIndicatorProgressMonitor(cancelIndicator);
     this.referenceFinder.findAllReferences(targetURIs, resourceAccess, indexData, _referenceAcceptor, _cancelIndicatorProgressMonitor);
-    return locations;
   }
   
   protected TargetURIs collectTargetURIs(final EObject targetObject) {
@@ -156,8 +417,84 @@ public class DocumentSymbolService {
     return targetURIs;
   }
   
+  /**
+   * Returns the symbols of the given document. The symbols of the last request are attached to the resource and the
+   * symbols of the subtrees that were not affected by the changes since then are reused, only their locations are
+   * shifted. The changed region is taken from the changes that were recorded in the resource's
+   * {@link DocumentChangesAdapter} when it was reparsed incrementally. This relies on the partial parser, which
+   * replaces the semantic elements of the reparsed region, so an object that is still contained in the resource and
+   * whose node lies outside of the changed region did not change.
+   */
   public List<? extends SymbolInformation> getSymbols(final Document document, final XtextResource resource, final DocumentSymbolParams params, final CancelIndicator cancelIndicator) {
-    return this.getSymbols(resource, cancelIndicator);
+    IParseResult _parseResult = resource.getParseResult();
+    ICompositeNode _rootNode = null;
+    if (_parseResult!=null) {
+      _rootNode=_parseResult.getRootNode();
+    }
+    boolean _tripleEquals = (_rootNode == null);
+    if (_tripleEquals) {
+      return this.getSymbols(resource, cancelIndicator);
+    }
+    final DocumentSymbolService.SymbolsAdapter adapter = this.getSymbolsAdapter(resource);
+    final Pair<Integer, List<DocumentSymbolService.SymbolEntry>> previous = adapter.state;
+    DocumentChangesAdapter.TextChange _xifexpression = null;
+    if ((previous != null)) {
+      _xifexpression = this.getChangeSince(resource, (previous.getKey()).intValue(), document);
+    }
+    final DocumentChangesAdapter.TextChange change = _xifexpression;
+    final String uri = this.uriExtensions.toUriString(resource.getURI());
+    DocumentSymbolService.SymbolUpdate _xifexpression_1 = null;
+    if ((change == null)) {
+      _xifexpression_1 = new DocumentSymbolService.SymbolUpdate(resource, uri, document, 0, Integer.MAX_VALUE, 0, cancelIndicator);
+    } else {
+      int _offset = change.getOffset();
+      int _offset_1 = change.getOffset();
+      int _replacedLength = change.getReplacedLength();
+      int _plus = (_offset_1 + _replacedLength);
+      int _newLength = change.getNewLength();
+      int _replacedLength_1 = change.getReplacedLength();
+      int _minus = (_newLength - _replacedLength_1);
+      _xifexpression_1 = new DocumentSymbolService.SymbolUpdate(resource, uri, document, _offset, _plus, _minus, cancelIndicator);
+    }
+    final DocumentSymbolService.SymbolUpdate update = _xifexpression_1;
+    EList<EObject> _contents = resource.getContents();
+    List<DocumentSymbolService.SymbolEntry> _xifexpression_2 = null;
+    if ((change != null)) {
+      _xifexpression_2 = previous.getValue();
+    } else {
+      _xifexpression_2 = CollectionLiterals.<DocumentSymbolService.SymbolEntry>emptyList();
+    }
+    final List<DocumentSymbolService.SymbolEntry> entries = this.updateSymbolEntries(_contents, _xifexpression_2, update);
+    int _version = document.getVersion();
+    Pair<Integer, List<DocumentSymbolService.SymbolEntry>> _mappedTo = Pair.<Integer, List<DocumentSymbolService.SymbolEntry>>of(Integer.valueOf(_version), entries);
+    adapter.state = _mappedTo;
+    return update.symbols;
+  }
+  
+  /**
+   * Returns the change of the resource's text since the given document version or <code>null</code> if it is not
+   * known.
+   * 
+   * @since 2.14
+   */
+  protected DocumentChangesAdapter.TextChange getChangeSince(final XtextResource resource, final int version, final Document document) {
+    final DocumentChangesAdapter changes = DocumentChangesAdapter.find(resource);
+    if ((changes == null)) {
+      DocumentChangesAdapter.TextChange _xifexpression = null;
+      int _version = document.getVersion();
+      boolean _tripleEquals = (version == _version);
+      if (_tripleEquals) {
+        _xifexpression = new DocumentChangesAdapter.TextChange(version, version, 0, 0, 0);
+      }
+      return _xifexpression;
+    }
+    int _version_1 = changes.getVersion();
+    int _version_2 = document.getVersion();
+    boolean _tripleNotEquals = (_version_1 != _version_2);
+    if (_tripleNotEquals) {
+      return null;
+    }
+    return changes.getChangeSince(version);
   }
   
   public List<? extends SymbolInformation> getSymbols(final XtextResource resource, final CancelIndicator cancelIndicator) {
@@ -184,6 +521,173 @@ public class DocumentSymbolService {
     return IterableExtensions.<SymbolInformation>toList(symbols.values());
   }
   
+  /**
+   * Returns the symbol entries of the given objects and adds their symbols to the update. The entries of the objects
+   * that were not affected by the changes are reused.
+   * 
+   * @since 2.14
+   */
+  protected List<DocumentSymbolService.SymbolEntry> updateSymbolEntries(final Iterable<? extends EObject> objects, final List<DocumentSymbolService.SymbolEntry> oldEntries, final DocumentSymbolService.SymbolUpdate update) {
+    final Map<EObject, DocumentSymbolService.SymbolEntry> object2oldEntry = Maps.<EObject, DocumentSymbolService.SymbolEntry>newIdentityHashMap();
+    for (final DocumentSymbolService.SymbolEntry oldEntry : oldEntries) {
+      object2oldEntry.put(oldEntry.object, oldEntry);
+    }
+    final ArrayList<DocumentSymbolService.SymbolEntry> result = CollectionLiterals.<DocumentSymbolService.SymbolEntry>newArrayList();
+    for (final EObject object : objects) {
+      if (((((InternalEObject) object).eDirectResource() == null) || (object.eContainer() == null))) {
+        DocumentSymbolService.SymbolEntry _updateSymbolEntry = this.updateSymbolEntry(object, object2oldEntry.get(object), update);
+        result.add(_updateSymbolEntry);
+      }
+    }
+    return result;
+  }
+  
+  /**
+   * Returns the symbol entry of the given object and adds the symbols of the object and its contents to the update.
+   * 
+   * @since 2.14
+   */
+  protected DocumentSymbolService.SymbolEntry updateSymbolEntry(final EObject object, final DocumentSymbolService.SymbolEntry oldEntry, final DocumentSymbolService.SymbolUpdate update) {
+    this.operationCanceledManager.checkCanceled(update.cancelIndicator);
+    final ICompositeNode node = NodeModelUtils.findActualNodeFor(object);
+    if ((((oldEntry != null) && (node != null)) && (oldEntry.offset != (-1)))) {
+      final Integer shift = update.getShift(oldEntry);
+      if ((((shift != null) && (node.getTotalOffset() == (oldEntry.offset + (shift).intValue()))) && (node.getTotalLength() == oldEntry.length))) {
+        SymbolInformation _get = update.computed.get(this.getContainer(object));
+        String _name = null;
+        if (_get!=null) {
+          _name=_get.getName();
+        }
+        return this.shiftSymbolEntry(oldEntry, (shift).intValue(), _name, update);
+      }
+    }
+    boolean reusable = (node != null);
+    int symbolStart = (-1);
+    int symbolEnd = (-1);
+    final SymbolInformation symbol = this.createSymbol(object);
+    if ((symbol != null)) {
+      SymbolInformation _get_1 = update.computed.get(this.getContainer(object));
+      String _name_1 = null;
+      if (_get_1!=null) {
+        _name_1=_get_1.getName();
+      }
+      symbol.setContainerName(_name_1);
+      update.computed.put(object, symbol);
+      update.symbols.add(symbol);
+      final Range range = symbol.getLocation().getRange();
+      String _uri = symbol.getLocation().getUri();
+      boolean _equals = Objects.equal(_uri, update.uri);
+      if (_equals) {
+        symbolStart = update.document.getOffSet(range.getStart());
+        symbolEnd = update.document.getOffSet(range.getEnd());
+      }
+      reusable = ((reusable && (symbolStart != (-1))) && Objects.equal(this._documentExtensions.newRange(update.resource, symbolStart, symbolEnd), range));
+    }
+    EList<EObject> _eContents = object.eContents();
+    List<DocumentSymbolService.SymbolEntry> _elvis = null;
+    List<DocumentSymbolService.SymbolEntry> _children = null;
+    if (oldEntry!=null) {
+      _children=oldEntry.children;
+    }
+    if (_children != null) {
+      _elvis = _children;
+    } else {
+      List<DocumentSymbolService.SymbolEntry> _emptyList = CollectionLiterals.<DocumentSymbolService.SymbolEntry>emptyList();
+      _elvis = _emptyList;
+    }
+    final List<DocumentSymbolService.SymbolEntry> children = this.updateSymbolEntries(_eContents, _elvis, update);
+    reusable = (reusable && IterableExtensions.<DocumentSymbolService.SymbolEntry>forall(children, ((Function1<DocumentSymbolService.SymbolEntry, Boolean>) (DocumentSymbolService.SymbolEntry it) -> {
+      return Boolean.valueOf((it.offset != (-1)));
+    })));
+    int _xifexpression = (int) 0;
+    if (reusable) {
+      _xifexpression = node.getTotalOffset();
+    } else {
+      _xifexpression = (-1);
+    }
+    int _xifexpression_1 = (int) 0;
+    if ((node != null)) {
+      _xifexpression_1 = node.getTotalLength();
+    } else {
+      _xifexpression_1 = 0;
+    }
+    return new DocumentSymbolService.SymbolEntry(object, _xifexpression, _xifexpression_1, symbol, symbolStart, symbolEnd, children);
+  }
+  
+  /**
+   * Adds the symbols of an entry that was not affected by the changes to the update and returns the entry with
+   * locations that are shifted by the given number of characters.
+   * 
+   * @since 2.14
+   */
+  protected DocumentSymbolService.SymbolEntry shiftSymbolEntry(final DocumentSymbolService.SymbolEntry entry, final int shift, final String containerName, final DocumentSymbolService.SymbolUpdate update) {
+    SymbolInformation symbol = entry.symbol;
+    if ((symbol != null)) {
+      if (((shift != 0) || (!Objects.equal(symbol.getContainerName(), containerName)))) {
+        Range _xifexpression = null;
+        if ((shift == 0)) {
+          _xifexpression = symbol.getLocation().getRange();
+        } else {
+          _xifexpression = this._documentExtensions.newRange(update.resource, (entry.symbolStart + shift), (entry.symbolEnd + shift));
+        }
+        final Range range = _xifexpression;
+        String _name = symbol.getName();
+        SymbolKind _kind = symbol.getKind();
+        String _uri = symbol.getLocation().getUri();
+        Location _location = new Location(_uri, range);
+        SymbolInformation _symbolInformation = new SymbolInformation(_name, _kind, _location, containerName);
+        symbol = _symbolInformation;
+      }
+      update.symbols.add(symbol);
+    }
+    if (((shift == 0) && (symbol == entry.symbol))) {
+      for (final DocumentSymbolService.SymbolEntry child : entry.children) {
+        this.addSymbols(child, update);
+      }
+      return entry;
+    }
+    final ArrayList<DocumentSymbolService.SymbolEntry> children = CollectionLiterals.<DocumentSymbolService.SymbolEntry>newArrayList();
+    for (final DocumentSymbolService.SymbolEntry child_1 : entry.children) {
+      SymbolInformation _symbol = child_1.symbol;
+      String _containerName = null;
+      if (_symbol!=null) {
+        _containerName=_symbol.getContainerName();
+      }
+      DocumentSymbolService.SymbolEntry _shiftSymbolEntry = this.shiftSymbolEntry(child_1, shift, _containerName, update);
+      children.add(_shiftSymbolEntry);
+    }
+    return new DocumentSymbolService.SymbolEntry(entry.object, (entry.offset + shift), entry.length, symbol, (entry.symbolStart + shift), 
+      (entry.symbolEnd + shift), children);
+  }
+  
+  private void addSymbols(final DocumentSymbolService.SymbolEntry entry, final DocumentSymbolService.SymbolUpdate update) {
+    if ((entry.symbol != null)) {
+      update.symbols.add(entry.symbol);
+    }
+    for (final DocumentSymbolService.SymbolEntry child : entry.children) {
+      this.addSymbols(child, update);
+    }
+  }
+  
+  /**
+   * Returns the adapter that holds the symbols of the last request for the given resource.
+   * 
+   * @since 2.14
+   */
+  protected DocumentSymbolService.SymbolsAdapter getSymbolsAdapter(final XtextResource resource) {
+    synchronized (this.symbolsAdapterLock) {
+      Adapter _existingAdapter = EcoreUtil.getExistingAdapter(resource, DocumentSymbolService.SymbolsAdapter.class);
+      DocumentSymbolService.SymbolsAdapter adapter = ((DocumentSymbolService.SymbolsAdapter) _existingAdapter);
+      if ((adapter == null)) {
+        DocumentSymbolService.SymbolsAdapter _symbolsAdapter = new DocumentSymbolService.SymbolsAdapter();
+        adapter = _symbolsAdapter;
+        EList<Adapter> _eAdapters = resource.eAdapters();
+        _eAdapters.add(adapter);
+      }
+      return adapter;
+    }
+  }
+  
   protected EObject getContainer(final EObject obj) {
     return obj.eContainer();
   }
@@ -238,8 +742,29 @@ public class DocumentSymbolService {
     return symbols;
   }
   
+  /**
+   * Returns the symbol of the given description or {@code null} if it does not denote a symbol.
+   * 
+   * @since 2.14
+   */
+  public SymbolInformation getSymbol(final IEObjectDescription description, final IReferenceFinder.IResourceAccess resourceAccess) {
+    final ArrayList<SymbolInformation> symbols = CollectionLiterals.<SymbolInformation>newArrayList();
+    final Procedure1<SymbolInformation> _function = (SymbolInformation symbol) -> {
+      symbols.add(symbol);
+    };
+    this.createSymbol(description, resourceAccess, _function);
+    return IterableExtensions.<SymbolInformation>head(symbols);
+  }
+  
+  /**
+   * Whether the given description matches the query of a workspace symbol request. By default, its qualified name
+   * has to contain the query ignoring the case, or its simple name has to
+   * {@link WorkspaceSymbolIndex#matchesHumps(String, String) match the humps} of the query. The
+   * {@link WorkspaceSymbolIndex symbol index} only yields such descriptions, so a filter must not accept others.
+   */
   protected boolean filter(final IEObjectDescription description, final String query) {
-    return description.getQualifiedName().toLowerCase().toString().contains(query.toLowerCase());
+    final QualifiedName qualifiedName = description.getQualifiedName();
+    return (qualifiedName.toLowerCase().toString().contains(query.toLowerCase()) || ((qualifiedName.getSegmentCount() > 0) && WorkspaceSymbolIndex.matchesHumps(qualifiedName.getLastSegment(), query)));
   }
   
   protected void createSymbol(final IEObjectDescription description, final IReferenceFinder.IResourceAccess resourceAccess, final Procedure1<? super SymbolInformation> acceptor) {
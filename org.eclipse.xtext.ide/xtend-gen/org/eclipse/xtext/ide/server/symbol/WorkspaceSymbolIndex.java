@@ -0,0 +1,411 @@
+/**
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.ide.server.symbol;
+
+import com.google.common.annotations.Beta;
+import com.google.common.base.Objects;
+import com.google.common.collect.ComparisonChain;
+import com.google.common.collect.Iterables;
+import com.google.inject.Singleton;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.lsp4j.SymbolInformation;
+import org.eclipse.xtend.lib.annotations.AccessorType;
+import org.eclipse.xtend.lib.annotations.Accessors;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceDescriptions;
+import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+import org.eclipse.xtext.xbase.lib.ExclusiveRange;
+import org.eclipse.xtext.xbase.lib.Functions.Function1;
+import org.eclipse.xtext.xbase.lib.IterableExtensions;
+import org.eclipse.xtext.xbase.lib.ListExtensions;
+import org.eclipse.xtext.xbase.lib.Pair;
+import org.eclipse.xtext.xbase.lib.Pure;
+
+/**
+ * An in-memory index of the exported objects of the workspace for the workspace symbol search. The index is keyed by
+ * the trigrams of the lower case qualified names and by the initials of the camel case humps of the simple names, so
+ * a query only has to look at the names that may match. It is updated from the deltas of the builds and does not load
+ * any resources.
+ * 
+ * A name matches a query if it contains the query ignoring the case, or if the humps of the query are prefixes of the
+ * leading humps of the simple name, e.g. {@code FoBa} matches {@code FooBarBaz}. The matches are ranked as follows:
+ * <ol>
+ * <li>the qualified name or the simple name equals the query,</li>
+ * <li>the qualified name starts with the query,</li>
+ * <li>the simple name starts with the query,</li>
+ * <li>the simple name matches the humps of the query,</li>
+ * <li>the qualified name contains the query.</li>
+ * </ol>
+ * Matches of the same rank keep the order of the index.
+ * 
+ * @since 2.14
+ */
+@Beta
+@Singleton
+@SuppressWarnings("all")
+public class WorkspaceSymbolIndex {
+  /**
+   * An exported object in the index.
+   */
+  public static class Entry {
+    @Accessors(AccessorType.PUBLIC_GETTER)
+    private final IEObjectDescription description;
+    
+    /**
+     * The description of the resource that exports the object.
+     */
+    @Accessors(AccessorType.PUBLIC_GETTER)
+    private final IResourceDescription resourceDescription;
+    
+    private final String name;
+    
+    private final String simpleName;
+    
+    private final List<String> humps;
+    
+    private final int resourceOrder;
+    
+    private final int order;
+    
+    /**
+     * The symbol of the description, which is created on demand and discarded with the entry.
+     */
+    @Accessors
+    private volatile SymbolInformation symbol;
+    
+    public Entry(final IEObjectDescription description, final IResourceDescription resourceDescription, final int resourceOrder, final int order) {
+      this.description = description;
+      this.resourceDescription = resourceDescription;
+      this.name = description.getQualifiedName().toString().toLowerCase();
+      String _elvis = null;
+      String _lastSegment = description.getQualifiedName().getLastSegment();
+      if (_lastSegment != null) {
+        _elvis = _lastSegment;
+      } else {
+        _elvis = "";
+      }
+      final String simpleName = _elvis;
+      this.simpleName = simpleName.toLowerCase();
+      this.humps = WorkspaceSymbolIndex.getHumps(simpleName);
+      this.resourceOrder = resourceOrder;
+      this.order = order;
+    }
+    
+    @Pure
+    public IEObjectDescription getDescription() {
+      return this.description;
+    }
+    
+    @Pure
+    public IResourceDescription getResourceDescription() {
+      return this.resourceDescription;
+    }
+    
+    @Pure
+    public SymbolInformation getSymbol() {
+      return this.symbol;
+    }
+    
+    public void setSymbol(final SymbolInformation symbol) {
+      this.symbol = symbol;
+    }
+  }
+  
+  private final static Comparator<Pair<Integer, WorkspaceSymbolIndex.Entry>> RANKING = ((Comparator<Pair<Integer, WorkspaceSymbolIndex.Entry>>) (Pair<Integer, WorkspaceSymbolIndex.Entry> a, Pair<Integer, WorkspaceSymbolIndex.Entry> b) -> {
+    return ComparisonChain.start().compare(a.getKey(), b.getKey()).compare(a.getValue().resourceOrder, b.getValue().resourceOrder).compare(a.getValue().order, b.getValue().order).result();
+  });
+  
+  private final static char UNDERSCORE = "_".charAt(0);
+  
+  private final Map<URI, List<WorkspaceSymbolIndex.Entry>> resource2entries = CollectionLiterals.<URI, List<WorkspaceSymbolIndex.Entry>>newLinkedHashMap();
+  
+  private final Map<URI, Integer> resourceOrders = CollectionLiterals.<URI, Integer>newHashMap();
+  
+  private final Map<String, Set<WorkspaceSymbolIndex.Entry>> trigram2entries = CollectionLiterals.<String, Set<WorkspaceSymbolIndex.Entry>>newHashMap();
+  
+  private final Map<String, Set<WorkspaceSymbolIndex.Entry>> initials2entries = CollectionLiterals.<String, Set<WorkspaceSymbolIndex.Entry>>newHashMap();
+  
+  private int nextResourceOrder;
+  
+  private boolean initialized;
+  
+  /**
+   * Whether the index was {@link #initialize(IResourceDescriptions) initialized}.
+   */
+  public synchronized boolean isInitialized() {
+    return this.initialized;
+  }
+  
+  /**
+   * Replaces the contents of this index by the exported objects of the given resource descriptions.
+   */
+  public synchronized void initialize(final IResourceDescriptions index) {
+    this.resource2entries.clear();
+    this.resourceOrders.clear();
+    this.trigram2entries.clear();
+    this.initials2entries.clear();
+    Iterable<IResourceDescription> _allResourceDescriptions = index.getAllResourceDescriptions();
+    for (final IResourceDescription resourceDescription : _allResourceDescriptions) {
+      this.add(resourceDescription);
+    }
+    this.initialized = true;
+  }
+  
+  /**
+   * Applies the given deltas to this index.
+   */
+  public synchronized void update(final Iterable<? extends IResourceDescription.Delta> deltas) {
+    for (final IResourceDescription.Delta delta : deltas) {
+      {
+        this.remove(delta.getUri());
+        IResourceDescription _new = delta.getNew();
+        boolean _tripleEquals = (_new == null);
+        if (_tripleEquals) {
+          this.resourceOrders.remove(delta.getUri());
+        } else {
+          this.add(delta.getNew());
+        }
+      }
+    }
+  }
+  
+  /**
+   * Returns the entries whose names match the given query in the order of their rank.
+   */
+  public synchronized List<WorkspaceSymbolIndex.Entry> find(final String query) {
+    final String lowerCaseQuery = query.toLowerCase();
+    final HashMap<WorkspaceSymbolIndex.Entry, Integer> result = CollectionLiterals.<WorkspaceSymbolIndex.Entry, Integer>newHashMap();
+    Iterable<WorkspaceSymbolIndex.Entry> _substringCandidates = this.getSubstringCandidates(lowerCaseQuery);
+    for (final WorkspaceSymbolIndex.Entry entry : _substringCandidates) {
+      {
+        final int rank = this.getRank(entry, lowerCaseQuery);
+        if ((rank != (-1))) {
+          result.put(entry, Integer.valueOf(rank));
+        }
+      }
+    }
+    final List<String> queryHumps = WorkspaceSymbolIndex.getHumps(query);
+    int _size = queryHumps.size();
+    boolean _greaterThan = (_size > 1);
+    if (_greaterThan) {
+      Set<WorkspaceSymbolIndex.Entry> _elvis = null;
+      Set<WorkspaceSymbolIndex.Entry> _get = this.initials2entries.get(WorkspaceSymbolIndex.getInitials(queryHumps));
+      if (_get != null) {
+        _elvis = _get;
+      } else {
+        Set<WorkspaceSymbolIndex.Entry> _emptySet = CollectionLiterals.<WorkspaceSymbolIndex.Entry>emptySet();
+        _elvis = _emptySet;
+      }
+      for (final WorkspaceSymbolIndex.Entry entry_1 : _elvis) {
+        if (((!result.containsKey(entry_1)) && WorkspaceSymbolIndex.matchesHumps(entry_1.humps, queryHumps))) {
+          result.put(entry_1, Integer.valueOf(3));
+        }
+      }
+    }
+    final Function1<Map.Entry<WorkspaceSymbolIndex.Entry, Integer>, Pair<Integer, WorkspaceSymbolIndex.Entry>> _function = (Map.Entry<WorkspaceSymbolIndex.Entry, Integer> it) -> {
+      Integer _value = it.getValue();
+      WorkspaceSymbolIndex.Entry _key = it.getKey();
+      return Pair.<Integer, WorkspaceSymbolIndex.Entry>of(_value, _key);
+    };
+    final Function1<Pair<Integer, WorkspaceSymbolIndex.Entry>, WorkspaceSymbolIndex.Entry> _function_1 = (Pair<Integer, WorkspaceSymbolIndex.Entry> it) -> {
+      return it.getValue();
+    };
+    return ListExtensions.<Pair<Integer, WorkspaceSymbolIndex.Entry>, WorkspaceSymbolIndex.Entry>map(IterableExtensions.<Pair<Integer, WorkspaceSymbolIndex.Entry>>sortWith(IterableExtensions.<Map.Entry<WorkspaceSymbolIndex.Entry, Integer>, Pair<Integer, WorkspaceSymbolIndex.Entry>>map(result.entrySet(), _function), WorkspaceSymbolIndex.RANKING), _function_1);
+  }
+  
+  protected Iterable<WorkspaceSymbolIndex.Entry> getSubstringCandidates(final String lowerCaseQuery) {
+    int _length = lowerCaseQuery.length();
+    boolean _lessThan = (_length < 3);
+    if (_lessThan) {
+      return Iterables.<WorkspaceSymbolIndex.Entry>concat(this.resource2entries.values());
+    }
+    Set<WorkspaceSymbolIndex.Entry> smallest = null;
+    Set<String> _trigrams = WorkspaceSymbolIndex.getTrigrams(lowerCaseQuery);
+    for (final String trigram : _trigrams) {
+      {
+        final Set<WorkspaceSymbolIndex.Entry> entries = this.trigram2entries.get(trigram);
+        if ((entries == null)) {
+          return CollectionLiterals.<WorkspaceSymbolIndex.Entry>emptyList();
+        }
+        if (((smallest == null) || (entries.size() < smallest.size()))) {
+          smallest = entries;
+        }
+      }
+    }
+    return smallest;
+  }
+  
+  /**
+   * Returns the rank of a substring match or -1 if the name does not contain the query.
+   */
+  protected int getRank(final WorkspaceSymbolIndex.Entry entry, final String lowerCaseQuery) {
+    if ((Objects.equal(entry.name, lowerCaseQuery) || Objects.equal(entry.simpleName, lowerCaseQuery))) {
+      return 0;
+    }
+    boolean _startsWith = entry.name.startsWith(lowerCaseQuery);
+    if (_startsWith) {
+      return 1;
+    }
+    boolean _startsWith_1 = entry.simpleName.startsWith(lowerCaseQuery);
+    if (_startsWith_1) {
+      return 2;
+    }
+    boolean _contains = entry.name.contains(lowerCaseQuery);
+    if (_contains) {
+      return 4;
+    }
+    return (-1);
+  }
+  
+  protected void add(final IResourceDescription resourceDescription) {
+    final URI uri = resourceDescription.getURI();
+    Integer resourceOrder = this.resourceOrders.get(uri);
+    if ((resourceOrder == null)) {
+      int _plusPlus = this.nextResourceOrder++;
+      resourceOrder = Integer.valueOf(_plusPlus);
+      this.resourceOrders.put(uri, resourceOrder);
+    }
+    final ArrayList<WorkspaceSymbolIndex.Entry> entries = CollectionLiterals.<WorkspaceSymbolIndex.Entry>newArrayList();
+    Iterable<IEObjectDescription> _exportedObjects = resourceDescription.getExportedObjects();
+    for (final IEObjectDescription description : _exportedObjects) {
+      QualifiedName _qualifiedName = description.getQualifiedName();
+      boolean _tripleNotEquals = (_qualifiedName != null);
+      if (_tripleNotEquals) {
+        int _size = entries.size();
+        final WorkspaceSymbolIndex.Entry entry = new WorkspaceSymbolIndex.Entry(description, resourceDescription, (resourceOrder).intValue(), _size);
+        entries.add(entry);
+        Set<String> _trigrams = WorkspaceSymbolIndex.getTrigrams(entry.name);
+        for (final String trigram : _trigrams) {
+          final Function<String, Set<WorkspaceSymbolIndex.Entry>> _function = (String it) -> {
+            return CollectionLiterals.<WorkspaceSymbolIndex.Entry>newHashSet();
+          };
+          Set<WorkspaceSymbolIndex.Entry> _computeIfAbsent = this.trigram2entries.computeIfAbsent(trigram, _function);
+          _computeIfAbsent.add(entry);
+        }
+        int _size_1 = entry.humps.size();
+        boolean _greaterThan = (_size_1 > 1);
+        if (_greaterThan) {
+          final Function<String, Set<WorkspaceSymbolIndex.Entry>> _function_1 = (String it) -> {
+            return CollectionLiterals.<WorkspaceSymbolIndex.Entry>newHashSet();
+          };
+          Set<WorkspaceSymbolIndex.Entry> _computeIfAbsent_1 = this.initials2entries.computeIfAbsent(WorkspaceSymbolIndex.getInitials(entry.humps), _function_1);
+          _computeIfAbsent_1.add(entry);
+        }
+      }
+    }
+    this.resource2entries.put(uri, entries);
+  }
+  
+  protected void remove(final URI uri) {
+    final List<WorkspaceSymbolIndex.Entry> entries = this.resource2entries.remove(uri);
+    if ((entries == null)) {
+      return;
+    }
+    for (final WorkspaceSymbolIndex.Entry entry : entries) {
+      {
+        Set<String> _trigrams = WorkspaceSymbolIndex.getTrigrams(entry.name);
+        for (final String trigram : _trigrams) {
+          WorkspaceSymbolIndex.removeFrom(this.trigram2entries, trigram, entry);
+        }
+        int _size = entry.humps.size();
+        boolean _greaterThan = (_size > 1);
+        if (_greaterThan) {
+          WorkspaceSymbolIndex.removeFrom(this.initials2entries, WorkspaceSymbolIndex.getInitials(entry.humps), entry);
+        }
+      }
+    }
+  }
+  
+  private static void removeFrom(final Map<String, Set<WorkspaceSymbolIndex.Entry>> map, final String key, final WorkspaceSymbolIndex.Entry entry) {
+    final Set<WorkspaceSymbolIndex.Entry> entries = map.get(key);
+    if ((((entries != null) && entries.remove(entry)) && entries.isEmpty())) {
+      map.remove(key);
+    }
+  }
+  
+  private static Set<String> getTrigrams(final String name) {
+    final HashSet<String> result = CollectionLiterals.<String>newHashSet();
+    for (int i = 0; ((i + 3) <= name.length()); i++) {
+      String _substring = name.substring(i, (i + 3));
+      result.add(_substring);
+    }
+    return result;
+  }
+  
+  /**
+   * Returns the lower case initials of the first two humps, which is the key of the hump index.
+   */
+  private static String getInitials(final List<String> humps) {
+    final Function1<String, String> _function = (String it) -> {
+      return it.substring(0, 1);
+    };
+    return IterableExtensions.join(IterableExtensions.<String, String>map(IterableExtensions.<String>take(humps, 2), _function)).toLowerCase();
+  }
+  
+  /**
+   * Splits the name before upper case letters and at underscores.
+   */
+  private static List<String> getHumps(final String name) {
+    final ArrayList<String> result = CollectionLiterals.<String>newArrayList();
+    int start = 0;
+    for (int i = 0; (i <= name.length()); i++) {
+      if ((((i == name.length()) || (name.charAt(i) == WorkspaceSymbolIndex.UNDERSCORE)) || ((i > start) && Character.isUpperCase(name.charAt(i))))) {
+        if ((i > start)) {
+          String _substring = name.substring(start, i);
+          result.add(_substring);
+        }
+        int _xifexpression = (int) 0;
+        if (((i < name.length()) && (name.charAt(i) == WorkspaceSymbolIndex.UNDERSCORE))) {
+          _xifexpression = (i + 1);
+        } else {
+          _xifexpression = i;
+        }
+        start = _xifexpression;
+      }
+    }
+    return result;
+  }
+  
+  /**
+   * Whether the humps of the given query are prefixes of the leading humps of the given name, e.g. {@code FoBa}
+   * matches {@code FooBarBaz}. A query needs at least two humps to match.
+   */
+  public static boolean matchesHumps(final String name, final String query) {
+    final List<String> queryHumps = WorkspaceSymbolIndex.getHumps(query);
+    return ((queryHumps.size() > 1) && WorkspaceSymbolIndex.matchesHumps(WorkspaceSymbolIndex.getHumps(name), queryHumps));
+  }
+  
+  private static boolean matchesHumps(final List<String> humps, final List<String> queryHumps) {
+    int _size = queryHumps.size();
+    int _size_1 = humps.size();
+    boolean _greaterThan = (_size > _size_1);
+    if (_greaterThan) {
+      return false;
+    }
+    int _size_2 = queryHumps.size();
+    ExclusiveRange _doubleDotLessThan = new ExclusiveRange(0, _size_2, true);
+    for (final Integer i : _doubleDotLessThan) {
+      boolean _startsWith = humps.get((i).intValue()).toLowerCase().startsWith(queryHumps.get((i).intValue()).toLowerCase());
+      boolean _not = (!_startsWith);
+      if (_not) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
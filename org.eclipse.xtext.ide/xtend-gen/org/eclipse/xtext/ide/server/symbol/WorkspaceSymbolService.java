@@ -7,14 +7,16 @@
  */
 package org.eclipse.xtext.ide.server.symbol;
 
-import com.google.common.collect.Iterables;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import org.eclipse.lsp4j.SymbolInformation;
 import org.eclipse.xtext.findReferences.IReferenceFinder;
 import org.eclipse.xtext.ide.server.symbol.DocumentSymbolService;
+import org.eclipse.xtext.ide.server.symbol.WorkspaceSymbolIndex;
+import org.eclipse.xtext.resource.IEObjectDescription;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.IResourceDescriptions;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
@@ -22,6 +24,7 @@ import org.eclipse.xtext.service.OperationCanceledManager;
 import org.eclipse.xtext.util.CancelIndicator;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
 import org.eclipse.xtext.xbase.lib.Extension;
+import org.eclipse.xtext.xbase.lib.Functions.Function1;
 
 /**
  * @author kosyakov - Initial contribution and API
@@ -37,8 +40,38 @@ public class WorkspaceSymbolService {
   @Inject
   private OperationCanceledManager operationCanceledManager;
   
+  @Inject
+  private WorkspaceSymbolIndex symbolIndex;
+  
+  /**
+   * Returns the symbols of the given resource descriptions that match the given query. Once the
+   * {@link WorkspaceSymbolIndex symbol index} is initialized, it is used to find and rank the candidates.
+   */
   public List<? extends SymbolInformation> getSymbols(final String query, final IReferenceFinder.IResourceAccess resourceAccess, final IResourceDescriptions indexData, final CancelIndicator cancelIndicator) {
-    final LinkedList<SymbolInformation> result = CollectionLiterals.<SymbolInformation>newLinkedList();
+    final ArrayList<SymbolInformation> result = CollectionLiterals.<SymbolInformation>newArrayList();
+    final Function1<SymbolInformation, Boolean> _function = (SymbolInformation it) -> {
+      return Boolean.valueOf(result.add(it));
+    };
+    this.getSymbols(query, resourceAccess, indexData, _function, cancelIndicator);
+    return result;
+  }
+  
+  /**
+   * Passes the symbols that match the given query to the acceptor as soon as they are found. The search stops as
+   * soon as the acceptor returns <code>false</code>, and with an
+   * {@link org.eclipse.xtext.service.OperationCanceledError OperationCanceledError} as soon as the request is
+   * cancelled. Once the {@link WorkspaceSymbolIndex symbol index} is initialized, the best ranked symbols are passed
+   * first.
+   * 
+   * @param acceptor returns whether the search should continue
+   * @since 2.14
+   */
+  public void getSymbols(final String query, final IReferenceFinder.IResourceAccess resourceAccess, final IResourceDescriptions indexData, final Function1<? super SymbolInformation, ? extends Boolean> acceptor, final CancelIndicator cancelIndicator) {
+    boolean _isInitialized = this.symbolIndex.isInitialized();
+    if (_isInitialized) {
+      this.getIndexedSymbols(query, resourceAccess, indexData, acceptor, cancelIndicator);
+      return;
+    }
     Iterable<IResourceDescription> _allResourceDescriptions = indexData.getAllResourceDescriptions();
     for (final IResourceDescription resourceDescription : _allResourceDescriptions) {
       {
@@ -51,10 +84,98 @@ public class WorkspaceSymbolService {
         final DocumentSymbolService documentSymbolService = _get;
         if ((documentSymbolService != null)) {
           List<? extends SymbolInformation> _symbols = documentSymbolService.getSymbols(resourceDescription, query, resourceAccess, cancelIndicator);
-          Iterables.<SymbolInformation>addAll(result, _symbols);
+          for (final SymbolInformation symbol : _symbols) {
+            Boolean _apply = acceptor.apply(symbol);
+            boolean _not = (!(_apply).booleanValue());
+            if (_not) {
+              return;
+            }
+          }
         }
       }
     }
-    return result;
+  }
+  
+  /**
+   * Passes the symbols of the candidates that the symbol index found for the query to the acceptor, in the order of
+   * their rank and until the acceptor returns <code>false</code>. Each candidate is checked against
+   * the {@link DocumentSymbolService#filter(org.eclipse.xtext.resource.IEObjectDescription, String) filter} of its language. The symbol of an
+   * exported object is kept until its resource changes, so only the resources of the objects that were not part of
+   * a previous result are read.
+   * 
+   * The candidates are only taken from the symbol index if the given resource descriptions contain the same
+   * description of their resource. Otherwise, the resource is searched like without a symbol index.
+   * 
+   * @since 2.14
+   */
+  protected void getIndexedSymbols(final String query, final IReferenceFinder.IResourceAccess resourceAccess, final IResourceDescriptions indexData, final Function1<? super SymbolInformation, ? extends Boolean> acceptor, final CancelIndicator cancelIndicator) {
+    final LinkedHashSet<IResourceDescription> changedResources = CollectionLiterals.<IResourceDescription>newLinkedHashSet();
+    List<WorkspaceSymbolIndex.Entry> _find = this.symbolIndex.find(query);
+    for (final WorkspaceSymbolIndex.Entry entry : _find) {
+      {
+        this.operationCanceledManager.checkCanceled(cancelIndicator);
+        final IResourceDescription resourceDescription = indexData.getResourceDescription(entry.getResourceDescription().getURI());
+        IResourceDescription _resourceDescription = entry.getResourceDescription();
+        boolean _tripleEquals = (resourceDescription == _resourceDescription);
+        if (_tripleEquals) {
+          final IEObjectDescription description = entry.getDescription();
+          IResourceServiceProvider _resourceServiceProvider = this._registry.getResourceServiceProvider(description.getEObjectURI());
+          DocumentSymbolService _get = null;
+          if (_resourceServiceProvider!=null) {
+            _get=_resourceServiceProvider.<DocumentSymbolService>get(DocumentSymbolService.class);
+          }
+          final DocumentSymbolService documentSymbolService = _get;
+          if (((documentSymbolService != null) && documentSymbolService.filter(description, query))) {
+            SymbolInformation symbol = entry.getSymbol();
+            if ((symbol == null)) {
+              symbol = documentSymbolService.getSymbol(description, resourceAccess);
+              entry.setSymbol(symbol);
+            }
+            if (((symbol != null) && (!(acceptor.apply(symbol)).booleanValue()))) {
+              return;
+            }
+          }
+        } else {
+          if ((resourceDescription != null)) {
+            changedResources.add(resourceDescription);
+          }
+        }
+      }
+    }
+    for (final IResourceDescription resourceDescription : changedResources) {
+      {
+        IResourceServiceProvider _resourceServiceProvider = this._registry.getResourceServiceProvider(resourceDescription.getURI());
+        DocumentSymbolService _get = null;
+        if (_resourceServiceProvider!=null) {
+          _get=_resourceServiceProvider.<DocumentSymbolService>get(DocumentSymbolService.class);
+        }
+        final DocumentSymbolService documentSymbolService = _get;
+        if ((documentSymbolService != null)) {
+          List<? extends SymbolInformation> _symbols = documentSymbolService.getSymbols(resourceDescription, query, resourceAccess, cancelIndicator);
+          for (final SymbolInformation symbol : _symbols) {
+            Boolean _apply = acceptor.apply(symbol);
+            boolean _not = (!(_apply).booleanValue());
+            if (_not) {
+              return;
+            }
+          }
+        }
+      }
+    }
+  }
+  
+  /**
+   * Updates the symbol index with the deltas of a build. The symbol index is initialized with the given resource
+   * descriptions after the first build.
+   * 
+   * @since 2.14
+   */
+  public void afterBuild(final List<IResourceDescription.Delta> deltas, final IResourceDescriptions indexData) {
+    boolean _isInitialized = this.symbolIndex.isInitialized();
+    if (_isInitialized) {
+      this.symbolIndex.update(deltas);
+    } else {
+      this.symbolIndex.initialize(indexData);
+    }
   }
 }
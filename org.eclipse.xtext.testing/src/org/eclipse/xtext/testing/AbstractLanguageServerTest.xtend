@@ -73,6 +73,7 @@ import org.junit.Before
 import org.eclipse.xtext.util.Modules2
 import com.google.inject.Module
 import org.eclipse.xtext.ide.server.concurrent.RequestManager
+import org.eclipse.xtext.ide.server.concurrent.RequestPriority
 import org.eclipse.xtext.util.CancelIndicator
 
 /**
@@ -110,7 +111,7 @@ abstract class AbstractLanguageServerTest implements Endpoint {
 		Modules2.mixin(new ServerModule, [
 			bind(RequestManager).toInstance(new RequestManager() {
 				
-				override <V> runRead((CancelIndicator)=>V request) {
+				override <V> runRead(RequestPriority priority, (CancelIndicator)=>V request) {
 					val result = new CompletableFuture()
 					try {
 						result.complete(request.apply [ false ])
@@ -120,7 +121,7 @@ abstract class AbstractLanguageServerTest implements Endpoint {
 					return result
 				}
 				
-				override <U,V> runWrite(()=>U nonCancellable, (CancelIndicator, U)=>V request) {
+				override protected <U,V> runWrite(()=>U nonCancellable, (CancelIndicator, U)=>V request, boolean coalesce) {
 					val result = new CompletableFuture()
 					try {
 						result.complete(request.apply([ false ], nonCancellable.apply()))
@@ -108,7 +108,7 @@ abstract class AbstractIncrementalBuilderTest {
 				generated.put(source, target)
 			]
 			
-			state = new IndexState(newIndex, indexState.fileMappings.copy)
+			state = new IndexState(newIndex, indexState.fileMappings.copy, indexState.contentHashes.copy)
 		]
 		init.apply(result)
 		return result
@@ -78,6 +78,7 @@ import org.eclipse.xtext.ide.server.LanguageServerImpl;
 import org.eclipse.xtext.ide.server.ServerModule;
 import org.eclipse.xtext.ide.server.UriExtensions;
 import org.eclipse.xtext.ide.server.concurrent.RequestManager;
+import org.eclipse.xtext.ide.server.concurrent.RequestPriority;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
 import org.eclipse.xtext.testing.DefinitionTestConfiguration;
 import org.eclipse.xtext.testing.DocumentHighlightConfiguration;
@@ -202,7 +203,7 @@ public abstract class AbstractLanguageServerTest implements Endpoint {
       AnnotatedBindingBuilder<RequestManager> _bind = it.<RequestManager>bind(RequestManager.class);
       _bind.toInstance(new RequestManager() {
         @Override
-        public <V extends Object> CompletableFuture<V> runRead(final Function1<? super CancelIndicator, ? extends V> request) {
+        public <V extends Object> CompletableFuture<V> runRead(final RequestPriority priority, final Function1<? super CancelIndicator, ? extends V> request) {
           final CompletableFuture<V> result = new CompletableFuture<V>();
           try {
             final CancelIndicator _function = () -> {
@@ -221,7 +222,7 @@ public abstract class AbstractLanguageServerTest implements Endpoint {
         }
         
         @Override
-        public <U extends Object, V extends Object> CompletableFuture<V> runWrite(final Function0<? extends U> nonCancellable, final Function2<? super CancelIndicator, ? super U, ? extends V> request) {
+        protected <U extends Object, V extends Object> CompletableFuture<V> runWrite(final Function0<? extends U> nonCancellable, final Function2<? super CancelIndicator, ? super U, ? extends V> request, final boolean coalesce) {
           final CompletableFuture<V> result = new CompletableFuture<V>();
           try {
             final CancelIndicator _function = () -> {
@@ -25,6 +25,7 @@ import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.URIHandler;
 import org.eclipse.xtext.Constants;
 import org.eclipse.xtext.build.BuildRequest;
+import org.eclipse.xtext.build.ContentHashes;
 import org.eclipse.xtext.build.IncrementalBuilder;
 import org.eclipse.xtext.build.IndexState;
 import org.eclipse.xtext.build.Source2GeneratedMapping;
@@ -158,7 +159,8 @@ public abstract class AbstractIncrementalBuilderTest {
       };
       it.setAfterGenerateFile(_function_4);
       Source2GeneratedMapping _copy = this.indexState.getFileMappings().copy();
-      IndexState _indexState = new IndexState(newIndex, _copy);
+      ContentHashes _copy_1 = this.indexState.getContentHashes().copy();
+      IndexState _indexState = new IndexState(newIndex, _copy, _copy_1);
       it.setState(_indexState);
     };
     final BuildRequest result = ObjectExtensions.<BuildRequest>operator_doubleArrow(_buildRequest, _function);
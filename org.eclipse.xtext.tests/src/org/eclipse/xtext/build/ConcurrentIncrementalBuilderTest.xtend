@@ -0,0 +1,173 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.build
+
+import com.google.inject.Inject
+import com.google.inject.Provider
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.atomic.AtomicInteger
+import org.eclipse.xtext.index.IndexTestLanguageInjectorProvider
+import org.eclipse.xtext.resource.SynchronizedXtextResourceSet
+import org.eclipse.xtext.resource.clustering.DisabledClusteringPolicy
+import org.eclipse.xtext.testing.InjectWith
+import org.eclipse.xtext.testing.XtextRunner
+import org.eclipse.xtext.util.CancelIndicator
+import org.junit.After
+import org.junit.Test
+import org.junit.runner.RunWith
+
+import static org.junit.Assert.*
+
+/**
+ * Runs the incremental builder tests with resources being processed concurrently.
+ */
+@RunWith(XtextRunner)
+@InjectWith(IndexTestLanguageInjectorProvider)
+class ConcurrentIncrementalBuilderTest extends IncrementalBuilderTest {
+
+	@Inject Provider<SynchronizedXtextResourceSet> synchronizedResourceSetProvider
+
+	ExecutorService executor
+
+	override setUp() {
+		super.setUp()
+		executor = Executors.newFixedThreadPool(4)
+		resourceSetProvider = [synchronizedResourceSetProvider.get]
+	}
+
+	@After def void tearDown() {
+		executor.shutdownNow
+	}
+
+	override protected newBuildRequest((BuildRequest)=>void init) {
+		super.newBuildRequest [
+			executorService = executor
+			init.apply(it)
+		]
+	}
+
+	@Test def void testGenerationOrderIsDeterministic() {
+		val files = (0 ..< 20).map [ i |
+			'''src/Filei.indextestlanguage''' - '''
+				foo {
+					entity Ei {IF i > 0foo.Ei - 1 referenceENDIF}
+				}
+			'''
+		].toList
+		val validated = newArrayList
+		val generatedFrom = newArrayList
+		build(newBuildRequest [
+			dirtyFiles = files
+			afterValidate = [ uri, issues |
+				validated += uri
+				this.issues += issues
+				return true
+			]
+			afterGenerateFile = [ source, target |
+				generatedFrom += source
+				generated.put(source, target)
+			]
+		])
+		assertTrue(issues.toString, issues.isEmpty)
+		assertEquals(files, validated)
+		assertEquals(files, generatedFrom)
+		assertEquals(20, indexState.resourceDescriptions.allResourceDescriptions.size)
+		assertEquals(20, indexState.fileMappings.allGenerated.size)
+	}
+
+	@Test def void testIndexIsSameAsSequential() {
+		val files = (0 ..< 20).map [ i |
+			'''src/Filei.indextestlanguage''' - '''
+				foo {
+					entity Ei {IF i > 0foo.Ei - 1 referenceENDIF}
+					IF i % 3 == 0entity Fi {}ENDIF
+				}
+			'''
+		].toList
+		val concurrentIndex = build(newBuildRequest [
+			dirtyFiles = files
+		]).resourceDescriptions
+		indexState = new IndexState
+		val sequentialIndex = build(newBuildRequest [
+			dirtyFiles = files
+			executorService = null
+		]).resourceDescriptions
+		assertEquals(sequentialIndex.allResourceDescriptions.map[getURI].toList, concurrentIndex.allResourceDescriptions.map[getURI].toList)
+		assertEquals(sequentialIndex.exportedObjects.map[name -> EObjectURI].toList, concurrentIndex.exportedObjects.map[name -> EObjectURI].toList)
+	}
+
+	@Test def void testIndexWithoutNodeModel() {
+		val files = (0 ..< 20).map [ i |
+			'''src/Filei.indextestlanguage''' - '''
+				foo {
+					entity Ei {IF i > 0foo.Ei - 1 referenceENDIF}
+				}
+			'''
+		].toList
+		val fullIndex = build(newBuildRequest [
+			dirtyFiles = files
+		]).resourceDescriptions
+		indexState = new IndexState
+		val semanticModelIndex = build(newBuildRequest [
+			dirtyFiles = files
+			indexWithoutNodeModel = true
+		]).resourceDescriptions
+		assertTrue(issues.toString, issues.isEmpty)
+		assertEquals(fullIndex.exportedObjects.map[name -> EObjectURI].toList, semanticModelIndex.exportedObjects.map[name -> EObjectURI].toList)
+		assertEquals(20, indexState.fileMappings.allGenerated.size)
+	}
+
+	@Test def void testCrossReferencesWithinCluster() {
+		val files = (0 ..< 20).map [ i |
+			'''src/Filei.indextestlanguage''' - '''
+				foo {
+					entity Ei {foo.E(i + 1) % 20 next foo.E(i + 19) % 20 previous}
+				}
+			'''
+		].toList
+		build(newBuildRequest [
+			dirtyFiles = files
+		])
+		assertTrue(issues.toString, issues.isEmpty)
+		assertEquals(20, indexState.resourceDescriptions.allResourceDescriptions.size)
+		assertEquals(20, indexState.fileMappings.allGenerated.size)
+	}
+
+	@Test def void testSequentialOperationWaitsForCluster() {
+		val files = (0 ..< 8).map [ i |
+			'''src/Filei.indextestlanguage''' - '''
+				foo {
+					entity Ei {}
+				}
+			'''
+		].toList
+		val context = new BuildContext([languages.getResourceServiceProvider(it)], newBuildRequest[].resourceSet,
+			new IndexState, new DisabledClusteringPolicy, CancelIndicator.NullImpl)
+		val running = new AtomicInteger
+		val result = context.executeClustered(files, executor, [
+			running.incrementAndGet
+			try {
+				Thread.sleep(20)
+				return URI
+			} finally {
+				running.decrementAndGet
+			}
+		], [ resource, uri |
+			assertEquals(resource.URI, uri)
+			return running.get
+		]).toList
+		assertEquals(#[0, 0, 0, 0, 0, 0, 0, 0], result)
+	}
+
+	@Test def void testParallelismIsDerivedFromExecutor() {
+		val indexer = new Indexer
+		assertEquals(4, indexer.getParallelism(newBuildRequest[]))
+		assertEquals(2, indexer.getParallelism(newBuildRequest[parallelism = 2]))
+	}
+}
@@ -334,6 +334,68 @@ class IncrementalBuilderTest extends AbstractIncrementalBuilderTest {
 		assertEquals(1, deleted.size)
 		assertTrue(deleted.containsSuffix('src-gen/A.txt'))
 	}
-
+	
+	@Test def void testSkipUnchangedSources() {
+		build(newBuildRequest [
+			skipUnchangedSources = true
+			dirtyFiles = #[
+				'src/A.indextestlanguage' - '''
+					foo {
+						entity A {}
+					}
+				''',
+				'src/B.indextestlanguage' - '''
+					foo {
+						entity B {}
+					}
+				'''
+			]
+		])
+		assertEquals(2, generated.size)
+		assertNotNull(indexState.contentHashes.getHash(uri('src/A.indextestlanguage')))
+		
+		// touch both files, only B changes
+		val result = incrementalBuilder.build(newBuildRequest [
+			skipUnchangedSources = true
+			dirtyFiles = #[
+				'src/A.indextestlanguage' - '''
+					foo {
+						entity A {}
+					}
+				''',
+				'src/B.indextestlanguage' - '''
+					foo {
+						entity B {}
+						entity C {}
+					}
+				'''
+			]
+			afterGenerateFile = [ source, target |
+				assertEquals(uri('src/B.indextestlanguage'), source)
+			]
+		], [languages.getResourceServiceProvider(it)])
+		assertEquals(#[uri('src/B.indextestlanguage')], result.affectedResources.map[uri])
+	}
+	
+	@Test def void testRecordContentHashes() {
+		build(newBuildRequest [
+			dirtyFiles = #[
+				'src/A.indextestlanguage' - '''
+					foo {
+						entity A {}
+					}
+				'''
+			]
+		])
+		assertNull(indexState.contentHashes.getHash(uri('src/A.indextestlanguage')))
+		
+		build(newBuildRequest [
+			recordContentHashes = true
+			dirtyFiles = #[
+				uri('src/A.indextestlanguage')
+			]
+		])
+		assertNotNull(indexState.contentHashes.getHash(uri('src/A.indextestlanguage')))
+	}
 	
 }
@@ -0,0 +1,235 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.nodemodel;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import org.eclipse.emf.common.util.TreeIterator;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.XtextStandaloneSetup;
+import org.eclipse.xtext.nodemodel.impl.CompactNodeModel;
+import org.eclipse.xtext.nodemodel.impl.RootNode;
+import org.eclipse.xtext.nodemodel.impl.SerializableNodeModel;
+import org.eclipse.xtext.nodemodel.impl.SyntheticCompositeNode;
+import org.eclipse.xtext.nodemodel.serialization.SerializationConversionContext;
+import org.eclipse.xtext.nodemodel.util.NodeModelUtils;
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.tests.AbstractXtextTests;
+import org.junit.Test;
+
+import com.google.common.collect.Iterables;
+
+public class CompactNodeModelTest extends AbstractXtextTests {
+
+	private static final String GRAMMAR = "grammar foo.Bar with org.eclipse.xtext.common.Terminals\n"
+			+ "generate foo 'bar'\n"
+			+ "/* the model */\n"
+			+ "Model : elements+=Element* ; // trailing comment\n"
+			+ "Element : 'element' name=ID ('extends' superType=[Element])? | Foo ;\n"
+			+ "Foo returns Element : {Foo} 'foo' (name=ID | name=STRING) ;\n";
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		with(new XtextStandaloneSetup());
+	}
+
+	@Test public void testCompact() throws Exception {
+		XtextResource resource = getResourceFromString(GRAMMAR);
+		ICompositeNode original = resource.getParseResult().getRootNode();
+		assertFalse(Iterables.isEmpty(Iterables.filter(original.getAsTreeIterable(), SyntheticCompositeNode.class)));
+		List<Object> semanticElements = getSemanticElements(original);
+		assertTrue(resource.compactNodeModel());
+		ICompositeNode compact = resource.getParseResult().getRootNode();
+		assertTrue(CompactNodeModel.isCompact(compact));
+		assertEquivalent(original, compact);
+		assertEquals(semanticElements, getSemanticElements(compact));
+		assertEquals(compact, NodeModelUtils.getNode(resource.getContents().get(0)));
+		for (TreeIterator<EObject> iterator = resource.getAllContents(); iterator.hasNext();) {
+			EObject object = iterator.next();
+			ICompositeNode node = NodeModelUtils.getNode(object);
+			if (node != null) {
+				assertTrue(CompactNodeModel.isCompact(node));
+				assertSame(object, node.getSemanticElement());
+			}
+		}
+	}
+
+	@Test public void testFindLeafNodeAtOffset() throws Exception {
+		XtextResource resource = getResourceFromString(GRAMMAR);
+		ICompositeNode original = resource.getParseResult().getRootNode();
+		resource.compactNodeModel();
+		ICompositeNode compact = resource.getParseResult().getRootNode();
+		for (int offset = 0; offset <= GRAMMAR.length(); offset++) {
+			ILeafNode expected = NodeModelUtils.findLeafNodeAtOffset(original, offset);
+			ILeafNode actual = NodeModelUtils.findLeafNodeAtOffset(compact, offset);
+			if (expected == null) {
+				assertNull(actual);
+			} else {
+				assertEquivalentNode(expected, actual);
+			}
+			assertEquals(NodeModelUtils.getLineAndColumn(original, offset), NodeModelUtils.getLineAndColumn(compact, offset));
+		}
+		Iterator<INode> originalChildren = original.getChildren().iterator();
+		for (INode child : compact.getChildren()) {
+			INode originalChild = originalChildren.next();
+			for (int offset = originalChild.getTotalOffset() - 1; offset <= originalChild.getTotalEndOffset(); offset++) {
+				ILeafNode expected = NodeModelUtils.findLeafNodeAtOffset(originalChild, offset);
+				ILeafNode actual = NodeModelUtils.findLeafNodeAtOffset(child, offset);
+				if (expected == null) {
+					assertNull(actual);
+				} else {
+					assertEquivalentNode(expected, actual);
+				}
+			}
+		}
+	}
+
+	@Test public void testSyntaxErrors() throws Exception {
+		XtextResource resource = getResourceFromStringAndExpect("grammar foo.Bar with org.eclipse.xtext.common.Terminals\n"
+				+ "generate foo 'bar'\n"
+				+ "Model : name=ID ;;\n"
+				+ "Foo : 'foo' (name=ID ;", EXPECT_ERRORS);
+		ICompositeNode original = resource.getParseResult().getRootNode();
+		int syntaxErrors = Iterables.size(resource.getParseResult().getSyntaxErrors());
+		assertTrue(syntaxErrors > 0);
+		List<Object> semanticElements = getSemanticElements(original);
+		assertTrue(resource.compactNodeModel());
+		assertEquivalent(original, resource.getParseResult().getRootNode());
+		assertEquals(semanticElements, getSemanticElements(resource.getParseResult().getRootNode()));
+		assertEquals(syntaxErrors, Iterables.size(resource.getParseResult().getSyntaxErrors()));
+	}
+
+	@Test public void testExpand() throws Exception {
+		XtextResource resource = getResourceFromString(GRAMMAR);
+		ICompositeNode original = resource.getParseResult().getRootNode();
+		List<Object> semanticElements = getSemanticElements(original);
+		resource.compactNodeModel();
+		resource.expandNodeModel();
+		ICompositeNode expanded = resource.getParseResult().getRootNode();
+		assertTrue(expanded instanceof RootNode);
+		assertNotSame(original, expanded);
+		assertEquivalent(original, expanded);
+		assertEquals(semanticElements, getSemanticElements(expanded));
+		assertSame(expanded, NodeModelUtils.getNode(resource.getContents().get(0)));
+		getInvariantChecker().checkInvariant(expanded);
+	}
+
+	@Test public void testSerializableNodeModel() throws Exception {
+		XtextResource resource = getResourceFromString(GRAMMAR);
+		byte[] expected = serialize(resource);
+		resource.compactNodeModel();
+		assertTrue(expected.length > 0);
+		assertArrayEquals(expected, serialize(resource));
+		assertTrue(CompactNodeModel.isCompact(resource.getParseResult().getRootNode()));
+	}
+
+	@Test public void testLoadOption() throws Exception {
+		XtextResourceSet resourceSet = get(XtextResourceSet.class);
+		resourceSet.setClasspathURIContext(getClass());
+		XtextResource resource = (XtextResource) getResourceFactory().createResource(URI.createURI("mytestmodel.xtext"));
+		resourceSet.getResources().add(resource);
+		resource.load(getAsStream(GRAMMAR), Collections.singletonMap(XtextResource.OPTION_COMPACT_NODE_MODEL, Boolean.TRUE));
+		assertTrue(resource.getErrors().isEmpty());
+		assertTrue(CompactNodeModel.isCompact(NodeModelUtils.getNode(resource.getContents().get(0))));
+
+		int offset = GRAMMAR.indexOf("Model");
+		resource.update(offset, "Model".length(), "Root");
+		assertFalse(CompactNodeModel.isCompact(resource.getParseResult().getRootNode()));
+		assertEquals(GRAMMAR.replace("Model :", "Root :"), resource.getParseResult().getRootNode().getText());
+	}
+
+	private byte[] serialize(XtextResource resource) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream out = new DataOutputStream(bytes);
+		new SerializableNodeModel(resource).writeObjectData(out, new SerializationConversionContext(resource));
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * The semantic elements of the nodes, which are detached from the original nodes by compacting the node model.
+	 */
+	private List<Object> getSemanticElements(INode root) {
+		List<Object> result = new ArrayList<Object>();
+		for (INode node : root.getAsTreeIterable()) {
+			result.add(node.getSemanticElement());
+			result.add(node.hasDirectSemanticElement());
+		}
+		return result;
+	}
+
+	private void assertEquivalent(INode expected, INode actual) {
+		Iterator<INode> expectedIterator = expected.getAsTreeIterable().iterator();
+		Iterator<INode> actualIterator = actual.getAsTreeIterable().iterator();
+		while (expectedIterator.hasNext()) {
+			assertTrue(actualIterator.hasNext());
+			assertEquivalentNode(expectedIterator.next(), actualIterator.next());
+		}
+		assertFalse(actualIterator.hasNext());
+		Iterator<INode> expectedReverse = expected.getAsTreeIterable().reverse().iterator();
+		Iterator<INode> actualReverse = actual.getAsTreeIterable().reverse().iterator();
+		while (expectedReverse.hasNext()) {
+			assertEquivalentNode(expectedReverse.next(), actualReverse.next());
+		}
+		assertFalse(actualReverse.hasNext());
+	}
+
+	private void assertEquivalentNode(INode expected, INode actual) {
+		assertEquals(expected instanceof ILeafNode, actual instanceof ILeafNode);
+		assertSame(expected.getGrammarElement(), actual.getGrammarElement());
+		assertEquals(expected.getSyntaxErrorMessage(), actual.getSyntaxErrorMessage());
+		assertEquals(expected.getTotalOffset(), actual.getTotalOffset());
+		assertEquals(expected.getTotalLength(), actual.getTotalLength());
+		assertEquals(expected.getOffset(), actual.getOffset());
+		assertEquals(expected.getLength(), actual.getLength());
+		assertEquals(expected.getEndOffset(), actual.getEndOffset());
+		assertEquals(expected.getTextRegionWithLineInformation(), actual.getTextRegionWithLineInformation());
+		assertEquals(expected.getTotalTextRegionWithLineInformation(), actual.getTotalTextRegionWithLineInformation());
+		assertEquals(expected.getTotalStartLine(), actual.getTotalStartLine());
+		assertEquals(expected.getTotalEndLine(), actual.getTotalEndLine());
+		assertEquals(expected.getStartLine(), actual.getStartLine());
+		assertEquals(expected.getEndLine(), actual.getEndLine());
+		assertEquals(expected.getText(), actual.getText());
+		assertEquals(expected.hasSiblings(), actual.hasSiblings());
+		assertEquals(expected.hasPreviousSibling(), actual.hasPreviousSibling());
+		assertEquals(expected.hasNextSibling(), actual.hasNextSibling());
+		assertEquals(expected.getParent() == null, actual.getParent() == null);
+		if (expected.getParent() != null) {
+			assertSame(expected.getParent().getGrammarElement(), actual.getParent().getGrammarElement());
+			assertEquals(expected.getParent().getTotalOffset(), actual.getParent().getTotalOffset());
+		}
+		assertEquals(expected.getRootNode() == expected, actual.getRootNode().equals(actual));
+		if (expected.hasNextSibling()) {
+			assertEquals(actual, actual.getNextSibling().getPreviousSibling());
+		}
+		if (expected instanceof ILeafNode) {
+			assertEquals(((ILeafNode) expected).isHidden(), ((ILeafNode) actual).isHidden());
+		} else {
+			ICompositeNode expectedComposite = (ICompositeNode) expected;
+			ICompositeNode actualComposite = (ICompositeNode) actual;
+			assertEquals(expectedComposite.getLookAhead(), actualComposite.getLookAhead());
+			assertEquals(expectedComposite.hasChildren(), actualComposite.hasChildren());
+			assertEquals(Iterables.size(expectedComposite.getChildren()), Iterables.size(actualComposite.getChildren()));
+			assertEquals(Iterables.size(expected.getLeafNodes()), Iterables.size(actual.getLeafNodes()));
+			if (expectedComposite.hasChildren()) {
+				assertEquals(actual, actualComposite.getFirstChild().getParent());
+				assertEquals(actual, actualComposite.getLastChild().getParent());
+				assertSame(expectedComposite.getLastChild().getGrammarElement(), actualComposite.getLastChild().getGrammarElement());
+			}
+		}
+	}
+
+}
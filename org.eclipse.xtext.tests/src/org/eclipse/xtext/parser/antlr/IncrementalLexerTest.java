@@ -0,0 +1,133 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.parser.antlr;
+
+import java.io.StringReader;
+import java.util.Random;
+
+import org.eclipse.xtext.XtextRuntimeModule;
+import org.eclipse.xtext.XtextStandaloneSetup;
+import org.eclipse.xtext.nodemodel.util.NodeModelUtils;
+import org.eclipse.xtext.parser.IParseResult;
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.tests.AbstractXtextTests;
+import org.eclipse.xtext.util.ReplaceRegion;
+import org.junit.Test;
+
+import com.google.inject.Binder;
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.google.inject.name.Names;
+
+public class IncrementalLexerTest extends AbstractXtextTests {
+
+	private static final String GRAMMAR = "grammar foo.Bar with org.eclipse.xtext.common.Terminals\n"
+			+ "generate foo 'bar'\n"
+			+ "/* the model */\n"
+			+ "Model : elements+=Element* ; // trailing comment\n"
+			+ "Element : 'element' name=ID ('extends' superType=[Element])? | Foo ;\n"
+			+ "Foo returns Element : {Foo} 'foo' (name=ID | name=STRING) ;\n";
+
+	private static final String[] SNIPPETS = { "", " ", "\n", "a", "Foo", "'", "\"", "/*", "*/", "//", ":", ";", "12", "^",
+			"\u00e4" };
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		with(new XtextStandaloneSetup() {
+			@Override
+			public Injector createInjector() {
+				return Guice.createInjector(new XtextRuntimeModule() {
+					@SuppressWarnings("unused")
+					public void configureIncrementalLexing(Binder binder) {
+						binder.bindConstant().annotatedWith(Names.named(IncrementalLexer.INCREMENTAL_LEXING)).to(true);
+					}
+				});
+			}
+		});
+	}
+
+	@Test public void testLex() throws Exception {
+		IncrementalLexer incrementalLexer = get(IncrementalLexer.class);
+		Random random = new Random(42);
+		IncrementalLexer.Tokens tokens = incrementalLexer.lex(newLexer(), GRAMMAR);
+		assertEquals(incrementalLexer.lex(newLexer(), GRAMMAR), tokens);
+		for (int i = 0; i < 500; i++) {
+			String text = tokens.getText();
+			int offset = random.nextInt(text.length() + 1);
+			int length = random.nextInt(Math.min(8, text.length() - offset) + 1);
+			ReplaceRegion replaceRegion = new ReplaceRegion(offset, length, SNIPPETS[random.nextInt(SNIPPETS.length)]);
+			tokens = incrementalLexer.lex(newLexer(), tokens, replaceRegion);
+			assertEquals(replaceRegion.toString(), incrementalLexer.lex(newLexer(), tokens.getText()), tokens);
+			if (i % 50 == 49) {
+				tokens = incrementalLexer.lex(newLexer(), GRAMMAR);
+			}
+		}
+	}
+
+	@Test public void testReparse() throws Exception {
+		XtextResource resource = getResourceFromString(GRAMMAR);
+		IncrementalLexer incrementalLexer = get(IncrementalLexer.class);
+		assertNotNull(incrementalLexer.getTokens(resource.getParseResult()));
+		update(resource, GRAMMAR.indexOf("Model :"), "Model".length(), "Root");
+		update(resource, GRAMMAR.indexOf("'bar'"), 0, "\n");
+		update(resource, GRAMMAR.indexOf("/*"), 0, "/*");
+		update(resource, GRAMMAR.indexOf("/*"), 2, "");
+		update(resource, resource.getParseResult().getRootNode().getText().lastIndexOf(';'), 1, "");
+		update(resource, resource.getParseResult().getRootNode().getText().length(), 0, ";\nBar: 'bar';");
+	}
+
+	@Test public void testPartialReparseLexesOnDemand() throws Exception {
+		XtextResource resource = getResourceFromString(GRAMMAR);
+		IncrementalLexer incrementalLexer = get(IncrementalLexer.class);
+		int offset = GRAMMAR.indexOf("elements");
+		resource.update(offset, 0, "x");
+		resource.update(offset + 1, 0, "y");
+		resource.update(GRAMMAR.indexOf("name=ID") + 2, 0, "z");
+		IParseResult parseResult = resource.getParseResult();
+		assertNull(incrementalLexer.getTokens(parseResult));
+		String newText = parseResult.getRootNode().getText();
+		assertEquals(incrementalLexer.lex(newLexer(), newText), incrementalLexer.getTokens(parseResult, newLexer()));
+		assertNotNull(incrementalLexer.getTokens(parseResult));
+	}
+
+	private void update(XtextResource resource, int offset, int length, String text) throws Exception {
+		resource.update(offset, length, text);
+		IParseResult parseResult = resource.getParseResult();
+		String newText = parseResult.getRootNode().getText();
+		IncrementalLexer incrementalLexer = get(IncrementalLexer.class);
+		assertEquals(incrementalLexer.lex(newLexer(), newText), incrementalLexer.getTokens(parseResult, newLexer()));
+		IParseResult expected = getParser().parse(new StringReader(newText));
+		assertEquals(NodeModelUtils.compactDump(expected.getRootNode(), true),
+				NodeModelUtils.compactDump(parseResult.getRootNode(), true));
+		assertEquals(expected.hasSyntaxErrors(), parseResult.hasSyntaxErrors());
+	}
+
+	private void assertEquals(IncrementalLexer.Tokens expected, IncrementalLexer.Tokens actual) {
+		assertEquals(null, expected, actual);
+	}
+
+	private void assertEquals(String message, IncrementalLexer.Tokens expected, IncrementalLexer.Tokens actual) {
+		assertEquals(message, expected.getText(), actual.getText());
+		assertEquals(message, expected.size(), actual.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(message, expected.getType(i), actual.getType(i));
+			assertEquals(message, expected.getChannel(i), actual.getChannel(i));
+			assertEquals(message, expected.getStartIndex(i), actual.getStartIndex(i));
+			assertEquals(message, expected.getStopIndex(i), actual.getStopIndex(i));
+			assertEquals(message, expected.getLine(i), actual.getLine(i));
+			assertEquals(message, expected.getCharPositionInLine(i), actual.getCharPositionInLine(i));
+			assertEquals(message, expected.getErrorMessage(i), actual.getErrorMessage(i));
+		}
+	}
+
+	private Lexer newLexer() {
+		return ((AbstractAntlrParser) getParser()).getLexerProvider().get();
+	}
+
+}
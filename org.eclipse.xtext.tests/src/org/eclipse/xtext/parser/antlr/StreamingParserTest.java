@@ -0,0 +1,119 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.parser.antlr;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.antlr.runtime.ANTLRStringStream;
+import org.antlr.runtime.Token;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.Grammar;
+import org.eclipse.xtext.XtextStandaloneSetup;
+import org.eclipse.xtext.nodemodel.util.NodeModelUtils;
+import org.eclipse.xtext.parser.IParseResult;
+import org.eclipse.xtext.tests.AbstractXtextTests;
+import org.eclipse.xtext.util.IAcceptor;
+import org.junit.Test;
+
+public class StreamingParserTest extends AbstractXtextTests {
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		with(new XtextStandaloneSetup());
+	}
+
+	@Test public void testParseStreaming() throws Exception {
+		StringBuilder builder = new StringBuilder("grammar foo.Bar with org.eclipse.xtext.common.Terminals\n"
+				+ "generate foo 'bar'\n"
+				+ "Model : elements+=Element* ;\n");
+		for (int i = 0; i < 2000; i++) {
+			builder.append("/* rule ").append(i).append(" */\n");
+			builder.append("Element").append(i).append(" : 'element' name=ID ('extends' superType=[Element").append(i)
+					.append("])? | {Foo} 'foo' (name=ID | name=STRING) ; // ").append(i).append('\n');
+		}
+		assertStreamingParse(builder.toString());
+	}
+
+	@Test public void testSyntaxErrors() throws Exception {
+		assertStreamingParse("grammar foo.Bar with org.eclipse.xtext.common.Terminals\n"
+				+ "generate foo 'bar'\n"
+				+ "Model : name=ID ;;\n"
+				+ "Foo : 'foo' (name=ID ;\n"
+				+ "Bar : 'bar' ;");
+	}
+
+	@Test public void testLexStreaming() throws Exception {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 200; i++) {
+			builder.append("Element").append(i).append(" : /* ").append(i).append(" */ 'element' name=ID ;\n");
+		}
+		String text = builder.toString();
+		XtextTokenStream expected = new XtextTokenStream(newLexer(new ANTLRStringStream(text)), Token.DEFAULT_CHANNEL);
+		expected.LT(1);
+		StreamingCharStream charStream = new StreamingCharStream(new StringReader(text), 16);
+		StreamingTokenStream actual = new StreamingTokenStream(newLexer(charStream), getTokenDefProvider());
+		for (int i = 0; actual.LA(1) != Token.EOF; i++) {
+			int index = actual.index();
+			Token token = actual.LT(1);
+			assertEquals(expected.get(index).getText(), token.getText());
+			assertEquals(expected.get(index).getLine(), token.getLine());
+			assertEquals(expected.getTokenStartIndex(index), actual.getTokenStartIndex(index));
+			actual.consume();
+			if (i % 3 == 0) {
+				actual.discardTokens(index);
+			}
+		}
+		assertEquals(expected.size(), actual.size());
+		try {
+			charStream.substring(0, 1);
+			fail("Expected IllegalStateException");
+		} catch (IllegalStateException e) {
+			// expected
+		}
+	}
+
+	private void assertStreamingParse(String text) throws Exception {
+		IParseResult expected = getParser().parse(new StringReader(text));
+		final List<EObject> elements = new ArrayList<EObject>();
+		IParseResult actual = ((AbstractAntlrParser) getParser()).parseStreaming(new StringReader(text),
+				new IAcceptor<EObject>() {
+					@Override
+					public void accept(EObject element) {
+						assertNull(element.eContainer());
+						assertNull(NodeModelUtils.getNode(element));
+						elements.add(element);
+					}
+				});
+		Grammar expectedGrammar = (Grammar) expected.getRootASTElement();
+		List<EObject> expectedElements = new ArrayList<EObject>();
+		expectedElements.addAll(expectedGrammar.getMetamodelDeclarations());
+		expectedElements.addAll(expectedGrammar.getRules());
+		assertTrue(EcoreUtil.equals(expectedElements, elements));
+		Grammar actualGrammar = (Grammar) actual.getRootASTElement();
+		assertEquals(expectedGrammar.getName(), actualGrammar.getName());
+		assertTrue(actualGrammar.getRules().isEmpty());
+		assertNull(NodeModelUtils.getNode(actualGrammar));
+		assertFalse(actual.getRootNode().hasChildren());
+		assertEquals(expected.hasSyntaxErrors(), actual.hasSyntaxErrors());
+	}
+
+	private Lexer newLexer(org.antlr.runtime.CharStream charStream) {
+		Lexer lexer = ((AbstractAntlrParser) getParser()).getLexerProvider().get();
+		lexer.setCharStream(charStream);
+		return lexer;
+	}
+
+	private ITokenDefProvider getTokenDefProvider() {
+		return ((AbstractAntlrParser) getParser()).getTokenDefProvider();
+	}
+
+}
@@ -7,9 +7,11 @@
  *******************************************************************************/
 package org.eclipse.xtext.parser.antlr;
 
+import org.antlr.runtime.ANTLRStringStream;
 import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.Token;
 import org.antlr.runtime.TokenSource;
+import org.eclipse.xtext.parser.antlr.internal.InternalXtextLexer;
 import org.junit.Assert;
 import org.junit.Test;
 
@@ -63,6 +65,39 @@ public class XtextTokenStreamTest extends Assert implements TokenSource {
 		doTestLookahead(1, 2500000);
 	}
 	
+	@Test
+	public void testLexerTokens() {
+		final String text = "grammar foo.Bar /* comment */ with org.eclipse.xtext.common.Terminals\n\tgenerate foo 'bar' # ;";
+		final InternalXtextLexer lexer = new InternalXtextLexer(new ANTLRStringStream(text));
+		XtextTokenStream expected = new XtextTokenStream(new TokenSource() {
+			@Override
+			public Token nextToken() {
+				return lexer.nextToken();
+			}
+
+			@Override
+			public String getSourceName() {
+				return null;
+			}
+		}, Token.DEFAULT_CHANNEL);
+		XtextTokenStream actual = new XtextTokenStream(new InternalXtextLexer(new ANTLRStringStream(text)), Token.DEFAULT_CHANNEL);
+		assertEquals(expected.size(), actual.size());
+		assertEquals(text, actual.toString());
+		for (int i = 0; i < expected.size(); i++) {
+			CommonToken expectedToken = (CommonToken) expected.get(i);
+			assertEquals(expectedToken.getType(), actual.getTokenType(i));
+			assertEquals(expectedToken.getChannel(), actual.getTokenChannel(i));
+			assertEquals(expectedToken.getStartIndex(), actual.getTokenStartIndex(i));
+			assertEquals(expectedToken.getStopIndex(), actual.getTokenStopIndex(i));
+			CommonToken actualToken = (CommonToken) actual.get(i);
+			assertSame(actualToken, actual.get(i));
+			assertEquals(expectedToken.toString(), actualToken.toString());
+			assertEquals(expectedToken.getText(), actualToken.getText());
+			assertEquals(lexer.getErrorMessage(expectedToken), actual.getLexerErrorMessage(actualToken));
+		}
+		assertEquals(expected.LT(1).getType(), actual.LT(1).getType());
+	}
+
 	protected void doTestLookahead(int lookAhead, int tokenCount) {
 		this.tokenCount = tokenCount;
 		XtextTokenStream stream = new XtextTokenStream(this, Token.DEFAULT_CHANNEL);
@@ -0,0 +1,117 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.Grammar;
+import org.eclipse.xtext.XtextStandaloneSetup;
+import org.eclipse.xtext.nodemodel.util.NodeModelUtils;
+import org.eclipse.xtext.tests.AbstractXtextTests;
+import org.eclipse.xtext.util.Files;
+import org.junit.Test;
+
+public class IndexOnlyResourceTest extends AbstractXtextTests {
+
+	private static final String GRAMMAR = "grammar foo.Bar with org.eclipse.xtext.common.Terminals\n"
+			+ "generate foo 'bar'\n"
+			+ "/* the model */\n"
+			+ "Model : elements+=Element* ; // trailing comment\n"
+			+ "Element : 'element' name=ID ('extends' superType=[Element])? | Foo ;\n"
+			+ "Foo returns Element : {Foo} 'foo' (name=ID | name=STRING) ;\n";
+
+	private static final Map<String, Boolean> INDEX_ONLY = Collections.singletonMap(XtextResource.OPTION_INDEX_ONLY,
+			Boolean.TRUE);
+
+	@Override
+	public void setUp() throws Exception {
+		super.setUp();
+		with(new XtextStandaloneSetup());
+	}
+
+	@Test public void testExportedObjects() throws Exception {
+		URI uri = createFile(GRAMMAR);
+		XtextResource resource = loadResource(uri, INDEX_ONLY);
+		assertTrue(resource.isIndexOnly());
+		Grammar grammar = (Grammar) resource.getContents().get(0);
+		assertEquals("foo.Bar", grammar.getName());
+		assertEquals(3, grammar.getRules().size());
+		assertNull(NodeModelUtils.getNode(grammar));
+		assertNull(NodeModelUtils.getNode(grammar.getRules().get(0)));
+		assertEquals(getExportedObjects(loadResource(uri, null)), getExportedObjects(resource));
+		assertTrue(resource.isIndexOnly());
+	}
+
+	@Test public void testParseCompletely() throws Exception {
+		XtextResource resource = loadResource(createFile(GRAMMAR), INDEX_ONLY);
+		assertTrue(resource.getErrors().isEmpty());
+		assertFalse(resource.isIndexOnly());
+		Grammar grammar = (Grammar) resource.getContents().get(0);
+		assertNotNull(NodeModelUtils.getNode(grammar));
+		assertEquals(GRAMMAR, resource.getParseResult().getRootNode().getText());
+		assertFalse(grammar.getUsedGrammars().get(0).eIsProxy());
+		resource.update(GRAMMAR.indexOf("Model"), "Model".length(), "Root");
+		assertEquals("Root", ((Grammar) resource.getContents().get(0)).getRules().get(0).getName());
+	}
+
+	@Test public void testSyntaxErrors() throws Exception {
+		String model = "grammar foo.Bar with org.eclipse.xtext.common.Terminals\n"
+				+ "generate foo 'bar'\n"
+				+ "Model : name=ID ;;\n"
+				+ "Foo : 'foo' (name=ID ;";
+		URI uri = createFile(model);
+		XtextResource expected = loadResource(uri, null);
+		XtextResource resource = loadResource(uri, INDEX_ONLY);
+		assertTrue(resource.isIndexOnly());
+		assertFalse(expected.getErrors().isEmpty());
+		assertEquals(expected.getErrors().size(), resource.getErrors().size());
+		assertFalse(resource.isIndexOnly());
+	}
+
+	@Test public void testLoadFromStream() throws Exception {
+		XtextResourceSet resourceSet = get(XtextResourceSet.class);
+		resourceSet.setClasspathURIContext(getClass());
+		XtextResource resource = (XtextResource) getResourceFactory().createResource(URI.createURI("mytestmodel.xtext"));
+		resourceSet.getResources().add(resource);
+		resource.load(getAsStream(GRAMMAR), INDEX_ONLY);
+		assertFalse(resource.isIndexOnly());
+		assertNotNull(NodeModelUtils.getNode(resource.getContents().get(0)));
+	}
+
+	private URI createFile(String model) throws Exception {
+		File file = File.createTempFile("mytestmodel", ".xtext");
+		file.deleteOnExit();
+		Files.writeStringIntoFile(file.getAbsolutePath(), model);
+		return URI.createFileURI(file.getAbsolutePath());
+	}
+
+	private XtextResource loadResource(URI uri, Map<String, Boolean> options) throws Exception {
+		XtextResourceSet resourceSet = get(XtextResourceSet.class);
+		resourceSet.setClasspathURIContext(getClass());
+		if (options != null) {
+			resourceSet.getLoadOptions().putAll(options);
+		}
+		return (XtextResource) resourceSet.getResource(uri, true);
+	}
+
+	private List<String> getExportedObjects(XtextResource resource) {
+		IResourceDescription description = resource.getResourceServiceProvider().getResourceDescriptionManager()
+				.getResourceDescription(resource);
+		List<String> result = new ArrayList<String>();
+		for (IEObjectDescription object : description.getExportedObjects()) {
+			result.add(object.getQualifiedName() + " " + object.getEClass().getName() + " " + object.getEObjectURI());
+		}
+		return result;
+	}
+
+}
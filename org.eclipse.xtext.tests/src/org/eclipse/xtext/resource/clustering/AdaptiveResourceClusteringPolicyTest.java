@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.clustering;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+import org.eclipse.xtext.resource.persistence.SerializableReferenceDescription;
+import org.eclipse.xtext.resource.persistence.SerializableResourceDescription;
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+
+public class AdaptiveResourceClusteringPolicyTest {
+
+	private static class TestPolicy extends AdaptiveResourceClusteringPolicy {
+		long retainedMemory;
+		long collectionCount;
+
+		@Override
+		protected long getRetainedMemory() {
+			return retainedMemory;
+		}
+
+		@Override
+		protected long getCollectionCount() {
+			return collectionCount;
+		}
+	}
+
+	@Test
+	public void testContinueProcessing() {
+		TestPolicy policy = new TestPolicy();
+		ResourceSetImpl resourceSet = new ResourceSetImpl();
+		URI next = URI.createURI("file:/next.foo");
+		long maxMemory = Runtime.getRuntime().maxMemory();
+		policy.retainedMemory = maxMemory / 100 * 90;
+		assertTrue(policy.continueProcessing(resourceSet, next, 0));
+		assertFalse(policy.continueProcessing(resourceSet, next, 1));
+
+		// no collection since the last cap, so the measurement is outdated
+		assertTrue(policy.continueProcessing(resourceSet, next, 1));
+		policy.collectionCount++;
+		assertFalse(policy.continueProcessing(resourceSet, next, 1));
+		policy.collectionCount++;
+		policy.retainedMemory = maxMemory / 100 * 10;
+		assertTrue(policy.continueProcessing(resourceSet, next, 1));
+	}
+
+	@Test
+	public void testOrderByLocality() {
+		URI a = URI.createURI("file:/a.foo");
+		URI b = URI.createURI("file:/b.foo");
+		URI c = URI.createURI("file:/c.foo");
+		URI d = URI.createURI("file:/d.foo");
+		URI e = URI.createURI("file:/e.foo");
+		// a -> c, d -> a, b and e are unrelated
+		ResourceDescriptionsData index = new ResourceDescriptionsData(Lists.newArrayList(
+				newDescription(a, c),
+				newDescription(b),
+				newDescription(d, a)));
+		List<URI> ordered = Lists.newArrayList(new AdaptiveResourceClusteringPolicy()
+				.orderByLocality(Lists.newArrayList(a, b, c, d, e), index));
+		assertEquals(Lists.newArrayList(a, d, c, b, e), ordered);
+	}
+
+	private IResourceDescription newDescription(URI uri, URI... targets) {
+		SerializableResourceDescription result = new SerializableResourceDescription();
+		result.setURI(uri);
+		List<SerializableReferenceDescription> references = new ArrayList<>();
+		for (URI target : targets) {
+			SerializableReferenceDescription reference = new SerializableReferenceDescription();
+			reference.setSourceEObjectUri(uri.appendFragment("/"));
+			reference.setTargetEObjectUri(target.appendFragment("/"));
+			references.add(reference);
+		}
+		result.setReferences(references);
+		return result;
+	}
+
+}
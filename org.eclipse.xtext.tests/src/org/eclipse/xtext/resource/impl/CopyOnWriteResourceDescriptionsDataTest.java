@@ -0,0 +1,154 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.persistence.SerializableEObjectDescription;
+import org.eclipse.xtext.resource.persistence.SerializableResourceDescription;
+import org.junit.Test;
+
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+
+public class CopyOnWriteResourceDescriptionsDataTest {
+
+	@Test
+	public void testLookup() {
+		IResourceDescription a = newDescription("a", "Foo", "Bar");
+		IResourceDescription b = newDescription("b", "foo");
+		CopyOnWriteResourceDescriptionsData data = new CopyOnWriteResourceDescriptionsData(Lists.newArrayList(a, b));
+
+		assertSame(a, data.getResourceDescription(a.getURI()));
+		assertEquals(Sets.newHashSet(a.getURI(), b.getURI()), data.getAllURIs());
+		assertEquals(2, Iterables.size(data.getAllResourceDescriptions()));
+		assertEquals(2, Iterables.size(data.getExportedObjects(EcorePackage.Literals.EATTRIBUTE, QualifiedName.create("FOO"), true)));
+		assertEquals(1, Iterables.size(data.getExportedObjects(EcorePackage.Literals.EATTRIBUTE, QualifiedName.create("foo"), false)));
+		assertEquals(1, Iterables.size(data.getExportedObjects(EcorePackage.Literals.EATTRIBUTE, QualifiedName.create("Bar"), false)));
+
+		data.removeDescription(a.getURI());
+		assertNull(data.getResourceDescription(a.getURI()));
+		assertEquals(1, Iterables.size(data.getExportedObjects(EcorePackage.Literals.EATTRIBUTE, QualifiedName.create("FOO"), true)));
+		assertTrue(Iterables.isEmpty(data.getExportedObjects(EcorePackage.Literals.EATTRIBUTE, QualifiedName.create("Bar"), false)));
+	}
+
+	@Test
+	public void testCopiesAreIndependent() {
+		IResourceDescription a = newDescription("a", "Foo");
+		IResourceDescription b = newDescription("b", "Foo");
+		CopyOnWriteResourceDescriptionsData data = new CopyOnWriteResourceDescriptionsData(Lists.newArrayList(a, b));
+		CopyOnWriteResourceDescriptionsData copy = data.copy();
+
+		IResourceDescription newA = newDescription("a", "Bar");
+		copy.addDescription(newA.getURI(), newA);
+		data.removeDescription(b.getURI());
+
+		assertSame(a, data.getResourceDescription(a.getURI()));
+		assertNull(data.getResourceDescription(b.getURI()));
+		assertEquals(1, Iterables.size(data.getExportedObjects(EcorePackage.Literals.EATTRIBUTE, QualifiedName.create("Foo"), false)));
+		assertTrue(Iterables.isEmpty(data.getExportedObjects(EcorePackage.Literals.EATTRIBUTE, QualifiedName.create("Bar"), false)));
+
+		assertSame(newA, copy.getResourceDescription(a.getURI()));
+		assertSame(b, copy.getResourceDescription(b.getURI()));
+		assertEquals(Collections.singletonList(b.getURI()), uris(copy.getExportedObjects(EcorePackage.Literals.EATTRIBUTE, QualifiedName.create("Foo"), false)));
+		assertEquals(Collections.singletonList(a.getURI()), uris(copy.getExportedObjects(EcorePackage.Literals.EATTRIBUTE, QualifiedName.create("Bar"), false)));
+	}
+
+	@Test
+	public void testHashTrieMap() {
+		Random random = new Random(42);
+		List<HashTrieMap<Key, Integer>> maps = new ArrayList<>();
+		List<Map<Key, Integer>> expectations = new ArrayList<>();
+		maps.add(new HashTrieMap<Key, Integer>());
+		expectations.add(new HashMap<Key, Integer>());
+		for (int i = 0; i < 20000; i++) {
+			int index = random.nextInt(maps.size());
+			HashTrieMap<Key, Integer> map = maps.get(index);
+			Map<Key, Integer> expectation = expectations.get(index);
+			Key key = new Key(random.nextInt(2000));
+			int operation = random.nextInt(10);
+			if (operation == 0 && maps.size() < 20) {
+				maps.add(map.copy());
+				expectations.add(new HashMap<>(expectation));
+			} else if (operation < 4) {
+				assertEquals(expectation.remove(key), map.remove(key));
+			} else {
+				assertEquals(expectation.put(key, i), map.put(key, i));
+			}
+		}
+		for (int i = 0; i < maps.size(); i++) {
+			HashTrieMap<Key, Integer> map = maps.get(i);
+			Map<Key, Integer> expectation = expectations.get(i);
+			assertEquals(expectation.size(), map.size());
+			assertEquals(expectation.keySet(), Sets.newHashSet(map.keys()));
+			for (Map.Entry<Key, Integer> entry : expectation.entrySet()) {
+				assertEquals(entry.getValue(), map.get(entry.getKey()));
+			}
+		}
+	}
+
+	private List<URI> uris(Iterable<IEObjectDescription> objects) {
+		List<URI> result = new ArrayList<>();
+		for (IEObjectDescription object : objects) {
+			result.add(object.getEObjectURI().trimFragment());
+		}
+		return result;
+	}
+
+	private IResourceDescription newDescription(String name, String... exportedNames) {
+		URI uri = URI.createURI("file:/" + name + ".foo");
+		List<SerializableEObjectDescription> objects = new ArrayList<>();
+		for (String exportedName : exportedNames) {
+			SerializableEObjectDescription object = new SerializableEObjectDescription();
+			object.setEObjectURI(uri.appendFragment(exportedName));
+			object.setQualifiedName(QualifiedName.create(exportedName));
+			object.setEClass(EcorePackage.Literals.EATTRIBUTE);
+			object.setUserData(new HashMap<String, String>());
+			objects.add(object);
+		}
+		SerializableResourceDescription result = new SerializableResourceDescription();
+		result.setURI(uri);
+		result.setDescriptions(objects);
+		return result;
+	}
+
+	private static class Key {
+		private final int value;
+
+		Key(int value) {
+			this.value = value;
+		}
+
+		/**
+		 * Groups of four keys share a hash code to provoke collisions.
+		 */
+		@Override
+		public int hashCode() {
+			return (value / 4) * 0x9E3779B1;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return obj instanceof Key && ((Key) obj).value == value;
+		}
+	}
+
+}
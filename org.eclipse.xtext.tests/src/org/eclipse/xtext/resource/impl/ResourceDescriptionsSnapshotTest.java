@@ -0,0 +1,60 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.impl;
+
+import static org.junit.Assert.*;
+
+import java.util.Collections;
+
+import org.eclipse.emf.ecore.resource.impl.ResourceSetImpl;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.junit.Test;
+
+import com.google.common.collect.Sets;
+
+public class ResourceDescriptionsSnapshotTest {
+
+	@Test
+	public void testVersions() {
+		ResourceDescriptionsData a = new ResourceDescriptionsData(Collections.<IResourceDescription>emptySet());
+		ResourceDescriptionsData b = new ResourceDescriptionsData(Collections.<IResourceDescription>emptySet());
+		ResourceDescriptionsSnapshot empty = new ResourceDescriptionsSnapshot();
+		assertEquals(0, empty.getVersion());
+
+		ResourceDescriptionsSnapshot first = empty.withContainer("a", a);
+		assertEquals(1, first.getVersion());
+		assertSame(first, first.withContainer("a", a));
+
+		ResourceDescriptionsSnapshot second = first.withContainer("b", b);
+		assertEquals(2, second.getVersion());
+		assertSame(a, second.getContainer("a"));
+		assertSame(b, second.getContainer("b"));
+		assertEquals(Collections.singleton("a"), first.getContainerHandles());
+		assertEquals(Sets.newHashSet("a", "b"), second.getContainerHandles());
+
+		ResourceDescriptionsSnapshot third = second.withoutContainer("a");
+		assertEquals(3, third.getVersion());
+		assertSame(third, third.withoutContainer("a"));
+		assertNull(third.getContainer("a"));
+		assertSame(a, second.getContainer("a"));
+	}
+
+	@Test
+	public void testResourceDescriptionsShareChunks() {
+		ResourceDescriptionsData a = new ResourceDescriptionsData(Collections.<IResourceDescription>emptySet());
+		ResourceDescriptionsSnapshot snapshot = new ResourceDescriptionsSnapshot().withContainer("a", a);
+		ResourceSetImpl resourceSet = new ResourceSetImpl();
+		ChunkedResourceDescriptions descriptions = snapshot.createResourceDescriptions(resourceSet);
+		assertSame(a, descriptions.getContainer("a"));
+		assertSame(descriptions, ChunkedResourceDescriptions.findInEmfObject(resourceSet));
+
+		descriptions.removeContainer("a");
+		assertSame(a, snapshot.getContainer("a"));
+	}
+
+}
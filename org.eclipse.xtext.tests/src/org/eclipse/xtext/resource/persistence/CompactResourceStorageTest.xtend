@@ -0,0 +1,155 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.persistence
+
+import com.google.common.base.Charsets
+import com.google.common.io.Files
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.nio.ByteBuffer
+import java.util.concurrent.Executors
+import org.eclipse.emf.common.util.URI
+import org.eclipse.xtext.linking.LangATestLanguageStandaloneSetup
+import org.eclipse.xtext.linking.langATestLanguage.Main
+import org.eclipse.xtext.nodemodel.ICompositeNode
+import org.eclipse.xtext.nodemodel.util.NodeModelUtils
+import org.eclipse.xtext.resource.XtextResourceSet
+import org.eclipse.xtext.tests.AbstractXtextTests
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+class CompactResourceStorageTest extends AbstractXtextTests {
+
+	@Rule public val temporaryFolder = new TemporaryFolder
+
+	XtextResourceSet resourceSet
+
+	StorageAwareResource resourceA
+
+	StorageAwareResource resourceB
+
+	override setUp() throws Exception {
+		super.setUp();
+		with(new LangATestLanguageStandaloneSetup());
+		resourceSet = get(XtextResourceSet)
+		resourceA = resourceSet.createResource(URI.createURI("hubba:/bubba.langatestlanguage")) as StorageAwareResource
+		resourceB = resourceSet.createResource(URI.createURI("hubba:/bubba2.langatestlanguage")) as StorageAwareResource
+		resourceB.load(getAsStream('''
+			type B
+		'''), null)
+		resourceA.load(getAsStream('''
+			import 'hubba:/bubba2.langatestlanguage'
+
+			type A extends B
+		'''), null)
+	}
+
+	@Test def void testLoadFromStream() {
+		val facade = get(CompactResourceStorageFacade)
+		val bytes = write(facade.createResourceStorageWritable(new ByteArrayOutputStream))
+		assertEquals(CompactResourceStorageWritable.MAGIC, ByteBuffer.wrap(bytes).getInt)
+		assertLoaded(facade.createResourceStorageLoadable(new ByteArrayInputStream(bytes)))
+	}
+
+	@Test def void testLoadFromBuffer() {
+		val facade = get(CompactResourceStorageFacade)
+		val bytes = write(facade.createResourceStorageWritable(new ByteArrayOutputStream))
+		assertLoaded(facade.createResourceStorageLoadable(ByteBuffer.wrap(bytes)))
+	}
+
+	@Test def void testLoadZipStorage() {
+		val bytes = write(get(ResourceStorageFacade).createResourceStorageWritable(new ByteArrayOutputStream))
+		assertLoaded(get(CompactResourceStorageFacade).createResourceStorageLoadable(new ByteArrayInputStream(bytes)))
+	}
+
+	@Test def void testLoadNodeModelOnDemand() {
+		val facade = get(CompactResourceStorageFacade) => [
+			storeNodeModel = true
+			loadNodeModelOnDemand = true
+		]
+		assertNodeModelLoadedOnDemand(facade)
+	}
+
+	@Test def void testLoadZipNodeModelOnDemand() {
+		val facade = get(ResourceStorageFacade) => [
+			storeNodeModel = true
+			loadNodeModelOnDemand = true
+		]
+		assertNodeModelLoadedOnDemand(facade)
+	}
+
+	@Test def void testLoadNodeModelOnDemandConcurrently() {
+		val facade = get(CompactResourceStorageFacade) => [
+			storeNodeModel = true
+			loadNodeModelOnDemand = true
+		]
+		val file = temporaryFolder.newFile('a.langatestlanguage')
+		Files.write('type A extends A', file, Charsets.UTF_8)
+		val uri = URI.createFileURI(file.absolutePath)
+		val resource = resourceSet.getResource(uri, true) as StorageAwareResource
+		val bytes = write(facade.createResourceStorageWritable(new ByteArrayOutputStream), resource)
+		val loaded = get(XtextResourceSet).createResource(uri) as StorageAwareResource
+		loaded.loadFromStorage(facade.createResourceStorageLoadable(new ByteArrayInputStream(bytes)))
+		val type = (loaded.contents.head as Main).types.head
+		val executor = Executors.newFixedThreadPool(4)
+		try {
+			val futures = (1..8).map[executor.submit[NodeModelUtils.getNode(type).rootNode]].toList
+			val roots = futures.map[get].toSet
+			assertEquals(1, roots.size)
+			assertSame(roots.head, loaded.parseResult.rootNode)
+		} finally {
+			executor.shutdown()
+		}
+	}
+
+	private def void assertNodeModelLoadedOnDemand(ResourceStorageFacade facade) {
+		val file = temporaryFolder.newFile('a.langatestlanguage')
+		Files.write('type A extends A', file, Charsets.UTF_8)
+		val uri = URI.createFileURI(file.absolutePath)
+		val resource = resourceSet.getResource(uri, true) as StorageAwareResource
+		val bytes = write(facade.createResourceStorageWritable(new ByteArrayOutputStream), resource)
+
+		val loaded = get(XtextResourceSet).createResource(uri) as StorageAwareResource
+		loaded.loadFromStorage(facade.createResourceStorageLoadable(new ByteArrayInputStream(bytes)))
+		val type = (loaded.contents.head as Main).types.head
+		assertTrue(type.eAdapters.filter(ICompositeNode).empty)
+
+		val node = NodeModelUtils.getNode(type)
+		assertEquals('type A extends A', node.text)
+		assertFalse(loaded.loadDeferredNodeModel)
+		assertSame(node.rootNode, loaded.parseResult.rootNode)
+	}
+
+	private def byte[] write(ResourceStorageWritable writable) {
+		return write(writable, resourceA)
+	}
+
+	private def byte[] write(ResourceStorageWritable writable, StorageAwareResource resource) {
+		writable.writeResource(resource)
+		return (writable.out as ByteArrayOutputStream).toByteArray
+	}
+
+	private def void assertLoaded(ResourceStorageLoadable loadable) {
+		val resourceC = resourceSet.createResource(URI.createURI("hubba:/bubba3.langatestlanguage")) as StorageAwareResource
+		resourceC.loadFromStorage(loadable)
+
+		val typeC = (resourceC.contents.head as Main).types.head
+		assertEquals('A', typeC.name)
+		assertSame((resourceB.contents.head as Main).types.head, typeC.extends)
+
+		val exported = resourceC.resourceDescription.exportedObjects.toList
+		assertEquals(#['A'], exported.map[name.toString])
+		assertEquals(resourceC.URI, exported.head.EObjectURI.trimFragment)
+
+		val refDesc = resourceC.resourceDescription.referenceDescriptions.head
+		assertSame((resourceB.contents.head as Main).types.head, resourceSet.getEObject(refDesc.targetEObjectUri, false))
+		assertSame(typeC, resourceSet.getEObject(refDesc.sourceEObjectUri, false))
+	}
+
+}
@@ -0,0 +1,135 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.persistence
+
+import java.io.ByteArrayOutputStream
+import java.nio.ByteBuffer
+import java.util.Map
+import org.eclipse.emf.common.util.URI
+import org.eclipse.emf.ecore.EcorePackage
+import org.eclipse.xtext.naming.QualifiedName
+import org.eclipse.xtext.resource.IResourceDescriptions
+import org.eclipse.xtext.resource.impl.ChunkedResourceDescriptions
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData
+import org.junit.Rule
+import org.junit.Test
+import org.junit.rules.TemporaryFolder
+
+import static org.junit.Assert.*
+
+class MappedIndexFormatTest {
+
+	@Rule public val temporaryFolder = new TemporaryFolder
+
+	val format = new MappedIndexFormat
+
+	@Test def void testRoundTrip() {
+		val before = newDescription('file:/foo/bar.baz.foo', 'foo', 'baz')
+		val after = writeAndRead(#{'chunk' -> new ResourceDescriptionsData(#[before])}).get('chunk')
+		val afterDescription = SerializableResourceDescription.createCopy(after.getResourceDescription(before.URI))
+		new SerializableResourceDescriptionTest().assertDescriptionsEqual(before, afterDescription)
+	}
+
+	@Test def void testNullSafeRoundTrip() {
+		val uri = URI.createURI('file:/foo/bar.baz.foo')
+		val before = new SerializableResourceDescription => [
+			URI = uri
+			references = #[
+				new SerializableReferenceDescription => [
+					sourceEObjectUri = null
+					targetEObjectUri = URI.createURI('file:/other.foo').appendFragment('hubble')
+					containerEObjectURI = null
+					EReference = EcorePackage.eINSTANCE.EAnnotation_Contents
+					indexInList = -1
+				]
+			]
+			descriptions = #[
+				new SerializableEObjectDescription => [
+					EObjectURI = uri.appendFragment('baz')
+					qualifiedName = QualifiedName.create('foo', 'baz')
+					EClass = EcorePackage.eINSTANCE.EAttribute
+					userData = newHashMap
+				]
+			]
+			importedNames = #[]
+		]
+		val after = writeAndRead(#{'chunk' -> new ResourceDescriptionsData(#[before])}).get('chunk')
+		val afterDescription = SerializableResourceDescription.createCopy(after.getResourceDescription(uri))
+		new SerializableResourceDescriptionTest().assertDescriptionsEqual(before, afterDescription)
+	}
+
+	@Test def void testChunkedResourceDescriptions() {
+		val index = new ChunkedResourceDescriptions(#{
+			'a' -> new ResourceDescriptionsData(#[newDescription('file:/a/x.foo', 'x', 'One')]),
+			'b' -> new ResourceDescriptionsData(#[newDescription('file:/b/y.foo', 'y', 'Two'), newDescription('file:/b/z.foo', 'x', 'one')])
+		})
+		val file = temporaryFolder.newFile
+		format.write(index, file)
+		val after = new ChunkedResourceDescriptions(format.read(file))
+
+		assertEquals(#{'a', 'b'}, after.containerHandles)
+		assertEquals(3, after.allResourceDescriptions.size)
+		assertEquals(#[URI.createURI('file:/b/y.foo')], after.getContainer('b').getExportedObjects(EcorePackage.eINSTANCE.EAttribute, QualifiedName.create('y', 'Two'), false).map[EObjectURI.trimFragment].toList)
+		assertEquals(#{'file:/a/x.foo', 'file:/b/z.foo'}, after.getExportedObjects(EcorePackage.eINSTANCE.EAttribute, QualifiedName.create('X', 'ONE'), true).map[EObjectURI.trimFragment.toString].toSet)
+		assertEquals(1, after.getExportedObjects(EcorePackage.eINSTANCE.EAttribute, QualifiedName.create('x', 'One'), false).size)
+		assertTrue(after.getExportedObjects(EcorePackage.eINSTANCE.EAttribute, QualifiedName.create('unknown'), true).empty)
+		assertNull(after.getResourceDescription(URI.createURI('file:/c/unknown.foo')))
+	}
+
+	@Test def void testChangesAreKeptInCopies() {
+		val x = newDescription('file:/x.foo', 'x', 'One')
+		val y = newDescription('file:/y.foo', 'y', 'Two')
+		val data = writeAndRead(#{'chunk' -> new ResourceDescriptionsData(#[x, y])}).get('chunk')
+		val copy = data.copy
+
+		val newX = newDescription('file:/x.foo', 'x', 'Three')
+		copy.addDescription(newX.URI, newX)
+		copy.removeDescription(y.URI)
+
+		assertEquals(#{x.URI, y.URI}, data.allURIs)
+		assertEquals(#{x.URI}, copy.allURIs)
+		assertSame(newX, copy.getResourceDescription(x.URI))
+		assertNull(copy.getResourceDescription(y.URI))
+		assertTrue(copy.getExportedObjects(EcorePackage.eINSTANCE.EAttribute, QualifiedName.create('x', 'One'), false).empty)
+		assertFalse(data.getExportedObjects(EcorePackage.eINSTANCE.EAttribute, QualifiedName.create('x', 'One'), false).empty)
+		assertEquals(1, copy.getExportedObjects(EcorePackage.eINSTANCE.EAttribute, QualifiedName.create('x', 'Three'), false).size)
+		assertTrue(data.getExportedObjects(EcorePackage.eINSTANCE.EAttribute, QualifiedName.create('x', 'Three'), false).empty)
+	}
+
+	private def Map<String, ResourceDescriptionsData> writeAndRead(Map<String, ? extends IResourceDescriptions> chunks) {
+		val out = new ByteArrayOutputStream
+		format.write(chunks, out)
+		return format.read(ByteBuffer.wrap(out.toByteArray))
+	}
+
+	private def newDescription(String uriString, String... name) {
+		val uri = URI.createURI(uriString)
+		return new SerializableResourceDescription => [
+			URI = uri
+			references = #[
+				new SerializableReferenceDescription => [
+					sourceEObjectUri = uri.appendFragment('foo')
+					targetEObjectUri = URI.createURI('file:/other.foo').appendFragment('hubble')
+					containerEObjectURI = uri.appendFragment('baz')
+					EReference = EcorePackage.eINSTANCE.EAnnotation_Contents
+					indexInList = 1
+				]
+			]
+			descriptions = #[
+				new SerializableEObjectDescription => [
+					EObjectURI = uri.appendFragment('baz')
+					qualifiedName = QualifiedName.create(name)
+					EClass = EcorePackage.eINSTANCE.EAttribute
+					userData = newHashMap('myKey' -> 'myValue')
+				]
+			]
+			importedNames = #[QualifiedName.create('foo'), QualifiedName.create('foo', 'bar')]
+		]
+	}
+
+}
@@ -0,0 +1,359 @@
+/**
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.build;
+
+import com.google.common.collect.Iterables;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtend2.lib.StringConcatenation;
+import org.eclipse.xtext.build.BuildContext;
+import org.eclipse.xtext.build.BuildRequest;
+import org.eclipse.xtext.build.IncrementalBuilderTest;
+import org.eclipse.xtext.build.IndexState;
+import org.eclipse.xtext.build.Indexer;
+import org.eclipse.xtext.index.IndexTestLanguageInjectorProvider;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceServiceProvider;
+import org.eclipse.xtext.resource.SynchronizedXtextResourceSet;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.resource.clustering.DisabledClusteringPolicy;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+import org.eclipse.xtext.testing.InjectWith;
+import org.eclipse.xtext.testing.XtextRunner;
+import org.eclipse.xtext.util.CancelIndicator;
+import org.eclipse.xtext.validation.Issue;
+import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+import org.eclipse.xtext.xbase.lib.Exceptions;
+import org.eclipse.xtext.xbase.lib.ExclusiveRange;
+import org.eclipse.xtext.xbase.lib.Functions.Function1;
+import org.eclipse.xtext.xbase.lib.Functions.Function2;
+import org.eclipse.xtext.xbase.lib.IterableExtensions;
+import org.eclipse.xtext.xbase.lib.Pair;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure2;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Runs the incremental builder tests with resources being processed concurrently.
+ */
+@RunWith(XtextRunner.class)
+@InjectWith(IndexTestLanguageInjectorProvider.class)
+@SuppressWarnings("all")
+public class ConcurrentIncrementalBuilderTest extends IncrementalBuilderTest {
+  @Inject
+  private Provider<SynchronizedXtextResourceSet> synchronizedResourceSetProvider;
+  
+  private ExecutorService executor;
+  
+  @Override
+  public void setUp() {
+    super.setUp();
+    this.executor = Executors.newFixedThreadPool(4);
+    final Provider<XtextResourceSet> _function = () -> {
+      return this.synchronizedResourceSetProvider.get();
+    };
+    this.resourceSetProvider = _function;
+  }
+  
+  @After
+  public void tearDown() {
+    this.executor.shutdownNow();
+  }
+  
+  @Override
+  protected BuildRequest newBuildRequest(final Procedure1<? super BuildRequest> init) {
+    final Procedure1<BuildRequest> _function = (BuildRequest it) -> {
+      it.setExecutorService(this.executor);
+      init.apply(it);
+    };
+    return super.newBuildRequest(_function);
+  }
+  
+  @Test
+  public void testGenerationOrderIsDeterministic() {
+    final Function1<Integer, URI> _function = (Integer i) -> {
+      StringConcatenation _builder = new StringConcatenation();
+      _builder.append("src/File");
+      _builder.append(i);
+      _builder.append(".indextestlanguage");
+      StringConcatenation _builder_1 = new StringConcatenation();
+      _builder_1.append("foo {");
+      _builder_1.newLine();
+      _builder_1.append("\t");
+      _builder_1.append("entity E");
+      _builder_1.append(i, "\t");
+      _builder_1.append(" {");
+      {
+        if (((i).intValue() > 0)) {
+          _builder_1.append("foo.E");
+          _builder_1.append(((i).intValue() - 1), "\t");
+          _builder_1.append(" reference");
+        }
+      }
+      _builder_1.append("}");
+      _builder_1.newLineIfNotEmpty();
+      _builder_1.append("}");
+      _builder_1.newLine();
+      return this.operator_minus(_builder.toString(), _builder_1.toString());
+    };
+    final List<URI> files = IterableExtensions.<URI>toList(IterableExtensions.<Integer, URI>map(new ExclusiveRange(0, 20, true), _function));
+    final ArrayList<URI> validated = CollectionLiterals.<URI>newArrayList();
+    final ArrayList<URI> generatedFrom = CollectionLiterals.<URI>newArrayList();
+    final Procedure1<BuildRequest> _function_1 = (BuildRequest it) -> {
+      it.setDirtyFiles(files);
+      final BuildRequest.IPostValidationCallback _function_2 = (URI uri, Iterable<Issue> issues) -> {
+        validated.add(uri);
+        Iterables.<Issue>addAll(this.issues, issues);
+        return true;
+      };
+      it.setAfterValidate(_function_2);
+      final Procedure2<URI, URI> _function_3 = (URI source, URI target) -> {
+        generatedFrom.add(source);
+        this.generated.put(source, target);
+      };
+      it.setAfterGenerateFile(_function_3);
+    };
+    this.build(this.newBuildRequest(_function_1));
+    Assert.assertTrue(this.issues.toString(), this.issues.isEmpty());
+    Assert.assertEquals(files, validated);
+    Assert.assertEquals(files, generatedFrom);
+    Assert.assertEquals(20, IterableExtensions.size(this.indexState.getResourceDescriptions().getAllResourceDescriptions()));
+    Assert.assertEquals(20, this.indexState.getFileMappings().getAllGenerated().size());
+  }
+  
+  @Test
+  public void testIndexIsSameAsSequential() {
+    final Function1<Integer, URI> _function = (Integer i) -> {
+      StringConcatenation _builder = new StringConcatenation();
+      _builder.append("src/File");
+      _builder.append(i);
+      _builder.append(".indextestlanguage");
+      StringConcatenation _builder_1 = new StringConcatenation();
+      _builder_1.append("foo {");
+      _builder_1.newLine();
+      _builder_1.append("\t");
+      _builder_1.append("entity E");
+      _builder_1.append(i, "\t");
+      _builder_1.append(" {");
+      {
+        if (((i).intValue() > 0)) {
+          _builder_1.append("foo.E");
+          _builder_1.append(((i).intValue() - 1), "\t");
+          _builder_1.append(" reference");
+        }
+      }
+      _builder_1.append("}");
+      _builder_1.newLineIfNotEmpty();
+      _builder_1.append("\t");
+      {
+        if ((((i).intValue() % 3) == 0)) {
+          _builder_1.append("entity F");
+          _builder_1.append(i, "\t");
+          _builder_1.append(" {}");
+        }
+      }
+      _builder_1.newLineIfNotEmpty();
+      _builder_1.append("}");
+      _builder_1.newLine();
+      return this.operator_minus(_builder.toString(), _builder_1.toString());
+    };
+    final List<URI> files = IterableExtensions.<URI>toList(IterableExtensions.<Integer, URI>map(new ExclusiveRange(0, 20, true), _function));
+    final Procedure1<BuildRequest> _function_1 = (BuildRequest it) -> {
+      it.setDirtyFiles(files);
+    };
+    final ResourceDescriptionsData concurrentIndex = this.build(this.newBuildRequest(_function_1)).getResourceDescriptions();
+    IndexState _indexState = new IndexState();
+    this.indexState = _indexState;
+    final Procedure1<BuildRequest> _function_2 = (BuildRequest it) -> {
+      it.setDirtyFiles(files);
+      it.setExecutorService(null);
+    };
+    final ResourceDescriptionsData sequentialIndex = this.build(this.newBuildRequest(_function_2)).getResourceDescriptions();
+    final Function1<IResourceDescription, URI> _function_3 = (IResourceDescription it) -> {
+      return it.getURI();
+    };
+    final Function1<IResourceDescription, URI> _function_4 = (IResourceDescription it) -> {
+      return it.getURI();
+    };
+    Assert.assertEquals(IterableExtensions.<URI>toList(IterableExtensions.<IResourceDescription, URI>map(sequentialIndex.getAllResourceDescriptions(), _function_3)), IterableExtensions.<URI>toList(IterableExtensions.<IResourceDescription, URI>map(concurrentIndex.getAllResourceDescriptions(), _function_4)));
+    final Function1<IEObjectDescription, Pair<QualifiedName, URI>> _function_5 = (IEObjectDescription it) -> {
+      QualifiedName _name = it.getName();
+      URI _eObjectURI = it.getEObjectURI();
+      return Pair.<QualifiedName, URI>of(_name, _eObjectURI);
+    };
+    final Function1<IEObjectDescription, Pair<QualifiedName, URI>> _function_6 = (IEObjectDescription it) -> {
+      QualifiedName _name = it.getName();
+      URI _eObjectURI = it.getEObjectURI();
+      return Pair.<QualifiedName, URI>of(_name, _eObjectURI);
+    };
+    Assert.assertEquals(IterableExtensions.<Pair<QualifiedName, URI>>toList(IterableExtensions.<IEObjectDescription, Pair<QualifiedName, URI>>map(sequentialIndex.getExportedObjects(), _function_5)), IterableExtensions.<Pair<QualifiedName, URI>>toList(IterableExtensions.<IEObjectDescription, Pair<QualifiedName, URI>>map(concurrentIndex.getExportedObjects(), _function_6)));
+  }
+  
+  @Test
+  public void testIndexWithoutNodeModel() {
+    final Function1<Integer, URI> _function = (Integer i) -> {
+      StringConcatenation _builder = new StringConcatenation();
+      _builder.append("src/File");
+      _builder.append(i);
+      _builder.append(".indextestlanguage");
+      StringConcatenation _builder_1 = new StringConcatenation();
+      _builder_1.append("foo {");
+      _builder_1.newLine();
+      _builder_1.append("\t");
+      _builder_1.append("entity E");
+      _builder_1.append(i, "\t");
+      _builder_1.append(" {");
+      {
+        if (((i).intValue() > 0)) {
+          _builder_1.append("foo.E");
+          _builder_1.append(((i).intValue() - 1), "\t");
+          _builder_1.append(" reference");
+        }
+      }
+      _builder_1.append("}");
+      _builder_1.newLineIfNotEmpty();
+      _builder_1.append("}");
+      _builder_1.newLine();
+      return this.operator_minus(_builder.toString(), _builder_1.toString());
+    };
+    final List<URI> files = IterableExtensions.<URI>toList(IterableExtensions.<Integer, URI>map(new ExclusiveRange(0, 20, true), _function));
+    final Procedure1<BuildRequest> _function_1 = (BuildRequest it) -> {
+      it.setDirtyFiles(files);
+    };
+    final ResourceDescriptionsData fullIndex = this.build(this.newBuildRequest(_function_1)).getResourceDescriptions();
+    IndexState _indexState = new IndexState();
+    this.indexState = _indexState;
+    final Procedure1<BuildRequest> _function_2 = (BuildRequest it) -> {
+      it.setDirtyFiles(files);
+      it.setIndexWithoutNodeModel(true);
+    };
+    final ResourceDescriptionsData semanticModelIndex = this.build(this.newBuildRequest(_function_2)).getResourceDescriptions();
+    Assert.assertTrue(this.issues.toString(), this.issues.isEmpty());
+    final Function1<IEObjectDescription, Pair<QualifiedName, URI>> _function_3 = (IEObjectDescription it) -> {
+      QualifiedName _name = it.getName();
+      URI _eObjectURI = it.getEObjectURI();
+      return Pair.<QualifiedName, URI>of(_name, _eObjectURI);
+    };
+    final Function1<IEObjectDescription, Pair<QualifiedName, URI>> _function_4 = (IEObjectDescription it) -> {
+      QualifiedName _name = it.getName();
+      URI _eObjectURI = it.getEObjectURI();
+      return Pair.<QualifiedName, URI>of(_name, _eObjectURI);
+    };
+    Assert.assertEquals(IterableExtensions.<Pair<QualifiedName, URI>>toList(IterableExtensions.<IEObjectDescription, Pair<QualifiedName, URI>>map(fullIndex.getExportedObjects(), _function_3)), IterableExtensions.<Pair<QualifiedName, URI>>toList(IterableExtensions.<IEObjectDescription, Pair<QualifiedName, URI>>map(semanticModelIndex.getExportedObjects(), _function_4)));
+    Assert.assertEquals(20, this.indexState.getFileMappings().getAllGenerated().size());
+  }
+  
+  @Test
+  public void testCrossReferencesWithinCluster() {
+    final Function1<Integer, URI> _function = (Integer i) -> {
+      StringConcatenation _builder = new StringConcatenation();
+      _builder.append("src/File");
+      _builder.append(i);
+      _builder.append(".indextestlanguage");
+      StringConcatenation _builder_1 = new StringConcatenation();
+      _builder_1.append("foo {");
+      _builder_1.newLine();
+      _builder_1.append("\t");
+      _builder_1.append("entity E");
+      _builder_1.append(i, "\t");
+      _builder_1.append(" {foo.E");
+      _builder_1.append((((i).intValue() + 1) % 20), "\t");
+      _builder_1.append(" next foo.E");
+      _builder_1.append((((i).intValue() + 19) % 20), "\t");
+      _builder_1.append(" previous}");
+      _builder_1.newLineIfNotEmpty();
+      _builder_1.append("}");
+      _builder_1.newLine();
+      return this.operator_minus(_builder.toString(), _builder_1.toString());
+    };
+    final List<URI> files = IterableExtensions.<URI>toList(IterableExtensions.<Integer, URI>map(new ExclusiveRange(0, 20, true), _function));
+    final Procedure1<BuildRequest> _function_1 = (BuildRequest it) -> {
+      it.setDirtyFiles(files);
+    };
+    this.build(this.newBuildRequest(_function_1));
+    Assert.assertTrue(this.issues.toString(), this.issues.isEmpty());
+    Assert.assertEquals(20, IterableExtensions.size(this.indexState.getResourceDescriptions().getAllResourceDescriptions()));
+    Assert.assertEquals(20, this.indexState.getFileMappings().getAllGenerated().size());
+  }
+  
+  @Test
+  public void testSequentialOperationWaitsForCluster() {
+    final Function1<Integer, URI> _function = (Integer i) -> {
+      StringConcatenation _builder = new StringConcatenation();
+      _builder.append("src/File");
+      _builder.append(i);
+      _builder.append(".indextestlanguage");
+      StringConcatenation _builder_1 = new StringConcatenation();
+      _builder_1.append("foo {");
+      _builder_1.newLine();
+      _builder_1.append("\t");
+      _builder_1.append("entity E");
+      _builder_1.append(i, "\t");
+      _builder_1.append(" {}");
+      _builder_1.newLineIfNotEmpty();
+      _builder_1.append("}");
+      _builder_1.newLine();
+      return this.operator_minus(_builder.toString(), _builder_1.toString());
+    };
+    final List<URI> files = IterableExtensions.<URI>toList(IterableExtensions.<Integer, URI>map(new ExclusiveRange(0, 8, true), _function));
+    final Function1<URI, IResourceServiceProvider> _function_1 = (URI it) -> {
+      return this.getLanguages().getResourceServiceProvider(it);
+    };
+    final Procedure1<BuildRequest> _function_2 = (BuildRequest it) -> {
+    };
+    XtextResourceSet _resourceSet = this.newBuildRequest(_function_2).getResourceSet();
+    IndexState _indexState = new IndexState();
+    DisabledClusteringPolicy _disabledClusteringPolicy = new DisabledClusteringPolicy();
+    final BuildContext context = new BuildContext(_function_1, _resourceSet, _indexState, _disabledClusteringPolicy, CancelIndicator.NullImpl);
+    final AtomicInteger running = new AtomicInteger();
+    final Function1<Resource, URI> _function_3 = (Resource it) -> {
+      try {
+        running.incrementAndGet();
+        try {
+          Thread.sleep(20);
+          return it.getURI();
+        } finally {
+          running.decrementAndGet();
+        }
+      } catch (Throwable _e) {
+        throw Exceptions.sneakyThrow(_e);
+      }
+    };
+    final Function2<Resource, URI, Integer> _function_4 = (Resource resource, URI uri) -> {
+      Assert.assertEquals(resource.getURI(), uri);
+      return Integer.valueOf(running.get());
+    };
+    final List<Integer> result = IterableExtensions.<Integer>toList(context.<URI, Integer>executeClustered(files, this.executor, _function_3, _function_4));
+    Assert.assertEquals(Collections.<Integer>unmodifiableList(CollectionLiterals.<Integer>newArrayList(Integer.valueOf(0), Integer.valueOf(0), Integer.valueOf(0), Integer.valueOf(0), Integer.valueOf(0), Integer.valueOf(0), Integer.valueOf(0), Integer.valueOf(0))), result);
+  }
+  
+  @Test
+  public void testParallelismIsDerivedFromExecutor() {
+    final Indexer indexer = new Indexer();
+    final Procedure1<BuildRequest> _function = (BuildRequest it) -> {
+    };
+    Assert.assertEquals(4, indexer.getParallelism(this.newBuildRequest(_function)));
+    final Procedure1<BuildRequest> _function_1 = (BuildRequest it) -> {
+      it.setParallelism(2);
+    };
+    Assert.assertEquals(2, indexer.getParallelism(this.newBuildRequest(_function_1)));
+  }
+}
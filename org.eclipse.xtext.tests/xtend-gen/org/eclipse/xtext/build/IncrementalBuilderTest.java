@@ -14,9 +14,11 @@ import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.xtend2.lib.StringConcatenation;
 import org.eclipse.xtext.build.BuildRequest;
+import org.eclipse.xtext.build.IncrementalBuilder;
 import org.eclipse.xtext.build.IndexState;
 import org.eclipse.xtext.generator.OutputConfiguration;
 import org.eclipse.xtext.index.IndexTestLanguageInjectorProvider;
+import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
 import org.eclipse.xtext.resource.XtextResourceSet;
 import org.eclipse.xtext.resource.impl.ChunkedResourceDescriptions;
@@ -26,7 +28,9 @@ import org.eclipse.xtext.testing.builder.AbstractIncrementalBuilderTest;
 import org.eclipse.xtext.util.CancelIndicator;
 import org.eclipse.xtext.validation.Issue;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+import org.eclipse.xtext.xbase.lib.Functions.Function1;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
+import org.eclipse.xtext.xbase.lib.ListExtensions;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure2;
 import org.junit.Assert;
@@ -443,4 +447,101 @@ public class IncrementalBuilderTest extends AbstractIncrementalBuilderTest {
     Assert.assertEquals(1, this.deleted.size());
     Assert.assertTrue(this.containsSuffix(this.deleted, "src-gen/A.txt"));
   }
+  
+  @Test
+  public void testSkipUnchangedSources() {
+    final Procedure1<BuildRequest> _function = (BuildRequest it) -> {
+      it.setSkipUnchangedSources(true);
+      StringConcatenation _builder = new StringConcatenation();
+      _builder.append("foo {");
+      _builder.newLine();
+      _builder.append("\t");
+      _builder.append("entity A {}");
+      _builder.newLine();
+      _builder.append("}");
+      _builder.newLine();
+      URI _minus = this.operator_minus(
+        "src/A.indextestlanguage", _builder.toString());
+      StringConcatenation _builder_1 = new StringConcatenation();
+      _builder_1.append("foo {");
+      _builder_1.newLine();
+      _builder_1.append("\t");
+      _builder_1.append("entity B {}");
+      _builder_1.newLine();
+      _builder_1.append("}");
+      _builder_1.newLine();
+      URI _minus_1 = this.operator_minus(
+        "src/B.indextestlanguage", _builder_1.toString());
+      it.setDirtyFiles(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(_minus, _minus_1)));
+    };
+    this.build(this.newBuildRequest(_function));
+    Assert.assertEquals(2, this.generated.size());
+    Assert.assertNotNull(this.indexState.getContentHashes().getHash(this.uri("src/A.indextestlanguage")));
+    final Procedure1<BuildRequest> _function_1 = (BuildRequest it) -> {
+      it.setSkipUnchangedSources(true);
+      StringConcatenation _builder = new StringConcatenation();
+      _builder.append("foo {");
+      _builder.newLine();
+      _builder.append("\t");
+      _builder.append("entity A {}");
+      _builder.newLine();
+      _builder.append("}");
+      _builder.newLine();
+      URI _minus = this.operator_minus(
+        "src/A.indextestlanguage", _builder.toString());
+      StringConcatenation _builder_1 = new StringConcatenation();
+      _builder_1.append("foo {");
+      _builder_1.newLine();
+      _builder_1.append("\t");
+      _builder_1.append("entity B {}");
+      _builder_1.newLine();
+      _builder_1.append("\t");
+      _builder_1.append("entity C {}");
+      _builder_1.newLine();
+      _builder_1.append("}");
+      _builder_1.newLine();
+      URI _minus_1 = this.operator_minus(
+        "src/B.indextestlanguage", _builder_1.toString());
+      it.setDirtyFiles(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(_minus, _minus_1)));
+      final Procedure2<URI, URI> _function_2 = (URI source, URI target) -> {
+        Assert.assertEquals(this.uri("src/B.indextestlanguage"), source);
+      };
+      it.setAfterGenerateFile(_function_2);
+    };
+    final Function1<URI, IResourceServiceProvider> _function_2 = (URI it) -> {
+      return this.getLanguages().getResourceServiceProvider(it);
+    };
+    final IncrementalBuilder.Result result = this.incrementalBuilder.build(this.newBuildRequest(_function_1), _function_2);
+    URI _uri = this.uri("src/B.indextestlanguage");
+    final Function1<IResourceDescription.Delta, URI> _function_3 = (IResourceDescription.Delta it) -> {
+      return it.getUri();
+    };
+    Assert.assertEquals(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(_uri)), ListExtensions.<IResourceDescription.Delta, URI>map(result.getAffectedResources(), _function_3));
+  }
+  
+  @Test
+  public void testRecordContentHashes() {
+    final Procedure1<BuildRequest> _function = (BuildRequest it) -> {
+      StringConcatenation _builder = new StringConcatenation();
+      _builder.append("foo {");
+      _builder.newLine();
+      _builder.append("\t");
+      _builder.append("entity A {}");
+      _builder.newLine();
+      _builder.append("}");
+      _builder.newLine();
+      URI _minus = this.operator_minus(
+        "src/A.indextestlanguage", _builder.toString());
+      it.setDirtyFiles(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(_minus)));
+    };
+    this.build(this.newBuildRequest(_function));
+    Assert.assertNull(this.indexState.getContentHashes().getHash(this.uri("src/A.indextestlanguage")));
+    final Procedure1<BuildRequest> _function_1 = (BuildRequest it) -> {
+      it.setRecordContentHashes(true);
+      URI _uri = this.uri("src/A.indextestlanguage");
+      it.setDirtyFiles(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(_uri)));
+    };
+    this.build(this.newBuildRequest(_function_1));
+    Assert.assertNotNull(this.indexState.getContentHashes().getHash(this.uri("src/A.indextestlanguage")));
+  }
 }
@@ -0,0 +1,253 @@
+/**
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.resource.persistence;
+
+import com.google.common.base.Charsets;
+import com.google.common.collect.Iterables;
+import com.google.common.io.Files;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.xtend2.lib.StringConcatenation;
+import org.eclipse.xtext.linking.LangATestLanguageStandaloneSetup;
+import org.eclipse.xtext.linking.langATestLanguage.Main;
+import org.eclipse.xtext.linking.langATestLanguage.Type;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
+import org.eclipse.xtext.nodemodel.util.NodeModelUtils;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.XtextResourceSet;
+import org.eclipse.xtext.resource.persistence.CompactResourceStorageFacade;
+import org.eclipse.xtext.resource.persistence.CompactResourceStorageWritable;
+import org.eclipse.xtext.resource.persistence.ResourceStorageFacade;
+import org.eclipse.xtext.resource.persistence.ResourceStorageLoadable;
+import org.eclipse.xtext.resource.persistence.ResourceStorageWritable;
+import org.eclipse.xtext.resource.persistence.StorageAwareResource;
+import org.eclipse.xtext.tests.AbstractXtextTests;
+import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+import org.eclipse.xtext.xbase.lib.Exceptions;
+import org.eclipse.xtext.xbase.lib.Functions.Function1;
+import org.eclipse.xtext.xbase.lib.IntegerRange;
+import org.eclipse.xtext.xbase.lib.IterableExtensions;
+import org.eclipse.xtext.xbase.lib.ListExtensions;
+import org.eclipse.xtext.xbase.lib.ObjectExtensions;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SuppressWarnings("all")
+public class CompactResourceStorageTest extends AbstractXtextTests {
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+  
+  private XtextResourceSet resourceSet;
+  
+  private StorageAwareResource resourceA;
+  
+  private StorageAwareResource resourceB;
+  
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    LangATestLanguageStandaloneSetup _langATestLanguageStandaloneSetup = new LangATestLanguageStandaloneSetup();
+    this.with(_langATestLanguageStandaloneSetup);
+    this.resourceSet = this.<XtextResourceSet>get(XtextResourceSet.class);
+    Resource _createResource = this.resourceSet.createResource(URI.createURI("hubba:/bubba.langatestlanguage"));
+    this.resourceA = ((StorageAwareResource) _createResource);
+    Resource _createResource_1 = this.resourceSet.createResource(URI.createURI("hubba:/bubba2.langatestlanguage"));
+    this.resourceB = ((StorageAwareResource) _createResource_1);
+    StringConcatenation _builder = new StringConcatenation();
+    _builder.append("type B");
+    _builder.newLine();
+    this.resourceB.load(this.getAsStream(_builder.toString()), null);
+    StringConcatenation _builder_1 = new StringConcatenation();
+    _builder_1.append("import \'hubba:/bubba2.langatestlanguage\'");
+    _builder_1.newLine();
+    _builder_1.newLine();
+    _builder_1.append("type A extends B");
+    _builder_1.newLine();
+    this.resourceA.load(this.getAsStream(_builder_1.toString()), null);
+  }
+  
+  @Test
+  public void testLoadFromStream() {
+    final CompactResourceStorageFacade facade = this.<CompactResourceStorageFacade>get(CompactResourceStorageFacade.class);
+    ByteArrayOutputStream _byteArrayOutputStream = new ByteArrayOutputStream();
+    final byte[] bytes = this.write(facade.createResourceStorageWritable(_byteArrayOutputStream));
+    Assert.assertEquals(CompactResourceStorageWritable.MAGIC, ByteBuffer.wrap(bytes).getInt());
+    ByteArrayInputStream _byteArrayInputStream = new ByteArrayInputStream(bytes);
+    this.assertLoaded(facade.createResourceStorageLoadable(_byteArrayInputStream));
+  }
+  
+  @Test
+  public void testLoadFromBuffer() {
+    final CompactResourceStorageFacade facade = this.<CompactResourceStorageFacade>get(CompactResourceStorageFacade.class);
+    ByteArrayOutputStream _byteArrayOutputStream = new ByteArrayOutputStream();
+    final byte[] bytes = this.write(facade.createResourceStorageWritable(_byteArrayOutputStream));
+    this.assertLoaded(facade.createResourceStorageLoadable(ByteBuffer.wrap(bytes)));
+  }
+  
+  @Test
+  public void testLoadZipStorage() {
+    ResourceStorageFacade _get = this.<ResourceStorageFacade>get(ResourceStorageFacade.class);
+    ByteArrayOutputStream _byteArrayOutputStream = new ByteArrayOutputStream();
+    final byte[] bytes = this.write(_get.createResourceStorageWritable(_byteArrayOutputStream));
+    CompactResourceStorageFacade _get_1 = this.<CompactResourceStorageFacade>get(CompactResourceStorageFacade.class);
+    ByteArrayInputStream _byteArrayInputStream = new ByteArrayInputStream(bytes);
+    this.assertLoaded(_get_1.createResourceStorageLoadable(_byteArrayInputStream));
+  }
+  
+  @Test
+  public void testLoadNodeModelOnDemand() {
+    CompactResourceStorageFacade _get = this.<CompactResourceStorageFacade>get(CompactResourceStorageFacade.class);
+    final Procedure1<CompactResourceStorageFacade> _function = (CompactResourceStorageFacade it) -> {
+      it.setStoreNodeModel(true);
+      it.setLoadNodeModelOnDemand(true);
+    };
+    final CompactResourceStorageFacade facade = ObjectExtensions.<CompactResourceStorageFacade>operator_doubleArrow(_get, _function);
+    this.assertNodeModelLoadedOnDemand(facade);
+  }
+  
+  @Test
+  public void testLoadZipNodeModelOnDemand() {
+    ResourceStorageFacade _get = this.<ResourceStorageFacade>get(ResourceStorageFacade.class);
+    final Procedure1<ResourceStorageFacade> _function = (ResourceStorageFacade it) -> {
+      it.setStoreNodeModel(true);
+      it.setLoadNodeModelOnDemand(true);
+    };
+    final ResourceStorageFacade facade = ObjectExtensions.<ResourceStorageFacade>operator_doubleArrow(_get, _function);
+    this.assertNodeModelLoadedOnDemand(facade);
+  }
+  
+  @Test
+  public void testLoadNodeModelOnDemandConcurrently() {
+    try {
+      CompactResourceStorageFacade _get = this.<CompactResourceStorageFacade>get(CompactResourceStorageFacade.class);
+      final Procedure1<CompactResourceStorageFacade> _function = (CompactResourceStorageFacade it) -> {
+        it.setStoreNodeModel(true);
+        it.setLoadNodeModelOnDemand(true);
+      };
+      final CompactResourceStorageFacade facade = ObjectExtensions.<CompactResourceStorageFacade>operator_doubleArrow(_get, _function);
+      final File file = this.temporaryFolder.newFile("a.langatestlanguage");
+      Files.write("type A extends A", file, Charsets.UTF_8);
+      final URI uri = URI.createFileURI(file.getAbsolutePath());
+      Resource _resource = this.resourceSet.getResource(uri, true);
+      final StorageAwareResource resource = ((StorageAwareResource) _resource);
+      ByteArrayOutputStream _byteArrayOutputStream = new ByteArrayOutputStream();
+      final byte[] bytes = this.write(facade.createResourceStorageWritable(_byteArrayOutputStream), resource);
+      Resource _createResource = this.<XtextResourceSet>get(XtextResourceSet.class).createResource(uri);
+      final StorageAwareResource loaded = ((StorageAwareResource) _createResource);
+      ByteArrayInputStream _byteArrayInputStream = new ByteArrayInputStream(bytes);
+      loaded.loadFromStorage(facade.createResourceStorageLoadable(_byteArrayInputStream));
+      EObject _head = IterableExtensions.<EObject>head(loaded.getContents());
+      final Type type = IterableExtensions.<Type>head(((Main) _head).getTypes());
+      final ExecutorService executor = Executors.newFixedThreadPool(4);
+      try {
+        final Function1<Integer, Future<ICompositeNode>> _function_1 = (Integer it) -> {
+          final Callable<ICompositeNode> _function_2 = () -> {
+            return NodeModelUtils.getNode(type).getRootNode();
+          };
+          return executor.<ICompositeNode>submit(_function_2);
+        };
+        final List<Future<ICompositeNode>> futures = IterableExtensions.<Future<ICompositeNode>>toList(IterableExtensions.<Integer, Future<ICompositeNode>>map(new IntegerRange(1, 8), _function_1));
+        final Function1<Future<ICompositeNode>, ICompositeNode> _function_2 = (Future<ICompositeNode> it) -> {
+          try {
+            return it.get();
+          } catch (Throwable _e) {
+            throw Exceptions.sneakyThrow(_e);
+          }
+        };
+        final Set<ICompositeNode> roots = IterableExtensions.<ICompositeNode>toSet(ListExtensions.<Future<ICompositeNode>, ICompositeNode>map(futures, _function_2));
+        Assert.assertEquals(1, roots.size());
+        Assert.assertSame(IterableExtensions.<ICompositeNode>head(roots), loaded.getParseResult().getRootNode());
+      } finally {
+        executor.shutdown();
+      }
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  private void assertNodeModelLoadedOnDemand(final ResourceStorageFacade facade) {
+    try {
+      final File file = this.temporaryFolder.newFile("a.langatestlanguage");
+      Files.write("type A extends A", file, Charsets.UTF_8);
+      final URI uri = URI.createFileURI(file.getAbsolutePath());
+      Resource _resource = this.resourceSet.getResource(uri, true);
+      final StorageAwareResource resource = ((StorageAwareResource) _resource);
+      ByteArrayOutputStream _byteArrayOutputStream = new ByteArrayOutputStream();
+      final byte[] bytes = this.write(facade.createResourceStorageWritable(_byteArrayOutputStream), resource);
+      Resource _createResource = this.<XtextResourceSet>get(XtextResourceSet.class).createResource(uri);
+      final StorageAwareResource loaded = ((StorageAwareResource) _createResource);
+      ByteArrayInputStream _byteArrayInputStream = new ByteArrayInputStream(bytes);
+      loaded.loadFromStorage(facade.createResourceStorageLoadable(_byteArrayInputStream));
+      EObject _head = IterableExtensions.<EObject>head(loaded.getContents());
+      final Type type = IterableExtensions.<Type>head(((Main) _head).getTypes());
+      Assert.assertTrue(IterableExtensions.isEmpty(Iterables.<ICompositeNode>filter(type.eAdapters(), ICompositeNode.class)));
+      final ICompositeNode node = NodeModelUtils.getNode(type);
+      Assert.assertEquals("type A extends A", node.getText());
+      Assert.assertFalse(loaded.loadDeferredNodeModel());
+      Assert.assertSame(node.getRootNode(), loaded.getParseResult().getRootNode());
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  private byte[] write(final ResourceStorageWritable writable) {
+    return this.write(writable, this.resourceA);
+  }
+  
+  private byte[] write(final ResourceStorageWritable writable, final StorageAwareResource resource) {
+    try {
+      writable.writeResource(resource);
+      OutputStream _out = writable.getOut();
+      return ((ByteArrayOutputStream) _out).toByteArray();
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  private void assertLoaded(final ResourceStorageLoadable loadable) {
+    try {
+      Resource _createResource = this.resourceSet.createResource(URI.createURI("hubba:/bubba3.langatestlanguage"));
+      final StorageAwareResource resourceC = ((StorageAwareResource) _createResource);
+      resourceC.loadFromStorage(loadable);
+      EObject _head = IterableExtensions.<EObject>head(resourceC.getContents());
+      final Type typeC = IterableExtensions.<Type>head(((Main) _head).getTypes());
+      Assert.assertEquals("A", typeC.getName());
+      EObject _head_1 = IterableExtensions.<EObject>head(this.resourceB.getContents());
+      Assert.assertSame(IterableExtensions.<Type>head(((Main) _head_1).getTypes()), typeC.getExtends());
+      final List<IEObjectDescription> exported = IterableExtensions.<IEObjectDescription>toList(resourceC.getResourceDescription().getExportedObjects());
+      final Function1<IEObjectDescription, String> _function = (IEObjectDescription it) -> {
+        return it.getName().toString();
+      };
+      Assert.assertEquals(Collections.<String>unmodifiableList(CollectionLiterals.<String>newArrayList("A")), ListExtensions.<IEObjectDescription, String>map(exported, _function));
+      Assert.assertEquals(resourceC.getURI(), IterableExtensions.<IEObjectDescription>head(exported).getEObjectURI().trimFragment());
+      final IReferenceDescription refDesc = IterableExtensions.<IReferenceDescription>head(resourceC.getResourceDescription().getReferenceDescriptions());
+      EObject _head_2 = IterableExtensions.<EObject>head(this.resourceB.getContents());
+      Assert.assertSame(IterableExtensions.<Type>head(((Main) _head_2).getTypes()), this.resourceSet.getEObject(refDesc.getTargetEObjectUri(), false));
+      Assert.assertSame(typeC, this.resourceSet.getEObject(refDesc.getSourceEObjectUri(), false));
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+}
@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.resource.persistence;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Map;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EcorePackage;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceDescriptions;
+import org.eclipse.xtext.resource.impl.ChunkedResourceDescriptions;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+import org.eclipse.xtext.resource.persistence.MappedIndexFormat;
+import org.eclipse.xtext.resource.persistence.SerializableEObjectDescription;
+import org.eclipse.xtext.resource.persistence.SerializableReferenceDescription;
+import org.eclipse.xtext.resource.persistence.SerializableResourceDescription;
+import org.eclipse.xtext.resource.persistence.SerializableResourceDescriptionTest;
+import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+import org.eclipse.xtext.xbase.lib.Exceptions;
+import org.eclipse.xtext.xbase.lib.Functions.Function1;
+import org.eclipse.xtext.xbase.lib.IterableExtensions;
+import org.eclipse.xtext.xbase.lib.ObjectExtensions;
+import org.eclipse.xtext.xbase.lib.Pair;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+@SuppressWarnings("all")
+public class MappedIndexFormatTest {
+  @Rule
+  public final TemporaryFolder temporaryFolder = new TemporaryFolder();
+  
+  private final MappedIndexFormat format = new MappedIndexFormat();
+  
+  @Test
+  public void testRoundTrip() {
+    final SerializableResourceDescription before = this.newDescription("file:/foo/bar.baz.foo", "foo", "baz");
+    ResourceDescriptionsData _resourceDescriptionsData = new ResourceDescriptionsData(Collections.<IResourceDescription>unmodifiableList(CollectionLiterals.<IResourceDescription>newArrayList(before)));
+    Pair<String, ResourceDescriptionsData> _mappedTo = Pair.<String, ResourceDescriptionsData>of("chunk", _resourceDescriptionsData);
+    final ResourceDescriptionsData after = this.writeAndRead(Collections.<String, ResourceDescriptionsData>unmodifiableMap(CollectionLiterals.<String, ResourceDescriptionsData>newHashMap(_mappedTo))).get("chunk");
+    final SerializableResourceDescription afterDescription = SerializableResourceDescription.createCopy(after.getResourceDescription(before.getURI()));
+    new SerializableResourceDescriptionTest().assertDescriptionsEqual(before, afterDescription);
+  }
+  
+  @Test
+  public void testNullSafeRoundTrip() {
+    final URI uri = URI.createURI("file:/foo/bar.baz.foo");
+    SerializableResourceDescription _serializableResourceDescription = new SerializableResourceDescription();
+    final Procedure1<SerializableResourceDescription> _function = (SerializableResourceDescription it) -> {
+      it.setURI(uri);
+      SerializableReferenceDescription _serializableReferenceDescription = new SerializableReferenceDescription();
+      final Procedure1<SerializableReferenceDescription> _function_1 = (SerializableReferenceDescription it_1) -> {
+        it_1.setSourceEObjectUri(null);
+        it_1.setTargetEObjectUri(URI.createURI("file:/other.foo").appendFragment("hubble"));
+        it_1.setContainerEObjectURI(null);
+        it_1.setEReference(EcorePackage.eINSTANCE.getEAnnotation_Contents());
+        it_1.setIndexInList((-1));
+      };
+      SerializableReferenceDescription _doubleArrow = ObjectExtensions.<SerializableReferenceDescription>operator_doubleArrow(_serializableReferenceDescription, _function_1);
+      it.setReferences(Collections.<SerializableReferenceDescription>unmodifiableList(CollectionLiterals.<SerializableReferenceDescription>newArrayList(_doubleArrow)));
+      SerializableEObjectDescription _serializableEObjectDescription = new SerializableEObjectDescription();
+      final Procedure1<SerializableEObjectDescription> _function_2 = (SerializableEObjectDescription it_1) -> {
+        it_1.setEObjectURI(uri.appendFragment("baz"));
+        it_1.qualifiedName = QualifiedName.create("foo", "baz");
+        it_1.setEClass(EcorePackage.eINSTANCE.getEAttribute());
+        it_1.userData = CollectionLiterals.<String, String>newHashMap();
+      };
+      SerializableEObjectDescription _doubleArrow_1 = ObjectExtensions.<SerializableEObjectDescription>operator_doubleArrow(_serializableEObjectDescription, _function_2);
+      it.setDescriptions(Collections.<SerializableEObjectDescription>unmodifiableList(CollectionLiterals.<SerializableEObjectDescription>newArrayList(_doubleArrow_1)));
+      it.setImportedNames(Collections.<QualifiedName>unmodifiableList(CollectionLiterals.<QualifiedName>newArrayList()));
+    };
+    final SerializableResourceDescription before = ObjectExtensions.<SerializableResourceDescription>operator_doubleArrow(_serializableResourceDescription, _function);
+    ResourceDescriptionsData _resourceDescriptionsData = new ResourceDescriptionsData(Collections.<IResourceDescription>unmodifiableList(CollectionLiterals.<IResourceDescription>newArrayList(before)));
+    Pair<String, ResourceDescriptionsData> _mappedTo = Pair.<String, ResourceDescriptionsData>of("chunk", _resourceDescriptionsData);
+    final ResourceDescriptionsData after = this.writeAndRead(Collections.<String, ResourceDescriptionsData>unmodifiableMap(CollectionLiterals.<String, ResourceDescriptionsData>newHashMap(_mappedTo))).get("chunk");
+    final SerializableResourceDescription afterDescription = SerializableResourceDescription.createCopy(after.getResourceDescription(uri));
+    new SerializableResourceDescriptionTest().assertDescriptionsEqual(before, afterDescription);
+  }
+  
+  @Test
+  public void testChunkedResourceDescriptions() {
+    try {
+      SerializableResourceDescription _newDescription = this.newDescription("file:/a/x.foo", "x", "One");
+      ResourceDescriptionsData _resourceDescriptionsData = new ResourceDescriptionsData(Collections.<IResourceDescription>unmodifiableList(CollectionLiterals.<IResourceDescription>newArrayList(_newDescription)));
+      Pair<String, ResourceDescriptionsData> _mappedTo = Pair.<String, ResourceDescriptionsData>of("a", _resourceDescriptionsData);
+      SerializableResourceDescription _newDescription_1 = this.newDescription("file:/b/y.foo", "y", "Two");
+      SerializableResourceDescription _newDescription_2 = this.newDescription("file:/b/z.foo", "x", "one");
+      ResourceDescriptionsData _resourceDescriptionsData_1 = new ResourceDescriptionsData(Collections.<IResourceDescription>unmodifiableList(CollectionLiterals.<IResourceDescription>newArrayList(_newDescription_1, _newDescription_2)));
+      Pair<String, ResourceDescriptionsData> _mappedTo_1 = Pair.<String, ResourceDescriptionsData>of("b", _resourceDescriptionsData_1);
+      final ChunkedResourceDescriptions index = new ChunkedResourceDescriptions(
+        Collections.<String, ResourceDescriptionsData>unmodifiableMap(CollectionLiterals.<String, ResourceDescriptionsData>newHashMap(_mappedTo, _mappedTo_1)));
+      final File file = this.temporaryFolder.newFile();
+      this.format.write(index, file);
+      Map<String, ResourceDescriptionsData> _read = this.format.read(file);
+      final ChunkedResourceDescriptions after = new ChunkedResourceDescriptions(_read);
+      Assert.assertEquals(Collections.<String>unmodifiableSet(CollectionLiterals.<String>newHashSet("a", "b")), after.getContainerHandles());
+      Assert.assertEquals(3, IterableExtensions.size(after.getAllResourceDescriptions()));
+      URI _createURI = URI.createURI("file:/b/y.foo");
+      final Function1<IEObjectDescription, URI> _function = (IEObjectDescription it) -> {
+        return it.getEObjectURI().trimFragment();
+      };
+      Assert.assertEquals(Collections.<URI>unmodifiableList(CollectionLiterals.<URI>newArrayList(_createURI)), IterableExtensions.<URI>toList(IterableExtensions.<IEObjectDescription, URI>map(after.getContainer("b").getExportedObjects(EcorePackage.eINSTANCE.getEAttribute(), QualifiedName.create("y", "Two"), false), _function)));
+      final Function1<IEObjectDescription, String> _function_1 = (IEObjectDescription it) -> {
+        return it.getEObjectURI().trimFragment().toString();
+      };
+      Assert.assertEquals(Collections.<String>unmodifiableSet(CollectionLiterals.<String>newHashSet("file:/a/x.foo", "file:/b/z.foo")), IterableExtensions.<String>toSet(IterableExtensions.<IEObjectDescription, String>map(after.getExportedObjects(EcorePackage.eINSTANCE.getEAttribute(), QualifiedName.create("X", "ONE"), true), _function_1)));
+      Assert.assertEquals(1, IterableExtensions.size(after.getExportedObjects(EcorePackage.eINSTANCE.getEAttribute(), QualifiedName.create("x", "One"), false)));
+      Assert.assertTrue(IterableExtensions.isEmpty(after.getExportedObjects(EcorePackage.eINSTANCE.getEAttribute(), QualifiedName.create("unknown"), true)));
+      Assert.assertNull(after.getResourceDescription(URI.createURI("file:/c/unknown.foo")));
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  @Test
+  public void testChangesAreKeptInCopies() {
+    final SerializableResourceDescription x = this.newDescription("file:/x.foo", "x", "One");
+    final SerializableResourceDescription y = this.newDescription("file:/y.foo", "y", "Two");
+    ResourceDescriptionsData _resourceDescriptionsData = new ResourceDescriptionsData(Collections.<IResourceDescription>unmodifiableList(CollectionLiterals.<IResourceDescription>newArrayList(x, y)));
+    Pair<String, ResourceDescriptionsData> _mappedTo = Pair.<String, ResourceDescriptionsData>of("chunk", _resourceDescriptionsData);
+    final ResourceDescriptionsData data = this.writeAndRead(Collections.<String, ResourceDescriptionsData>unmodifiableMap(CollectionLiterals.<String, ResourceDescriptionsData>newHashMap(_mappedTo))).get("chunk");
+    final ResourceDescriptionsData copy = data.copy();
+    final SerializableResourceDescription newX = this.newDescription("file:/x.foo", "x", "Three");
+    copy.addDescription(newX.getURI(), newX);
+    copy.removeDescription(y.getURI());
+    URI _uRI = x.getURI();
+    URI _uRI_1 = y.getURI();
+    Assert.assertEquals(Collections.<URI>unmodifiableSet(CollectionLiterals.<URI>newHashSet(_uRI, _uRI_1)), data.getAllURIs());
+    URI _uRI_2 = x.getURI();
+    Assert.assertEquals(Collections.<URI>unmodifiableSet(CollectionLiterals.<URI>newHashSet(_uRI_2)), copy.getAllURIs());
+    Assert.assertSame(newX, copy.getResourceDescription(x.getURI()));
+    Assert.assertNull(copy.getResourceDescription(y.getURI()));
+    Assert.assertTrue(IterableExtensions.isEmpty(copy.getExportedObjects(EcorePackage.eINSTANCE.getEAttribute(), QualifiedName.create("x", "One"), false)));
+    Assert.assertFalse(IterableExtensions.isEmpty(data.getExportedObjects(EcorePackage.eINSTANCE.getEAttribute(), QualifiedName.create("x", "One"), false)));
+    Assert.assertEquals(1, IterableExtensions.size(copy.getExportedObjects(EcorePackage.eINSTANCE.getEAttribute(), QualifiedName.create("x", "Three"), false)));
+    Assert.assertTrue(IterableExtensions.isEmpty(data.getExportedObjects(EcorePackage.eINSTANCE.getEAttribute(), QualifiedName.create("x", "Three"), false)));
+  }
+  
+  private Map<String, ResourceDescriptionsData> writeAndRead(final Map<String, ? extends IResourceDescriptions> chunks) {
+    try {
+      final ByteArrayOutputStream out = new ByteArrayOutputStream();
+      this.format.write(chunks, out);
+      return this.format.read(ByteBuffer.wrap(out.toByteArray()));
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  private SerializableResourceDescription newDescription(final String uriString, final String... name) {
+    final URI uri = URI.createURI(uriString);
+    SerializableResourceDescription _serializableResourceDescription = new SerializableResourceDescription();
+    final Procedure1<SerializableResourceDescription> _function = (SerializableResourceDescription it) -> {
+      it.setURI(uri);
+      SerializableReferenceDescription _serializableReferenceDescription = new SerializableReferenceDescription();
+      final Procedure1<SerializableReferenceDescription> _function_1 = (SerializableReferenceDescription it_1) -> {
+        it_1.setSourceEObjectUri(uri.appendFragment("foo"));
+        it_1.setTargetEObjectUri(URI.createURI("file:/other.foo").appendFragment("hubble"));
+        it_1.setContainerEObjectURI(uri.appendFragment("baz"));
+        it_1.setEReference(EcorePackage.eINSTANCE.getEAnnotation_Contents());
+        it_1.setIndexInList(1);
+      };
+      SerializableReferenceDescription _doubleArrow = ObjectExtensions.<SerializableReferenceDescription>operator_doubleArrow(_serializableReferenceDescription, _function_1);
+      it.setReferences(Collections.<SerializableReferenceDescription>unmodifiableList(CollectionLiterals.<SerializableReferenceDescription>newArrayList(_doubleArrow)));
+      SerializableEObjectDescription _serializableEObjectDescription = new SerializableEObjectDescription();
+      final Procedure1<SerializableEObjectDescription> _function_2 = (SerializableEObjectDescription it_1) -> {
+        it_1.setEObjectURI(uri.appendFragment("baz"));
+        it_1.qualifiedName = QualifiedName.create(name);
+        it_1.setEClass(EcorePackage.eINSTANCE.getEAttribute());
+        Pair<String, String> _mappedTo = Pair.<String, String>of("myKey", "myValue");
+        it_1.userData = CollectionLiterals.<String, String>newHashMap(_mappedTo);
+      };
+      SerializableEObjectDescription _doubleArrow_1 = ObjectExtensions.<SerializableEObjectDescription>operator_doubleArrow(_serializableEObjectDescription, _function_2);
+      it.setDescriptions(Collections.<SerializableEObjectDescription>unmodifiableList(CollectionLiterals.<SerializableEObjectDescription>newArrayList(_doubleArrow_1)));
+      QualifiedName _create = QualifiedName.create("foo");
+      QualifiedName _create_1 = QualifiedName.create("foo", "bar");
+      it.setImportedNames(Collections.<QualifiedName>unmodifiableList(CollectionLiterals.<QualifiedName>newArrayList(_create, _create_1)));
+    };
+    return ObjectExtensions.<SerializableResourceDescription>operator_doubleArrow(_serializableResourceDescription, _function);
+  }
+}
@@ -7,6 +7,7 @@
  *******************************************************************************/
 package org.eclipse.xtext.build
 
+import java.util.concurrent.ExecutorService
 import org.eclipse.emf.common.util.URI
 import org.eclipse.emf.ecore.resource.Resource
 import org.eclipse.xtend.lib.annotations.Accessors
@@ -36,6 +37,16 @@ class BuildContext {
 		return loader.executeClustered(uri.filter[canHandle], operation)
 	}
 	
+	/**
+	 * @see ClusteringStorageAwareResourceLoader#executeClustered(Iterable, ExecutorService, Function1, Function2)
+	 * @since 2.14
+	 */
+	def <S, T> Iterable<T> executeClustered(Iterable<URI> uri, ExecutorService executor, (Resource)=>S concurrentOperation, (Resource, S)=>T sequentialOperation) {
+		if(loader === null) 
+			loader = new ClusteringStorageAwareResourceLoader(this)
+		return loader.executeClustered(uri.filter[canHandle], executor, concurrentOperation, sequentialOperation)
+	}
+	
 	protected def boolean canHandle(URI uri) {
         val resourceServiceProvider = resourceServiceProviderProvider.apply(uri)
         if (resourceServiceProvider === null)
@@ -9,6 +9,8 @@ package org.eclipse.xtext.build
 
 import java.io.File
 import java.util.List
+import java.util.Set
+import java.util.concurrent.ExecutorService
 import org.eclipse.emf.common.util.URI
 import org.eclipse.xtend.lib.annotations.Accessors
 import org.eclipse.xtext.resource.IResourceDescription
@@ -50,9 +52,68 @@ class BuildRequest {
 	boolean writeStorageResources = false
 	boolean indexOnly = false
 	
+	/**
+	 * If set, dirty files whose content did not change since the last build are skipped. They are neither reloaded,
+	 * nor revalidated, nor regenerated and no delta is reported for them. The content is compared by means of the
+	 * hashes that are recorded in the {@link IndexState#getContentHashes() index state}.
+	 * 
+	 * @since 2.14
+	 */
+	boolean skipUnchangedSources = false
+	
+	/**
+	 * If set, the content hashes of the dirty files are recorded even if {@link #isSkipUnchangedSources() unchanged
+	 * sources are not skipped}, e.g. because the index state is persisted and a later build should skip them.
+	 * Otherwise computing the hashes is omitted, since it reads every dirty file once more.
+	 * 
+	 * @since 2.14
+	 */
+	boolean recordContentHashes = false
+	
+	/**
+	 * If set, the resources that are loaded in the worker resource sets of the {@link Indexer} are loaded with
+	 * {@link org.eclipse.xtext.resource.XtextResource#OPTION_INDEX_ONLY XtextResource.OPTION_INDEX_ONLY}, i.e. only
+	 * their semantic model is parsed to compute their descriptions. This only applies if an
+	 * {@link #getExecutorService() executor} is set. It must only be enabled for languages whose qualified name
+	 * provider and resource description strategy do not use the node model, since it is empty for these resources.
+	 * 
+	 * @since 2.14
+	 */
+	boolean indexWithoutNodeModel = false
+	
+	/**
+	 * Dirty files whose resource in the {@link #getResourceSet() resource set} already reflects their current content,
+	 * e.g. because it was reparsed incrementally. These resources are rebuilt without loading them again.
+	 * 
+	 * @since 2.14
+	 */
+	Set<URI> reparsedFiles = newHashSet
+	
 	XtextResourceSet resourceSet
 	CancelIndicator cancelIndicator = CancelIndicator.NullImpl
 	
+	/**
+	 * If set, the build uses this executor to compute the resource descriptions of changed resources in worker resource sets,
+	 * to check for affected resources and to link, describe and validate the resources of a cluster concurrently.
+	 * The latter requires a resource set that supports concurrent access, e.g. a {@link org.eclipse.xtext.resource.SynchronizedXtextResourceSet SynchronizedXtextResourceSet}.
+	 * The index, the file mappings and the generator are still updated sequentially in a deterministic order.
+	 * 
+	 * @since 2.14
+	 */
+	ExecutorService executorService
+	
+	/**
+	 * The number of tasks that the build runs concurrently on the {@link #getExecutorService() executor}, e.g. the number
+	 * of shards the changed resources are split into for indexing. If not positive, it is derived from the executor: the
+	 * maximum pool size of a bounded {@link java.util.concurrent.ThreadPoolExecutor ThreadPoolExecutor}, the
+	 * parallelism of a {@link java.util.concurrent.ForkJoinPool ForkJoinPool} or the number of available processors
+	 * otherwise. Executors that do not bound their threads, e.g. one that starts a virtual thread per task, may
+	 * benefit from a larger value.
+	 * 
+	 * @since 2.14
+	 */
+	int parallelism = 0
+	
 	interface IPostValidationCallback {
 		
 		/**
@@ -7,6 +7,9 @@
  *******************************************************************************/
 package org.eclipse.xtext.build
 
+import java.util.List
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorService
 import org.eclipse.emf.common.util.URI
 import org.eclipse.emf.ecore.resource.Resource
 import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
@@ -23,6 +26,48 @@ class ClusteringStorageAwareResourceLoader {
 	val extension BuildContext context
 
 	def <T> Iterable<T> executeClustered(Iterable<URI> uris, (Resource)=>T operation) {
+		return doExecuteClustered(uris) [ resources |
+			resources.map[operation.apply(it)]
+		]
+	}
+
+	/**
+	 * Like {@link #executeClustered(Iterable, Function1)}, but the {@code concurrentOperation} is applied to all resources
+	 * of a cluster concurrently using the given executor. The {@code sequentialOperation} is applied on the calling
+	 * thread, in the order of the given URIs, and receives the result of the concurrent operation. It is only applied
+	 * after the concurrent operation finished for all resources of the cluster, so it may modify state, e.g. the
+	 * index, that the concurrent operations read.
+	 * 
+	 * The resources of a cluster are loaded and fully initialized on the calling thread before the concurrent operation
+	 * is scheduled. The resource set must tolerate concurrent access, e.g. a
+	 * {@link org.eclipse.xtext.resource.SynchronizedXtextResourceSet SynchronizedXtextResourceSet}.
+	 * 
+	 * @since 2.14
+	 */
+	def <S, T> Iterable<T> executeClustered(Iterable<URI> uris, ExecutorService executor,
+		(Resource)=>S concurrentOperation, (Resource, S)=>T sequentialOperation) {
+		return doExecuteClustered(uris) [ resources |
+			resources.forEach[contents] // fully initialize
+			val futures = resources.map [ resource |
+				executor.submit[concurrentOperation.apply(resource)]
+			].toList
+			try {
+				// wait for the whole cluster, the sequential operation must not run concurrently to the workers
+				val intermediateResults = futures.map[get].toList
+				val result = newArrayList
+				for (i : 0 ..< resources.size) {
+					result += sequentialOperation.apply(resources.get(i), intermediateResults.get(i))
+				}
+				return result
+			} catch (ExecutionException e) {
+				throw e.cause
+			} finally {
+				futures.forEach[cancel(false)]
+			}
+		]
+	}
+
+	protected def <T> Iterable<T> doExecuteClustered(Iterable<URI> uris, (List<Resource>)=>Iterable<T> clusterOperation) {
 		val loadedURIs = <URI>newArrayList
 		val sourceLevelURIs = <URI>newArrayList
 		val resources = newArrayList
@@ -31,7 +76,7 @@ class ClusteringStorageAwareResourceLoader {
 		while (iter.hasNext) {
 			val uri = iter.next
 			if (!clusteringPolicy.continueProcessing(resourceSet, uri, loadedURIs.size)) {
-				result += resources.map[operation.apply(it)]
+				result += clusterOperation.apply(resources)
 				resources.clear
 				clearResourceSet
 				loadedURIs.clear
@@ -48,7 +93,7 @@ class ClusteringStorageAwareResourceLoader {
 			}
 			resources += resourceSet.getResource(uri, true)
 		}
-		result += resources.map[operation.apply(it)]
+		result += clusterOperation.apply(resources)
 		result
 	}
 	
@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.build
+
+import com.google.common.hash.HashFunction
+import com.google.common.hash.Hashing
+import java.io.Externalizable
+import java.io.IOException
+import java.io.InputStream
+import java.io.ObjectInput
+import java.io.ObjectOutput
+import java.util.HashMap
+import java.util.Map
+import org.eclipse.emf.common.util.URI
+import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
+
+/**
+ * Records a hash of the content of each source as of the last build. Sources whose content did not change since
+ * then can be skipped by the {@link IncrementalBuilder}.
+ * 
+ * @see BuildRequest#isSkipUnchangedSources()
+ * @since 2.14
+ */
+@FinalFieldsConstructor class ContentHashes implements Externalizable {
+
+	static val HashFunction HASH_FUNCTION = Hashing.farmHashFingerprint64
+
+	val Map<URI, Long> source2hash
+
+	new() {
+		this(newHashMap)
+	}
+
+	def ContentHashes copy() {
+		new ContentHashes(new HashMap(source2hash))
+	}
+
+	/**
+	 * Returns the recorded hash or <code>null</code> if there is none.
+	 */
+	def Long getHash(URI source) {
+		return source2hash.get(source)
+	}
+
+	def void setHash(URI source, long hash) {
+		source2hash.put(source, hash)
+	}
+
+	def void removeHash(URI source) {
+		source2hash.remove(source)
+	}
+
+	/**
+	 * Computes a fast, non-cryptographic 64 bit hash of the stream's content. The stream is closed afterwards.
+	 */
+	def static long computeHash(InputStream in) throws IOException {
+		try {
+			val hasher = HASH_FUNCTION.newHasher
+			val buffer = newByteArrayOfSize(8192)
+			var count = in.read(buffer)
+			while (count !== -1) {
+				hasher.putBytes(buffer, 0, count)
+				count = in.read(buffer)
+			}
+			return hasher.hash.asLong
+		} finally {
+			in.close
+		}
+	}
+
+	override readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+		val numEntries = in.readInt
+		for (i : 0 ..< numEntries) {
+			val source = URI.createURI(in.readUTF)
+			source2hash.put(source, in.readLong)
+		}
+	}
+
+	override writeExternal(ObjectOutput out) throws IOException {
+		val entries = source2hash.entrySet
+		out.writeInt(entries.size)
+		entries.forEach [
+			out.writeUTF(key.toString)
+			out.writeLong(value)
+		]
+	}
+}
@@ -9,6 +9,7 @@ package org.eclipse.xtext.build
 
 import com.google.inject.Inject
 import com.google.inject.Provider
+import java.io.IOException
 import java.util.List
 import org.eclipse.emf.common.util.URI
 import org.eclipse.emf.ecore.resource.Resource
@@ -26,6 +27,7 @@ import org.eclipse.xtext.generator.trace.TraceRegionSerializer
 import org.eclipse.xtext.parser.IEncodingProvider
 import org.eclipse.xtext.resource.IResourceDescription
 import org.eclipse.xtext.resource.IResourceServiceProvider
+import org.eclipse.xtext.resource.ISynchronizable
 import org.eclipse.xtext.resource.clustering.DisabledClusteringPolicy
 import org.eclipse.xtext.resource.clustering.IResourceClusteringPolicy
 import org.eclipse.xtext.resource.persistence.SerializableResourceDescription
@@ -34,6 +36,7 @@ import org.eclipse.xtext.service.OperationCanceledManager
 import org.eclipse.xtext.util.CancelIndicator
 import org.eclipse.xtext.util.internal.Log
 import org.eclipse.xtext.validation.CheckMode
+import org.eclipse.xtext.validation.Issue
 import org.eclipse.xtext.workspace.IProjectConfigProvider
 import org.eclipse.xtext.generator.GeneratorContext
 
@@ -48,6 +51,17 @@ import org.eclipse.xtext.generator.GeneratorContext
 		List<IResourceDescription.Delta> affectedResources
 	}
 	
+	/**
+	 * The outcome of resolving, describing and validating a resource.
+	 * The issues are <code>null</code> if the resource was not validated. 
+	 * 
+	 * @since 2.14
+	 */
+	@Data protected static class ResolvedResource {
+		IResourceDescription description
+		List<Issue> issues
+	}
+	
 	@Log protected static class InternalStatefulIncrementalBuilder {
 	
 		@Accessors(PROTECTED_SETTER) extension BuildContext context
@@ -66,6 +80,7 @@ import org.eclipse.xtext.generator.GeneratorContext
 		
 		def Result launch() {
 			val newSource2GeneratedMapping = request.state.fileMappings
+			updateContentHashes()
 			val unloaded = newHashSet()
 		    for (deleted : request.deletedFiles) {
                 if (unloaded.add(deleted)) {
@@ -73,7 +88,8 @@ import org.eclipse.xtext.generator.GeneratorContext
                 }
             }
             for (dirty : request.dirtyFiles) {
-                if (unloaded.add(dirty)) {
+                // resources that were reparsed incrementally are up to date already
+                if (unloaded.add(dirty) && !request.reparsedFiles.contains(dirty)) {
                     unloadResource(dirty)
                 }
             }
@@ -103,40 +119,171 @@ import org.eclipse.xtext.generator.GeneratorContext
 			// add deleted deltas
 			resolvedDeltas += result.resourceDeltas.filter[getNew === null]
 			// add changed and added as fully resolved
-			resolvedDeltas += result.resourceDeltas.filter[getNew !== null].map[uri]
-				.executeClustered [
+			val changedURIs = clusteringPolicy.orderByLocality(
+				result.resourceDeltas.filter[getNew !== null].map[uri].toList, oldState.resourceDescriptions)
+			if (isConcurrentBuild) {
+				resolvedDeltas += changedURIs.executeClustered(request.executorService, [
 					Resource resource |
-					request.cancelIndicator.checkCanceled
-					resource.contents // fully initialize
-					EcoreUtil2.resolveLazyCrossReferences(resource, CancelIndicator.NullImpl)
-					request.cancelIndicator.checkCanceled
-					val serviceProvider = context.getResourceServiceProvider(resource.getURI)
-					val manager = serviceProvider.resourceDescriptionManager
-					val description = manager.getResourceDescription(resource);
-                    val copiedDescription = SerializableResourceDescription.createCopy(description);
-                    result.newIndex.addDescription(resource.getURI, copiedDescription)
-                    request.cancelIndicator.checkCanceled
-					if (!request.indexOnly 
-						&& resource.validate 
-						&& serviceProvider.get(IShouldGenerate).shouldGenerate(resource, CancelIndicator.NullImpl)
-					) {
-						request.cancelIndicator.checkCanceled
-						resource.generate(request, newSource2GeneratedMapping)
-					}
-					val old = oldState.resourceDescriptions.getResourceDescription(resource.getURI)
-					return manager.createDelta(old, copiedDescription)
+					resource.resolveAndValidate
+				], [
+					Resource resource, ResolvedResource resolved |
+					resource.indexAndGenerate(resolved)
+				])
+			} else {
+				resolvedDeltas += changedURIs.executeClustered [
+					Resource resource |
+					resource.indexAndGenerate(resource.resolveAndValidate)
 				]
+			}
 			return new Result(request.state, resolvedDeltas)
 		}
 		
+		/**
+		 * Records the content hashes of the dirty files. If {@link BuildRequest#isSkipUnchangedSources() requested},
+		 * the dirty files whose content did not change since the last build are removed from the request. The files
+		 * are only read if the hashes are {@link BuildRequest#isRecordContentHashes() recorded} or unchanged sources
+		 * are skipped.
+		 * 
+		 * @since 2.14
+		 */
+		protected def void updateContentHashes() {
+			val contentHashes = request.state.contentHashes
+			request.deletedFiles.forEach[contentHashes.removeHash(it)]
+			if (!request.skipUnchangedSources && !request.recordContentHashes) {
+				// the recorded hashes of the dirty files are outdated
+				request.dirtyFiles.forEach[contentHashes.removeHash(it)]
+				return
+			}
+			val changed = newArrayList
+			for (dirty : request.dirtyFiles) {
+				request.cancelIndicator.checkCanceled
+				val newHash = computeContentHash(dirty)
+				if (newHash === null) {
+					contentHashes.removeHash(dirty)
+					changed += dirty
+				} else {
+					contentHashes.setHash(dirty, newHash)
+					if (!request.skipUnchangedSources
+						|| newHash != oldState.contentHashes.getHash(dirty)
+						|| oldState.resourceDescriptions.getResourceDescription(dirty) === null) {
+						changed += dirty
+					}
+				}
+			}
+			if (changed.size != request.dirtyFiles.size) {
+				if (LOG.isInfoEnabled)
+					LOG.info("Skipping " + (request.dirtyFiles.size - changed.size) + " unchanged resource(s)")
+				request.dirtyFiles = changed
+			}
+		}
+		
+		/**
+		 * Returns the hash of the source's current content or <code>null</code> if it cannot be read.
+		 * 
+		 * @since 2.14
+		 */
+		protected def Long computeContentHash(URI source) {
+			try {
+				return ContentHashes.computeHash(request.resourceSet.getURIConverter.createInputStream(source))
+			} catch (IOException e) {
+				return null
+			}
+		}
+		
+		/**
+		 * Resources are only processed concurrently if the request provides an executor and the resource set
+		 * can be accessed from multiple threads.
+		 * 
+		 * @since 2.14
+		 */
+		protected def boolean isConcurrentBuild() {
+			return request.executorService !== null && request.resourceSet instanceof ISynchronizable<?>
+		}
+		
+		/**
+		 * Resolves, describes and validates the given resource. In a {@link #isConcurrentBuild() concurrent build}, it is
+		 * called concurrently for all resources of a cluster, so it must not modify any shared state of the build.
+		 * 
+		 * @since 2.14
+		 */
+		protected def ResolvedResource resolveAndValidate(Resource resource) {
+			request.cancelIndicator.checkCanceled
+			resource.contents // fully initialize
+			EcoreUtil2.resolveLazyCrossReferences(resource, CancelIndicator.NullImpl)
+			request.cancelIndicator.checkCanceled
+			val manager = getResourceServiceProvider(resource.getURI).resourceDescriptionManager
+			val description = manager.getResourceDescription(resource)
+			val copiedDescription = SerializableResourceDescription.createCopy(description)
+			if (request.indexOnly) {
+				return new ResolvedResource(copiedDescription, null)
+			}
+			request.cancelIndicator.checkCanceled
+			return new ResolvedResource(copiedDescription, resource.computeIssues)
+		}
+		
+		/**
+		 * Adds the description of the resolved resource to the index, reports its issues and generates it. Always called
+		 * on the thread of the build, in the order of the resources.
+		 * 
+		 * @since 2.14
+		 */
+		protected def IResourceDescription.Delta indexAndGenerate(Resource resource, ResolvedResource resolved) {
+			request.cancelIndicator.checkCanceled
+			request.state.resourceDescriptions.addDescription(resource.getURI, resolved.description)
+			request.cancelIndicator.checkCanceled
+			if (!request.indexOnly
+				&& (resolved.issues === null || resource.reportIssues(resolved.issues))
+				&& resource.shouldGenerate
+			) {
+				request.cancelIndicator.checkCanceled
+				resource.generate(request, request.state.fileMappings)
+			}
+			val manager = getResourceServiceProvider(resource.getURI).resourceDescriptionManager
+			val old = oldState.resourceDescriptions.getResourceDescription(resource.getURI)
+			return manager.createDelta(old, resolved.description)
+		}
+		
+		/**
+		 * @since 2.14
+		 */
+		protected def boolean shouldGenerate(Resource resource) {
+			val serviceProvider = getResourceServiceProvider(resource.getURI)
+			return serviceProvider.get(IShouldGenerate).shouldGenerate(resource, CancelIndicator.NullImpl)
+		}
+		
+		/**
+		 * @deprecated the builder validates resources by means of {@link #computeIssues(Resource)} and
+		 *             {@link #reportIssues(Resource, List)}, which are also used by concurrent builds.
+		 */
+		@Deprecated
 		def protected boolean validate(Resource resource) {
+			val issues = resource.computeIssues
+			return issues === null || resource.reportIssues(issues)
+		}
+		
+		/**
+		 * Returns the issues of the given resource or <code>null</code> if the language does not validate its resources.
+		 * In a {@link #isConcurrentBuild() concurrent build}, it is called concurrently for all resources of a cluster.
+		 * 
+		 * @since 2.14
+		 */
+		protected def List<Issue> computeIssues(Resource resource) {
 			val resourceValidator = getResourceServiceProvider(resource.getURI).getResourceValidator();
 			if (resourceValidator === null) {
-				return true
+				return null
 			}
 			LOG.info("Starting validation for input: '" + resource.getURI.lastSegment + "'");
-			val validationResult = resourceValidator.validate(resource, CheckMode.ALL, null);
-			return request.afterValidate.afterValidate(resource.getURI, validationResult)
+			return resourceValidator.validate(resource, CheckMode.ALL, null);
+		}
+		
+		/**
+		 * Passes the issues of the given resource to the {@link BuildRequest#getAfterValidate() callback} of the request.
+		 * Returns <code>false</code> if the resource should not be generated.
+		 * 
+		 * @since 2.14
+		 */
+		protected def boolean reportIssues(Resource resource, List<Issue> issues) {
+			return request.afterValidate.afterValidate(resource.getURI, issues)
 		}
 	
 		protected def void generate(Resource resource, BuildRequest request, Source2GeneratedMapping newMappings) {
@@ -211,7 +358,7 @@ import org.eclipse.xtext.generator.GeneratorContext
 	
 	def Result build(BuildRequest request, (URI)=>IResourceServiceProvider languages, IResourceClusteringPolicy clusteringPolicy) {
 		val resourceSet = request.resourceSet
-		val oldState = new IndexState(request.state.resourceDescriptions.copy, request.state.fileMappings.copy)
+		val oldState = request.state.copy
 		val context = new BuildContext(languages
 									, resourceSet
 									, oldState
@@ -18,9 +18,30 @@ import org.eclipse.xtext.resource.impl.ResourceDescriptionsData
 	
 	val ResourceDescriptionsData resourceDescriptions
 	val Source2GeneratedMapping fileMappings
+	/**
+	 * @since 2.14
+	 */
+	val ContentHashes contentHashes
 	
+	/**
+	 * Creates an empty index state. Clients that copy the state for each build may pass a
+	 * {@link org.eclipse.xtext.resource.impl.CopyOnWriteResourceDescriptionsData CopyOnWriteResourceDescriptionsData}
+	 * to {@link #IndexState(ResourceDescriptionsData, Source2GeneratedMapping)} instead, which is copied in constant
+	 * time.
+	 */
 	new () {
 		this(new ResourceDescriptionsData(emptySet), new Source2GeneratedMapping)
 	}
 	
+	new (ResourceDescriptionsData resourceDescriptions, Source2GeneratedMapping fileMappings) {
+		this(resourceDescriptions, fileMappings, new ContentHashes)
+	}
+	
+	/**
+	 * @since 2.14
+	 */
+	def IndexState copy() {
+		new IndexState(resourceDescriptions.copy, fileMappings.copy, contentHashes.copy)
+	}
+	
 }
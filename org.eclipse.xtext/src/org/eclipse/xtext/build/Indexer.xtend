@@ -8,12 +8,19 @@
 package org.eclipse.xtext.build
 
 import com.google.common.collect.ImmutableList
+import com.google.common.collect.Lists
 import com.google.common.collect.Maps
+import com.google.common.math.IntMath
 import com.google.inject.Inject
+import com.google.inject.Provider
+import java.math.RoundingMode
 import java.util.Collection
 import java.util.HashSet
 import java.util.List
 import java.util.Map
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.ThreadPoolExecutor
 import org.eclipse.emf.common.util.URI
 import org.eclipse.emf.ecore.InternalEObject
 import org.eclipse.emf.ecore.resource.Resource
@@ -28,12 +35,18 @@ import org.eclipse.xtext.resource.IReferenceDescription
 import org.eclipse.xtext.resource.IResourceDescription
 import org.eclipse.xtext.resource.IResourceDescription.Delta
 import org.eclipse.xtext.resource.IResourceDescriptions
+import org.eclipse.xtext.resource.IResourceServiceProviderExtension
+import org.eclipse.xtext.resource.XtextResource
+import org.eclipse.xtext.resource.XtextResourceSet
 import org.eclipse.xtext.resource.impl.AbstractResourceDescription
+import org.eclipse.xtext.resource.impl.ChunkedResourceDescriptions
 import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionDelta
+import org.eclipse.xtext.resource.impl.ProjectDescription
 import org.eclipse.xtext.resource.impl.ResourceDescriptionsData
 import org.eclipse.xtext.util.internal.Log
 import org.eclipse.xtext.service.OperationCanceledManager
 import org.eclipse.xtext.resource.persistence.SerializableEObjectDescriptionProvider
+import org.eclipse.xtext.resource.persistence.SourceLevelURIsAdapter
 
 /**
  * @author Jan Koehnlein - Initial contribution and API
@@ -42,6 +55,7 @@ import org.eclipse.xtext.resource.persistence.SerializableEObjectDescriptionProv
 @Log class Indexer {
 
 	@Inject CompilerPhases compilerPhases
+	@Inject Provider<XtextResourceSet> resourceSetProvider
 	@Inject extension OperationCanceledManager
 
 	@Data static class IndexResult {
@@ -60,7 +74,7 @@ import org.eclipse.xtext.resource.persistence.SerializableEObjectDescriptionProv
 				'Creating Deltas for changes. Deleted : ' + request.deletedFiles.toSet + ', Changed : ' +
 					request.dirtyFiles.toSet + '.')
 		deltas.addAll(getDeltasForDeletedResources(request, previousIndex, context))
-		deltas.addAll(getDeltasForChangedResources(request.dirtyFiles, previousIndex, context))
+		deltas.addAll(getDeltasForChangedResources(request, request.dirtyFiles, previousIndex, context))
 		// update the index with the direct deltas
 		for (delta : deltas)
 			newIndex.register(delta)
@@ -73,15 +87,10 @@ import org.eclipse.xtext.resource.persistence.SerializableEObjectDescriptionProv
 		val remainingURIs = previousIndex.allResourceDescriptions.map[getURI].toSet
 		remainingURIs.removeAll(deltas.map[uri])
 
-		val allAffected = remainingURIs.filter [
-			val manager = getResourceServiceProvider.resourceDescriptionManager
-			val resourceDescription = previousIndex.getResourceDescription(it)
-			val isAffected = resourceDescription.isAffected(manager, allDeltas, allDeltas, newIndex)
-			return isAffected
-		].toList
+		val allAffected = getAllAffected(request, remainingURIs, allDeltas, previousIndex, newIndex, context)
 		if (LOG.isInfoEnabled && !allAffected.empty)
 			LOG.info('Creating Deltas for affected resources : ' + allAffected.toSet + ".")
-		deltas.addAll(getDeltasForChangedResources(allAffected, previousIndex, context))
+		deltas.addAll(getDeltasForChangedResources(request, allAffected, previousIndex, context))
 
 		return new IndexResult(deltas, newIndex)
 	}
@@ -100,6 +109,44 @@ import org.eclipse.xtext.resource.persistence.SerializableEObjectDescriptionProv
 		return deltas
 	}
 
+	/**
+	 * Returns the URIs of all resources in the previous index that are affected by the given deltas.
+	 * The candidates are checked concurrently if the request provides an executor.
+	 * 
+	 * @since 2.14
+	 */
+	protected def List<URI> getAllAffected(BuildRequest request, Iterable<URI> candidates, Collection<Delta> allDeltas,
+		ResourceDescriptionsData previousIndex, ResourceDescriptionsData newIndex, extension BuildContext context) {
+		val (List<URI>)=>List<URI> filterAffected = [ uris |
+			uris.filter [
+				context.cancelIndicator.checkCanceled
+				val manager = getResourceServiceProvider.resourceDescriptionManager
+				val resourceDescription = previousIndex.getResourceDescription(it)
+				val isAffected = resourceDescription.isAffected(manager, allDeltas, allDeltas, newIndex)
+				return isAffected
+			].toList
+		]
+		if (request.executorService === null)
+			return filterAffected.apply(candidates.toList)
+		return request.executeSharded(candidates.toList, filterAffected)
+	}
+
+	/**
+	 * Computes the deltas for the given changed resources. If the request provides an executor, the resource 
+	 * descriptions are computed concurrently in worker resource sets.
+	 * 
+	 * @since 2.14
+	 */
+	protected def List<Delta> getDeltasForChangedResources(BuildRequest request, Iterable<URI> affectedUris,
+		ResourceDescriptionsData oldIndex, extension BuildContext context) {
+		if (request.executorService === null)
+			return getDeltasForChangedResources(affectedUris, oldIndex, context)
+		val uris = affectedUris.filter[canHandle].toList
+		return request.executeSharded(uris) [ shard |
+			getDeltasForChangedResourcesInWorker(request, shard, oldIndex, context)
+		]
+	}
+
 	protected def List<Delta> getDeltasForChangedResources(Iterable<URI> affectedUris,
 		ResourceDescriptionsData oldIndex, extension BuildContext context) {
 		try {
@@ -112,6 +159,97 @@ import org.eclipse.xtext.resource.persistence.SerializableEObjectDescriptionProv
 		}
 	}
 
+	/**
+	 * Computes the deltas for a shard of the changed resources in a dedicated resource set. Each resource is
+	 * unloaded as soon as its description is computed.
+	 * 
+	 * @since 2.14
+	 */
+	protected def List<Delta> getDeltasForChangedResourcesInWorker(BuildRequest request, List<URI> uris,
+		ResourceDescriptionsData oldIndex, BuildContext context) {
+		val workerResourceSet = createWorkerResourceSet(request, context)
+		compilerPhases.setIndexing(workerResourceSet, true)
+		SourceLevelURIsAdapter.setSourceLevelUris(workerResourceSet, uris.filter [
+			val provider = context.getResourceServiceProvider(it)
+			provider instanceof IResourceServiceProviderExtension && 
+				(provider as IResourceServiceProviderExtension).isSource(it)
+		].toList)
+		return uris.map [
+			val resource = workerResourceSet.getResource(it, true)
+			try {
+				return resource.addToIndex(true, oldIndex, context)
+			} finally {
+				workerResourceSet.resources.remove(resource)
+				resource.unload
+			}
+		].toList
+	}
+
+	/**
+	 * Creates a resource set that is used to load resources on a worker thread. It shares the URI converter, 
+	 * the registries, the load options and the index with the resource set of the build. As the resources are 
+	 * only loaded to compute their exported objects and are never passed on, only their semantic model is parsed if
+	 * the request {@link BuildRequest#isIndexWithoutNodeModel() allows it}.
+	 * 
+	 * @since 2.14
+	 * @see XtextResource#OPTION_INDEX_ONLY
+	 */
+	protected def XtextResourceSet createWorkerResourceSet(BuildRequest request, BuildContext context) {
+		val original = context.resourceSet
+		return resourceSetProvider.get => [
+			URIConverter = original.getURIConverter
+			resourceFactoryRegistry = original.resourceFactoryRegistry
+			packageRegistry = original.packageRegistry
+			classpathURIContext = original.classpathURIContext
+			loadOptions.putAll(original.loadOptions)
+			if (request.indexWithoutNodeModel)
+				loadOptions.put(XtextResource.OPTION_INDEX_ONLY, true)
+			ProjectDescription.findInEmfObject(original)?.attachToEmfObject(it)
+			ChunkedResourceDescriptions.findInEmfObject(original)?.createShallowCopyWith(it)
+		]
+	}
+
+	/**
+	 * Splits the given elements into one contiguous shard per {@link #getParallelism(BuildRequest) parallel task}, 
+	 * applies the operation to each shard using the executor of the request and concatenates the results in the 
+	 * order of the shards.
+	 */
+	private def <T, R> List<R> executeSharded(BuildRequest request, List<T> elements, (List<T>)=>List<R> operation) {
+		if (elements.empty)
+			return newArrayList
+		val shardSize = IntMath.divide(elements.size, getParallelism(request), RoundingMode.CEILING)
+		val futures = Lists.partition(elements, shardSize).map [ shard |
+			request.executorService.submit[operation.apply(shard)]
+		].toList
+		try {
+			val result = newArrayList
+			for (future : futures) {
+				result += future.get
+			}
+			return result
+		} catch (ExecutionException e) {
+			throw e.cause
+		} finally {
+			futures.forEach[cancel(false)]
+		}
+	}
+
+	/**
+	 * Returns the number of tasks that are run concurrently on the executor of the request.
+	 * 
+	 * @see BuildRequest#getParallelism()
+	 * @since 2.14
+	 */
+	protected def int getParallelism(BuildRequest request) {
+		if (request.parallelism > 0)
+			return request.parallelism
+		return switch executor : request.executorService {
+			ThreadPoolExecutor case executor.maximumPoolSize < Integer.MAX_VALUE: executor.maximumPoolSize
+			ForkJoinPool: executor.parallelism
+			default: Runtime.runtime.availableProcessors
+		}
+	}
+
 	def protected Delta addToIndex(Resource resource, boolean isPreIndexing, ResourceDescriptionsData oldIndex,
 		BuildContext context) {
 		context.cancelIndicator.checkCanceled
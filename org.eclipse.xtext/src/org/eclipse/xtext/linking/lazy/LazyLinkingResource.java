@@ -121,6 +121,8 @@ public class LazyLinkingResource extends XtextResource {
 	 * @param mon a {@link CancelIndicator} can be used to stop the resolution.
 	 */
 	public void resolveLazyCrossReferences(final CancelIndicator mon) {
+		// a resource that has been loaded for indexing only is not linked yet
+		parseCompletely();
 		final CancelIndicator monitor = mon == null ? CancelIndicator.NullImpl : mon;
 		TreeIterator<Object> iterator = EcoreUtil.getAllContents(this, true);
 		while (iterator.hasNext()) {
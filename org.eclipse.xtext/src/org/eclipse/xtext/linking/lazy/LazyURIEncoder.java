@@ -22,6 +22,7 @@ import org.eclipse.xtext.util.Strings;
 import org.eclipse.xtext.util.Triple;
 import org.eclipse.xtext.util.Tuples;
 
+import com.google.common.base.Objects;
 import com.google.inject.Inject;
 import com.google.inject.Singleton;
 import com.google.inject.name.Named;
@@ -192,14 +193,14 @@ public class LazyURIEncoder {
 	 * @noreference This method is not intended to be referenced by clients.
 	 */
 	public void getRelativePath(StringBuilder result, INode parserNode, INode node) {
-		if (parserNode == node)
+		if (Objects.equal(parserNode, node))
 			return;
 		if (isAncestor(parserNode, node)) {
 			ICompositeNode parent = node.getParent();
 			getRelativePath(result, parserNode, parent);
 			int idx = 0;
 			INode child = parent.getFirstChild();
-			while(child != node && child.hasNextSibling()) {
+			while(!child.equals(node) && child.hasNextSibling()) {
 				idx++;
 				child = child.getNextSibling();
 			}
@@ -64,13 +64,17 @@ public class SyntheticLinkingSupport {
 	 * @since 2.10
 	 */
 	protected CompositeNode getParent(EObject obj, EReference eRef, String crossRefString, int offset, int length) {
+		Resource resource = obj.eResource();
+		if (resource instanceof XtextResource) {
+			// synthetic nodes can only be added to a node model of the regular node types
+			((XtextResource) resource).expandNodeModel();
+		}
 		ICompositeNode node = NodeModelUtils.getNode(obj);
 		if (node != null) {
 			ICompositeNode rootNode = node.getRootNode();
 			if (rootNode instanceof CompositeNode)
 				return (CompositeNode) rootNode;
 		}
-		Resource resource = obj.eResource();
 		if (resource instanceof XtextResource) {
 			IParseResult parseResult = ((XtextResource) resource).getParseResult();
 			if (parseResult != null) {
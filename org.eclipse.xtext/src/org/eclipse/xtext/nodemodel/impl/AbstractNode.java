@@ -154,6 +154,8 @@ public abstract class AbstractNode implements INode, BidiTreeIterable<INode> {
 		if (rootNode != null) {
 			int offset = getTotalOffset();
 			int length = getTotalLength();
+			if (rootNode instanceof RootNode)
+				return ((RootNode) rootNode).basicGetText(offset, length);
 			return rootNode.getText().substring(offset, offset + length);
 		}
 		return null;
@@ -0,0 +1,906 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.nodemodel.impl;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.notify.Notification;
+import org.eclipse.emf.common.notify.Notifier;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.xtext.nodemodel.BidiIterable;
+import org.eclipse.xtext.nodemodel.BidiTreeIterable;
+import org.eclipse.xtext.nodemodel.BidiTreeIterator;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
+import org.eclipse.xtext.nodemodel.ILeafNode;
+import org.eclipse.xtext.nodemodel.INode;
+import org.eclipse.xtext.nodemodel.SyntaxErrorMessage;
+import org.eclipse.xtext.nodemodel.util.EmptyBidiIterable;
+import org.eclipse.xtext.nodemodel.util.NodeIterable;
+import org.eclipse.xtext.nodemodel.util.NodeTreeIterator;
+import org.eclipse.xtext.nodemodel.util.ReversedBidiTreeIterable;
+import org.eclipse.xtext.nodemodel.util.SingletonBidiIterable;
+import org.eclipse.xtext.util.ITextRegion;
+import org.eclipse.xtext.util.ITextRegionWithLineInformation;
+import org.eclipse.xtext.util.TextRegion;
+import org.eclipse.xtext.util.TextRegionWithLineInformation;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.ImmutableSet;
+
+/**
+ * A read-only node model that is stored in parallel arrays instead of a graph of node objects. The nodes are numbered
+ * in pre-order, so the subtree of a node is the range of indexes from the node up to its end index, and the grammar
+ * elements, the offsets and the links to the parents are stored as ints. Only the offsets are stored, the length of a
+ * node is the distance to the offset of the node that follows its subtree. Folded composite nodes are unfolded into
+ * chains of synthetic composite nodes.
+ *
+ * The {@link INode nodes} of a compact node model are flyweights that are created on demand. Only the nodes with a
+ * semantic element are retained since they are adapters of their semantic element. Therefore the nodes of a compact
+ * node model have to be compared with {@link Object#equals(Object) equals}, just like
+ * {@link SyntheticCompositeNode synthetic composite nodes}.
+ *
+ * @since 2.14
+ */
+@Beta
+public class CompactNodeModel {
+
+	private static final byte LEAF = 1;
+
+	private static final byte HIDDEN = 2;
+
+	private static final byte SYNTHETIC = 4;
+
+	private static final Set<Class<?>> SUPPORTED_NODE_TYPES = ImmutableSet.<Class<?>>of(RootNode.class,
+			CompositeNode.class, CompositeNodeWithSemanticElement.class, CompositeNodeWithSyntaxError.class,
+			CompositeNodeWithSemanticElementAndSyntaxError.class, LeafNode.class, HiddenLeafNode.class,
+			LeafNodeWithSyntaxError.class, HiddenLeafNodeWithSyntaxError.class);
+
+	/**
+	 * Returns a compact copy of the given node model and replaces the nodes that are attached to the semantic elements
+	 * by the nodes of the copy. Returns <code>null</code> if the node model cannot be compacted, e.g. because it contains
+	 * nodes of other types than the ones of the parser.
+	 *
+	 * @param rootNode
+	 *            the root node of the node model. May not be <code>null</code>.
+	 * @return the root node of the compact node model or <code>null</code>.
+	 */
+	/* @Nullable */
+	public static ICompositeNode compact(ICompositeNode rootNode) {
+		if (isCompact(rootNode))
+			return rootNode;
+		if (!(rootNode instanceof RootNode))
+			return null;
+		CompactNodeModel model = new Compactor((RootNode) rootNode).compact();
+		return model != null ? model.root : null;
+	}
+
+	/**
+	 * Returns an equivalent node model of the regular node types for the given compact node model and attaches its
+	 * nodes to the semantic elements. Returns the given node if it is not the root of a compact node model.
+	 */
+	public static ICompositeNode expand(ICompositeNode rootNode) {
+		if (!isCompact(rootNode))
+			return rootNode;
+		return ((CompactNode) rootNode).getModel().expand(true);
+	}
+
+	/**
+	 * Returns the given root node or an equivalent node model of the regular node types if it is the root of a compact
+	 * node model. In contrast to {@link #expand(ICompositeNode)} the nodes are not attached to the semantic elements.
+	 *
+	 * @noreference This method is not intended to be referenced by clients.
+	 */
+	public static RootNode toRootNode(ICompositeNode rootNode) {
+		if (isCompact(rootNode))
+			return ((CompactNode) rootNode).getModel().expand(false);
+		return (RootNode) rootNode;
+	}
+
+	/**
+	 * Returns whether the given node belongs to a compact node model.
+	 */
+	public static boolean isCompact(INode node) {
+		return node instanceof CompactNode;
+	}
+
+	/**
+	 * Finds the leaf node at the given offset within a node of a compact node model by means of a binary search.
+	 *
+	 * @see org.eclipse.xtext.nodemodel.util.NodeModelUtils#findLeafNodeAtOffset(INode, int)
+	 * @noreference This method is not intended to be referenced by clients.
+	 */
+	/* @Nullable */
+	public static ILeafNode findLeafNodeAtOffset(INode node, int leafNodeOffset) {
+		return ((CompactNode) node).getModel().findLeafNodeAtOffset(((CompactNode) node).index, leafNodeOffset);
+	}
+
+	static int[] getLineBreakOffsets(INode node) {
+		return ((CompactNode) node).getModel().lineBreakOffsets;
+	}
+
+	private final String text;
+
+	private final int[] lineBreakOffsets;
+
+	private final int size;
+
+	private final byte[] flags;
+
+	private final EObject[] grammarElements;
+
+	private final int[] grammarElementIds;
+
+	private final int[] totalOffsets;
+
+	private final int[] ends;
+
+	private final int[] parents;
+
+	private final int[] lookAheads;
+
+	private final int[] semanticNodeIndexes;
+
+	private final SemanticCompositeNode[] semanticNodes;
+
+	private final int[] syntaxErrorIndexes;
+
+	private final SyntaxErrorMessage[] syntaxErrors;
+
+	private final CompactCompositeNode root;
+
+	private CompactNodeModel(Compactor compactor, EObject[] semanticElements) {
+		this.text = compactor.rootNode.getCompleteContent();
+		this.lineBreakOffsets = compactor.rootNode.basicGetLineBreakOffsets();
+		this.size = compactor.size;
+		this.flags = compactor.flags;
+		this.grammarElements = compactor.grammarElements.toArray(new EObject[compactor.grammarElements.size()]);
+		this.grammarElementIds = compactor.grammarElementIds;
+		this.totalOffsets = compactor.totalOffsets;
+		this.ends = compactor.ends;
+		this.parents = compactor.parents;
+		this.lookAheads = compactor.lookAheads;
+		this.semanticNodeIndexes = compactor.semanticNodeIndexes;
+		this.semanticNodes = new SemanticCompositeNode[semanticElements.length];
+		for (int i = 0; i < semanticElements.length; i++) {
+			semanticNodes[i] = new SemanticCompositeNode(semanticNodeIndexes[i], semanticElements[i]);
+		}
+		this.syntaxErrorIndexes = compactor.syntaxErrorIndexes;
+		this.syntaxErrors = compactor.syntaxErrors;
+		if (semanticNodeIndexes.length > 0 && semanticNodeIndexes[0] == 0)
+			this.root = semanticNodes[0];
+		else
+			this.root = new CompactCompositeNode(0);
+	}
+
+	private boolean isLeaf(int index) {
+		return (flags[index] & LEAF) != 0;
+	}
+
+	private int getTotalLength(int index) {
+		int end = ends[index];
+		return (end < size ? totalOffsets[end] : text.length()) - totalOffsets[index];
+	}
+
+	private int getTotalEndOffset(int index) {
+		int end = ends[index];
+		return end < size ? totalOffsets[end] : text.length();
+	}
+
+	private int getLine(int offset) {
+		return InternalNodeModelUtils.getLineAndColumn(text, lineBreakOffsets, offset).getLine();
+	}
+
+	private INode getNode(int index) {
+		if (index == 0)
+			return root;
+		int semanticIdx = Arrays.binarySearch(semanticNodeIndexes, index);
+		if (semanticIdx >= 0)
+			return semanticNodes[semanticIdx];
+		if (isLeaf(index))
+			return new CompactLeafNode(index);
+		return new CompactCompositeNode(index);
+	}
+
+	private ILeafNode findLeafNodeAtOffset(int index, int leafNodeOffset) {
+		int end = ends[index];
+		if (leafNodeOffset < totalOffsets[index] || leafNodeOffset >= getTotalEndOffset(index))
+			return null;
+		// the last node within the subtree that starts at or before the offset
+		int low = index;
+		int high = end;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (totalOffsets[mid] <= leafNodeOffset)
+				low = mid + 1;
+			else
+				high = mid;
+		}
+		for (int i = low - 1; i >= index; i--) {
+			if (isLeaf(i) && getTotalLength(i) > 0) {
+				if (leafNodeOffset < getTotalEndOffset(i))
+					return (ILeafNode) getNode(i);
+				return null;
+			}
+		}
+		return null;
+	}
+
+	private RootNode expand(boolean attach) {
+		NodeModelBuilder builder = new NodeModelBuilder();
+		Map<List<EObject>, EObject[]> foldedGrammarElements = new HashMap<List<EObject>, EObject[]>();
+		CompositeNode[] composites = new CompositeNode[size];
+		RootNode result = null;
+		for (int i = 0; i < size; i++) {
+			if ((flags[i] & SYNTHETIC) != 0) {
+				composites[i] = composites[i - 1];
+				continue;
+			}
+			int semanticIdx = Arrays.binarySearch(semanticNodeIndexes, i);
+			int syntaxErrorIdx = Arrays.binarySearch(syntaxErrorIndexes, i);
+			SyntaxErrorMessage syntaxError = syntaxErrorIdx >= 0 ? syntaxErrors[syntaxErrorIdx] : null;
+			AbstractNode node;
+			if (isLeaf(i)) {
+				LeafNode leaf;
+				boolean hidden = (flags[i] & HIDDEN) != 0;
+				if (syntaxError != null) {
+					if (hidden) {
+						HiddenLeafNodeWithSyntaxError leafWithSyntaxError = new HiddenLeafNodeWithSyntaxError();
+						leafWithSyntaxError.basicSetSyntaxErrorMessage(syntaxError);
+						leaf = leafWithSyntaxError;
+					} else {
+						LeafNodeWithSyntaxError leafWithSyntaxError = new LeafNodeWithSyntaxError();
+						leafWithSyntaxError.basicSetSyntaxErrorMessage(syntaxError);
+						leaf = leafWithSyntaxError;
+					}
+				} else {
+					leaf = hidden ? new HiddenLeafNode() : new LeafNode();
+				}
+				leaf.basicSetTotalOffset(totalOffsets[i]);
+				leaf.basicSetTotalLength(getTotalLength(i));
+				leaf.basicSetGrammarElement(getGrammarElement(i));
+				node = leaf;
+			} else {
+				CompositeNode composite;
+				if (i == 0) {
+					result = new RootNode();
+					result.basicSetCompleteContent(text);
+					composite = result;
+				} else if (semanticIdx >= 0) {
+					if (syntaxError != null) {
+						CompositeNodeWithSemanticElementAndSyntaxError compositeWithSyntaxError = new CompositeNodeWithSemanticElementAndSyntaxError();
+						compositeWithSyntaxError.basicSetSyntaxErrorMessage(syntaxError);
+						composite = compositeWithSyntaxError;
+					} else {
+						composite = new CompositeNodeWithSemanticElement();
+					}
+				} else if (syntaxError != null) {
+					CompositeNodeWithSyntaxError compositeWithSyntaxError = new CompositeNodeWithSyntaxError();
+					compositeWithSyntaxError.basicSetSyntaxErrorMessage(syntaxError);
+					composite = compositeWithSyntaxError;
+				} else {
+					composite = new CompositeNode();
+				}
+				int chainEnd = i + 1;
+				while (chainEnd < size && (flags[chainEnd] & SYNTHETIC) != 0)
+					chainEnd++;
+				if (chainEnd == i + 1) {
+					composite.basicSetGrammarElement(getGrammarElement(i));
+				} else {
+					List<EObject> folded = new ArrayList<EObject>(chainEnd - i);
+					for (int j = i; j < chainEnd; j++)
+						folded.add(getGrammarElement(j));
+					EObject[] array = foldedGrammarElements.get(folded);
+					if (array == null) {
+						array = folded.toArray(new EObject[folded.size()]);
+						foldedGrammarElements.put(folded, array);
+					}
+					composite.basicSetGrammarElement(array);
+				}
+				composite.basicSetLookAhead(lookAheads[i]);
+				if (semanticIdx >= 0) {
+					SemanticCompositeNode semanticNode = semanticNodes[semanticIdx];
+					EObject semanticElement = semanticNode.semanticElement;
+					if (attach) {
+						semanticElement.eAdapters().remove(semanticNode);
+						semanticElement.eAdapters().add((CompositeNodeWithSemanticElement) composite);
+					} else {
+						((CompositeNodeWithSemanticElement) composite).basicSetSemanticElement(semanticElement);
+					}
+				}
+				composites[i] = composite;
+				node = composite;
+			}
+			if (i != 0)
+				builder.addChild(composites[parents[i]], node);
+		}
+		return result;
+	}
+
+	private EObject getGrammarElement(int index) {
+		int id = grammarElementIds[index];
+		return id == -1 ? null : grammarElements[id];
+	}
+
+	/**
+	 * Copies a node model into the arrays of a compact node model.
+	 */
+	private static class Compactor {
+
+		private final RootNode rootNode;
+
+		private int size;
+
+		private byte[] flags;
+
+		private final List<EObject> grammarElements = new ArrayList<EObject>();
+
+		private final Map<EObject, Integer> grammarElementToId = new IdentityHashMap<EObject, Integer>();
+
+		private int[] grammarElementIds;
+
+		private int[] totalOffsets;
+
+		private int[] totalLengths;
+
+		private int[] ends;
+
+		private int[] parents;
+
+		private int[] lookAheads;
+
+		private int[] semanticNodeIndexes;
+
+		private final List<CompositeNodeWithSemanticElement> semanticNodes = new ArrayList<CompositeNodeWithSemanticElement>();
+
+		private int[] syntaxErrorIndexes;
+
+		private SyntaxErrorMessage[] syntaxErrors;
+
+		private Compactor(RootNode rootNode) {
+			this.rootNode = rootNode;
+		}
+
+		private CompactNodeModel compact() {
+			int capacity = count();
+			if (capacity == -1)
+				return null;
+			flags = new byte[capacity];
+			grammarElementIds = new int[capacity];
+			totalOffsets = new int[capacity];
+			totalLengths = new int[capacity];
+			ends = new int[capacity];
+			parents = new int[capacity];
+			lookAheads = new int[capacity];
+			List<Integer> semanticIndexes = new ArrayList<Integer>();
+			List<Integer> errorIndexes = new ArrayList<Integer>();
+			List<SyntaxErrorMessage> errors = new ArrayList<SyntaxErrorMessage>();
+			List<AbstractNode> stack = new ArrayList<AbstractNode>();
+			List<Integer> indexStack = new ArrayList<Integer>();
+			AbstractNode node = rootNode;
+			int parent = -1;
+			while (node != null) {
+				int index = add(node, parent);
+				if (node instanceof CompositeNodeWithSemanticElement
+						&& ((CompositeNodeWithSemanticElement) node).basicGetSemanticElement() != null) {
+					semanticIndexes.add(index);
+					semanticNodes.add((CompositeNodeWithSemanticElement) node);
+				}
+				SyntaxErrorMessage syntaxError = node.getSyntaxErrorMessage();
+				if (syntaxError != null) {
+					errorIndexes.add(index);
+					errors.add(syntaxError);
+				}
+				AbstractNode firstChild = node instanceof CompositeNode ? ((CompositeNode) node).basicGetFirstChild() : null;
+				stack.add(node);
+				indexStack.add(index);
+				if (firstChild != null) {
+					node = firstChild;
+					parent = size - 1;
+				} else {
+					node = null;
+					while (!stack.isEmpty()) {
+						AbstractNode done = stack.remove(stack.size() - 1);
+						int doneIndex = indexStack.remove(indexStack.size() - 1);
+						for (int i = doneIndex; i < size && ends[i] == 0 && (i == doneIndex || (flags[i] & SYNTHETIC) != 0); i++) {
+							ends[i] = size;
+						}
+						if (done.basicHasNextSibling()) {
+							node = done.basicGetNextSibling();
+							parent = parents[doneIndex];
+							break;
+						}
+					}
+				}
+			}
+			if (!isContiguous())
+				return null;
+			semanticNodeIndexes = toIntArray(semanticIndexes);
+			syntaxErrorIndexes = toIntArray(errorIndexes);
+			syntaxErrors = errors.toArray(new SyntaxErrorMessage[errors.size()]);
+			totalLengths = null;
+			EObject[] semanticElements = new EObject[semanticNodes.size()];
+			for (int i = 0; i < semanticElements.length; i++) {
+				semanticElements[i] = semanticNodes.get(i).basicGetSemanticElement();
+			}
+			CompactNodeModel result = new CompactNodeModel(this, semanticElements);
+			for (int i = 0; i < semanticElements.length; i++) {
+				semanticElements[i].eAdapters().remove(semanticNodes.get(i));
+				semanticElements[i].eAdapters().add(result.semanticNodes[i]);
+			}
+			return result;
+		}
+
+		/**
+		 * Counts the nodes of the compact node model or returns -1 if the node model contains unsupported nodes.
+		 */
+		private int count() {
+			int result = 0;
+			BidiTreeIterator<AbstractNode> iterator = rootNode.basicIterator();
+			while (iterator.hasNext()) {
+				AbstractNode node = iterator.next();
+				if (!SUPPORTED_NODE_TYPES.contains(node.getClass()))
+					return -1;
+				Object grammarElementOrArray = node.basicGetGrammarElement();
+				if (grammarElementOrArray instanceof EObject[])
+					result += ((EObject[]) grammarElementOrArray).length;
+				else
+					result++;
+			}
+			return result;
+		}
+
+		/**
+		 * Adds the given node and returns the index of the innermost node of the chain of a folded composite node.
+		 */
+		private int add(AbstractNode node, int parent) {
+			Object grammarElementOrArray = node.basicGetGrammarElement();
+			EObject[] chain = grammarElementOrArray instanceof EObject[] ? (EObject[]) grammarElementOrArray
+					: new EObject[] { (EObject) grammarElementOrArray };
+			int totalOffset = node.getTotalOffset();
+			int totalLength = node.getTotalLength();
+			int lookAhead = node instanceof CompositeNode ? ((CompositeNode) node).getLookAhead() : 0;
+			for (int i = 0; i < chain.length; i++) {
+				int index = size++;
+				byte flag = 0;
+				if (node instanceof ILeafNode) {
+					flag |= LEAF;
+					if (((ILeafNode) node).isHidden())
+						flag |= HIDDEN;
+				}
+				if (i > 0)
+					flag |= SYNTHETIC;
+				flags[index] = flag;
+				grammarElementIds[index] = getGrammarElementId(chain[i]);
+				totalOffsets[index] = totalOffset;
+				totalLengths[index] = totalLength;
+				parents[index] = i == 0 ? parent : index - 1;
+				lookAheads[index] = lookAhead;
+			}
+			return size - chain.length;
+		}
+
+		private int getGrammarElementId(EObject grammarElement) {
+			if (grammarElement == null)
+				return -1;
+			Integer result = grammarElementToId.get(grammarElement);
+			if (result == null) {
+				result = grammarElements.size();
+				grammarElements.add(grammarElement);
+				grammarElementToId.put(grammarElement, result);
+			}
+			return result;
+		}
+
+		/**
+		 * Whether the lengths of all nodes can be derived from the offsets of their successors.
+		 */
+		private boolean isContiguous() {
+			int textLength = rootNode.getCompleteContent().length();
+			for (int i = 0; i < size; i++) {
+				int end = ends[i] < size ? totalOffsets[ends[i]] : textLength;
+				if (end - totalOffsets[i] != totalLengths[i])
+					return false;
+			}
+			return true;
+		}
+
+		private static int[] toIntArray(List<Integer> list) {
+			int[] result = new int[list.size()];
+			for (int i = 0; i < result.length; i++) {
+				result[i] = list.get(i);
+			}
+			return result;
+		}
+	}
+
+	/**
+	 * A node of a compact node model.
+	 */
+	abstract class CompactNode implements INode, BidiTreeIterable<INode> {
+
+		final int index;
+
+		CompactNode(int index) {
+			this.index = index;
+		}
+
+		CompactNodeModel getModel() {
+			return CompactNodeModel.this;
+		}
+
+		@Override
+		public ICompositeNode getParent() {
+			int parent = parents[index];
+			if (parent == -1)
+				return null;
+			return (ICompositeNode) getNode(parent);
+		}
+
+		@Override
+		public boolean hasSiblings() {
+			return hasPreviousSibling() || hasNextSibling();
+		}
+
+		@Override
+		public boolean hasPreviousSibling() {
+			int parent = parents[index];
+			return parent != -1 && index != parent + 1;
+		}
+
+		@Override
+		public boolean hasNextSibling() {
+			int parent = parents[index];
+			return parent != -1 && ends[index] < ends[parent];
+		}
+
+		@Override
+		public INode getPreviousSibling() {
+			if (!hasPreviousSibling())
+				return null;
+			int parent = parents[index];
+			int result = index - 1;
+			while (parents[result] != parent)
+				result = parents[result];
+			return getNode(result);
+		}
+
+		@Override
+		public INode getNextSibling() {
+			if (!hasNextSibling())
+				return null;
+			return getNode(ends[index]);
+		}
+
+		@Override
+		public ICompositeNode getRootNode() {
+			return root;
+		}
+
+		@Override
+		public int getTotalOffset() {
+			return totalOffsets[index];
+		}
+
+		@Override
+		public int getTotalLength() {
+			return CompactNodeModel.this.getTotalLength(index);
+		}
+
+		@Override
+		public int getTotalEndOffset() {
+			return CompactNodeModel.this.getTotalEndOffset(index);
+		}
+
+		@Override
+		public int getTotalStartLine() {
+			return getLine(getTotalOffset());
+		}
+
+		@Override
+		public int getStartLine() {
+			return getLine(getOffset());
+		}
+
+		@Override
+		public int getEndLine() {
+			return getLine(getEndOffset());
+		}
+
+		@Override
+		public int getTotalEndLine() {
+			return getLine(getTotalEndOffset());
+		}
+
+		@Override
+		public ITextRegion getTextRegion() {
+			int offset = getOffset();
+			return new TextRegion(offset, getEndOffset() - offset);
+		}
+
+		@Override
+		public ITextRegion getTotalTextRegion() {
+			return new TextRegion(getTotalOffset(), getTotalLength());
+		}
+
+		@Override
+		public ITextRegionWithLineInformation getTextRegionWithLineInformation() {
+			int offset = getOffset();
+			int endOffset = getEndOffset();
+			return new TextRegionWithLineInformation(offset, endOffset - offset, getLine(offset), getLine(endOffset));
+		}
+
+		@Override
+		public ITextRegionWithLineInformation getTotalTextRegionWithLineInformation() {
+			int totalOffset = getTotalOffset();
+			int totalEndOffset = getTotalEndOffset();
+			return new TextRegionWithLineInformation(totalOffset, totalEndOffset - totalOffset, getLine(totalOffset),
+					getLine(totalEndOffset));
+		}
+
+		@Override
+		public String getText() {
+			return text.substring(getTotalOffset(), getTotalEndOffset());
+		}
+
+		@Override
+		public EObject getGrammarElement() {
+			return CompactNodeModel.this.getGrammarElement(index);
+		}
+
+		@Override
+		public EObject getSemanticElement() {
+			for (int i = index; i != -1; i = parents[i]) {
+				int semanticIdx = Arrays.binarySearch(semanticNodeIndexes, i);
+				if (semanticIdx >= 0)
+					return semanticNodes[semanticIdx].semanticElement;
+			}
+			return null;
+		}
+
+		@Override
+		public boolean hasDirectSemanticElement() {
+			return Arrays.binarySearch(semanticNodeIndexes, index) >= 0;
+		}
+
+		@Override
+		public SyntaxErrorMessage getSyntaxErrorMessage() {
+			int syntaxErrorIdx = Arrays.binarySearch(syntaxErrorIndexes, index);
+			if (syntaxErrorIdx >= 0)
+				return syntaxErrors[syntaxErrorIdx];
+			return null;
+		}
+
+		@Override
+		public BidiTreeIterable<INode> getAsTreeIterable() {
+			return this;
+		}
+
+		@Override
+		public BidiTreeIterator<INode> iterator() {
+			return new NodeTreeIterator(this);
+		}
+
+		@Override
+		public BidiTreeIterable<INode> reverse() {
+			return new ReversedBidiTreeIterable<INode>(this);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (obj == this)
+				return true;
+			if (!(obj instanceof CompactNode))
+				return false;
+			CompactNode casted = (CompactNode) obj;
+			return getModel() == casted.getModel() && index == casted.index;
+		}
+
+		@Override
+		public int hashCode() {
+			return System.identityHashCode(getModel()) ^ index;
+		}
+
+	}
+
+	/**
+	 * A composite node of a compact node model.
+	 */
+	class CompactCompositeNode extends CompactNode implements ICompositeNode {
+
+		CompactCompositeNode(int index) {
+			super(index);
+		}
+
+		@Override
+		public BidiIterable<INode> getChildren() {
+			if (hasChildren()) {
+				INode firstChild = getFirstChild();
+				if (firstChild.hasSiblings()) {
+					return new NodeIterable(firstChild);
+				} else {
+					return SingletonBidiIterable.<INode>create(firstChild);
+				}
+			}
+			return EmptyBidiIterable.instance();
+		}
+
+		@Override
+		public boolean hasChildren() {
+			return ends[index] > index + 1;
+		}
+
+		@Override
+		public INode getFirstChild() {
+			if (!hasChildren())
+				return null;
+			return getNode(index + 1);
+		}
+
+		@Override
+		public INode getLastChild() {
+			if (!hasChildren())
+				return null;
+			int result = ends[index] - 1;
+			while (parents[result] != index)
+				result = parents[result];
+			return getNode(result);
+		}
+
+		@Override
+		public int getLookAhead() {
+			return lookAheads[index];
+		}
+
+		@Override
+		public Iterable<ILeafNode> getLeafNodes() {
+			return new Iterable<ILeafNode>() {
+				@Override
+				public Iterator<ILeafNode> iterator() {
+					return new AbstractIterator<ILeafNode>() {
+						private int next = index;
+
+						@Override
+						protected ILeafNode computeNext() {
+							while (next < ends[index]) {
+								int candidate = next++;
+								if (isLeaf(candidate))
+									return (ILeafNode) getNode(candidate);
+							}
+							return endOfData();
+						}
+					};
+				}
+			};
+		}
+
+		@Override
+		public int getOffset() {
+			int firstLeaf = -1;
+			for (int i = index; i < ends[index]; i++) {
+				if (isLeaf(i)) {
+					if ((flags[i] & HIDDEN) == 0)
+						return totalOffsets[i];
+					if (firstLeaf == -1)
+						firstLeaf = i;
+				}
+			}
+			if (firstLeaf != -1)
+				return totalOffsets[firstLeaf];
+			return getTotalOffset();
+		}
+
+		@Override
+		public int getLength() {
+			int lastLeaf = getLastNonHiddenLeaf();
+			if (lastLeaf != -1)
+				return CompactNodeModel.this.getTotalEndOffset(lastLeaf) - getOffset();
+			return getTotalLength();
+		}
+
+		@Override
+		public int getEndOffset() {
+			int lastLeaf = getLastNonHiddenLeaf();
+			if (lastLeaf != -1)
+				return CompactNodeModel.this.getTotalEndOffset(lastLeaf);
+			return getTotalEndOffset();
+		}
+
+		private int getLastNonHiddenLeaf() {
+			for (int i = ends[index] - 1; i >= index; i--) {
+				if ((flags[i] & (LEAF | HIDDEN)) == LEAF)
+					return i;
+			}
+			return -1;
+		}
+
+	}
+
+	/**
+	 * A composite node of a compact node model that is attached to its semantic element.
+	 */
+	class SemanticCompositeNode extends CompactCompositeNode implements Adapter {
+
+		private EObject semanticElement;
+
+		SemanticCompositeNode(int index, EObject semanticElement) {
+			super(index);
+			this.semanticElement = semanticElement;
+		}
+
+		@Override
+		public void notifyChanged(Notification notification) {
+			// ignore
+		}
+
+		@Override
+		public Notifier getTarget() {
+			return semanticElement;
+		}
+
+		@Override
+		public void setTarget(Notifier newTarget) {
+			if (newTarget instanceof EObject)
+				semanticElement = (EObject) newTarget;
+			else if (newTarget != null)
+				throw new IllegalArgumentException("Notifier must be an Eobject");
+		}
+
+		@Override
+		public boolean isAdapterForType(Object type) {
+			return type instanceof Class<?> && INode.class.isAssignableFrom((Class<?>) type);
+		}
+
+	}
+
+	/**
+	 * A leaf node of a compact node model.
+	 */
+	class CompactLeafNode extends CompactNode implements ILeafNode {
+
+		CompactLeafNode(int index) {
+			super(index);
+		}
+
+		@Override
+		public boolean isHidden() {
+			return (flags[index] & HIDDEN) != 0;
+		}
+
+		@Override
+		public int getOffset() {
+			return getTotalOffset();
+		}
+
+		@Override
+		public int getLength() {
+			return getTotalLength();
+		}
+
+		@Override
+		public int getEndOffset() {
+			return getTotalEndOffset();
+		}
+
+		@Override
+		public Iterable<ILeafNode> getLeafNodes() {
+			return Collections.<ILeafNode>singletonList(this);
+		}
+
+	}
+
+}
@@ -141,6 +141,8 @@ public class InternalNodeModelUtils {
 	private static int[] getLineBreakOffsets(INode rootNode) {
 		if (rootNode instanceof RootNode) {
 			return ((RootNode) rootNode).basicGetLineBreakOffsets();
+		} else if (CompactNodeModel.isCompact(rootNode)) {
+			return CompactNodeModel.getLineBreakOffsets(rootNode);
 		} else {
 			String text = rootNode.getText();
 			return computeLineBreaks(text);
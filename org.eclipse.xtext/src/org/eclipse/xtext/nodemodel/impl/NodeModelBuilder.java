@@ -102,6 +102,15 @@ public class NodeModelBuilder {
 		}
 	}
 	
+	/**
+	 * Removes all children of the given node. The removed nodes must not be used afterwards.
+	 * 
+	 * @since 2.14
+	 */
+	public void removeChildren(ICompositeNode node) {
+		((CompositeNode) node).basicSetFirstChild(null);
+	}
+	
 	public void associateWithSemanticElement(ICompositeNode node, EObject astElement) {
 		CompositeNodeWithSemanticElement casted = (CompositeNodeWithSemanticElement) node;
 		astElement.eAdapters().add(casted);
@@ -165,6 +174,18 @@ public class NodeModelBuilder {
 		return result;
 	}
 
+	/**
+	 * Creates a root node for an input that is not available as a whole. The text of the descendants is read from the
+	 * given sequence on demand, the text of the root node itself is empty.
+	 * 
+	 * @since 2.14
+	 */
+	public ICompositeNode newStreamingRootNode(CharSequence input) {
+		RootNode result = new StreamingRootNode(input);
+		result.basicSetCompleteContent("");
+		return result;
+	}
+	
 	public ILeafNode newLeafNode(int offset, int length, EObject grammarElement, boolean isHidden, /* @Nullable */ SyntaxErrorMessage errorMessage,
 			ICompositeNode parent) {
 		LeafNode result = null;
@@ -56,6 +56,15 @@ public class RootNode extends CompositeNodeWithSemanticElementAndSyntaxError {
 		return getCompleteContent();
 	}
 
+	/**
+	 * Returns the text of the given region of the input.
+	 * 
+	 * @since 2.14
+	 */
+	protected String basicGetText(int offset, int length) {
+		return getCompleteContent().substring(offset, offset + length);
+	}
+
 	public int getIndex() {
 		return 0;
 	}
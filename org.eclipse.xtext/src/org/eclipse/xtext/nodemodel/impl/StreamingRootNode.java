@@ -0,0 +1,29 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.nodemodel.impl;
+
+/**
+ * A root node whose complete content is not available. The text of its descendants is read from the input on
+ * demand, which only works as long as their region of the input is still available.
+ * 
+ * @since 2.14
+ */
+class StreamingRootNode extends RootNode {
+
+	private final CharSequence input;
+
+	StreamingRootNode(CharSequence input) {
+		this.input = input;
+	}
+
+	@Override
+	protected String basicGetText(int offset, int length) {
+		return input.subSequence(offset, offset + length).toString();
+	}
+
+}
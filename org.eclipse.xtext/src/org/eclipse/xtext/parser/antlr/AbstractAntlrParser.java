@@ -12,9 +12,11 @@ import java.io.Reader;
 import java.io.StringReader;
 
 import org.antlr.runtime.ANTLRReaderStream;
+import org.antlr.runtime.ANTLRStringStream;
 import org.antlr.runtime.CharStream;
 import org.antlr.runtime.TokenSource;
 import org.eclipse.emf.common.util.WrappedException;
+import org.eclipse.emf.ecore.EObject;
 import org.eclipse.xtext.ParserRule;
 import org.eclipse.xtext.RuleCall;
 import org.eclipse.xtext.nodemodel.impl.NodeModelBuilder;
@@ -22,6 +24,7 @@ import org.eclipse.xtext.parser.AbstractParser;
 import org.eclipse.xtext.parser.IAstFactory;
 import org.eclipse.xtext.parser.IParseResult;
 import org.eclipse.xtext.parser.ParseException;
+import org.eclipse.xtext.util.IAcceptor;
 import org.eclipse.xtext.util.ReplaceRegion;
 
 import com.google.inject.Inject;
@@ -56,6 +59,13 @@ public abstract class AbstractAntlrParser extends AbstractParser {
 	@Named(LexerBindings.RUNTIME)
 	private Provider<Lexer> lexerProvider;
 
+	@Inject(optional = true)
+	private IncrementalLexer incrementalLexer;
+
+	@Inject(optional = true)
+	@Named(IncrementalLexer.INCREMENTAL_LEXING)
+	private boolean incrementalLexing = false;
+
 	@Override
 	public IParseResult doParse(Reader reader) {
 		try {
@@ -81,19 +91,123 @@ public abstract class AbstractAntlrParser extends AbstractParser {
 	protected abstract String getDefaultRuleName();
 
 	protected IParseResult parse(String ruleName, CharStream in) {
+		Lexer lexer = createIncrementalLexer();
+		if (lexer != null) {
+			String text = in.substring(0, in.size() - 1);
+			return parse(ruleName, incrementalLexer.lex(lexer, text));
+		}
 		return doParse(ruleName, in, nodeModelBuilder.get(), 0);
 	}
 
+	/**
+	 * Parses the text that results from applying the given replace region to the text of the previous parse result.
+	 * If {@link #isIncrementalLexing() incremental lexing} is enabled and the tokens of the previous parse result are
+	 * known, only the tokens around the replaced region are lexed again.
+	 * 
+	 * @since 2.14
+	 */
+	public IParseResult parse(ParserRule rule, IParseResult previousParseResult, ReplaceRegion replaceRegion) {
+		Lexer lexer = createIncrementalLexer();
+		IncrementalLexer.PendingTokens pendingTokens = lexer != null
+				? incrementalLexer.getPendingTokens(previousParseResult, replaceRegion) : null;
+		StringBuilder builder = new StringBuilder(previousParseResult.getRootNode().getText());
+		replaceRegion.applyTo(builder);
+		String text = builder.toString();
+		// changes of preceding partial reparses are lexed together with the given one
+		IncrementalLexer.Tokens tokens = pendingTokens != null ? incrementalLexer.lex(lexer, pendingTokens, text) : null;
+		if (tokens == null)
+			return parse(rule, new StringReader(text));
+		return parse(rule.getName(), tokens);
+	}
+
+	private IParseResult parse(String ruleName, IncrementalLexer.Tokens tokens) {
+		IParseResult result = doParse(ruleName, incrementalLexer.createTokenSource(tokens), nodeModelBuilder.get(), 0);
+		incrementalLexer.setTokens(result, tokens);
+		return result;
+	}
+
+	/**
+	 * Parses the given input without loading it completely. The input is read through a bounded window of characters
+	 * and each element that is contained in the root element is passed to the given acceptor as soon as it has been
+	 * parsed, after which its characters, tokens and nodes are dropped. No node model is retained: the accepted
+	 * elements are removed from the root element, none of the elements is associated with nodes and the root node of
+	 * the result is empty. The result still tells whether there were syntax errors.
+	 * 
+	 * @since 2.14
+	 */
+	public IParseResult parseStreaming(Reader reader, IAcceptor<? super EObject> elementAcceptor) {
+		XtextTokenStream tokenStream = createStreamingTokenStream(createLexer(new StreamingCharStream(reader)));
+		return doParse(getDefaultRuleName(), tokenStream, nodeModelBuilder.get(), true, elementAcceptor);
+	}
+
+	/**
+	 * Parses only the semantic model of the given input, e.g. to compute the objects that are exported by a resource.
+	 * Like {@link #parseStreaming(Reader, IAcceptor)}, the input is read through a bounded window and the nodes of
+	 * the parsed elements are dropped, but the elements remain in the root element. None of the elements is associated
+	 * with nodes, and the root node of the result is empty.
+	 * 
+	 * @since 2.14
+	 */
+	public IParseResult parseSemanticModel(Reader reader) {
+		return doParseSemanticModel(getDefaultRuleName(), reader);
+	}
+
+	/**
+	 * @see #parseSemanticModel(Reader)
+	 * @since 2.14
+	 */
+	public IParseResult parseSemanticModel(ParserRule rule, Reader reader) {
+		return doParseSemanticModel(rule.getName(), reader);
+	}
+
+	private IParseResult doParseSemanticModel(String ruleName, Reader reader) {
+		XtextTokenStream tokenStream = createStreamingTokenStream(createLexer(new StreamingCharStream(reader)));
+		return doParse(ruleName, tokenStream, nodeModelBuilder.get(), true, null);
+	}
+
+	/**
+	 * Whether the tokens of a document are kept with the parse result and lexed incrementally when the document
+	 * changes. This is the case if {@link IncrementalLexer#INCREMENTAL_LEXING} is bound to <code>true</code> and
+	 * the token source of the parser is the {@link #createLexer(CharStream) lexer} itself.
+	 * 
+	 * @since 2.14
+	 */
+	protected boolean isIncrementalLexing() {
+		return createIncrementalLexer() != null;
+	}
+
+	private Lexer createIncrementalLexer() {
+		if (!incrementalLexing || incrementalLexer == null)
+			return null;
+		TokenSource tokenSource = createLexer(new ANTLRStringStream(""));
+		if (tokenSource instanceof Lexer)
+			return (Lexer) tokenSource;
+		return null;
+	}
+
 	protected IParseResult doParse(String ruleName, CharStream in, NodeModelBuilder nodeModelBuilder, int initialLookAhead) {
-		TokenSource tokenSource = createLexer(in);
+		return doParse(ruleName, createLexer(in), nodeModelBuilder, initialLookAhead);
+	}
+
+	/**
+	 * @since 2.14
+	 */
+	protected IParseResult doParse(String ruleName, TokenSource tokenSource, NodeModelBuilder nodeModelBuilder, int initialLookAhead) {
 		XtextTokenStream tokenStream = createTokenStream(tokenSource);
 		tokenStream.initCurrentLookAhead(initialLookAhead);
+		return doParse(ruleName, tokenStream, nodeModelBuilder, false, null);
+	}
+
+	private IParseResult doParse(String ruleName, XtextTokenStream tokenStream, NodeModelBuilder nodeModelBuilder,
+			boolean discardNodeModel, IAcceptor<? super EObject> streamingAcceptor) {
 		setInitialHiddenTokens(tokenStream);
 		AbstractInternalAntlrParser parser = createParser(tokenStream);
 		parser.setTokenTypeMap(getTokenDefProvider().getTokenDefMap());
 		parser.setSyntaxErrorProvider(getSyntaxErrorProvider());
 		parser.setNodeModelBuilder(nodeModelBuilder);
 		parser.setSemanticModelBuilder(getElementFactory());
+		parser.setDiscardNodeModel(discardNodeModel);
+		parser.setStreamingAcceptor(streamingAcceptor);
 		IUnorderedGroupHelper helper = getUnorderedGroupHelper().get();
 		parser.setUnorderedGroupHelper(helper);
 		helper.initializeWith(parser);
@@ -135,7 +249,16 @@ public abstract class AbstractAntlrParser extends AbstractParser {
 
 	@Override
 	protected IParseResult doReparse(IParseResult previousParseResult, ReplaceRegion replaceRegion) {
-		return partialParser.reparse(this, previousParseResult, replaceRegion);
+		if (!isIncrementalLexing())
+			return partialParser.reparse(this, previousParseResult, replaceRegion);
+		// the partial parser may change the text of the previous root node
+		IncrementalLexer.PendingTokens pendingTokens = incrementalLexer.getPendingTokens(previousParseResult, replaceRegion);
+		IParseResult result = partialParser.reparse(this, previousParseResult, replaceRegion);
+		if (pendingTokens != null && result != previousParseResult && !incrementalLexer.hasTokens(result)) {
+			// only the changed region was parsed, the tokens of the complete text are lexed when a full reparse needs them
+			incrementalLexer.setPendingTokens(result, pendingTokens);
+		}
+		return result;
 	}
 
 	@Override
@@ -161,6 +284,13 @@ public abstract class AbstractAntlrParser extends AbstractParser {
 		return new XtextTokenStream(tokenSource, getTokenDefProvider());
 	}
 
+	/**
+	 * @since 2.14
+	 */
+	protected StreamingTokenStream createStreamingTokenStream(TokenSource tokenSource) {
+		return new StreamingTokenStream(tokenSource, getTokenDefProvider());
+	}
+
 	public Provider<Lexer> getLexerProvider() {
 		return this.lexerProvider;
 	}
@@ -16,6 +16,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 
 import org.antlr.runtime.BitSet;
+import org.antlr.runtime.CharStream;
 import org.antlr.runtime.CommonToken;
 import org.antlr.runtime.DFA;
 import org.antlr.runtime.FailedPredicateException;
@@ -26,12 +27,16 @@ import org.antlr.runtime.Parser;
 import org.antlr.runtime.RecognitionException;
 import org.antlr.runtime.RecognizerSharedState;
 import org.antlr.runtime.Token;
+import org.antlr.runtime.TokenSource;
 import org.antlr.runtime.TokenStream;
 import org.antlr.runtime.UnwantedTokenException;
 import org.apache.log4j.Logger;
+import org.eclipse.emf.common.notify.Adapter;
+import org.eclipse.emf.common.util.TreeIterator;
 import org.eclipse.emf.common.util.WrappedException;
 import org.eclipse.emf.ecore.EClassifier;
 import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.util.EcoreUtil;
 import org.eclipse.xtext.AbstractElement;
 import org.eclipse.xtext.AbstractRule;
 import org.eclipse.xtext.Action;
@@ -53,6 +58,7 @@ import org.eclipse.xtext.parser.ParseResult;
 import org.eclipse.xtext.parser.antlr.ISyntaxErrorMessageProvider.IParserErrorContext;
 import org.eclipse.xtext.parser.antlr.ISyntaxErrorMessageProvider.IUnorderedGroupErrorContext;
 import org.eclipse.xtext.parser.antlr.ISyntaxErrorMessageProvider.IValueConverterErrorContext;
+import org.eclipse.xtext.util.IAcceptor;
 import org.eclipse.xtext.util.Strings;
 
 import com.google.common.collect.ImmutableList;
@@ -219,6 +225,12 @@ public abstract class AbstractInternalAntlrParser extends Parser {
 	
 	private NodeModelBuilder nodeBuilder = new NodeModelBuilder();
 	
+	private IAcceptor<? super EObject> streamingAcceptor;
+	
+	private boolean discardNodeModel;
+	
+	private boolean discardParsedNodes;
+	
 	protected AbstractInternalAntlrParser(TokenStream input) {
 		super(input);
 	}
@@ -267,7 +279,27 @@ public abstract class AbstractInternalAntlrParser extends Parser {
 	}
 
 	private ILeafNode createLeafNode(Token token, EObject grammarElement) {
-		boolean isHidden = token.getChannel() == HIDDEN;
+		CommonToken commonToken = (CommonToken) token;
+		return createLeafNode(token.getType(), token.getChannel(), commonToken.getStartIndex(), commonToken.getStopIndex(),
+				token, grammarElement);
+	}
+
+	/**
+	 * Creates the leaf node for the token at the given index of the token stream without materializing the token,
+	 * unless it is invalid.
+	 */
+	private ILeafNode createLeafNode(int tokenIndex) {
+		XtextTokenStream tokenStream = (XtextTokenStream) input;
+		int type = tokenStream.getTokenType(tokenIndex);
+		int channel = tokenStream.getTokenChannel(tokenIndex);
+		if (type == Token.INVALID_TOKEN_TYPE)
+			return createLeafNode(input.get(tokenIndex), null);
+		return createLeafNode(type, channel, tokenStream.getTokenStartIndex(tokenIndex),
+				tokenStream.getTokenStopIndex(tokenIndex), null, null);
+	}
+
+	private ILeafNode createLeafNode(int type, int channel, int start, int stop, Token token, EObject grammarElement) {
+		boolean isHidden = channel == HIDDEN;
 		SyntaxErrorMessage error = null;
 		if (!isHidden) {
 			if (currentError != null) {
@@ -275,7 +307,7 @@ public abstract class AbstractInternalAntlrParser extends Parser {
 				currentError = null;
 			}
 		}
-		if (token.getType() == Token.INVALID_TOKEN_TYPE) {
+		if (type == Token.INVALID_TOKEN_TYPE) {
 			if (error == null) {
 				String lexerErrorMessage = ((XtextTokenStream) input).getLexerErrorMessage(token);
 				LexerErrorContext errorContext = new LexerErrorContext(lexerErrorMessage);
@@ -283,15 +315,14 @@ public abstract class AbstractInternalAntlrParser extends Parser {
 			}
 		}
 		if (grammarElement == null) {
-			String ruleName = antlrTypeToLexerName.get(token.getType());
+			String ruleName = antlrTypeToLexerName.get(type);
 			grammarElement = allRules.get(ruleName);
 		}
-		CommonToken commonToken = (CommonToken) token;
 		if (error != null)
 			hadErrors = true;
 		return nodeBuilder.newLeafNode(
-				commonToken.getStartIndex(), 
-				commonToken.getStopIndex() - commonToken.getStartIndex() + 1, 
+				start, 
+				stop - start + 1, 
 				grammarElement, 
 				isHidden, 
 				error, 
@@ -351,6 +382,55 @@ public abstract class AbstractInternalAntlrParser extends Parser {
 		} catch(ValueConverterException vce) {
 			handleValueConverterException(vce);
 		}
+		if (discardNodeModel && isTopLevelElement(_this, value, node)) {
+			EObject element = (EObject) value;
+			removeNodeAdapters(element);
+			if (streamingAcceptor != null) {
+				EcoreUtil.remove(element);
+				streamingAcceptor.accept(element);
+			}
+			discardParsedNodes = true;
+		}
+	}
+	
+	/**
+	 * Whether the given value is an element that has just been parsed by a rule call from the entry rule and is
+	 * contained in the root element.
+	 */
+	private boolean isTopLevelElement(EObject _this, Object value, INode node) {
+		if (!(value instanceof EObject) || ((EObject) value).eContainer() != _this || node != currentNode)
+			return false;
+		ICompositeNode parent = node.getParent();
+		return parent != null && parent.getParent() != null && parent.getParent().getParent() == null;
+	}
+	
+	private void removeNodeAdapters(EObject object) {
+		removeNodeAdapter(object);
+		for (TreeIterator<EObject> iterator = object.eAllContents(); iterator.hasNext();) {
+			removeNodeAdapter(iterator.next());
+		}
+	}
+	
+	private void removeNodeAdapter(EObject object) {
+		List<Adapter> adapters = object.eAdapters();
+		for (int i = adapters.size() - 1; i >= 0; i--) {
+			if (adapters.get(i) instanceof INode)
+				adapters.remove(i);
+		}
+	}
+	
+	/**
+	 * Removes the nodes of the top-level elements that have been parsed and allows the token stream to drop their
+	 * tokens.
+	 */
+	private void discardParsedNodes() {
+		discardParsedNodes = false;
+		nodeBuilder.removeChildren(currentNode);
+		lastConsumedNode = currentNode;
+		if (input instanceof StreamingTokenStream) {
+			// keep the last consumed token, it is still used to append the skipped and hidden tokens
+			((StreamingTokenStream) input).discardTokens(lastConsumedIndex);
+		}
 	}
 	
 	protected void add(EObject _this, String feature, Object value, String lexerRule) {
@@ -375,9 +455,8 @@ public abstract class AbstractInternalAntlrParser extends Parser {
 
 	protected void appendAllTokens() {
 		for (int x = lastConsumedIndex + 1; input.size() > x; input.consume(), x++) {
-			Token hidden = input.get(x);
-			createLeafNode(hidden, null);
-			lastConsumedIndex = hidden.getTokenIndex();
+			createLeafNode(x);
+			lastConsumedIndex = x;
 		}
 		if (currentError != null) {
 			appendError(getLastLeafNode());
@@ -402,8 +481,7 @@ public abstract class AbstractInternalAntlrParser extends Parser {
 		int indexOfTokenBefore = tokenBefore != null ? tokenBefore.getTokenIndex() : -1;
 		if (indexOfTokenBefore + 1 < currentTokenIndex) {
 			for (int x = indexOfTokenBefore + 1; x < currentTokenIndex; x++) {
-				Token hidden = input.get(x);
-				ILeafNode leaf = createLeafNode(hidden, null);
+				ILeafNode leaf = createLeafNode(x);
 				skipped.add(leaf);
 				lastConsumedIndex = x;
 			}
@@ -421,9 +499,8 @@ public abstract class AbstractInternalAntlrParser extends Parser {
 		int size = input.size();
 		if (tokenBefore != null && tokenBefore.getTokenIndex() < size) {
 			for (int x = tokenBefore.getTokenIndex() + 1; x < size; x++) {
-				Token hidden = input.get(x);
-				createLeafNode(hidden, null);
-				lastConsumedIndex = hidden.getTokenIndex();
+				createLeafNode(x);
+				lastConsumedIndex = x;
 			}
 		}
 	}
@@ -545,10 +622,14 @@ public abstract class AbstractInternalAntlrParser extends Parser {
 		long time = System.currentTimeMillis();
 		IParseResult result = null;
 		EObject current = null;
-		String completeContent = input.toString();
-		if (completeContent == null) // who had the crazy idea to return null from toString() ...
-			completeContent = "";
-		currentNode = nodeBuilder.newRootNode(completeContent);
+		if (discardNodeModel) {
+			currentNode = nodeBuilder.newStreamingRootNode(getStreamingInput());
+		} else {
+			String completeContent = input.toString();
+			if (completeContent == null) // who had the crazy idea to return null from toString() ...
+				completeContent = "";
+			currentNode = nodeBuilder.newRootNode(completeContent);
+		}
 		String antlrEntryRuleName = normalizeEntryRuleName(entryRuleName);
 		try {
 			Method method = this.getClass().getMethod(antlrEntryRuleName);
@@ -562,7 +643,7 @@ public abstract class AbstractInternalAntlrParser extends Parser {
 				appendAllTokens();
 			} finally {
 				ICompositeNode root = nodeBuilder.compressAndReturnParent(currentNode);
-				result = new ParseResult(current, root, hadErrors);
+				result = createParseResult(current, root);
 			}
 		} catch (InvocationTargetException ite) {
 			Throwable targetException = ite.getTargetException();
@@ -571,7 +652,7 @@ public abstract class AbstractInternalAntlrParser extends Parser {
 					appendAllTokens();
 				} finally {
 					ICompositeNode root = nodeBuilder.compressAndReturnParent(currentNode);
-					result = new ParseResult(current, root, hadErrors);
+					result = createParseResult(current, root);
 				}
 				throw (RecognitionException) targetException;
 			}
@@ -589,6 +670,30 @@ public abstract class AbstractInternalAntlrParser extends Parser {
 		return result;
 	}
 
+	/**
+	 * The input if the node model is discarded. The complete content is not available, so the text of the nodes is
+	 * read from the characters that are still buffered.
+	 */
+	private CharSequence getStreamingInput() {
+		TokenSource tokenSource = input.getTokenSource();
+		if (tokenSource instanceof org.antlr.runtime.Lexer) {
+			CharStream charStream = ((org.antlr.runtime.Lexer) tokenSource).getCharStream();
+			if (charStream instanceof CharSequence)
+				return (CharSequence) charStream;
+		}
+		return "";
+	}
+
+	private IParseResult createParseResult(EObject current, ICompositeNode root) {
+		if (discardNodeModel) {
+			// the node model is incomplete and its text is not available
+			if (current != null)
+				removeNodeAdapters(current);
+			return new ParseResult(current, nodeBuilder.newRootNode(""), hadErrors);
+		}
+		return new ParseResult(current, root, hadErrors);
+	}
+
 	private String normalizeEntryRuleName(String entryRuleName) {
 		String antlrEntryRuleName;
 		if (!entryRuleName.startsWith("entryRule") && !entryRuleName.startsWith("entryNorm")) {
@@ -633,6 +738,8 @@ public abstract class AbstractInternalAntlrParser extends Parser {
 		lastConsumedNode = newCurrent;
 	}
 		currentNode = newCurrent;
+		if (discardParsedNodes)
+			discardParsedNodes();
     }
 	
     // if (current==null) {
@@ -713,8 +820,7 @@ public abstract class AbstractInternalAntlrParser extends Parser {
 		final int tokenIndex = token.getTokenIndex();
 		if (tokenIndex > lastConsumedIndex) {
 			for (int x = lastConsumedIndex + 1; x < tokenIndex; x++) {
-				Token hidden = input.get(x);
-				createLeafNode(hidden, null);
+				createLeafNode(x);
 			}
 			lastConsumedIndex = tokenIndex;
 			lastConsumedNode = createLeafNode(token, grammarElement);
@@ -737,6 +843,30 @@ public abstract class AbstractInternalAntlrParser extends Parser {
 		return semanticModelBuilder;
 	}
 	
+	/**
+	 * Whether only the semantic model is built. The nodes and tokens of each element that is parsed by a rule call
+	 * from the entry rule and added to the root element are discarded right away, and none of the elements is
+	 * associated with nodes.
+	 * 
+	 * @since 2.14
+	 */
+	public void setDiscardNodeModel(boolean discardNodeModel) {
+		this.discardNodeModel = discardNodeModel;
+	}
+
+	/**
+	 * Sets the acceptor for a streaming parse, which implies that the {@link #setDiscardNodeModel(boolean) node model
+	 * is discarded}. Each element that is parsed by a rule call from the entry rule and added to the root element is
+	 * removed from the root element and passed to the acceptor right away.
+	 * 
+	 * @since 2.14
+	 */
+	public void setStreamingAcceptor(IAcceptor<? super EObject> streamingAcceptor) {
+		this.streamingAcceptor = streamingAcceptor;
+		if (streamingAcceptor != null)
+			this.discardNodeModel = true;
+	}
+	
 	/**
 	 * @since 2.9
 	 */
@@ -0,0 +1,518 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.parser.antlr;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.antlr.runtime.ANTLRStringStream;
+import org.antlr.runtime.CommonToken;
+import org.antlr.runtime.RecognitionException;
+import org.antlr.runtime.Token;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
+import org.eclipse.xtext.parser.IParseResult;
+import org.eclipse.xtext.util.ReplaceRegion;
+
+import com.google.common.annotations.Beta;
+import com.google.inject.Singleton;
+
+/**
+ * Lexes a document and keeps its tokens in a compact form, such that a changed version of the document only has to be
+ * lexed around the changed region.
+ * <p>
+ * The leading tokens are reused as long as the lexer did not look at the replaced characters when it produced them.
+ * Lexing starts again at the last of these tokens and stops as soon as a token starts in the unchanged text after the
+ * replaced region at the shifted start of a previous token. From there on the previous tokens are reused, too. This
+ * requires a lexer that carries no state but its position from one token to the next and does not change the text of
+ * the tokens, which is the case for the lexers that are generated for Xtext languages.
+ * <p>
+ * The tokens are remembered for a parse result until it is garbage collected and are replayed as the token source of
+ * the parser. If a parse result was produced by a partial reparse, only the changed region is remembered and its
+ * tokens are lexed when they are {@link #getTokens(IParseResult, Lexer) requested}, i.e. when a later change has to
+ * be parsed completely.
+ *
+ * @see AbstractAntlrParser#parse(org.eclipse.xtext.ParserRule, IParseResult, ReplaceRegion)
+ * @since 2.14
+ */
+@Beta
+@Singleton
+public class IncrementalLexer {
+
+	/**
+	 * The name of the binding that enables incremental lexing in the {@link AbstractAntlrParser}. Parsers whose token
+	 * source is not a plain {@link Lexer}, e.g. the ones of indentation aware languages, lex as usual.
+	 */
+	public static final String INCREMENTAL_LEXING = "org.eclipse.xtext.parser.antlr.IncrementalLexer.incrementalLexing";
+
+	/**
+	 * The values are either {@link Tokens} or {@link PendingTokens}.
+	 */
+	private final Map<IParseResult, Object> parseResult2tokens = Collections.synchronizedMap(new WeakHashMap<IParseResult, Object>());
+
+	/**
+	 * Returns the tokens of the given parse result or <code>null</code> if they are unknown, have not been lexed yet, or
+	 * do not match the current text of its root node anymore, e.g. because the root node was changed by a partial
+	 * reparse.
+	 */
+	public Tokens getTokens(IParseResult parseResult) {
+		return getTokens(parseResult, null);
+	}
+
+	/**
+	 * Like {@link #getTokens(IParseResult)}, but lexes the tokens around the region that was changed by a partial
+	 * reparse with the given lexer, if that has not happened yet.
+	 */
+	public Tokens getTokens(IParseResult parseResult, Lexer lexer) {
+		Object entry = parseResult2tokens.get(parseResult);
+		if (entry == null)
+			return null;
+		ICompositeNode rootNode = parseResult.getRootNode();
+		if (rootNode == null)
+			return null;
+		String text = rootNode.getText();
+		Tokens result;
+		if (entry instanceof PendingTokens) {
+			if (lexer == null)
+				return null;
+			result = lex(lexer, (PendingTokens) entry, text);
+			if (result == null)
+				return null;
+			parseResult2tokens.put(parseResult, result);
+		} else {
+			result = (Tokens) entry;
+		}
+		if (text != result.text && !result.text.equals(text))
+			return null;
+		return result;
+	}
+
+	public void setTokens(IParseResult parseResult, Tokens tokens) {
+		parseResult2tokens.put(parseResult, tokens);
+	}
+
+	boolean hasTokens(IParseResult parseResult) {
+		return parseResult2tokens.containsKey(parseResult);
+	}
+
+	/**
+	 * Returns the not yet lexed tokens of the text that results from applying the given replace region to the text of
+	 * the previous parse result, or <code>null</code> if the tokens of the previous parse result are unknown. This has
+	 * to be called before a partial reparse changes the root node of the previous parse result.
+	 */
+	PendingTokens getPendingTokens(IParseResult previousParseResult, ReplaceRegion replaceRegion) {
+		Object entry = parseResult2tokens.get(previousParseResult);
+		if (entry == null)
+			return null;
+		ICompositeNode rootNode = previousParseResult.getRootNode();
+		if (rootNode == null)
+			return null;
+		String text = rootNode.getText();
+		PendingTokens previous;
+		if (entry instanceof PendingTokens) {
+			previous = (PendingTokens) entry;
+		} else {
+			Tokens tokens = (Tokens) entry;
+			if (text != tokens.text && !tokens.text.equals(text))
+				return null;
+			previous = new PendingTokens(tokens, 0, 0, 0);
+		}
+		if (previous.getTextLength() != text.length())
+			return null;
+		return previous.apply(replaceRegion);
+	}
+
+	void setPendingTokens(IParseResult parseResult, PendingTokens tokens) {
+		parseResult2tokens.put(parseResult, tokens);
+	}
+
+	/**
+	 * Lexes the given text completely.
+	 */
+	public Tokens lex(Lexer lexer, String text) {
+		LookAheadTrackingStream stream = new LookAheadTrackingStream(text);
+		lexer.setCharStream(stream);
+		Tokens result = new Tokens(text, Math.max(16, text.length() / 4));
+		lex(lexer, stream, result, null, 0, 0, 0);
+		return result;
+	}
+
+	/**
+	 * Lexes the text that results from applying the given replace region to the text of the previous tokens. Only the
+	 * tokens around the replaced region are lexed again.
+	 */
+	public Tokens lex(Lexer lexer, Tokens previous, ReplaceRegion replaceRegion) {
+		StringBuilder builder = new StringBuilder(previous.text);
+		replaceRegion.applyTo(builder);
+		String text = builder.toString();
+		int offset = replaceRegion.getOffset();
+		int delta = text.length() - previous.text.length();
+		int firstAffected = previous.getFirstTokenLookingAt(offset);
+		int reused = Math.max(0, firstAffected - 1);
+		Tokens result = new Tokens(text, previous.size + 16);
+		result.copy(previous, 0, reused, 0, 0, 0, -1);
+		LookAheadTrackingStream stream = new LookAheadTrackingStream(text);
+		lexer.setCharStream(stream);
+		if (reused > 0) {
+			stream.reset(previous.getStartIndex(reused), previous.getLine(reused), previous.getCharPositionInLine(reused),
+					previous.getLookAhead(reused - 1));
+		}
+		lex(lexer, stream, result, previous, reused, offset + replaceRegion.getText().length(), delta);
+		return result;
+	}
+
+	/**
+	 * Lexes the given text, which must be the current text of the given pending tokens. Returns <code>null</code> if
+	 * it is not.
+	 */
+	Tokens lex(Lexer lexer, PendingTokens pending, String text) {
+		if (text.length() != pending.getTextLength())
+			return null;
+		ReplaceRegion replaceRegion = new ReplaceRegion(pending.offset, pending.replacedLength,
+				text.substring(pending.offset, pending.offset + pending.newLength));
+		return lex(lexer, pending.previous, replaceRegion);
+	}
+
+	/**
+	 * Lexes until the end of the text or until a token starts at or after the given offset at the shifted start of a
+	 * previous token, which is where the previous tokens are reused.
+	 */
+	protected void lex(Lexer lexer, LookAheadTrackingStream stream, Tokens result, Tokens previous, int previousIndex,
+			int unchangedOffset, int delta) {
+		while (true) {
+			Token token = lexer.nextToken();
+			if (token.getType() == Token.EOF)
+				return;
+			int start = ((CommonToken) token).getStartIndex();
+			if (previous != null && start >= unchangedOffset) {
+				int previousStart = start - delta;
+				while (previousIndex < previous.size && previous.getStartIndex(previousIndex) < previousStart)
+					previousIndex++;
+				if (previousIndex < previous.size && previous.getStartIndex(previousIndex) == previousStart) {
+					int line = previous.getLine(previousIndex);
+					result.copy(previous, previousIndex, previous.size, delta, token.getLine() - line, line,
+							token.getCharPositionInLine() - previous.getCharPositionInLine(previousIndex));
+					return;
+				}
+			}
+			String errorMessage = token.getType() == Token.INVALID_TOKEN_TYPE ? lexer.getErrorMessage(token) : null;
+			result.add(token, stream.getLookAhead(), errorMessage);
+		}
+	}
+
+	/**
+	 * Returns a token source that replays the given tokens.
+	 */
+	public Lexer createTokenSource(Tokens tokens) {
+		return new TokenReplay(tokens);
+	}
+
+	/**
+	 * Tokens that were lexed for a previous text and a single region of that text that has been changed since. The
+	 * changes of several partial reparses are merged into one region, so the tokens are lexed once when they are
+	 * needed.
+	 */
+	static final class PendingTokens {
+
+		private final Tokens previous;
+
+		/**
+		 * The changed region in the previous text.
+		 */
+		private final int offset;
+
+		private final int replacedLength;
+
+		/**
+		 * The length of the changed region in the current text.
+		 */
+		private final int newLength;
+
+		private PendingTokens(Tokens previous, int offset, int replacedLength, int newLength) {
+			this.previous = previous;
+			this.offset = offset;
+			this.replacedLength = replacedLength;
+			this.newLength = newLength;
+		}
+
+		private int getTextLength() {
+			return previous.text.length() - replacedLength + newLength;
+		}
+
+		/**
+		 * Returns the pending tokens after the given change. Its offset refers to the current text.
+		 */
+		private PendingTokens apply(ReplaceRegion replaceRegion) {
+			int delta = newLength - replacedLength;
+			int start = replaceRegion.getOffset();
+			int end = replaceRegion.getEndOffset();
+			if (replacedLength == 0 && newLength == 0)
+				return new PendingTokens(previous, start, end - start, replaceRegion.getText().length());
+			// the changed region in the previous text is [offset, previousEnd)
+			int previousEnd = offset + replacedLength;
+			if (end > offset + newLength)
+				previousEnd = end - delta;
+			int previousStart = Math.min(offset, start);
+			delta += replaceRegion.getText().length() - replaceRegion.getLength();
+			return new PendingTokens(previous, previousStart, previousEnd - previousStart,
+					previousEnd - previousStart + delta);
+		}
+	}
+
+	/**
+	 * The tokens of a text, stored in a single array.
+	 */
+	public static final class Tokens {
+
+		private static final int TYPE = 0;
+		private static final int CHANNEL = 1;
+		private static final int START = 2;
+		private static final int STOP = 3;
+		private static final int LINE = 4;
+		private static final int COLUMN = 5;
+		/**
+		 * The index of the last character that the lexer looked at until it produced the token.
+		 */
+		private static final int LOOK_AHEAD = 6;
+		private static final int STRIDE = 7;
+
+		private final String text;
+
+		private int[] data;
+
+		private int size;
+
+		private Map<Integer, String> errorMessages;
+
+		private Tokens(String text, int capacity) {
+			this.text = text;
+			this.data = new int[capacity * STRIDE];
+		}
+
+		public String getText() {
+			return text;
+		}
+
+		public int size() {
+			return size;
+		}
+
+		public int getType(int index) {
+			return get(index, TYPE);
+		}
+
+		public int getChannel(int index) {
+			return get(index, CHANNEL);
+		}
+
+		public int getStartIndex(int index) {
+			return get(index, START);
+		}
+
+		public int getStopIndex(int index) {
+			return get(index, STOP);
+		}
+
+		public int getLine(int index) {
+			return get(index, LINE);
+		}
+
+		public int getCharPositionInLine(int index) {
+			return get(index, COLUMN);
+		}
+
+		int getLookAhead(int index) {
+			return get(index, LOOK_AHEAD);
+		}
+
+		public String getErrorMessage(int index) {
+			return errorMessages != null ? errorMessages.get(index) : null;
+		}
+
+		private int get(int index, int field) {
+			if (index < 0 || index >= size)
+				throw new IndexOutOfBoundsException("index: " + index + ", size: " + size);
+			return data[index * STRIDE + field];
+		}
+
+		/**
+		 * Returns the index of the first token for which the lexer looked at the given offset or at a later one, or the
+		 * number of tokens.
+		 */
+		int getFirstTokenLookingAt(int offset) {
+			int low = 0;
+			int high = size;
+			while (low < high) {
+				int middle = (low + high) >>> 1;
+				if (data[middle * STRIDE + LOOK_AHEAD] < offset)
+					low = middle + 1;
+				else
+					high = middle;
+			}
+			return low;
+		}
+
+		private void add(Token token, int lookAhead, String errorMessage) {
+			ensureCapacity(size + 1);
+			int base = size * STRIDE;
+			CommonToken commonToken = (CommonToken) token;
+			data[base + TYPE] = commonToken.getType();
+			data[base + CHANNEL] = commonToken.getChannel();
+			data[base + START] = commonToken.getStartIndex();
+			data[base + STOP] = commonToken.getStopIndex();
+			data[base + LINE] = commonToken.getLine();
+			data[base + COLUMN] = commonToken.getCharPositionInLine();
+			data[base + LOOK_AHEAD] = lookAhead;
+			if (errorMessage != null)
+				putErrorMessage(size, errorMessage);
+			size++;
+		}
+
+		/**
+		 * Appends the tokens in the given range of the other tokens. Their offsets are shifted by the given delta, their
+		 * lines by the given line delta, and the columns of the tokens on the given line by the column delta.
+		 */
+		private void copy(Tokens other, int from, int to, int delta, int lineDelta, int line, int columnDelta) {
+			if (from >= to)
+				return;
+			ensureCapacity(size + to - from);
+			int base = size * STRIDE;
+			System.arraycopy(other.data, from * STRIDE, data, base, (to - from) * STRIDE);
+			int lookAhead = size > 0 ? data[base - STRIDE + LOOK_AHEAD] : -1;
+			if (delta != 0 || lineDelta != 0 || columnDelta != 0) {
+				for (int i = base, end = base + (to - from) * STRIDE; i < end; i += STRIDE) {
+					data[i + START] += delta;
+					data[i + STOP] += delta;
+					if (data[i + LINE] == line)
+						data[i + COLUMN] += columnDelta;
+					data[i + LINE] += lineDelta;
+					lookAhead = Math.max(lookAhead, data[i + LOOK_AHEAD] + delta);
+					data[i + LOOK_AHEAD] = lookAhead;
+				}
+			} else if (lookAhead > data[base + LOOK_AHEAD]) {
+				for (int i = base, end = base + (to - from) * STRIDE; i < end && data[i + LOOK_AHEAD] < lookAhead; i += STRIDE)
+					data[i + LOOK_AHEAD] = lookAhead;
+			}
+			if (other.errorMessages != null) {
+				for (Map.Entry<Integer, String> entry : other.errorMessages.entrySet()) {
+					int index = entry.getKey();
+					if (index >= from && index < to)
+						putErrorMessage(size + index - from, entry.getValue());
+				}
+			}
+			size += to - from;
+		}
+
+		private void putErrorMessage(int index, String errorMessage) {
+			if (errorMessages == null)
+				errorMessages = new HashMap<Integer, String>();
+			errorMessages.put(index, errorMessage);
+		}
+
+		private void ensureCapacity(int capacity) {
+			if (capacity * STRIDE > data.length)
+				data = Arrays.copyOf(data, Math.max(capacity, size * 2) * STRIDE);
+		}
+	}
+
+	/**
+	 * A character stream that tracks the index of the last character the lexer looked at.
+	 */
+	protected static class LookAheadTrackingStream extends ANTLRStringStream {
+
+		private int lookAhead = -1;
+
+		public LookAheadTrackingStream(String text) {
+			super(text);
+		}
+
+		@Override
+		public int LA(int i) {
+			if (i > 0) {
+				int index = p + i - 1;
+				if (index > lookAhead)
+					lookAhead = index;
+			}
+			return super.LA(i);
+		}
+
+		public int getLookAhead() {
+			return lookAhead;
+		}
+
+		public void reset(int index, int line, int charPositionInLine, int lookAhead) {
+			this.p = index;
+			this.line = line;
+			this.charPositionInLine = charPositionInLine;
+			this.lookAhead = lookAhead;
+		}
+	}
+
+	/**
+	 * Replays the stored tokens as a lexer, such that the {@link XtextTokenStream} can access the text and the error
+	 * messages of the tokens.
+	 */
+	protected static class TokenReplay extends Lexer {
+
+		private final Tokens tokens;
+
+		private int index;
+
+		private Map<Token, String> errorMessages;
+
+		public TokenReplay(Tokens tokens) {
+			super(new ANTLRStringStream(tokens.text));
+			this.tokens = tokens;
+		}
+
+		@Override
+		public Token nextToken() {
+			if (index >= tokens.size)
+				return Token.EOF_TOKEN;
+			CommonToken result = new CommonToken(input, tokens.getType(index), tokens.getChannel(index),
+					tokens.getStartIndex(index), tokens.getStopIndex(index));
+			result.setLine(tokens.getLine(index));
+			result.setCharPositionInLine(tokens.getCharPositionInLine(index));
+			String errorMessage = tokens.getErrorMessage(index);
+			if (errorMessage != null) {
+				if (errorMessages == null)
+					errorMessages = new HashMap<Token, String>();
+				errorMessages.put(result, errorMessage);
+			}
+			index++;
+			return result;
+		}
+
+		@Override
+		void fillBuffer(XtextTokenStream tokenStream) {
+			while (index < tokens.size) {
+				if (tokens.getErrorMessage(index) != null) {
+					// the error message is looked up by the token object
+					tokenStream.addToken(nextToken());
+				} else {
+					tokenStream.addToken(tokens.getType(index), tokens.getChannel(index), tokens.getStartIndex(index),
+							tokens.getStopIndex(index), tokens.getLine(index), tokens.getCharPositionInLine(index));
+					index++;
+				}
+			}
+		}
+
+		@Override
+		public String getErrorMessage(Token t) {
+			return errorMessages != null ? errorMessages.get(t) : null;
+		}
+
+		@Override
+		public void mTokens() throws RecognitionException {
+			throw new UnsupportedOperationException();
+		}
+	}
+
+}
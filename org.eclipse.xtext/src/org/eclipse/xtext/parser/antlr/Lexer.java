@@ -8,6 +8,7 @@
  *******************************************************************************/
 package org.eclipse.xtext.parser.antlr;
 
+import java.lang.reflect.Method;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -31,6 +32,22 @@ import org.apache.log4j.Logger;
 public abstract class Lexer extends org.antlr.runtime.Lexer {
 
 	private static final Logger logger = Logger.getLogger(Lexer.class);
+
+	/**
+	 * Whether a lexer class overrides the methods that create the tokens, such that
+	 * {@link #fillBuffer(XtextTokenStream)} has to use {@link #nextToken()}.
+	 */
+	private static final ClassValue<Boolean> CUSTOM_TOKEN_CREATION = new ClassValue<Boolean>() {
+		@Override
+		protected Boolean computeValue(Class<?> lexerClass) {
+			try {
+				return !isDefault(lexerClass.getMethod("nextToken")) || !isDefault(lexerClass.getMethod("emit"))
+						|| !isDefault(lexerClass.getMethod("emit", Token.class));
+			} catch (NoSuchMethodException e) {
+				return true;
+			}
+		}
+	};
 	
 	public Lexer() {
 		super();
@@ -69,23 +86,91 @@ public abstract class Lexer extends org.antlr.runtime.Lexer {
 				return this.state.token;
 			}
 			catch (RecognitionException re) {
-				reportError(re);
-				if (re instanceof NoViableAltException ||
-					re instanceof FailedPredicateException) {
-					recover(re);
-				}
-				// create token that holds mismatched char
-				Token t = new CommonToken(input, Token.INVALID_TOKEN_TYPE, Token.HIDDEN_CHANNEL,
-						this.state.tokenStartCharIndex, getCharIndex() - 1);
-				t.setLine(this.state.tokenStartLine);
-				t.setCharPositionInLine(this.state.tokenStartCharPositionInLine);
-				tokenErrorMap.put(t, getErrorMessage(re, this.getTokenNames()));
-				emit(t);
+				emitErrorToken(re);
 				return this.state.token;
 			}
 		}
 	}
 
+	/**
+	 * Appends the remaining tokens to the given token stream. Unless a subclass customizes how the tokens are created,
+	 * they are appended as primitive values and no token objects are created except for the invalid ones.
+	 * 
+	 * @since 2.14
+	 */
+	void fillBuffer(XtextTokenStream tokenStream) {
+		while (addNextToken(tokenStream)) {
+			// lex until EOF
+		}
+	}
+
+	/**
+	 * Appends the next token to the given token stream. Returns <code>false</code> if the end of the input was reached.
+	 * 
+	 * @since 2.14
+	 */
+	boolean addNextToken(XtextTokenStream tokenStream) {
+		if (CUSTOM_TOKEN_CREATION.get(getClass())) {
+			Token token = nextToken();
+			if (token.getType() == Token.EOF) {
+				return false;
+			}
+			tokenStream.addToken(token);
+			return true;
+		}
+		while (true) {
+			this.state.token = null;
+			this.state.channel = Token.DEFAULT_CHANNEL;
+			this.state.tokenStartCharIndex = input.index();
+			this.state.tokenStartCharPositionInLine = input.getCharPositionInLine();
+			this.state.tokenStartLine = input.getLine();
+			this.state.text = null;
+			if (input.LA(1) == CharStream.EOF) {
+				return false;
+			}
+			try {
+				mTokens();
+				if (this.state.token == null) {
+					if (this.state.text == null) {
+						tokenStream.addToken(this.state.type, this.state.channel, this.state.tokenStartCharIndex,
+								getCharIndex() - 1, this.state.tokenStartLine, this.state.tokenStartCharPositionInLine);
+					} else {
+						tokenStream.addToken(emit());
+					}
+					return true;
+				}
+				else if (this.state.token != Token.SKIP_TOKEN) {
+					tokenStream.addToken(this.state.token);
+					return true;
+				}
+			}
+			catch (RecognitionException re) {
+				tokenStream.addToken(emitErrorToken(re));
+				return true;
+			}
+		}
+	}
+
+	private Token emitErrorToken(RecognitionException re) {
+		reportError(re);
+		if (re instanceof NoViableAltException ||
+			re instanceof FailedPredicateException) {
+			recover(re);
+		}
+		// create token that holds mismatched char
+		Token t = new CommonToken(input, Token.INVALID_TOKEN_TYPE, Token.HIDDEN_CHANNEL,
+				this.state.tokenStartCharIndex, getCharIndex() - 1);
+		t.setLine(this.state.tokenStartLine);
+		t.setCharPositionInLine(this.state.tokenStartCharPositionInLine);
+		tokenErrorMap.put(t, getErrorMessage(re, this.getTokenNames()));
+		emit(t);
+		return t;
+	}
+
+	private static boolean isDefault(Method method) {
+		return method.getDeclaringClass() == Lexer.class || method.getDeclaringClass() == org.antlr.runtime.Lexer.class;
+	}
+
 	public String getErrorMessage(Token t) {
 		return tokenErrorMap.get(t);
 	}
@@ -0,0 +1,282 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.parser.antlr;
+
+import java.io.IOException;
+import java.nio.CharBuffer;
+
+import org.antlr.runtime.CharStream;
+import org.eclipse.emf.common.util.WrappedException;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * A {@link CharStream} that reads its characters on demand and keeps only a window of them in memory. The characters
+ * before the index that was passed to {@link #discard(int)} are dropped when the window is refilled. The window grows
+ * if a single token or the look-ahead of the lexer does not fit into it. As a {@link CharSequence}, it provides the
+ * characters that have been read so far, of which only the buffered ones can be accessed.
+ *
+ * @since 2.14
+ */
+@Beta
+public class StreamingCharStream implements CharStream, CharSequence {
+
+	public static final int DEFAULT_WINDOW_SIZE = 64 * 1024;
+
+	private static final int P = 0;
+	private static final int LINE = 1;
+	private static final int COLUMN = 2;
+	private static final int STRIDE = 3;
+
+	private final Readable source;
+
+	/**
+	 * The buffered characters. The buffer is always in fill mode, i.e. its position is the number of buffered
+	 * characters.
+	 */
+	private CharBuffer window;
+
+	/**
+	 * The index of the first buffered character.
+	 */
+	private int offset;
+
+	private int discardIndex;
+
+	private boolean eof;
+
+	private int p;
+
+	private int line = 1;
+
+	private int charPositionInLine;
+
+	private int[] markers = new int[10 * STRIDE];
+
+	private int markDepth;
+
+	private int lastMarker;
+
+	public StreamingCharStream(Readable source) {
+		this(source, DEFAULT_WINDOW_SIZE);
+	}
+
+	public StreamingCharStream(Readable source, int windowSize) {
+		this.source = source;
+		this.window = CharBuffer.allocate(windowSize);
+	}
+
+	/**
+	 * Allows to drop the characters before the given index from the window. They cannot be accessed afterwards.
+	 */
+	public void discard(int index) {
+		discardIndex = Math.max(discardIndex, index);
+	}
+
+	@Override
+	public void consume() {
+		if (fill(p)) {
+			charPositionInLine++;
+			if (window.get(p - offset) == '\n') {
+				line++;
+				charPositionInLine = 0;
+			}
+			p++;
+		}
+	}
+
+	@Override
+	public int LA(int i) {
+		if (i == 0) {
+			return 0; // undefined
+		}
+		if (i < 0) {
+			i++;
+			if (p + i - 1 < 0) {
+				return CharStream.EOF;
+			}
+		}
+		int index = p + i - 1;
+		checkNotDiscarded(index);
+		if (!fill(index)) {
+			return CharStream.EOF;
+		}
+		return window.get(index - offset);
+	}
+
+	@Override
+	public int LT(int i) {
+		return LA(i);
+	}
+
+	@Override
+	public String substring(int start, int stop) {
+		checkNotDiscarded(start);
+		fill(stop);
+		return new String(window.array(), window.arrayOffset() + start - offset, stop - start + 1);
+	}
+
+	@Override
+	public int length() {
+		return size();
+	}
+
+	@Override
+	public char charAt(int index) {
+		checkNotDiscarded(index);
+		if (!fill(index)) {
+			throw new IndexOutOfBoundsException("Index: " + index + ", Length: " + length());
+		}
+		return window.get(index - offset);
+	}
+
+	@Override
+	public CharSequence subSequence(int start, int end) {
+		return substring(start, end - 1);
+	}
+
+	@Override
+	public int index() {
+		return p;
+	}
+
+	/**
+	 * Returns the number of characters that have been read so far.
+	 */
+	@Override
+	public int size() {
+		return offset + window.position();
+	}
+
+	@Override
+	public int mark() {
+		markDepth++;
+		int base = markDepth * STRIDE;
+		if (base >= markers.length) {
+			int[] newMarkers = new int[markers.length * 2];
+			System.arraycopy(markers, 0, newMarkers, 0, markers.length);
+			markers = newMarkers;
+		}
+		markers[base + P] = p;
+		markers[base + LINE] = line;
+		markers[base + COLUMN] = charPositionInLine;
+		lastMarker = markDepth;
+		return markDepth;
+	}
+
+	@Override
+	public void rewind(int marker) {
+		int base = marker * STRIDE;
+		seek(markers[base + P]);
+		line = markers[base + LINE];
+		charPositionInLine = markers[base + COLUMN];
+		release(marker);
+	}
+
+	@Override
+	public void rewind() {
+		rewind(lastMarker);
+	}
+
+	@Override
+	public void release(int marker) {
+		markDepth = marker - 1;
+	}
+
+	/**
+	 * Same as {@link org.antlr.runtime.ANTLRStringStream#seek(int)}: seeking backwards does not update the line
+	 * information.
+	 */
+	@Override
+	public void seek(int index) {
+		if (index <= p) {
+			p = index;
+			return;
+		}
+		while (p < index && fill(p)) {
+			consume();
+		}
+	}
+
+	@Override
+	public int getLine() {
+		return line;
+	}
+
+	@Override
+	public void setLine(int line) {
+		this.line = line;
+	}
+
+	@Override
+	public int getCharPositionInLine() {
+		return charPositionInLine;
+	}
+
+	@Override
+	public void setCharPositionInLine(int charPositionInLine) {
+		this.charPositionInLine = charPositionInLine;
+	}
+
+	@Override
+	public String getSourceName() {
+		return null;
+	}
+
+	private void checkNotDiscarded(int index) {
+		if (index < offset) {
+			throw new IllegalStateException("The characters before index " + offset + " have been discarded.");
+		}
+	}
+
+	/**
+	 * Reads until the character at the given index is buffered. Returns <code>false</code> if the input ends before.
+	 */
+	private boolean fill(int index) {
+		while (index >= offset + window.position()) {
+			if (eof) {
+				return false;
+			}
+			if (!window.hasRemaining()) {
+				makeRoom();
+			}
+			try {
+				if (source.read(window) == -1) {
+					eof = true;
+				}
+			} catch (IOException e) {
+				throw new WrappedException(e);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Drops the characters that are neither needed by the current position, an active marker nor a retained token.
+	 * The window is enlarged if that does not free at least half of it.
+	 */
+	private void makeRoom() {
+		int keep = Math.min(p, discardIndex);
+		for (int marker = 1; marker <= markDepth; marker++) {
+			keep = Math.min(keep, markers[marker * STRIDE + P]);
+		}
+		if (keep > offset) {
+			window.flip();
+			window.position(keep - offset);
+			window.compact();
+			offset = keep;
+		}
+		if (window.remaining() < window.capacity() / 2) {
+			CharBuffer newWindow = CharBuffer.allocate(window.capacity() * 2);
+			window.flip();
+			newWindow.put(window);
+			window = newWindow;
+		}
+	}
+
+}
@@ -0,0 +1,159 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.parser.antlr;
+
+import org.antlr.runtime.CharStream;
+import org.antlr.runtime.Token;
+import org.antlr.runtime.TokenSource;
+
+import com.google.common.annotations.Beta;
+
+/**
+ * A token stream that lexes only as far as the parser looks ahead. The tokens that have been parsed can be
+ * {@link #discardTokens(int) discarded}, together with their characters if the lexer reads from a
+ * {@link StreamingCharStream}. Asking for the {@link #size() size} of the stream lexes the complete remaining input.
+ *
+ * @since 2.14
+ */
+@Beta
+public class StreamingTokenStream extends XtextTokenStream {
+
+	private boolean eof;
+
+	private int discarded;
+
+	public StreamingTokenStream(TokenSource tokenSource, ITokenDefProvider tokenDefProvider) {
+		super(tokenSource, tokenDefProvider);
+	}
+
+	@Override
+	protected void fillBuffer() {
+		if (tokenSource instanceof Lexer) {
+			setCharStream(((Lexer) tokenSource).getCharStream());
+		}
+		p = 0;
+		p = skipOffTokenChannels(p);
+	}
+
+	/**
+	 * Lexes until the token at the given index is buffered. Returns <code>false</code> if the input ends before.
+	 */
+	protected boolean fill(int index) {
+		while (index >= tokens.size()) {
+			if (eof || !addNextToken()) {
+				eof = true;
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private boolean addNextToken() {
+		if (tokenSource instanceof Lexer && channelOverrideMap == null && discardSet == null && !discardOffChannelTokens) {
+			return ((Lexer) tokenSource).addNextToken(this);
+		}
+		// same as CommonTokenStream#fillBuffer, but for a single token
+		for (Token token = tokenSource.nextToken(); token != null && token.getType() != Token.EOF; token = tokenSource
+				.nextToken()) {
+			if (channelOverrideMap != null) {
+				Integer overriddenChannel = (Integer) channelOverrideMap.get(token.getType());
+				if (overriddenChannel != null) {
+					token.setChannel(overriddenChannel);
+				}
+			}
+			boolean discard = discardSet != null && discardSet.contains(token.getType())
+					|| discardOffChannelTokens && token.getChannel() != channel;
+			if (!discard) {
+				addToken(token);
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Drops the buffered tokens before the given index unless the parser is predicting. Tokens at or after the
+	 * current position are never discarded.
+	 */
+	public void discardTokens(int index) {
+		if (p == -1 || getFirstMarker() != -1) {
+			return;
+		}
+		index = Math.min(index, Math.min(p, tokens.size()));
+		if (index <= discarded) {
+			return;
+		}
+		super.discardTokens(index);
+		discarded = index;
+		if (tokenSource instanceof Lexer) {
+			CharStream charStream = ((Lexer) tokenSource).getCharStream();
+			if (charStream instanceof StreamingCharStream) {
+				int charIndex = index < tokens.size() ? getTokenStartIndex(index) : charStream.index();
+				((StreamingCharStream) charStream).discard(charIndex);
+			}
+		}
+	}
+
+	@Override
+	public Token LT(int k) {
+		if (p == -1) {
+			fillBuffer();
+		}
+		if (k > 0) {
+			// XtextTokenStream#LT(1) may look one token further
+			fill(p + k);
+		}
+		return super.LT(k);
+	}
+
+	@Override
+	public Token get(int i) {
+		fill(i);
+		return super.get(i);
+	}
+
+	@Override
+	public void consume() {
+		fill(p);
+		super.consume();
+	}
+
+	@Override
+	public int size() {
+		fill(Integer.MAX_VALUE - 1);
+		return super.size();
+	}
+
+	@Override
+	protected int skipOffTokenChannels(int i) {
+		while (fill(i) && getTokenChannel(i) != channel) {
+			i++;
+		}
+		return i;
+	}
+
+	@Override
+	protected int skipOffTokenChannelsReverse(int i) {
+		while (i >= discarded && getTokenChannel(i) != channel) {
+			i--;
+		}
+		return i >= discarded ? i : -1;
+	}
+
+	/**
+	 * Returns the text of the buffered tokens. The complete text of the input is not available.
+	 */
+	@Override
+	public String toString() {
+		if (p == -1) {
+			fillBuffer();
+		}
+		return toString(discarded, tokens.size() - 1);
+	}
+
+}
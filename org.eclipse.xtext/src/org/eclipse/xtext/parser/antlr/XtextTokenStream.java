@@ -8,10 +8,12 @@
  *******************************************************************************/
 package org.eclipse.xtext.parser.antlr;
 
-import java.util.ArrayList;
+import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.RandomAccess;
 
 import org.antlr.runtime.CharStream;
 import org.antlr.runtime.CommonToken;
@@ -86,30 +88,236 @@ public class XtextTokenStream extends CommonTokenStream {
 		return result.toString();
 	}
 	
-	@SuppressWarnings({ "serial" })
-	private final class TokenList extends ArrayList<Object> {
+	@Override
+	protected void fillBuffer() {
+		if (tokenSource instanceof org.eclipse.xtext.parser.antlr.Lexer && channelOverrideMap == null && discardSet == null
+				&& !discardOffChannelTokens) {
+			org.eclipse.xtext.parser.antlr.Lexer lexer = (org.eclipse.xtext.parser.antlr.Lexer) tokenSource;
+			setCharStream(lexer.getCharStream());
+			lexer.fillBuffer(this);
+			p = 0;
+			p = skipOffTokenChannels(p);
+		} else {
+			super.fillBuffer();
+		}
+	}
+
+	/**
+	 * Appends a token that is not materialized until it is {@link #get(int) accessed}.
+	 */
+	void addToken(int type, int channel, int start, int stop, int line, int charPositionInLine) {
+		((TokenList) tokens).add(type, channel, start, stop, line, charPositionInLine);
+	}
+
+	void addToken(Token token) {
+		token.setTokenIndex(tokens.size());
+		((TokenList) tokens).add(token);
+	}
+
+	/**
+	 * Drops the buffered tokens before the given index. They cannot be accessed afterwards.
+	 */
+	void discardTokens(int index) {
+		((TokenList) tokens).discard(index);
+	}
+
+	void setCharStream(CharStream charStream) {
+		((TokenList) tokens).charStream = charStream;
+	}
+
+	@Override
+	protected int skipOffTokenChannels(int i) {
+		int n = tokens.size();
+		while (i < n && getTokenChannel(i) != channel) {
+			i++;
+		}
+		return i;
+	}
+
+	@Override
+	protected int skipOffTokenChannelsReverse(int i) {
+		while (i >= 0 && getTokenChannel(i) != channel) {
+			i--;
+		}
+		return i;
+	}
+
+	/**
+	 * Returns the type of the token at the given index without materializing it.
+	 * 
+	 * @since 2.14
+	 */
+	public int getTokenType(int index) {
+		return ((TokenList) tokens).getType(index);
+	}
+
+	/**
+	 * Returns the channel of the token at the given index without materializing it.
+	 * 
+	 * @since 2.14
+	 */
+	public int getTokenChannel(int index) {
+		return ((TokenList) tokens).getChannel(index);
+	}
+
+	/**
+	 * Returns the start index of the token at the given index without materializing it.
+	 * 
+	 * @since 2.14
+	 */
+	public int getTokenStartIndex(int index) {
+		return ((TokenList) tokens).getStartIndex(index);
+	}
+
+	/**
+	 * Returns the stop index of the token at the given index without materializing it.
+	 * 
+	 * @since 2.14
+	 */
+	public int getTokenStopIndex(int index) {
+		return ((TokenList) tokens).getStopIndex(index);
+	}
+
+	/**
+	 * The buffered tokens. The tokens of an Xtext {@link org.eclipse.xtext.parser.antlr.Lexer} are stored as
+	 * primitive values and only materialized when they are accessed as objects, which is usually not the case for
+	 * hidden tokens. Materialized tokens take precedence over the primitive values. Tokens before the
+	 * {@link #offset} have been discarded and cannot be accessed anymore.
+	 */
+	private final class TokenList extends AbstractList<Object> implements RandomAccess {
+
+		private static final int TYPE = 0;
+		private static final int CHANNEL = 1;
+		private static final int START = 2;
+		private static final int STOP = 3;
+		private static final int LINE = 4;
+		private static final int COLUMN = 5;
+		private static final int STRIDE = 6;
+
+		private int[] data;
+
+		private Object[] materialized;
+
+		private int size;
+
+		private int offset;
+
+		private CharStream charStream;
+
 		private TokenList(int initialCapacity) {
-			super(initialCapacity);
+			data = new int[initialCapacity * STRIDE];
+			materialized = new Object[initialCapacity];
+		}
+
+		@Override
+		public int size() {
+			return size;
+		}
+
+		@Override
+		public boolean add(Object token) {
+			ensureCapacity(size - offset + 1);
+			data[(size - offset) * STRIDE + TYPE] = ((Token) token).getType();
+			materialized[size++ - offset] = token;
+			modCount++;
+			return true;
+		}
+
+		private void add(int type, int channel, int start, int stop, int line, int charPositionInLine) {
+			ensureCapacity(size - offset + 1);
+			int base = (size - offset) * STRIDE;
+			data[base + TYPE] = type;
+			data[base + CHANNEL] = channel;
+			data[base + START] = start;
+			data[base + STOP] = stop;
+			data[base + LINE] = line;
+			data[base + COLUMN] = charPositionInLine;
+			size++;
+			modCount++;
 		}
 
 		@Override
 		public Object get(int index) {
-			Token tok = (Token) super.get(index);
+			int channel = getChannel(index);
+			Object result = materialized[index - offset];
+			if (result == null) {
+				int base = (index - offset) * STRIDE;
+				CommonToken token = new CommonToken(charStream, data[base + TYPE], channel, data[base + START], data[base + STOP]);
+				token.setLine(data[base + LINE]);
+				token.setCharPositionInLine(data[base + COLUMN]);
+				token.setTokenIndex(index);
+				materialized[index - offset] = token;
+				result = token;
+			}
+			return result;
+		}
+
+		private int getType(int index) {
+			checkIndex(index);
+			return data[(index - offset) * STRIDE + TYPE];
+		}
+
+		private int getChannel(int index) {
+			int type = getType(index);
+			Token token = (Token) materialized[index - offset];
 			// adjust only tokens in the 'future', as we wont change the channel of previously parsed
 			// tokens
 			int current = p;
 			if (firstMarker != -1)
 				current = firstMarker;
-			if (hiddenTokens != null && tok.getType() >= Token.MIN_TOKEN_TYPE && index >= current)
-				tok.setChannel(hiddenTokens.get(tok.getType()) ? Token.HIDDEN_CHANNEL : Token.DEFAULT_CHANNEL);
-			return tok;
+			if (hiddenTokens != null && type >= Token.MIN_TOKEN_TYPE && index >= current) {
+				int channel = hiddenTokens.get(type) ? Token.HIDDEN_CHANNEL : Token.DEFAULT_CHANNEL;
+				if (token != null)
+					token.setChannel(channel);
+				else
+					data[(index - offset) * STRIDE + CHANNEL] = channel;
+				return channel;
+			}
+			return token != null ? token.getChannel() : data[(index - offset) * STRIDE + CHANNEL];
 		}
-		
+
+		private int getStartIndex(int index) {
+			checkIndex(index);
+			Object token = materialized[index - offset];
+			return token != null ? ((CommonToken) token).getStartIndex() : data[(index - offset) * STRIDE + START];
+		}
+
+		private int getStopIndex(int index) {
+			checkIndex(index);
+			Object token = materialized[index - offset];
+			return token != null ? ((CommonToken) token).getStopIndex() : data[(index - offset) * STRIDE + STOP];
+		}
+
 		@Override
 		public void clear() {
 			if (isEmpty())
 				return;
-			super.clear();
+			Arrays.fill(materialized, 0, size - offset, null);
+			size = 0;
+			offset = 0;
+			modCount++;
+		}
+
+		private void discard(int index) {
+			int retained = size - index;
+			System.arraycopy(data, (index - offset) * STRIDE, data, 0, retained * STRIDE);
+			System.arraycopy(materialized, index - offset, materialized, 0, retained);
+			Arrays.fill(materialized, retained, size - offset, null);
+			offset = index;
+			modCount++;
+		}
+
+		private void checkIndex(int index) {
+			if (index < offset || index >= size)
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size + ", Discarded: " + offset);
+		}
+
+		private void ensureCapacity(int capacity) {
+			if (capacity > materialized.length) {
+				int newCapacity = Math.max(capacity, materialized.length * 2);
+				data = Arrays.copyOf(data, newCapacity * STRIDE);
+				materialized = Arrays.copyOf(materialized, newCapacity);
+			}
 		}
 	}
 
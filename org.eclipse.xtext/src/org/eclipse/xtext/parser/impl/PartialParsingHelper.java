@@ -44,6 +44,7 @@ import org.eclipse.xtext.parser.IParseResult;
 import org.eclipse.xtext.parser.IParser;
 import org.eclipse.xtext.parser.ParseException;
 import org.eclipse.xtext.parser.ParseResult;
+import org.eclipse.xtext.parser.antlr.AbstractAntlrParser;
 import org.eclipse.xtext.parser.antlr.IPartialParsingHelper;
 import org.eclipse.xtext.parser.antlr.IReferableElementsUnloader;
 import org.eclipse.xtext.util.ReplaceRegion;
@@ -222,6 +223,8 @@ public class PartialParsingHelper implements IPartialParsingHelper {
 		unloadSemanticObject(previousParseResult.getRootASTElement());
 		ICompositeNode node = previousParseResult.getRootNode();
 		ParserRule parserRule = NodeModelUtils.getEntryParserRule(node);
+		if (parser instanceof AbstractAntlrParser)
+			return ((AbstractAntlrParser) parser).parse(parserRule, previousParseResult, replaceRegion);
 		String reparseRegion = insertChangeIntoReplaceRegion(previousParseResult.getRootNode(), replaceRegion);
 		return parser.parse(parserRule, new StringReader(reparseRegion));
 	}
@@ -22,20 +22,26 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import org.eclipse.emf.common.util.EList;
 import org.eclipse.emf.common.util.TreeIterator;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.common.util.WrappedException;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.resource.impl.ResourceImpl;
 import org.eclipse.xtext.Constants;
 import org.eclipse.xtext.ParserRule;
 import org.eclipse.xtext.diagnostics.Severity;
 import org.eclipse.xtext.linking.ILinker;
+import org.eclipse.xtext.nodemodel.ICompositeNode;
 import org.eclipse.xtext.nodemodel.INode;
 import org.eclipse.xtext.nodemodel.SyntaxErrorMessage;
+import org.eclipse.xtext.nodemodel.impl.CompactNodeModel;
 import org.eclipse.xtext.nodemodel.util.NodeModelUtils;
 import org.eclipse.xtext.parser.IEncodingProvider;
 import org.eclipse.xtext.parser.IParseResult;
 import org.eclipse.xtext.parser.IParser;
+import org.eclipse.xtext.parser.ParseResult;
+import org.eclipse.xtext.parser.antlr.AbstractAntlrParser;
 import org.eclipse.xtext.parser.antlr.IReferableElementsUnloader;
 import org.eclipse.xtext.resource.impl.ListBasedDiagnosticConsumer;
 import org.eclipse.xtext.serializer.ISerializer;
@@ -78,6 +84,32 @@ public class XtextResource extends ResourceImpl {
 
 	public static final String OPTION_ENCODING = XtextResource.class.getName() + ".DEFAULT_ENCODING";
 
+	/**
+	 * Load option to store the node model in a {@link CompactNodeModel compact} form. The node model is expanded again
+	 * when the resource is {@link #update(int, int, String) updated}.
+	 * 
+	 * @since 2.14
+	 */
+	public static final String OPTION_COMPACT_NODE_MODEL = XtextResource.class.getName() + ".COMPACT_NODE_MODEL";
+
+	/**
+	 * Load option to parse only the semantic model, e.g. to compute the exported objects of the resource during
+	 * indexing. No node model is built, the syntax errors are not reported and the resource is not linked. Only
+	 * supported by the {@link AbstractAntlrParser ANTLR based parsers} and for resources that are {@link #load(Map)
+	 * loaded from their URI}.
+	 * <p>
+	 * The root node of such a resource is empty, so the option must only be used if the qualified name provider and
+	 * the resource description strategy of the language do not rely on the node model. The resource is
+	 * {@link #parseCompletely() parsed completely} as soon as its errors or its entry point are requested, or when it
+	 * is relinked, updated or saved. This replaces its semantic model, so objects that have been obtained from it before
+	 * become stale. Such resources must therefore be confined to the client that loaded them and must not be shared
+	 * with other resources, e.g. in the resource set of a build. The {@link org.eclipse.xtext.build.Indexer Indexer}
+	 * only uses it for the resource sets of its workers, which are discarded after the descriptions were computed.
+	 * 
+	 * @since 2.14
+	 */
+	public static final String OPTION_INDEX_ONLY = XtextResource.class.getName() + ".INDEX_ONLY";
+
 	private boolean validationDisabled;
 	
 	/**
@@ -150,6 +182,14 @@ public class XtextResource extends ResourceImpl {
 
 	private IParseResult parseResult;
 
+	/**
+	 * The load options of a resource of which only the semantic model has been parsed. They are used to read its
+	 * content again when it is parsed completely.
+	 */
+	private Map<?, ?> indexOnlyLoadOptions;
+
+	private boolean loadingFromURI;
+
 	@Inject
 	protected void setInjectedParser(IParser parser) {
 		this.parser = parser;
@@ -168,17 +208,119 @@ public class XtextResource extends ResourceImpl {
 		return parseResult;
 	}
 	
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Only a resource that is loaded from its URI can be loaded with {@link #OPTION_INDEX_ONLY}, as its content is read
+	 * again when it is {@link #parseCompletely() parsed completely}.
+	 * 
+	 * @since 2.14
+	 */
+	@Override
+	public void load(Map<?, ?> options) throws IOException {
+		loadingFromURI = true;
+		try {
+			super.load(options);
+		} finally {
+			loadingFromURI = false;
+		}
+	}
+
 	@Override
 	protected void doLoad(InputStream inputStream, Map<?, ?> options) throws IOException {
 		setEncodingFromOptions(options);
 		IParseResult result;
-		if (entryPoint == null) {
+		indexOnlyLoadOptions = null;
+		if (loadingFromURI && options != null && Boolean.TRUE.equals(options.get(OPTION_INDEX_ONLY))
+				&& parser instanceof AbstractAntlrParser) {
+			AbstractAntlrParser antlrParser = (AbstractAntlrParser) parser;
+			if (entryPoint == null) {
+				result = antlrParser.parseSemanticModel(createReader(inputStream));
+			} else {
+				result = antlrParser.parseSemanticModel(entryPoint, createReader(inputStream));
+			}
+			indexOnlyLoadOptions = options;
+		} else if (entryPoint == null) {
 			result = parser.parse(createReader(inputStream));
 		} else {
 			result = parser.parse(entryPoint, createReader(inputStream));
 		}
+		if (options != null && Boolean.TRUE.equals(options.get(OPTION_COMPACT_NODE_MODEL))) {
+			result = compactNodeModel(result);
+		}
 		updateInternalState(this.parseResult, result);
 	}
+
+	/**
+	 * Whether only the semantic model of this resource has been parsed.
+	 * 
+	 * @see #OPTION_INDEX_ONLY
+	 * @since 2.14
+	 */
+	public boolean isIndexOnly() {
+		return indexOnlyLoadOptions != null;
+	}
+
+	/**
+	 * Parses a resource that has been loaded with {@link #OPTION_INDEX_ONLY} completely, reports its syntax errors and
+	 * links it. The content is read again from the URI of the resource and the semantic model is replaced, so objects
+	 * that have been obtained from this resource before, e.g. by resolving proxies in other resources, become stale.
+	 * Does nothing if the resource has already been parsed completely.
+	 * 
+	 * @since 2.14
+	 */
+	public void parseCompletely() {
+		Map<?, ?> options = indexOnlyLoadOptions;
+		if (options == null)
+			return;
+		indexOnlyLoadOptions = null;
+		boolean wasUpdating = isUpdating;
+		try {
+			isUpdating = true;
+			IParseResult newParseResult;
+			InputStream inputStream = getURIConverter().createInputStream(getURI(), options);
+			try {
+				if (entryPoint == null) {
+					newParseResult = parser.parse(createReader(inputStream));
+				} else {
+					newParseResult = parser.parse(entryPoint, createReader(inputStream));
+				}
+			} finally {
+				inputStream.close();
+			}
+			updateInternalState(parseResult, newParseResult);
+		} catch (IOException e) {
+			throw new WrappedException(e);
+		} finally {
+			isUpdating = wasUpdating;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Overridden to {@link #parseCompletely() parse} a resource that has been loaded with {@link #OPTION_INDEX_ONLY}
+	 * completely, since its syntax errors and linking errors have not been reported yet.
+	 */
+	@Override
+	public EList<Diagnostic> getErrors() {
+		if (indexOnlyLoadOptions != null && isLoaded() && !isLoading())
+			parseCompletely();
+		return super.getErrors();
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * <p>
+	 * Overridden to {@link #parseCompletely() parse} a resource that has been loaded with {@link #OPTION_INDEX_ONLY}
+	 * completely, since its linking warnings have not been reported yet.
+	 */
+	@Override
+	public EList<Diagnostic> getWarnings() {
+		if (indexOnlyLoadOptions != null && isLoaded() && !isLoading())
+			parseCompletely();
+		return super.getWarnings();
+	}
 	
 	/**
 	 * @since 2.5
@@ -234,6 +376,7 @@ public class XtextResource extends ResourceImpl {
 	protected void doUnload() {
 		super.doUnload();
 		parseResult = null;
+		indexOnlyLoadOptions = null;
 	}
 	
 	/**
@@ -243,9 +386,14 @@ public class XtextResource extends ResourceImpl {
 		if (!isLoaded()) {
 			throw new IllegalStateException("You can't update an unloaded resource.");
 		}
+		if (indexOnlyLoadOptions != null) {
+			parseCompletely();
+			return;
+		}
 		try {
 			isUpdating = true;
-			updateInternalState(parseResult, parseResult);
+			IParseResult currentParseResult = getParseResult();
+			updateInternalState(currentParseResult, currentParseResult);
 		} finally {
 			isUpdating = false;
 		}
@@ -255,9 +403,11 @@ public class XtextResource extends ResourceImpl {
 		if (!isLoaded()) {
 			throw new IllegalStateException("You can't update an unloaded resource.");
 		}
+		parseCompletely();
 		try {
 			isUpdating = true;
-			IParseResult oldParseResult = parseResult;
+			expandNodeModel();
+			IParseResult oldParseResult = getParseResult();
 			ReplaceRegion replaceRegion = new ReplaceRegion(new TextRegion(offset, replacedTextLength), newText);
 			IParseResult newParseResult;
 			ParserRule oldEntryPoint = NodeModelUtils.getEntryParserRule(oldParseResult.getRootNode());
@@ -274,6 +424,43 @@ public class XtextResource extends ResourceImpl {
 		}
 	}
 
+	/**
+	 * Replaces the node model of this resource by a {@link CompactNodeModel compact} one.
+	 * 
+	 * @return whether the node model of this resource is compact.
+	 * @since 2.14
+	 */
+	public boolean compactNodeModel() {
+		if (parseResult == null)
+			return false;
+		parseResult = compactNodeModel(parseResult);
+		return CompactNodeModel.isCompact(parseResult.getRootNode());
+	}
+
+	/**
+	 * Replaces a {@link CompactNodeModel compact} node model of this resource by one of the regular node types.
+	 * 
+	 * @since 2.14
+	 */
+	public void expandNodeModel() {
+		if (parseResult != null && CompactNodeModel.isCompact(parseResult.getRootNode())) {
+			ICompositeNode rootNode = CompactNodeModel.expand(parseResult.getRootNode());
+			parseResult = new ParseResult(parseResult.getRootASTElement(), rootNode, parseResult.hasSyntaxErrors());
+		}
+	}
+
+	/**
+	 * @since 2.14
+	 */
+	protected IParseResult compactNodeModel(IParseResult result) {
+		if (CompactNodeModel.isCompact(result.getRootNode()))
+			return result;
+		ICompositeNode rootNode = CompactNodeModel.compact(result.getRootNode());
+		if (rootNode == null)
+			return result;
+		return new ParseResult(result.getRootASTElement(), rootNode, result.hasSyntaxErrors());
+	}
+
 	/**
 	 * @param oldParseResult the previous parse result that should be detached if necessary.
 	 * @param newParseResult the current parse result that should be attached to the content of this resource
@@ -330,10 +517,11 @@ public class XtextResource extends ResourceImpl {
 		getContents().clear();
 		clearErrorsAndWarnings();
 		this.parseResult = null;
+		this.indexOnlyLoadOptions = null;
 	}
 
 	protected void doLinking() {
-		if (parseResult == null || parseResult.getRootASTElement() == null)
+		if (parseResult == null || parseResult.getRootASTElement() == null || indexOnlyLoadOptions != null)
 			return;
 
 		final ListBasedDiagnosticConsumer consumer = new ListBasedDiagnosticConsumer();
@@ -383,6 +571,9 @@ public class XtextResource extends ResourceImpl {
 			throw new IllegalStateException("The Xtext resource must contain at least one element.");
 		SaveOptions saveOptions = SaveOptions.getOptions(options);
 		setEncodingFromOptions(options);
+		// the serializer compares nodes by identity
+		parseCompletely();
+		expandNodeModel();
 		serializer.serialize(getContents().get(0), new OutputStreamWriter(outputStream, getEncoding()), saveOptions);
 	}
 
@@ -431,8 +622,12 @@ public class XtextResource extends ResourceImpl {
 	}
 	
 	public ParserRule getEntryPoint() {
-		if (entryPoint == null && parseResult != null) {
-			entryPoint = NodeModelUtils.getEntryParserRule(parseResult.getRootNode());
+		if (entryPoint == null) {
+			parseCompletely();
+			IParseResult currentParseResult = getParseResult();
+			if (currentParseResult != null) {
+				entryPoint = NodeModelUtils.getEntryParserRule(currentParseResult.getRootNode());
+			}
 		}
 		return entryPoint;
 	}
@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.clustering;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.log4j.Logger;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceDescriptions;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.Sets;
+import com.google.inject.Inject;
+import com.google.inject.name.Named;
+
+/**
+ * A clustering policy that caps a cluster when the heap that is retained after garbage collection exceeds a
+ * configurable share of the maximum heap. In contrast to {@link DynamicResourceClusteringPolicy}, it does not sample
+ * the free memory, which depends on when the garbage collector happens to run, but the usage of the heap memory pools
+ * after the last collection. A measurement is only trusted if a collection happened since the resource set was
+ * cleared, so the resources of the previous cluster do not cap the next one.
+ *
+ * The resources are ordered such that resources that referenced each other in the previous build are processed in
+ * the same cluster, which reduces the number of resources that have to be loaded again after the resource set was
+ * cleared.
+ *
+ * @since 2.14
+ */
+@Beta
+public class AdaptiveResourceClusteringPolicy implements IResourceClusteringPolicy {
+
+	public static final String MAXIMUM_PERCENT_RETAINED_MEMORY = "org.eclipse.xtext.resource.clustering.AdaptiveResourceClusteringPolicy.maximumPercentRetainedMemory";
+
+	private static final Logger LOGGER = Logger.getLogger(AdaptiveResourceClusteringPolicy.class);
+
+	/** Maximum percentage of the heap that may be retained by the resources of a cluster. */
+	@Inject(optional = true)
+	@Named(MAXIMUM_PERCENT_RETAINED_MEMORY)
+	private long maximumPercentRetainedMemory = 70;
+
+	private final List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+
+	private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+	/** The number of collections when the last cluster was capped. */
+	private long collectionCountAtLastCap = -1;
+
+	public AdaptiveResourceClusteringPolicy() {
+		for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+			if (pool.getType() == MemoryType.HEAP && pool.isCollectionUsageThresholdSupported()) {
+				heapPools.add(pool);
+			}
+		}
+	}
+
+	@Override
+	public boolean continueProcessing(ResourceSet resourceSet, URI next, int alreadyProcessed) {
+		if (next != null && resourceSet.getResource(next, false) != null)
+			return true;
+		if (alreadyProcessed == 0)
+			return true;
+		long collectionCount = getCollectionCount();
+		if (collectionCount == collectionCountAtLastCap) {
+			// the last measurement still includes the resources of the previous cluster
+			return true;
+		}
+		long retainedMemory = getRetainedMemory();
+		long maxMemory = Runtime.getRuntime().maxMemory();
+		if (retainedMemory < maxMemory / 100 * maximumPercentRetainedMemory)
+			return true;
+		collectionCountAtLastCap = collectionCount;
+		if (LOGGER.isDebugEnabled()) {
+			LOGGER.debug("Cluster capped at " + alreadyProcessed + '/' + resourceSet.getResources().size()
+					+ " processed/loaded resources; " + (retainedMemory >> 20) + "/" + (maxMemory >> 20)
+					+ " retained/max memory");
+		}
+		return false;
+	}
+
+	/**
+	 * Returns the heap memory that was in use after the last garbage collection. Falls back to the currently used
+	 * memory if the memory pools do not report their usage after collections.
+	 */
+	protected long getRetainedMemory() {
+		long result = 0;
+		boolean measured = false;
+		for (MemoryPoolMXBean pool : heapPools) {
+			MemoryUsage usage = pool.getCollectionUsage();
+			if (usage != null) {
+				result += usage.getUsed();
+				measured = true;
+			}
+		}
+		if (!measured) {
+			return Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the total number of garbage collections so far.
+	 */
+	protected long getCollectionCount() {
+		long result = 0;
+		for (GarbageCollectorMXBean collector : collectors) {
+			result += Math.max(0, collector.getCollectionCount());
+		}
+		return result;
+	}
+
+	/**
+	 * Orders the URIs by a depth first traversal of the references that were recorded for the resources in the
+	 * given index, ignoring their direction. Resources without recorded references keep their relative order.
+	 */
+	@Override
+	public Iterable<URI> orderByLocality(Iterable<URI> uris, IResourceDescriptions index) {
+		Set<URI> remaining = Sets.newLinkedHashSet(uris);
+		Map<URI, Set<URI>> neighbours = new HashMap<>();
+		for (URI uri : remaining) {
+			IResourceDescription description = index.getResourceDescription(uri);
+			if (description == null)
+				continue;
+			for (IReferenceDescription reference : description.getReferenceDescriptions()) {
+				URI target = reference.getTargetEObjectUri();
+				if (target == null)
+					continue;
+				target = target.trimFragment();
+				if (!target.equals(uri) && remaining.contains(target)) {
+					neighbours.computeIfAbsent(uri, key -> new LinkedHashSet<>()).add(target);
+					neighbours.computeIfAbsent(target, key -> new LinkedHashSet<>()).add(uri);
+				}
+			}
+		}
+		if (neighbours.isEmpty())
+			return remaining;
+		List<URI> result = new ArrayList<>(remaining.size());
+		Set<URI> visited = new HashSet<>();
+		Deque<URI> stack = new ArrayDeque<>();
+		for (URI start : remaining) {
+			if (!visited.add(start))
+				continue;
+			stack.push(start);
+			while (!stack.isEmpty()) {
+				URI current = stack.pop();
+				result.add(current);
+				for (URI neighbour : neighbours.getOrDefault(current, Collections.emptySet())) {
+					if (visited.add(neighbour))
+						stack.push(neighbour);
+				}
+			}
+		}
+		return result;
+	}
+
+	public long getMaximumPercentRetainedMemory() {
+		return maximumPercentRetainedMemory;
+	}
+
+	public void setMaximumPercentRetainedMemory(long maximumPercentRetainedMemory) {
+		this.maximumPercentRetainedMemory = maximumPercentRetainedMemory;
+	}
+
+}
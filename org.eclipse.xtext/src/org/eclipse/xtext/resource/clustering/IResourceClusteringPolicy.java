@@ -9,6 +9,7 @@ package org.eclipse.xtext.resource.clustering;
 
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.xtext.resource.IResourceDescriptions;
 
 import com.google.inject.ImplementedBy;
 
@@ -36,4 +37,20 @@ public interface IResourceClusteringPolicy {
 	 */
 	boolean continueProcessing(ResourceSet resourceSet, URI next, int alreadyProcessed);
 
+	/**
+	 * Determine the order in which the given resources are processed. Policies that cap clusters may put resources
+	 * that reference each other next to each other, such that fewer resources have to be loaded again after a new
+	 * cluster was created. The default implementation keeps the given order.
+	 * 
+	 * @param uris
+	 *            The URIs of the resources to be processed.
+	 * @param index
+	 *            The index of the previous build.
+	 * @return the URIs in the order in which they should be processed.
+	 * @since 2.14
+	 */
+	default Iterable<URI> orderByLocality(Iterable<URI> uris, IResourceDescriptions index) {
+		return uris;
+	}
+
 }
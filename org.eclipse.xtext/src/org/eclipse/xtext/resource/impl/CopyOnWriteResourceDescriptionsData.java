@@ -0,0 +1,167 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.impl;
+
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.Iterables;
+
+/**
+ * A {@link ResourceDescriptionsData} whose {@link #copy()} takes constant time. The resource descriptions and the
+ * lookup of exported names are kept in hash tries that are shared between the copies. Changing the data only copies
+ * the trie nodes on the paths to the changed entries, so applying a delta costs time and memory in the order of the
+ * number of changed resources and their exported names.
+ *
+ * In contrast to the super class, the iteration order of the resource descriptions is unspecified and may change
+ * with each modification. Like the super class, an instance is not thread safe. Note that {@link #copy()} counts as a
+ * modification of the copied instance, since it passes the ownership of the shared nodes to the copy. An instance
+ * that is no longer modified, e.g. a published snapshot, can be read by multiple threads.
+ *
+ * @since 2.14
+ */
+@Beta
+public class CopyOnWriteResourceDescriptionsData extends ResourceDescriptionsData {
+
+	private final HashTrieMap<URI, IResourceDescription> resourceDescriptions;
+
+	/**
+	 * Maps lower case names either to a single {@link IResourceDescription} or to an array of descriptions. Arrays
+	 * are never modified once they are stored in the map.
+	 */
+	private final HashTrieMap<QualifiedName, Object> lookup;
+
+	public CopyOnWriteResourceDescriptionsData(Iterable<IResourceDescription> descriptions) {
+		this(new HashTrieMap<URI, IResourceDescription>(), new HashTrieMap<QualifiedName, Object>());
+		for (IResourceDescription description : descriptions) {
+			addDescription(description.getURI(), description);
+		}
+	}
+
+	private CopyOnWriteResourceDescriptionsData(HashTrieMap<URI, IResourceDescription> resourceDescriptions,
+			HashTrieMap<QualifiedName, Object> lookup) {
+		super(Collections.<URI, IResourceDescription>emptyMap(), Collections.<QualifiedName, Object>emptyMap());
+		this.resourceDescriptions = resourceDescriptions;
+		this.lookup = lookup;
+	}
+
+	@Override
+	public CopyOnWriteResourceDescriptionsData copy() {
+		return new CopyOnWriteResourceDescriptionsData(resourceDescriptions.copy(), lookup.copy());
+	}
+
+	@Override
+	public Iterable<IResourceDescription> getAllResourceDescriptions() {
+		return resourceDescriptions.values();
+	}
+
+	@Override
+	public IResourceDescription getResourceDescription(URI uri) {
+		return resourceDescriptions.get(uri);
+	}
+
+	@Override
+	public void removeDescription(URI uri) {
+		IResourceDescription oldDescription = resourceDescriptions.remove(uri);
+		if (oldDescription != null) {
+			for (IEObjectDescription object : oldDescription.getExportedObjects()) {
+				QualifiedName objectName = object.getName().toLowerCase();
+				Object existing = lookup.get(objectName);
+				if (existing == oldDescription) {
+					lookup.remove(objectName);
+				} else if (existing instanceof IResourceDescription[]) {
+					IResourceDescription[] casted = (IResourceDescription[]) existing;
+					int index = Arrays.asList(casted).indexOf(oldDescription);
+					if (index >= 0) {
+						if (casted.length == 2) {
+							lookup.put(objectName, casted[1 - index]);
+						} else {
+							IResourceDescription[] remaining = new IResourceDescription[casted.length - 1];
+							System.arraycopy(casted, 0, remaining, 0, index);
+							System.arraycopy(casted, index + 1, remaining, index, remaining.length - index);
+							lookup.put(objectName, remaining);
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Override
+	public void addDescription(URI uri, IResourceDescription newDescription) {
+		removeDescription(uri);
+		if (newDescription != null) {
+			resourceDescriptions.put(uri, newDescription);
+			for (IEObjectDescription object : newDescription.getExportedObjects()) {
+				QualifiedName lowerCase = object.getName().toLowerCase();
+				Object existing = lookup.get(lowerCase);
+				if (existing == null) {
+					lookup.put(lowerCase, newDescription);
+				} else if (existing instanceof IResourceDescription[]) {
+					IResourceDescription[] casted = (IResourceDescription[]) existing;
+					if (!Arrays.asList(casted).contains(newDescription)) {
+						IResourceDescription[] extended = Arrays.copyOf(casted, casted.length + 1);
+						extended[casted.length] = newDescription;
+						lookup.put(lowerCase, extended);
+					}
+				} else if (existing != newDescription) {
+					lookup.put(lowerCase, new IResourceDescription[] { (IResourceDescription) existing, newDescription });
+				}
+			}
+		}
+	}
+
+	@Override
+	public Iterable<IEObjectDescription> getExportedObjects(EClass type, QualifiedName qualifiedName,
+			boolean ignoreCase) {
+		Object existing = lookup.get(qualifiedName.toLowerCase());
+		if (existing instanceof IResourceDescription) {
+			return ((IResourceDescription) existing).getExportedObjects(type, qualifiedName, ignoreCase);
+		} else if (existing instanceof IResourceDescription[]) {
+			return Iterables.concat(Iterables.transform(Arrays.asList((IResourceDescription[]) existing),
+					from -> from.getExportedObjects(type, qualifiedName, ignoreCase)));
+		}
+		return Collections.emptyList();
+	}
+
+	@Override
+	protected Iterable<IResourceDescription> getSelectables() {
+		return resourceDescriptions.values();
+	}
+
+	@Override
+	public Set<URI> getAllURIs() {
+		return new AbstractSet<URI>() {
+			@Override
+			public Iterator<URI> iterator() {
+				return resourceDescriptions.keys().iterator();
+			}
+
+			@Override
+			public boolean contains(Object o) {
+				return o instanceof URI && resourceDescriptions.get(o) != null;
+			}
+
+			@Override
+			public int size() {
+				return resourceDescriptions.size();
+			}
+		};
+	}
+
+}
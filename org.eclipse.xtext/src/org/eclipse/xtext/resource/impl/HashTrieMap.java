@@ -0,0 +1,411 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.impl;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A hash array mapped trie with structural sharing. {@link #copy() Copying} the map is a constant time operation,
+ * afterwards both maps share their nodes. A modification copies the nodes on the path to the modified entry unless
+ * they were created by the modified map after the last copy, in which case they are updated in place.
+ *
+ * Like a {@link java.util.HashMap}, the map is not thread safe, but a copy is never affected by modifications of the
+ * map that it was created from.
+ *
+ * @since 2.14
+ */
+class HashTrieMap<K, V> {
+
+	private static final int BITS = 5;
+
+	private static final int MASK = (1 << BITS) - 1;
+
+	private Node root;
+
+	private int size;
+
+	/**
+	 * Nodes with this owner were created by this map after the last copy and may be modified in place.
+	 */
+	private Object owner = new Object();
+
+	HashTrieMap() {
+		this(new BitmapNode(null, 0, new Object[0]), 0);
+	}
+
+	private HashTrieMap(Node root, int size) {
+		this.root = root;
+		this.size = size;
+	}
+
+	HashTrieMap<K, V> copy() {
+		owner = new Object();
+		return new HashTrieMap<K, V>(root, size);
+	}
+
+	int size() {
+		return size;
+	}
+
+	@SuppressWarnings("unchecked")
+	V get(Object key) {
+		return (V) root.get(0, key.hashCode(), key);
+	}
+
+	@SuppressWarnings("unchecked")
+	V put(K key, V value) {
+		Result result = new Result();
+		root = root.put(owner, 0, key.hashCode(), key, value, result);
+		if (result.added) {
+			size++;
+		}
+		return (V) result.previous;
+	}
+
+	@SuppressWarnings("unchecked")
+	V remove(Object key) {
+		Result result = new Result();
+		Node newRoot = root.remove(owner, 0, key.hashCode(), key, result);
+		root = newRoot != null ? newRoot : new BitmapNode(owner, 0, new Object[0]);
+		if (result.previous != null) {
+			size--;
+		}
+		return (V) result.previous;
+	}
+
+	Iterable<K> keys() {
+		return () -> new EntryIterator<K>(root, true);
+	}
+
+	Iterable<V> values() {
+		return () -> new EntryIterator<V>(root, false);
+	}
+
+	private static class Result {
+		Object previous;
+		boolean added;
+	}
+
+	private static int bit(int hash, int shift) {
+		return 1 << ((hash >>> shift) & MASK);
+	}
+
+	private static Object[] insertPair(Object[] array, int index, Object key, Object value) {
+		Object[] result = new Object[array.length + 2];
+		System.arraycopy(array, 0, result, 0, index);
+		result[index] = key;
+		result[index + 1] = value;
+		System.arraycopy(array, index, result, index + 2, array.length - index);
+		return result;
+	}
+
+	private static Object[] removePair(Object[] array, int index) {
+		Object[] result = new Object[array.length - 2];
+		System.arraycopy(array, 0, result, 0, index);
+		System.arraycopy(array, index + 2, result, index, result.length - index);
+		return result;
+	}
+
+	/**
+	 * Entries are stored as key value pairs in an array. A <code>null</code> key denotes a child node.
+	 */
+	private static abstract class Node {
+
+		final Object owner;
+
+		Object[] array;
+
+		Node(Object owner, Object[] array) {
+			this.owner = owner;
+			this.array = array;
+		}
+
+		abstract Object get(int shift, int hash, Object key);
+
+		abstract Node put(Object owner, int shift, int hash, Object key, Object value, Result result);
+
+		abstract Node remove(Object owner, int shift, int hash, Object key, Result result);
+
+	}
+
+	private static class BitmapNode extends Node {
+
+		int bitmap;
+
+		BitmapNode(Object owner, int bitmap, Object[] array) {
+			super(owner, array);
+			this.bitmap = bitmap;
+		}
+
+		private int index(int bit) {
+			return 2 * Integer.bitCount(bitmap & (bit - 1));
+		}
+
+		@Override
+		Object get(int shift, int hash, Object key) {
+			int bit = bit(hash, shift);
+			if ((bitmap & bit) == 0) {
+				return null;
+			}
+			int index = index(bit);
+			Object existingKey = array[index];
+			if (existingKey == null) {
+				return ((Node) array[index + 1]).get(shift + BITS, hash, key);
+			}
+			return key.equals(existingKey) ? array[index + 1] : null;
+		}
+
+		@Override
+		Node put(Object owner, int shift, int hash, Object key, Object value, Result result) {
+			int bit = bit(hash, shift);
+			int index = index(bit);
+			if ((bitmap & bit) == 0) {
+				result.added = true;
+				Object[] newArray = insertPair(array, index, key, value);
+				if (this.owner == owner) {
+					array = newArray;
+					bitmap |= bit;
+					return this;
+				}
+				return new BitmapNode(owner, bitmap | bit, newArray);
+			}
+			Object existingKey = array[index];
+			Object existingValue = array[index + 1];
+			if (existingKey == null) {
+				Node child = (Node) existingValue;
+				Node newChild = child.put(owner, shift + BITS, hash, key, value, result);
+				return newChild == child ? this : set(owner, index + 1, newChild);
+			}
+			if (key.equals(existingKey)) {
+				result.previous = existingValue;
+				return existingValue == value ? this : set(owner, index + 1, value);
+			}
+			result.added = true;
+			Node child = createNode(owner, shift + BITS, existingKey, existingValue, hash, key, value);
+			BitmapNode node = set(owner, index, null);
+			node.array[index + 1] = child;
+			return node;
+		}
+
+		private BitmapNode set(Object owner, int index, Object value) {
+			if (this.owner == owner) {
+				array[index] = value;
+				return this;
+			}
+			Object[] newArray = array.clone();
+			newArray[index] = value;
+			return new BitmapNode(owner, bitmap, newArray);
+		}
+
+		@Override
+		Node remove(Object owner, int shift, int hash, Object key, Result result) {
+			int bit = bit(hash, shift);
+			if ((bitmap & bit) == 0) {
+				return this;
+			}
+			int index = index(bit);
+			Object existingKey = array[index];
+			if (existingKey == null) {
+				Node child = (Node) array[index + 1];
+				Node newChild = child.remove(owner, shift + BITS, hash, key, result);
+				if (newChild == child) {
+					return this;
+				}
+				if (newChild != null) {
+					return set(owner, index + 1, newChild);
+				}
+			} else if (key.equals(existingKey)) {
+				result.previous = array[index + 1];
+			} else {
+				return this;
+			}
+			if (bitmap == bit) {
+				return null;
+			}
+			Object[] newArray = removePair(array, index);
+			if (this.owner == owner) {
+				array = newArray;
+				bitmap ^= bit;
+				return this;
+			}
+			return new BitmapNode(owner, bitmap ^ bit, newArray);
+		}
+
+		private static Node createNode(Object owner, int shift, Object key1, Object value1, int hash2, Object key2,
+				Object value2) {
+			int hash1 = key1.hashCode();
+			if (hash1 == hash2) {
+				return new CollisionNode(owner, hash1, new Object[] { key1, value1, key2, value2 });
+			}
+			Result result = new Result();
+			return new BitmapNode(owner, 0, new Object[0])
+					.put(owner, shift, hash1, key1, value1, result)
+					.put(owner, shift, hash2, key2, value2, result);
+		}
+	}
+
+	/**
+	 * Holds the entries whose keys have the same hash code.
+	 */
+	private static class CollisionNode extends Node {
+
+		final int hash;
+
+		CollisionNode(Object owner, int hash, Object[] array) {
+			super(owner, array);
+			this.hash = hash;
+		}
+
+		private int indexOf(Object key) {
+			for (int i = 0; i < array.length; i += 2) {
+				if (key.equals(array[i])) {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		@Override
+		Object get(int shift, int hash, Object key) {
+			if (hash != this.hash) {
+				return null;
+			}
+			int index = indexOf(key);
+			return index < 0 ? null : array[index + 1];
+		}
+
+		@Override
+		Node put(Object owner, int shift, int hash, Object key, Object value, Result result) {
+			if (hash != this.hash) {
+				// the collision node becomes the child of a new node that distinguishes both hashes
+				return new BitmapNode(owner, bit(this.hash, shift), new Object[] { null, this })
+						.put(owner, shift, hash, key, value, result);
+			}
+			int index = indexOf(key);
+			Object[] newArray;
+			if (index < 0) {
+				result.added = true;
+				newArray = insertPair(array, array.length, key, value);
+			} else {
+				result.previous = array[index + 1];
+				if (result.previous == value) {
+					return this;
+				}
+				newArray = array.clone();
+				newArray[index + 1] = value;
+			}
+			if (this.owner == owner) {
+				array = newArray;
+				return this;
+			}
+			return new CollisionNode(owner, hash, newArray);
+		}
+
+		@Override
+		Node remove(Object owner, int shift, int hash, Object key, Result result) {
+			int index = hash == this.hash ? indexOf(key) : -1;
+			if (index < 0) {
+				return this;
+			}
+			result.previous = array[index + 1];
+			if (array.length == 2) {
+				return null;
+			}
+			Object[] newArray = removePair(array, index);
+			if (this.owner == owner) {
+				array = newArray;
+				return this;
+			}
+			return new CollisionNode(owner, hash, newArray);
+		}
+	}
+
+	private static class EntryIterator<T> implements Iterator<T> {
+
+		private final Deque<Object[]> arrays = new ArrayDeque<>();
+
+		private final Deque<Integer> indices = new ArrayDeque<>();
+
+		private final boolean keys;
+
+		private Object[] current;
+
+		private int index;
+
+		private Object next;
+
+		private boolean hasNext;
+
+		EntryIterator(Node root, boolean keys) {
+			this.keys = keys;
+			this.current = root.array;
+			advance();
+		}
+
+		private void advance() {
+			while (true) {
+				if (index < current.length) {
+					Object key = current[index];
+					Object value = current[index + 1];
+					index += 2;
+					if (key == null) {
+						arrays.push(current);
+						indices.push(index);
+						current = ((Node) value).array;
+						index = 0;
+					} else {
+						next = keys ? key : value;
+						hasNext = true;
+						return;
+					}
+				} else if (arrays.isEmpty()) {
+					hasNext = false;
+					next = null;
+					return;
+				} else {
+					current = arrays.pop();
+					index = indices.pop();
+				}
+			}
+		}
+
+		@Override
+		public boolean hasNext() {
+			return hasNext;
+		}
+
+		@Override
+		@SuppressWarnings("unchecked")
+		public T next() {
+			if (!hasNext) {
+				throw new NoSuchElementException();
+			}
+			T result = (T) next;
+			advance();
+			return result;
+		}
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder result = new StringBuilder("{");
+		Iterator<K> keys = keys().iterator();
+		Iterator<V> values = values().iterator();
+		while (keys.hasNext()) {
+			result.append(keys.next()).append('=').append(values.next());
+			if (keys.hasNext()) {
+				result.append(", ");
+			}
+		}
+		return result.append('}').toString();
+	}
+
+}
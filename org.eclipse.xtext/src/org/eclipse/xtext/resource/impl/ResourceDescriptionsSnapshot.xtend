@@ -0,0 +1,110 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.impl
+
+import com.google.common.annotations.Beta
+import java.util.Collections
+import java.util.HashMap
+import java.util.Map
+import java.util.Set
+import org.eclipse.emf.ecore.resource.ResourceSet
+
+/**
+ * An immutable, versioned view on the chunks of a {@link ChunkedResourceDescriptions}. Deriving a new snapshot only
+ * replaces the references to the changed chunks, all other chunks are shared with the previous snapshot. Readers can
+ * thus obtain a consistent view on the index without locking and without copying any resource descriptions.
+ *
+ * The {@link ResourceDescriptionsData} of a published snapshot must not be modified afterwards. Builders are expected
+ * to modify a {@link ResourceDescriptionsData#copy() copy} and publish that copy once they are done, which is cheap for
+ * a {@link CopyOnWriteResourceDescriptionsData}.
+ *
+ * @since 2.14
+ */
+@Beta
+class ResourceDescriptionsSnapshot {
+
+	val long version
+
+	val Map<String, ResourceDescriptionsData> chunks
+
+	new() {
+		this(0, Collections.emptyMap)
+	}
+
+	protected new(long version, Map<String, ResourceDescriptionsData> chunks) {
+		this.version = version
+		this.chunks = chunks
+	}
+
+	/**
+	 * The version is incremented with every snapshot that is derived with different chunks.
+	 */
+	def long getVersion() {
+		return version
+	}
+
+	def ResourceDescriptionsData getContainer(String containerHandle) {
+		return chunks.get(containerHandle)
+	}
+
+	def Set<String> getContainerHandles() {
+		return chunks.keySet
+	}
+
+	/**
+	 * Returns a snapshot where the chunk with the given handle is replaced by the given data, or this snapshot if the
+	 * chunk is already present.
+	 */
+	def ResourceDescriptionsSnapshot withContainer(String containerHandle, ResourceDescriptionsData descriptions) {
+		return withContainers(Collections.singletonMap(containerHandle, descriptions))
+	}
+
+	/**
+	 * Returns a snapshot with the given chunks replaced or added, or this snapshot if nothing changed.
+	 */
+	def ResourceDescriptionsSnapshot withContainers(Map<String, ? extends ResourceDescriptionsData> changed) {
+		if (changed.entrySet.forall[chunks.get(key) === value]) {
+			return this
+		}
+		val newChunks = new HashMap(chunks)
+		newChunks.putAll(changed)
+		return new ResourceDescriptionsSnapshot(version + 1, Collections.unmodifiableMap(newChunks))
+	}
+
+	/**
+	 * Returns a snapshot without the chunk with the given handle, or this snapshot if there is no such chunk.
+	 */
+	def ResourceDescriptionsSnapshot withoutContainer(String containerHandle) {
+		if (!chunks.containsKey(containerHandle)) {
+			return this
+		}
+		val newChunks = new HashMap(chunks)
+		newChunks.remove(containerHandle)
+		return new ResourceDescriptionsSnapshot(version + 1, Collections.unmodifiableMap(newChunks))
+	}
+
+	/**
+	 * Creates a {@link ChunkedResourceDescriptions} on the chunks of this snapshot. The chunks are not copied.
+	 */
+	def ChunkedResourceDescriptions createResourceDescriptions() {
+		return new ChunkedResourceDescriptions(chunks)
+	}
+
+	/**
+	 * Creates a {@link ChunkedResourceDescriptions} on the chunks of this snapshot and installs it with the given
+	 * ResourceSet. The chunks are not copied.
+	 */
+	def ChunkedResourceDescriptions createResourceDescriptions(ResourceSet resourceSet) {
+		return new ChunkedResourceDescriptions(chunks, resourceSet)
+	}
+
+	override toString() {
+		return class.simpleName + "[version=" + version + ", containers=" + chunks.keySet + "]"
+	}
+
+}
@@ -0,0 +1,41 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.persistence
+
+import com.google.common.annotations.Beta
+import java.io.InputStream
+import java.io.OutputStream
+import java.nio.ByteBuffer
+
+/**
+ * A resource storage facade that writes the compact, uncompressed storage format of
+ * {@link CompactResourceStorageWritable}. Storage that was written in the ZIP based format is still loaded.
+ *
+ * Languages opt in by binding {@link IResourceStorageFacade} to this class.
+ *
+ * @since 2.14
+ */
+@Beta
+class CompactResourceStorageFacade extends ResourceStorageFacade {
+
+	override createResourceStorageLoadable(InputStream in) {
+		return new CompactResourceStorageLoadable(in, isStoreNodeModel, isLoadNodeModelOnDemand)
+	}
+
+	/**
+	 * Creates a fresh ResourceStorageLoadable that reads the given buffer, e.g. a memory mapped file.
+	 */
+	def ResourceStorageLoadable createResourceStorageLoadable(ByteBuffer buffer) {
+		return new CompactResourceStorageLoadable(buffer, isStoreNodeModel, isLoadNodeModelOnDemand)
+	}
+
+	override createResourceStorageWritable(OutputStream out) {
+		return new CompactResourceStorageWritable(out, isStoreNodeModel)
+	}
+
+}
@@ -0,0 +1,153 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.persistence
+
+import com.google.common.annotations.Beta
+import com.google.common.io.ByteStreams
+import java.io.IOException
+import java.io.InputStream
+import java.nio.ByteBuffer
+import java.util.zip.ZipInputStream
+import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
+
+import static org.eclipse.xtext.resource.persistence.CompactResourceStorageWritable.*
+
+/**
+ * Loads the storage that was written by a {@link CompactResourceStorageWritable}. The sections are read from a
+ * {@link ByteBuffer}, e.g. a memory mapped file, without copying them. Storage in the ZIP based format of the super
+ * class is still supported.
+ *
+ * @see CompactResourceStorageFacade
+ * @since 2.14
+ */
+@Beta
+class CompactResourceStorageLoadable extends ResourceStorageLoadable {
+
+	val ByteBuffer buffer
+
+	new(InputStream in, boolean storeNodeModel, boolean loadNodeModelOnDemand) {
+		super(in, storeNodeModel, loadNodeModelOnDemand)
+		this.buffer = null
+	}
+
+	new(ByteBuffer buffer, boolean storeNodeModel, boolean loadNodeModelOnDemand) {
+		super(null, storeNodeModel, loadNodeModelOnDemand)
+		this.buffer = buffer
+	}
+
+	override protected loadIntoResource(StorageAwareResource resource) throws IOException {
+		if (!resource.isLoadedFromStorage) {
+			throw new IllegalStateException("Please use StorageAwareResource#load(ResourceStorageLoadable).");
+		}
+		val data = (buffer ?: readFully(in)).duplicate
+		if (data.remaining < 9 || data.getInt(data.position) !== MAGIC) {
+			val zin = new ZipInputStream(new ByteBufferInputStream(data))
+			try {
+				loadEntries(resource, zin)
+			} finally {
+				zin.close
+			}
+			return
+		}
+		val version = data.getInt(data.position + 4)
+		if (version !== VERSION) {
+			throw new IOException("Unsupported storage version " + version + " for " + resource.URI)
+		}
+		val containsNodeModel = data.get(data.position + 8) !== 0 as byte
+		data.position(data.position + 9)
+		loadSections(resource, data, containsNodeModel)
+	}
+
+	private def ByteBuffer readFully(InputStream in) throws IOException {
+		try {
+			return ByteBuffer.wrap(ByteStreams.toByteArray(in))
+		} finally {
+			in.close
+		}
+	}
+
+	/**
+	 * Load the sections from the storage.
+	 * Overriding methods should first delegate to super before reading their own sections.
+	 */
+	protected def void loadSections(StorageAwareResource resource, ByteBuffer data, boolean containsNodeModel) throws IOException {
+		readContents(resource, new ByteBufferInputStream(nextSection(data)))
+		readResourceDescription(resource, nextSection(data))
+		if (containsNodeModel) {
+			val nodeModel = nextSection(data)
+			if (storeNodeModel) {
+				if (loadNodeModelOnDemand) {
+					resource.deferNodeModel[readNodeModel(resource, new ByteBufferInputStream(nodeModel))]
+				} else {
+					readNodeModel(resource, new ByteBufferInputStream(nodeModel))
+				}
+			}
+		}
+	}
+
+	/**
+	 * Returns a view of the next length prefixed section and moves the position of the data behind it.
+	 */
+	protected def ByteBuffer nextSection(ByteBuffer data) {
+		val length = data.getInt
+		val section = data.slice
+		section.limit(length)
+		data.position(data.position + length)
+		return section
+	}
+
+	protected def void readResourceDescription(StorageAwareResource resource, ByteBuffer section) throws IOException {
+		val chunk = new MappedIndexFormat().read(section).values.head
+		val description = SerializableResourceDescription.createCopy(chunk.allResourceDescriptions.head)
+		description.updateResourceURI(resource.URI)
+		resource.resourceDescription = description
+	}
+
+}
+
+/**
+ * Reads the remaining bytes of a buffer.
+ */
+@FinalFieldsConstructor
+package class ByteBufferInputStream extends InputStream {
+
+	val ByteBuffer buffer
+
+	override read() {
+		if (!buffer.hasRemaining) {
+			return -1
+		}
+		return buffer.get.bitwiseAnd(0xFF)
+	}
+
+	override read(byte[] bytes, int offset, int length) {
+		if (length === 0) {
+			return 0
+		}
+		if (!buffer.hasRemaining) {
+			return -1
+		}
+		val count = Math.min(length, buffer.remaining)
+		buffer.get(bytes, offset, count)
+		return count
+	}
+
+	override skip(long n) {
+		val count = Math.min(n, buffer.remaining) as int
+		if (count <= 0) {
+			return 0
+		}
+		buffer.position(buffer.position + count)
+		return count
+	}
+
+	override available() {
+		return buffer.remaining
+	}
+
+}
@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.persistence
+
+import com.google.common.annotations.Beta
+import java.io.BufferedOutputStream
+import java.io.ByteArrayOutputStream
+import java.io.DataOutputStream
+import java.io.IOException
+import java.io.OutputStream
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData
+
+/**
+ * Writes the storage of a resource in a compact binary format. In contrast to the ZIP based format of the super
+ * class, the sections are neither compressed nor written with Java serialization. Each section is prefixed with its
+ * length, so a {@link CompactResourceStorageLoadable} can read the sections from a {@link java.nio.ByteBuffer} without
+ * copying them. The resource description is written in the {@link MappedIndexFormat} which shares URIs and names in
+ * a string table.
+ *
+ * @see CompactResourceStorageFacade
+ * @since 2.14
+ */
+@Beta
+class CompactResourceStorageWritable extends ResourceStorageWritable {
+
+	/**
+	 * The first four bytes of the storage: 'XRSB'.
+	 */
+	public static val int MAGIC = 0x58525342
+
+	public static val int VERSION = 1
+
+	new(OutputStream out, boolean storeNodeModel) {
+		super(out, storeNodeModel)
+	}
+
+	override writeResource(StorageAwareResource resource) throws IOException {
+		if (resource.isLoadedFromStorage) {
+			throw new IllegalStateException("cannot write resources loaded from storage. URI was "+resource.URI)
+		}
+		val dataOut = new DataOutputStream(new BufferedOutputStream(out))
+		try {
+			dataOut.writeInt(MAGIC)
+			dataOut.writeInt(VERSION)
+			dataOut.writeBoolean(storeNodeModel)
+			writeSections(resource, dataOut)
+		} finally {
+			dataOut.close
+		}
+	}
+
+	/**
+	 * Write the sections into the storage.
+	 * Overriding methods should first delegate to super before adding their own sections.
+	 */
+	protected def void writeSections(StorageAwareResource resource, DataOutputStream dataOut) throws IOException {
+		writeSection(dataOut) [ writeContents(resource, it) ]
+		writeSection(dataOut) [ writeResourceDescription(resource, it) ]
+		if (storeNodeModel) {
+			writeSection(dataOut) [ writeNodeModel(resource, it) ]
+		}
+	}
+
+	protected def void writeSection(DataOutputStream dataOut, (OutputStream)=>void writer) throws IOException {
+		val section = new ByteArrayOutputStream
+		writer.apply(section)
+		dataOut.writeInt(section.size)
+		section.writeTo(dataOut)
+	}
+
+	override protected writeResourceDescription(StorageAwareResource resource, OutputStream outputStream) throws IOException {
+		val serializableDescription = createSerializableResourceDescription(resource)
+		new MappedIndexFormat().write(#{'' -> new ResourceDescriptionsData(#[serializableDescription])}, outputStream)
+	}
+
+}
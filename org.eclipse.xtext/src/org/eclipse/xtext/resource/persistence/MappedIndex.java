@@ -0,0 +1,452 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.persistence;
+
+import static org.eclipse.xtext.resource.persistence.MappedIndexFormat.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.emf.ecore.ENamedElement;
+import org.eclipse.emf.ecore.EObject;
+import org.eclipse.emf.ecore.EPackage;
+import org.eclipse.emf.ecore.EReference;
+import org.eclipse.emf.ecore.InternalEObject;
+import org.eclipse.emf.ecore.resource.Resource;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.impl.AbstractResourceDescription;
+
+/**
+ * Read access to a buffer in the {@link MappedIndexFormat}. Only absolute reads are used, so a single buffer can be
+ * shared by concurrent readers.
+ *
+ * @since 2.14
+ */
+class MappedIndex {
+
+	private final ByteBuffer buffer;
+
+	private final int stringsOffset;
+
+	private final String[] strings;
+
+	private final List<Chunk> chunks;
+
+	MappedIndex(ByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+		if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+			throw new IOException("Not an index file.");
+		}
+		if (buffer.getInt(4) != VERSION) {
+			throw new IOException("Unsupported index version: " + buffer.getInt(4));
+		}
+		stringsOffset = buffer.getInt(8);
+		strings = new String[buffer.getInt(stringsOffset)];
+		int chunksOffset = buffer.getInt(12);
+		int chunkCount = buffer.getInt(chunksOffset);
+		List<Chunk> chunks = new ArrayList<>(chunkCount);
+		for (int i = 0; i < chunkCount; i++) {
+			chunks.add(new Chunk(chunksOffset + 4 + i * 20));
+		}
+		this.chunks = Collections.unmodifiableList(chunks);
+	}
+
+	List<Chunk> getChunks() {
+		return chunks;
+	}
+
+	/**
+	 * Strings are decoded on first access. Concurrent readers may decode a string more than once, which is harmless.
+	 */
+	String getString(int index) {
+		if (index == NULL) {
+			return null;
+		}
+		String result = strings[index];
+		if (result == null) {
+			int offset = buffer.getInt(stringsOffset + 4 + index * 4);
+			byte[] bytes = new byte[buffer.getInt(offset)];
+			ByteBuffer view = buffer.duplicate();
+			view.position(offset + 4);
+			view.get(bytes);
+			result = new String(bytes, StandardCharsets.UTF_8);
+			strings[index] = result;
+		}
+		return result;
+	}
+
+	QualifiedName readName(int offset) {
+		int segmentCount = buffer.getInt(offset);
+		String[] segments = new String[segmentCount];
+		for (int i = 0; i < segmentCount; i++) {
+			segments[i] = getString(buffer.getInt(offset + 4 + i * 4));
+		}
+		return QualifiedName.create(segments);
+	}
+
+	int nameSize(int offset) {
+		return 4 + buffer.getInt(offset) * 4;
+	}
+
+	URI readURI(int offset, URI resourceURI) {
+		int base = buffer.getInt(offset);
+		if (base == NULL) {
+			return null;
+		}
+		URI baseURI = base == SAME_RESOURCE ? resourceURI : URI.createURI(getString(base));
+		String fragment = getString(buffer.getInt(offset + 4));
+		return fragment == null ? baseURI : baseURI.appendFragment(fragment);
+	}
+
+	@SuppressWarnings("unchecked")
+	<T extends ENamedElement> T readEcoreElement(int stringIndex) {
+		String uriString = getString(stringIndex);
+		if (uriString == null) {
+			return null;
+		}
+		URI uri = URI.createURI(uriString);
+		EPackage ePackage = EPackage.Registry.INSTANCE.getEPackage(uri.trimFragment().toString());
+		if (ePackage == null) {
+			return null;
+		}
+		Resource resource = ePackage.eResource();
+		return resource == null ? null : (T) resource.getEObject(uri.fragment());
+	}
+
+	/**
+	 * The resources of a chunk are sorted by their URI and the exported names are sorted by their lower case
+	 * representation, so both can be looked up with a binary search.
+	 */
+	class Chunk {
+
+		private final int nameIndex;
+
+		private final int resourceCount;
+
+		private final int resourceTable;
+
+		private final int nameCount;
+
+		private final int nameTable;
+
+		private final MappedResourceDescription[] descriptions;
+
+		private Chunk(int offset) {
+			nameIndex = buffer.getInt(offset);
+			resourceCount = buffer.getInt(offset + 4);
+			resourceTable = buffer.getInt(offset + 8);
+			nameCount = buffer.getInt(offset + 12);
+			nameTable = buffer.getInt(offset + 16);
+			descriptions = new MappedResourceDescription[resourceCount];
+		}
+
+		String getName() {
+			return getString(nameIndex);
+		}
+
+		int getResourceCount() {
+			return resourceCount;
+		}
+
+		MappedResourceDescription getResourceDescription(int index) {
+			MappedResourceDescription result = descriptions[index];
+			if (result == null) {
+				result = new MappedResourceDescription(buffer.getInt(resourceTable + index * 4));
+				descriptions[index] = result;
+			}
+			return result;
+		}
+
+		List<IResourceDescription> getResourceDescriptions() {
+			return new AbstractList<IResourceDescription>() {
+				@Override
+				public IResourceDescription get(int index) {
+					return getResourceDescription(index);
+				}
+
+				@Override
+				public int size() {
+					return resourceCount;
+				}
+			};
+		}
+
+		MappedResourceDescription getResourceDescription(URI uri) {
+			String key = uri.toString();
+			int low = 0;
+			int high = resourceCount - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				int comparison = getString(buffer.getInt(buffer.getInt(resourceTable + mid * 4))).compareTo(key);
+				if (comparison < 0) {
+					low = mid + 1;
+				} else if (comparison > 0) {
+					high = mid - 1;
+				} else {
+					return getResourceDescription(mid);
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Returns the descriptions of the resources that export an object with the given name, ignoring the case.
+		 */
+		List<IResourceDescription> getResourceDescriptions(QualifiedName name) {
+			String key = toKey(name);
+			int low = 0;
+			int high = nameCount - 1;
+			while (low <= high) {
+				int mid = (low + high) >>> 1;
+				int entry = nameTable + mid * 8;
+				int comparison = getString(buffer.getInt(entry)).compareTo(key);
+				if (comparison < 0) {
+					low = mid + 1;
+				} else if (comparison > 0) {
+					high = mid - 1;
+				} else {
+					int postings = buffer.getInt(entry + 4);
+					int count = buffer.getInt(postings);
+					List<IResourceDescription> result = new ArrayList<>(count);
+					for (int i = 0; i < count; i++) {
+						result.add(getResourceDescription(buffer.getInt(postings + 4 + i * 4)));
+					}
+					return result;
+				}
+			}
+			return Collections.emptyList();
+		}
+	}
+
+	class MappedResourceDescription extends AbstractResourceDescription {
+
+		private final int offset;
+
+		private URI uri;
+
+		private MappedResourceDescription(int offset) {
+			this.offset = offset;
+		}
+
+		@Override
+		public URI getURI() {
+			if (uri == null) {
+				uri = URI.createURI(getString(buffer.getInt(offset)));
+			}
+			return uri;
+		}
+
+		@Override
+		protected List<IEObjectDescription> computeExportedObjects() {
+			int position = buffer.getInt(offset + 4);
+			int count = buffer.getInt(position);
+			position += 4;
+			List<IEObjectDescription> result = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				MappedEObjectDescription description = new MappedEObjectDescription(this, position);
+				result.add(description);
+				position = description.getEnd();
+			}
+			return result;
+		}
+
+		@Override
+		public Iterable<QualifiedName> getImportedNames() {
+			int position = buffer.getInt(offset + 12);
+			int count = buffer.getInt(position);
+			position += 4;
+			List<QualifiedName> result = new ArrayList<>(count);
+			for (int i = 0; i < count; i++) {
+				result.add(readName(position));
+				position += nameSize(position);
+			}
+			return result;
+		}
+
+		@Override
+		public Iterable<IReferenceDescription> getReferenceDescriptions() {
+			int position = buffer.getInt(offset + 8);
+			final int count = buffer.getInt(position);
+			final int start = position + 4;
+			return new AbstractList<IReferenceDescription>() {
+				@Override
+				public IReferenceDescription get(int index) {
+					return new MappedReferenceDescription(getURI(), start + index * 32);
+				}
+
+				@Override
+				public int size() {
+					return count;
+				}
+			};
+		}
+
+		@Override
+		public String toString() {
+			return getClass().getSimpleName() + "[" + getURI() + "]";
+		}
+	}
+
+	/**
+	 * Decodes the name eagerly since it is used to populate the lookup of the resource description. The URI, the
+	 * EClass and the user data are decoded on demand.
+	 */
+	class MappedEObjectDescription implements IEObjectDescription {
+
+		private final MappedResourceDescription resource;
+
+		private final int offset;
+
+		private final QualifiedName name;
+
+		private URI eObjectURI;
+
+		private EClass eClass;
+
+		private EObject eObjectOrProxy;
+
+		private MappedEObjectDescription(MappedResourceDescription resource, int offset) {
+			this.resource = resource;
+			this.offset = offset;
+			this.name = readName(offset);
+		}
+
+		private int getURIOffset() {
+			return offset + nameSize(offset);
+		}
+
+		private int getEClassOffset() {
+			return getURIOffset() + 8;
+		}
+
+		private int getUserDataOffset() {
+			return getEClassOffset() + 4;
+		}
+
+		private int getEnd() {
+			int userData = getUserDataOffset();
+			return userData + 4 + buffer.getInt(userData) * 8;
+		}
+
+		@Override
+		public QualifiedName getName() {
+			return name;
+		}
+
+		@Override
+		public QualifiedName getQualifiedName() {
+			return name;
+		}
+
+		@Override
+		public EObject getEObjectOrProxy() {
+			if (eObjectOrProxy == null) {
+				EObject proxy = EcoreUtil.create(getEClass());
+				((InternalEObject) proxy).eSetProxyURI(getEObjectURI());
+				eObjectOrProxy = proxy;
+			}
+			return eObjectOrProxy;
+		}
+
+		@Override
+		public URI getEObjectURI() {
+			if (eObjectURI == null) {
+				eObjectURI = readURI(getURIOffset(), resource.getURI());
+			}
+			return eObjectURI;
+		}
+
+		@Override
+		public EClass getEClass() {
+			if (eClass == null) {
+				eClass = readEcoreElement(buffer.getInt(getEClassOffset()));
+			}
+			return eClass;
+		}
+
+		@Override
+		public String getUserData(String key) {
+			int userData = getUserDataOffset();
+			int count = buffer.getInt(userData);
+			for (int i = 0; i < count; i++) {
+				int entry = userData + 4 + i * 8;
+				if (key.equals(getString(buffer.getInt(entry)))) {
+					return getString(buffer.getInt(entry + 4));
+				}
+			}
+			return null;
+		}
+
+		@Override
+		public String[] getUserDataKeys() {
+			int userData = getUserDataOffset();
+			String[] result = new String[buffer.getInt(userData)];
+			for (int i = 0; i < result.length; i++) {
+				result[i] = getString(buffer.getInt(userData + 4 + i * 8));
+			}
+			return result;
+		}
+
+		@Override
+		public String toString() {
+			return name + " - " + getEObjectURI();
+		}
+	}
+
+	/**
+	 * Reference descriptions have a fixed size, so they are created on demand when the list is accessed.
+	 */
+	class MappedReferenceDescription implements IReferenceDescription {
+
+		private final URI resourceURI;
+
+		private final int offset;
+
+		private MappedReferenceDescription(URI resourceURI, int offset) {
+			this.resourceURI = resourceURI;
+			this.offset = offset;
+		}
+
+		@Override
+		public URI getSourceEObjectUri() {
+			return readURI(offset, resourceURI);
+		}
+
+		@Override
+		public URI getTargetEObjectUri() {
+			return readURI(offset + 8, resourceURI);
+		}
+
+		@Override
+		public URI getContainerEObjectURI() {
+			return readURI(offset + 16, resourceURI);
+		}
+
+		@Override
+		public EReference getEReference() {
+			return readEcoreElement(buffer.getInt(offset + 24));
+		}
+
+		@Override
+		public int getIndexInList() {
+			return buffer.getInt(offset + 28);
+		}
+	}
+
+}
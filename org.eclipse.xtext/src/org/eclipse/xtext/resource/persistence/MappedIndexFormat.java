@@ -0,0 +1,361 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.persistence;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.ENamedElement;
+import org.eclipse.emf.ecore.util.EcoreUtil;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IReferenceDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.IResourceDescriptions;
+import org.eclipse.xtext.resource.impl.ChunkedResourceDescriptions;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.Lists;
+
+/**
+ * Reads and writes the chunks of a {@link ChunkedResourceDescriptions} in a binary format that is accessed through a
+ * memory mapped file. In contrast to the {@link java.io.Externalizable Java serialization} of the index, reading a
+ * file does not decode any resource description. URIs, exported names, EClasses, user data, reference descriptions
+ * and imported names are decoded when they are accessed, so the heap consumption depends on the queried part of the
+ * index only.
+ *
+ * The returned data is backed by the file. A file must not be modified while it is mapped, so clients should write a
+ * new index to a temporary file and move it to its final location afterwards.
+ *
+ * @see MappedResourceDescriptionsData
+ * @since 2.14
+ */
+@Beta
+public class MappedIndexFormat {
+
+	static final int MAGIC = 0x5849_4458; // 'XIDX'
+
+	static final int VERSION = 1;
+
+	/**
+	 * Indicates a <code>null</code> string.
+	 */
+	static final int NULL = -1;
+
+	/**
+	 * Used instead of a string index for the base of URIs that point into the described resource itself.
+	 */
+	static final int SAME_RESOURCE = -2;
+
+	/**
+	 * The size in bytes of the header: the magic number, the version and the offsets of the string table and the
+	 * chunks.
+	 */
+	static final int HEADER_SIZE = 16;
+
+	/**
+	 * Separates the segments of the lower case names that are used as keys in the name tables.
+	 */
+	static final char SEGMENT_SEPARATOR = '\u0000';
+
+	public void write(ChunkedResourceDescriptions index, File file) throws IOException {
+		Map<String, IResourceDescriptions> chunks = new LinkedHashMap<>();
+		for (String handle : index.getContainerHandles()) {
+			ResourceDescriptionsData container = index.getContainer(handle);
+			if (container != null) {
+				chunks.put(handle, container);
+			}
+		}
+		write(chunks, file);
+	}
+
+	public void write(Map<String, ? extends IResourceDescriptions> chunks, File file) throws IOException {
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file))) {
+			write(chunks, out);
+		}
+	}
+
+	public void write(Map<String, ? extends IResourceDescriptions> chunks, OutputStream out) throws IOException {
+		new Writer().write(chunks, out);
+	}
+
+	/**
+	 * Maps the given file and returns the chunks that it contains, in the order in which they were written. The
+	 * returned data can be used to create a {@link ChunkedResourceDescriptions}.
+	 */
+	public Map<String, ResourceDescriptionsData> read(File file) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r"); FileChannel channel = raf.getChannel()) {
+			return read(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+		}
+	}
+
+	public Map<String, ResourceDescriptionsData> read(ByteBuffer buffer) throws IOException {
+		MappedIndex index = new MappedIndex(buffer);
+		Map<String, ResourceDescriptionsData> result = new LinkedHashMap<>();
+		for (MappedIndex.Chunk chunk : index.getChunks()) {
+			result.put(chunk.getName(), new MappedResourceDescriptionsData(chunk));
+		}
+		return result;
+	}
+
+	static String toKey(QualifiedName name) {
+		return name.toLowerCase().toString(String.valueOf(SEGMENT_SEPARATOR));
+	}
+
+	/**
+	 * Collects the sections in memory. The file starts with the resource records, followed by the chunks with their
+	 * resource and name tables and the string table. All offsets are absolute, so a reader never needs to relocate
+	 * anything.
+	 */
+	private static class Writer {
+
+		private final Map<String, Integer> strings = new LinkedHashMap<>();
+
+		private final Section records = new Section(HEADER_SIZE);
+
+		void write(Map<String, ? extends IResourceDescriptions> chunks, OutputStream out) throws IOException {
+			List<int[]> recordOffsets = new ArrayList<>(chunks.size());
+			List<TreeMap<String, List<Integer>>> names = new ArrayList<>(chunks.size());
+			for (IResourceDescriptions chunk : chunks.values()) {
+				List<IResourceDescription> resources = sortedByURI(chunk.getAllResourceDescriptions());
+				TreeMap<String, List<Integer>> chunkNames = new TreeMap<>();
+				int[] chunkRecordOffsets = new int[resources.size()];
+				for (int i = 0; i < resources.size(); i++) {
+					IResourceDescription description = resources.get(i);
+					chunkRecordOffsets[i] = writeRecord(description);
+					for (IEObjectDescription exported : description.getExportedObjects()) {
+						String key = toKey(exported.getName());
+						List<Integer> indices = chunkNames.get(key);
+						if (indices == null) {
+							indices = new ArrayList<>(1);
+							chunkNames.put(key, indices);
+						}
+						if (indices.isEmpty() || indices.get(indices.size() - 1) != i) {
+							indices.add(i);
+						}
+					}
+				}
+				recordOffsets.add(chunkRecordOffsets);
+				names.add(chunkNames);
+			}
+			int chunksOffset = records.position();
+			Section headers = new Section(chunksOffset);
+			// chunk headers have a fixed size, the tables follow after all headers
+			Section tables = new Section(chunksOffset + 4 + chunks.size() * 20);
+			headers.out.writeInt(chunks.size());
+			int i = 0;
+			for (String handle : chunks.keySet()) {
+				int[] chunkRecordOffsets = recordOffsets.get(i);
+				TreeMap<String, List<Integer>> chunkNames = names.get(i++);
+				headers.out.writeInt(string(handle));
+				headers.out.writeInt(chunkRecordOffsets.length);
+				headers.out.writeInt(tables.position());
+				for (int offset : chunkRecordOffsets) {
+					tables.out.writeInt(offset);
+				}
+				headers.out.writeInt(chunkNames.size());
+				headers.out.writeInt(tables.position());
+				int postings = tables.position() + chunkNames.size() * 8;
+				for (Map.Entry<String, List<Integer>> name : chunkNames.entrySet()) {
+					tables.out.writeInt(string(name.getKey()));
+					tables.out.writeInt(postings);
+					postings += 4 + name.getValue().size() * 4;
+				}
+				for (List<Integer> indices : chunkNames.values()) {
+					tables.out.writeInt(indices.size());
+					for (int index : indices) {
+						tables.out.writeInt(index);
+					}
+				}
+			}
+			DataOutputStream data = new DataOutputStream(out);
+			data.writeInt(MAGIC);
+			data.writeInt(VERSION);
+			data.writeInt(tables.position());
+			data.writeInt(chunksOffset);
+			records.writeTo(data);
+			headers.writeTo(data);
+			tables.writeTo(data);
+			writeStrings(data, tables.position());
+			data.flush();
+		}
+
+		private List<IResourceDescription> sortedByURI(Iterable<IResourceDescription> descriptions) {
+			List<IResourceDescription> result = Lists.newArrayList(descriptions);
+			Collections.sort(result, (a, b) -> a.getURI().toString().compareTo(b.getURI().toString()));
+			return result;
+		}
+
+		/**
+		 * A record starts with the URI of the resource and the offsets of the exported objects, the reference
+		 * descriptions and the imported names.
+		 */
+		private int writeRecord(IResourceDescription description) throws IOException {
+			DataOutputStream out = records.out;
+			int start = records.position();
+			URI resourceURI = description.getURI();
+			List<IEObjectDescription> exported = Lists.newArrayList(description.getExportedObjects());
+			List<IReferenceDescription> references = Lists.newArrayList(description.getReferenceDescriptions());
+			List<QualifiedName> importedNames = Lists.newArrayList(description.getImportedNames());
+			out.writeInt(string(resourceURI.toString()));
+			int offsets = records.size();
+			out.writeInt(0);
+			out.writeInt(0);
+			out.writeInt(0);
+			int exportedStart = records.position();
+			out.writeInt(exported.size());
+			for (IEObjectDescription object : exported) {
+				writeName(object.getName());
+				writeURI(object.getEObjectURI(), resourceURI);
+				writeString(uriOf(object.getEClass()));
+				String[] userDataKeys = object.getUserDataKeys();
+				if (userDataKeys == null) {
+					userDataKeys = new String[0];
+				}
+				out.writeInt(userDataKeys.length);
+				for (String key : userDataKeys) {
+					writeString(key);
+					writeString(object.getUserData(key));
+				}
+			}
+			int referencesStart = records.position();
+			out.writeInt(references.size());
+			for (IReferenceDescription reference : references) {
+				writeURI(reference.getSourceEObjectUri(), resourceURI);
+				writeURI(reference.getTargetEObjectUri(), resourceURI);
+				writeURI(reference.getContainerEObjectURI(), resourceURI);
+				writeString(uriOf(reference.getEReference()));
+				out.writeInt(reference.getIndexInList());
+			}
+			int importedNamesStart = records.position();
+			out.writeInt(importedNames.size());
+			for (QualifiedName name : importedNames) {
+				writeName(name);
+			}
+			records.patch(offsets, exportedStart);
+			records.patch(offsets + 4, referencesStart);
+			records.patch(offsets + 8, importedNamesStart);
+			return start;
+		}
+
+		private String uriOf(ENamedElement element) {
+			return element == null ? null : EcoreUtil.getURI(element).toString();
+		}
+
+		private void writeName(QualifiedName name) throws IOException {
+			records.out.writeInt(name.getSegmentCount());
+			for (String segment : name.getSegments()) {
+				writeString(segment);
+			}
+		}
+
+		/**
+		 * URIs are split into the resource part and the fragment, so fragments and resource URIs are shared in the
+		 * string table.
+		 */
+		private void writeURI(URI uri, URI resourceURI) throws IOException {
+			if (uri == null) {
+				records.out.writeInt(NULL);
+				records.out.writeInt(NULL);
+			} else {
+				URI base = uri.trimFragment();
+				records.out.writeInt(base.equals(resourceURI) ? SAME_RESOURCE : string(base.toString()));
+				writeString(uri.fragment());
+			}
+		}
+
+		private void writeString(String value) throws IOException {
+			records.out.writeInt(value == null ? NULL : string(value));
+		}
+
+		private int string(String value) {
+			Integer result = strings.get(value);
+			if (result == null) {
+				result = strings.size();
+				strings.put(value, result);
+			}
+			return result;
+		}
+
+		/**
+		 * The string table starts with the number of strings and their absolute offsets, followed by the length
+		 * prefixed UTF-8 encoded strings.
+		 */
+		private void writeStrings(DataOutputStream out, int stringsOffset) throws IOException {
+			out.writeInt(strings.size());
+			int offset = stringsOffset + 4 + strings.size() * 4;
+			List<byte[]> encoded = new ArrayList<>(strings.size());
+			for (String value : strings.keySet()) {
+				byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+				encoded.add(bytes);
+				out.writeInt(offset);
+				offset += 4 + bytes.length;
+			}
+			for (byte[] bytes : encoded) {
+				out.writeInt(bytes.length);
+				out.write(bytes);
+			}
+		}
+	}
+
+	private static class Section {
+
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+		final DataOutputStream out = new DataOutputStream(bytes);
+
+		/**
+		 * The offset of this section in the file.
+		 */
+		private final int base;
+
+		private final List<int[]> patches = new ArrayList<>();
+
+		Section(int base) {
+			this.base = base;
+		}
+
+		int size() {
+			return out.size();
+		}
+
+		int position() {
+			return base + out.size();
+		}
+
+		void patch(int offset, int value) {
+			patches.add(new int[] { offset, value });
+		}
+
+		void writeTo(DataOutputStream target) throws IOException {
+			ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+			for (int[] patch : patches) {
+				buffer.putInt(patch[0], patch[1]);
+			}
+			target.write(buffer.array());
+		}
+	}
+
+}
@@ -0,0 +1,128 @@
+/*******************************************************************************
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ *******************************************************************************/
+package org.eclipse.xtext.resource.persistence;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.ecore.EClass;
+import org.eclipse.xtext.naming.QualifiedName;
+import org.eclipse.xtext.resource.IEObjectDescription;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+
+import com.google.common.annotations.Beta;
+import com.google.common.collect.Iterables;
+
+/**
+ * A {@link ResourceDescriptionsData} that is backed by a chunk of a memory mapped index file. The mapped descriptions
+ * are never modified. Added and replaced descriptions are kept in an overlay on the heap, and descriptions that were
+ * removed or replaced are hidden. Thereby {@link #copy() copying} the data only copies the changes that were applied
+ * since the file was read.
+ *
+ * @see MappedIndexFormat
+ * @since 2.14
+ */
+@Beta
+public class MappedResourceDescriptionsData extends ResourceDescriptionsData {
+
+	private final MappedIndex.Chunk chunk;
+
+	private final ResourceDescriptionsData overlay;
+
+	/**
+	 * The URIs of the mapped descriptions that were removed or replaced by a description in the overlay.
+	 */
+	private final Set<URI> hidden;
+
+	MappedResourceDescriptionsData(MappedIndex.Chunk chunk) {
+		this(chunk, new ResourceDescriptionsData(Collections.<IResourceDescription>emptyList()), new HashSet<URI>());
+	}
+
+	private MappedResourceDescriptionsData(MappedIndex.Chunk chunk, ResourceDescriptionsData overlay, Set<URI> hidden) {
+		super(new LinkedHashMap<>(), new LinkedHashMap<>());
+		this.chunk = chunk;
+		this.overlay = overlay;
+		this.hidden = hidden;
+	}
+
+	@Override
+	public MappedResourceDescriptionsData copy() {
+		return new MappedResourceDescriptionsData(chunk, overlay.copy(), new HashSet<>(hidden));
+	}
+
+	@Override
+	public Iterable<IResourceDescription> getAllResourceDescriptions() {
+		if (hidden.isEmpty()) {
+			return Iterables.concat(chunk.getResourceDescriptions(), overlay.getAllResourceDescriptions());
+		}
+		return Iterables.concat(Iterables.filter(chunk.getResourceDescriptions(), it -> !hidden.contains(it.getURI())),
+				overlay.getAllResourceDescriptions());
+	}
+
+	@Override
+	public IResourceDescription getResourceDescription(URI uri) {
+		IResourceDescription result = overlay.getResourceDescription(uri);
+		if (result == null && !hidden.contains(uri)) {
+			result = chunk.getResourceDescription(uri);
+		}
+		return result;
+	}
+
+	@Override
+	public void removeDescription(URI uri) {
+		overlay.removeDescription(uri);
+		hide(uri);
+	}
+
+	@Override
+	public void addDescription(URI uri, IResourceDescription newDescription) {
+		overlay.addDescription(uri, newDescription);
+		hide(uri);
+	}
+
+	private void hide(URI uri) {
+		if (!hidden.contains(uri) && chunk.getResourceDescription(uri) != null) {
+			hidden.add(uri);
+		}
+	}
+
+	@Override
+	public Iterable<IEObjectDescription> getExportedObjects(EClass type, QualifiedName qualifiedName,
+			boolean ignoreCase) {
+		Iterable<IResourceDescription> mapped = chunk.getResourceDescriptions(qualifiedName);
+		if (!hidden.isEmpty()) {
+			mapped = Iterables.filter(mapped, it -> !hidden.contains(it.getURI()));
+		}
+		return Iterables.concat(
+				Iterables.concat(Iterables.transform(mapped, it -> it.getExportedObjects(type, qualifiedName, ignoreCase))),
+				overlay.getExportedObjects(type, qualifiedName, ignoreCase));
+	}
+
+	@Override
+	protected Iterable<IResourceDescription> getSelectables() {
+		return getAllResourceDescriptions();
+	}
+
+	/**
+	 * Returns a new set since the URIs of the mapped descriptions are not kept in memory.
+	 */
+	@Override
+	public Set<URI> getAllURIs() {
+		Set<URI> result = new LinkedHashSet<>();
+		for (IResourceDescription description : getAllResourceDescriptions()) {
+			result.add(description.getURI());
+		}
+		return result;
+	}
+
+}
@@ -34,6 +34,14 @@ class ResourceStorageFacade implements IResourceStorageFacade {
 	
 	@Accessors boolean storeNodeModel = false
 	
+	/**
+	 * Whether a stored node model is read when it is accessed for the first time rather than when the resource is
+	 * loaded.
+	 * 
+	 * @since 2.14
+	 */
+	@Accessors boolean loadNodeModelOnDemand = false
+	
 	/**
 	 * @return whether the given resource should be loaded from stored resource state
 	 */
@@ -87,7 +95,7 @@ class ResourceStorageFacade implements IResourceStorageFacade {
 	}
 	
 	override def ResourceStorageLoadable createResourceStorageLoadable(InputStream in) {
-		return new ResourceStorageLoadable(in, isStoreNodeModel)
+		return new ResourceStorageLoadable(in, isStoreNodeModel, isLoadNodeModelOnDemand)
 	}
 	
 	override def ResourceStorageWritable createResourceStorageWritable(OutputStream out) {
@@ -7,7 +7,9 @@
  *******************************************************************************/
 package org.eclipse.xtext.resource.persistence
 
+import com.google.common.io.ByteStreams
 import com.google.common.io.CharStreams
+import java.io.ByteArrayInputStream
 import java.io.BufferedInputStream
 import java.io.DataInputStream
 import java.io.IOException
@@ -19,7 +21,7 @@ import org.apache.log4j.Logger
 import org.eclipse.emf.ecore.InternalEObject
 import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl
 import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl.EObjectInputStream
-import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
+import org.eclipse.xtend.lib.annotations.Accessors
 import org.eclipse.xtext.nodemodel.impl.SerializableNodeModel
 import org.eclipse.xtext.nodemodel.serialization.DeserializationConversionContext
 import org.eclipse.xtext.parser.ParseResult
@@ -27,12 +29,27 @@ import org.eclipse.xtext.parser.ParseResult
 /**
  * @author Sven Efftinge - Initial contribution and API
  */
-@FinalFieldsConstructor class ResourceStorageLoadable {
+class ResourceStorageLoadable {
 	
 	static val LOG = Logger.getLogger(ResourceStorageLoadable)
 	
-	val InputStream in
-	val boolean storeNodeModel
+	@Accessors(PROTECTED_GETTER) val InputStream in
+	@Accessors(PROTECTED_GETTER) val boolean storeNodeModel
+	@Accessors(PROTECTED_GETTER) val boolean loadNodeModelOnDemand
+	
+	new(InputStream in, boolean storeNodeModel) {
+		this(in, storeNodeModel, false)
+	}
+	
+	/**
+	 * @param loadNodeModelOnDemand whether the node model is only read when it is accessed for the first time
+	 * @since 2.14
+	 */
+	new(InputStream in, boolean storeNodeModel, boolean loadNodeModelOnDemand) {
+		this.in = in
+		this.storeNodeModel = storeNodeModel
+		this.loadNodeModelOnDemand = loadNodeModelOnDemand
+	}
 	
 	protected def void loadIntoResource(StorageAwareResource resource) throws IOException {
 		if (!resource.isLoadedFromStorage) {
@@ -59,7 +76,12 @@ import org.eclipse.xtext.parser.ParseResult
 
 		if (storeNodeModel) {
 			zipIn.nextEntry
-			readNodeModel(resource, new BufferedInputStream(zipIn))
+			if (loadNodeModelOnDemand) {
+				val nodeModel = ByteStreams.toByteArray(zipIn)
+				resource.deferNodeModel[readNodeModel(resource, new ByteArrayInputStream(nodeModel))]
+			} else {
+				readNodeModel(resource, new BufferedInputStream(zipIn))
+			}
 		}
 	}
 	
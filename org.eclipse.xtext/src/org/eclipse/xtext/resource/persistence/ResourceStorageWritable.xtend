@@ -18,6 +18,7 @@ import org.eclipse.emf.common.util.URI
 import org.eclipse.emf.ecore.InternalEObject
 import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl
 import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl.EObjectOutputStream
+import org.eclipse.xtend.lib.annotations.Accessors
 import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor
 import org.eclipse.xtext.nodemodel.impl.SerializableNodeModel
 import org.eclipse.xtext.nodemodel.serialization.SerializationConversionContext
@@ -27,8 +28,8 @@ import org.eclipse.xtext.nodemodel.serialization.SerializationConversionContext
  */
 @FinalFieldsConstructor class ResourceStorageWritable {
 	
-	val OutputStream out
-	val boolean storeNodeModel
+	@Accessors(PROTECTED_GETTER) val OutputStream out
+	@Accessors(PROTECTED_GETTER) val boolean storeNodeModel
 	
 	def void writeResource(StorageAwareResource resource) throws IOException {
 		if (resource.isLoadedFromStorage) {
@@ -109,9 +110,7 @@ import org.eclipse.xtext.nodemodel.serialization.SerializationConversionContext
 	}
 	
 	protected def void writeResourceDescription(StorageAwareResource resource, OutputStream outputStream) throws IOException {
-		val description = resource.resourceServiceProvider.resourceDescriptionManager.getResourceDescription(resource);
-		val serializableDescription = SerializableResourceDescription.createCopy(description)
-		convertExternalURIsToPortableURIs(serializableDescription, resource) 
+		val serializableDescription = createSerializableResourceDescription(resource)
 		val out = new ObjectOutputStream(outputStream);
 		try {
 			out.writeObject(serializableDescription);
@@ -120,6 +119,16 @@ import org.eclipse.xtext.nodemodel.serialization.SerializationConversionContext
 		}
 	}
 	
+	/**
+	 * @since 2.14
+	 */
+	protected def SerializableResourceDescription createSerializableResourceDescription(StorageAwareResource resource) {
+		val description = resource.resourceServiceProvider.resourceDescriptionManager.getResourceDescription(resource);
+		val serializableDescription = SerializableResourceDescription.createCopy(description)
+		convertExternalURIsToPortableURIs(serializableDescription, resource)
+		return serializableDescription
+	}
+	
 	def protected void convertExternalURIsToPortableURIs(SerializableResourceDescription description, StorageAwareResource resource) {
 		for (ref : description.referenceDescriptions) {
 			if (ref.targetEObjectUri.trimFragment != resource.URI) {
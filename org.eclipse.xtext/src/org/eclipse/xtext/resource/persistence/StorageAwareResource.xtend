@@ -10,9 +10,12 @@ package org.eclipse.xtext.resource.persistence
 import com.google.inject.Inject
 import java.io.IOException
 import java.util.Map
+import java.util.concurrent.locks.ReentrantLock
 import org.apache.log4j.Logger
+import org.eclipse.emf.common.util.WrappedException
 import org.eclipse.xtend.lib.annotations.Accessors
 import org.eclipse.xtext.linking.lazy.LazyLinkingResource
+import org.eclipse.xtext.nodemodel.util.NodeModelUtils
 import org.eclipse.xtext.resource.IResourceDescription
 import org.eclipse.xtext.util.internal.Stopwatches
 
@@ -33,6 +36,18 @@ class StorageAwareResource extends LazyLinkingResource {
 	
 	@Accessors IResourceDescription resourceDescription = null;
 	
+	/**
+	 * Reads the node model of a resource that was loaded from storage on first access. It is only reset once the node
+	 * model has been loaded completely, so concurrent readers wait for the load to finish.
+	 */
+	volatile ()=>void deferredNodeModel = null;
+	
+	/**
+	 * Held while the deferred node model is loaded. This is an explicit lock rather than the monitor of this resource,
+	 * so threads that wait for the load do not pin their carrier thread.
+	 */
+	val nodeModelLock = new ReentrantLock
+	
 	override load(Map<?, ?> options) throws IOException {
 		if (!isLoaded && !isLoading && resourceStorageFacade !== null && resourceStorageFacade.shouldLoadFromStorage(this)) {
 			if (LOG.isDebugEnabled) {
@@ -69,17 +84,70 @@ class StorageAwareResource extends LazyLinkingResource {
 		}
 	}
 	
+	/**
+	 * Defers loading the node model until the parse result is requested or {@link NodeModelUtils} is asked for the
+	 * node of an object in this resource.
+	 * 
+	 * @since 2.14
+	 */
+	def void deferNodeModel(()=>void nodeModelLoader) {
+		deferredNodeModel = nodeModelLoader
+	}
+	
+	/**
+	 * Loads the node model if its loading was deferred. If another thread is loading it, waits until it is loaded.
+	 * If the loading fails, it is attempted again on the next call.
+	 * 
+	 * @return whether the node model was loaded since this method was called, i.e. whether the nodes have to be looked
+	 *         up again
+	 * @since 2.14
+	 */
+	def boolean loadDeferredNodeModel() {
+		if (deferredNodeModel === null) {
+			return false
+		}
+		if (nodeModelLock.isHeldByCurrentThread) {
+			// the loader itself asked for the node model
+			return false
+		}
+		nodeModelLock.lock
+		try {
+			val nodeModelLoader = deferredNodeModel
+			if (nodeModelLoader === null) {
+				// loaded by another thread in the meantime
+				return true
+			}
+			nodeModelLoader.apply
+			deferredNodeModel = null
+			return true
+		} catch (IOException e) {
+			throw new WrappedException(e)
+		} finally {
+			nodeModelLock.unlock
+		}
+	}
+	
+	override getParseResult() {
+		loadDeferredNodeModel
+		return super.getParseResult
+	}
+	
 	override protected doUnload() {
 		super.doUnload
 		isLoadedFromStorage = false;
+		deferredNodeModel = null;
 	}
 	
 	override protected clearInternalState() {
 		isLoadedFromStorage = false;
+		deferredNodeModel = null;
 		super.clearInternalState();
 	}
 	
-	override synchronized getEObject(String uriFragment) {
+	/**
+	 * Not synchronized, a deferred node model that is needed to resolve the fragment is loaded under its own lock.
+	 */
+	override getEObject(String uriFragment) {
 		if (portableURIs.isPortableURIFragment(uriFragment)) {
 			return portableURIs.resolve(this, uriFragment)
 		}
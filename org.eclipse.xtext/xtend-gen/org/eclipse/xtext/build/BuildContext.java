@@ -7,6 +7,7 @@
  */
 package org.eclipse.xtext.build;
 
+import java.util.concurrent.ExecutorService;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.xtend.lib.annotations.Accessors;
@@ -18,6 +19,7 @@ import org.eclipse.xtext.resource.XtextResourceSet;
 import org.eclipse.xtext.resource.clustering.IResourceClusteringPolicy;
 import org.eclipse.xtext.util.CancelIndicator;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
+import org.eclipse.xtext.xbase.lib.Functions.Function2;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
 import org.eclipse.xtext.xbase.lib.Pure;
 
@@ -55,6 +57,21 @@ public class BuildContext {
     return this.loader.<T>executeClustered(IterableExtensions.<URI>filter(uri, _function), operation);
   }
   
+  /**
+   * @see ClusteringStorageAwareResourceLoader#executeClustered(Iterable, ExecutorService, Function1, Function2)
+   * @since 2.14
+   */
+  public <S extends Object, T extends Object> Iterable<T> executeClustered(final Iterable<URI> uri, final ExecutorService executor, final Function1<? super Resource, ? extends S> concurrentOperation, final Function2<? super Resource, ? super S, ? extends T> sequentialOperation) {
+    if ((this.loader == null)) {
+      ClusteringStorageAwareResourceLoader _clusteringStorageAwareResourceLoader = new ClusteringStorageAwareResourceLoader(this);
+      this.loader = _clusteringStorageAwareResourceLoader;
+    }
+    final Function1<URI, Boolean> _function = (URI it) -> {
+      return Boolean.valueOf(this.canHandle(it));
+    };
+    return this.loader.<S, T>executeClustered(IterableExtensions.<URI>filter(uri, _function), executor, concurrentOperation, sequentialOperation);
+  }
+  
   protected boolean canHandle(final URI uri) {
     final IResourceServiceProvider resourceServiceProvider = this.resourceServiceProviderProvider.apply(uri);
     if ((resourceServiceProvider == null)) {
@@ -11,6 +11,11 @@ import com.google.common.collect.Iterables;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.resource.Resource;
 import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor;
@@ -20,8 +25,12 @@ import org.eclipse.xtext.resource.IResourceServiceProviderExtension;
 import org.eclipse.xtext.resource.persistence.SourceLevelURIsAdapter;
 import org.eclipse.xtext.resource.persistence.StorageAwareResource;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+import org.eclipse.xtext.xbase.lib.Exceptions;
+import org.eclipse.xtext.xbase.lib.ExclusiveRange;
 import org.eclipse.xtext.xbase.lib.Extension;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
+import org.eclipse.xtext.xbase.lib.Functions.Function2;
+import org.eclipse.xtext.xbase.lib.IterableExtensions;
 import org.eclipse.xtext.xbase.lib.ListExtensions;
 
 /**
@@ -34,6 +43,80 @@ public class ClusteringStorageAwareResourceLoader {
   private final BuildContext context;
   
   public <T extends Object> Iterable<T> executeClustered(final Iterable<URI> uris, final Function1<? super Resource, ? extends T> operation) {
+    final Function1<List<Resource>, Iterable<T>> _function = (List<Resource> resources) -> {
+      final Function1<Resource, T> _function_1 = (Resource it) -> {
+        return operation.apply(it);
+      };
+      return ListExtensions.<Resource, T>map(resources, _function_1);
+    };
+    return this.<T>doExecuteClustered(uris, _function);
+  }
+  
+  /**
+   * Like {@link #executeClustered(Iterable, Function1)}, but the {@code concurrentOperation} is applied to all resources
+   * of a cluster concurrently using the given executor. The {@code sequentialOperation} is applied on the calling
+   * thread, in the order of the given URIs, and receives the result of the concurrent operation. It is only applied
+   * after the concurrent operation finished for all resources of the cluster, so it may modify state, e.g. the
+   * index, that the concurrent operations read.
+   * 
+   * The resources of a cluster are loaded and fully initialized on the calling thread before the concurrent operation
+   * is scheduled. The resource set must tolerate concurrent access, e.g. a
+   * {@link org.eclipse.xtext.resource.SynchronizedXtextResourceSet SynchronizedXtextResourceSet}.
+   * 
+   * @since 2.14
+   */
+  public <S extends Object, T extends Object> Iterable<T> executeClustered(final Iterable<URI> uris, final ExecutorService executor, final Function1<? super Resource, ? extends S> concurrentOperation, final Function2<? super Resource, ? super S, ? extends T> sequentialOperation) {
+    final Function1<List<Resource>, Iterable<T>> _function = (List<Resource> resources) -> {
+      try {
+        final Consumer<Resource> _function_1 = (Resource it) -> {
+          it.getContents();
+        };
+        resources.forEach(_function_1);
+        final Function1<Resource, Future<S>> _function_2 = (Resource resource) -> {
+          final Callable<S> _function_3 = () -> {
+            return concurrentOperation.apply(resource);
+          };
+          return executor.<S>submit(_function_3);
+        };
+        final List<Future<S>> futures = IterableExtensions.<Future<S>>toList(ListExtensions.<Resource, Future<S>>map(resources, _function_2));
+        try {
+          final Function1<Future<S>, S> _function_3 = (Future<S> it) -> {
+            try {
+              return it.get();
+            } catch (Throwable _e) {
+              throw Exceptions.sneakyThrow(_e);
+            }
+          };
+          final List<S> intermediateResults = IterableExtensions.<S>toList(ListExtensions.<Future<S>, S>map(futures, _function_3));
+          final ArrayList<T> result = CollectionLiterals.<T>newArrayList();
+          int _size = resources.size();
+          ExclusiveRange _doubleDotLessThan = new ExclusiveRange(0, _size, true);
+          for (final Integer i : _doubleDotLessThan) {
+            T _apply = sequentialOperation.apply(resources.get((i).intValue()), intermediateResults.get((i).intValue()));
+            result.add(_apply);
+          }
+          return result;
+        } catch (final Throwable _t) {
+          if (_t instanceof ExecutionException) {
+            final ExecutionException e = (ExecutionException)_t;
+            throw e.getCause();
+          } else {
+            throw Exceptions.sneakyThrow(_t);
+          }
+        } finally {
+          final Consumer<Future<S>> _function_4 = (Future<S> it) -> {
+            it.cancel(false);
+          };
+          futures.forEach(_function_4);
+        }
+      } catch (Throwable _e) {
+        throw Exceptions.sneakyThrow(_e);
+      }
+    };
+    return this.<T>doExecuteClustered(uris, _function);
+  }
+  
+  protected <T extends Object> Iterable<T> doExecuteClustered(final Iterable<URI> uris, final Function1<? super List<Resource>, ? extends Iterable<T>> clusterOperation) {
     ArrayList<T> _xblockexpression = null;
     {
       final ArrayList<URI> loadedURIs = CollectionLiterals.<URI>newArrayList();
@@ -47,11 +130,8 @@ public class ClusteringStorageAwareResourceLoader {
           boolean _continueProcessing = this.context.getClusteringPolicy().continueProcessing(this.context.getResourceSet(), uri, loadedURIs.size());
           boolean _not = (!_continueProcessing);
           if (_not) {
-            final Function1<Resource, T> _function = (Resource it) -> {
-              return operation.apply(it);
-            };
-            List<T> _map = ListExtensions.<Resource, T>map(resources, _function);
-            Iterables.<T>addAll(result, _map);
+            Iterable<T> _apply = clusterOperation.apply(resources);
+            Iterables.<T>addAll(result, _apply);
             resources.clear();
             this.clearResourceSet();
             loadedURIs.clear();
@@ -73,11 +153,8 @@ public class ClusteringStorageAwareResourceLoader {
           resources.add(_resource);
         }
       }
-      final Function1<Resource, T> _function = (Resource it) -> {
-        return operation.apply(it);
-      };
-      List<T> _map = ListExtensions.<Resource, T>map(resources, _function);
-      Iterables.<T>addAll(result, _map);
+      Iterable<T> _apply = clusterOperation.apply(resources);
+      Iterables.<T>addAll(result, _apply);
       _xblockexpression = result;
     }
     return _xblockexpression;
@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.build;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import java.io.Externalizable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor;
+import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+import org.eclipse.xtext.xbase.lib.Exceptions;
+import org.eclipse.xtext.xbase.lib.ExclusiveRange;
+
+/**
+ * Records a hash of the content of each source as of the last build. Sources whose content did not change since
+ * then can be skipped by the {@link IncrementalBuilder}.
+ * 
+ * @see BuildRequest#isSkipUnchangedSources()
+ * @since 2.14
+ */
+@FinalFieldsConstructor
+@SuppressWarnings("all")
+public class ContentHashes implements Externalizable {
+  private final static HashFunction HASH_FUNCTION = Hashing.farmHashFingerprint64();
+  
+  private final Map<URI, Long> source2hash;
+  
+  public ContentHashes() {
+    this(CollectionLiterals.<URI, Long>newHashMap());
+  }
+  
+  public ContentHashes copy() {
+    HashMap<URI, Long> _hashMap = new HashMap<URI, Long>(this.source2hash);
+    return new ContentHashes(_hashMap);
+  }
+  
+  /**
+   * Returns the recorded hash or <code>null</code> if there is none.
+   */
+  public Long getHash(final URI source) {
+    return this.source2hash.get(source);
+  }
+  
+  public void setHash(final URI source, final long hash) {
+    this.source2hash.put(source, Long.valueOf(hash));
+  }
+  
+  public void removeHash(final URI source) {
+    this.source2hash.remove(source);
+  }
+  
+  /**
+   * Computes a fast, non-cryptographic 64 bit hash of the stream's content. The stream is closed afterwards.
+   */
+  public static long computeHash(final InputStream in) throws IOException {
+    try {
+      final Hasher hasher = ContentHashes.HASH_FUNCTION.newHasher();
+      final byte[] buffer = new byte[8192];
+      int count = in.read(buffer);
+      while ((count != (-1))) {
+        {
+          hasher.putBytes(buffer, 0, count);
+          count = in.read(buffer);
+        }
+      }
+      return hasher.hash().asLong();
+    } finally {
+      in.close();
+    }
+  }
+  
+  @Override
+  public void readExternal(final ObjectInput in) throws IOException, ClassNotFoundException {
+    final int numEntries = in.readInt();
+    ExclusiveRange _doubleDotLessThan = new ExclusiveRange(0, numEntries, true);
+    for (final Integer i : _doubleDotLessThan) {
+      {
+        final URI source = URI.createURI(in.readUTF());
+        this.source2hash.put(source, Long.valueOf(in.readLong()));
+      }
+    }
+  }
+  
+  @Override
+  public void writeExternal(final ObjectOutput out) throws IOException {
+    final Set<Map.Entry<URI, Long>> entries = this.source2hash.entrySet();
+    out.writeInt(entries.size());
+    final Consumer<Map.Entry<URI, Long>> _function = (Map.Entry<URI, Long> it) -> {
+      try {
+        out.writeUTF(it.getKey().toString());
+        out.writeLong((it.getValue()).longValue());
+      } catch (Throwable _e) {
+        throw Exceptions.sneakyThrow(_e);
+      }
+    };
+    entries.forEach(_function);
+  }
+  
+  public ContentHashes(final Map<URI, Long> source2hash) {
+    super();
+    this.source2hash = source2hash;
+  }
+}
@@ -11,6 +11,7 @@ import com.google.common.base.Objects;
 import com.google.common.collect.Iterables;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -26,6 +27,7 @@ import org.eclipse.xtend.lib.annotations.Data;
 import org.eclipse.xtext.EcoreUtil2;
 import org.eclipse.xtext.build.BuildContext;
 import org.eclipse.xtext.build.BuildRequest;
+import org.eclipse.xtext.build.ContentHashes;
 import org.eclipse.xtext.build.IndexState;
 import org.eclipse.xtext.build.Indexer;
 import org.eclipse.xtext.build.Source2GeneratedMapping;
@@ -42,10 +44,10 @@ import org.eclipse.xtext.generator.trace.TraceRegionSerializer;
 import org.eclipse.xtext.parser.IEncodingProvider;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
+import org.eclipse.xtext.resource.ISynchronizable;
 import org.eclipse.xtext.resource.XtextResourceSet;
 import org.eclipse.xtext.resource.clustering.DisabledClusteringPolicy;
 import org.eclipse.xtext.resource.clustering.IResourceClusteringPolicy;
-import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
 import org.eclipse.xtext.resource.persistence.IResourceStorageFacade;
 import org.eclipse.xtext.resource.persistence.SerializableResourceDescription;
 import org.eclipse.xtext.resource.persistence.StorageAwareResource;
@@ -62,6 +64,7 @@ import org.eclipse.xtext.xbase.lib.CollectionLiterals;
 import org.eclipse.xtext.xbase.lib.Exceptions;
 import org.eclipse.xtext.xbase.lib.Extension;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
+import org.eclipse.xtext.xbase.lib.Functions.Function2;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
 import org.eclipse.xtext.xbase.lib.ObjectExtensions;
 import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
@@ -140,6 +143,77 @@ public class IncrementalBuilder {
     }
   }
   
+  /**
+   * The outcome of resolving, describing and validating a resource.
+   * The issues are <code>null</code> if the resource was not validated.
+   * 
+   * @since 2.14
+   */
+  @Data
+  protected static class ResolvedResource {
+    private final IResourceDescription description;
+    
+    private final List<Issue> issues;
+    
+    public ResolvedResource(final IResourceDescription description, final List<Issue> issues) {
+      super();
+      this.description = description;
+      this.issues = issues;
+    }
+    
+    @Override
+    @Pure
+    public int hashCode() {
+      final int prime = 31;
+      int result = 1;
+      result = prime * result + ((this.description== null) ? 0 : this.description.hashCode());
+      result = prime * result + ((this.issues== null) ? 0 : this.issues.hashCode());
+      return result;
+    }
+    
+    @Override
+    @Pure
+    public boolean equals(final Object obj) {
+      if (this == obj)
+        return true;
+      if (obj == null)
+        return false;
+      if (getClass() != obj.getClass())
+        return false;
+      IncrementalBuilder.ResolvedResource other = (IncrementalBuilder.ResolvedResource) obj;
+      if (this.description == null) {
+        if (other.description != null)
+          return false;
+      } else if (!this.description.equals(other.description))
+        return false;
+      if (this.issues == null) {
+        if (other.issues != null)
+          return false;
+      } else if (!this.issues.equals(other.issues))
+        return false;
+      return true;
+    }
+    
+    @Override
+    @Pure
+    public String toString() {
+      ToStringBuilder b = new ToStringBuilder(this);
+      b.add("description", this.description);
+      b.add("issues", this.issues);
+      return b.toString();
+    }
+    
+    @Pure
+    public IResourceDescription getDescription() {
+      return this.description;
+    }
+    
+    @Pure
+    public List<Issue> getIssues() {
+      return this.issues;
+    }
+  }
+  
   @Log
   protected static class InternalStatefulIncrementalBuilder {
     @Accessors(AccessorType.PROTECTED_SETTER)
@@ -166,6 +240,7 @@ public class IncrementalBuilder {
     
     public IncrementalBuilder.Result launch() {
       final Source2GeneratedMapping newSource2GeneratedMapping = this.request.getState().getFileMappings();
+      this.updateContentHashes();
       final HashSet<URI> unloaded = CollectionLiterals.<URI>newHashSet();
       List<URI> _deletedFiles = this.request.getDeletedFiles();
       for (final URI deleted : _deletedFiles) {
@@ -176,8 +251,7 @@ public class IncrementalBuilder {
       }
       List<URI> _dirtyFiles = this.request.getDirtyFiles();
       for (final URI dirty : _dirtyFiles) {
-        boolean _add_1 = unloaded.add(dirty);
-        if (_add_1) {
+        if ((unloaded.add(dirty) && (!this.request.getReparsedFiles().contains(dirty)))) {
           this.unloadResource(dirty);
         }
       }
@@ -211,8 +285,8 @@ public class IncrementalBuilder {
       this._operationCanceledManager.checkCanceled(this.request.getCancelIndicator());
       List<IResourceDescription.Delta> _resourceDeltas = result.getResourceDeltas();
       for (final IResourceDescription.Delta delta : _resourceDeltas) {
-        boolean _add_2 = unloaded.add(delta.getUri());
-        if (_add_2) {
+        boolean _add_1 = unloaded.add(delta.getUri());
+        if (_add_1) {
           this.unloadResource(delta.getUri());
         }
       }
@@ -230,41 +304,198 @@ public class IncrementalBuilder {
       final Function1<IResourceDescription.Delta, URI> _function_3 = (IResourceDescription.Delta it) -> {
         return it.getUri();
       };
-      final Function1<Resource, IResourceDescription.Delta> _function_4 = (Resource resource) -> {
-        this._operationCanceledManager.checkCanceled(this.request.getCancelIndicator());
-        resource.getContents();
-        EcoreUtil2.resolveLazyCrossReferences(resource, CancelIndicator.NullImpl);
-        this._operationCanceledManager.checkCanceled(this.request.getCancelIndicator());
-        final IResourceServiceProvider serviceProvider = this.context.getResourceServiceProvider(resource.getURI());
-        final IResourceDescription.Manager manager = serviceProvider.getResourceDescriptionManager();
-        final IResourceDescription description = manager.getResourceDescription(resource);
-        final SerializableResourceDescription copiedDescription = SerializableResourceDescription.createCopy(description);
-        result.getNewIndex().addDescription(resource.getURI(), copiedDescription);
-        this._operationCanceledManager.checkCanceled(this.request.getCancelIndicator());
-        if ((((!this.request.isIndexOnly()) && this.validate(resource)) && serviceProvider.<IShouldGenerate>get(IShouldGenerate.class).shouldGenerate(resource, CancelIndicator.NullImpl))) {
-          this._operationCanceledManager.checkCanceled(this.request.getCancelIndicator());
-          this.generate(resource, this.request, newSource2GeneratedMapping);
-        }
-        final IResourceDescription old = this.context.getOldState().getResourceDescriptions().getResourceDescription(resource.getURI());
-        return manager.createDelta(old, copiedDescription);
-      };
-      Iterable<IResourceDescription.Delta> _executeClustered = this.context.<IResourceDescription.Delta>executeClustered(IterableExtensions.<IResourceDescription.Delta, URI>map(IterableExtensions.<IResourceDescription.Delta>filter(result.getResourceDeltas(), _function_2), _function_3), _function_4);
-      Iterables.<IResourceDescription.Delta>addAll(resolvedDeltas, _executeClustered);
+      final Iterable<URI> changedURIs = this.context.getClusteringPolicy().orderByLocality(
+        IterableExtensions.<URI>toList(IterableExtensions.<IResourceDescription.Delta, URI>map(IterableExtensions.<IResourceDescription.Delta>filter(result.getResourceDeltas(), _function_2), _function_3)), this.context.getOldState().getResourceDescriptions());
+      boolean _isConcurrentBuild = this.isConcurrentBuild();
+      if (_isConcurrentBuild) {
+        final Function1<Resource, IncrementalBuilder.ResolvedResource> _function_4 = (Resource resource) -> {
+          return this.resolveAndValidate(resource);
+        };
+        final Function2<Resource, IncrementalBuilder.ResolvedResource, IResourceDescription.Delta> _function_5 = (Resource resource, IncrementalBuilder.ResolvedResource resolved) -> {
+          return this.indexAndGenerate(resource, resolved);
+        };
+        Iterable<IResourceDescription.Delta> _executeClustered = this.context.<IncrementalBuilder.ResolvedResource, IResourceDescription.Delta>executeClustered(changedURIs, this.request.getExecutorService(), _function_4, _function_5);
+        Iterables.<IResourceDescription.Delta>addAll(resolvedDeltas, _executeClustered);
+      } else {
+        final Function1<Resource, IResourceDescription.Delta> _function_6 = (Resource resource) -> {
+          return this.indexAndGenerate(resource, this.resolveAndValidate(resource));
+        };
+        Iterable<IResourceDescription.Delta> _executeClustered_1 = this.context.<IResourceDescription.Delta>executeClustered(changedURIs, _function_6);
+        Iterables.<IResourceDescription.Delta>addAll(resolvedDeltas, _executeClustered_1);
+      }
       IndexState _state = this.request.getState();
       return new IncrementalBuilder.Result(_state, resolvedDeltas);
     }
     
+    /**
+     * Records the content hashes of the dirty files. If {@link BuildRequest#isSkipUnchangedSources() requested},
+     * the dirty files whose content did not change since the last build are removed from the request. The files
+     * are only read if the hashes are {@link BuildRequest#isRecordContentHashes() recorded} or unchanged sources
+     * are skipped.
+     * 
+     * @since 2.14
+     */
+    protected void updateContentHashes() {
+      final ContentHashes contentHashes = this.request.getState().getContentHashes();
+      final Consumer<URI> _function = (URI it) -> {
+        contentHashes.removeHash(it);
+      };
+      this.request.getDeletedFiles().forEach(_function);
+      if (((!this.request.isSkipUnchangedSources()) && (!this.request.isRecordContentHashes()))) {
+        final Consumer<URI> _function_1 = (URI it) -> {
+          contentHashes.removeHash(it);
+        };
+        this.request.getDirtyFiles().forEach(_function_1);
+        return;
+      }
+      final ArrayList<URI> changed = CollectionLiterals.<URI>newArrayList();
+      List<URI> _dirtyFiles = this.request.getDirtyFiles();
+      for (final URI dirty : _dirtyFiles) {
+        {
+          this._operationCanceledManager.checkCanceled(this.request.getCancelIndicator());
+          final Long newHash = this.computeContentHash(dirty);
+          if ((newHash == null)) {
+            contentHashes.removeHash(dirty);
+            changed.add(dirty);
+          } else {
+            contentHashes.setHash(dirty, (newHash).longValue());
+            if ((((!this.request.isSkipUnchangedSources()) || (!Objects.equal(newHash, this.context.getOldState().getContentHashes().getHash(dirty)))) || (this.context.getOldState().getResourceDescriptions().getResourceDescription(dirty) == null))) {
+              changed.add(dirty);
+            }
+          }
+        }
+      }
+      int _size = changed.size();
+      int _size_1 = this.request.getDirtyFiles().size();
+      boolean _notEquals = (_size != _size_1);
+      if (_notEquals) {
+        boolean _isInfoEnabled = IncrementalBuilder.InternalStatefulIncrementalBuilder.LOG.isInfoEnabled();
+        if (_isInfoEnabled) {
+          int _size_2 = this.request.getDirtyFiles().size();
+          int _size_3 = changed.size();
+          int _minus = (_size_2 - _size_3);
+          String _plus = ("Skipping " + Integer.valueOf(_minus));
+          String _plus_1 = (_plus + " unchanged resource(s)");
+          IncrementalBuilder.InternalStatefulIncrementalBuilder.LOG.info(_plus_1);
+        }
+        this.request.setDirtyFiles(changed);
+      }
+    }
+    
+    /**
+     * Returns the hash of the source's current content or <code>null</code> if it cannot be read.
+     * 
+     * @since 2.14
+     */
+    protected Long computeContentHash(final URI source) {
+      try {
+        return Long.valueOf(ContentHashes.computeHash(this.request.getResourceSet().getURIConverter().createInputStream(source)));
+      } catch (final Throwable _t) {
+        if (_t instanceof IOException) {
+          final IOException e = (IOException)_t;
+          return null;
+        } else {
+          throw Exceptions.sneakyThrow(_t);
+        }
+      }
+    }
+    
+    /**
+     * Resources are only processed concurrently if the request provides an executor and the resource set
+     * can be accessed from multiple threads.
+     * 
+     * @since 2.14
+     */
+    protected boolean isConcurrentBuild() {
+      return ((this.request.getExecutorService() != null) && (this.request.getResourceSet() instanceof ISynchronizable<?>));
+    }
+    
+    /**
+     * Resolves, describes and validates the given resource. In a {@link #isConcurrentBuild() concurrent build}, it is
+     * called concurrently for all resources of a cluster, so it must not modify any shared state of the build.
+     * 
+     * @since 2.14
+     */
+    protected IncrementalBuilder.ResolvedResource resolveAndValidate(final Resource resource) {
+      this._operationCanceledManager.checkCanceled(this.request.getCancelIndicator());
+      resource.getContents();
+      EcoreUtil2.resolveLazyCrossReferences(resource, CancelIndicator.NullImpl);
+      this._operationCanceledManager.checkCanceled(this.request.getCancelIndicator());
+      final IResourceDescription.Manager manager = this.context.getResourceServiceProvider(resource.getURI()).getResourceDescriptionManager();
+      final IResourceDescription description = manager.getResourceDescription(resource);
+      final SerializableResourceDescription copiedDescription = SerializableResourceDescription.createCopy(description);
+      boolean _isIndexOnly = this.request.isIndexOnly();
+      if (_isIndexOnly) {
+        return new IncrementalBuilder.ResolvedResource(copiedDescription, null);
+      }
+      this._operationCanceledManager.checkCanceled(this.request.getCancelIndicator());
+      List<Issue> _computeIssues = this.computeIssues(resource);
+      return new IncrementalBuilder.ResolvedResource(copiedDescription, _computeIssues);
+    }
+    
+    /**
+     * Adds the description of the resolved resource to the index, reports its issues and generates it. Always called
+     * on the thread of the build, in the order of the resources.
+     * 
+     * @since 2.14
+     */
+    protected IResourceDescription.Delta indexAndGenerate(final Resource resource, final IncrementalBuilder.ResolvedResource resolved) {
+      this._operationCanceledManager.checkCanceled(this.request.getCancelIndicator());
+      this.request.getState().getResourceDescriptions().addDescription(resource.getURI(), resolved.description);
+      this._operationCanceledManager.checkCanceled(this.request.getCancelIndicator());
+      if ((((!this.request.isIndexOnly()) && ((resolved.issues == null) || this.reportIssues(resource, resolved.issues))) && this.shouldGenerate(resource))) {
+        this._operationCanceledManager.checkCanceled(this.request.getCancelIndicator());
+        this.generate(resource, this.request, this.request.getState().getFileMappings());
+      }
+      final IResourceDescription.Manager manager = this.context.getResourceServiceProvider(resource.getURI()).getResourceDescriptionManager();
+      final IResourceDescription old = this.context.getOldState().getResourceDescriptions().getResourceDescription(resource.getURI());
+      return manager.createDelta(old, resolved.description);
+    }
+    
+    /**
+     * @since 2.14
+     */
+    protected boolean shouldGenerate(final Resource resource) {
+      final IResourceServiceProvider serviceProvider = this.context.getResourceServiceProvider(resource.getURI());
+      return serviceProvider.<IShouldGenerate>get(IShouldGenerate.class).shouldGenerate(resource, CancelIndicator.NullImpl);
+    }
+    
+    /**
+     * @deprecated the builder validates resources by means of {@link #computeIssues(Resource)} and
+     *             {@link #reportIssues(Resource, List)}, which are also used by concurrent builds.
+     */
+    @Deprecated
     protected boolean validate(final Resource resource) {
+      final List<Issue> issues = this.computeIssues(resource);
+      return ((issues == null) || this.reportIssues(resource, issues));
+    }
+    
+    /**
+     * Returns the issues of the given resource or <code>null</code> if the language does not validate its resources.
+     * In a {@link #isConcurrentBuild() concurrent build}, it is called concurrently for all resources of a cluster.
+     * 
+     * @since 2.14
+     */
+    protected List<Issue> computeIssues(final Resource resource) {
       final IResourceValidator resourceValidator = this.context.getResourceServiceProvider(resource.getURI()).getResourceValidator();
       if ((resourceValidator == null)) {
-        return true;
+        return null;
       }
       String _lastSegment = resource.getURI().lastSegment();
       String _plus = ("Starting validation for input: \'" + _lastSegment);
       String _plus_1 = (_plus + "\'");
       IncrementalBuilder.InternalStatefulIncrementalBuilder.LOG.info(_plus_1);
-      final List<Issue> validationResult = resourceValidator.validate(resource, CheckMode.ALL, null);
-      return this.request.getAfterValidate().afterValidate(resource.getURI(), validationResult);
+      return resourceValidator.validate(resource, CheckMode.ALL, null);
+    }
+    
+    /**
+     * Passes the issues of the given resource to the {@link BuildRequest#getAfterValidate() callback} of the request.
+     * Returns <code>false</code> if the resource should not be generated.
+     * 
+     * @since 2.14
+     */
+    protected boolean reportIssues(final Resource resource, final List<Issue> issues) {
+      return this.request.getAfterValidate().afterValidate(resource.getURI(), issues);
     }
     
     protected void generate(final Resource resource, final BuildRequest request, final Source2GeneratedMapping newMappings) {
@@ -387,9 +618,7 @@ public class IncrementalBuilder {
   public IncrementalBuilder.Result build(final BuildRequest request, final Function1<? super URI, ? extends IResourceServiceProvider> languages, final IResourceClusteringPolicy clusteringPolicy) {
     try {
       final XtextResourceSet resourceSet = request.getResourceSet();
-      ResourceDescriptionsData _copy = request.getState().getResourceDescriptions().copy();
-      Source2GeneratedMapping _copy_1 = request.getState().getFileMappings().copy();
-      final IndexState oldState = new IndexState(_copy, _copy_1);
+      final IndexState oldState = request.getState().copy();
       CancelIndicator _cancelIndicator = request.getCancelIndicator();
       final BuildContext context = new BuildContext(languages, resourceSet, oldState, clusteringPolicy, _cancelIndicator);
       final IncrementalBuilder.InternalStatefulIncrementalBuilder builder = this.provider.get();
@@ -9,6 +9,7 @@ package org.eclipse.xtext.build;
 
 import org.eclipse.xtend.lib.annotations.Accessors;
 import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor;
+import org.eclipse.xtext.build.ContentHashes;
 import org.eclipse.xtext.build.Source2GeneratedMapping;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
@@ -26,14 +27,40 @@ public class IndexState {
   
   private final Source2GeneratedMapping fileMappings;
   
+  /**
+   * @since 2.14
+   */
+  private final ContentHashes contentHashes;
+  
+  /**
+   * Creates an empty index state. Clients that copy the state for each build may pass a
+   * {@link org.eclipse.xtext.resource.impl.CopyOnWriteResourceDescriptionsData CopyOnWriteResourceDescriptionsData}
+   * to {@link #IndexState(ResourceDescriptionsData, Source2GeneratedMapping)} instead, which is copied in constant
+   * time.
+   */
   public IndexState() {
     this(new ResourceDescriptionsData(CollectionLiterals.<IResourceDescription>emptySet()), new Source2GeneratedMapping());
   }
   
   public IndexState(final ResourceDescriptionsData resourceDescriptions, final Source2GeneratedMapping fileMappings) {
+    this(resourceDescriptions, fileMappings, new ContentHashes());
+  }
+  
+  /**
+   * @since 2.14
+   */
+  public IndexState copy() {
+    ResourceDescriptionsData _copy = this.resourceDescriptions.copy();
+    Source2GeneratedMapping _copy_1 = this.fileMappings.copy();
+    ContentHashes _copy_2 = this.contentHashes.copy();
+    return new IndexState(_copy, _copy_1, _copy_2);
+  }
+  
+  public IndexState(final ResourceDescriptionsData resourceDescriptions, final Source2GeneratedMapping fileMappings, final ContentHashes contentHashes) {
     super();
     this.resourceDescriptions = resourceDescriptions;
     this.fileMappings = fileMappings;
+    this.contentHashes = contentHashes;
   }
   
   @Pure
@@ -45,4 +72,9 @@ public class IndexState {
   public Source2GeneratedMapping getFileMappings() {
     return this.fileMappings;
   }
+  
+  @Pure
+  public ContentHashes getContentHashes() {
+    return this.contentHashes;
+  }
 }
@@ -8,14 +8,25 @@
 package org.eclipse.xtext.build;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.math.IntMath;
 import com.google.inject.Inject;
+import com.google.inject.Provider;
+import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.function.Consumer;
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.URI;
@@ -37,17 +48,26 @@ import org.eclipse.xtext.resource.IReferenceDescription;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.IResourceDescriptions;
 import org.eclipse.xtext.resource.IResourceServiceProvider;
+import org.eclipse.xtext.resource.IResourceServiceProviderExtension;
+import org.eclipse.xtext.resource.XtextResource;
+import org.eclipse.xtext.resource.XtextResourceSet;
 import org.eclipse.xtext.resource.impl.AbstractResourceDescription;
+import org.eclipse.xtext.resource.impl.ChunkedResourceDescriptions;
 import org.eclipse.xtext.resource.impl.DefaultResourceDescriptionDelta;
+import org.eclipse.xtext.resource.impl.ProjectDescription;
 import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
 import org.eclipse.xtext.resource.persistence.SerializableEObjectDescriptionProvider;
+import org.eclipse.xtext.resource.persistence.SourceLevelURIsAdapter;
 import org.eclipse.xtext.service.OperationCanceledManager;
 import org.eclipse.xtext.util.internal.Log;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+import org.eclipse.xtext.xbase.lib.Exceptions;
 import org.eclipse.xtext.xbase.lib.Extension;
 import org.eclipse.xtext.xbase.lib.Functions.Function1;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
 import org.eclipse.xtext.xbase.lib.ListExtensions;
+import org.eclipse.xtext.xbase.lib.ObjectExtensions;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
 import org.eclipse.xtext.xbase.lib.Pure;
 import org.eclipse.xtext.xbase.lib.util.ToStringBuilder;
 
@@ -195,6 +215,9 @@ public class Indexer {
   @Inject
   private CompilerPhases compilerPhases;
   
+  @Inject
+  private Provider<XtextResourceSet> resourceSetProvider;
+  
   @Inject
   @Extension
   private OperationCanceledManager _operationCanceledManager;
@@ -214,7 +237,7 @@ public class Indexer {
       Indexer.LOG.info(_plus_3);
     }
     deltas.addAll(this.getDeltasForDeletedResources(request, previousIndex, context));
-    deltas.addAll(this.getDeltasForChangedResources(request.getDirtyFiles(), previousIndex, context));
+    deltas.addAll(this.getDeltasForChangedResources(request, request.getDirtyFiles(), previousIndex, context));
     for (final IResourceDescription.Delta delta : deltas) {
       newIndex.register(delta);
     }
@@ -232,20 +255,14 @@ public class Indexer {
       return it.getUri();
     };
     remainingURIs.removeAll(ListExtensions.<IResourceDescription.Delta, URI>map(deltas, _function_1));
-    final Function1<URI, Boolean> _function_2 = (URI it) -> {
-      final IResourceDescription.Manager manager = context.getResourceServiceProvider(it).getResourceDescriptionManager();
-      final IResourceDescription resourceDescription = previousIndex.getResourceDescription(it);
-      final boolean isAffected = this.isAffected(resourceDescription, manager, allDeltas, allDeltas, newIndex);
-      return Boolean.valueOf(isAffected);
-    };
-    final List<URI> allAffected = IterableExtensions.<URI>toList(IterableExtensions.<URI>filter(remainingURIs, _function_2));
+    final List<URI> allAffected = this.getAllAffected(request, remainingURIs, allDeltas, previousIndex, newIndex, context);
     if ((Indexer.LOG.isInfoEnabled() && (!allAffected.isEmpty()))) {
       Set<URI> _set_2 = IterableExtensions.<URI>toSet(allAffected);
       String _plus_4 = ("Creating Deltas for affected resources : " + _set_2);
       String _plus_5 = (_plus_4 + ".");
       Indexer.LOG.info(_plus_5);
     }
-    deltas.addAll(this.getDeltasForChangedResources(allAffected, previousIndex, context));
+    deltas.addAll(this.getDeltasForChangedResources(request, allAffected, previousIndex, context));
     return new Indexer.IndexResult(deltas, newIndex);
   }
   
@@ -271,6 +288,54 @@ public class Indexer {
     return deltas;
   }
   
+  /**
+   * Returns the URIs of all resources in the previous index that are affected by the given deltas.
+   * The candidates are checked concurrently if the request provides an executor.
+   * 
+   * @since 2.14
+   */
+  protected List<URI> getAllAffected(final BuildRequest request, final Iterable<URI> candidates, final Collection<IResourceDescription.Delta> allDeltas, final ResourceDescriptionsData previousIndex, final ResourceDescriptionsData newIndex, @Extension final BuildContext context) {
+    final Function1<List<URI>, List<URI>> _function = (List<URI> uris) -> {
+      final Function1<URI, Boolean> _function_1 = (URI it) -> {
+        this._operationCanceledManager.checkCanceled(context.getCancelIndicator());
+        final IResourceDescription.Manager manager = context.getResourceServiceProvider(it).getResourceDescriptionManager();
+        final IResourceDescription resourceDescription = previousIndex.getResourceDescription(it);
+        final boolean isAffected = this.isAffected(resourceDescription, manager, allDeltas, allDeltas, newIndex);
+        return Boolean.valueOf(isAffected);
+      };
+      return IterableExtensions.<URI>toList(IterableExtensions.<URI>filter(uris, _function_1));
+    };
+    final Function1<? super List<URI>, ? extends List<URI>> filterAffected = _function;
+    ExecutorService _executorService = request.getExecutorService();
+    boolean _tripleEquals = (_executorService == null);
+    if (_tripleEquals) {
+      return filterAffected.apply(IterableExtensions.<URI>toList(candidates));
+    }
+    return this.<URI, URI>executeSharded(request, IterableExtensions.<URI>toList(candidates), filterAffected);
+  }
+  
+  /**
+   * Computes the deltas for the given changed resources. If the request provides an executor, the resource
+   * descriptions are computed concurrently in worker resource sets.
+   * 
+   * @since 2.14
+   */
+  protected List<IResourceDescription.Delta> getDeltasForChangedResources(final BuildRequest request, final Iterable<URI> affectedUris, final ResourceDescriptionsData oldIndex, @Extension final BuildContext context) {
+    ExecutorService _executorService = request.getExecutorService();
+    boolean _tripleEquals = (_executorService == null);
+    if (_tripleEquals) {
+      return this.getDeltasForChangedResources(affectedUris, oldIndex, context);
+    }
+    final Function1<URI, Boolean> _function = (URI it) -> {
+      return Boolean.valueOf(context.canHandle(it));
+    };
+    final List<URI> uris = IterableExtensions.<URI>toList(IterableExtensions.<URI>filter(affectedUris, _function));
+    final Function1<List<URI>, List<IResourceDescription.Delta>> _function_1 = (List<URI> shard) -> {
+      return this.getDeltasForChangedResourcesInWorker(request, shard, oldIndex, context);
+    };
+    return this.<URI, IResourceDescription.Delta>executeSharded(request, uris, _function_1);
+  }
+  
   protected List<IResourceDescription.Delta> getDeltasForChangedResources(final Iterable<URI> affectedUris, final ResourceDescriptionsData oldIndex, @Extension final BuildContext context) {
     try {
       this.compilerPhases.setIndexing(context.getResourceSet(), true);
@@ -283,6 +348,151 @@ public class Indexer {
     }
   }
   
+  /**
+   * Computes the deltas for a shard of the changed resources in a dedicated resource set. Each resource is
+   * unloaded as soon as its description is computed.
+   * 
+   * @since 2.14
+   */
+  protected List<IResourceDescription.Delta> getDeltasForChangedResourcesInWorker(final BuildRequest request, final List<URI> uris, final ResourceDescriptionsData oldIndex, final BuildContext context) {
+    final XtextResourceSet workerResourceSet = this.createWorkerResourceSet(request, context);
+    this.compilerPhases.setIndexing(workerResourceSet, true);
+    final Function1<URI, Boolean> _function = (URI it) -> {
+      boolean _xblockexpression = false;
+      {
+        final IResourceServiceProvider provider = context.getResourceServiceProvider(it);
+        _xblockexpression = ((provider instanceof IResourceServiceProviderExtension) && 
+          ((IResourceServiceProviderExtension) provider).isSource(it));
+      }
+      return Boolean.valueOf(_xblockexpression);
+    };
+    SourceLevelURIsAdapter.setSourceLevelUris(workerResourceSet, IterableExtensions.<URI>toList(IterableExtensions.<URI>filter(uris, _function)));
+    final Function1<URI, IResourceDescription.Delta> _function_1 = (URI it) -> {
+      final Resource resource = workerResourceSet.getResource(it, true);
+      try {
+        return this.addToIndex(resource, true, oldIndex, context);
+      } finally {
+        workerResourceSet.getResources().remove(resource);
+        resource.unload();
+      }
+    };
+    return IterableExtensions.<IResourceDescription.Delta>toList(ListExtensions.<URI, IResourceDescription.Delta>map(uris, _function_1));
+  }
+  
+  /**
+   * Creates a resource set that is used to load resources on a worker thread. It shares the URI converter,
+   * the registries, the load options and the index with the resource set of the build. As the resources are
+   * only loaded to compute their exported objects and are never passed on, only their semantic model is parsed if
+   * the request {@link BuildRequest#isIndexWithoutNodeModel() allows it}.
+   * 
+   * @since 2.14
+   * @see XtextResource#OPTION_INDEX_ONLY
+   */
+  protected XtextResourceSet createWorkerResourceSet(final BuildRequest request, final BuildContext context) {
+    final XtextResourceSet original = context.getResourceSet();
+    XtextResourceSet _get = this.resourceSetProvider.get();
+    final Procedure1<XtextResourceSet> _function = (XtextResourceSet it) -> {
+      it.setURIConverter(original.getURIConverter());
+      it.setResourceFactoryRegistry(original.getResourceFactoryRegistry());
+      it.setPackageRegistry(original.getPackageRegistry());
+      it.setClasspathURIContext(original.getClasspathURIContext());
+      it.getLoadOptions().putAll(original.getLoadOptions());
+      boolean _isIndexWithoutNodeModel = request.isIndexWithoutNodeModel();
+      if (_isIndexWithoutNodeModel) {
+        it.getLoadOptions().put(XtextResource.OPTION_INDEX_ONLY, Boolean.valueOf(true));
+      }
+      ProjectDescription _findInEmfObject = ProjectDescription.findInEmfObject(original);
+      if (_findInEmfObject!=null) {
+        _findInEmfObject.attachToEmfObject(it);
+      }
+      ChunkedResourceDescriptions _findInEmfObject_1 = ChunkedResourceDescriptions.findInEmfObject(original);
+      if (_findInEmfObject_1!=null) {
+        _findInEmfObject_1.createShallowCopyWith(it);
+      }
+    };
+    return ObjectExtensions.<XtextResourceSet>operator_doubleArrow(_get, _function);
+  }
+  
+  /**
+   * Splits the given elements into one contiguous shard per {@link #getParallelism(BuildRequest) parallel task},
+   * applies the operation to each shard using the executor of the request and concatenates the results in the
+   * order of the shards.
+   */
+  private <T extends Object, R extends Object> List<R> executeSharded(final BuildRequest request, final List<T> elements, final Function1<? super List<T>, ? extends List<R>> operation) {
+    try {
+      boolean _isEmpty = elements.isEmpty();
+      if (_isEmpty) {
+        return CollectionLiterals.<R>newArrayList();
+      }
+      final int shardSize = IntMath.divide(elements.size(), this.getParallelism(request), RoundingMode.CEILING);
+      final Function1<List<T>, Future<List<R>>> _function = (List<T> shard) -> {
+        final Callable<List<R>> _function_1 = () -> {
+          return operation.apply(shard);
+        };
+        return request.getExecutorService().<List<R>>submit(_function_1);
+      };
+      final List<Future<List<R>>> futures = IterableExtensions.<Future<List<R>>>toList(ListExtensions.<List<T>, Future<List<R>>>map(Lists.<T>partition(elements, shardSize), _function));
+      try {
+        final ArrayList<R> result = CollectionLiterals.<R>newArrayList();
+        for (final Future<List<R>> future : futures) {
+          List<R> _get = future.get();
+          Iterables.<R>addAll(result, _get);
+        }
+        return result;
+      } catch (final Throwable _t) {
+        if (_t instanceof ExecutionException) {
+          final ExecutionException e = (ExecutionException)_t;
+          throw e.getCause();
+        } else {
+          throw Exceptions.sneakyThrow(_t);
+        }
+      } finally {
+        final Consumer<Future<List<R>>> _function_1 = (Future<List<R>> it) -> {
+          it.cancel(false);
+        };
+        futures.forEach(_function_1);
+      }
+    } catch (Throwable _e) {
+      throw Exceptions.sneakyThrow(_e);
+    }
+  }
+  
+  /**
+   * Returns the number of tasks that are run concurrently on the executor of the request.
+   * 
+   * @see BuildRequest#getParallelism()
+   * @since 2.14
+   */
+  protected int getParallelism(final BuildRequest request) {
+    int _parallelism = request.getParallelism();
+    boolean _greaterThan = (_parallelism > 0);
+    if (_greaterThan) {
+      return request.getParallelism();
+    }
+    int _switchResult = (int) 0;
+    ExecutorService _executorService = request.getExecutorService();
+    final ExecutorService executor = _executorService;
+    boolean _matched = false;
+    if (executor instanceof ThreadPoolExecutor) {
+      int _maximumPoolSize = ((ThreadPoolExecutor)executor).getMaximumPoolSize();
+      boolean _lessThan = (_maximumPoolSize < Integer.MAX_VALUE);
+      if (_lessThan) {
+        _matched=true;
+        _switchResult = ((ThreadPoolExecutor)executor).getMaximumPoolSize();
+      }
+    }
+    if (!_matched) {
+      if (executor instanceof ForkJoinPool) {
+        _matched=true;
+        _switchResult = ((ForkJoinPool)executor).getParallelism();
+      }
+    }
+    if (!_matched) {
+      _switchResult = Runtime.getRuntime().availableProcessors();
+    }
+    return _switchResult;
+  }
+  
   protected IResourceDescription.Delta addToIndex(final Resource resource, final boolean isPreIndexing, final ResourceDescriptionsData oldIndex, final BuildContext context) {
     this._operationCanceledManager.checkCanceled(context.getCancelIndicator());
     final URI uri = resource.getURI();
@@ -0,0 +1,130 @@
+/**
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.resource.impl;
+
+import com.google.common.annotations.Beta;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.emf.ecore.resource.ResourceSet;
+import org.eclipse.xtext.resource.impl.ChunkedResourceDescriptions;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+import org.eclipse.xtext.xbase.lib.Functions.Function1;
+import org.eclipse.xtext.xbase.lib.IterableExtensions;
+
+/**
+ * An immutable, versioned view on the chunks of a {@link ChunkedResourceDescriptions}. Deriving a new snapshot only
+ * replaces the references to the changed chunks, all other chunks are shared with the previous snapshot. Readers can
+ * thus obtain a consistent view on the index without locking and without copying any resource descriptions.
+ * 
+ * The {@link ResourceDescriptionsData} of a published snapshot must not be modified afterwards. Builders are expected
+ * to modify a {@link ResourceDescriptionsData#copy() copy} and publish that copy once they are done, which is cheap for
+ * a {@link CopyOnWriteResourceDescriptionsData}.
+ * 
+ * @since 2.14
+ */
+@Beta
+@SuppressWarnings("all")
+public class ResourceDescriptionsSnapshot {
+  private final long version;
+  
+  private final Map<String, ResourceDescriptionsData> chunks;
+  
+  public ResourceDescriptionsSnapshot() {
+    this(0, Collections.<String, ResourceDescriptionsData>emptyMap());
+  }
+  
+  protected ResourceDescriptionsSnapshot(final long version, final Map<String, ResourceDescriptionsData> chunks) {
+    this.version = version;
+    this.chunks = chunks;
+  }
+  
+  /**
+   * The version is incremented with every snapshot that is derived with different chunks.
+   */
+  public long getVersion() {
+    return this.version;
+  }
+  
+  public ResourceDescriptionsData getContainer(final String containerHandle) {
+    return this.chunks.get(containerHandle);
+  }
+  
+  public Set<String> getContainerHandles() {
+    return this.chunks.keySet();
+  }
+  
+  /**
+   * Returns a snapshot where the chunk with the given handle is replaced by the given data, or this snapshot if the
+   * chunk is already present.
+   */
+  public ResourceDescriptionsSnapshot withContainer(final String containerHandle, final ResourceDescriptionsData descriptions) {
+    return this.withContainers(Collections.<String, ResourceDescriptionsData>singletonMap(containerHandle, descriptions));
+  }
+  
+  /**
+   * Returns a snapshot with the given chunks replaced or added, or this snapshot if nothing changed.
+   */
+  public ResourceDescriptionsSnapshot withContainers(final Map<String, ? extends ResourceDescriptionsData> changed) {
+    final Function1<Map.Entry<String, ? extends ResourceDescriptionsData>, Boolean> _function = (Map.Entry<String, ? extends ResourceDescriptionsData> it) -> {
+      ResourceDescriptionsData _get = this.chunks.get(it.getKey());
+      ResourceDescriptionsData _value = it.getValue();
+      return Boolean.valueOf((_get == _value));
+    };
+    boolean _forall = IterableExtensions.forall(changed.entrySet(), _function);
+    if (_forall) {
+      return this;
+    }
+    final HashMap<String, ResourceDescriptionsData> newChunks = new HashMap<String, ResourceDescriptionsData>(this.chunks);
+    newChunks.putAll(changed);
+    Map<String, ResourceDescriptionsData> _unmodifiableMap = Collections.<String, ResourceDescriptionsData>unmodifiableMap(newChunks);
+    return new ResourceDescriptionsSnapshot((this.version + 1), _unmodifiableMap);
+  }
+  
+  /**
+   * Returns a snapshot without the chunk with the given handle, or this snapshot if there is no such chunk.
+   */
+  public ResourceDescriptionsSnapshot withoutContainer(final String containerHandle) {
+    boolean _containsKey = this.chunks.containsKey(containerHandle);
+    boolean _not = (!_containsKey);
+    if (_not) {
+      return this;
+    }
+    final HashMap<String, ResourceDescriptionsData> newChunks = new HashMap<String, ResourceDescriptionsData>(this.chunks);
+    newChunks.remove(containerHandle);
+    Map<String, ResourceDescriptionsData> _unmodifiableMap = Collections.<String, ResourceDescriptionsData>unmodifiableMap(newChunks);
+    return new ResourceDescriptionsSnapshot((this.version + 1), _unmodifiableMap);
+  }
+  
+  /**
+   * Creates a {@link ChunkedResourceDescriptions} on the chunks of this snapshot. The chunks are not copied.
+   */
+  public ChunkedResourceDescriptions createResourceDescriptions() {
+    return new ChunkedResourceDescriptions(this.chunks);
+  }
+  
+  /**
+   * Creates a {@link ChunkedResourceDescriptions} on the chunks of this snapshot and installs it with the given
+   * ResourceSet. The chunks are not copied.
+   */
+  public ChunkedResourceDescriptions createResourceDescriptions(final ResourceSet resourceSet) {
+    return new ChunkedResourceDescriptions(this.chunks, resourceSet);
+  }
+  
+  @Override
+  public String toString() {
+    String _simpleName = this.getClass().getSimpleName();
+    String _plus = (_simpleName + "[version=");
+    String _plus_1 = (_plus + Long.valueOf(this.version));
+    String _plus_2 = (_plus_1 + ", containers=");
+    Set<String> _keySet = this.chunks.keySet();
+    String _plus_3 = (_plus_2 + _keySet);
+    return (_plus_3 + "]");
+  }
+}
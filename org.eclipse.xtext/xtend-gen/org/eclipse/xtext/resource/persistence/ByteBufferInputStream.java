@@ -0,0 +1,69 @@
+/**
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.resource.persistence;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor;
+
+/**
+ * Reads the remaining bytes of a buffer.
+ */
+@FinalFieldsConstructor
+@SuppressWarnings("all")
+class ByteBufferInputStream extends InputStream {
+  private final ByteBuffer buffer;
+  
+  @Override
+  public int read() {
+    boolean _hasRemaining = this.buffer.hasRemaining();
+    boolean _not = (!_hasRemaining);
+    if (_not) {
+      return (-1);
+    }
+    return (this.buffer.get() & 0xFF);
+  }
+  
+  @Override
+  public int read(final byte[] bytes, final int offset, final int length) {
+    if ((length == 0)) {
+      return 0;
+    }
+    boolean _hasRemaining = this.buffer.hasRemaining();
+    boolean _not = (!_hasRemaining);
+    if (_not) {
+      return (-1);
+    }
+    final int count = Math.min(length, this.buffer.remaining());
+    this.buffer.get(bytes, offset, count);
+    return count;
+  }
+  
+  @Override
+  public long skip(final long n) {
+    long _min = Math.min(n, this.buffer.remaining());
+    final int count = ((int) _min);
+    if ((count <= 0)) {
+      return 0;
+    }
+    int _position = this.buffer.position();
+    int _plus = (_position + count);
+    this.buffer.position(_plus);
+    return count;
+  }
+  
+  @Override
+  public int available() {
+    return this.buffer.remaining();
+  }
+  
+  public ByteBufferInputStream(final ByteBuffer buffer) {
+    super();
+    this.buffer = buffer;
+  }
+}
@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.resource.persistence;
+
+import com.google.common.annotations.Beta;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import org.eclipse.xtext.resource.persistence.CompactResourceStorageLoadable;
+import org.eclipse.xtext.resource.persistence.CompactResourceStorageWritable;
+import org.eclipse.xtext.resource.persistence.ResourceStorageFacade;
+import org.eclipse.xtext.resource.persistence.ResourceStorageLoadable;
+import org.eclipse.xtext.resource.persistence.ResourceStorageWritable;
+
+/**
+ * A resource storage facade that writes the compact, uncompressed storage format of
+ * {@link CompactResourceStorageWritable}. Storage that was written in the ZIP based format is still loaded.
+ * 
+ * Languages opt in by binding {@link IResourceStorageFacade} to this class.
+ * 
+ * @since 2.14
+ */
+@Beta
+@SuppressWarnings("all")
+public class CompactResourceStorageFacade extends ResourceStorageFacade {
+  @Override
+  public ResourceStorageLoadable createResourceStorageLoadable(final InputStream in) {
+    boolean _isStoreNodeModel = this.isStoreNodeModel();
+    boolean _isLoadNodeModelOnDemand = this.isLoadNodeModelOnDemand();
+    return new CompactResourceStorageLoadable(in, _isStoreNodeModel, _isLoadNodeModelOnDemand);
+  }
+  
+  /**
+   * Creates a fresh ResourceStorageLoadable that reads the given buffer, e.g. a memory mapped file.
+   */
+  public ResourceStorageLoadable createResourceStorageLoadable(final ByteBuffer buffer) {
+    boolean _isStoreNodeModel = this.isStoreNodeModel();
+    boolean _isLoadNodeModelOnDemand = this.isLoadNodeModelOnDemand();
+    return new CompactResourceStorageLoadable(buffer, _isStoreNodeModel, _isLoadNodeModelOnDemand);
+  }
+  
+  @Override
+  public ResourceStorageWritable createResourceStorageWritable(final OutputStream out) {
+    boolean _isStoreNodeModel = this.isStoreNodeModel();
+    return new CompactResourceStorageWritable(out, _isStoreNodeModel);
+  }
+}
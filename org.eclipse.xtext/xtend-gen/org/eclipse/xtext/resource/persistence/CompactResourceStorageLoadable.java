@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.resource.persistence;
+
+import com.google.common.annotations.Beta;
+import com.google.common.io.ByteStreams;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.util.zip.ZipInputStream;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+import org.eclipse.xtext.resource.persistence.ByteBufferInputStream;
+import org.eclipse.xtext.resource.persistence.CompactResourceStorageWritable;
+import org.eclipse.xtext.resource.persistence.MappedIndexFormat;
+import org.eclipse.xtext.resource.persistence.ResourceStorageLoadable;
+import org.eclipse.xtext.resource.persistence.SerializableResourceDescription;
+import org.eclipse.xtext.resource.persistence.StorageAwareResource;
+import org.eclipse.xtext.xbase.lib.Exceptions;
+import org.eclipse.xtext.xbase.lib.IterableExtensions;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure0;
+
+/**
+ * Loads the storage that was written by a {@link CompactResourceStorageWritable}. The sections are read from a
+ * {@link ByteBuffer}, e.g. a memory mapped file, without copying them. Storage in the ZIP based format of the super
+ * class is still supported.
+ * 
+ * @see CompactResourceStorageFacade
+ * @since 2.14
+ */
+@Beta
+@SuppressWarnings("all")
+public class CompactResourceStorageLoadable extends ResourceStorageLoadable {
+  private final ByteBuffer buffer;
+  
+  public CompactResourceStorageLoadable(final InputStream in, final boolean storeNodeModel, final boolean loadNodeModelOnDemand) {
+    super(in, storeNodeModel, loadNodeModelOnDemand);
+    this.buffer = null;
+  }
+  
+  public CompactResourceStorageLoadable(final ByteBuffer buffer, final boolean storeNodeModel, final boolean loadNodeModelOnDemand) {
+    super(null, storeNodeModel, loadNodeModelOnDemand);
+    this.buffer = buffer;
+  }
+  
+  @Override
+  protected void loadIntoResource(final StorageAwareResource resource) throws IOException {
+    boolean _isLoadedFromStorage = resource.isLoadedFromStorage();
+    boolean _not = (!_isLoadedFromStorage);
+    if (_not) {
+      throw new IllegalStateException("Please use StorageAwareResource#load(ResourceStorageLoadable).");
+    }
+    ByteBuffer _elvis = null;
+    if (this.buffer != null) {
+      _elvis = this.buffer;
+    } else {
+      ByteBuffer _readFully = this.readFully(this.getIn());
+      _elvis = _readFully;
+    }
+    final ByteBuffer data = _elvis.duplicate();
+    if (((data.remaining() < 9) || (data.getInt(data.position()) != CompactResourceStorageWritable.MAGIC))) {
+      ByteBufferInputStream _byteBufferInputStream = new ByteBufferInputStream(data);
+      final ZipInputStream zin = new ZipInputStream(_byteBufferInputStream);
+      try {
+        this.loadEntries(resource, zin);
+      } finally {
+        zin.close();
+      }
+      return;
+    }
+    int _position = data.position();
+    int _plus = (_position + 4);
+    final int version = data.getInt(_plus);
+    if ((version != CompactResourceStorageWritable.VERSION)) {
+      URI _uRI = resource.getURI();
+      String _plus_1 = ((("Unsupported storage version " + Integer.valueOf(version)) + " for ") + _uRI);
+      throw new IOException(_plus_1);
+    }
+    int _position_1 = data.position();
+    int _plus_2 = (_position_1 + 8);
+    byte _get = data.get(_plus_2);
+    final boolean containsNodeModel = (_get != ((byte) 0));
+    int _position_2 = data.position();
+    int _plus_3 = (_position_2 + 9);
+    data.position(_plus_3);
+    this.loadSections(resource, data, containsNodeModel);
+  }
+  
+  private ByteBuffer readFully(final InputStream in) throws IOException {
+    try {
+      return ByteBuffer.wrap(ByteStreams.toByteArray(in));
+    } finally {
+      in.close();
+    }
+  }
+  
+  /**
+   * Load the sections from the storage.
+   * Overriding methods should first delegate to super before reading their own sections.
+   */
+  protected void loadSections(final StorageAwareResource resource, final ByteBuffer data, final boolean containsNodeModel) throws IOException {
+    ByteBuffer _nextSection = this.nextSection(data);
+    ByteBufferInputStream _byteBufferInputStream = new ByteBufferInputStream(_nextSection);
+    this.readContents(resource, _byteBufferInputStream);
+    this.readResourceDescription(resource, this.nextSection(data));
+    if (containsNodeModel) {
+      final ByteBuffer nodeModel = this.nextSection(data);
+      boolean _isStoreNodeModel = this.isStoreNodeModel();
+      if (_isStoreNodeModel) {
+        boolean _isLoadNodeModelOnDemand = this.isLoadNodeModelOnDemand();
+        if (_isLoadNodeModelOnDemand) {
+          final Procedure0 _function = () -> {
+            try {
+              ByteBufferInputStream _byteBufferInputStream_1 = new ByteBufferInputStream(nodeModel);
+              this.readNodeModel(resource, _byteBufferInputStream_1);
+            } catch (Throwable _e) {
+              throw Exceptions.sneakyThrow(_e);
+            }
+          };
+          resource.deferNodeModel(_function);
+        } else {
+          ByteBufferInputStream _byteBufferInputStream_1 = new ByteBufferInputStream(nodeModel);
+          this.readNodeModel(resource, _byteBufferInputStream_1);
+        }
+      }
+    }
+  }
+  
+  /**
+   * Returns a view of the next length prefixed section and moves the position of the data behind it.
+   */
+  protected ByteBuffer nextSection(final ByteBuffer data) {
+    final int length = data.getInt();
+    final ByteBuffer section = data.slice();
+    section.limit(length);
+    int _position = data.position();
+    int _plus = (_position + length);
+    data.position(_plus);
+    return section;
+  }
+  
+  protected void readResourceDescription(final StorageAwareResource resource, final ByteBuffer section) throws IOException {
+    final ResourceDescriptionsData chunk = IterableExtensions.<ResourceDescriptionsData>head(new MappedIndexFormat().read(section).values());
+    final SerializableResourceDescription description = SerializableResourceDescription.createCopy(IterableExtensions.<IResourceDescription>head(chunk.getAllResourceDescriptions()));
+    description.updateResourceURI(resource.getURI());
+    resource.setResourceDescription(description);
+  }
+}
@@ -0,0 +1,122 @@
+/**
+ * Copyright (c) 2018 itemis AG (http://www.itemis.eu) and others.
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * which accompanies this distribution, and is available at
+ * http://www.eclipse.org/legal/epl-v10.html
+ */
+package org.eclipse.xtext.resource.persistence;
+
+import com.google.common.annotations.Beta;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collections;
+import org.eclipse.emf.common.util.URI;
+import org.eclipse.xtext.resource.IResourceDescription;
+import org.eclipse.xtext.resource.impl.ResourceDescriptionsData;
+import org.eclipse.xtext.resource.persistence.MappedIndexFormat;
+import org.eclipse.xtext.resource.persistence.ResourceStorageWritable;
+import org.eclipse.xtext.resource.persistence.SerializableResourceDescription;
+import org.eclipse.xtext.resource.persistence.StorageAwareResource;
+import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+import org.eclipse.xtext.xbase.lib.Exceptions;
+import org.eclipse.xtext.xbase.lib.Pair;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure1;
+
+/**
+ * Writes the storage of a resource in a compact binary format. In contrast to the ZIP based format of the super
+ * class, the sections are neither compressed nor written with Java serialization. Each section is prefixed with its
+ * length, so a {@link CompactResourceStorageLoadable} can read the sections from a {@link java.nio.ByteBuffer} without
+ * copying them. The resource description is written in the {@link MappedIndexFormat} which shares URIs and names in
+ * a string table.
+ * 
+ * @see CompactResourceStorageFacade
+ * @since 2.14
+ */
+@Beta
+@SuppressWarnings("all")
+public class CompactResourceStorageWritable extends ResourceStorageWritable {
+  /**
+   * The first four bytes of the storage: 'XRSB'.
+   */
+  public final static int MAGIC = 0x58525342;
+  
+  public final static int VERSION = 1;
+  
+  public CompactResourceStorageWritable(final OutputStream out, final boolean storeNodeModel) {
+    super(out, storeNodeModel);
+  }
+  
+  @Override
+  public void writeResource(final StorageAwareResource resource) throws IOException {
+    boolean _isLoadedFromStorage = resource.isLoadedFromStorage();
+    if (_isLoadedFromStorage) {
+      URI _uRI = resource.getURI();
+      String _plus = ("cannot write resources loaded from storage. URI was " + _uRI);
+      throw new IllegalStateException(_plus);
+    }
+    OutputStream _out = this.getOut();
+    BufferedOutputStream _bufferedOutputStream = new BufferedOutputStream(_out);
+    final DataOutputStream dataOut = new DataOutputStream(_bufferedOutputStream);
+    try {
+      dataOut.writeInt(CompactResourceStorageWritable.MAGIC);
+      dataOut.writeInt(CompactResourceStorageWritable.VERSION);
+      dataOut.writeBoolean(this.isStoreNodeModel());
+      this.writeSections(resource, dataOut);
+    } finally {
+      dataOut.close();
+    }
+  }
+  
+  /**
+   * Write the sections into the storage.
+   * Overriding methods should first delegate to super before adding their own sections.
+   */
+  protected void writeSections(final StorageAwareResource resource, final DataOutputStream dataOut) throws IOException {
+    final Procedure1<OutputStream> _function = (OutputStream it) -> {
+      try {
+        this.writeContents(resource, it);
+      } catch (Throwable _e) {
+        throw Exceptions.sneakyThrow(_e);
+      }
+    };
+    this.writeSection(dataOut, _function);
+    final Procedure1<OutputStream> _function_1 = (OutputStream it) -> {
+      try {
+        this.writeResourceDescription(resource, it);
+      } catch (Throwable _e) {
+        throw Exceptions.sneakyThrow(_e);
+      }
+    };
+    this.writeSection(dataOut, _function_1);
+    boolean _isStoreNodeModel = this.isStoreNodeModel();
+    if (_isStoreNodeModel) {
+      final Procedure1<OutputStream> _function_2 = (OutputStream it) -> {
+        try {
+          this.writeNodeModel(resource, it);
+        } catch (Throwable _e) {
+          throw Exceptions.sneakyThrow(_e);
+        }
+      };
+      this.writeSection(dataOut, _function_2);
+    }
+  }
+  
+  protected void writeSection(final DataOutputStream dataOut, final Procedure1<? super OutputStream> writer) throws IOException {
+    final ByteArrayOutputStream section = new ByteArrayOutputStream();
+    writer.apply(section);
+    dataOut.writeInt(section.size());
+    section.writeTo(dataOut);
+  }
+  
+  @Override
+  protected void writeResourceDescription(final StorageAwareResource resource, final OutputStream outputStream) throws IOException {
+    final SerializableResourceDescription serializableDescription = this.createSerializableResourceDescription(resource);
+    ResourceDescriptionsData _resourceDescriptionsData = new ResourceDescriptionsData(Collections.<IResourceDescription>unmodifiableList(CollectionLiterals.<IResourceDescription>newArrayList(serializableDescription)));
+    Pair<String, ResourceDescriptionsData> _mappedTo = Pair.<String, ResourceDescriptionsData>of("", _resourceDescriptionsData);
+    new MappedIndexFormat().write(Collections.<String, ResourceDescriptionsData>unmodifiableMap(CollectionLiterals.<String, ResourceDescriptionsData>newHashMap(_mappedTo)), outputStream);
+  }
+}
@@ -62,6 +62,15 @@ public class ResourceStorageFacade implements IResourceStorageFacade {
   @Accessors
   private boolean storeNodeModel = false;
   
+  /**
+   * Whether a stored node model is read when it is accessed for the first time rather than when the resource is
+   * loaded.
+   * 
+   * @since 2.14
+   */
+  @Accessors
+  private boolean loadNodeModelOnDemand = false;
+  
   /**
    * @return whether the given resource should be loaded from stored resource state
    */
@@ -143,7 +152,8 @@ public class ResourceStorageFacade implements IResourceStorageFacade {
   @Override
   public ResourceStorageLoadable createResourceStorageLoadable(final InputStream in) {
     boolean _isStoreNodeModel = this.isStoreNodeModel();
-    return new ResourceStorageLoadable(in, _isStoreNodeModel);
+    boolean _isLoadNodeModelOnDemand = this.isLoadNodeModelOnDemand();
+    return new ResourceStorageLoadable(in, _isStoreNodeModel, _isLoadNodeModelOnDemand);
   }
   
   @Override
@@ -216,4 +226,13 @@ public class ResourceStorageFacade implements IResourceStorageFacade {
   public void setStoreNodeModel(final boolean storeNodeModel) {
     this.storeNodeModel = storeNodeModel;
   }
+  
+  @Pure
+  public boolean isLoadNodeModelOnDemand() {
+    return this.loadNodeModelOnDemand;
+  }
+  
+  public void setLoadNodeModelOnDemand(final boolean loadNodeModelOnDemand) {
+    this.loadNodeModelOnDemand = loadNodeModelOnDemand;
+  }
 }
@@ -7,8 +7,10 @@
  */
 package org.eclipse.xtext.resource.persistence;
 
+import com.google.common.io.ByteStreams;
 import com.google.common.io.CharStreams;
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
@@ -21,7 +23,8 @@ import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.emf.ecore.InternalEObject;
 import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
-import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor;
+import org.eclipse.xtend.lib.annotations.AccessorType;
+import org.eclipse.xtend.lib.annotations.Accessors;
 import org.eclipse.xtext.nodemodel.impl.SerializableNodeModel;
 import org.eclipse.xtext.nodemodel.serialization.DeserializationConversionContext;
 import org.eclipse.xtext.parser.ParseResult;
@@ -30,19 +33,39 @@ import org.eclipse.xtext.resource.persistence.StorageAwareResource;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
 import org.eclipse.xtext.xbase.lib.Exceptions;
 import org.eclipse.xtext.xbase.lib.IterableExtensions;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure0;
+import org.eclipse.xtext.xbase.lib.Pure;
 
 /**
  * @author Sven Efftinge - Initial contribution and API
  */
-@FinalFieldsConstructor
 @SuppressWarnings("all")
 public class ResourceStorageLoadable {
   private final static Logger LOG = Logger.getLogger(ResourceStorageLoadable.class);
   
+  @Accessors(AccessorType.PROTECTED_GETTER)
   private final InputStream in;
   
+  @Accessors(AccessorType.PROTECTED_GETTER)
   private final boolean storeNodeModel;
   
+  @Accessors(AccessorType.PROTECTED_GETTER)
+  private final boolean loadNodeModelOnDemand;
+  
+  public ResourceStorageLoadable(final InputStream in, final boolean storeNodeModel) {
+    this(in, storeNodeModel, false);
+  }
+  
+  /**
+   * @param loadNodeModelOnDemand whether the node model is only read when it is accessed for the first time
+   * @since 2.14
+   */
+  public ResourceStorageLoadable(final InputStream in, final boolean storeNodeModel, final boolean loadNodeModelOnDemand) {
+    this.in = in;
+    this.storeNodeModel = storeNodeModel;
+    this.loadNodeModelOnDemand = loadNodeModelOnDemand;
+  }
+  
   protected void loadIntoResource(final StorageAwareResource resource) throws IOException {
     boolean _isLoadedFromStorage = resource.isLoadedFromStorage();
     boolean _not = (!_isLoadedFromStorage);
@@ -70,8 +93,21 @@ public class ResourceStorageLoadable {
     this.readResourceDescription(resource, _bufferedInputStream_1);
     if (this.storeNodeModel) {
       zipIn.getNextEntry();
-      BufferedInputStream _bufferedInputStream_2 = new BufferedInputStream(zipIn);
-      this.readNodeModel(resource, _bufferedInputStream_2);
+      if (this.loadNodeModelOnDemand) {
+        final byte[] nodeModel = ByteStreams.toByteArray(zipIn);
+        final Procedure0 _function = () -> {
+          try {
+            ByteArrayInputStream _byteArrayInputStream = new ByteArrayInputStream(nodeModel);
+            this.readNodeModel(resource, _byteArrayInputStream);
+          } catch (Throwable _e) {
+            throw Exceptions.sneakyThrow(_e);
+          }
+        };
+        resource.deferNodeModel(_function);
+      } else {
+        BufferedInputStream _bufferedInputStream_2 = new BufferedInputStream(zipIn);
+        this.readNodeModel(resource, _bufferedInputStream_2);
+      }
     }
   }
   
@@ -137,9 +173,18 @@ public class ResourceStorageLoadable {
     resource.setParseResult(_parseResult);
   }
   
-  public ResourceStorageLoadable(final InputStream in, final boolean storeNodeModel) {
-    super();
-    this.in = in;
-    this.storeNodeModel = storeNodeModel;
+  @Pure
+  protected InputStream getIn() {
+    return this.in;
+  }
+  
+  @Pure
+  protected boolean isStoreNodeModel() {
+    return this.storeNodeModel;
+  }
+  
+  @Pure
+  protected boolean isLoadNodeModelOnDemand() {
+    return this.loadNodeModelOnDemand;
   }
 }
@@ -19,6 +19,8 @@ import java.util.zip.ZipOutputStream;
 import org.eclipse.emf.common.util.URI;
 import org.eclipse.emf.ecore.InternalEObject;
 import org.eclipse.emf.ecore.resource.impl.BinaryResourceImpl;
+import org.eclipse.xtend.lib.annotations.AccessorType;
+import org.eclipse.xtend.lib.annotations.Accessors;
 import org.eclipse.xtend.lib.annotations.FinalFieldsConstructor;
 import org.eclipse.xtext.nodemodel.impl.SerializableNodeModel;
 import org.eclipse.xtext.nodemodel.serialization.SerializationConversionContext;
@@ -28,6 +30,7 @@ import org.eclipse.xtext.resource.persistence.SerializableReferenceDescription;
 import org.eclipse.xtext.resource.persistence.SerializableResourceDescription;
 import org.eclipse.xtext.resource.persistence.StorageAwareResource;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
+import org.eclipse.xtext.xbase.lib.Pure;
 
 /**
  * @author Sven Efftinge - Initial contribution and API
@@ -35,8 +38,10 @@ import org.eclipse.xtext.xbase.lib.CollectionLiterals;
 @FinalFieldsConstructor
 @SuppressWarnings("all")
 public class ResourceStorageWritable {
+  @Accessors(AccessorType.PROTECTED_GETTER)
   private final OutputStream out;
   
+  @Accessors(AccessorType.PROTECTED_GETTER)
   private final boolean storeNodeModel;
   
   public void writeResource(final StorageAwareResource resource) throws IOException {
@@ -127,9 +132,7 @@ public class ResourceStorageWritable {
   }
   
   protected void writeResourceDescription(final StorageAwareResource resource, final OutputStream outputStream) throws IOException {
-    final IResourceDescription description = resource.getResourceServiceProvider().getResourceDescriptionManager().getResourceDescription(resource);
-    final SerializableResourceDescription serializableDescription = SerializableResourceDescription.createCopy(description);
-    this.convertExternalURIsToPortableURIs(serializableDescription, resource);
+    final SerializableResourceDescription serializableDescription = this.createSerializableResourceDescription(resource);
     final ObjectOutputStream out = new ObjectOutputStream(outputStream);
     try {
       out.writeObject(serializableDescription);
@@ -138,6 +141,16 @@ public class ResourceStorageWritable {
     }
   }
   
+  /**
+   * @since 2.14
+   */
+  protected SerializableResourceDescription createSerializableResourceDescription(final StorageAwareResource resource) {
+    final IResourceDescription description = resource.getResourceServiceProvider().getResourceDescriptionManager().getResourceDescription(resource);
+    final SerializableResourceDescription serializableDescription = SerializableResourceDescription.createCopy(description);
+    this.convertExternalURIsToPortableURIs(serializableDescription, resource);
+    return serializableDescription;
+  }
+  
   protected void convertExternalURIsToPortableURIs(final SerializableResourceDescription description, final StorageAwareResource resource) {
     Iterable<IReferenceDescription> _referenceDescriptions = description.getReferenceDescriptions();
     for (final IReferenceDescription ref : _referenceDescriptions) {
@@ -171,4 +184,14 @@ public class ResourceStorageWritable {
     this.out = out;
     this.storeNodeModel = storeNodeModel;
   }
+  
+  @Pure
+  protected OutputStream getOut() {
+    return this.out;
+  }
+  
+  @Pure
+  protected boolean isStoreNodeModel() {
+    return this.storeNodeModel;
+  }
 }
@@ -12,12 +12,16 @@ import java.io.IOException;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
 import org.apache.log4j.Logger;
 import org.eclipse.emf.common.util.URI;
+import org.eclipse.emf.common.util.WrappedException;
 import org.eclipse.emf.ecore.EObject;
 import org.eclipse.xtend.lib.annotations.AccessorType;
 import org.eclipse.xtend.lib.annotations.Accessors;
 import org.eclipse.xtext.linking.lazy.LazyLinkingResource;
+import org.eclipse.xtext.nodemodel.util.NodeModelUtils;
+import org.eclipse.xtext.parser.IParseResult;
 import org.eclipse.xtext.resource.IResourceDescription;
 import org.eclipse.xtext.resource.persistence.IResourceStorageFacade;
 import org.eclipse.xtext.resource.persistence.PortableURIs;
@@ -25,6 +29,7 @@ import org.eclipse.xtext.resource.persistence.ResourceStorageLoadable;
 import org.eclipse.xtext.util.internal.Stopwatches;
 import org.eclipse.xtext.xbase.lib.CollectionLiterals;
 import org.eclipse.xtext.xbase.lib.Exceptions;
+import org.eclipse.xtext.xbase.lib.Procedures.Procedure0;
 import org.eclipse.xtext.xbase.lib.Pure;
 
 /**
@@ -52,6 +57,18 @@ public class StorageAwareResource extends LazyLinkingResource {
   @Accessors
   private IResourceDescription resourceDescription = null;
   
+  /**
+   * Reads the node model of a resource that was loaded from storage on first access. It is only reset once the node
+   * model has been loaded completely, so concurrent readers wait for the load to finish.
+   */
+  private volatile Procedure0 deferredNodeModel = null;
+  
+  /**
+   * Held while the deferred node model is loaded. This is an explicit lock rather than the monitor of this resource,
+   * so threads that wait for the load do not pin their carrier thread.
+   */
+  private final ReentrantLock nodeModelLock = new ReentrantLock();
+  
   @Override
   public void load(final Map<?, ?> options) throws IOException {
     if (((((!this.isLoaded) && (!this.isLoading)) && (this.resourceStorageFacade != null)) && this.resourceStorageFacade.shouldLoadFromStorage(this))) {
@@ -97,20 +114,78 @@ public class StorageAwareResource extends LazyLinkingResource {
     }
   }
   
+  /**
+   * Defers loading the node model until the parse result is requested or {@link NodeModelUtils} is asked for the
+   * node of an object in this resource.
+   * 
+   * @since 2.14
+   */
+  public void deferNodeModel(final Procedure0 nodeModelLoader) {
+    this.deferredNodeModel = nodeModelLoader;
+  }
+  
+  /**
+   * Loads the node model if its loading was deferred. If another thread is loading it, waits until it is loaded.
+   * If the loading fails, it is attempted again on the next call.
+   * 
+   * @return whether the node model was loaded since this method was called, i.e. whether the nodes have to be looked
+   *         up again
+   * @since 2.14
+   */
+  public boolean loadDeferredNodeModel() {
+    if ((this.deferredNodeModel == null)) {
+      return false;
+    }
+    boolean _isHeldByCurrentThread = this.nodeModelLock.isHeldByCurrentThread();
+    if (_isHeldByCurrentThread) {
+      return false;
+    }
+    this.nodeModelLock.lock();
+    try {
+      final Procedure0 nodeModelLoader = this.deferredNodeModel;
+      if ((nodeModelLoader == null)) {
+        return true;
+      }
+      nodeModelLoader.apply();
+      this.deferredNodeModel = null;
+      return true;
+    } catch (final Throwable _t) {
+      if (_t instanceof IOException) {
+        final IOException e = (IOException)_t;
+        throw new WrappedException(e);
+      } else {
+        throw Exceptions.sneakyThrow(_t);
+      }
+    } finally {
+      this.nodeModelLock.unlock();
+    }
+  }
+  
+  @Override
+  public IParseResult getParseResult() {
+    this.loadDeferredNodeModel();
+    return super.getParseResult();
+  }
+  
   @Override
   protected void doUnload() {
     super.doUnload();
     this.isLoadedFromStorage = false;
+    this.deferredNodeModel = null;
   }
   
   @Override
   protected void clearInternalState() {
     this.isLoadedFromStorage = false;
+    this.deferredNodeModel = null;
     super.clearInternalState();
   }
   
+  /**
+   * Not synchronized, a deferred node model that is needed to resolve the fragment is loaded under its own lock.
+   */
   @Override
-  public synchronized EObject getEObject(final String uriFragment) {
+  public EObject getEObject(final String uriFragment) {
     EObject _xblockexpression = null;
     {
       boolean _isPortableURIFragment = this.portableURIs.isPortableURIFragment(uriFragment);